@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench;
+
+/**
+ * This is the abstract base class for benchmarks. It carries the name and
+ * provides empty implementations for setting up and tearing down.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public abstract class AbstractBenchmark implements Benchmark {
+
+    /**
+     * The field <tt>name</tt> contains the name of the benchmark.
+     */
+    private String name;
+
+    /**
+     * Creates a new object.
+     *
+     * @param name the name of the benchmark
+     */
+    public AbstractBenchmark(final String name) {
+
+        super();
+        this.name = name;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#getName()
+     */
+    public String getName() {
+
+        return this.name;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#tearDown()
+     */
+    public void tearDown() throws Exception {
+
+    }
+
+}
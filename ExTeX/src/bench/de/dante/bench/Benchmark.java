@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench;
+
+/**
+ * This interface describes a micro benchmark. A benchmark is set up once,
+ * then its operation is invoked many times by the
+ * {@link de.dante.bench.BenchmarkRunner BenchmarkRunner}, and finally it is
+ * torn down.
+ *
+ * <p>
+ *  The operation returns some value derived from its work. The runner
+ *  consumes this value to prevent the virtual machine from eliminating the
+ *  operation as dead code.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface Benchmark {
+
+    /**
+     * Getter for the name of the benchmark. The name is used in the report.
+     * It should be unique within a suite.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Perform one operation of the benchmark.
+     *
+     * @return some value derived from the work done
+     *
+     * @throws Exception in case of an error
+     */
+    int run() throws Exception;
+
+    /**
+     * Prepare the benchmark. This method is invoked once before any
+     * operation is run.
+     *
+     * @throws Exception in case of an error
+     */
+    void setUp() throws Exception;
+
+    /**
+     * Release the resources acquired by the benchmark. This method is
+     * invoked once after the last operation.
+     *
+     * @throws Exception in case of an error
+     */
+    void tearDown() throws Exception;
+
+}
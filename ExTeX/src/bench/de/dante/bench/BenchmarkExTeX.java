@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import de.dante.extex.ExTeX;
+import de.dante.extex.backend.BackendDriver;
+import de.dante.extex.backend.documentWriter.DocumentWriterOptions;
+import de.dante.extex.backend.documentWriter.exception.DocumentWriterException;
+import de.dante.extex.backend.outputStream.OutputStreamFactory;
+import de.dante.extex.backend.outputStream.OutputStreamObserver;
+import de.dante.extex.font.FontFactory;
+import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.resource.ResourceFinder;
+
+/**
+ * This class provides an instance of <logo>ExTeX</logo> as fixture for
+ * benchmarks. It runs without log file and sends the main output to a
+ * {@link de.dante.bench.NullOutputStream NullOutputStream}. The fonts and
+ * input files are taken from the <tt>texmf</tt> trees of the distribution
+ * unless the properties say otherwise.
+ *
+ * <p>
+ *  After a run the interpreter is kept and can be used to get hold of the
+ *  context, the typesetter and the like. In addition the arguments used to
+ *  create the back-end are recorded. Thus further back-ends writing to
+ *  arbitrary streams can be created.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class BenchmarkExTeX extends ExTeX {
+
+    /**
+     * This output stream factory hands out one output stream for all
+     * requests.
+     */
+    private static final class StreamFactory implements OutputStreamFactory {
+
+        /**
+         * The field <tt>stream</tt> contains the stream to hand out.
+         */
+        private OutputStream stream;
+
+        /**
+         * Creates a new object.
+         *
+         * @param stream the stream to hand out
+         */
+        public StreamFactory(final OutputStream stream) {
+
+            super();
+            this.stream = stream;
+        }
+
+        /**
+         * @see de.dante.extex.backend.outputStream.OutputStreamFactory#getOutputStream(
+         *      java.lang.String, java.lang.String)
+         */
+        public OutputStream getOutputStream(final String name,
+                final String type) {
+
+            return stream;
+        }
+
+        /**
+         * @see de.dante.extex.backend.outputStream.OutputStreamFactory#register(
+         *      de.dante.extex.backend.outputStream.OutputStreamObserver)
+         */
+        public void register(final OutputStreamObserver observer) {
+
+        }
+
+        /**
+         * @see de.dante.extex.backend.outputStream.OutputStreamFactory#setExtension(
+         *      java.lang.String)
+         */
+        public void setExtension(final String extension) {
+
+        }
+    }
+
+    /**
+     * The constant <tt>CATCODES</tt> contains the code to set up the usual
+     * category codes for {, }, $, &amp;, #, ^, and _.
+     */
+    public static final String CATCODES = "\\catcode`\\{=1 "
+            + "\\catcode`\\}=2 " + "\\catcode`\\$=3 " + "\\catcode`\\&=4 "
+            + "\\catcode`\\#=6 " + "\\catcode`\\^=7 " + "\\catcode`\\_=8 ";
+
+    /**
+     * The constant <tt>HYPHEN</tt> contains the code to load the hyphenation
+     * patterns of <tt>hyphen.tex</tt> into the language <tt>0</tt>. This is
+     * the language of the initial typesetting context. The primitive
+     * <tt>\patterns</tt> stores into the language named by <tt>\lang</tt>.
+     */
+    public static final String HYPHEN = "\\lang{0}\\input hyphen ";
+
+    /**
+     * The constant <tt>FONTS</tt> contains the default directories for fonts.
+     */
+    private static final String FONTS = "develop/lib/texmf/fonts/tfm/public/cm"
+            + File.pathSeparator + "src/font";
+
+    /**
+     * The constant <tt>TEXINPUTS</tt> contains the default directories for
+     * input files.
+     */
+    private static final String TEXINPUTS = "texmf" + File.pathSeparator
+            + "develop/lib/texmf/tex/generic/hyphen";
+
+    /**
+     * Create the properties for a run. The system properties are taken as
+     * defaults.
+     *
+     * @param code the code to run
+     *
+     * @return the new properties
+     */
+    public static Properties makeProperties(final String code) {
+
+        Properties properties = new Properties();
+        properties.putAll(System.getProperties());
+        provide(properties, "extex.fonts", FONTS);
+        provide(properties, "texinputs", TEXINPUTS);
+        provide(properties, "extex.interaction", "batchmode");
+        provide(properties, "extex.jobname", "bench");
+        properties.setProperty("extex.nobanner", "true");
+        properties.setProperty("extex.file", "");
+        properties.setProperty("extex.code", code);
+        return properties;
+    }
+
+    /**
+     * Read a font file completely. The file is searched in the directories
+     * of the property <tt>extex.fonts</tt>.
+     *
+     * @param name the name of the file including the extension
+     *
+     * @return the contents of the file
+     *
+     * @throws IOException in case of an error
+     */
+    public static byte[] readFont(final String name) throws IOException {
+
+        String[] dirs = makeProperties("").getProperty("extex.fonts").split(
+            File.pathSeparator);
+        for (int i = 0; i < dirs.length; i++) {
+            File file = new File(dirs[i], name);
+            if (file.canRead()) {
+                InputStream in = new FileInputStream(file);
+                try {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                        out.write(buffer, 0, n);
+                    }
+                    return out.toByteArray();
+                } finally {
+                    in.close();
+                }
+            }
+        }
+        throw new FileNotFoundException(name);
+    }
+
+    /**
+     * Set a property if it has not been set yet.
+     *
+     * @param properties the properties to modify
+     * @param name the name of the property
+     * @param value the new value
+     */
+    private static void provide(final Properties properties, final String name,
+            final String value) {
+
+        if (properties.getProperty(name) == null) {
+            properties.setProperty(name, value);
+        }
+    }
+
+    /**
+     * The field <tt>backendConfig</tt> contains the configuration of the
+     * back-end.
+     */
+    private Configuration backendConfig = null;
+
+    /**
+     * The field <tt>colorConfig</tt> contains the configuration of the color
+     * converter.
+     */
+    private Configuration colorConfig = null;
+
+    /**
+     * The field <tt>finder</tt> contains the resource finder.
+     */
+    private ResourceFinder finder = null;
+
+    /**
+     * The field <tt>fontFactory</tt> contains the font factory.
+     */
+    private FontFactory fontFactory = null;
+
+    /**
+     * The field <tt>options</tt> contains the options for the document
+     * writer.
+     */
+    private DocumentWriterOptions options = null;
+
+    /**
+     * The field <tt>output</tt> contains the stream for the main output.
+     */
+    private NullOutputStream output = new NullOutputStream();
+
+    /**
+     * Creates a new object.
+     *
+     * @param code the code to run
+     *
+     * @throws InterpreterException in case of an error
+     */
+    public BenchmarkExTeX(final String code) throws InterpreterException {
+
+        this(makeProperties(code));
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param properties the properties
+     *
+     * @throws InterpreterException in case of an error
+     */
+    public BenchmarkExTeX(final Properties properties)
+            throws InterpreterException {
+
+        super(properties);
+        setOutStream(output);
+    }
+
+    /**
+     * Getter for the stream receiving the main output.
+     *
+     * @return the output stream
+     */
+    public NullOutputStream getOutput() {
+
+        return this.output;
+    }
+
+    /**
+     * @see de.dante.extex.ExTeX#makeBackend(
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.extex.backend.outputStream.OutputStreamFactory,
+     *      de.dante.extex.backend.documentWriter.DocumentWriterOptions,
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.util.resource.ResourceFinder,
+     *      de.dante.extex.font.FontFactory)
+     */
+    protected BackendDriver makeBackend(final Configuration config,
+            final OutputStreamFactory outFactory,
+            final DocumentWriterOptions theOptions,
+            final Configuration theColorConfig,
+            final ResourceFinder theFinder, final FontFactory theFontFactory)
+            throws DocumentWriterException,
+                ConfigurationException {
+
+        backendConfig = config;
+        options = theOptions;
+        colorConfig = theColorConfig;
+        finder = theFinder;
+        fontFactory = theFontFactory;
+        return super.makeBackend(config, outFactory, theOptions,
+            theColorConfig, theFinder, theFontFactory);
+    }
+
+    /**
+     * Create a new back-end of a given type. It is configured like the
+     * back-end of the last run.
+     *
+     * @param type the type of the document writer, e.g. <tt>dvi</tt>
+     * @param stream the target stream
+     *
+     * @return the new back-end
+     *
+     * @throws DocumentWriterException in case of an error
+     * @throws ConfigurationException in case of a configuration problem
+     */
+    public BackendDriver makeBackend(final String type,
+            final OutputStream stream)
+            throws DocumentWriterException,
+                ConfigurationException {
+
+        if (backendConfig == null) {
+            throw new IllegalStateException("makeBackend");
+        }
+        Properties properties = getProperties();
+        String save = properties.getProperty("extex.output");
+        properties.setProperty("extex.output", type);
+        try {
+            return super.makeBackend(backendConfig, new StreamFactory(stream),
+                options, colorConfig, finder, fontFactory);
+        } finally {
+            properties.setProperty("extex.output", save);
+        }
+    }
+
+    /**
+     * No log file is written for benchmarks.
+     *
+     * @see de.dante.extex.ExTeX#makeLogFile(java.lang.String)
+     */
+    protected File makeLogFile(final String jobname) {
+
+        return null;
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class collects the measurements of one benchmark. Each measured
+ * iteration contributes the number of operations performed and the time
+ * spent. The score of an iteration is the average time per operation in
+ * nanoseconds.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class BenchmarkResult {
+
+    /**
+     * The field <tt>error</tt> contains the exception which aborted the
+     * benchmark or <code>null</code>.
+     */
+    private Throwable error = null;
+
+    /**
+     * The field <tt>name</tt> contains the name of the benchmark.
+     */
+    private String name;
+
+    /**
+     * The field <tt>iterations</tt> contains the measured iterations. The
+     * elements are of type <tt>long[]</tt> containing the
+     * number of operations and the time in milliseconds.
+     */
+    private List iterations = new ArrayList();
+
+    /**
+     * Creates a new object.
+     *
+     * @param name the name of the benchmark
+     */
+    public BenchmarkResult(final String name) {
+
+        super();
+        this.name = name;
+    }
+
+    /**
+     * Add the measurement of an iteration.
+     *
+     * @param ops the number of operations
+     * @param millis the time spent in milliseconds
+     */
+    public void add(final long ops, final long millis) {
+
+        iterations.add(new long[]{ops, millis});
+    }
+
+    /**
+     * Getter for the error.
+     *
+     * @return the error or <code>null</code>
+     */
+    public Throwable getError() {
+
+        return this.error;
+    }
+
+    /**
+     * Getter for the number of measured iterations.
+     *
+     * @return the number of iterations
+     */
+    public int getIterations() {
+
+        return iterations.size();
+    }
+
+    /**
+     * Getter for the largest score.
+     *
+     * @return the largest score in ns/op
+     */
+    public double getMax() {
+
+        double max = 0;
+        for (int i = 0; i < iterations.size(); i++) {
+            max = Math.max(max, getScore(i));
+        }
+        return max;
+    }
+
+    /**
+     * Getter for the mean score.
+     *
+     * @return the mean score in ns/op
+     */
+    public double getMean() {
+
+        int n = iterations.size();
+        if (n == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += getScore(i);
+        }
+        return sum / n;
+    }
+
+    /**
+     * Getter for the smallest score.
+     *
+     * @return the smallest score in ns/op
+     */
+    public double getMin() {
+
+        int n = iterations.size();
+        if (n == 0) {
+            return 0;
+        }
+        double min = getScore(0);
+        for (int i = 1; i < n; i++) {
+            min = Math.min(min, getScore(i));
+        }
+        return min;
+    }
+
+    /**
+     * Getter for the name.
+     *
+     * @return the name
+     */
+    public String getName() {
+
+        return this.name;
+    }
+
+    /**
+     * Getter for the number of operations of an iteration.
+     *
+     * @param i the index of the iteration
+     *
+     * @return the number of operations
+     */
+    public long getOps(final int i) {
+
+        return ((long[]) iterations.get(i))[0];
+    }
+
+    /**
+     * Getter for the score of an iteration.
+     *
+     * @param i the index of the iteration
+     *
+     * @return the score in ns/op
+     */
+    public double getScore(final int i) {
+
+        long[] it = (long[]) iterations.get(i);
+        return it[0] == 0 ? 0 : it[1] * 1000000.0 / it[0];
+    }
+
+    /**
+     * Getter for the sample standard deviation of the scores.
+     *
+     * @return the standard deviation in ns/op
+     */
+    public double getStdDev() {
+
+        int n = iterations.size();
+        if (n < 2) {
+            return 0;
+        }
+        double mean = getMean();
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double d = getScore(i) - mean;
+            sum += d * d;
+        }
+        return Math.sqrt(sum / (n - 1));
+    }
+
+    /**
+     * Getter for the time of an iteration.
+     *
+     * @param i the index of the iteration
+     *
+     * @return the time in milliseconds
+     */
+    public long getTime(final int i) {
+
+        return ((long[]) iterations.get(i))[1];
+    }
+
+    /**
+     * Setter for the error.
+     *
+     * @param error the error
+     */
+    public void setError(final Throwable error) {
+
+        this.error = error;
+    }
+
+}
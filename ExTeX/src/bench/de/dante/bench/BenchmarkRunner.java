@@ -0,0 +1,469 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import de.dante.bench.backend.PageWriterBenchmark;
+import de.dante.bench.font.TfmLoadBenchmark;
+import de.dante.bench.font.XtfLoadBenchmark;
+import de.dante.bench.interpreter.GroupBenchmark;
+import de.dante.bench.interpreter.MacroExpansionBenchmark;
+import de.dante.bench.language.HyphenationBenchmark;
+import de.dante.bench.scanner.TokenStreamBenchmark;
+import de.dante.bench.typesetter.ParagraphBenchmark;
+
+/**
+ * This class runs a suite of micro benchmarks and reports the results.
+ *
+ * <p>
+ *  Each benchmark is set up once. Then a number of warm-up iterations is
+ *  run to give the virtual machine a chance to compile the hot code. They
+ *  are followed by the measured iterations. Each iteration invokes the
+ *  operation of the benchmark until the given time has elapsed. The score
+ *  of an iteration is the average time per operation.
+ * </p>
+ * <p>
+ *  The results are printed to standard output. In addition they can be
+ *  written to an XML file for further processing, e.g. to compare releases.
+ * </p>
+ *
+ * <h3>Command Line</h3>
+ *
+ * <pre>
+ *  java de.dante.bench.BenchmarkRunner [options]
+ * </pre>
+ *
+ * <dl>
+ *  <dt><tt>-warmup</tt> <i>n</i></dt>
+ *  <dd>the number of warm-up iterations; the default is 5</dd>
+ *  <dt><tt>-iterations</tt> <i>n</i></dt>
+ *  <dd>the number of measured iterations; the default is 10</dd>
+ *  <dt><tt>-time</tt> <i>ms</i></dt>
+ *  <dd>the minimal duration of an iteration in milliseconds; the default
+ *   is 1000</dd>
+ *  <dt><tt>-filter</tt> <i>regex</i></dt>
+ *  <dd>run only the benchmarks whose name contains a match of the regular
+ *   expression</dd>
+ *  <dt><tt>-release</tt> <i>name</i></dt>
+ *  <dd>the name of the release to record in the results</dd>
+ *  <dt><tt>-out</tt> <i>file</i></dt>
+ *  <dd>the XML file to write the results to</dd>
+ * </dl>
+ *
+ * <h3>Result File</h3>
+ *
+ * <pre>
+ *  &lt;benchmarks release="..." date="..." java.version="..." ...&gt;
+ *    &lt;benchmark name="scanner.plain" unit="ns/op" mean="..."
+ *               error="..." min="..." max="..."&gt;
+ *      &lt;iteration ops="..." time="..." score="..."/&gt;
+ *      ...
+ *    &lt;/benchmark&gt;
+ *    &lt;benchmark name="..." failed="..."/&gt;
+ *  &lt;/benchmarks&gt;
+ * </pre>
+ * <p>
+ *  The attribute <tt>error</tt> contains the standard deviation of the
+ *  scores. The time is given in milliseconds.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class BenchmarkRunner {
+
+    /**
+     * The field <tt>sink</tt> receives the values returned by the
+     * operations. It is never read but keeps the virtual machine from
+     * optimizing the operations away.
+     */
+    private static volatile int sink = 0;
+
+    /**
+     * Command line interface.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(final String[] args) {
+
+        BenchmarkRunner runner = new BenchmarkRunner();
+        String out = null;
+        Pattern filter = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                if (a.equals("-warmup")) {
+                    runner.setWarmup(Integer.parseInt(args[++i]));
+                } else if (a.equals("-iterations")) {
+                    runner.setIterations(Integer.parseInt(args[++i]));
+                } else if (a.equals("-time")) {
+                    runner.setTime(Long.parseLong(args[++i]));
+                } else if (a.equals("-filter")) {
+                    filter = Pattern.compile(args[++i]);
+                } else if (a.equals("-release")) {
+                    runner.setRelease(args[++i]);
+                } else if (a.equals("-out")) {
+                    out = args[++i];
+                } else {
+                    System.err.println("Unknown argument: " + a);
+                    System.exit(2);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            System.err.println("Missing value for " + args[args.length - 1]);
+            System.exit(2);
+        } catch (NumberFormatException e) {
+            System.err.println("Illegal number: " + e.getLocalizedMessage());
+            System.exit(2);
+        }
+
+        Benchmark[] suite = makeSuite();
+        List results = new ArrayList();
+        boolean failed = false;
+
+        for (int i = 0; i < suite.length; i++) {
+            if (filter != null && !filter.matcher(suite[i].getName()).find()) {
+                continue;
+            }
+            BenchmarkResult result = runner.run(suite[i]);
+            runner.print(result, System.out);
+            results.add(result);
+            failed |= result.getError() != null;
+        }
+
+        if (out != null) {
+            try {
+                runner.write(results, new File(out));
+            } catch (IOException e) {
+                System.err.println(e.getLocalizedMessage());
+                System.exit(1);
+            }
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * Create the list of all benchmarks.
+     *
+     * @return the benchmarks
+     */
+    public static Benchmark[] makeSuite() {
+
+        return new Benchmark[]{
+                new TokenStreamBenchmark("scanner.plain",
+                    TokenStreamBenchmark.PLAIN),
+                new TokenStreamBenchmark("scanner.macros",
+                    TokenStreamBenchmark.MACROS),
+                new MacroExpansionBenchmark(), //
+                new MacroExpansionBenchmark("interpreter.macros.traced", true),
+                new GroupBenchmark(), //
+                new TfmLoadBenchmark(), //
+                new XtfLoadBenchmark("font.ttf", "Gara.ttf"),
+                new HyphenationBenchmark(), //
+                new ParagraphBenchmark(), //
+                new PageWriterBenchmark("backend.dvi", "dvi"),
+                new PageWriterBenchmark("backend.ps", "ps")};
+    }
+
+    /**
+     * The field <tt>iterations</tt> contains the number of measured
+     * iterations.
+     */
+    private int iterations = 10;
+
+    /**
+     * The field <tt>release</tt> contains the name of the release.
+     */
+    private String release = "";
+
+    /**
+     * The field <tt>time</tt> contains the minimal duration of an iteration
+     * in milliseconds.
+     */
+    private long time = 1000;
+
+    /**
+     * The field <tt>warmup</tt> contains the number of warm-up iterations.
+     */
+    private int warmup = 5;
+
+    /**
+     * Creates a new object.
+     */
+    public BenchmarkRunner() {
+
+        super();
+    }
+
+    /**
+     * Format a score.
+     *
+     * @param value the value
+     *
+     * @return the formatted value
+     */
+    public static String format(final double value) {
+
+        return new DecimalFormat("0.000", new DecimalFormatSymbols(Locale.US))
+                .format(value);
+    }
+
+    /**
+     * Run one iteration of a benchmark.
+     *
+     * @param benchmark the benchmark
+     * @param result the result to add the measurement to or
+     *  <code>null</code> for a warm-up iteration
+     *
+     * @throws Exception in case of an error
+     */
+    private void iterate(final Benchmark benchmark,
+            final BenchmarkResult result) throws Exception {
+
+        int value = 0;
+        long ops = 0;
+        long start = System.currentTimeMillis();
+        long end = start + time;
+        long now;
+        do {
+            value += benchmark.run();
+            ops++;
+            now = System.currentTimeMillis();
+        } while (now < end);
+
+        sink += value;
+        if (result != null) {
+            result.add(ops, now - start);
+        }
+    }
+
+    /**
+     * Print a line with the result of a benchmark.
+     *
+     * @param result the result
+     * @param out the target stream
+     */
+    public void print(final BenchmarkResult result, final PrintStream out) {
+
+        StringBuffer sb = new StringBuffer(result.getName());
+        do {
+            sb.append(' ');
+        } while (sb.length() < 24);
+
+        Throwable error = result.getError();
+        if (error != null) {
+            sb.append("FAILED: ");
+            sb.append(error.toString());
+        } else {
+            sb.append(format(result.getMean()));
+            sb.append(" +- ");
+            sb.append(format(result.getStdDev()));
+            sb.append(" ns/op");
+        }
+        out.println(sb.toString());
+    }
+
+    /**
+     * Run a benchmark.
+     *
+     * @param benchmark the benchmark
+     *
+     * @return the result
+     */
+    public BenchmarkResult run(final Benchmark benchmark) {
+
+        BenchmarkResult result = new BenchmarkResult(benchmark.getName());
+        try {
+            benchmark.setUp();
+            for (int i = 0; i < warmup; i++) {
+                iterate(benchmark, null);
+            }
+            for (int i = 0; i < iterations; i++) {
+                iterate(benchmark, result);
+            }
+        } catch (Exception e) {
+            result.setError(e);
+        } finally {
+            try {
+                benchmark.tearDown();
+            } catch (Exception e) {
+                if (result.getError() == null) {
+                    result.setError(e);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Setter for the number of measured iterations.
+     *
+     * @param iterations the number of iterations
+     */
+    public void setIterations(final int iterations) {
+
+        this.iterations = iterations;
+    }
+
+    /**
+     * Setter for the name of the release.
+     *
+     * @param release the release
+     */
+    public void setRelease(final String release) {
+
+        this.release = release;
+    }
+
+    /**
+     * Setter for the minimal duration of an iteration.
+     *
+     * @param time the time in milliseconds
+     */
+    public void setTime(final long time) {
+
+        this.time = time;
+    }
+
+    /**
+     * Setter for the number of warm-up iterations.
+     *
+     * @param warmup the number of iterations
+     */
+    public void setWarmup(final int warmup) {
+
+        this.warmup = warmup;
+    }
+
+    /**
+     * Write the results to an XML file.
+     *
+     * @param results the list of results
+     * @param file the target file
+     *
+     * @throws IOException in case of an error
+     */
+    public void write(final List results, final File file) throws IOException {
+
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null) {
+            dir.mkdirs();
+        }
+        Writer w = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            w.write("<benchmarks");
+            writeAttribute(w, "release", release);
+            writeAttribute(w, "date", new SimpleDateFormat(
+                "yyyy-MM-dd'T'HH:mm:ss").format(new Date()));
+            writeAttribute(w, "java.version", System
+                .getProperty("java.version"));
+            writeAttribute(w, "java.vm.name", System
+                .getProperty("java.vm.name"));
+            writeAttribute(w, "os.name", System.getProperty("os.name"));
+            writeAttribute(w, "warmup", Integer.toString(warmup));
+            writeAttribute(w, "iterations", Integer.toString(iterations));
+            writeAttribute(w, "time", Long.toString(time));
+            w.write(">\n");
+
+            for (int i = 0; i < results.size(); i++) {
+                BenchmarkResult result = (BenchmarkResult) results.get(i);
+                w.write("  <benchmark");
+                writeAttribute(w, "name", result.getName());
+                Throwable error = result.getError();
+                if (error != null) {
+                    writeAttribute(w, "failed", error.toString());
+                    w.write("/>\n");
+                    continue;
+                }
+                writeAttribute(w, "unit", "ns/op");
+                writeAttribute(w, "mean", format(result.getMean()));
+                writeAttribute(w, "error", format(result.getStdDev()));
+                writeAttribute(w, "min", format(result.getMin()));
+                writeAttribute(w, "max", format(result.getMax()));
+                w.write(">\n");
+                for (int j = 0; j < result.getIterations(); j++) {
+                    w.write("    <iteration");
+                    writeAttribute(w, "ops", Long.toString(result.getOps(j)));
+                    writeAttribute(w, "time", Long.toString(result.getTime(j)));
+                    writeAttribute(w, "score", format(result.getScore(j)));
+                    w.write("/>\n");
+                }
+                w.write("  </benchmark>\n");
+            }
+            w.write("</benchmarks>\n");
+        } finally {
+            w.close();
+        }
+    }
+
+    /**
+     * Write an attribute with its value escaped.
+     *
+     * @param w the target writer
+     * @param name the name of the attribute
+     * @param value the value of the attribute
+     *
+     * @throws IOException in case of an error
+     */
+    public static void writeAttribute(final Writer w, final String name,
+            final String value) throws IOException {
+
+        w.write(' ');
+        w.write(name);
+        w.write("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    w.write("&lt;");
+                    break;
+                case '>':
+                    w.write("&gt;");
+                    break;
+                case '&':
+                    w.write("&amp;");
+                    break;
+                case '"':
+                    w.write("&quot;");
+                    break;
+                default:
+                    w.write(c);
+            }
+        }
+        w.write('"');
+    }
+
+}
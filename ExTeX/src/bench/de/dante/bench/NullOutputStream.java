@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench;
+
+import java.io.OutputStream;
+
+/**
+ * This output stream discards all bytes written to it. It counts them
+ * instead.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class NullOutputStream extends OutputStream {
+
+    /**
+     * The field <tt>count</tt> contains the number of bytes written.
+     */
+    private long count = 0;
+
+    /**
+     * Creates a new object.
+     */
+    public NullOutputStream() {
+
+        super();
+    }
+
+    /**
+     * Getter for the number of bytes written so far.
+     *
+     * @return the number of bytes
+     */
+    public long getCount() {
+
+        return this.count;
+    }
+
+    /**
+     * @see java.io.OutputStream#write(byte[], int, int)
+     */
+    public void write(final byte[] b, final int off, final int len) {
+
+        count += len;
+    }
+
+    /**
+     * @see java.io.OutputStream#write(int)
+     */
+    public void write(final int b) {
+
+        count++;
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench;
+
+/**
+ * This class provides synthetic input for benchmarks. The text is generated
+ * from a fixed vocabulary with a fixed seed. Thus each call with the same
+ * arguments produces the same text.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public final class SampleText {
+
+    /**
+     * The constant <tt>WORDS</tt> contains the vocabulary. It mixes short
+     * and long words to give the hyphenation something to do.
+     */
+    private static final String[] WORDS = {"the", "of", "and", "a", "to",
+            "in", "is", "typesetting", "paragraph", "hyphenation",
+            "interpreter", "mathematics", "document", "character", "program",
+            "algorithm", "representation", "independent", "consequently",
+            "approximately", "typographical", "experience", "with", "which",
+            "beautiful", "books", "especially", "contain", "formulas",
+            "computer", "quality", "line", "breaking", "pages", "fonts",
+            "register", "expansion", "macro", "definition", "box", "glue",
+            "penalty", "discretionary", "ligature", "kerning", "output"};
+
+    /**
+     * Produce a paragraph of prose.
+     *
+     * @param words the number of words
+     * @param seed the seed for the selection of the words
+     *
+     * @return the text
+     */
+    public static String prose(final int words, final int seed) {
+
+        StringBuffer sb = new StringBuffer();
+        int x = seed;
+        for (int i = 0; i < words; i++) {
+            // a linear congruential generator is good enough for text
+            x = x * 1103515245 + 12345;
+            if (i > 0) {
+                sb.append(i % 12 == 0 ? ". " : " ");
+            }
+            sb.append(WORDS[(x >>> 16) % WORDS.length]);
+        }
+        sb.append('.');
+        return sb.toString();
+    }
+
+    /**
+     * Creates a new object.
+     * This constructor is private since the class provides static methods
+     * only.
+     */
+    private SampleText() {
+
+        super();
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.backend;
+
+import java.util.logging.Logger;
+
+import de.dante.bench.AbstractBenchmark;
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.bench.NullOutputStream;
+import de.dante.bench.SampleText;
+import de.dante.extex.backend.BackendDriver;
+import de.dante.extex.interpreter.Interpreter;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.typesetter.type.page.Page;
+import de.dante.extex.typesetter.type.page.PageFactory;
+
+/**
+ * This benchmark measures the writing of pages by a back-end. A page full
+ * of text is typeset once. One operation ships it out through a back-end
+ * of the given type. All pages go into the same document, which is
+ * discarded.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class PageWriterBenchmark extends AbstractBenchmark {
+
+    /**
+     * The field <tt>backend</tt> contains the back-end.
+     */
+    private BackendDriver backend;
+
+    /**
+     * The field <tt>output</tt> contains the target stream.
+     */
+    private NullOutputStream output;
+
+    /**
+     * The field <tt>page</tt> contains the page to ship out.
+     */
+    private Page page;
+
+    /**
+     * The field <tt>type</tt> contains the type of the document writer.
+     */
+    private String type;
+
+    /**
+     * Creates a new object.
+     *
+     * @param name the name
+     * @param type the type of the document writer, e.g. <tt>dvi</tt>
+     */
+    public PageWriterBenchmark(final String name, final String type) {
+
+        super(name);
+        this.type = type;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#run()
+     */
+    public int run() throws Exception {
+
+        return backend.shipout(page);
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+        StringBuffer text = new StringBuffer();
+        for (int i = 0; i < 6; i++) {
+            text.append(SampleText.prose(80, i));
+            text.append("\\par ");
+        }
+        BenchmarkExTeX extex = new BenchmarkExTeX(BenchmarkExTeX.CATCODES
+                + "\\font\\rm=cmr10 \\rm \\hsize=300pt \\parindent=20pt "
+                + "\\setbox1=\\vbox{" + text + "}");
+        Interpreter interpreter = extex.run();
+        Context context = interpreter.getContext();
+
+        PageFactory factory = new PageFactory();
+        factory.enableLogging(Logger.getLogger(getClass().getName()));
+        page = factory.newInstance(context.getBox("1").getNodes(), context,
+            interpreter.getTypesetter());
+
+        output = new NullOutputStream();
+        backend = extex.makeBackend(type, output);
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#tearDown()
+     */
+    public void tearDown() throws Exception {
+
+        if (backend != null) {
+            backend.close();
+        }
+    }
+
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.bench.SampleText;
+
+/**
+ * This class provides the synthetic documents of the corpus. The documents
+ * do not need a format. They bring along the few definitions they need and
+ * use the fonts and hyphenation patterns of the distribution only.
+ *
+ * <p>
+ *  The size of each document is proportional to a scale factor. With the
+ *  factor 1 each document produces a few dozen pages.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public final class Corpus {
+
+    /**
+     * The constant <tt>NAMES</tt> contains the names of the documents.
+     */
+    private static final String[] NAMES = {"plain", "macros", "tables",
+            "math", "fonts"};
+
+    /**
+     * The constant <tt>PRELUDE</tt> contains the code common to all
+     * documents. <tt>\lang</tt> is not available in the <logo>TeX</logo>
+     * compatibility mode. Thus the hyphenation patterns are loaded in a box
+     * which is thrown away; it catches whatever remains of the
+     * <tt>\lang</tt> assignment when the primitive is undefined.
+     */
+    private static final String PRELUDE = BenchmarkExTeX.CATCODES
+            + "\\catcode`\\~=13 "
+            + "\\setbox0=\\hbox{\\csname lang\\endcsname{0}\\input hyphen }"
+            + "\\font\\tenrm=cmr10 \\font\\sevenrm=cmr7 \\font\\fiverm=cmr5 "
+            + "\\tenrm \\hsize=345pt \\vsize=550pt \\parindent=15pt "
+            + "\\baselineskip=12pt \\lineskip=1pt \\lineskiplimit=0pt "
+            + "\\topskip=10pt \\maxdepth=2pt \\parskip=0pt plus 1pt "
+            + "\\parfillskip=0pt plus 1fil \\pretolerance=100 "
+            + "\\tolerance=200 \\hyphenpenalty=50 \\exhyphenpenalty=50 "
+            + "\\widowpenalty=150 \\clubpenalty=150 \\linepenalty=10 "
+            + "\\def\\space{ }\\def~{\\penalty10000\\ }";
+
+    /**
+     * Produce a document with a lot of font changes.
+     *
+     * @param scale the scale factor
+     *
+     * @return the code of the document
+     */
+    private static String fonts(final int scale) {
+
+        StringBuffer sb = new StringBuffer(PRELUDE);
+        sb.append("\\font\\bf=cmbx10 \\font\\it=cmti10 \\font\\sl=cmsl10 "
+                + "\\font\\tt=cmtt10 \\font\\ss=cmss10 \\font\\sc=cmcsc10 "
+                + "\\font\\big=cmr12 \\font\\bigbf=cmbx12 ");
+        String[] fonts = {"\\tenrm", "\\bf", "\\it", "\\sl", "\\tt", "\\ss",
+                "\\sc", "\\big", "\\bigbf"};
+        for (int i = 0; i < 80 * scale; i++) {
+            for (int j = 0; j < 8; j++) {
+                sb.append('{');
+                sb.append(fonts[(i + 3 * j) % fonts.length]);
+                sb.append(' ');
+                sb.append(SampleText.prose(14, 8 * i + j));
+                sb.append(".} ");
+            }
+            sb.append("\\par\n");
+        }
+        sb.append("\\end ");
+        return sb.toString();
+    }
+
+    /**
+     * Produce a document which is dominated by macro expansion. It defines
+     * a small macro package first. Each word of the text is passed through
+     * a macro which defines a control sequence for the word with
+     * <tt>\csname</tt> and expands it.
+     *
+     * @param scale the scale factor
+     *
+     * @return the code of the document
+     */
+    private static String macros(final int scale) {
+
+        StringBuffer sb = new StringBuffer(PRELUDE);
+        sb.append("\\font\\bf=cmbx10 \\font\\it=cmti10 "
+                + "\\countdef\\words=10 \\countdef\\sect=11 "
+                + "\\def\\loop#1\\repeat{\\def\\body{#1}\\iterate}"
+                + "\\def\\iterate{\\body\\let\\next\\iterate"
+                + "\\else\\let\\next\\relax\\fi\\next}"
+                + "\\def\\w#1{\\global\\advance\\words by 1 "
+                + "\\expandafter\\xdef\\csname w@#1\\endcsname{#1}"
+                + "\\csname w@#1\\endcsname\\space}"
+                + "\\def\\emph#1{{\\it #1\\/}}"
+                + "\\def\\section#1{\\par\\global\\advance\\sect by 1 "
+                + "\\vskip 12pt plus 4pt minus 2pt"
+                + "\\noindent{\\bf\\the\\sect\\hskip 1em #1}\\par"
+                + "\\penalty10000 \\vskip 6pt\\relax}"
+                + "\\def\\rule#1{\\count1=0 \\loop\\advance\\count1 by 1 "
+                + "\\ifnum\\count1<#1 \\vrule width 2pt height 4pt\\kern1pt"
+                + "\\repeat}");
+        for (int i = 0; i < 20 * scale; i++) {
+            sb.append("\\section{");
+            sb.append(SampleText.prose(4, 100 + i));
+            sb.append("}\n");
+            for (int k = 0; k < 3; k++) {
+                String[] words = SampleText.prose(100, 7 * i + k).split(" ");
+                for (int j = 0; j < words.length; j++) {
+                    if (j % 17 == 5) {
+                        sb.append("\\emph{");
+                        sb.append(words[j]);
+                        sb.append("} ");
+                    } else {
+                        sb.append("\\w{");
+                        sb.append(words[j]);
+                        sb.append('}');
+                    }
+                }
+                sb.append("\\rule{20}\\par\n");
+            }
+        }
+        sb.append("\\end ");
+        return sb.toString();
+    }
+
+    /**
+     * Produce a document with inline and display math.
+     *
+     * @param scale the scale factor
+     *
+     * @return the code of the document
+     */
+    private static String math(final int scale) {
+
+        StringBuffer sb = new StringBuffer(PRELUDE);
+        sb.append("\\font\\teni=cmmi10 \\font\\seveni=cmmi7 "
+                + "\\font\\fivei=cmmi5 \\font\\tensy=cmsy10 "
+                + "\\font\\sevensy=cmsy7 \\font\\fivesy=cmsy5 "
+                + "\\font\\tenex=cmex10 "
+                + "\\textfont0=\\tenrm \\scriptfont0=\\sevenrm "
+                + "\\scriptscriptfont0=\\fiverm "
+                + "\\textfont1=\\teni \\scriptfont1=\\seveni "
+                + "\\scriptscriptfont1=\\fivei "
+                + "\\textfont2=\\tensy \\scriptfont2=\\sevensy "
+                + "\\scriptscriptfont2=\\fivesy "
+                + "\\textfont3=\\tenex \\scriptfont3=\\tenex "
+                + "\\scriptscriptfont3=\\tenex "
+                + "\\mathcode`\\+=\"202B \\mathcode`\\-=\"2200 "
+                + "\\mathchardef\\alpha=\"10B "
+                + "\\thinmuskip=3mu "
+                + "\\medmuskip=4mu plus 2mu minus 4mu "
+                + "\\thickmuskip=5mu plus 5mu "
+                + "\\abovedisplayskip=12pt plus 3pt minus 9pt "
+                + "\\belowdisplayskip=12pt plus 3pt minus 9pt ");
+        for (int i = 0; i < 60 * scale; i++) {
+            String[] words = SampleText.prose(60, 11 * i).split(" ");
+            for (int j = 0; j < words.length; j++) {
+                sb.append(words[j]);
+                sb.append(' ');
+                if (j % 10 == 4) {
+                    sb.append("$x_{");
+                    sb.append(j);
+                    sb.append("}^2+\\alpha y_i-(a+b)^{n+1}$ ");
+                }
+            }
+            if (i % 2 == 0) {
+                sb.append("$$\\alpha_{i+1}^{n} x_i^2 + {n(n+1)(2n+1)\\over 6}"
+                        + " + \\alpha_{");
+                sb.append(i);
+                sb.append("}$$ ");
+                sb.append(SampleText.prose(20, 13 * i));
+            }
+            sb.append("\\par\n");
+        }
+        sb.append("\\end ");
+        return sb.toString();
+    }
+
+    /**
+     * Getter for the code of a document.
+     *
+     * @param name the name of the document
+     * @param scale the scale factor
+     *
+     * @return the code of the document
+     */
+    public static String getDocument(final String name, final int scale) {
+
+        if (name.equals("plain")) {
+            return plain(scale);
+        } else if (name.equals("macros")) {
+            return macros(scale);
+        } else if (name.equals("tables")) {
+            return tables(scale);
+        } else if (name.equals("math")) {
+            return math(scale);
+        } else if (name.equals("fonts")) {
+            return fonts(scale);
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /**
+     * Getter for the names of all documents.
+     *
+     * @return the names
+     */
+    public static String[] getNames() {
+
+        return (String[]) NAMES.clone();
+    }
+
+    /**
+     * Produce a document with long paragraphs of plain text.
+     *
+     * @param scale the scale factor
+     *
+     * @return the code of the document
+     */
+    private static String plain(final int scale) {
+
+        StringBuffer sb = new StringBuffer(PRELUDE);
+        for (int i = 0; i < 60 * scale; i++) {
+            sb.append(SampleText.prose(150, i));
+            sb.append(".\\par\n");
+        }
+        sb.append("\\end ");
+        return sb.toString();
+    }
+
+    /**
+     * Produce a document consisting of tables made with <tt>\halign</tt>.
+     *
+     * @param scale the scale factor
+     *
+     * @return the code of the document
+     */
+    private static String tables(final int scale) {
+
+        StringBuffer sb = new StringBuffer(PRELUDE);
+        sb.append("\\def\\strut{\\vrule height 8.5pt depth 3.5pt width 0pt}");
+        for (int i = 0; i < 12 * scale; i++) {
+            sb.append(SampleText.prose(40, 17 * i));
+            sb.append(".\\par\n\\halign{\\strut#\\hfil\\tabskip=1em plus 1fil"
+                    + "&\\hfil#&#\\hfil&\\hfil#\\tabskip=0pt\\cr\n");
+            for (int j = 0; j < 60; j++) {
+                String[] words = SampleText.prose(4, 60 * i + j).split(" ");
+                sb.append(words[0]);
+                sb.append('&');
+                sb.append(j * 37 % 1000);
+                sb.append('&');
+                sb.append(words[1]);
+                sb.append(' ');
+                sb.append(words[2]);
+                sb.append('&');
+                sb.append(j * 7919 % 100000);
+                sb.append("\\cr\n");
+            }
+            sb.append("}\n");
+        }
+        sb.append("\\end ");
+        return sb.toString();
+    }
+
+    /**
+     * Creates a new object.
+     */
+    private Corpus() {
+
+        super();
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.extex.backend.BackendDriver;
+import de.dante.extex.backend.documentWriter.DocumentWriterOptions;
+import de.dante.extex.backend.documentWriter.exception.DocumentWriterException;
+import de.dante.extex.backend.outputStream.OutputStreamFactory;
+import de.dante.extex.font.FontFactory;
+import de.dante.extex.font.exception.FontException;
+import de.dante.extex.interpreter.Interpreter;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.scanner.type.token.TokenFactory;
+import de.dante.extex.typesetter.TypesetterFactory;
+import de.dante.util.exception.GeneralException;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.resource.ResourceFinder;
+
+/**
+ * This class provides an instance of <logo>ExTeX</logo> which records the
+ * time spent in the phases of a run in a {@link PhaseClock PhaseClock}.
+ *
+ * <p>
+ *  The hooks of {@link de.dante.extex.ExTeX ExTeX} are used to wrap the
+ *  font factory, the paragraph builder, the page builder, and the back-end
+ *  into decorators charging their time to the respective phase. The format
+ *  is loaded in its own phase. Everything between the creation of the
+ *  interpreter and the logging of the pages which is not charged otherwise
+ *  is the interpretation. The rest of the run is the configuration.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class CorpusExTeX extends BenchmarkExTeX {
+
+    /**
+     * The field <tt>clock</tt> contains the clock.
+     */
+    private PhaseClock clock = new PhaseClock();
+
+    /**
+     * The field <tt>pages</tt> contains the number of pages shipped out in
+     * the last run.
+     */
+    private int pages = 0;
+
+    /**
+     * Creates a new object.
+     *
+     * @param properties the properties
+     *
+     * @throws InterpreterException in case of an error
+     */
+    public CorpusExTeX(final Properties properties)
+            throws InterpreterException {
+
+        super(properties);
+    }
+
+    /**
+     * Getter for the clock of the last run.
+     *
+     * @return the clock
+     */
+    public PhaseClock getClock() {
+
+        return this.clock;
+    }
+
+    /**
+     * Getter for the number of pages of the last run.
+     *
+     * @return the number of pages
+     */
+    public int getPages() {
+
+        return this.pages;
+    }
+
+    /**
+     * @see de.dante.extex.ExTeX#loadFormat(java.lang.String,
+     *      de.dante.extex.interpreter.Interpreter,
+     *      de.dante.util.resource.ResourceFinder,
+     *      java.lang.String,
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.extex.backend.outputStream.OutputStreamFactory,
+     *      de.dante.extex.scanner.type.token.TokenFactory)
+     */
+    protected Context loadFormat(final String fmt,
+            final Interpreter interpreter, final ResourceFinder finder,
+            final String jobname, final Configuration config,
+            final OutputStreamFactory outFactory,
+            final TokenFactory tokenFactory)
+            throws IOException,
+                GeneralException,
+                ConfigurationException {
+
+        clock.enter(PhaseClock.FORMAT);
+        try {
+            return super.loadFormat(fmt, interpreter, finder, jobname, config,
+                outFactory, tokenFactory);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.ExTeX#logPages(de.dante.extex.backend.BackendDriver)
+     */
+    protected void logPages(final BackendDriver backend) {
+
+        clock.leave();
+        pages = backend.getPages();
+        super.logPages(backend);
+    }
+
+    /**
+     * @see de.dante.bench.BenchmarkExTeX#makeBackend(
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.extex.backend.outputStream.OutputStreamFactory,
+     *      de.dante.extex.backend.documentWriter.DocumentWriterOptions,
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.util.resource.ResourceFinder,
+     *      de.dante.extex.font.FontFactory)
+     */
+    protected BackendDriver makeBackend(final Configuration config,
+            final OutputStreamFactory outFactory,
+            final DocumentWriterOptions options,
+            final Configuration colorConfig, final ResourceFinder finder,
+            final FontFactory fontFactory)
+            throws DocumentWriterException,
+                ConfigurationException {
+
+        return new TimingBackendDriver(clock, super.makeBackend(config,
+            outFactory, options, colorConfig, finder, fontFactory));
+    }
+
+    /**
+     * @see de.dante.extex.ExTeX#makeFontFactory(
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.util.resource.ResourceFinder)
+     */
+    protected FontFactory makeFontFactory(final Configuration config,
+            final ResourceFinder finder) throws ConfigurationException {
+
+        return new TimingFontFactory(clock, super.makeFontFactory(config,
+            finder));
+    }
+
+    /**
+     * Create the interpreter and enter the phase
+     * {@link PhaseClock#INTERPRETATION INTERPRETATION} afterwards.
+     *
+     * @see de.dante.extex.ExTeX#makeInterpreter(
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.extex.backend.outputStream.OutputStreamFactory,
+     *      de.dante.util.resource.ResourceFinder,
+     *      java.lang.String)
+     */
+    protected Interpreter makeInterpreter(final Configuration config,
+            final OutputStreamFactory outFactory, final ResourceFinder finder,
+            final String jobname)
+            throws ConfigurationException,
+                GeneralException,
+                FontException,
+                IOException {
+
+        Interpreter interpreter = super.makeInterpreter(config, outFactory,
+            finder, jobname);
+        clock.enter(PhaseClock.INTERPRETATION);
+        return interpreter;
+    }
+
+    /**
+     * @see de.dante.extex.ExTeX#makeTypesetterFactory()
+     */
+    protected TypesetterFactory makeTypesetterFactory() {
+
+        return new TimingTypesetterFactory(clock);
+    }
+
+    /**
+     * Run and measure the phases.
+     *
+     * @see de.dante.extex.ExTeX#run()
+     */
+    public Interpreter run()
+            throws ConfigurationException,
+                IOException,
+                InterpreterException {
+
+        pages = 0;
+        clock.start();
+        try {
+            return super.run();
+        } finally {
+            clock.stop();
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class collects the measurements of the repeated runs of one document
+ * with one configuration.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class CorpusResult {
+
+    /**
+     * This class contains the measurements of a single run.
+     */
+    private static final class Run {
+
+        /**
+         * The field <tt>allocated</tt> contains the number of bytes allocated.
+         */
+        private long allocated;
+
+        /**
+         * The field <tt>bytes</tt> contains the number of bytes written by the
+         * back-end.
+         */
+        private long bytes;
+
+        /**
+         * The field <tt>pages</tt> contains the number of pages.
+         */
+        private int pages;
+
+        /**
+         * The field <tt>peak</tt> contains the peak heap in bytes.
+         */
+        private long peak;
+
+        /**
+         * The field <tt>time</tt> contains the time per phase.
+         */
+        private long[] time;
+
+        /**
+         * The field <tt>wall</tt> contains the total time.
+         */
+        private long wall;
+
+        /**
+         * Creates a new object.
+         */
+        public Run() {
+
+            super();
+        }
+    }
+
+    /**
+     * The field <tt>config</tt> contains the name of the configuration.
+     */
+    private String config;
+
+    /**
+     * The field <tt>document</tt> contains the name of the document.
+     */
+    private String document;
+
+    /**
+     * The field <tt>error</tt> contains the error which has terminated the
+     * measurement or <code>null</code>.
+     */
+    private Throwable error = null;
+
+    /**
+     * The field <tt>runs</tt> contains the runs.
+     */
+    private List runs = new ArrayList();
+
+    /**
+     * Creates a new object.
+     *
+     * @param document the name of the document
+     * @param config the name of the configuration
+     */
+    public CorpusResult(final String document, final String config) {
+
+        super();
+        this.document = document;
+        this.config = config;
+    }
+
+    /**
+     * Add the measurements of a run.
+     *
+     * @param clock the clock of the run
+     * @param pages the number of pages
+     * @param bytes the number of bytes written by the back-end
+     */
+    public void add(final PhaseClock clock, final int pages, final long bytes) {
+
+        Run run = new Run();
+        run.wall = clock.getWall();
+        run.pages = pages;
+        run.bytes = bytes;
+        run.allocated = clock.getAllocated();
+        run.peak = clock.getPeak();
+        run.time = new long[PhaseClock.getPhases()];
+        for (int i = 0; i < run.time.length; i++) {
+            run.time[i] = clock.getTime(i);
+        }
+        runs.add(run);
+    }
+
+    /**
+     * Getter for the number of bytes allocated in a run.
+     *
+     * @param i the index of the run
+     *
+     * @return the number of bytes
+     */
+    public long getAllocated(final int i) {
+
+        return ((Run) runs.get(i)).allocated;
+    }
+
+    /**
+     * Getter for the mean allocation rate.
+     *
+     * @return the allocation rate in bytes per second
+     */
+    public double getAllocationRate() {
+
+        long allocated = 0;
+        long wall = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            Run run = (Run) runs.get(i);
+            allocated += run.allocated;
+            wall += run.wall;
+        }
+        return (wall == 0 ? 0 : allocated * 1000.0 / wall);
+    }
+
+    /**
+     * Getter for the number of bytes written by the back-end in a run.
+     *
+     * @param i the index of the run
+     *
+     * @return the number of bytes
+     */
+    public long getBytes(final int i) {
+
+        return ((Run) runs.get(i)).bytes;
+    }
+
+    /**
+     * Getter for the name of the configuration.
+     *
+     * @return the name of the configuration
+     */
+    public String getConfig() {
+
+        return this.config;
+    }
+
+    /**
+     * Getter for the name of the document.
+     *
+     * @return the name of the document
+     */
+    public String getDocument() {
+
+        return this.document;
+    }
+
+    /**
+     * Getter for the error.
+     *
+     * @return the error or <code>null</code>
+     */
+    public Throwable getError() {
+
+        return this.error;
+    }
+
+    /**
+     * Getter for the mean time of a phase.
+     *
+     * @param phase the phase
+     *
+     * @return the mean time in milliseconds
+     */
+    public double getMean(final int phase) {
+
+        if (runs.isEmpty()) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            sum += ((Run) runs.get(i)).time[phase];
+        }
+        return (double) sum / runs.size();
+    }
+
+    /**
+     * Getter for the mean total time.
+     *
+     * @return the mean time in milliseconds
+     */
+    public double getMeanWall() {
+
+        if (runs.isEmpty()) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            sum += ((Run) runs.get(i)).wall;
+        }
+        return (double) sum / runs.size();
+    }
+
+    /**
+     * Getter for the number of pages in a run.
+     *
+     * @param i the index of the run
+     *
+     * @return the number of pages
+     */
+    public int getPages(final int i) {
+
+        return ((Run) runs.get(i)).pages;
+    }
+
+    /**
+     * Getter for the mean throughput.
+     *
+     * @return the number of pages per second
+     */
+    public double getPagesPerSecond() {
+
+        long pages = 0;
+        long wall = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            Run run = (Run) runs.get(i);
+            pages += run.pages;
+            wall += run.wall;
+        }
+        return (wall == 0 ? 0 : pages * 1000.0 / wall);
+    }
+
+    /**
+     * Getter for the peak heap in a run.
+     *
+     * @param i the index of the run
+     *
+     * @return the peak heap in bytes
+     */
+    public long getPeak(final int i) {
+
+        return ((Run) runs.get(i)).peak;
+    }
+
+    /**
+     * Getter for the maximal peak heap of all runs.
+     *
+     * @return the peak heap in bytes
+     */
+    public long getPeak() {
+
+        long peak = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            peak = Math.max(peak, ((Run) runs.get(i)).peak);
+        }
+        return peak;
+    }
+
+    /**
+     * Getter for the number of runs.
+     *
+     * @return the number of runs
+     */
+    public int getRuns() {
+
+        return runs.size();
+    }
+
+    /**
+     * Getter for the time of a phase in a run.
+     *
+     * @param i the index of the run
+     * @param phase the phase
+     *
+     * @return the time in milliseconds
+     */
+    public long getTime(final int i, final int phase) {
+
+        return ((Run) runs.get(i)).time[phase];
+    }
+
+    /**
+     * Getter for the total time of a run.
+     *
+     * @param i the index of the run
+     *
+     * @return the time in milliseconds
+     */
+    public long getWall(final int i) {
+
+        return ((Run) runs.get(i)).wall;
+    }
+
+    /**
+     * Setter for the error.
+     *
+     * @param error the error
+     */
+    public void setError(final Throwable error) {
+
+        this.error = error;
+    }
+
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.bench.BenchmarkRunner;
+import de.dante.extex.interpreter.Interpreter;
+
+/**
+ * This class runs <logo>ExTeX</logo> from end to end on a corpus of
+ * synthetic documents and reports where the time goes.
+ *
+ * <p>
+ *  Each document of the {@link Corpus Corpus} is processed with each of the
+ *  configurations given. After some warm-up runs the document is run
+ *  repeatedly. For each run the total time, the number of pages, the
+ *  allocated memory and the peak heap are recorded as well as the time of
+ *  each phase measured by a {@link PhaseClock PhaseClock}. In the ini mode
+ *  used for the corpus the phase <tt>format</tt> covers the loading of the
+ *  units of the configuration.
+ * </p>
+ * <p>
+ *  Everything is run off-line with the fonts and hyphenation patterns of the
+ *  distribution. The document output is discarded. The program has to be
+ *  started in the base directory of <logo>ExTeX</logo>.
+ * </p>
+ *
+ * <h3>Command Line</h3>
+ *
+ * <pre>
+ *  java de.dante.bench.corpus.CorpusRunner [options]
+ * </pre>
+ *
+ * <dl>
+ *  <dt><tt>-config</tt> <i>list</i></dt>
+ *  <dd>the comma separated list of configurations; the default is
+ *   <tt>extex.xml,tex.xml</tt></dd>
+ *  <dt><tt>-filter</tt> <i>regex</i></dt>
+ *  <dd>run only the documents whose name contains a match of the regular
+ *   expression</dd>
+ *  <dt><tt>-scale</tt> <i>n</i></dt>
+ *  <dd>the scale factor for the size of the documents; the default is 1</dd>
+ *  <dt><tt>-warmup</tt> <i>n</i></dt>
+ *  <dd>the number of warm-up runs; the default is 1</dd>
+ *  <dt><tt>-repeat</tt> <i>n</i></dt>
+ *  <dd>the number of measured runs; the default is 3</dd>
+ *  <dt><tt>-output</tt> <i>type</i></dt>
+ *  <dd>the type of the back-end, e.g. <tt>dvi</tt> or <tt>ps</tt></dd>
+ *  <dt><tt>-release</tt> <i>name</i></dt>
+ *  <dd>the name of the release to record in the results</dd>
+ *  <dt><tt>-out</tt> <i>file</i></dt>
+ *  <dd>the XML file to write the results to</dd>
+ * </dl>
+ *
+ * <h3>Result File</h3>
+ *
+ * <pre>
+ *  &lt;corpus release="..." date="..." java.version="..." ...&gt;
+ *    &lt;run document="plain" config="extex.xml" wall="..."
+ *         pages.per.second="..." allocation.rate="..." peak="..."
+ *         configuration="..." format="..." ... backend="..."&gt;
+ *      &lt;iteration wall="..." pages="..." bytes="..." allocated="..."
+ *                 peak="..." configuration="..." ... backend="..."/&gt;
+ *      ...
+ *    &lt;/run&gt;
+ *    &lt;run document="..." config="..." failed="..."/&gt;
+ *  &lt;/corpus&gt;
+ * </pre>
+ * <p>
+ *  Times are given in milliseconds, memory in bytes. The attributes of the
+ *  element <tt>run</tt> contain the mean values.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class CorpusRunner {
+
+    /**
+     * The constant <tt>MB</tt> contains the number of bytes in a megabyte.
+     */
+    private static final double MB = 1024 * 1024;
+
+    /**
+     * Command line interface.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(final String[] args) {
+
+        CorpusRunner runner = new CorpusRunner();
+        String out = null;
+        Pattern filter = null;
+        String[] configs = {"extex.xml", "tex.xml"};
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                if (a.equals("-config")) {
+                    configs = args[++i].split(",");
+                } else if (a.equals("-filter")) {
+                    filter = Pattern.compile(args[++i]);
+                } else if (a.equals("-scale")) {
+                    runner.setScale(Integer.parseInt(args[++i]));
+                } else if (a.equals("-warmup")) {
+                    runner.setWarmup(Integer.parseInt(args[++i]));
+                } else if (a.equals("-repeat")) {
+                    runner.setRepeat(Integer.parseInt(args[++i]));
+                } else if (a.equals("-output")) {
+                    runner.setOutput(args[++i]);
+                } else if (a.equals("-release")) {
+                    runner.setRelease(args[++i]);
+                } else if (a.equals("-out")) {
+                    out = args[++i];
+                } else {
+                    System.err.println("Unknown argument: " + a);
+                    System.exit(2);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            System.err.println("Missing value for " + args[args.length - 1]);
+            System.exit(2);
+        } catch (NumberFormatException e) {
+            System.err.println("Illegal number: " + e.getLocalizedMessage());
+            System.exit(2);
+        }
+
+        String[] documents = Corpus.getNames();
+        List results = new ArrayList();
+        boolean failed = false;
+
+        runner.printHeader(System.out);
+        for (int i = 0; i < documents.length; i++) {
+            if (filter != null && !filter.matcher(documents[i]).find()) {
+                continue;
+            }
+            for (int j = 0; j < configs.length; j++) {
+                CorpusResult result = runner.run(documents[i], configs[j]);
+                runner.print(result, System.out);
+                results.add(result);
+                failed |= result.getError() != null;
+            }
+        }
+
+        if (out != null) {
+            try {
+                runner.write(results, new File(out));
+            } catch (IOException e) {
+                System.err.println(e.getLocalizedMessage());
+                System.exit(1);
+            }
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * Append a value right aligned to a string buffer.
+     *
+     * @param sb the target buffer
+     * @param value the value
+     * @param width the width of the column
+     */
+    private static void pad(final StringBuffer sb, final String value,
+            final int width) {
+
+        for (int i = value.length(); i < width; i++) {
+            sb.append(' ');
+        }
+        sb.append(value);
+    }
+
+    /**
+     * The field <tt>output</tt> contains the type of the back-end or
+     * <code>null</code> for the default.
+     */
+    private String output = null;
+
+    /**
+     * The field <tt>release</tt> contains the name of the release.
+     */
+    private String release = "";
+
+    /**
+     * The field <tt>repeat</tt> contains the number of measured runs.
+     */
+    private int repeat = 3;
+
+    /**
+     * The field <tt>scale</tt> contains the scale factor for the documents.
+     */
+    private int scale = 1;
+
+    /**
+     * The field <tt>warmup</tt> contains the number of warm-up runs.
+     */
+    private int warmup = 1;
+
+    /**
+     * Creates a new object.
+     */
+    public CorpusRunner() {
+
+        super();
+    }
+
+    /**
+     * Print a line with the result for a document and a configuration.
+     *
+     * @param result the result
+     * @param out the target stream
+     */
+    public void print(final CorpusResult result, final PrintStream out) {
+
+        StringBuffer sb = new StringBuffer(result.getDocument());
+        do {
+            sb.append(' ');
+        } while (sb.length() < 8);
+        sb.append(result.getConfig());
+        do {
+            sb.append(' ');
+        } while (sb.length() < 20);
+
+        Throwable error = result.getError();
+        if (error != null) {
+            sb.append("FAILED: ");
+            sb.append(error.toString());
+            out.println(sb.toString());
+            return;
+        }
+        pad(sb, Long.toString(Math.round(result.getMeanWall())), 8);
+        pad(sb, Integer.toString(result.getPages(0)), 6);
+        pad(sb, BenchmarkRunner.format(result.getPagesPerSecond()), 10);
+        pad(sb, BenchmarkRunner.format(result.getAllocationRate() / MB), 10);
+        pad(sb, BenchmarkRunner.format(result.getPeak() / MB), 9);
+        for (int i = 0; i < PhaseClock.getPhases(); i++) {
+            pad(sb, Long.toString(Math.round(result.getMean(i))), 1 + Math
+                .max(5, PhaseClock.getName(i).length()));
+        }
+        out.println(sb.toString());
+    }
+
+    /**
+     * Print the header of the table of results.
+     *
+     * @param out the target stream
+     */
+    public void printHeader(final PrintStream out) {
+
+        StringBuffer sb = new StringBuffer("doc     config     ");
+        pad(sb, "wall", 9);
+        pad(sb, "pages", 6);
+        pad(sb, "pages/s", 10);
+        pad(sb, "alloc MB/s", 11);
+        pad(sb, "peak MB", 9);
+        for (int i = 0; i < PhaseClock.getPhases(); i++) {
+            String name = PhaseClock.getName(i);
+            pad(sb, name, 1 + Math.max(5, name.length()));
+        }
+        out.println(sb.toString());
+    }
+
+    /**
+     * Run a document with a configuration.
+     *
+     * @param document the name of the document
+     * @param config the name of the configuration
+     *
+     * @return the result
+     */
+    public CorpusResult run(final String document, final String config) {
+
+        CorpusResult result = new CorpusResult(document, config);
+        String code = Corpus.getDocument(document, scale);
+        try {
+            for (int i = 0; i < warmup; i++) {
+                runOnce(code, config, null);
+            }
+            for (int i = 0; i < repeat; i++) {
+                runOnce(code, config, result);
+            }
+        } catch (Exception e) {
+            result.setError(e);
+        }
+        return result;
+    }
+
+    /**
+     * Process a document once.
+     *
+     * @param code the code of the document
+     * @param config the name of the configuration
+     * @param result the result to add the measurement to or
+     *  <code>null</code> for a warm-up run
+     *
+     * @throws Exception in case of an error
+     */
+    private void runOnce(final String code, final String config,
+            final CorpusResult result) throws Exception {
+
+        Properties properties = BenchmarkExTeX.makeProperties(code);
+        properties.setProperty("extex.config", config);
+        if (output != null) {
+            properties.setProperty("extex.output", output);
+        }
+        CorpusExTeX extex = new CorpusExTeX(properties);
+        System.gc();
+        Interpreter interpreter = extex.run();
+        if (interpreter == null) {
+            throw new IllegalStateException("internal error in " + config);
+        }
+        if (result != null) {
+            result.add(extex.getClock(), extex.getPages(), extex.getOutput()
+                .getCount());
+        }
+    }
+
+    /**
+     * Setter for the type of the back-end.
+     *
+     * @param output the type or <code>null</code> for the default
+     */
+    public void setOutput(final String output) {
+
+        this.output = output;
+    }
+
+    /**
+     * Setter for the name of the release.
+     *
+     * @param release the release
+     */
+    public void setRelease(final String release) {
+
+        this.release = release;
+    }
+
+    /**
+     * Setter for the number of measured runs.
+     *
+     * @param repeat the number of runs
+     */
+    public void setRepeat(final int repeat) {
+
+        this.repeat = repeat;
+    }
+
+    /**
+     * Setter for the scale factor of the documents.
+     *
+     * @param scale the scale factor
+     */
+    public void setScale(final int scale) {
+
+        this.scale = scale;
+    }
+
+    /**
+     * Setter for the number of warm-up runs.
+     *
+     * @param warmup the number of runs
+     */
+    public void setWarmup(final int warmup) {
+
+        this.warmup = warmup;
+    }
+
+    /**
+     * Write the results to an XML file.
+     *
+     * @param results the list of results
+     * @param file the target file
+     *
+     * @throws IOException in case of an error
+     */
+    public void write(final List results, final File file) throws IOException {
+
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null) {
+            dir.mkdirs();
+        }
+        Writer w = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            w.write("<corpus");
+            BenchmarkRunner.writeAttribute(w, "release", release);
+            BenchmarkRunner.writeAttribute(w, "date", new SimpleDateFormat(
+                "yyyy-MM-dd'T'HH:mm:ss").format(new Date()));
+            BenchmarkRunner.writeAttribute(w, "java.version", System
+                .getProperty("java.version"));
+            BenchmarkRunner.writeAttribute(w, "java.vm.name", System
+                .getProperty("java.vm.name"));
+            BenchmarkRunner.writeAttribute(w, "os.name", System
+                .getProperty("os.name"));
+            BenchmarkRunner.writeAttribute(w, "scale", Integer.toString(scale));
+            BenchmarkRunner.writeAttribute(w, "warmup", Integer
+                .toString(warmup));
+            BenchmarkRunner.writeAttribute(w, "repeat", Integer
+                .toString(repeat));
+            w.write(">\n");
+
+            for (int i = 0; i < results.size(); i++) {
+                CorpusResult result = (CorpusResult) results.get(i);
+                w.write("  <run");
+                BenchmarkRunner.writeAttribute(w, "document", result
+                    .getDocument());
+                BenchmarkRunner.writeAttribute(w, "config", result.getConfig());
+                Throwable error = result.getError();
+                if (error != null) {
+                    BenchmarkRunner.writeAttribute(w, "failed", error
+                        .toString());
+                    w.write("/>\n");
+                    continue;
+                }
+                BenchmarkRunner.writeAttribute(w, "wall", BenchmarkRunner
+                    .format(result.getMeanWall()));
+                BenchmarkRunner.writeAttribute(w, "pages.per.second",
+                    BenchmarkRunner.format(result.getPagesPerSecond()));
+                BenchmarkRunner.writeAttribute(w, "allocation.rate",
+                    BenchmarkRunner.format(result.getAllocationRate()));
+                BenchmarkRunner.writeAttribute(w, "peak", Long.toString(result
+                    .getPeak()));
+                for (int k = 0; k < PhaseClock.getPhases(); k++) {
+                    BenchmarkRunner.writeAttribute(w, PhaseClock.getName(k),
+                        BenchmarkRunner.format(result.getMean(k)));
+                }
+                w.write(">\n");
+                for (int j = 0; j < result.getRuns(); j++) {
+                    w.write("    <iteration");
+                    BenchmarkRunner.writeAttribute(w, "wall", Long
+                        .toString(result.getWall(j)));
+                    BenchmarkRunner.writeAttribute(w, "pages", Integer
+                        .toString(result.getPages(j)));
+                    BenchmarkRunner.writeAttribute(w, "bytes", Long
+                        .toString(result.getBytes(j)));
+                    BenchmarkRunner.writeAttribute(w, "allocated", Long
+                        .toString(result.getAllocated(j)));
+                    BenchmarkRunner.writeAttribute(w, "peak", Long
+                        .toString(result.getPeak(j)));
+                    for (int k = 0; k < PhaseClock.getPhases(); k++) {
+                        BenchmarkRunner.writeAttribute(w,
+                            PhaseClock.getName(k), Long.toString(result
+                                .getTime(j, k)));
+                    }
+                    w.write("/>\n");
+                }
+                w.write("  </run>\n");
+            }
+            w.write("</corpus>\n");
+        } finally {
+            w.close();
+        }
+    }
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+/**
+ * This class accumulates the time spent in the phases of a run of
+ * <logo>ExTeX</logo>. The phases can be nested: entering a phase suspends
+ * the current one until the phase is left again. Thus each phase is charged
+ * with its own time only; e.g. the back-end invoked from within the page
+ * builder does not count for the page builder.
+ *
+ * <p>
+ *  Whenever the phase changes the heap in use is sampled. The maximum of
+ *  these samples is reported as peak heap. The sum of all increases between
+ *  two samples is reported as allocated memory. Since a garbage collection
+ *  between two samples hides the allocation which has happened in the mean
+ *  time, this value is a lower bound only.
+ * </p>
+ * <p>
+ *  The times are taken with a granularity of milliseconds. Phases which are
+ *  entered very often and last shorter than this, like the building of a
+ *  single paragraph, are still measured correctly on the average since
+ *  the start of a phase is not correlated to the tick of the clock.
+ * </p>
+ * <p>
+ *  Only the thread which has started the clock is taken into account.
+ *  Work delegated to other threads is not charged to any phase; the time
+ *  the main thread waits for it is charged to the phase it is waiting in.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class PhaseClock {
+
+    /**
+     * The constant <tt>CONFIGURATION</tt> contains the phase for reading the
+     * configuration and setting up the components.
+     */
+    public static final int CONFIGURATION = 0;
+
+    /**
+     * The constant <tt>FORMAT</tt> contains the phase for loading the format.
+     */
+    public static final int FORMAT = 1;
+
+    /**
+     * The constant <tt>FONTS</tt> contains the phase for loading fonts.
+     */
+    public static final int FONTS = 2;
+
+    /**
+     * The constant <tt>INTERPRETATION</tt> contains the phase for the
+     * interpreter and everything not covered by another phase while it runs.
+     */
+    public static final int INTERPRETATION = 3;
+
+    /**
+     * The constant <tt>PARAGRAPHS</tt> contains the phase for breaking
+     * paragraphs into lines.
+     */
+    public static final int PARAGRAPHS = 4;
+
+    /**
+     * The constant <tt>PAGES</tt> contains the phase for building pages.
+     */
+    public static final int PAGES = 5;
+
+    /**
+     * The constant <tt>BACKEND</tt> contains the phase for writing pages.
+     */
+    public static final int BACKEND = 6;
+
+    /**
+     * The constant <tt>NAMES</tt> contains the names of the phases.
+     */
+    private static final String[] NAMES = {"configuration", "format",
+            "fonts", "interpretation", "paragraphs", "pages", "backend"};
+
+    /**
+     * Getter for the name of a phase.
+     *
+     * @param phase the phase
+     *
+     * @return the name of the phase
+     */
+    public static String getName(final int phase) {
+
+        return NAMES[phase];
+    }
+
+    /**
+     * Getter for the number of phases.
+     *
+     * @return the number of phases
+     */
+    public static int getPhases() {
+
+        return NAMES.length;
+    }
+
+    /**
+     * The field <tt>allocated</tt> contains the sum of the increases of the
+     * heap in use.
+     */
+    private long allocated = 0;
+
+    /**
+     * The field <tt>current</tt> contains the phase currently active.
+     */
+    private int current = CONFIGURATION;
+
+    /**
+     * The field <tt>mark</tt> contains the time of the last change of the
+     * phase.
+     */
+    private long mark = 0;
+
+    /**
+     * The field <tt>owner</tt> contains the thread which has started the
+     * clock.
+     */
+    private Thread owner = null;
+
+    /**
+     * The field <tt>peak</tt> contains the maximal heap in use.
+     */
+    private long peak = 0;
+
+    /**
+     * The field <tt>runtime</tt> contains the runtime for sampling the heap.
+     */
+    private Runtime runtime = Runtime.getRuntime();
+
+    /**
+     * The field <tt>sp</tt> contains the stack pointer for the suspended
+     * phases.
+     */
+    private int sp = 0;
+
+    /**
+     * The field <tt>stack</tt> contains the suspended phases.
+     */
+    private int[] stack = new int[16];
+
+    /**
+     * The field <tt>start</tt> contains the time the clock has been started.
+     */
+    private long start = 0;
+
+    /**
+     * The field <tt>time</tt> contains the accumulated time for each phase.
+     */
+    private long[] time = new long[NAMES.length];
+
+    /**
+     * The field <tt>used</tt> contains the heap in use at the last sample.
+     */
+    private long used = 0;
+
+    /**
+     * The field <tt>wall</tt> contains the total time between start and
+     * stop.
+     */
+    private long wall = 0;
+
+    /**
+     * Creates a new object.
+     */
+    public PhaseClock() {
+
+        super();
+    }
+
+    /**
+     * Charge the time since the last change to the current phase and sample
+     * the heap.
+     *
+     * @return the current time
+     */
+    private long account() {
+
+        long now = System.currentTimeMillis();
+        time[current] += now - mark;
+        mark = now;
+        long u = runtime.totalMemory() - runtime.freeMemory();
+        if (u > used) {
+            allocated += u - used;
+        }
+        used = u;
+        if (u > peak) {
+            peak = u;
+        }
+        return now;
+    }
+
+    /**
+     * Suspend the current phase and continue with another one.
+     *
+     * @param phase the phase to enter
+     */
+    public void enter(final int phase) {
+
+        if (Thread.currentThread() != owner) {
+            return;
+        }
+        account();
+        if (sp == stack.length) {
+            int[] s = new int[2 * sp];
+            System.arraycopy(stack, 0, s, 0, sp);
+            stack = s;
+        }
+        stack[sp++] = current;
+        current = phase;
+    }
+
+    /**
+     * Getter for the memory allocated. This is a lower bound only.
+     *
+     * @return the number of bytes allocated
+     */
+    public long getAllocated() {
+
+        return this.allocated;
+    }
+
+    /**
+     * Getter for the maximal heap in use at a change of the phase.
+     *
+     * @return the peak heap in bytes
+     */
+    public long getPeak() {
+
+        return this.peak;
+    }
+
+    /**
+     * Getter for the time spent in a phase.
+     *
+     * @param phase the phase
+     *
+     * @return the time in milliseconds
+     */
+    public long getTime(final int phase) {
+
+        return time[phase];
+    }
+
+    /**
+     * Getter for the total time between start and stop.
+     *
+     * @return the time in milliseconds
+     */
+    public long getWall() {
+
+        return this.wall;
+    }
+
+    /**
+     * Leave the current phase and resume the phase suspended last.
+     */
+    public void leave() {
+
+        if (Thread.currentThread() != owner || sp == 0) {
+            return;
+        }
+        account();
+        current = stack[--sp];
+    }
+
+    /**
+     * Reset all values and start the clock in the phase
+     * {@link #CONFIGURATION CONFIGURATION} for the current thread.
+     */
+    public void start() {
+
+        owner = Thread.currentThread();
+        current = CONFIGURATION;
+        sp = 0;
+        for (int i = 0; i < time.length; i++) {
+            time[i] = 0;
+        }
+        used = runtime.totalMemory() - runtime.freeMemory();
+        peak = used;
+        allocated = 0;
+        start = System.currentTimeMillis();
+        mark = start;
+        wall = 0;
+    }
+
+    /**
+     * Stop the clock. The time since the last change is charged to the
+     * current phase.
+     */
+    public void stop() {
+
+        if (owner == null) {
+            return;
+        }
+        wall = account() - start;
+        owner = null;
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import de.dante.extex.backend.BackendDriver;
+import de.dante.extex.backend.documentWriter.DocumentWriter;
+import de.dante.extex.backend.exception.BackendException;
+import de.dante.extex.backend.pageFilter.PagePipe;
+import de.dante.extex.typesetter.type.page.Page;
+
+/**
+ * This back-end driver charges the time of another back-end driver to the
+ * phase {@link PhaseClock#BACKEND BACKEND}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TimingBackendDriver implements BackendDriver {
+
+    /**
+     * The field <tt>backend</tt> contains the back-end driver doing the work.
+     */
+    private BackendDriver backend;
+
+    /**
+     * The field <tt>clock</tt> contains the clock to charge.
+     */
+    private PhaseClock clock;
+
+    /**
+     * Creates a new object.
+     *
+     * @param clock the clock to charge
+     * @param backend the back-end driver doing the work
+     */
+    public TimingBackendDriver(final PhaseClock clock,
+            final BackendDriver backend) {
+
+        super();
+        this.clock = clock;
+        this.backend = backend;
+    }
+
+    /**
+     * @see de.dante.extex.backend.BackendDriver#add(
+     *      de.dante.extex.backend.pageFilter.PagePipe)
+     */
+    public void add(final PagePipe processor) {
+
+        backend.add(processor);
+    }
+
+    /**
+     * @see de.dante.extex.backend.BackendDriver#close()
+     */
+    public void close() throws BackendException {
+
+        clock.enter(PhaseClock.BACKEND);
+        try {
+            backend.close();
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.backend.BackendDriver#getDocumentWriter()
+     */
+    public DocumentWriter getDocumentWriter() {
+
+        return backend.getDocumentWriter();
+    }
+
+    /**
+     * @see de.dante.extex.backend.BackendDriver#getExtension()
+     */
+    public String getExtension() {
+
+        return backend.getExtension();
+    }
+
+    /**
+     * @see de.dante.extex.backend.BackendDriver#getPages()
+     */
+    public int getPages() {
+
+        return backend.getPages();
+    }
+
+    /**
+     * @see de.dante.extex.backend.BackendDriver#setDocumentWriter(
+     *      de.dante.extex.backend.documentWriter.DocumentWriter)
+     */
+    public void setDocumentWriter(final DocumentWriter docWriter) {
+
+        backend.setDocumentWriter(docWriter);
+    }
+
+    /**
+     * @see de.dante.extex.backend.BackendDriver#shipout(
+     *      de.dante.extex.typesetter.type.page.Page)
+     */
+    public int shipout(final Page page) throws BackendException {
+
+        clock.enter(PhaseClock.BACKEND);
+        try {
+            return backend.shipout(page);
+        } finally {
+            clock.leave();
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import de.dante.extex.font.FontFactory;
+import de.dante.extex.font.FountKey;
+import de.dante.extex.font.exception.FontException;
+import de.dante.extex.font.type.afm.AfmFont;
+import de.dante.extex.font.type.efm.EfmReader;
+import de.dante.extex.font.type.tfm.TFMFont;
+import de.dante.extex.font.type.tfm.psfontsmap.PSFontsMapReader;
+import de.dante.extex.font.type.vf.VFFont;
+import de.dante.extex.interpreter.type.font.Font;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+
+/**
+ * This font factory charges the time of another font factory to the phase
+ * {@link PhaseClock#FONTS FONTS}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TimingFontFactory implements FontFactory {
+
+    /**
+     * The field <tt>clock</tt> contains the clock to charge.
+     */
+    private PhaseClock clock;
+
+    /**
+     * The field <tt>factory</tt> contains the font factory doing the work.
+     */
+    private FontFactory factory;
+
+    /**
+     * Creates a new object.
+     *
+     * @param clock the clock to charge
+     * @param factory the font factory doing the work
+     */
+    public TimingFontFactory(final PhaseClock clock, final FontFactory factory) {
+
+        super();
+        this.clock = clock;
+        this.factory = factory;
+    }
+
+    /**
+     * @see de.dante.extex.font.FontFactory#getInstance(
+     *      de.dante.extex.font.FountKey)
+     */
+    public Font getInstance(final FountKey key)
+            throws ConfigurationException,
+                FontException {
+
+        clock.enter(PhaseClock.FONTS);
+        try {
+            return factory.getInstance(key);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.font.FontFactory#getInstance(
+     *      de.dante.extex.font.type.tfm.TFMFont,
+     *      de.dante.extex.font.FountKey)
+     */
+    public Font getInstance(final TFMFont tfm, final FountKey key)
+            throws ConfigurationException,
+                FontException {
+
+        clock.enter(PhaseClock.FONTS);
+        try {
+            return factory.getInstance(tfm, key);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.font.FontFactory#getInstance(
+     *      de.dante.extex.font.type.vf.VFFont,
+     *      de.dante.extex.font.FountKey)
+     */
+    public Font getInstance(final VFFont vf, final FountKey key)
+            throws ConfigurationException,
+                FontException {
+
+        clock.enter(PhaseClock.FONTS);
+        try {
+            return factory.getInstance(vf, key);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.font.FontFactory#getPsfm()
+     */
+    public PSFontsMapReader getPsfm()
+            throws FontException,
+                ConfigurationException {
+
+        clock.enter(PhaseClock.FONTS);
+        try {
+            return factory.getPsfm();
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.font.FontFactory#readAFMFont(java.lang.String)
+     */
+    public AfmFont readAFMFont(final String name)
+            throws ConfigurationException,
+                FontException {
+
+        clock.enter(PhaseClock.FONTS);
+        try {
+            return factory.readAFMFont(name);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.font.FontFactory#readEFMFont(java.lang.String)
+     */
+    public EfmReader readEFMFont(final String name)
+            throws ConfigurationException,
+                FontException {
+
+        clock.enter(PhaseClock.FONTS);
+        try {
+            return factory.readEFMFont(name);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.font.FontFactory#readTFMFont(java.lang.String)
+     */
+    public TFMFont readTFMFont(final String name)
+            throws ConfigurationException,
+                FontException {
+
+        clock.enter(PhaseClock.FONTS);
+        try {
+            return factory.readTFMFont(name);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.font.FontFactory#readVFFont(java.lang.String)
+     */
+    public VFFont readVFFont(final String name)
+            throws ConfigurationException,
+                FontException {
+
+        clock.enter(PhaseClock.FONTS);
+        try {
+            return factory.readVFFont(name);
+        } finally {
+            clock.leave();
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import java.util.logging.Logger;
+
+import de.dante.extex.backend.BackendDriver;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.typesetter.Typesetter;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.exception.TypesetterException;
+import de.dante.extex.typesetter.output.OutputRoutine;
+import de.dante.extex.typesetter.pageBuilder.PageBuilder;
+import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.VerticalListNode;
+import de.dante.extex.typesetter.type.page.PageFactory;
+import de.dante.util.framework.logger.LogEnabled;
+
+/**
+ * This page builder charges the time of another page builder to the phase
+ * {@link PhaseClock#PAGES PAGES}. The output routine is run from within the
+ * page builder; thus it is charged to this phase as well.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TimingPageBuilder implements PageBuilder, LogEnabled {
+
+    /**
+     * The field <tt>builder</tt> contains the page builder doing the work.
+     */
+    private PageBuilder builder;
+
+    /**
+     * The field <tt>clock</tt> contains the clock to charge.
+     */
+    private PhaseClock clock;
+
+    /**
+     * Creates a new object.
+     *
+     * @param clock the clock to charge
+     * @param builder the page builder doing the work
+     */
+    public TimingPageBuilder(final PhaseClock clock, final PageBuilder builder) {
+
+        super();
+        this.clock = clock;
+        this.builder = builder;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#close()
+     */
+    public void close() throws TypesetterException {
+
+        clock.enter(PhaseClock.PAGES);
+        try {
+            builder.close();
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.util.framework.logger.LogEnabled#enableLogging(
+     *      java.util.logging.Logger)
+     */
+    public void enableLogging(final Logger logger) {
+
+        if (builder instanceof LogEnabled) {
+            ((LogEnabled) builder).enableLogging(logger);
+        }
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#flush(
+     *      de.dante.extex.typesetter.type.NodeList,
+     *      de.dante.extex.typesetter.Typesetter)
+     */
+    public void flush(final NodeList nodes, final Typesetter typesetter)
+            throws TypesetterException {
+
+        clock.enter(PhaseClock.PAGES);
+        try {
+            builder.flush(nodes, typesetter);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#inspectAndBuild(
+     *      de.dante.extex.typesetter.type.node.VerticalListNode,
+     *      de.dante.extex.typesetter.Typesetter)
+     */
+    public void inspectAndBuild(final VerticalListNode nodes,
+            final Typesetter typesetter) throws TypesetterException {
+
+        clock.enter(PhaseClock.PAGES);
+        try {
+            builder.inspectAndBuild(nodes, typesetter);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#setBackend(
+     *      de.dante.extex.backend.BackendDriver)
+     */
+    public void setBackend(final BackendDriver backend) {
+
+        builder.setBackend(backend);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#setContext(
+     *      de.dante.extex.interpreter.context.Context)
+     */
+    public void setContext(final Context context) throws TypesetterException {
+
+        builder.setContext(context);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#setOptions(
+     *      de.dante.extex.typesetter.TypesetterOptions)
+     */
+    public void setOptions(final TypesetterOptions options) {
+
+        builder.setOptions(options);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#setOutputRoutine(
+     *      de.dante.extex.typesetter.output.OutputRoutine)
+     */
+    public void setOutputRoutine(final OutputRoutine output) {
+
+        builder.setOutputRoutine(output);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#setPageFactory(
+     *      de.dante.extex.typesetter.type.page.PageFactory)
+     */
+    public void setPageFactory(final PageFactory factory) {
+
+        builder.setPageFactory(factory);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.pageBuilder.PageBuilder#shipout(
+     *      de.dante.extex.typesetter.type.NodeList,
+     *      de.dante.extex.typesetter.Typesetter)
+     */
+    public void shipout(final NodeList nodes, final Typesetter typesetter)
+            throws TypesetterException {
+
+        clock.enter(PhaseClock.PAGES);
+        try {
+            builder.shipout(nodes, typesetter);
+        } finally {
+            clock.leave();
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import java.util.logging.Logger;
+
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.exception.TypesetterException;
+import de.dante.extex.typesetter.paragraphBuilder.ConcurrentParagraphBuilder;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphBuilder;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphTask;
+import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.HorizontalListNode;
+import de.dante.extex.typesetter.type.node.factory.NodeFactory;
+import de.dante.util.framework.logger.LogEnabled;
+
+/**
+ * This paragraph builder charges the time of another paragraph builder to
+ * the phase {@link PhaseClock#PARAGRAPHS PARAGRAPHS}.
+ *
+ * <p>
+ *  If the paragraph builder doing the work can break paragraphs in the
+ *  background then this ability is retained. In this case only the
+ *  preparation and the completion of a paragraph are charged.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TimingParagraphBuilder
+        implements
+            ConcurrentParagraphBuilder,
+            LogEnabled {
+
+    /**
+     * This task charges the completion of another task to the phase
+     * {@link PhaseClock#PARAGRAPHS PARAGRAPHS}.
+     */
+    private class TimingTask implements ParagraphTask {
+
+        /**
+         * The field <tt>task</tt> contains the task doing the work.
+         */
+        private ParagraphTask task;
+
+        /**
+         * Creates a new object.
+         *
+         * @param task the task doing the work
+         */
+        public TimingTask(final ParagraphTask task) {
+
+            super();
+            this.task = task;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.paragraphBuilder.ParagraphTask#complete(
+         *      java.lang.Object)
+         */
+        public NodeList complete(final Object result)
+                throws TypesetterException {
+
+            clock.enter(PhaseClock.PARAGRAPHS);
+            try {
+                return task.complete(result);
+            } finally {
+                clock.leave();
+            }
+        }
+
+        /**
+         * @see de.dante.util.worker.Task#run()
+         */
+        public Object run() throws Exception {
+
+            return task.run();
+        }
+    }
+
+    /**
+     * The field <tt>builder</tt> contains the paragraph builder doing the
+     * work.
+     */
+    private ParagraphBuilder builder;
+
+    /**
+     * The field <tt>clock</tt> contains the clock to charge.
+     */
+    private PhaseClock clock;
+
+    /**
+     * Creates a new object.
+     *
+     * @param clock the clock to charge
+     * @param builder the paragraph builder doing the work
+     */
+    public TimingParagraphBuilder(final PhaseClock clock,
+            final ParagraphBuilder builder) {
+
+        super();
+        this.clock = clock;
+        this.builder = builder;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.paragraphBuilder.ParagraphBuilder#build(
+     *      de.dante.extex.typesetter.type.node.HorizontalListNode)
+     */
+    public NodeList build(final HorizontalListNode nodes)
+            throws TypesetterException {
+
+        clock.enter(PhaseClock.PARAGRAPHS);
+        try {
+            return builder.build(nodes);
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.util.framework.logger.LogEnabled#enableLogging(
+     *      java.util.logging.Logger)
+     */
+    public void enableLogging(final Logger logger) {
+
+        if (builder instanceof LogEnabled) {
+            ((LogEnabled) builder).enableLogging(logger);
+        }
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.paragraphBuilder.ConcurrentParagraphBuilder#prepare(
+     *      de.dante.extex.typesetter.type.node.HorizontalListNode)
+     */
+    public ParagraphTask prepare(final HorizontalListNode nodes)
+            throws TypesetterException {
+
+        if (!(builder instanceof ConcurrentParagraphBuilder)) {
+            return null;
+        }
+        clock.enter(PhaseClock.PARAGRAPHS);
+        try {
+            ParagraphTask task = ((ConcurrentParagraphBuilder) builder)
+                    .prepare(nodes);
+            return (task == null ? null : new TimingTask(task));
+        } finally {
+            clock.leave();
+        }
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.paragraphBuilder.ParagraphBuilder#setNodefactory(
+     *      de.dante.extex.typesetter.type.node.factory.NodeFactory)
+     */
+    public void setNodefactory(final NodeFactory nodeFactory) {
+
+        builder.setNodefactory(nodeFactory);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.paragraphBuilder.ParagraphBuilder#setOptions(
+     *      de.dante.extex.typesetter.TypesetterOptions)
+     */
+    public void setOptions(final TypesetterOptions options) {
+
+        builder.setOptions(options);
+    }
+
+}
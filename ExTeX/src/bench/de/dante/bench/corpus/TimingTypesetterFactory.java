@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.corpus;
+
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.typesetter.Typesetter;
+import de.dante.extex.typesetter.TypesetterFactory;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.exception.TypesetterException;
+import de.dante.extex.typesetter.pageBuilder.PageBuilder;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphBuilder;
+import de.dante.extex.typesetter.type.node.factory.NodeFactory;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+
+/**
+ * This typesetter factory wraps the page builder and the paragraph builder
+ * such that their time is charged to a {@link PhaseClock PhaseClock}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TimingTypesetterFactory extends TypesetterFactory {
+
+    /**
+     * The field <tt>clock</tt> contains the clock to charge.
+     */
+    private PhaseClock clock;
+
+    /**
+     * Creates a new object.
+     *
+     * @param clock the clock to charge
+     */
+    public TimingTypesetterFactory(final PhaseClock clock) {
+
+        super();
+        this.clock = clock;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterFactory#makePageBuilder(
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.extex.interpreter.context.Context,
+     *      de.dante.extex.typesetter.Typesetter)
+     */
+    protected PageBuilder makePageBuilder(final Configuration config,
+            final Context context, final Typesetter typesetter)
+            throws ConfigurationException,
+                TypesetterException {
+
+        return new TimingPageBuilder(clock, super.makePageBuilder(config,
+            context, typesetter));
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterFactory#makeParagraphBuilder(
+     *      de.dante.util.framework.configuration.Configuration,
+     *      de.dante.extex.typesetter.TypesetterOptions,
+     *      de.dante.extex.typesetter.type.node.factory.NodeFactory)
+     */
+    protected ParagraphBuilder makeParagraphBuilder(
+            final Configuration config, final TypesetterOptions options,
+            final NodeFactory nodeFactory) throws ConfigurationException {
+
+        return new TimingParagraphBuilder(clock, super.makeParagraphBuilder(
+            config, options, nodeFactory));
+    }
+
+}
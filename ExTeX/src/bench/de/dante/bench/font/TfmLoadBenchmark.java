@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.font;
+
+import java.io.ByteArrayInputStream;
+
+import de.dante.bench.AbstractBenchmark;
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.extex.font.type.tfm.TFMFont;
+import de.dante.util.file.random.RandomAccessInputStream;
+
+/**
+ * This benchmark measures the parsing of a TFM file. The file is read into
+ * memory once. One operation parses it.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TfmLoadBenchmark extends AbstractBenchmark {
+
+    /**
+     * The constant <tt>FONT</tt> contains the name of the font.
+     */
+    private static final String FONT = "cmr10";
+
+    /**
+     * The field <tt>data</tt> contains the contents of the font file.
+     */
+    private byte[] data;
+
+    /**
+     * Creates a new object.
+     */
+    public TfmLoadBenchmark() {
+
+        super("font.tfm");
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#run()
+     */
+    public int run() throws Exception {
+
+        TFMFont font = new TFMFont(new RandomAccessInputStream(
+            new ByteArrayInputStream(data)), FONT);
+        return font.getChecksum();
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+        data = BenchmarkExTeX.readFont(FONT + ".tfm");
+    }
+
+}
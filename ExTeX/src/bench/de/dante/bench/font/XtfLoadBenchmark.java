@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.font;
+
+import java.io.ByteArrayInputStream;
+
+import de.dante.bench.AbstractBenchmark;
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.extex.unicodeFont.format.xtf.XtfReader;
+
+/**
+ * This benchmark measures the parsing of a TrueType or OpenType font. The
+ * file is read into memory once. One operation parses all tables.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class XtfLoadBenchmark extends AbstractBenchmark {
+
+    /**
+     * The field <tt>data</tt> contains the contents of the font file.
+     */
+    private byte[] data;
+
+    /**
+     * The field <tt>file</tt> contains the name of the font file.
+     */
+    private String file;
+
+    /**
+     * Creates a new object.
+     *
+     * @param name the name
+     * @param file the name of the font file
+     */
+    public XtfLoadBenchmark(final String name, final String file) {
+
+        super(name);
+        this.file = file;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#run()
+     */
+    public int run() throws Exception {
+
+        XtfReader reader = new XtfReader(new ByteArrayInputStream(data));
+        return reader.getNumberOfGlyphs();
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+        data = BenchmarkExTeX.readFont(file);
+    }
+
+}
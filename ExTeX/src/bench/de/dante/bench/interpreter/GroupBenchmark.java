@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.interpreter;
+
+import de.dante.bench.AbstractBenchmark;
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.extex.interpreter.Interpreter;
+import de.dante.extex.interpreter.TokenSource;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.interpreter.context.group.GroupType;
+import de.dante.extex.typesetter.Typesetter;
+
+/**
+ * This benchmark measures the opening and closing of groups together with
+ * register accesses. One operation opens a few nested groups, assigns some
+ * registers locally in each of them, reads registers which have been
+ * assigned in outer groups, and closes the groups again.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class GroupBenchmark extends AbstractBenchmark {
+
+    /**
+     * The constant <tt>DEPTH</tt> contains the nesting depth of groups.
+     */
+    private static final int DEPTH = 8;
+
+    /**
+     * The constant <tt>NAMES</tt> contains the names of the registers used.
+     */
+    private static final String[] NAMES = {"0", "1", "2", "3", "4", "5", "6",
+            "7", "8", "9"};
+
+    /**
+     * The field <tt>context</tt> contains the context.
+     */
+    private Context context;
+
+    /**
+     * The field <tt>source</tt> contains the token source.
+     */
+    private TokenSource source;
+
+    /**
+     * The field <tt>typesetter</tt> contains the typesetter.
+     */
+    private Typesetter typesetter;
+
+    /**
+     * Creates a new object.
+     */
+    public GroupBenchmark() {
+
+        super("interpreter.groups");
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#run()
+     */
+    public int run() throws Exception {
+
+        long sum = 0;
+        for (int level = 0; level < DEPTH; level++) {
+            context.openGroup(GroupType.SIMPLE_GROUP, null, null);
+            context.setCount(NAMES[level], level, false);
+            context.setDimen(NAMES[level], level, false);
+            for (int i = 0; i < NAMES.length; i++) {
+                sum += context.getCount(NAMES[i]).getValue();
+                sum += context.getDimen(NAMES[i]).getValue();
+            }
+        }
+        for (int level = 0; level < DEPTH; level++) {
+            context.closeGroup(typesetter, source);
+        }
+        return (int) sum;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+        Interpreter interpreter = new BenchmarkExTeX("").run();
+        context = interpreter.getContext();
+        typesetter = interpreter.getTypesetter();
+        source = (TokenSource) interpreter;
+    }
+
+}
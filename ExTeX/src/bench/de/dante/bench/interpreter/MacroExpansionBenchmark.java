@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.interpreter;
+
+import de.dante.bench.AbstractBenchmark;
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.bench.NullOutputStream;
+import de.dante.extex.interpreter.Interpreter;
+import de.dante.extex.interpreter.TokenSource;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.interpreter.context.group.GroupType;
+import de.dante.extex.interpreter.max.Moritz;
+import de.dante.extex.interpreter.trace.BinaryTrace;
+import de.dante.extex.scanner.stream.impl.TokenStreamImpl;
+
+/**
+ * This benchmark measures macro expansion in the interpreter. The macros
+ * are defined once. One operation runs a loop which invokes macros with
+ * parameters, nested expansion, conditionals, and register arithmetic.
+ * The loop is run inside a group. The interpreter returns when the group is
+ * closed.
+ * <p>
+ *  Optionally the tokens read and pushed, the commands and the macros are
+ *  recorded in a {@link BinaryTrace BinaryTrace} which is discarded. This
+ *  shows the cost of tracing.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class MacroExpansionBenchmark extends AbstractBenchmark {
+
+    /**
+     * The constant <tt>DEFINITIONS</tt> contains the macros used.
+     */
+    private static final String DEFINITIONS = BenchmarkExTeX.CATCODES
+            + "\\def\\twice#1{#1#1}"
+            + "\\def\\four#1{\\twice{\\twice{#1}}}"
+            + "\\def\\body{\\edef\\x{\\four{ab}\\four{cd}}\\advance\\count1 1 }"
+            + "\\def\\loop{\\body\\ifnum\\count1<100 \\expandafter\\loop\\fi}";
+
+    /**
+     * The constant <tt>CODE</tt> contains the code run in one operation.
+     */
+    private static final String CODE = "\\count1=0 \\loop}";
+
+    /**
+     * The field <tt>context</tt> contains the context.
+     */
+    private Context context;
+
+    /**
+     * The field <tt>source</tt> contains the token source.
+     */
+    private TokenSource source;
+
+    /**
+     * The field <tt>trace</tt> contains the binary trace or
+     * <code>null</code>.
+     */
+    private BinaryTrace trace = null;
+
+    /**
+     * The field <tt>traced</tt> contains the indicator whether or not the
+     * events should be traced.
+     */
+    private boolean traced;
+
+    /**
+     * Creates a new object.
+     */
+    public MacroExpansionBenchmark() {
+
+        this("interpreter.macros", false);
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param name the name of the benchmark
+     * @param traced the indicator whether or not the events should be traced
+     */
+    public MacroExpansionBenchmark(final String name, final boolean traced) {
+
+        super(name);
+        this.traced = traced;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#run()
+     */
+    public int run() throws Exception {
+
+        context.openGroup(GroupType.SIMPLE_GROUP, null, null);
+        source.addStream(new TokenStreamImpl(null, null, CODE, "bench"));
+        source.executeGroup();
+        return (int) context.getCount("1").getValue();
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+        Interpreter interpreter = new BenchmarkExTeX(DEFINITIONS).run();
+        context = interpreter.getContext();
+        source = (TokenSource) interpreter;
+        if (traced) {
+            Moritz max = (Moritz) interpreter;
+            trace = new BinaryTrace(context, source, new NullOutputStream(),
+                    BinaryTrace.DEFAULT_CAPACITY);
+            max.registerObserver(trace.getPopObserver());
+            max.registerObserver(trace.getPushObserver());
+            max.registerObserver(trace.getCommandObserver());
+            max.registerObserver(trace);
+        }
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#tearDown()
+     */
+    public void tearDown() throws Exception {
+
+        if (trace != null) {
+            trace.close();
+            trace = null;
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.language;
+
+import java.util.Arrays;
+
+import de.dante.bench.AbstractBenchmark;
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.bench.SampleText;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.language.Language;
+import de.dante.extex.language.hyphenation.BatchHyphenator;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.util.UnicodeChar;
+
+/**
+ * This benchmark measures the lookup of hyphenation points. The patterns of
+ * <tt>hyphen.tex</tt> are loaded once. One operation determines the
+ * hyphenation points of a few hundred words in one batch.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class HyphenationBenchmark extends AbstractBenchmark {
+
+    /**
+     * The field <tt>chars</tt> contains the working copy of the words.
+     */
+    private UnicodeChar[] chars;
+
+    /**
+     * The field <tt>hyphenator</tt> contains the hyphenator.
+     */
+    private BatchHyphenator hyphenator;
+
+    /**
+     * The field <tt>options</tt> contains the options.
+     */
+    private TypesetterOptions options;
+
+    /**
+     * The field <tt>points</tt> contains the hyphenation points.
+     */
+    private boolean[] points;
+
+    /**
+     * The field <tt>words</tt> contains the words separated by
+     * <code>null</code>.
+     */
+    private UnicodeChar[] words;
+
+    /**
+     * Creates a new object.
+     */
+    public HyphenationBenchmark() {
+
+        super("language.hyphenation");
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#run()
+     */
+    public int run() throws Exception {
+
+        System.arraycopy(words, 0, chars, 0, words.length);
+        Arrays.fill(points, false);
+        return hyphenator.findHyphenationPoints(chars, chars.length, options,
+            points);
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+        Context context = new BenchmarkExTeX(BenchmarkExTeX.CATCODES
+                + BenchmarkExTeX.HYPHEN).run().getContext();
+        Language language = context.getLanguage("0");
+        if (!(language instanceof BatchHyphenator)) {
+            throw new IllegalStateException(language.getClass().getName());
+        }
+        hyphenator = (BatchHyphenator) language;
+        options = (TypesetterOptions) context;
+
+        String text = SampleText.prose(400, 1);
+        words = new UnicodeChar[text.length() + 1];
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            words[i + 1] = Character.isLetter(c) ? UnicodeChar.get(c) : null;
+        }
+        chars = new UnicodeChar[words.length];
+        points = new boolean[words.length];
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.scanner;
+
+import de.dante.bench.AbstractBenchmark;
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.bench.SampleText;
+import de.dante.extex.interpreter.Tokenizer;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.scanner.stream.TokenStream;
+import de.dante.extex.scanner.stream.impl.TokenStreamImpl;
+import de.dante.extex.scanner.type.token.TokenFactory;
+
+/**
+ * This benchmark measures the scanner. One operation creates a
+ * {@link de.dante.extex.scanner.stream.impl.TokenStreamImpl TokenStreamImpl}
+ * on a string and reads all tokens from it. The category codes and the
+ * token factory are taken from an <logo>ExTeX</logo> instance.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TokenStreamBenchmark extends AbstractBenchmark {
+
+    /**
+     * The constant <tt>MACROS</tt> contains the input type for text with
+     * many control sequences, braces, and macro parameters.
+     */
+    public static final int MACROS = 1;
+
+    /**
+     * The constant <tt>PLAIN</tt> contains the input type for plain prose.
+     */
+    public static final int PLAIN = 0;
+
+    /**
+     * Create the input text.
+     *
+     * @param type the type of the input
+     *
+     * @return the input text
+     */
+    private static String makeInput(final int type) {
+
+        StringBuffer sb = new StringBuffer();
+        for (int i = 0; i < 100; i++) {
+            if (type == PLAIN) {
+                sb.append(SampleText.prose(10, i));
+            } else {
+                sb.append("\\def\\item#1#2{\\hbox{#1}\\kern1pt{\\bf #2}}");
+                sb.append("\\item{x}{y}\\advance\\count");
+                sb.append(i);
+                sb.append(" by 1 % comment\n\\relax");
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The field <tt>factory</tt> contains the token factory.
+     */
+    private TokenFactory factory;
+
+    /**
+     * The field <tt>input</tt> contains the input text.
+     */
+    private String input;
+
+    /**
+     * The field <tt>tokenizer</tt> contains the tokenizer.
+     */
+    private Tokenizer tokenizer;
+
+    /**
+     * The field <tt>type</tt> contains the type of the input.
+     */
+    private int type;
+
+    /**
+     * Creates a new object.
+     *
+     * @param name the name
+     * @param type the type of the input; i.e. {@link #PLAIN PLAIN} or
+     *  {@link #MACROS MACROS}
+     */
+    public TokenStreamBenchmark(final String name, final int type) {
+
+        super(name);
+        this.type = type;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#run()
+     */
+    public int run() throws Exception {
+
+        TokenStream stream = new TokenStreamImpl(null, null, input, "bench");
+        int n = 0;
+        while (stream.get(factory, tokenizer) != null) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+        input = makeInput(type);
+        Context context = new BenchmarkExTeX(BenchmarkExTeX.CATCODES).run()
+                .getContext();
+        tokenizer = context;
+        factory = context.getTokenFactory();
+    }
+
+}
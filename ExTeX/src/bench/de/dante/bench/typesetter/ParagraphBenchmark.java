@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.bench.typesetter;
+
+import java.util.logging.Logger;
+
+import de.dante.bench.AbstractBenchmark;
+import de.dante.bench.BenchmarkExTeX;
+import de.dante.bench.SampleText;
+import de.dante.extex.interpreter.Interpreter;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.paragraphBuilder.texImpl.TeXParagraphBuilder;
+import de.dante.extex.typesetter.type.Node;
+import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.GlueNode;
+import de.dante.extex.typesetter.type.node.HorizontalListNode;
+import de.dante.extex.typesetter.type.node.SpaceNode;
+
+/**
+ * This benchmark measures the paragraph builder. A horizontal list is
+ * typeset once into a box register. One operation breaks a copy of this
+ * list into lines. The tolerances are chosen such that the second pass
+ * with hyphenation is needed.
+ * <p>
+ *  The line breaking sets the glue of the lines by adjusting the width of
+ *  the glue nodes. Thus the copy contains new glue nodes. All other nodes
+ *  are shared.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ParagraphBenchmark extends AbstractBenchmark {
+
+    /**
+     * The field <tt>builder</tt> contains the paragraph builder.
+     */
+    private TeXParagraphBuilder builder;
+
+    /**
+     * The field <tt>nodes</tt> contains the canned horizontal list.
+     */
+    private HorizontalListNode nodes;
+
+    /**
+     * Creates a new object.
+     */
+    public ParagraphBenchmark() {
+
+        super("typesetter.paragraph");
+    }
+
+    /**
+     * Make a copy of the canned list with fresh glue nodes.
+     *
+     * @return the copy
+     */
+    private HorizontalListNode copy() {
+
+        HorizontalListNode list = new HorizontalListNode();
+        int size = nodes.size();
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get(i);
+            if (node instanceof SpaceNode) {
+                node = new SpaceNode(((SpaceNode) node).getSize());
+            } else if (node instanceof GlueNode) {
+                node = new GlueNode(((GlueNode) node).getSize(), true);
+            }
+            list.add(node);
+        }
+        return list;
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#run()
+     */
+    public int run() throws Exception {
+
+        NodeList lines = builder.build(copy());
+        return lines.size();
+    }
+
+    /**
+     * @see de.dante.bench.Benchmark#setUp()
+     */
+    public void setUp() throws Exception {
+
+        Interpreter interpreter = new BenchmarkExTeX(BenchmarkExTeX.CATCODES
+                + BenchmarkExTeX.HYPHEN + "\\font\\rm=cmr10 \\rm "
+                + "\\hsize=250pt \\pretolerance=100 \\tolerance=200 "
+                + "\\setbox0=\\hbox{" + SampleText.prose(300, 3) + "}").run();
+        Context context = interpreter.getContext();
+        nodes = (HorizontalListNode) context.getBox("0").getNodes();
+
+        Logger logger = Logger.getLogger(getClass().getName());
+        logger.setUseParentHandlers(false);
+        builder = new TeXParagraphBuilder();
+        builder.enableLogging(logger);
+        builder.setOptions((TypesetterOptions) context);
+        builder.setNodefactory(interpreter.getTypesetter().getNodeFactory());
+    }
+
+}
@@ -297,6 +297,20 @@ import de.dante.util.resource.ResourceFinderFactory;
  *    search for input files.
  *   </dd>
  *
+ *   <dt><a name="extex.trace.binary"/><tt>extex.trace.binary</tt></dt>
+ *   <dd>
+ *    This Boolean parameter contains the indicator whether or not to write
+ *    the tracing of the tokenizer and of the macros to a binary trace file
+ *    instead of the log file. The binary trace file can be turned into text
+ *    with the trace decoder.
+ *   </dd>
+ *
+ *   <dt><a name="extex.trace.callgraph"/><tt>extex.trace.callgraph</tt></dt>
+ *   <dd>
+ *    This Boolean parameter contains the indicator whether or not to record
+ *    the call graph of the macros.
+ *   </dd>
+ *
  *   <dt><a name="extex.trace.font.files"/><tt>extex.trace.font.filess</tt></dt>
  *   <dd>
  *    This Boolean parameter contains the indicator whether or not to trace the
@@ -309,6 +323,12 @@ import de.dante.util.resource.ResourceFinderFactory;
  *    execution of macros.
  *   </dd>
  *
+ *   <dt><a name="extex.trace.profile"/><tt>extex.trace.profile</tt></dt>
+ *   <dd>
+ *    This Boolean parameter contains the indicator whether or not to profile
+ *    the execution of primitives and macros.
+ *   </dd>
+ *
  *   <dt><a name="extex.trace.tokenizer"/><tt>extex.trace.tokenizer</tt></dt>
  *   <dd>
  *    This Boolean parameter contains the indicator whether or not to trace the
@@ -462,7 +482,13 @@ import de.dante.util.resource.ResourceFinderFactory;
  *    </dd>
  *    <dt>{@link #makeTypesetter(Interpreter,Configuration,OutputStreamFactory,ResourceFinder) makeTypesetter()}</dt>
  *    <dd>
- *     Creates the typesetter.
+ *     Creates the typesetter:
+ *     <dl>
+ *      <dt>{@link #makeTypesetterFactory() makeTypesetterFactory()}</dt>
+ *      <dd>
+ *       Creates the factory for the typesetter and its builders.
+ *      </dd>
+ *     </dl>
  *    </dd>
  *   </dl>
  *  </dd>
@@ -706,6 +732,20 @@ public class ExTeX {
      */
     protected static final String PROP_TOKEN_STREAM = "extex.token.stream";
 
+    /**
+     * The constant <tt>PROP_TRACE_BINARY</tt> contains the name of the
+     * property for the Boolean determining whether or not the tracing output
+     * should be written to a binary trace file.
+     */
+    protected static final String PROP_TRACE_BINARY = "extex.trace.binary";
+
+    /**
+     * The constant <tt>PROP_TRACE_CALLGRAPH</tt> contains the name of the
+     * property for the Boolean determining whether or not the call graph of
+     * the macros should be recorded.
+     */
+    protected static final String PROP_TRACE_CALLGRAPH = "extex.trace.callgraph";
+
     /**
      * The constant <tt>PROP_TRACE_FONT_FILES</tt> contains the name of the
      * property for the Boolean determining whether or not the searching for
@@ -727,6 +767,13 @@ public class ExTeX {
      */
     protected static final String PROP_TRACE_MACROS = "extex.trace.macros";
 
+    /**
+     * The constant <tt>PROP_TRACE_PROFILE</tt> contains the name of the
+     * property for the Boolean determining whether or not the execution of
+     * primitives and macros should be profiled.
+     */
+    protected static final String PROP_TRACE_PROFILE = "extex.trace.profile";
+
     /**
      * The constant <tt>PROP_TRACE_TOKENIZER</tt> contains the name of the
      * property for the Boolean determining whether or not the tokenizer
@@ -922,9 +969,12 @@ public class ExTeX {
         propertyDefault(PROP_PROGNAME, "extex");
         propertyDefault(PROP_TEXINPUTS, null);
         propertyDefault(PROP_TOKEN_STREAM, "base");
+        propertyDefault(PROP_TRACE_BINARY, "");
+        propertyDefault(PROP_TRACE_CALLGRAPH, "");
         propertyDefault(PROP_TRACE_INPUT_FILES, "");
         propertyDefault(PROP_TRACE_FONT_FILES, "");
         propertyDefault(PROP_TRACE_MACROS, "");
+        propertyDefault(PROP_TRACE_PROFILE, "");
         propertyDefault(PROP_TRACE_TOKENIZER, "");
         propertyDefault(PROP_TRACING_ONLINE, "");
         propertyDefault(PROP_TYPESETTER_TYPE, "");
@@ -1644,20 +1694,35 @@ public class ExTeX {
      */
     protected File makeLogFile(final String jobname) {
 
+        return makeOutputFile(jobname, ".log");
+    }
+
+    /**
+     * Find a writable file in the output directories. The first output
+     * directory in which the file exists and is writable or can be created
+     * is used.
+     *
+     * @param jobname the name of the job
+     * @param extension the extension of the file including the leading dot
+     *
+     * @return the file or <code>null</code> if none could be found
+     */
+    protected File makeOutputFile(final String jobname, final String extension) {
+
         String[] dirs = properties.getProperty(PROP_OUTPUT_DIRS).split(":");
 
         for (int i = 0; i < dirs.length; i++) {
 
-            File logFile = new File(dirs[i], jobname + ".log");
+            File file = new File(dirs[i], jobname + extension);
 
-            if (logFile.exists()) {
-                if (logFile.canWrite()) {
-                    return logFile;
+            if (file.exists()) {
+                if (file.canWrite()) {
+                    return file;
                 }
             } else {
-                File dir = logFile.getParentFile();
+                File dir = file.getParentFile();
                 if (dir != null && dir.canWrite()) {
-                    return logFile;
+                    return file;
                 }
             }
         }
@@ -1885,7 +1950,7 @@ public class ExTeX {
                 config.getConfiguration("ColorConverter"), //
                 finder, fontFactory);
 
-        TypesetterFactory factory = new TypesetterFactory();
+        TypesetterFactory factory = makeTypesetterFactory();
         factory.configure(config.getConfiguration("Typesetter"));
         factory.enableLogging(logger);
         Typesetter typesetter = factory.newInstance(properties
@@ -1898,6 +1963,20 @@ public class ExTeX {
         return typesetter;
     }
 
+    /**
+     * Create a new factory for typesetters.
+     * <p>
+     *  This method can be overwritten in derived classes to provide a factory
+     *  with additional abilities.
+     * </p>
+     *
+     * @return the new typesetter factory
+     */
+    protected TypesetterFactory makeTypesetterFactory() {
+
+        return new TypesetterFactory();
+    }
+
     /**
      * Set a property to a given value if not set yet.
      *
@@ -23,6 +23,7 @@ import de.dante.extex.interpreter.exception.InterpreterException;
 import de.dante.extex.interpreter.primitives.pdftex.util.action.ActionSpec;
 import de.dante.extex.interpreter.type.box.Box;
 import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.interpreter.type.image.Image;
 import de.dante.extex.typesetter.type.node.RuleNode;
 import de.dante.extex.typesetter.type.node.pdftex.PdfAnnotation;
 import de.dante.extex.typesetter.type.node.pdftex.PdfObject;
@@ -52,6 +53,19 @@ public interface PdftexSupport {
     PdfAnnotation getAnnotation(RuleNode node, String annotation)
             throws InterpreterException;
 
+    /**
+     * Get an image. Only the header of the image is read to determine its
+     * format and size. The same image is returned for equal contents.
+     *
+     * @param resource the resource specification
+     * @param page the page number
+     *
+     * @return the image
+     *
+     * @throws InterpreterException in case of an error
+     */
+    Image getImage(String resource, long page) throws InterpreterException;
+
     /**
      * Factory method to construct a PdfObject node.
      *
@@ -84,9 +98,10 @@ public interface PdftexSupport {
     /**
      * Factory method to construct a PdfXImage node.
      *
-     * @param resource the resource specification
+     * @param image the image as returned by
+     *  {@link #getImage(String, long) getImage()}
      * @param rule the rule specification. Only the width height and depth are
-     *  relevant. Either of them can be <code>null</code>.
+     *  relevant.
      * @param attr the attribute text. This can be <code>null</code>
      * @param page the page number
      * @param immediate the indicator that the image should be put into the
@@ -96,7 +111,7 @@ public interface PdftexSupport {
      *
      * @throws InterpreterException in case of an error
      */
-    PdfRefXImage getXImage(String resource, RuleNode rule, String attr,
+    PdfRefXImage getXImage(Image image, RuleNode rule, String attr,
             long page, boolean immediate) throws InterpreterException;
 
     /**
@@ -21,6 +21,8 @@ package de.dante.extex.backend.documentWriter.dump;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 import de.dante.extex.backend.documentWriter.DocumentWriter;
 import de.dante.extex.backend.documentWriter.DocumentWriterOptions;
@@ -28,10 +30,13 @@ import de.dante.extex.backend.documentWriter.PdftexSupport;
 import de.dante.extex.backend.documentWriter.SingleDocumentStream;
 import de.dante.extex.backend.documentWriter.exception.DocumentWriterException;
 import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.exception.pdftex.InterpreterPdftexImageException;
 import de.dante.extex.interpreter.primitives.pdftex.util.action.ActionSpec;
 import de.dante.extex.interpreter.type.box.Box;
 import de.dante.extex.interpreter.type.dimen.Dimen;
 import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.interpreter.type.image.Image;
+import de.dante.extex.interpreter.type.image.ImageFactory;
 import de.dante.extex.typesetter.type.NodeList;
 import de.dante.extex.typesetter.type.NodeVisitor;
 import de.dante.extex.typesetter.type.node.AdjustNode;
@@ -63,6 +68,8 @@ import de.dante.util.exception.GeneralException;
 import de.dante.util.framework.configuration.Configurable;
 import de.dante.util.framework.configuration.Configuration;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.resource.ResourceConsumer;
+import de.dante.util.resource.ResourceFinder;
 
 /**
  * This is an implementation of a document writer which can act both as sample
@@ -76,8 +83,31 @@ public class DumpDocumentWriter
             DocumentWriter,
             SingleDocumentStream,
             PdftexSupport,
+            ResourceConsumer,
             Configurable {
 
+    /**
+     * The field <tt>finder</tt> contains the resource finder for images.
+     */
+    private ResourceFinder finder = null;
+
+    /**
+     * The field <tt>imageFactory</tt> contains the image factory. It is
+     * created when the first image is requested.
+     */
+    private ImageFactory imageFactory = null;
+
+    /**
+     * The field <tt>images</tt> contains the object indices of the distinct
+     * images referenced so far.
+     */
+    private Map images = new HashMap();
+
+    /**
+     * The field <tt>lastXImage</tt> contains the index of the last image.
+     */
+    private long lastXImage = 0;
+
     /**
      * The field <tt>nodeVisitor</tt> contains the node visitor instance to use
      * in the form of an anonymous inner class.
@@ -471,6 +501,23 @@ public class DumpDocumentWriter
         return "out";
     }
 
+    /**
+     * @see de.dante.extex.backend.documentWriter.PdftexSupport#getImage(
+     *      java.lang.String, long)
+     */
+    public Image getImage(final String resource, final long page)
+            throws InterpreterException {
+
+        if (imageFactory == null) {
+            imageFactory = new ImageFactory(finder);
+        }
+        try {
+            return imageFactory.getImage(resource);
+        } catch (IOException e) {
+            throw new InterpreterPdftexImageException(resource);
+        }
+    }
+
     /**
      * @see de.dante.extex.backend.documentWriter.PdftexSupport#getObject(java.lang.String, boolean, java.lang.String)
      */
@@ -490,13 +537,19 @@ public class DumpDocumentWriter
     }
 
     /**
-     * @see de.dante.extex.backend.documentWriter.PdftexSupport#getXImage(java.lang.String, de.dante.extex.typesetter.type.node.RuleNode, java.lang.String, long, boolean)
+     * @see de.dante.extex.backend.documentWriter.PdftexSupport#getXImage(de.dante.extex.interpreter.type.image.Image, de.dante.extex.typesetter.type.node.RuleNode, java.lang.String, long, boolean)
      */
-    public PdfRefXImage getXImage(final String resource, final RuleNode rule,
+    public PdfRefXImage getXImage(final Image image, final RuleNode rule,
             final String attr, final long page, final boolean immediate)
             throws InterpreterException {
 
-        return null;
+        Long index = (Long) images.get(image);
+        if (index == null) {
+            index = new Long(images.size() + 1);
+            images.put(image, index);
+        }
+        lastXImage = index.longValue();
+        return new PdfRefXImage(lastXImage);
     }
 
     /**
@@ -565,7 +618,7 @@ public class DumpDocumentWriter
      */
     public long pdflastximage() {
 
-        return 0;
+        return lastXImage;
     }
 
     /**
@@ -600,6 +653,15 @@ public class DumpDocumentWriter
 
     }
 
+    /**
+     * @see de.dante.util.resource.ResourceConsumer#setResourceFinder(
+     *      de.dante.util.resource.ResourceFinder)
+     */
+    public void setResourceFinder(final ResourceFinder finder) {
+
+        this.finder = finder;
+    }
+
     /**
      * Setter for tree.
      *
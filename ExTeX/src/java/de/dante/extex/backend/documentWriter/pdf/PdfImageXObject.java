@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.backend.documentWriter.pdf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import de.dante.extex.interpreter.type.image.Image;
+import de.dante.extex.interpreter.type.image.JpegImage;
+
+/**
+ * This class writes an image as PDF image XObject.
+ *
+ * <p>
+ *  The encoded data of the image is copied into the stream of the XObject
+ *  without decoding it. A JPEG image is stored with the filter
+ *  <tt>/DCTDecode</tt>. The compressed data of a PNG image is stored with
+ *  the filter <tt>/FlateDecode</tt> and the PNG predictor. Thus the pixels
+ *  are never held in memory.
+ * </p>
+ * <p>
+ *  Only images which report to be passed through are supported. Other
+ *  images have to be converted before.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public final class PdfImageXObject {
+
+    /**
+     * The constant <tt>HEX</tt> contains the hexadecimal digits.
+     */
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Determine the color space for an image.
+     *
+     * @param image the image
+     *
+     * @return the color space
+     */
+    private static String colorSpace(final Image image) {
+
+        byte[] palette = image.getPalette();
+        if (palette != null) {
+            StringBuffer sb = new StringBuffer("[/Indexed /DeviceRGB ");
+            sb.append(palette.length / 3 - 1);
+            sb.append(" <");
+            for (int i = 0; i < palette.length; i++) {
+                sb.append(HEX[(palette[i] >> 4) & 0xf]);
+                sb.append(HEX[palette[i] & 0xf]);
+            }
+            sb.append(">]");
+            return sb.toString();
+        }
+        switch (image.getColorComponents()) {
+            case 1:
+                return "/DeviceGray";
+            case 4:
+                return "/DeviceCMYK";
+            default:
+                return "/DeviceRGB";
+        }
+    }
+
+    /**
+     * Write the image XObject. The object header and trailer have to be
+     * written by the caller.
+     *
+     * @param image the image
+     * @param out the output stream
+     *
+     * @throws IOException in case of an I/O error or an image which can not
+     *  be passed through
+     */
+    public static void write(final Image image, final OutputStream out)
+            throws IOException {
+
+        if (!image.isPassThrough()) {
+            throw new IOException(image.getResource()
+                    + ": image can not be passed through");
+        }
+
+        StringBuffer sb = new StringBuffer("<< /Type /XObject /Subtype /Image");
+        sb.append(" /Width ");
+        sb.append(image.getPixelWidth());
+        sb.append(" /Height ");
+        sb.append(image.getPixelHeight());
+        sb.append(" /BitsPerComponent ");
+        sb.append(image.getBitsPerComponent());
+        sb.append(" /ColorSpace ");
+        sb.append(colorSpace(image));
+
+        if ("jpeg".equals(image.getFormat())) {
+            sb.append(" /Filter /DCTDecode");
+            if (image instanceof JpegImage
+                    && ((JpegImage) image).isInverted()) {
+                sb.append(" /Decode [1 0 1 0 1 0 1 0]");
+            }
+        } else if ("png".equals(image.getFormat())) {
+            sb.append(" /Filter /FlateDecode /DecodeParms << /Predictor 15");
+            sb.append(" /Colors ");
+            sb.append(image.getColorComponents());
+            sb.append(" /BitsPerComponent ");
+            sb.append(image.getBitsPerComponent());
+            sb.append(" /Columns ");
+            sb.append(image.getPixelWidth());
+            sb.append(" >>");
+        } else {
+            throw new IOException(image.getResource()
+                    + ": unsupported image format " + image.getFormat());
+        }
+
+        sb.append(" /Length ");
+        sb.append(image.getDataLength());
+        sb.append(" >>\nstream\n");
+        out.write(sb.toString().getBytes("ISO-8859-1"));
+        image.writeData(out);
+        out.write("\nendstream\n".getBytes("ISO-8859-1"));
+    }
+
+    /**
+     * Creates a new object.
+     * This constructor is private to prevent instances of this class.
+     */
+    private PdfImageXObject() {
+
+        super();
+    }
+
+}
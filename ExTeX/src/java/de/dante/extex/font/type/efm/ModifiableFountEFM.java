@@ -183,13 +183,15 @@ public class ModifiableFountEFM implements ModifiableFount, Serializable {
 
     /**
      * the map for the glyphs
+     * (the glyphs are created on demand; the map is guarded by the fount
+     * since the fount may be shared by several threads)
      */
     private Map glyphmap = new HashMap();
 
     /**
      * @see de.dante.extex.font.type.Fount#getGlyph(de.dante.util.UnicodeChar)
      */
-    public Glyph getGlyph(final UnicodeChar c) {
+    public synchronized Glyph getGlyph(final UnicodeChar c) {
 
         Glyph g = (Glyph) glyphmap.get(c);
         if (g == null) {
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.format.dvi;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jdom.Element;
+
+import de.dante.extex.font.FontFactory;
+import de.dante.extex.font.exception.FontException;
+import de.dante.extex.format.dvi.exception.DviException;
+import de.dante.util.file.random.RandomAccessInputFile;
+import de.dante.util.file.random.RandomAccessR;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.worker.Future;
+import de.dante.util.worker.Task;
+import de.dante.util.worker.WorkerException;
+import de.dante.util.worker.WorkerPool;
+
+/**
+ * Converter for the pages of a DVI file to XML elements.
+ *
+ * <p>
+ * The pages are located with a {@link DviPageIndex DviPageIndex}. Ranges of
+ * pages are decoded in parallel by the threads of a
+ * {@link WorkerPool WorkerPool}. Each task uses its own input and its own
+ * {@link DviXml DviXml}. The fonts are loaded once from the postamble and
+ * shared by all tasks; the glyph lookup of the fonts may be used from
+ * several threads at once. The results are delivered in page order.
+ * </p>
+ *
+ * @see <a href="package-summary.html#DVIformat">DVI-Format</a>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class DviPageConverter {
+
+    /**
+     * The number of tasks per worker thread. More tasks than threads
+     * compensate for pages of different complexity.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /**
+     * the dvi file
+     */
+    private File file;
+
+    /**
+     * the font factory
+     */
+    private FontFactory fontfactory;
+
+    /**
+     * the map for all fonts of the postamble
+     */
+    private Map fontmap;
+
+    /**
+     * the page index
+     */
+    private DviPageIndex index;
+
+    /**
+     * the worker pool
+     */
+    private WorkerPool pool;
+
+    /**
+     * show pt-values in elements
+     */
+    private boolean showPT = false;
+
+    /**
+     * Create a new object.
+     * <p>
+     * The page index is built and all fonts of the postamble are loaded.
+     * </p>
+     *
+     * @param dvifile   the dvi file
+     * @param ff        the font factory
+     * @param wp        the worker pool; a pool without threads leads to a
+     *                  sequential conversion
+     * @throws IOException   if an IO-error occurs.
+     * @throws DviException  if a DVI-error occurs.
+     * @throws FontException if a font-error occurs.
+     * @throws ConfigurationException from the config systen.
+     */
+    public DviPageConverter(final File dvifile, final FontFactory ff,
+            final WorkerPool wp) throws IOException, DviException,
+            FontException, ConfigurationException {
+
+        super();
+        file = dvifile;
+        fontfactory = ff;
+        pool = wp;
+
+        RandomAccessR rar = new RandomAccessInputFile(file);
+        try {
+            index = new DviPageIndex(rar);
+        } finally {
+            rar.close();
+        }
+        fontmap = new HashMap();
+        DviXml dvi = new DviXml(null, fontfactory);
+        dvi.setFontmap(fontmap);
+        dvi.loadFonts(index);
+    }
+
+    /**
+     * Convert a single page.
+     *
+     * @param pageno    the index of the page, starting at 0
+     * @return Returns the <code>bop</code> element of the page
+     * @throws IOException   if an IO-error occurs.
+     * @throws DviException  if a DVI-error occurs.
+     * @throws FontException if a font-error occurs.
+     * @throws ConfigurationException from the config systen.
+     */
+    public Element convert(final int pageno) throws IOException,
+            DviException, FontException, ConfigurationException {
+
+        Element[] elements = new Element[1];
+        convertRange(pageno, pageno + 1, elements, 0);
+        return elements[0];
+    }
+
+    /**
+     * Convert a range of pages. The pages are distributed to the worker
+     * threads.
+     *
+     * @param from      the index of the first page, starting at 0
+     * @param to        the index after the last page
+     * @return Returns the <code>bop</code> elements of the pages in page
+     *         order
+     * @throws IOException   if an IO-error occurs.
+     * @throws DviException  if a DVI-error occurs.
+     * @throws FontException if a font-error occurs.
+     * @throws ConfigurationException from the config systen.
+     */
+    public Element[] convert(final int from, final int to)
+            throws IOException, DviException, FontException,
+            ConfigurationException {
+
+        if (from < 0 || to > index.getPageCount() || from > to) {
+            throw new IndexOutOfBoundsException(from + ".." + to);
+        }
+        final Element[] elements = new Element[to - from];
+        if (elements.length == 0) {
+            return elements;
+        }
+        int tasks = pool.getSize() * TASKS_PER_THREAD;
+        int chunk = (tasks <= 1 ? elements.length : (elements.length
+                + tasks - 1)
+                / tasks);
+        int n = (elements.length + chunk - 1) / chunk;
+        Future[] futures = new Future[n];
+
+        for (int i = 0; i < n; i++) {
+            final int start = from + i * chunk;
+            final int end = Math.min(start + chunk, to);
+            futures[i] = pool.submit(new Task() {
+
+                /**
+                 * @see de.dante.util.worker.Task#run()
+                 */
+                public Object run() throws Exception {
+
+                    convertRange(start, end, elements, start - from);
+                    return null;
+                }
+            });
+        }
+
+        // wait for all tasks in page order
+        for (int i = 0; i < n; i++) {
+            try {
+                futures[i].get();
+            } catch (WorkerException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof DviException) {
+                    throw (DviException) cause;
+                } else if (cause instanceof FontException) {
+                    throw (FontException) cause;
+                } else if (cause instanceof ConfigurationException) {
+                    throw (ConfigurationException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new DviException(String.valueOf(cause));
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Convert a range of pages in the current thread.
+     *
+     * @param from      the index of the first page, starting at 0
+     * @param to        the index after the last page
+     * @param elements  the target array
+     * @param offset    the index in the target array for the first page
+     * @throws IOException   if an IO-error occurs.
+     * @throws DviException  if a DVI-error occurs.
+     * @throws FontException if a font-error occurs.
+     * @throws ConfigurationException from the config systen.
+     */
+    private void convertRange(final int from, final int to,
+            final Element[] elements, final int offset) throws IOException,
+            DviException, FontException, ConfigurationException {
+
+        DviXml dvi = new DviXml(null, fontfactory);
+        // a private copy: fnt_def commands in the pages must not modify the
+        // shared map
+        dvi.setFontmap(new HashMap(fontmap));
+        dvi.setShowPT(showPT);
+        RandomAccessR rar = new RandomAccessInputFile(file);
+        try {
+            for (int i = from; i < to; i++) {
+                elements[offset + i - from] = dvi.readPage(rar, index, i);
+            }
+        } finally {
+            rar.close();
+        }
+    }
+
+    /**
+     * Returns the page index.
+     * @return Returns the page index.
+     */
+    public DviPageIndex getIndex() {
+
+        return index;
+    }
+
+    /**
+     * Set the value for showPT.
+     * @param show The showPT to set.
+     */
+    public void setShowPT(final boolean show) {
+
+        showPT = show;
+    }
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.format.dvi;
+
+import java.io.IOException;
+import java.util.List;
+
+import de.dante.extex.font.exception.FontException;
+import de.dante.extex.format.dvi.command.DviBOP;
+import de.dante.extex.format.dvi.command.DviCommand;
+import de.dante.extex.format.dvi.command.DviPost;
+import de.dante.extex.format.dvi.exception.DviBopEopException;
+import de.dante.extex.format.dvi.exception.DviException;
+import de.dante.util.file.random.RandomAccessR;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+
+/**
+ * Index of the pages of a DVI file.
+ *
+ * <p>
+ * The index is built from the postamble only: the <code>post</code> command
+ * points to the last <code>bop</code> and each <code>bop</code> carries the
+ * pointer <code>p</code> to the previous one. Thus the index can be built
+ * by reading the postamble, the font definitions in the postamble and the
+ * <code>bop</code> commands. The contents of the pages is not touched.
+ * </p>
+ * <p>
+ * The font definitions of the postamble contain all fonts used in the
+ * document. Thus any page can be decoded without reading the pages before it.
+ * </p>
+ *
+ * @see <a href="package-summary.html#DVIformat">DVI-Format</a>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class DviPageIndex {
+
+    /**
+     * The initial size of the page arrays.
+     */
+    private static final int INITIAL_SIZE = 64;
+
+    /**
+     * The opcode of the <code>bop</code> command.
+     */
+    private static final int BOP = 139;
+
+    /**
+     * The length of the <code>bop</code> command: the opcode, ten counts and
+     * the pointer to the previous page.
+     */
+    private static final int BOP_LENGTH = 45;
+
+    /**
+     * The field <tt>bop</tt> contains the start pointers of the
+     * <code>bop</code> commands in page order.
+     */
+    private int[] bop;
+
+    /**
+     * The field <tt>counts</tt> contains the values of the registers
+     * <code>\count0</code> to <code>\count9</code> for each page.
+     */
+    private int[][] counts;
+
+    /**
+     * The field <tt>fntdefs</tt> contains the <code>fnt_def</code> commands
+     * of the postamble.
+     */
+    private List fntdefs;
+
+    /**
+     * The field <tt>pages</tt> contains the number of pages.
+     */
+    private int pages;
+
+    /**
+     * The field <tt>post</tt> contains the <code>post</code> command.
+     */
+    private DviPost post;
+
+    /**
+     * Create a new object and read the index from the input.
+     *
+     * @param rar   the input
+     *
+     * @throws IOException    if an IO-error occurs.
+     * @throws DviException   if a dvi-error occurs.
+     * @throws FontException  if a font-error occurs.
+     * @throws ConfigurationException from the config system.
+     */
+    public DviPageIndex(final RandomAccessR rar) throws IOException,
+            DviException, FontException, ConfigurationException {
+
+        super();
+        post = DviCommand.getPost(rar);
+        fntdefs = DviCommand.getFntDefs(rar);
+
+        // the total page count in the postamble has only 16 bits;
+        // thus the chain is followed until its end
+        int size = post.getTotalpage();
+        bop = new int[size > 0 ? size : INITIAL_SIZE];
+        counts = new int[bop.length][];
+        pages = 0;
+
+        // each pointer has to lie inside the file and has to be smaller
+        // than the one before; otherwise a malformed file would lead to an
+        // endless loop
+        long limit = rar.length() - BOP_LENGTH + 1;
+
+        for (int p = post.getPointer(); p >= 0;) {
+            if (p >= limit) {
+                throw new DviBopEopException(Integer.toString(p));
+            }
+            limit = p;
+            rar.seek(p);
+            if (rar.readByteAsInt() != BOP) {
+                throw new DviBopEopException(Integer.toString(p));
+            }
+            rar.seek(p);
+            DviBOP command = (DviBOP) DviCommand.getNextCommand(rar);
+            if (pages >= bop.length) {
+                grow();
+            }
+            bop[pages] = p;
+            counts[pages] = command.getC();
+            pages++;
+            p = command.getP();
+        }
+
+        // the chain delivers the pages from the last to the first one
+        for (int i = 0, j = pages - 1; i < j; i++, j--) {
+            int b = bop[i];
+            bop[i] = bop[j];
+            bop[j] = b;
+            int[] c = counts[i];
+            counts[i] = counts[j];
+            counts[j] = c;
+        }
+    }
+
+    /**
+     * Find the first page for which <code>\count0</code> has a given value.
+     *
+     * @param count0 the value of <code>\count0</code>
+     *
+     * @return the index of the page or -1 if none is found
+     */
+    public int findPage(final int count0) {
+
+        for (int i = 0; i < pages; i++) {
+            if (counts[i][0] == count0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the start pointer of the <code>bop</code> command of a page.
+     *
+     * @param page the index of the page, starting at 0
+     *
+     * @return the start pointer
+     */
+    public int getBopPointer(final int page) {
+
+        if (page < 0 || page >= pages) {
+            throw new IndexOutOfBoundsException(Integer.toString(page));
+        }
+        return bop[page];
+    }
+
+    /**
+     * Returns the values of <code>\count0</code> to <code>\count9</code>
+     * of a page.
+     *
+     * @param page the index of the page, starting at 0
+     *
+     * @return the counts
+     */
+    public int[] getCounts(final int page) {
+
+        if (page < 0 || page >= pages) {
+            throw new IndexOutOfBoundsException(Integer.toString(page));
+        }
+        return counts[page];
+    }
+
+    /**
+     * Returns the <code>fnt_def</code> commands of the postamble.
+     *
+     * @return the <code>fnt_def</code> commands
+     */
+    public List getFntDefs() {
+
+        return fntdefs;
+    }
+
+    /**
+     * Returns the number of pages.
+     *
+     * @return the number of pages
+     */
+    public int getPageCount() {
+
+        return pages;
+    }
+
+    /**
+     * Returns the <code>post</code> command.
+     *
+     * @return the <code>post</code> command
+     */
+    public DviPost getPost() {
+
+        return post;
+    }
+
+    /**
+     * Double the size of the page arrays.
+     */
+    private void grow() {
+
+        int[] b = new int[bop.length * 2];
+        System.arraycopy(bop, 0, b, 0, bop.length);
+        bop = b;
+        int[][] c = new int[b.length][];
+        System.arraycopy(counts, 0, c, 0, counts.length);
+        counts = c;
+    }
+
+}
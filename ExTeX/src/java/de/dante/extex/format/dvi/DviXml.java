@@ -21,6 +21,7 @@ package de.dante.extex.format.dvi;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 
@@ -167,6 +168,11 @@ public class DviXml implements DviInterpreter, DviExecuteCommand {
             FontException, ConfigurationException {
 
         Integer key = new Integer(command.getFont());
+        if (fontmap.containsKey(key)) {
+            // the fnt_def commands for a font are identical in the pages
+            // and the postamble
+            return;
+        }
         Dimen designsize = command.getScaleAsDimen();
         Count scale = command.getScaledAsCount(mag);
         String name = command.getFName();
@@ -400,6 +406,58 @@ public class DviXml implements DviInterpreter, DviExecuteCommand {
         return rt;
     }
 
+    /**
+     * Load all fonts defined in the postamble.
+     * <p>
+     * This has to be done before single pages are read with
+     * {@link #readPage(RandomAccessR, DviPageIndex, int) readPage()}.
+     * </p>
+     *
+     * @param index the page index
+     * @throws DviException  if a DVI-error occurs.
+     * @throws FontException if a font-error occurs.
+     * @throws ConfigurationException from the config systen.
+     */
+    public void loadFonts(final DviPageIndex index) throws DviException,
+            FontException, ConfigurationException {
+
+        mag = index.getPost().getMag();
+        List fntdefs = index.getFntDefs();
+        for (int i = 0; i < fntdefs.size(); i++) {
+            loadFont((DviFntDef) fntdefs.get(i));
+        }
+    }
+
+    /**
+     * Read one page as element.
+     * <p>
+     * The page is located with the help of the index. Thus the pages before
+     * it are not read. The fonts have to be loaded before with
+     * {@link #loadFonts(DviPageIndex) loadFonts()} or
+     * {@link #setFontmap(Map) setFontmap()}.
+     * </p>
+     *
+     * @param rar       the input
+     * @param index     the page index
+     * @param pageno    the index of the page, starting at 0
+     * @return Returns the <code>bop</code> element of the page
+     * @throws IOException   if an IO-error occurs.
+     * @throws DviException  if a DVI-error occurs.
+     * @throws FontException if a font-error occurs.
+     * @throws ConfigurationException from the config systen.
+     */
+    public Element readPage(final RandomAccessR rar, final DviPageIndex index,
+            final int pageno) throws IOException, DviException, FontException,
+            ConfigurationException {
+
+        rar.seek(index.getBopPointer(pageno));
+        // the preamble is not read; the postamble repeats the magnification
+        mag = index.getPost().getMag();
+        // the bop command increments the page counter
+        page = pageno;
+        return readNextElement(rar);
+    }
+
     /**
      * Returns the font from the fontmap.
      * @return Returns the font from the fontmap.
@@ -486,7 +544,7 @@ public class DviXml implements DviInterpreter, DviExecuteCommand {
      * Set the fontmap.
      * @param fontm The fontmap to set.
      */
-    public void setFontmap(Map fontm) {
+    public void setFontmap(final Map fontm) {
 
         fontmap = fontm;
     }
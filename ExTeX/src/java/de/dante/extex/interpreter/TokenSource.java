@@ -709,6 +709,26 @@ public interface TokenSource {
      */
     void skipSpace();
 
+    /**
+     * Get the next code token from the input streams and discard all tokens
+     * preceding it. Code tokens are control sequences and active characters.
+     * If the current input stream is at its end then the next one on the
+     * streamStack is used until a code token could be read. If all stream are
+     * at the end then <code>null</code> is returned.
+     * <p>
+     *  This method is meant for skipping input at high speed, e.g. the branch
+     *  of a conditional which is not taken. The discarded tokens are not
+     *  reported to the observers.
+     * </p>
+     *
+     * @param context the interpreter context
+     *
+     * @return the next code token or <code>null</code>
+     *
+     * @throws InterpreterException in case of an error
+     */
+    CodeToken skipToCodeToken(Context context) throws InterpreterException;
+
     /**
      * Send the string to the named observer. The observer must be capable to
      * deal with a string argument.
@@ -85,6 +85,7 @@ import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.interpreter.unit.UnitInfo;
 import de.dante.extex.language.Language;
 import de.dante.extex.language.LanguageManager;
+import de.dante.extex.scanner.stream.LineFilter;
 import de.dante.extex.scanner.stream.TokenStream;
 import de.dante.extex.scanner.stream.TokenStreamOptions;
 import de.dante.extex.scanner.type.Catcode;
@@ -856,6 +857,15 @@ public class ContextImpl
         return languageManager;
     }
 
+    /**
+     * @see de.dante.extex.scanner.stream.TokenStreamOptions#getLineFilter()
+     */
+    public LineFilter getLineFilter() {
+
+        return (LineFilter) group.get(TokenStreamOptions.EXTENSION,
+                TokenStreamOptions.LINE_FILTER);
+    }
+
     /**
      * @see de.dante.extex.interpreter.context.Context#getLccode(
      *      de.dante.util.UnicodeChar)
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.context.tc;
+
+import de.dante.extex.interpreter.context.Color;
+import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.language.Language;
+
+/**
+ * This class provides a typesetting context which can not be modified. The
+ * {@link TypesettingContextFactory TypesettingContextFactory} hands out
+ * instances of this class only. They are shared; thus a modification would
+ * affect all users. A typesetting context with different attributes is
+ * acquired from the factory instead.
+ *
+ * <p>
+ *  Two typesetting contexts are equal if they agree in font, color,
+ *  direction, and language. This holds for the comparison with any other
+ *  implementation of a typesetting context as well.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public final class ImmutableTypesettingContext implements TypesettingContext {
+
+    /**
+     * The constant <tt>serialVersionUID</tt> contains the id for serialization.
+     */
+    protected static final long serialVersionUID = 2006L;
+
+    /**
+     * Compare two attributes for equality. <code>null</code> is equal to
+     * <code>null</code> only.
+     *
+     * @param a the first attribute
+     * @param b the second attribute
+     *
+     * @return <code>true</code> iff the attributes are equal
+     */
+    private static boolean same(final Object a, final Object b) {
+
+        return (a == null ? b == null : a.equals(b));
+    }
+
+    /**
+     * The field <tt>color</tt> contains the color to use.
+     */
+    private final Color color;
+
+    /**
+     * The field <tt>direction</tt> contains the direction for advancing the
+     * cursor.
+     */
+    private final Direction direction;
+
+    /**
+     * The field <tt>font</tt> contains the font to use.
+     */
+    private final Font font;
+
+    /**
+     * The field <tt>hash</tt> contains the hash code. It is computed once
+     * since the attributes can not change.
+     */
+    private final int hash;
+
+    /**
+     * The field <tt>language</tt> contains the hyphenation table for the
+     * current language.
+     */
+    private final Language language;
+
+    /**
+     * Creates a new object with the attributes of another typesetting
+     * context.
+     *
+     * @param tc the typesetting context to copy
+     */
+    public ImmutableTypesettingContext(final TypesettingContext tc) {
+
+        super();
+        this.font = tc.getFont();
+        this.color = tc.getColor();
+        this.direction = tc.getDirection();
+        this.language = tc.getLanguage();
+        int h = (font == null ? 0 : font.hashCode());
+        h = 31 * h + (color == null ? 0 : color.hashCode());
+        h = 31 * h + (direction == null ? 0 : direction.hashCode());
+        this.hash = 31 * h + (language == null ? 0 : language.hashCode());
+    }
+
+    /**
+     * Compare this typesetting context with another object. Two typesetting
+     * contexts are equal if they agree in font, color, direction, and
+     * language.
+     *
+     * @param obj the object to compare to
+     *
+     * @return <code>true</code> iff the object is an equal typesetting
+     *  context
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    public boolean equals(final Object obj) {
+
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof TypesettingContext)) {
+            return false;
+        }
+        TypesettingContext tc = (TypesettingContext) obj;
+        return same(font, tc.getFont()) && same(color, tc.getColor())
+                && same(direction, tc.getDirection())
+                && same(language, tc.getLanguage());
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.context.tc.TypesettingContext#getColor()
+     */
+    public Color getColor() {
+
+        return this.color;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.context.tc.TypesettingContext#getDirection()
+     */
+    public Direction getDirection() {
+
+        return this.direction;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.context.tc.TypesettingContext#getFont()
+     */
+    public Font getFont() {
+
+        return this.font;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.context.tc.TypesettingContext#getLanguage()
+     */
+    public Language getLanguage() {
+
+        return this.language;
+    }
+
+    /**
+     * The hash code is compatible with the one of
+     * {@link TypesettingContextImpl TypesettingContextImpl}.
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    public int hashCode() {
+
+        return hash;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+
+        StringBuffer sb = new StringBuffer("(");
+        sb.append(font.getFontKey().toString());
+        sb.append(' ');
+        sb.append(language.getName());
+        sb.append(' ');
+        sb.append(color.toString());
+        sb.append(' ');
+        sb.append(direction.toString());
+        sb.append(')');
+        return sb.toString();
+    }
+
+}
@@ -19,6 +19,10 @@
 
 package de.dante.extex.interpreter.context.tc;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import de.dante.extex.font.type.other.NullFont;
 import de.dante.extex.interpreter.context.Color;
 import de.dante.extex.interpreter.type.font.Font;
@@ -36,6 +40,21 @@ import de.dante.util.framework.configuration.exception.ConfigurationMissingAttri
  * {@link de.dante.extex.interpreter.context.TypesettingContext
  *  TypesettingContext}.
  *
+ * <p>
+ *  The typesetting contexts handed out are interned: equal typesetting
+ *  contexts are represented by the same instance. Thus switching back and
+ *  forth between fonts does not create new instances, and caches keyed by
+ *  the typesetting context stay small. The instances are kept in a weak
+ *  table and vanish when they are not used any more. They are shared; thus
+ *  they are instances of {@link ImmutableTypesettingContext
+ *  ImmutableTypesettingContext}. A modified typesetting context is acquired
+ *  from one of the <tt>newInstance()</tt> methods.
+ * </p>
+ * <p>
+ *  The configured class is a {@link ModifiableTypesettingContext
+ *  ModifiableTypesettingContext}. It is used to look up the table only.
+ * </p>
+ *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.1 $
  */
@@ -52,6 +71,20 @@ public class TypesettingContextFactory extends AbstractFactory {
      */
     private transient LanguageManager languageManager = null;
 
+    /**
+     * The field <tt>probe</tt> contains the typesetting context used to look
+     * up an instance in the table. It is never handed out.
+     */
+    private transient ModifiableTypesettingContext probe = null;
+
+    /**
+     * The field <tt>table</tt> contains the canonicalizing table of the
+     * typesetting contexts handed out. The values are weak references to the
+     * keys. Thus an entry vanishes as soon as the typesetting context is not
+     * used any more.
+     */
+    private transient Map table = new WeakHashMap();
+
     /**
      * The field <tt>theClass</tt> contains the class to instantiate. It is
      * kept here to speed up the method
@@ -107,6 +140,48 @@ public class TypesettingContextFactory extends AbstractFactory {
         }
     }
 
+    /**
+     * Getter for the probe. The probe is created upon first use.
+     *
+     * @return the probe
+     *
+     * @throws ConfigurationInstantiationException in case that the
+     *             instantiation of the class failed.
+     */
+    private ModifiableTypesettingContext getProbe()
+            throws ConfigurationInstantiationException {
+
+        if (probe == null) {
+            probe = newInstance();
+        }
+        return probe;
+    }
+
+    /**
+     * Get the canonical instance of a typesetting context. If an equal
+     * typesetting context is already known then it is returned. Otherwise an
+     * immutable copy of the argument is registered and returned.
+     *
+     * @param tc the typesetting context to look up
+     *
+     * @return the shared instance equal to the argument
+     */
+    private TypesettingContext intern(final TypesettingContext tc) {
+
+        if (table == null) {
+            table = new WeakHashMap();
+        }
+        WeakReference ref = (WeakReference) table.get(tc);
+        TypesettingContext c = (ref == null
+                ? null
+                : (TypesettingContext) ref.get());
+        if (c == null) {
+            c = new ImmutableTypesettingContext(tc);
+            table.put(c, new WeakReference(c));
+        }
+        return c;
+    }
+
     /**
      * Factory method to acquire an instance of the TypesettingContext.
      *
@@ -143,14 +218,15 @@ public class TypesettingContextFactory extends AbstractFactory {
      * @throws ConfigurationInstantiationException in case that the
      *             instantiation of the class failed.
      */
-    public TypesettingContext newInstance(final TypesettingContext context,
+    public synchronized TypesettingContext newInstance(
+            final TypesettingContext context,
             final Color color) throws ConfigurationInstantiationException {
 
-        ModifiableTypesettingContext c = newInstance();
+        ModifiableTypesettingContext c = getProbe();
         c.set(context);
         c.setColor(color);
 
-        return c;
+        return intern(c);
     }
 
     /**
@@ -164,15 +240,16 @@ public class TypesettingContextFactory extends AbstractFactory {
      * @throws ConfigurationInstantiationException in case that the
      *             instantiation of the class failed.
      */
-    public TypesettingContext newInstance(final TypesettingContext context,
+    public synchronized TypesettingContext newInstance(
+            final TypesettingContext context,
             final Direction direction)
             throws ConfigurationInstantiationException {
 
-        ModifiableTypesettingContext c = newInstance();
+        ModifiableTypesettingContext c = getProbe();
         c.set(context);
         c.setDirection(direction);
 
-        return c;
+        return intern(c);
     }
 
     /**
@@ -186,14 +263,15 @@ public class TypesettingContextFactory extends AbstractFactory {
      * @throws ConfigurationInstantiationException in case that the
      *             instantiation of the class failed.
      */
-    public TypesettingContext newInstance(final TypesettingContext context,
+    public synchronized TypesettingContext newInstance(
+            final TypesettingContext context,
             final Font font) throws ConfigurationInstantiationException {
 
-        ModifiableTypesettingContext c = newInstance();
+        ModifiableTypesettingContext c = getProbe();
         c.set(context);
         c.setFont(font);
 
-        return c;
+        return intern(c);
     }
 
     /**
@@ -207,14 +285,15 @@ public class TypesettingContextFactory extends AbstractFactory {
      *
      * @throws ConfigurationException in case of a configuration problem
      */
-    public TypesettingContext newInstance(final TypesettingContext context,
+    public synchronized TypesettingContext newInstance(
+            final TypesettingContext context,
             final Language language) throws ConfigurationException {
 
-        ModifiableTypesettingContext c = newInstance();
+        ModifiableTypesettingContext c = getProbe();
         c.set(context);
         c.setLanguage(language);
 
-        return c;
+        return intern(c);
     }
 
     /**
@@ -228,14 +307,16 @@ public class TypesettingContextFactory extends AbstractFactory {
      *
      * @throws ConfigurationException in case of a configuration problem
      */
-    public TypesettingContext newInstance(final TypesettingContext tc,
+    public synchronized TypesettingContext newInstance(
+            final TypesettingContext tc,
             final String language) throws ConfigurationException {
 
-        ModifiableTypesettingContext c = newInstance();
+        Language lang = languageManager.getLanguage(language);
+        ModifiableTypesettingContext c = getProbe();
         c.set(tc);
-        c.setLanguage(languageManager.getLanguage(language));
+        c.setLanguage(lang);
 
-        return c;
+        return intern(c);
     }
 
     /**
@@ -255,13 +336,14 @@ public class TypesettingContextFactory extends AbstractFactory {
      *
      * @throws ConfigurationException in case of an error
      */
-    public TypesettingContext initial() throws ConfigurationException {
+    public synchronized TypesettingContext initial()
+            throws ConfigurationException {
 
         ModifiableTypesettingContext tc = newInstance();
         if (languageManager != null) {
             tc.setLanguage(languageManager.getLanguage("0"));
         }
-        return tc;
+        return intern(tc);
     }
 
     /**
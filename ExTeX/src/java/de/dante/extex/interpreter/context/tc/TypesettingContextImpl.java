@@ -39,6 +39,20 @@ public class TypesettingContextImpl implements ModifiableTypesettingContext {
      */
     protected static final long serialVersionUID = 2006L;
 
+    /**
+     * Compare two attributes for equality. <code>null</code> is equal to
+     * <code>null</code> only.
+     *
+     * @param a the first attribute
+     * @param b the second attribute
+     *
+     * @return <code>true</code> iff the attributes are equal
+     */
+    private static boolean same(final Object a, final Object b) {
+
+        return (a == null ? b == null : a.equals(b));
+    }
+
     /**
      * The field <tt>color</tt> contains the color to use.
      * The effect depends on the object to be colored.
@@ -105,6 +119,34 @@ public class TypesettingContextImpl implements ModifiableTypesettingContext {
         }
     }
 
+    /**
+     * Compare this typesetting context with another object. Two typesetting
+     * contexts are equal if they agree in font, color, direction, and
+     * language. An {@link ImmutableTypesettingContext
+     * ImmutableTypesettingContext} with the same attributes is equal as well.
+     *
+     * @param obj the object to compare to
+     *
+     * @return <code>true</code> iff the object is an equal typesetting
+     *  context
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    public boolean equals(final Object obj) {
+
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof ImmutableTypesettingContext) {
+            return obj.equals(this);
+        } else if (!(obj instanceof TypesettingContextImpl)) {
+            return false;
+        }
+        TypesettingContextImpl tc = (TypesettingContextImpl) obj;
+        return same(font, tc.font) && same(color, tc.color)
+                && same(direction, tc.direction)
+                && same(language, tc.language);
+    }
+
     /**
      * @see de.dante.extex.interpreter.context.TypesettingContext#getColor()
      */
@@ -140,6 +182,17 @@ public class TypesettingContextImpl implements ModifiableTypesettingContext {
         return this.language;
     }
 
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    public int hashCode() {
+
+        int h = (font == null ? 0 : font.hashCode());
+        h = 31 * h + (color == null ? 0 : color.hashCode());
+        h = 31 * h + (direction == null ? 0 : direction.hashCode());
+        return 31 * h + (language == null ? 0 : language.hashCode());
+    }
+
     /**
      * @see de.dante.extex.interpreter.context.ModifiableTypesettingContext#set(
      *      de.dante.extex.interpreter.context.TypesettingContext)
@@ -207,5 +260,4 @@ public class TypesettingContextImpl implements ModifiableTypesettingContext {
         return sb.toString();
     }
 
-    
 }
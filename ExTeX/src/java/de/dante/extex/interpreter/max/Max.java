@@ -71,6 +71,8 @@ import de.dante.extex.interpreter.observer.stop.StopObservable;
 import de.dante.extex.interpreter.observer.stop.StopObserver;
 import de.dante.extex.interpreter.observer.stop.StopObserverList;
 import de.dante.extex.interpreter.primitives.register.count.util.IntegerCode;
+import de.dante.extex.interpreter.profiler.Profilable;
+import de.dante.extex.interpreter.profiler.Profiler;
 import de.dante.extex.interpreter.type.AbstractCode;
 import de.dante.extex.interpreter.type.Code;
 import de.dante.extex.interpreter.type.CodeExpander;
@@ -192,7 +194,8 @@ public abstract class Max
             StartObservable,
             StopObservable,
             TokenVisitor,
-            OutputStreamConsumer {
+            OutputStreamConsumer,
+            Profilable {
 
     /**
      * The field <tt>CONTEXT_TAG</tt> contains the name of the tag for the
@@ -314,6 +317,12 @@ public abstract class Max
      */
     private Flags prefix;
 
+    /**
+     * The field <tt>profiler</tt> contains the profiler to inform about the
+     * invocation of code or <code>null</code> if no profiling is requested.
+     */
+    private transient Profiler profiler = null;
+
     /**
      * The field <tt>tv</tt> contains the token visitor for expansion.
      */
@@ -650,6 +659,23 @@ public abstract class Max
         }
     }
 
+    /**
+     * Execute some code under the control of the profiler.
+     *
+     * @param code the code to execute
+     *
+     * @throws InterpreterException in case of an error
+     */
+    private void executeProfiled(final Code code) throws InterpreterException {
+
+        profiler.enter(code);
+        try {
+            code.execute(prefix, context, this, typesetter);
+        } finally {
+            profiler.leave();
+        }
+    }
+
     /**
      * @see de.dante.extex.interpreter.TokenSource#executeGroup()
      */
@@ -681,11 +707,13 @@ public abstract class Max
                 observersExpand.update(t);
             }
             code = context.getCode((CodeToken) t);
-            if (code instanceof ExpandableCode) {
+            if (!(code instanceof ExpandableCode)) {
+                return t;
+            } else if (profiler != null) {
+                expandProfiled(code);
+            } else {
                 ((ExpandableCode) code).expand(prefix, context, this,
                         typesetter);
-            } else {
-                return t;
             }
             t = getToken(context);
         }
@@ -729,6 +757,23 @@ public abstract class Max
         }
     }
 
+    /**
+     * Expand some code under the control of the profiler.
+     *
+     * @param code the code to expand
+     *
+     * @throws InterpreterException in case of an error
+     */
+    private void expandProfiled(final Code code) throws InterpreterException {
+
+        profiler.enter(code);
+        try {
+            ((ExpandableCode) code).expand(prefix, context, this, typesetter);
+        } finally {
+            profiler.leave();
+        }
+    }
+
     /**
      * Take the token given and expand it as possible while honoring the
      * protected code. If the token is not protected and expandable then the
@@ -756,13 +801,25 @@ public abstract class Max
             if (code instanceof ProtectedCode) {
                 return t;
             } else if (code instanceof CodeExpander) {
-                ((CodeExpander) code).expandCode(context, this, typesetter,
-                        tokens);
-            } else if (code instanceof ExpandableCode) {
+                if (profiler != null) {
+                    profiler.enter(code);
+                    try {
+                        ((CodeExpander) code).expandCode(context, this,
+                                typesetter, tokens);
+                    } finally {
+                        profiler.leave();
+                    }
+                } else {
+                    ((CodeExpander) code).expandCode(context, this,
+                            typesetter, tokens);
+                }
+            } else if (!(code instanceof ExpandableCode)) {
+                return t;
+            } else if (profiler != null) {
+                expandProfiled(code);
+            } else {
                 ((ExpandableCode) code).expand(prefix, context, this,
                         typesetter);
-            } else {
-                return t;
             }
             t = getToken(context);
         }
@@ -1359,6 +1416,15 @@ public abstract class Max
         this.outFactory = factory;
     }
 
+    /**
+     * @see de.dante.extex.interpreter.profiler.Profilable#setProfiler(
+     *      de.dante.extex.interpreter.profiler.Profiler)
+     */
+    public void setProfiler(final Profiler profiler) {
+
+        this.profiler = profiler;
+    }
+
     /**
      * @see de.dante.extex.interpreter.Interpreter#setTypesetter(
      *      de.dante.extex.typesetter.Typesetter)
@@ -1395,7 +1461,11 @@ public abstract class Max
             }
         } else {
 
-            code.execute(prefix, context, this, typesetter);
+            if (profiler != null) {
+                executeProfiled(code);
+            } else {
+                code.execute(prefix, context, this, typesetter);
+            }
 
             if (!(code instanceof ExpandableCode)
                     && !(code instanceof PrefixCode) && prefix.isDirty()) {
@@ -1459,7 +1529,11 @@ public abstract class Max
             }
         } else {
 
-            code.execute(prefix, context, this, typesetter);
+            if (profiler != null) {
+                executeProfiled(code);
+            } else {
+                code.execute(prefix, context, this, typesetter);
+            }
 
             if (!(code instanceof PrefixCode) && prefix.isDirty()) {
                 reportDirtyFlag(token);
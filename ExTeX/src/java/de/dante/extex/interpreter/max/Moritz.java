@@ -1299,6 +1299,43 @@ public class Moritz extends Max
         skipSpaces = true;
     }
 
+    /**
+     * Get the next code token from the input streams. The streams are asked
+     * to skip the tokens preceding it without creating them if possible.
+     *
+     * @see de.dante.extex.interpreter.TokenSource#skipToCodeToken(
+     *      de.dante.extex.interpreter.context.Context)
+     */
+    public CodeToken skipToCodeToken(final Context context)
+            throws InterpreterException {
+
+        TokenFactory factory = context.getTokenFactory();
+        Tokenizer tokenizer = context.getTokenizer();
+        CodeToken t;
+        skipSpaces = false;
+
+        try {
+            while (stream != null) {
+                t = stream.skipToCodeToken(factory, tokenizer);
+                if (t != null) {
+                    if (observersPop != null) {
+                        observersPop.update(t);
+                    }
+                    lastToken = t;
+                    return t;
+                }
+                closeStream(context);
+            }
+        } catch (ScannerException e) {
+            throw new InterpreterException(e);
+        }
+        if (observersEOF != null) {
+            observersEOF.update();
+        }
+        lastToken = null;
+        return null;
+    }
+
     /**
      * @see de.dante.extex.interpreter.TokenSource#update(java.lang.String,
      *      java.lang.String)
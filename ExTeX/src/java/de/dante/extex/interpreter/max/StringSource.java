@@ -28,6 +28,7 @@ import de.dante.extex.interpreter.exception.InterpreterException;
 import de.dante.extex.scanner.exception.ScannerException;
 import de.dante.extex.scanner.stream.TokenStream;
 import de.dante.extex.scanner.type.CatcodeException;
+import de.dante.extex.scanner.type.token.CodeToken;
 import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.scanner.type.token.TokenFactory;
 import de.dante.util.Locator;
@@ -150,6 +151,23 @@ public class StringSource extends Moritz {
             stack.add(token);
         }
 
+        /**
+         * @see de.dante.extex.scanner.stream.TokenStream#skipToCodeToken(
+         *      de.dante.extex.scanner.type.token.TokenFactory,
+         *      de.dante.extex.interpreter.Tokenizer)
+         */
+        public CodeToken skipToCodeToken(final TokenFactory factory,
+                final Tokenizer tokenizer) throws ScannerException {
+
+            for (Token t = get(factory, tokenizer); t != null; t = get(factory,
+                    tokenizer)) {
+                if (t instanceof CodeToken) {
+                    return (CodeToken) t;
+                }
+            }
+            return null;
+        }
+
     }
 
     /**
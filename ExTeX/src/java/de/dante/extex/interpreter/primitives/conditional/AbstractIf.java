@@ -28,7 +28,6 @@ import de.dante.extex.interpreter.type.AbstractCode;
 import de.dante.extex.interpreter.type.Code;
 import de.dante.extex.interpreter.type.ExpandableCode;
 import de.dante.extex.scanner.type.token.CodeToken;
-import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.util.framework.i18n.Localizer;
 import de.dante.util.framework.i18n.LocalizerFactory;
@@ -64,6 +63,8 @@ public abstract class AbstractIf extends AbstractCode implements ExpandableCode
      *
      * <p>
      *  This method implements to the absorption of tokens at high speed.
+     *  Only the code tokens are requested from the token source. Thus the
+     *  other tokens need not be created at all.
      * </p>
      *
      * @param context the interpreter context
@@ -81,11 +82,10 @@ public abstract class AbstractIf extends AbstractCode implements ExpandableCode
         Code code;
         int n = 0;
 
-        for (Token t = source.getToken(context); t != null; t = source
-                .getToken(context)) {
+        for (CodeToken t = source.skipToCodeToken(context); t != null; //
+        t = source.skipToCodeToken(context)) {
 
-            if (t instanceof CodeToken
-                    && (code = context.getCode((CodeToken) t)) != null) {
+            if ((code = context.getCode(t)) != null) {
                 if (code instanceof Fi) {
                     if (--n < 0) {
                         return false;
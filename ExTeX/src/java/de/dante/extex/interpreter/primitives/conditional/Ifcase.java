@@ -28,7 +28,6 @@ import de.dante.extex.interpreter.exception.helping.HelpingException;
 import de.dante.extex.interpreter.type.Code;
 import de.dante.extex.interpreter.type.count.Count;
 import de.dante.extex.scanner.type.token.CodeToken;
-import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.typesetter.Typesetter;
 
 /**
@@ -173,10 +172,9 @@ public class Ifcase extends AbstractIf {
         Code code;
         int n = 0;
 
-        for (Token t = source.getToken(context); t != null; t = source
-                .getToken(context)) {
-            if (t instanceof CodeToken
-                    && (code = context.getCode((CodeToken) t)) != null) {
+        for (CodeToken t = source.skipToCodeToken(context); t != null; //
+        t = source.skipToCodeToken(context)) {
+            if ((code = context.getCode(t)) != null) {
                 if (code instanceof Fi) {
                     if (--n < 0) {
                         return FI;
@@ -23,10 +23,8 @@ import de.dante.extex.interpreter.TokenSource;
 import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
 import de.dante.extex.interpreter.primitives.macro.Csname;
-import de.dante.extex.interpreter.type.tokens.Tokens;
-import de.dante.extex.scanner.type.Catcode;
-import de.dante.extex.scanner.type.CatcodeException;
 import de.dante.extex.scanner.type.token.CodeToken;
+import de.dante.extex.scanner.type.token.ControlSequenceName;
 import de.dante.extex.typesetter.Typesetter;
 
 /**
@@ -64,6 +62,13 @@ public class Ifcsname extends AbstractIf {
      */
     protected static final long serialVersionUID = 2005L;
 
+    /**
+     * The field <tt>buffer</tt> contains the name buffer for reuse. It is
+     * taken while a name is scanned; thus a nested <tt>\ifcsname</tt> gets a
+     * buffer of its own.
+     */
+    private transient ControlSequenceName buffer = null;
+
     /**
      * Creates a new object.
      *
@@ -84,16 +89,16 @@ public class Ifcsname extends AbstractIf {
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        Tokens toks = Csname.scanToEndCsname(context, source, typesetter,
-                getLocalizer());
-        String csname = toks.toText();
-        try {
-            return context.getCode((CodeToken) context.getTokenFactory()
-                    .createToken(Catcode.ESCAPE, null, csname,
-                            context.getNamespace())) != null;
-        } catch (CatcodeException e) {
-            throw new InterpreterException(e);
+        ControlSequenceName name = buffer;
+        if (name == null) {
+            name = new ControlSequenceName();
+        } else {
+            buffer = null;
         }
+        CodeToken t = Csname.scanToEndCsname(context, source, typesetter,
+                getLocalizer(), null, name);
+        buffer = name;
+        return context.getCode(t) != null;
     }
 
 }
@@ -19,13 +19,12 @@
 
 package de.dante.extex.interpreter.primitives.file.xslt;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.net.URL;
 
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.stream.StreamSource;
@@ -39,7 +38,9 @@ import de.dante.extex.scanner.stream.TokenStreamFactory;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
 import de.dante.util.resource.ResourceFinder;
-import de.dante.util.xslt.Transform;
+import de.dante.util.resource.ResourceLocator;
+import de.dante.util.xslt.TemplatesCache;
+import de.dante.util.xslt.TransformReader;
 
 /**
  * This class provides an implementation for the primitive
@@ -52,8 +53,13 @@ import de.dante.util.xslt.Transform;
  * <p>
  *  The primitive <tt>\inputXSLT</tt> takes as argument two file names.
  *  The first one is a XML file, the second one is a XSLT file.
- *  After the transformation the result is taken as input stream for
- *  the tokenizer.
+ *  The result of the transformation is taken as input stream for
+ *  the tokenizer. The transformation runs while the tokenizer reads the
+ *  result. Thus the result is never held in memory as a whole.
+ * </p>
+ * <p>
+ *  The stylesheet is compiled once and reused as long as the file has not
+ *  been modified.
  * </p>
  * <p>
  *  If the file can not be opened for reading then an error is raised.
@@ -99,29 +105,29 @@ public class InputXslt extends AbstractFileCode {
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        // MGN incomplete
-        try {
-
-            String xmlfilename = scanFileName(context, source);
-            String xslfilename = scanFileName(context, source);
-
-            System.out.println(xmlfilename + "    " + xslfilename);
-
-            TokenStreamFactory factory = source.getTokenStreamFactory();
+        String xmlfilename = scanFileName(context, source);
+        String xslfilename = scanFileName(context, source);
 
-            ResourceFinder finder = factory.getResourceFinder();
-
-            InputStream xmlin = finder.findResource(xmlfilename, "");
-            InputStream xslin = finder.findResource(xslfilename, "");
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-            Transform.transform(new StreamSource(xmlin),
-                    new StreamSource(xslin), null, out);
-
-            Reader reader = new InputStreamReader(new ByteArrayInputStream(out
-                    .toByteArray()));
+        TokenStreamFactory factory = source.getTokenStreamFactory();
+        ResourceFinder finder = factory.getResourceFinder();
 
+        InputStream xmlin = null;
+        TransformReader reader = null;
+        try {
+            Templates templates = getTemplates(finder, xslfilename);
+
+            xmlin = finder.findResource(xmlfilename, "");
+            if (xmlin == null) {
+                throw new InterpreterException(new FileNotFoundException(
+                        xmlfilename));
+            }
+
+            reader = TransformReader.newInstance(templates.newTransformer(),
+                    new StreamSource(xmlin));
+            // the reader closes the stream when the transformation is done
+            xmlin = null;
             source.addStream(factory.newInstance(reader));
+            reader = null;
 
         } catch (ConfigurationException e) {
             throw new InterpreterException(e);
@@ -131,9 +137,59 @@ public class InputXslt extends AbstractFileCode {
             throw new InterpreterException(e);
         } catch (IOException e) {
             throw new InterpreterException(e);
+        } finally {
+            if (reader != null) {
+                // terminate the transformation
+                reader.close();
+            }
+            if (xmlin != null) {
+                try {
+                    xmlin.close();
+                } catch (IOException e) {
+                    // ignored
+                }
+            }
         }
+    }
 
-        System.out.println("execute");
+    /**
+     * Get the compiled stylesheet. If the resource finder can report the
+     * location of the stylesheet then the compiled stylesheet is taken from
+     * the cache. Otherwise it is compiled each time.
+     *
+     * @param finder the resource finder
+     * @param name the name of the stylesheet
+     *
+     * @return the compiled stylesheet
+     *
+     * @throws InterpreterException in case that the stylesheet is not found
+     * @throws ConfigurationException in case of an error in the configuration
+     * @throws TransformerException in case of an error in the stylesheet
+     * @throws IOException in case of an I/O error
+     */
+    private Templates getTemplates(final ResourceFinder finder,
+            final String name)
+            throws InterpreterException,
+                ConfigurationException,
+                TransformerException,
+                IOException {
+
+        if (finder instanceof ResourceLocator) {
+            URL url = ((ResourceLocator) finder).locateResource(name, "");
+            if (url != null) {
+                return TemplatesCache.getTemplates(url, null);
+            }
+        }
+
+        InputStream xslin = finder.findResource(name, "");
+        if (xslin == null) {
+            throw new InterpreterException(new FileNotFoundException(name));
+        }
+        try {
+            return TemplatesCache.compile(new StreamSource(xslin), null);
+        } finally {
+            xslin.close();
+        }
     }
 
     /**
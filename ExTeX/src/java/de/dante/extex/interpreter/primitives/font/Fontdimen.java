@@ -35,6 +35,7 @@ import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.scanner.type.Catcode;
 import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.typesetter.Typesetter;
+import de.dante.extex.typesetter.type.noad.util.MathContext;
 import de.dante.util.exception.GeneralException;
 
 /**
@@ -120,7 +121,12 @@ public class Fontdimen extends AbstractAssignment
         Font font = source.getFont(context, getName());
         source.getOptionalEquals(context);
         Dimen size = Dimen.parse(context, source, typesetter);
+        if (typesetter != null) {
+            // display formulas in the background still use the old value
+            typesetter.completeParagraphs();
+        }
         font.setFontDimen(key, size);
+        MathContext.discard(font);
     }
 
     /**
@@ -114,6 +114,10 @@ public class Hyphenchar extends AbstractAssignment
             Font font = source.getFont(context, getName());
             source.getOptionalEquals(context);
             long c = Count.scanInteger(context, source, typesetter);
+            if (typesetter != null) {
+                // paragraphs in the background still use the old value
+                typesetter.completeParagraphs();
+            }
             if (c < 0) {
                 font.setHyphenChar(null);
             } else if (c < UCharacter.MIN_VALUE || c > UCharacter.MAX_VALUE) {
@@ -24,6 +24,7 @@ import de.dante.extex.interpreter.exception.InterpreterException;
 import de.dante.extex.interpreter.type.AbstractCode;
 import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.language.Language;
+import de.dante.extex.typesetter.Typesetter;
 
 /**
  * This is the abstract base class for all hyphenation related primitives.
@@ -96,7 +97,7 @@ import de.dante.extex.language.Language;
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @author <a href="mailto:m.g.n@gmx.de">Michael Niedermair</a>
- * @version $Revision: 1.7 $
+ * @version $Revision: 1.8 $
  */
 public abstract class AbstractHyphenationCode extends AbstractCode {
 
@@ -142,4 +143,26 @@ public abstract class AbstractHyphenationCode extends AbstractCode {
         return context.getLanguage(name);
     }
 
+    /**
+     * Getter for the current hyphenation table when it is about to be
+     * modified. Paragraphs which are broken into lines in the background
+     * are completed first. They have to be hyphenated with the table as it
+     * has been at their end.
+     *
+     * @param context the interpreter context
+     * @param typesetter the typesetter
+     *
+     * @return the current hyphenation table
+     *
+     * @throws InterpreterException in case of an error
+     */
+    protected Language getHyphenationTable(final Context context,
+            final Typesetter typesetter) throws InterpreterException {
+
+        if (typesetter != null) {
+            typesetter.completeParagraphs();
+        }
+        return getHyphenationTable(context);
+    }
+
 }
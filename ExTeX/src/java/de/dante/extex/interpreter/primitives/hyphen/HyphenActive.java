@@ -78,7 +78,7 @@ public class HyphenActive extends AbstractHyphenationCode implements Theable {
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        Language table = getHyphenationTable(context);
+        Language table = getHyphenationTable(context, typesetter);
         source.getOptionalEquals(context);
         boolean active = (Count.scanInteger(context, source, typesetter) == 0);
         try {
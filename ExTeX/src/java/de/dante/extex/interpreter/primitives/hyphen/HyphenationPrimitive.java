@@ -159,7 +159,7 @@ public class HyphenationPrimitive extends AbstractHyphenationCode {
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        Language table = getHyphenationTable(context);
+        Language table = getHyphenationTable(context, typesetter);
         Token t = source.getNonSpace(context);
         if (!(t instanceof LeftBraceToken)) {
             throw new MissingLeftBraceException(
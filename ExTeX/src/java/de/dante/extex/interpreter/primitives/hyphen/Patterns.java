@@ -385,7 +385,7 @@ public class Patterns extends AbstractHyphenationCode {
         }
 
         try {
-            TV tv = new TV(context, getHyphenationTable(context));
+            TV tv = new TV(context, getHyphenationTable(context, typesetter));
 
             do {
                 t = source.getToken(context);
@@ -114,7 +114,7 @@ public class RightHyphenmin extends AbstractHyphenationCode
             prefix.setGlobal((globaldef > 0));
         }
 
-        Language table = getHyphenationTable(context);
+        Language table = getHyphenationTable(context, typesetter);
         source.getKeyword(context, "by");
         long righthyphenmin = table.getRightHyphenmin();
         righthyphenmin += Count.scanInteger(context, source, typesetter);
@@ -176,7 +176,7 @@ public class RightHyphenmin extends AbstractHyphenationCode
             prefix.setGlobal((globaldef > 0));
         }
 
-        Language table = getHyphenationTable(context);
+        Language table = getHyphenationTable(context, typesetter);
         source.getKeyword(context, "by");
         long righthyphenmin = table.getRightHyphenmin();
         long arg = Count.scanInteger(context, source, typesetter);
@@ -222,7 +222,7 @@ public class RightHyphenmin extends AbstractHyphenationCode
             prefix.setGlobal((globaldef > 0));
         }
 
-        Language table = getHyphenationTable(context);
+        Language table = getHyphenationTable(context, typesetter);
         source.getOptionalEquals(context);
         long righthyphenmin = Count.scanInteger(context, source, typesetter);
 
@@ -259,7 +259,7 @@ public class RightHyphenmin extends AbstractHyphenationCode
             prefix.setGlobal((globaldef > 0));
         }
 
-        Language table = getHyphenationTable(context);
+        Language table = getHyphenationTable(context, typesetter);
         source.getKeyword(context, "by");
         long righthyphenmin = table.getRightHyphenmin();
         righthyphenmin *= Count.scanInteger(context, source, typesetter);
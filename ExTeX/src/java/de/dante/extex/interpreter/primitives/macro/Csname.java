@@ -30,12 +30,12 @@ import de.dante.extex.interpreter.type.AbstractCode;
 import de.dante.extex.interpreter.type.Code;
 import de.dante.extex.interpreter.type.ExpandableCode;
 import de.dante.extex.interpreter.type.tokens.Tokens;
-import de.dante.extex.scanner.type.Catcode;
-import de.dante.extex.scanner.type.CatcodeException;
 import de.dante.extex.scanner.type.token.CodeToken;
+import de.dante.extex.scanner.type.token.ControlSequenceName;
 import de.dante.extex.scanner.type.token.SpaceToken;
 import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.typesetter.Typesetter;
+import de.dante.util.UnicodeChar;
 import de.dante.util.framework.i18n.Localizer;
 
 /**
@@ -98,6 +98,13 @@ public class Csname extends AbstractCode implements ExpandableCode {
      */
     protected static final long serialVersionUID = 2005L;
 
+    /**
+     * The field <tt>buffer</tt> contains the name buffer for reuse. It is
+     * taken while a name is scanned; thus a nested <tt>\csname</tt> gets a
+     * buffer of its own.
+     */
+    private transient ControlSequenceName buffer = null;
+
     /**
      * Expand tokens and collect the result until <tt>\endcsname</tt> is found.
      * In fact the termination condition is that a Token is found which is
@@ -117,6 +124,57 @@ public class Csname extends AbstractCode implements ExpandableCode {
             final Localizer loc) throws InterpreterException {
 
         Tokens toks = new Tokens();
+        scan(context, source, typesetter, loc, toks, null);
+        return toks;
+    }
+
+    /**
+     * Expand tokens until <tt>\endcsname</tt> is found and get the control
+     * sequence token for the characters found. The characters are collected
+     * in a buffer. Thus no string is constructed if the control sequence
+     * token is already known.
+     *
+     * @param context the interpreter context
+     * @param source the source for new tokens
+     * @param typesetter the typesetter
+     * @param loc the localizer
+     * @param esc the escape character for the new token
+     * @param name the buffer for the name; it is cleared before use
+     *
+     * @return the control sequence token
+     *
+     * @throws InterpreterException in case of an error
+     */
+    public static CodeToken scanToEndCsname(final Context context,
+            final TokenSource source, final Typesetter typesetter,
+            final Localizer loc, final UnicodeChar esc,
+            final ControlSequenceName name) throws InterpreterException {
+
+        name.clear();
+        scan(context, source, typesetter, loc, null, name);
+        return (CodeToken) context.getTokenFactory().createControlSequence(
+                esc, name, context.getNamespace());
+    }
+
+    /**
+     * Expand tokens until <tt>\endcsname</tt> is found and collect the
+     * non-space tokens either in a token list or as characters in a name
+     * buffer.
+     *
+     * @param context the interpreter context
+     * @param source the source for new tokens
+     * @param typesetter the typesetter
+     * @param loc the localizer
+     * @param toks the target token list or <code>null</code>
+     * @param name the target name buffer or <code>null</code>
+     *
+     * @throws InterpreterException in case of an error
+     */
+    private static void scan(final Context context, final TokenSource source,
+            final Typesetter typesetter, final Localizer loc,
+            final Tokens toks, final ControlSequenceName name)
+            throws InterpreterException {
+
         for (Token t = source.getToken(context); t != null; t = source
                 .getToken(context)) {
 
@@ -125,7 +183,7 @@ public class Csname extends AbstractCode implements ExpandableCode {
 
                 if (code instanceof Endcsname) {
 
-                    return toks;
+                    return;
 
                 } else if (code instanceof ExpandableCode) {
 
@@ -143,12 +201,19 @@ public class Csname extends AbstractCode implements ExpandableCode {
                             context.esc("endcsname"), context.esc(t));
                 }
 
-            } else if (!(t instanceof SpaceToken)) {
+            } else if (t instanceof SpaceToken) {
+
+                // spaces are ignored
+
+            } else if (toks != null) {
 
                 toks.add(t);
+
+            } else {
+
+                name.append(t.getChar());
             }
         }
-        return toks;
     }
 
     /**
@@ -169,16 +234,7 @@ public class Csname extends AbstractCode implements ExpandableCode {
     public Token convertCs(final Context context, final TokenSource source,
             final Typesetter typesetter) throws InterpreterException {
 
-        Tokens toks = scanToEndCsname(context, source, typesetter,
-                getLocalizer());
-
-        try {
-            return context.getTokenFactory()
-                    .createToken(Catcode.ESCAPE, context.escapechar(),
-                            toks.toText(), context.getNamespace());
-        } catch (CatcodeException e) {
-            throw new InterpreterException(e);
-        }
+        return scanToken(context, source, typesetter);
     }
 
     /**
@@ -192,22 +248,11 @@ public class Csname extends AbstractCode implements ExpandableCode {
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        Tokens toks = scanToEndCsname(context, source, typesetter,
-                getLocalizer());
-        String s = toks.toText();
-
-        try {
-            CodeToken t = (CodeToken) context.getTokenFactory().createToken(
-                    Catcode.ESCAPE, context.escapechar(), s,
-                    context.getNamespace());
-            Code code = context.getCode(t);
-            if (code == null) {
-                context.setCode(t, new Relax(s), true);
-            }
-            source.push(t);
-        } catch (CatcodeException e) {
-            throw new InterpreterException(e);
+        CodeToken t = scanToken(context, source, typesetter);
+        if (context.getCode(t) == null) {
+            context.setCode(t, new Relax(t.getName()), true);
         }
+        source.push(t);
     }
 
     /**
@@ -221,22 +266,39 @@ public class Csname extends AbstractCode implements ExpandableCode {
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        Tokens toks = scanToEndCsname(context, source, typesetter,
-                getLocalizer());
-        String s = toks.toText();
-
-        try {
-            CodeToken t = (CodeToken) context.getTokenFactory().createToken(
-                    Catcode.ESCAPE, context.escapechar(), s,
-                    context.getNamespace());
-            Code code = context.getCode(t);
-            if (code == null) {
-                context.setCode(t, new Relax(s), true);
-            }
-            source.push(t);
-        } catch (CatcodeException e) {
-            throw new InterpreterException(e);
+        CodeToken t = scanToken(context, source, typesetter);
+        if (context.getCode(t) == null) {
+            context.setCode(t, new Relax(t.getName()), true);
+        }
+        source.push(t);
+    }
+
+    /**
+     * Scan the name up to <tt>\endcsname</tt> and get the control sequence
+     * token for it. The escape character is the current escape character.
+     *
+     * @param context the interpreter context
+     * @param source the source for new tokens
+     * @param typesetter the typesetter
+     *
+     * @return the control sequence token
+     *
+     * @throws InterpreterException in case of an error
+     */
+    private CodeToken scanToken(final Context context,
+            final TokenSource source, final Typesetter typesetter)
+            throws InterpreterException {
+
+        ControlSequenceName name = buffer;
+        if (name == null) {
+            name = new ControlSequenceName();
+        } else {
+            buffer = null;
         }
+        CodeToken t = scanToEndCsname(context, source, typesetter,
+                getLocalizer(), context.escapechar(), name);
+        buffer = name;
+        return t;
     }
 
 }
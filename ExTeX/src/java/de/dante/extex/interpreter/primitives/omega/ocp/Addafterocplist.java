@@ -19,11 +19,15 @@
 
 package de.dante.extex.interpreter.primitives.omega.ocp;
 
-import de.dante.extex.interpreter.Flags;
 import de.dante.extex.interpreter.TokenSource;
 import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.Ocp;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpList;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpListConvertible;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpUtil;
 import de.dante.extex.interpreter.type.AbstractCode;
+import de.dante.extex.interpreter.type.count.Count;
 import de.dante.extex.typesetter.Typesetter;
 
 /**
@@ -32,24 +36,29 @@ import de.dante.extex.typesetter.Typesetter;
  * <doc name="addafterocplist">
  * <h3>The Primitive <tt>\addafterocplist</tt></h3>
  * <p>
- *  TODO missing documentation
+ *  This primitive can be used in the definition of an OCP list only. It
+ *  takes a number, an OCP, and an OCP list and returns a new list with
+ *  the OCP added after all OCPs with the same number.
  * </p>
  * <h4>Syntax</h4>
  *  The formal description of this primitive is the following:
  *  <pre class="syntax">
  *    &lang;addafterocplist&rang;
- *      &rarr; ...  </pre>
+ *      &rarr; <tt>\addafterocplist</tt>
+ *          &lang;number&rang; &lang;ocp&rang; &lang;ocp list&rang;  </pre>
  *
  * <h4>Examples</h4>
  * <pre class="TeXSample">
- * \... </pre>
+ * \addafterocplist 1 \ocpA \nullocplist </pre>
  * </doc>
  *
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.1 $
  */
-public class Addafterocplist extends AbstractCode {
+public class Addafterocplist extends AbstractCode
+        implements
+            OcpListConvertible {
 
     /**
      * The field <tt>serialVersionUID</tt> contains the version number for
@@ -68,18 +77,19 @@ public class Addafterocplist extends AbstractCode {
     }
 
     /**
-     * @see de.dante.extex.interpreter.type.Code#execute(
-     *      de.dante.extex.interpreter.Flags,
+     * @see de.dante.extex.interpreter.primitives.omega.ocp.util.OcpListConvertible#convertOcpList(
      *      de.dante.extex.interpreter.context.Context,
      *      de.dante.extex.interpreter.TokenSource,
      *      de.dante.extex.typesetter.Typesetter)
      */
-    public void execute(final Flags prefix, final Context context,
+    public OcpList convertOcpList(final Context context,
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        //TODO gene: unimplemented
-        throw new RuntimeException("unimplemented");
+        long lambda = Count.scanInteger(context, source, typesetter);
+        Ocp ocp = OcpUtil.scanOcp(source, context, typesetter);
+        OcpList list = OcpUtil.scanOcpList(source, context, typesetter);
+        return list.addAfter(lambda, ocp);
     }
 
 }
@@ -23,7 +23,9 @@ import de.dante.extex.interpreter.Flags;
 import de.dante.extex.interpreter.TokenSource;
 import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpStack;
 import de.dante.extex.interpreter.type.AbstractCode;
+import de.dante.extex.scanner.stream.TokenStreamOptions;
 import de.dante.extex.typesetter.Typesetter;
 
 /**
@@ -32,7 +34,9 @@ import de.dante.extex.typesetter.Typesetter;
  * <doc name="clearocplists">
  * <h3>The Primitive <tt>\clearocplists</tt></h3>
  * <p>
- *  TODO missing documentation
+ *  The primitive <tt>\clearocplists</tt> deactivates all OCP lists. The
+ *  assignment is local to the current group unless <tt>\global</tt> is
+ *  given.
  * </p>
  * <h4>Syntax</h4>
  *  The formal description of this primitive is the following:
@@ -78,8 +82,9 @@ public class Clearocplists extends AbstractCode {
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        //TODO gene: unimplemented
-        throw new RuntimeException("unimplemented");
+        context.set(TokenStreamOptions.EXTENSION,
+                TokenStreamOptions.LINE_FILTER, OcpStack.EMPTY, prefix
+                        .clearGlobal());
     }
 
 }
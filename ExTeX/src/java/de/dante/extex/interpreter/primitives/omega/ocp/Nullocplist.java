@@ -25,6 +25,8 @@ import de.dante.extex.interpreter.Flags;
 import de.dante.extex.interpreter.TokenSource;
 import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpList;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpListConvertible;
 import de.dante.extex.interpreter.type.AbstractCode;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.util.framework.logger.LogEnabled;
@@ -35,7 +37,8 @@ import de.dante.util.framework.logger.LogEnabled;
  * <doc name="nullocplist">
  * <h3>The Primitive <tt>\nullocplist</tt></h3>
  * <p>
- *  TODO missing documentation
+ *  The primitive <tt>\nullocplist</tt> denotes the empty OCP list in the
+ *  definition of an OCP list. Used on its own it just prints a message.
  * </p>
  * <h4>Syntax</h4>
  *  The formal description of this primitive is the following:
@@ -52,7 +55,10 @@ import de.dante.util.framework.logger.LogEnabled;
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.2 $
  */
-public class Nullocplist extends AbstractCode implements LogEnabled {
+public class Nullocplist extends AbstractCode
+        implements
+            LogEnabled,
+            OcpListConvertible {
 
     /**
      * The field <tt>serialVersionUID</tt> contains the version number for
@@ -75,6 +81,19 @@ public class Nullocplist extends AbstractCode implements LogEnabled {
         super(name);
     }
 
+    /**
+     * @see de.dante.extex.interpreter.primitives.omega.ocp.util.OcpListConvertible#convertOcpList(
+     *      de.dante.extex.interpreter.context.Context,
+     *      de.dante.extex.interpreter.TokenSource,
+     *      de.dante.extex.typesetter.Typesetter)
+     */
+    public OcpList convertOcpList(final Context context,
+            final TokenSource source, final Typesetter typesetter)
+            throws InterpreterException {
+
+        return new OcpList(getName());
+    }
+
     /**
      * @see de.dante.util.framework.logger.LogEnabled#enableLogging(
      *      java.util.logging.Logger)
@@ -51,7 +51,7 @@ import de.dante.util.resource.ResourceFinder;
  *
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
- * @version $Revision: 1.2 $
+ * @version $Revision: 1.3 $
  */
 public class OcpPrimitive extends AbstractFileCode implements ResourceConsumer {
 
@@ -90,7 +90,11 @@ public class OcpPrimitive extends AbstractFileCode implements ResourceConsumer {
         CodeToken cs = source.getControlSequence(context);
         source.getOptionalEquals(context);
         String file = scanFileName(context, source);
-        context.setCode(cs, Ocp.load(file, finder), prefix.clearGlobal());
+        // the finder is injected only when a format is loaded; otherwise the
+        // finder of the token streams is used
+        ResourceFinder f = (finder != null ? finder : source
+                .getTokenStreamFactory().getResourceFinder());
+        context.setCode(cs, Ocp.load(file, f), prefix.clearGlobal());
     }
 
     /**
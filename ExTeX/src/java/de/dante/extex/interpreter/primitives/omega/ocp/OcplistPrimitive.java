@@ -23,6 +23,8 @@ import de.dante.extex.interpreter.Flags;
 import de.dante.extex.interpreter.TokenSource;
 import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpList;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpUtil;
 import de.dante.extex.interpreter.type.AbstractCode;
 import de.dante.extex.scanner.type.token.CodeToken;
 import de.dante.extex.typesetter.Typesetter;
@@ -33,17 +35,23 @@ import de.dante.extex.typesetter.Typesetter;
  * <doc name="ocplist">
  * <h3>The Primitive <tt>\ocplist</tt></h3>
  * <p>
- *  TODO missing documentation
+ *  The primitive <tt>\ocplist</tt> defines a control sequence to be an
+ *  OCP list. The list is built from <tt>\nullocplist</tt> and the
+ *  primitives to add or remove OCPs.
  * </p>
  * <h4>Syntax</h4>
  *  The formal description of this primitive is the following:
  *  <pre class="syntax">
  *    &lang;ocplist&rang;
- *      &rarr; <tt>\ocplist</tt> ...  </pre>
+ *      &rarr; <tt>\ocplist</tt> {@linkplain
+ *        de.dante.extex.interpreter.TokenSource#getControlSequence(Context)
+ *        &lang;control sequence&rang;} {@linkplain
+ *        de.dante.extex.interpreter.TokenSource#getOptionalEquals(Context)
+ *        &lang;equals&rang;} &lang;ocp list&rang;  </pre>
  *
  * <h4>Examples</h4>
  * <pre class="TeXSample">
- * \ocplist ... </pre>
+ * \ocplist\myOcpList=\addbeforeocplist 1 \ocpA \nullocplist </pre>
  * </doc>
  *
  *
@@ -81,9 +89,8 @@ public class OcplistPrimitive extends AbstractCode {
 
         CodeToken cs = source.getControlSequence(context);
         source.getOptionalEquals(context);
-
-        //TODO gene: unimplemented
-        throw new RuntimeException("unimplemented");
+        OcpList list = OcpUtil.scanOcpList(source, context, typesetter);
+        context.setCode(cs, list, prefix.clearGlobal());
     }
 
 }
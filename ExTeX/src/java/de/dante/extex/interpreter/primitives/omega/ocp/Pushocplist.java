@@ -23,10 +23,12 @@ import de.dante.extex.interpreter.Flags;
 import de.dante.extex.interpreter.TokenSource;
 import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
-import de.dante.extex.interpreter.exception.helping.HelpingException;
+import de.dante.extex.interpreter.exception.helping.MissingOcplistException;
 import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpList;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpStack;
 import de.dante.extex.interpreter.type.AbstractCode;
 import de.dante.extex.interpreter.type.Code;
+import de.dante.extex.scanner.stream.TokenStreamOptions;
 import de.dante.extex.scanner.type.token.CodeToken;
 import de.dante.extex.typesetter.Typesetter;
 
@@ -36,17 +38,20 @@ import de.dante.extex.typesetter.Typesetter;
  * <doc name="pushocplist">
  * <h3>The Primitive <tt>\pushocplist</tt></h3>
  * <p>
- *  TODO missing documentation
+ *  The primitive <tt>\pushocplist</tt> activates an OCP list. From the
+ *  next line of input on each line is translated by the OCPs of all active
+ *  lists before it is tokenized. The assignment is local to the current
+ *  group unless <tt>\global</tt> is given.
  * </p>
  * <h4>Syntax</h4>
  *  The formal description of this primitive is the following:
  *  <pre class="syntax">
  *    &lang;pushocplist&rang;
- *      &rarr; <tt>\pushocplist</tt> ...  </pre>
+ *      &rarr; <tt>\pushocplist</tt> &lang;ocp list&rang;  </pre>
  *
  * <h4>Examples</h4>
  * <pre class="TeXSample">
- * \pushocplist </pre>
+ * \pushocplist\myOcpList </pre>
  * </doc>
  *
  *
@@ -84,13 +89,14 @@ public class Pushocplist extends AbstractCode {
 
         CodeToken cs = source.getControlSequence(context);
         Code code = context.getCode(cs);
-        
+
         if (!(code instanceof OcpList)) {
-            throw new HelpingException(getLocalizer(), "O.MissingOcp");
+            throw new MissingOcplistException(context, cs);
         }
 
-        //TODO gene: unimplemented
-        throw new RuntimeException("unimplemented");
+        context.set(TokenStreamOptions.EXTENSION,
+                TokenStreamOptions.LINE_FILTER, OcpStack.get(context).push(
+                        (OcpList) code), prefix.clearGlobal());
     }
 
 }
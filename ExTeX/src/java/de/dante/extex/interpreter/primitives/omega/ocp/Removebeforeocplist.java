@@ -19,11 +19,14 @@
 
 package de.dante.extex.interpreter.primitives.omega.ocp;
 
-import de.dante.extex.interpreter.Flags;
 import de.dante.extex.interpreter.TokenSource;
 import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpList;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpListConvertible;
+import de.dante.extex.interpreter.primitives.omega.ocp.util.OcpUtil;
 import de.dante.extex.interpreter.type.AbstractCode;
+import de.dante.extex.interpreter.type.count.Count;
 import de.dante.extex.typesetter.Typesetter;
 
 /**
@@ -33,24 +36,29 @@ import de.dante.extex.typesetter.Typesetter;
  * <doc name="removebeforeocplist">
  * <h3>The Primitive <tt>\removebeforeocplist</tt></h3>
  * <p>
- *  TODO missing documentation
+ *  This primitive can be used in the definition of an OCP list only. It
+ *  takes a number and an OCP list and returns a new list without
+ *  the first OCP with the given number.
  * </p>
  * <h4>Syntax</h4>
  *  The formal description of this primitive is the following:
  *  <pre class="syntax">
  *    &lang;removebeforeocplist&rang;
- *      &rarr; ...  </pre>
+ *      &rarr; <tt>\removebeforeocplist</tt>
+ *          &lang;number&rang; &lang;ocp list&rang;  </pre>
  *
  * <h4>Examples</h4>
  * <pre class="TeXSample">
- * \removebeforeocplist ... </pre>
+ * \removebeforeocplist 1 \myOcpList </pre>
  * </doc>
  *
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.2 $
  */
-public class Removebeforeocplist extends AbstractCode {
+public class Removebeforeocplist extends AbstractCode
+        implements
+            OcpListConvertible {
 
     /**
      * The field <tt>serialVersionUID</tt> contains the version number for
@@ -69,18 +77,18 @@ public class Removebeforeocplist extends AbstractCode {
     }
 
     /**
-     * @see de.dante.extex.interpreter.type.Code#execute(
-     *      de.dante.extex.interpreter.Flags,
+     * @see de.dante.extex.interpreter.primitives.omega.ocp.util.OcpListConvertible#convertOcpList(
      *      de.dante.extex.interpreter.context.Context,
      *      de.dante.extex.interpreter.TokenSource,
      *      de.dante.extex.typesetter.Typesetter)
      */
-    public void execute(final Flags prefix, final Context context,
+    public OcpList convertOcpList(final Context context,
             final TokenSource source, final Typesetter typesetter)
             throws InterpreterException {
 
-        //TODO gene: unimplemented
-        throw new RuntimeException("unimplemented");
+        long lambda = Count.scanInteger(context, source, typesetter);
+        OcpList list = OcpUtil.scanOcpList(source, context, typesetter);
+        return list.removeBefore(lambda);
     }
 
 }
@@ -19,9 +19,12 @@
 
 package de.dante.extex.interpreter.primitives.omega.ocp.util;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 
+import org.extex.ocpware.type.OcpProgram;
+
 import de.dante.extex.interpreter.Flags;
 import de.dante.extex.interpreter.TokenSource;
 import de.dante.extex.interpreter.context.Context;
@@ -32,7 +35,8 @@ import de.dante.util.framework.configuration.exception.ConfigurationException;
 import de.dante.util.resource.ResourceFinder;
 
 /**
- * TODO gene: missing JavaDoc.
+ * This class represents an OCP loaded with the primitive <tt>\ocp</tt>. It
+ * carries the compiled program.
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.5 $
@@ -60,10 +64,19 @@ public class Ocp implements Code, OcpConvertible, Serializable {
 
         try {
             InputStream stream = finder.findResource(resource, "ocp");
+            if (stream == null) {
+                throw new InterpreterException(resource);
+            }
+            try {
+                return new Ocp(resource, OcpProgram.load(stream));
+            } finally {
+                stream.close();
+            }
         } catch (ConfigurationException e) {
             throw new InterpreterException(e);
+        } catch (IOException e) {
+            throw new InterpreterException(e);
         }
-        return new Ocp(resource);
     }
 
     /**
@@ -72,9 +85,10 @@ public class Ocp implements Code, OcpConvertible, Serializable {
     private String name;
 
     /**
-     * The field <tt>ocp</tt> contains the ...
+     * The field <tt>program</tt> contains the compiled program or
+     * <code>null</code> if none has been loaded.
      */
-    private Ocp ocp;
+    private OcpProgram program;
 
     /**
      * Creates a new object.
@@ -84,7 +98,20 @@ public class Ocp implements Code, OcpConvertible, Serializable {
     public Ocp(final String resource) {
 
         super();
-        // TODO gene: load unimplemented
+        this.name = resource;
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param resource the name of the resource
+     * @param program the compiled program
+     */
+    public Ocp(final String resource, final OcpProgram program) {
+
+        super();
+        this.name = resource;
+        this.program = program;
     }
 
     /**
@@ -96,7 +123,7 @@ public class Ocp implements Code, OcpConvertible, Serializable {
     public Ocp convertOcp(final Context context, final TokenSource source,
             final Typesetter typesetter) throws InterpreterException {
 
-        return ocp;
+        return this;
     }
 
     /**
@@ -122,6 +149,16 @@ public class Ocp implements Code, OcpConvertible, Serializable {
         return name;
     }
 
+    /**
+     * Getter for the compiled program.
+     *
+     * @return the program or <code>null</code> if none has been loaded
+     */
+    public OcpProgram getProgram() {
+
+        return program;
+    }
+
     /**
      * @see de.dante.extex.interpreter.type.Code#isIf()
      */
@@ -19,21 +19,199 @@
 
 package de.dante.extex.interpreter.primitives.omega.ocp.util;
 
+import de.dante.extex.interpreter.TokenSource;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.type.AbstractCode;
+import de.dante.extex.typesetter.Typesetter;
+
 /**
- * TODO gene: missing JavaDoc.
+ * This class represents a list of OCPs as defined with the primitive
+ * <tt>\ocplist</tt>. Each OCP is associated with a number; the OCPs are
+ * applied in the ascending order of these numbers.
+ *
+ * <p>
+ *  Instances are immutable. The operations to add or remove an OCP return a
+ *  new list.
+ * </p>
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
- * @version $Revision: 1.1 $
+ * @version $Revision: 1.2 $
  */
-public class OcpList {
+public class OcpList extends AbstractCode implements OcpListConvertible {
+
+    /**
+     * The field <tt>serialVersionUID</tt> contains the version number for
+     * serialization.
+     */
+    protected static final long serialVersionUID = 2006L;
+
+    /**
+     * The field <tt>lambdas</tt> contains the numbers in ascending order.
+     */
+    private long[] lambdas;
+
+    /**
+     * The field <tt>ocps</tt> contains the OCPs. The OCP at index <i>i</i>
+     * is associated with the number at the same index in {@link #lambdas}.
+     */
+    private Ocp[] ocps;
+
+    /**
+     * Creates a new empty list.
+     *
+     * @param name the name for debugging
+     */
+    public OcpList(final String name) {
+
+        this(name, new long[0], new Ocp[0]);
+    }
 
     /**
      * Creates a new object.
      *
+     * @param name the name for debugging
+     * @param lambdas the numbers
+     * @param ocps the OCPs
+     */
+    private OcpList(final String name, final long[] lambdas, final Ocp[] ocps) {
+
+        super(name);
+        this.lambdas = lambdas;
+        this.ocps = ocps;
+    }
+
+    /**
+     * Add an OCP after all OCPs with the same number.
+     *
+     * @param lambda the number
+     * @param ocp the OCP
+     *
+     * @return the new list
+     */
+    public OcpList addAfter(final long lambda, final Ocp ocp) {
+
+        int i = 0;
+        while (i < lambdas.length && lambdas[i] <= lambda) {
+            i++;
+        }
+        return insert(i, lambda, ocp);
+    }
+
+    /**
+     * Add an OCP before all OCPs with the same number.
+     *
+     * @param lambda the number
+     * @param ocp the OCP
+     *
+     * @return the new list
+     */
+    public OcpList addBefore(final long lambda, final Ocp ocp) {
+
+        int i = 0;
+        while (i < lambdas.length && lambdas[i] < lambda) {
+            i++;
+        }
+        return insert(i, lambda, ocp);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.primitives.omega.ocp.util.OcpListConvertible#convertOcpList(
+     *      de.dante.extex.interpreter.context.Context,
+     *      de.dante.extex.interpreter.TokenSource,
+     *      de.dante.extex.typesetter.Typesetter)
+     */
+    public OcpList convertOcpList(final Context context,
+            final TokenSource source, final Typesetter typesetter)
+            throws InterpreterException {
+
+        return this;
+    }
+
+    /**
+     * Getter for the OCPs in the order of application.
+     *
+     * @return the OCPs
+     */
+    public Ocp[] getOcps() {
+
+        return (Ocp[]) ocps.clone();
+    }
+
+    /**
+     * Insert an OCP at a given position.
+     *
+     * @param index the position
+     * @param lambda the number
+     * @param ocp the OCP
+     *
+     * @return the new list
+     */
+    private OcpList insert(final int index, final long lambda, final Ocp ocp) {
+
+        int len = lambdas.length;
+        long[] l = new long[len + 1];
+        Ocp[] o = new Ocp[len + 1];
+        System.arraycopy(lambdas, 0, l, 0, index);
+        System.arraycopy(ocps, 0, o, 0, index);
+        l[index] = lambda;
+        o[index] = ocp;
+        System.arraycopy(lambdas, index, l, index + 1, len - index);
+        System.arraycopy(ocps, index, o, index + 1, len - index);
+        return new OcpList(getName(), l, o);
+    }
+
+    /**
+     * Remove the OCP at a given position.
+     *
+     * @param index the position
+     *
+     * @return the new list
+     */
+    private OcpList remove(final int index) {
+
+        int len = lambdas.length - 1;
+        long[] l = new long[len];
+        Ocp[] o = new Ocp[len];
+        System.arraycopy(lambdas, 0, l, 0, index);
+        System.arraycopy(ocps, 0, o, 0, index);
+        System.arraycopy(lambdas, index + 1, l, index, len - index);
+        System.arraycopy(ocps, index + 1, o, index, len - index);
+        return new OcpList(getName(), l, o);
+    }
+
+    /**
+     * Remove the last OCP with a given number.
+     *
+     * @param lambda the number
+     *
+     * @return the new list
+     */
+    public OcpList removeAfter(final long lambda) {
+
+        for (int i = lambdas.length - 1; i >= 0; i--) {
+            if (lambdas[i] == lambda) {
+                return remove(i);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Remove the first OCP with a given number.
+     *
+     * @param lambda the number
+     *
+     * @return the new list
      */
-    public OcpList() {
+    public OcpList removeBefore(final long lambda) {
 
-        super();
+        for (int i = 0; i < lambdas.length; i++) {
+            if (lambdas[i] == lambda) {
+                return remove(i);
+            }
+        }
+        return this;
     }
 
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.primitives.omega.ocp.util;
+
+import java.io.Serializable;
+
+import org.extex.ocpware.engine.OcpBuffer;
+import org.extex.ocpware.engine.OcpException;
+import org.extex.ocpware.engine.OcpProcessor;
+import org.extex.ocpware.type.OcpProgram;
+
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.scanner.exception.ScannerException;
+import de.dante.extex.scanner.stream.LineFilter;
+import de.dante.extex.scanner.stream.TokenStreamOptions;
+
+/**
+ * This class represents the stack of active OCP lists. The stack is stored
+ * in the context as the line filter for token streams. Thus each line read
+ * is translated by all OCPs of all active lists before it is tokenized.
+ *
+ * <p>
+ *  Instances are immutable; the stack is modified by storing a new instance
+ *  in the context. Thus the stack obeys the grouping.
+ * </p>
+ * <p>
+ *  The OCPs of all lists are applied one after the other to the whole line.
+ *  The processors and buffers are kept between the lines. Thus translating a
+ *  line does not allocate memory once the buffers have reached their
+ *  working size.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public final class OcpStack implements LineFilter, Serializable {
+
+    /**
+     * The constant <tt>EMPTY</tt> contains the stack without any OCP list.
+     */
+    public static final OcpStack EMPTY = new OcpStack();
+
+    /**
+     * The field <tt>serialVersionUID</tt> contains the version number for
+     * serialization.
+     */
+    protected static final long serialVersionUID = 2006L;
+
+    /**
+     * Get the current stack from the context.
+     *
+     * @param context the interpreter context
+     *
+     * @return the current stack
+     */
+    public static OcpStack get(final Context context) {
+
+        Object filter = context.get(TokenStreamOptions.EXTENSION,
+                TokenStreamOptions.LINE_FILTER);
+        return (filter instanceof OcpStack ? (OcpStack) filter : EMPTY);
+    }
+
+    /**
+     * The field <tt>in</tt> contains the input buffer.
+     */
+    private transient OcpBuffer in;
+
+    /**
+     * The field <tt>next</tt> contains the stack below this one or
+     * <code>null</code> for the empty stack.
+     */
+    private OcpStack next;
+
+    /**
+     * The field <tt>out</tt> contains the output buffer.
+     */
+    private transient OcpBuffer out;
+
+    /**
+     * The field <tt>processors</tt> contains the processors for the programs.
+     */
+    private transient OcpProcessor[] processors;
+
+    /**
+     * The field <tt>programs</tt> contains the programs of all lists in the
+     * order of application.
+     */
+    private OcpProgram[] programs;
+
+    /**
+     * The field <tt>sb</tt> contains the string buffer for the result.
+     */
+    private transient StringBuffer sb;
+
+    /**
+     * Creates a new empty stack.
+     */
+    private OcpStack() {
+
+        super();
+        programs = new OcpProgram[0];
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param list the list to push
+     * @param next the stack to push the list onto
+     */
+    private OcpStack(final OcpList list, final OcpStack next) {
+
+        super();
+        this.next = next;
+        Ocp[] ocps = list.getOcps();
+        int n = 0;
+        for (int i = 0; i < ocps.length; i++) {
+            if (ocps[i].getProgram() != null) {
+                n++;
+            }
+        }
+        programs = new OcpProgram[next.programs.length + n];
+        System.arraycopy(next.programs, 0, programs, 0, next.programs.length);
+        n = next.programs.length;
+        for (int i = 0; i < ocps.length; i++) {
+            if (ocps[i].getProgram() != null) {
+                programs[n++] = ocps[i].getProgram();
+            }
+        }
+    }
+
+    /**
+     * @see de.dante.extex.scanner.stream.LineFilter#filter(java.lang.String)
+     */
+    public String filter(final String line) throws ScannerException {
+
+        if (programs.length == 0) {
+            return line;
+        }
+        if (processors == null) {
+            processors = new OcpProcessor[programs.length];
+            for (int i = 0; i < programs.length; i++) {
+                processors[i] = new OcpProcessor(programs[i]);
+            }
+            in = new OcpBuffer();
+            out = new OcpBuffer();
+            sb = new StringBuffer();
+        }
+
+        in.clear();
+        in.append(line);
+        try {
+            for (int i = 0; i < processors.length; i++) {
+                processors[i].process(in, out);
+                OcpBuffer b = in;
+                in = out;
+                out = b;
+            }
+        } catch (OcpException e) {
+            in.clear();
+            out.clear();
+            throw new ScannerException(e.getMessage(), e);
+        }
+        sb.setLength(0);
+        in.appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Check whether the stack is empty.
+     *
+     * @return <code>true</code> iff no OCP list is on the stack
+     */
+    public boolean isEmpty() {
+
+        return next == null;
+    }
+
+    /**
+     * Remove the topmost OCP list.
+     *
+     * @return the stack without the topmost list
+     */
+    public OcpStack pop() {
+
+        return (next == null ? this : next);
+    }
+
+    /**
+     * Add an OCP list on top of the stack.
+     *
+     * @param list the list to push
+     *
+     * @return the new stack
+     */
+    public OcpStack push(final OcpList list) {
+
+        return new OcpStack(list, this);
+    }
+
+}
@@ -24,13 +24,13 @@ import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
 import de.dante.extex.interpreter.exception.helping.EofException;
 import de.dante.extex.interpreter.exception.helping.HelpingException;
+import de.dante.extex.interpreter.exception.helping.MissingOcplistException;
 import de.dante.extex.interpreter.exception.helping.UndefinedControlSequenceException;
 import de.dante.extex.interpreter.type.Code;
 import de.dante.extex.scanner.type.token.CodeToken;
 import de.dante.extex.scanner.type.token.SpaceToken;
 import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.typesetter.Typesetter;
-import de.dante.util.framework.i18n.Localizer;
 import de.dante.util.framework.i18n.LocalizerFactory;
 
 /**
@@ -109,4 +109,33 @@ public final class OcpUtil {
                 "Omega.MissingOcp");
     }
 
+    /**
+     * Get an ocp list.
+     *
+     * @param source the source for new tokens
+     * @param context the interpreter context
+     * @param typesetter the typesetter
+     *
+     * @return the ocp list
+     *
+     * @throws InterpreterException in case of an error
+     */
+    public static OcpList scanOcpList(final TokenSource source,
+            final Context context, final Typesetter typesetter)
+            throws InterpreterException {
+
+        Token t = source.getNonSpace(context);
+        if (t == null) {
+            throw new EofException();
+        } else if (t instanceof CodeToken) {
+            Code code = context.getCode((CodeToken) t);
+            if (code instanceof OcpListConvertible) {
+                return ((OcpListConvertible) code).convertOcpList(context,
+                        source, typesetter);
+            }
+        }
+
+        throw new MissingOcplistException(context, t);
+    }
+
 }
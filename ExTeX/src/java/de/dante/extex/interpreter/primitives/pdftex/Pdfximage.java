@@ -26,6 +26,8 @@ import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
 import de.dante.extex.interpreter.type.count.Count;
 import de.dante.extex.interpreter.type.dimen.Dimen;
+import de.dante.extex.interpreter.type.image.AbstractImage;
+import de.dante.extex.interpreter.type.image.Image;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.extex.typesetter.exception.TypesetterException;
 import de.dante.extex.typesetter.type.node.RuleNode;
@@ -38,18 +40,50 @@ import de.dante.util.framework.configuration.exception.ConfigurationException;
  * <doc name="pdfximage">
  * <h3>The Primitive <tt>\pdfximage</tt></h3>
  * <p>
- *  TODO missing documentation
+ *  The primitive <tt>\pdfximage</tt> reads an image and creates a reference
+ *  to it. The formats PNG, JPEG, and PDF are recognized from the contents of
+ *  the file. Only the header of the image is read to determine the natural
+ *  size. The same file is embedded only once even if it is used several
+ *  times.
+ * </p>
+ * <p>
+ *  If neither width nor height is given then the natural size of the image
+ *  is used. If only one of them is given then the other one is scaled to
+ *  keep the aspect ratio. The depth defaults to 0pt. The natural size of a
+ *  bitmap image is computed from the resolution stored in the image. If none
+ *  is stored then the count register <tt>\pdfimageresolution</tt> is used.
+ *  If this is not positive then 72 dpi are assumed.
  * </p>
  *
  * <h4>Syntax</h4>
  *  The formal description of this primitive is the following:
  *  <pre class="syntax">
  *    &lang;pdfximage&rang;
- *       &rarr; <tt>\pdfximage</tt> ... </pre>
+ *       &rarr; <tt>\pdfximage</tt> &lang;image specification&rang; {&lang;file name&rang;}
+ *
+ *    &lang;image specification&rang;
+ *        &rarr; {@linkplain de.dante.extex.interpreter.TokenSource#skipSpace()
+ *            &lang;optional&nbsp;spaces&rang;}
+ *         |  &lang;image attribute&rang; &lang;image specification&rang;
+ *
+ *    &lang;image attribute&rang;
+ *        &rarr; <tt>width</tt> {@linkplain
+ *        de.dante.extex.interpreter.type.dimen#Dimen(Context,TokenSource)
+ *        &lang;dimen&rang;}
+ *         |  <tt>height</tt> {@linkplain
+ *        de.dante.extex.interpreter.type.dimen#Dimen(Context,TokenSource)
+ *        &lang;dimen&rang;}
+ *         |  <tt>depth</tt> {@linkplain
+ *        de.dante.extex.interpreter.type.dimen#Dimen(Context,TokenSource)
+ *        &lang;dimen&rang;}
+ *         |  <tt>attr</tt> {&lang;text&rang;}
+ *         |  <tt>page</tt> &lang;number&rang;   </pre>
  *
  * <h4>Examples</h4>
  *  <pre class="TeXSample">
  *    \pdfximage {abc.png}  </pre>
+ *  <pre class="TeXSample">
+ *    \pdfximage width 3cm {abc.jpg}  </pre>
  *
  * </doc>
  *
@@ -108,19 +142,29 @@ public class Pdfximage extends AbstractPdftexCode {
             }
         }
 
-        if (width == null) {
-            width = Dimen.ONE_PT; //TODO gene:provide correct default
-        }
-        if (height == null) {
-            height = Dimen.ONE_PT; //TODO gene:provide correct default
+        String resource = source.scanTokensAsString(context, getName());
+        Image img = writer.getImage(resource, page);
+
+        long resolution = context.getCount("pdfimageresolution").getValue();
+        int dpi = (resolution > 0
+                ? (int) resolution
+                : AbstractImage.DEFAULT_RESOLUTION);
+        long w = img.getWidth(dpi).getValue();
+        long h = img.getHeight(dpi).getValue();
+
+        if (width == null && height == null) {
+            width = new Dimen(w);
+            height = new Dimen(h);
+        } else if (width == null) {
+            width = new Dimen(h == 0 ? w : w * height.getValue() / h);
+        } else if (height == null) {
+            height = new Dimen(w == 0 ? h : h * width.getValue() / w);
         }
         if (depth == null) {
-            depth = Dimen.ONE_PT; //TODO gene:provide correct default
+            depth = Dimen.ZERO_PT;
         }
 
-        String resource = source.scanTokensAsString(context, getName());
-
-        PdfRefXImage image = writer.getXImage(resource, new RuleNode(width,
+        PdfRefXImage image = writer.getXImage(img, new RuleNode(width,
                 height, depth, context.getTypesettingContext(), true), attr,
                 page, prefix.isImmediate());
 
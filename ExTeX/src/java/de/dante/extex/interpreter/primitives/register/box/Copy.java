@@ -43,7 +43,11 @@ import de.dante.util.framework.configuration.exception.ConfigurationException;
  * </p>
  * <p>
  *  If the primitive is used on the right hand side of a box assignment then
- *  the box contents is used for the assignment.
+ *  a copy of the box contents is used for the assignment.
+ * </p>
+ * <p>
+ *  The copy is made in constant time. The copy shares the nodes with the
+ *  box register until one of them is modified.
  * </p>
  *
  * <h4>Syntax</h4>
@@ -93,13 +97,30 @@ public class Copy extends BoxPrimitive implements Boxable, Serializable {
 
         String key = getKey(context, source, typesetter, getName());
         Box box = context.getBox(key);
-        if (box != null) {
+        if (box != null && !box.isVoid()) {
             try {
-                typesetter.add(box.getNodes());
+                typesetter.add(box.getNodes().copy());
             } catch (ConfigurationException e) {
                 throw new InterpreterException(e);
             }
         }
     }
 
+    /**
+     * @see de.dante.extex.interpreter.type.box.Boxable#getBox(
+     *       de.dante.extex.interpreter.context.Context,
+     *       de.dante.extex.interpreter.TokenSource,
+     *       de.dante.extex.typesetter.Typesetter)
+     */
+    public Box getBox(final Context context, final TokenSource source,
+            final Typesetter typesetter) throws InterpreterException {
+
+        String key = getKey(context, source, typesetter, getName());
+        Box b = context.getBox(key);
+        if (b == null || b.isVoid()) {
+            return new Box(b);
+        }
+        return new Box(b.getNodes().copy());
+    }
+
 }
@@ -76,8 +76,11 @@ public class Prevgraf extends CountPrimitive {
      *      de.dante.extex.typesetter.Typesetter)
      */
     protected String getKey(final Context context, final TokenSource source,
-            final Typesetter typesetter) {
+            final Typesetter typesetter) throws InterpreterException {
 
+        if (typesetter != null) {
+            typesetter.completeParagraphs();
+        }
         return getName();
     }
 
@@ -30,6 +30,7 @@ import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.scanner.exception.ScannerException;
 import de.dante.extex.scanner.stream.TokenStream;
 import de.dante.extex.scanner.stream.TokenStreamFactory;
+import de.dante.extex.scanner.type.token.CodeToken;
 import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.scanner.type.token.TokenFactory;
 import de.dante.extex.typesetter.Typesetter;
@@ -158,6 +159,17 @@ public class Scantokens extends AbstractCode implements ExpandableCode {
             stream.put(token);
         }
 
+        /**
+         * @see de.dante.extex.scanner.stream.TokenStream#skipToCodeToken(
+         *      de.dante.extex.scanner.type.token.TokenFactory,
+         *      de.dante.extex.interpreter.Tokenizer)
+         */
+        public CodeToken skipToCodeToken(final TokenFactory factory,
+                final Tokenizer tokenizer) throws ScannerException {
+
+            return stream.skipToCodeToken(factory, tokenizer);
+        }
+
     }
 
     /**
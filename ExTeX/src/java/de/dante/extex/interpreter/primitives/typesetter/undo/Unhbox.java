@@ -29,6 +29,7 @@ import de.dante.extex.interpreter.type.box.Box;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.extex.typesetter.exception.TypesetterException;
 import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.GenericNodeList;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
 
 /**
@@ -94,6 +95,9 @@ public class Unhbox extends AbstractBox {
             throw new HelpingException(getLocalizer(), "TTP.IncompatibleUnbox");
         } else {
             NodeList nl = box.getNodes();
+            if (nl instanceof GenericNodeList) {
+                ((GenericNodeList) nl).unshare();
+            }
             box.clear();
             for (int i = 0; i < nl.size(); i++) {
                 try {
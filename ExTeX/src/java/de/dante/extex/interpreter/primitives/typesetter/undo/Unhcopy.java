@@ -28,6 +28,7 @@ import de.dante.extex.interpreter.primitives.register.box.AbstractBox;
 import de.dante.extex.interpreter.type.box.Box;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.GenericNodeList;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
 
 /**
@@ -92,7 +93,10 @@ public class Unhcopy extends AbstractBox {
         } else if (!b.isHbox()) {
             throw new HelpingException(getLocalizer(), "TTP.IncompatibleUnbox");
         } else {
-            NodeList nl = b.getNodes();
+            NodeList nl = b.getNodes().copy();
+            if (nl instanceof GenericNodeList) {
+                ((GenericNodeList) nl).unshare();
+            }
             for (int i = 0; i < nl.size(); i++) {
                 try {
                     typesetter.add(nl.get(i));
@@ -28,6 +28,7 @@ import de.dante.extex.interpreter.primitives.register.box.AbstractBox;
 import de.dante.extex.interpreter.type.box.Box;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.GenericNodeList;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
 
 /**
@@ -93,6 +94,9 @@ public class Unvbox extends AbstractBox {
             throw new HelpingException(getLocalizer(), "TTP.IncompatibleUnbox");
         } else {
             NodeList nl = box.getNodes();
+            if (nl instanceof GenericNodeList) {
+                ((GenericNodeList) nl).unshare();
+            }
             box.clear();
             try {
                 for (int i = 0; i < nl.size(); i++) {
@@ -28,6 +28,7 @@ import de.dante.extex.interpreter.primitives.register.box.AbstractBox;
 import de.dante.extex.interpreter.type.box.Box;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.GenericNodeList;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
 
 /**
@@ -91,7 +92,10 @@ public class Unvcopy extends AbstractBox {
         if (b == null || b.isVoid()) {
             // nothing to do
         } else if (b.isVbox()) {
-            NodeList nl = b.getNodes();
+            NodeList nl = b.getNodes().copy();
+            if (nl instanceof GenericNodeList) {
+                ((GenericNodeList) nl).unshare();
+            }
             try {
                 for (int i = 0; i < nl.size(); i++) {
                     typesetter.add(nl.get(i));
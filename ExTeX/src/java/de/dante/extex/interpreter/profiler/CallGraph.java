@@ -0,0 +1,824 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import de.dante.extex.interpreter.Interpreter;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.observer.command.CommandObserver;
+import de.dante.extex.interpreter.observer.expand.ExpandObserver;
+import de.dante.extex.interpreter.observer.expandMacro.ExpandMacroObserver;
+import de.dante.extex.interpreter.observer.pop.PopObserver;
+import de.dante.extex.interpreter.observer.push.PushObserver;
+import de.dante.extex.interpreter.primitives.macro.util.MacroCode;
+import de.dante.extex.interpreter.type.Code;
+import de.dante.extex.scanner.type.token.CodeToken;
+import de.dante.extex.scanner.type.token.Token;
+
+/**
+ * This class records the call graph of the macros expanded. It is attached to
+ * the interpreter as observer and collects its data from the events
+ * announced.
+ *
+ * <p>
+ *  Macros do not call each other directly. A macro pushes its expansion onto
+ *  the input stream and returns. The macros contained in the expansion are
+ *  invoked when the tokens are read. Thus the call graph is reconstructed from
+ *  the token stream: each active macro keeps a record of the number of tokens
+ *  it has pushed and which have not been read yet. A macro is active until all
+ *  its tokens have been read. A macro expanded while another macro is active
+ *  is a callee of the latter. As in <logo>TeX</logo> a macro at the end of
+ *  the expansion of another macro replaces it.
+ * </p>
+ * <p>
+ *  The tokens pushed while the arguments of a macro are read are attributed
+ *  to the macro when the next command or expansion is encountered. Tokens
+ *  pushed back and read again while scanning the arguments are counted as
+ *  part of the expansion. Thus the data is exact for macros and an
+ *  approximation when the pushing back of tokens interferes.
+ * </p>
+ * <p>
+ *  The data is aggregated in-process into a calling context tree. Each node of
+ *  the tree represents a macro invoked from a certain chain of callers. It
+ *  contains the number of calls, the number of tokens read while the macro
+ *  has been the innermost active macro and the number of tokens pushed as
+ *  expansion. The memory is bounded: the tree contains at most a given
+ *  number of nodes and is cut at a given depth. Calls beyond these limits
+ *  are attributed to the caller.
+ * </p>
+ * <p>
+ *  The instance itself observes the expansions. The observers for commands,
+ *  for reading tokens and for pushing tokens are provided by
+ *  {@link #getCommandObserver() getCommandObserver()},
+ *  {@link #getPopObserver() getPopObserver()} and
+ *  {@link #getPushObserver() getPushObserver()}.
+ * </p>
+ * <p>
+ *  The result can be written as folded stacks. Each line contains the names
+ *  of the macros on the call chain separated by semicolons and the number of
+ *  tokens read in this context. This is the input format of the common
+ *  flame graph tools.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class CallGraph implements ExpandObserver, ExpandMacroObserver {
+
+    /**
+     * This class represents an active macro.
+     */
+    private static final class Frame {
+
+        /**
+         * The field <tt>node</tt> contains the node of the macro.
+         */
+        private Node node;
+
+        /**
+         * The field <tt>pending</tt> contains the number of tokens pushed
+         * while the arguments are scanned and not read yet.
+         */
+        private long pending;
+
+        /**
+         * The field <tt>remaining</tt> contains the number of tokens pushed
+         * and not read yet.
+         */
+        private long remaining;
+
+        /**
+         * The field <tt>scanning</tt> contains the indicator that the macro
+         * is still reading its arguments.
+         */
+        private boolean scanning;
+
+        /**
+         * Creates a new object.
+         */
+        public Frame() {
+
+            super();
+        }
+    }
+
+    /**
+     * This class represents a node in the calling context tree.
+     */
+    private static final class Node {
+
+        /**
+         * The field <tt>calls</tt> contains the number of calls.
+         */
+        private long calls = 0;
+
+        /**
+         * The field <tt>children</tt> contains the mapping from names to the
+         * callees or <code>null</code> if there are none.
+         */
+        private Map children = null;
+
+        /**
+         * The field <tt>depth</tt> contains the depth in the tree.
+         */
+        private int depth;
+
+        /**
+         * The field <tt>inclusive</tt> contains the number of tokens read in
+         * this node and all its descendants. It is computed on demand.
+         */
+        private long inclusive = 0;
+
+        /**
+         * The field <tt>name</tt> contains the name of the macro.
+         */
+        private String name;
+
+        /**
+         * The field <tt>pushed</tt> contains the number of tokens pushed.
+         */
+        private long pushed = 0;
+
+        /**
+         * The field <tt>tokens</tt> contains the number of tokens read while
+         * this node has been the innermost active macro.
+         */
+        private long tokens = 0;
+
+        /**
+         * Creates a new object.
+         *
+         * @param name the name of the macro
+         * @param depth the depth in the tree
+         */
+        public Node(final String name, final int depth) {
+
+            super();
+            this.name = name;
+            this.depth = depth;
+        }
+
+        /**
+         * Compute the inclusive number of tokens for this node and all its
+         * descendants.
+         *
+         * @return the inclusive number of tokens
+         */
+        public long computeInclusive() {
+
+            inclusive = tokens;
+            if (children != null) {
+                Iterator iterator = children.values().iterator();
+                while (iterator.hasNext()) {
+                    inclusive += ((Node) iterator.next()).computeInclusive();
+                }
+            }
+            return inclusive;
+        }
+    }
+
+    /**
+     * This class holds the totals for the macros of one name.
+     */
+    private static final class Summary {
+
+        /**
+         * The field <tt>calls</tt> contains the number of calls.
+         */
+        private long calls = 0;
+
+        /**
+         * The field <tt>depth</tt> contains the maximal depth.
+         */
+        private int depth = 0;
+
+        /**
+         * The field <tt>inclusive</tt> contains the number of tokens read in
+         * the macro and its callees.
+         */
+        private long inclusive = 0;
+
+        /**
+         * The field <tt>name</tt> contains the name of the macro.
+         */
+        private String name;
+
+        /**
+         * The field <tt>pushed</tt> contains the number of tokens pushed.
+         */
+        private long pushed = 0;
+
+        /**
+         * The field <tt>tokens</tt> contains the number of tokens read in the
+         * macro alone.
+         */
+        private long tokens = 0;
+
+        /**
+         * Creates a new object.
+         *
+         * @param name the name of the macro
+         */
+        public Summary(final String name) {
+
+            super();
+            this.name = name;
+        }
+    }
+
+    /**
+     * The constant <tt>DEFAULT_MAX_DEPTH</tt> contains the default for the
+     * maximal depth of the tree.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 256;
+
+    /**
+     * The constant <tt>DEFAULT_MAX_NODES</tt> contains the default for the
+     * maximal number of nodes in the tree.
+     */
+    public static final int DEFAULT_MAX_NODES = 65536;
+
+    /**
+     * The constant <tt>INCLUSIVE</tt> contains the comparator for sorting
+     * summaries by inclusive tokens.
+     */
+    private static final Comparator INCLUSIVE = new Comparator() {
+
+        /**
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        public int compare(final Object o1, final Object o2) {
+
+            Summary s1 = (Summary) o1;
+            Summary s2 = (Summary) o2;
+            if (s1.inclusive != s2.inclusive) {
+                return s1.inclusive > s2.inclusive ? -1 : 1;
+            }
+            if (s1.tokens != s2.tokens) {
+                return s1.tokens > s2.tokens ? -1 : 1;
+            }
+            return s1.name.compareTo(s2.name);
+        }
+    };
+
+    /**
+     * The constant <tt>INITIAL_DEPTH</tt> contains the initial size of the
+     * stack.
+     */
+    private static final int INITIAL_DEPTH = 64;
+
+    /**
+     * The constant <tt>TOP</tt> contains the name used for the tokens read
+     * outside of any macro.
+     */
+    private static final String TOP = "(top)";
+
+    /**
+     * Append a value right aligned to a string buffer.
+     *
+     * @param sb the target buffer
+     * @param value the value
+     * @param width the width of the column
+     */
+    private static void pad(final StringBuffer sb, final String value,
+            final int width) {
+
+        for (int i = value.length(); i < width; i++) {
+            sb.append(' ');
+        }
+        sb.append(value);
+    }
+
+    /**
+     * The field <tt>calls</tt> contains the number of macro calls.
+     */
+    private long calls = 0;
+
+    /**
+     * The field <tt>deepest</tt> contains the maximal number of active
+     * macros encountered.
+     */
+    private int deepest = 0;
+
+    /**
+     * The field <tt>dropped</tt> contains the number of calls which have been
+     * attributed to the caller because a limit has been reached.
+     */
+    private long dropped = 0;
+
+    /**
+     * The field <tt>interpreter</tt> contains the interpreter observed.
+     */
+    private Interpreter interpreter;
+
+    /**
+     * The field <tt>maxDepth</tt> contains the maximal depth of the tree.
+     */
+    private int maxDepth;
+
+    /**
+     * The field <tt>maxNodes</tt> contains the maximal number of nodes.
+     */
+    private int maxNodes;
+
+    /**
+     * The field <tt>nodes</tt> contains the number of nodes in the tree.
+     */
+    private int nodes = 1;
+
+    /**
+     * The field <tt>root</tt> contains the root of the tree. It collects the
+     * tokens read outside of any macro.
+     */
+    private Node root = new Node(TOP, 0);
+
+    /**
+     * The field <tt>sp</tt> contains the number of active macros.
+     */
+    private int sp = 0;
+
+    /**
+     * The field <tt>stack</tt> contains the active macros. The frames are
+     * reused.
+     */
+    private Frame[] stack = new Frame[INITIAL_DEPTH];
+
+    /**
+     * Creates a new object with the default limits.
+     *
+     * @param interpreter the interpreter to observe
+     */
+    public CallGraph(final Interpreter interpreter) {
+
+        this(interpreter, DEFAULT_MAX_NODES, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param interpreter the interpreter to observe
+     * @param maxNodes the maximal number of nodes in the tree
+     * @param maxDepth the maximal depth of the tree
+     */
+    public CallGraph(final Interpreter interpreter, final int maxNodes,
+            final int maxDepth) {
+
+        super();
+        this.interpreter = interpreter;
+        this.maxNodes = maxNodes;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Find the callee of a node and create it if necessary. If a limit is
+     * reached then the node itself is returned.
+     *
+     * @param node the caller
+     * @param name the name of the callee
+     *
+     * @return the node for the callee
+     */
+    private Node child(final Node node, final String name) {
+
+        Node n = (node.children == null ? null : (Node) node.children
+            .get(name));
+        if (n != null) {
+            return n;
+        } else if (nodes >= maxNodes || node.depth >= maxDepth) {
+            dropped++;
+            return node;
+        } else if (node.children == null) {
+            node.children = new HashMap();
+        }
+        n = new Node(name, node.depth + 1);
+        node.children.put(name, n);
+        nodes++;
+        return n;
+    }
+
+    /**
+     * Note that the innermost macro has finished reading its arguments.
+     */
+    private void close() {
+
+        if (sp > 0) {
+            Frame f = stack[sp - 1];
+            if (f.scanning) {
+                f.scanning = false;
+                f.remaining = f.pending;
+                f.pending = 0;
+                unwind();
+            }
+        }
+    }
+
+    /**
+     * Getter for the observer to be notified when a command is about to be
+     * executed.
+     *
+     * @return the command observer
+     */
+    public CommandObserver getCommandObserver() {
+
+        return new CommandObserver() {
+
+            /**
+             * @see de.dante.extex.interpreter.observer.command.CommandObserver#update(
+             *      de.dante.extex.scanner.type.token.Token)
+             */
+            public void update(final Token token) {
+
+                close();
+            }
+        };
+    }
+
+    /**
+     * Getter for the number of macro calls.
+     *
+     * @return the number of calls
+     */
+    public long getCalls() {
+
+        return calls;
+    }
+
+    /**
+     * Getter for the maximal number of active macros encountered.
+     *
+     * @return the maximal depth
+     */
+    public int getDeepest() {
+
+        return deepest;
+    }
+
+    /**
+     * Getter for the observer to be notified when a token is read.
+     *
+     * @return the pop observer
+     */
+    public PopObserver getPopObserver() {
+
+        return new PopObserver() {
+
+            /**
+             * @see de.dante.extex.interpreter.observer.pop.PopObserver#update(
+             *      de.dante.extex.scanner.type.token.Token)
+             */
+            public void update(final Token token) {
+
+                tokenRead();
+            }
+        };
+    }
+
+    /**
+     * Getter for the observer to be notified when a token is pushed back.
+     *
+     * @return the push observer
+     */
+    public PushObserver getPushObserver() {
+
+        return new PushObserver() {
+
+            /**
+             * @see de.dante.extex.interpreter.observer.push.PushObserver#update(
+             *      de.dante.extex.scanner.type.token.Token)
+             */
+            public void update(final Token token) {
+
+                tokenPushed();
+            }
+        };
+    }
+
+    /**
+     * Getter for the number of nodes in the calling context tree.
+     *
+     * @return the number of nodes
+     */
+    public int getNodes() {
+
+        return nodes;
+    }
+
+    /**
+     * Note the invocation of a macro.
+     *
+     * @param name the name of the macro
+     */
+    private void invoke(final String name) {
+
+        close();
+        Node node = child(sp > 0 ? stack[sp - 1].node : root, name);
+        node.calls++;
+        calls++;
+
+        if (sp == stack.length) {
+            Frame[] st = new Frame[2 * sp];
+            System.arraycopy(stack, 0, st, 0, sp);
+            stack = st;
+        }
+        Frame f = stack[sp];
+        if (f == null) {
+            f = new Frame();
+            stack[sp] = f;
+        }
+        f.node = node;
+        f.pending = 0;
+        f.remaining = 0;
+        f.scanning = true;
+        if (++sp > deepest) {
+            deepest = sp;
+        }
+    }
+
+    /**
+     * Produce a summary of the call graph. The macros are listed with the
+     * totals of all their invocations sorted by the number of tokens read in
+     * the macro and the macros invoked by it.
+     *
+     * @param limit the maximal number of macros listed
+     *
+     * @return the summary
+     */
+    public String report(final int limit) {
+
+        root.computeInclusive();
+        Map map = new HashMap();
+        if (root.children != null) {
+            Iterator iterator = root.children.values().iterator();
+            while (iterator.hasNext()) {
+                summarize((Node) iterator.next(), map, new HashMap());
+            }
+        }
+        List list = new ArrayList(map.values());
+        Collections.sort(list, INCLUSIVE);
+
+        StringBuffer sb = new StringBuffer();
+        sb.append("Call graph: ");
+        sb.append(calls);
+        sb.append(" macro calls, ");
+        sb.append(root.inclusive);
+        sb.append(" tokens (");
+        sb.append(root.tokens);
+        sb.append(" outside of macros), ");
+        sb.append(nodes);
+        sb.append(" nodes, depth ");
+        sb.append(deepest);
+        if (dropped > 0) {
+            sb.append(", ");
+            sb.append(dropped);
+            sb.append(" calls beyond the limits");
+        }
+        sb.append("\n  inclusive     tokens      calls  pushed/call depth  macro\n");
+        int n = Math.min(list.size(), limit);
+        for (int i = 0; i < n; i++) {
+            Summary s = (Summary) list.get(i);
+            pad(sb, Long.toString(s.inclusive), 11);
+            pad(sb, Long.toString(s.tokens), 11);
+            pad(sb, Long.toString(s.calls), 11);
+            pad(sb, Long.toString(s.calls == 0 ? 0 : Math
+                .round((double) s.pushed / s.calls)), 13);
+            pad(sb, Integer.toString(s.depth), 6);
+            sb.append("  ");
+            sb.append(s.name);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Collect the totals per name for a node and its descendants. The
+     * inclusive tokens of recursive invocations are counted only once.
+     *
+     * @param node the node
+     * @param map the mapping from names to summaries
+     * @param path the names of the callers mapped to their multiplicity
+     */
+    private void summarize(final Node node, final Map map, final Map path) {
+
+        Summary s = (Summary) map.get(node.name);
+        if (s == null) {
+            s = new Summary(node.name);
+            map.put(node.name, s);
+        }
+        s.calls += node.calls;
+        s.tokens += node.tokens;
+        s.pushed += node.pushed;
+        if (node.depth > s.depth) {
+            s.depth = node.depth;
+        }
+        Integer count = (Integer) path.get(node.name);
+        if (count == null) {
+            s.inclusive += node.inclusive;
+            path.put(node.name, new Integer(1));
+        } else {
+            path.put(node.name, new Integer(count.intValue() + 1));
+        }
+
+        if (node.children != null) {
+            Iterator iterator = node.children.values().iterator();
+            while (iterator.hasNext()) {
+                summarize((Node) iterator.next(), map, path);
+            }
+        }
+
+        if (count == null) {
+            path.remove(node.name);
+        } else {
+            path.put(node.name, count);
+        }
+    }
+
+    /**
+     * Remove the macros whose tokens have all been read.
+     */
+    private void unwind() {
+
+        while (sp > 0) {
+            Frame f = stack[sp - 1];
+            if (f.scanning || f.remaining > 0) {
+                return;
+            }
+            f.node = null;
+            sp--;
+        }
+    }
+
+    /**
+     * This method is invoked just before a token is expanded. This ends the
+     * scanning of the arguments of the innermost macro. If the token is a
+     * macro then its invocation is registered.
+     *
+     * @param token the token
+     *
+     * @see de.dante.extex.interpreter.observer.expand.ExpandObserver#update(
+     *      de.dante.extex.scanner.type.token.Token)
+     */
+    public void update(final Token token) {
+
+        if (token instanceof CodeToken) {
+            Context context = interpreter.getContext();
+            try {
+                Code code = context.getCode((CodeToken) token);
+                if (code instanceof MacroCode) {
+                    invoke(code.getName());
+                    return;
+                }
+            } catch (InterpreterException e) {
+                // the error is reported when the token is processed
+            }
+        }
+        close();
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.observer.expandMacro.ExpandMacroObserver#update(
+     *      de.dante.extex.scanner.type.token.Token,
+     *      de.dante.extex.interpreter.type.Code)
+     */
+    public void update(final Token token, final Code code) {
+
+        if (code instanceof MacroCode) {
+            invoke(code.getName());
+        } else {
+            close();
+        }
+    }
+
+    /**
+     * Note that a token has been read.
+     */
+    private void tokenRead() {
+
+        int i = sp - 1;
+        if (i >= 0 && stack[i].scanning) {
+            Frame f = stack[i];
+            if (f.pending > 0) {
+                f.pending--;
+                f.node.tokens++;
+                return;
+            }
+            i--;
+        }
+        while (i >= 0 && stack[i].remaining == 0) {
+            i--;
+        }
+        if (i < 0) {
+            root.tokens++;
+            return;
+        }
+        Frame f = stack[i];
+        f.node.tokens++;
+        if (--f.remaining == 0 && i == sp - 1) {
+            unwind();
+        }
+    }
+
+    /**
+     * Note that a token has been pushed back.
+     */
+    private void tokenPushed() {
+
+        if (sp > 0) {
+            Frame f = stack[sp - 1];
+            if (f.scanning) {
+                f.pending++;
+                f.node.pushed++;
+            } else {
+                f.remaining++;
+            }
+        }
+    }
+
+    /**
+     * Write the call graph as folded stacks.
+     *
+     * @param writer the target writer
+     *
+     * @throws IOException in case of an error
+     */
+    public void writeFolded(final Writer writer) throws IOException {
+
+        if (root.tokens > 0) {
+            writer.write(TOP);
+            writer.write(' ');
+            writer.write(Long.toString(root.tokens));
+            writer.write('\n');
+        }
+        if (root.children != null) {
+            StringBuffer sb = new StringBuffer();
+            Iterator iterator = root.children.values().iterator();
+            while (iterator.hasNext()) {
+                writeFolded(writer, (Node) iterator.next(), sb);
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Write a node and its descendants as folded stacks.
+     *
+     * @param writer the target writer
+     * @param node the node
+     * @param path the names of the callers
+     *
+     * @throws IOException in case of an error
+     */
+    private void writeFolded(final Writer writer, final Node node,
+            final StringBuffer path) throws IOException {
+
+        int len = path.length();
+        if (len > 0) {
+            path.append(';');
+        }
+        String name = node.name;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            path.append(c == ';' || Character.isWhitespace(c) ? '_' : c);
+        }
+        if (node.tokens > 0) {
+            writer.write(path.toString());
+            writer.write(' ');
+            writer.write(Long.toString(node.tokens));
+            writer.write('\n');
+        }
+        if (node.children != null) {
+            Iterator iterator = node.children.values().iterator();
+            while (iterator.hasNext()) {
+                writeFolded(writer, (Node) iterator.next(), path);
+            }
+        }
+        path.setLength(len);
+    }
+
+}
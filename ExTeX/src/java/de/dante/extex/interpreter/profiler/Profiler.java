@@ -0,0 +1,666 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.profiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.dante.extex.interpreter.observer.pop.PopObserver;
+import de.dante.extex.interpreter.observer.push.PushObserver;
+import de.dante.extex.interpreter.primitives.macro.util.MacroCode;
+import de.dante.extex.interpreter.type.Code;
+import de.dante.extex.scanner.type.token.Token;
+
+/**
+ * This class provides a sampling profiler for the interpreter. It attributes
+ * the time spent in the interpreter and the number of invocations to the
+ * code executed, i.e. to the primitives and macros.
+ *
+ * <p>
+ *  The interpreter announces the invocation of a piece of code with
+ *  {@link #enter(Code) enter()} and its end with {@link #leave() leave()}.
+ *  This maintains a stack of active code and counts the invocations. The
+ *  names of the code are used to collect the data. Thus all macros of the
+ *  same name and all aliases of a primitive are combined.
+ * </p>
+ * <p>
+ *  A background thread looks at the stack in regular intervals. The code on
+ *  top of the stack is charged with one sample of self time. Each code on the
+ *  stack is charged with one sample of total time. Time spent outside of any
+ *  code &ndash; e.g. for reading tokens or typesetting characters &ndash; is
+ *  not attributed to any code.
+ * </p>
+ * <p>
+ *  A macro pushes its expansion onto the input stream and returns. As in
+ *  {@link CallGraph CallGraph} it stays on the stack until all tokens it has
+ *  pushed have been read. Thus the time spent in its expansion is charged
+ *  to the macro as total time and &ndash; when no other code is active
+ *  &ndash; as self time. The tokens are counted with the observers provided
+ *  by {@link #getPopObserver() getPopObserver()} and
+ *  {@link #getPushObserver() getPushObserver()}. Tokens pushed back by a
+ *  primitive are charged to the macro the last token has been read from.
+ *  Thus the data is an approximation when the pushing back of tokens
+ *  interferes. Without these observers a macro only accounts for the time
+ *  needed to read its arguments and to insert its expansion.
+ * </p>
+ * <p>
+ *  The counters are plain primitive fields. Each field has only one writer:
+ *  the invocation counts and the stack are written by the interpreter thread
+ *  and the sample counts are written by the sampler thread only. Thus no
+ *  synchronization is needed on the path of the interpreter.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class Profiler {
+
+    /**
+     * This class holds the counters for one piece of code.
+     */
+    private static final class Entry {
+
+        /**
+         * The field <tt>calls</tt> contains the number of invocations.
+         */
+        private long calls = 0;
+
+        /**
+         * The field <tt>mark</tt> contains the number of the last sample in
+         * which the total time of this entry has been charged.
+         */
+        private long mark = 0;
+
+        /**
+         * The field <tt>name</tt> contains the name of the code.
+         */
+        private String name;
+
+        /**
+         * The field <tt>self</tt> contains the number of samples in which the
+         * code has been on top of the stack.
+         */
+        private long self = 0;
+
+        /**
+         * The field <tt>total</tt> contains the number of samples in which the
+         * code has been on the stack.
+         */
+        private long total = 0;
+
+        /**
+         * The field <tt>type</tt> contains the name of the class of the code.
+         */
+        private String type;
+
+        /**
+         * Creates a new object.
+         *
+         * @param code the code
+         */
+        public Entry(final Code code) {
+
+            super();
+            this.name = code.getName();
+            String t = code.getClass().getName();
+            this.type = t.substring(t.lastIndexOf('.') + 1);
+        }
+    }
+
+    /**
+     * The constant <tt>DEFAULT_INTERVAL</tt> contains the default sampling
+     * interval in milliseconds.
+     */
+    public static final int DEFAULT_INTERVAL = 1;
+
+    /**
+     * The constant <tt>INITIAL_DEPTH</tt> contains the initial size of the
+     * stack.
+     */
+    private static final int INITIAL_DEPTH = 64;
+
+    /**
+     * The constant <tt>PERCENT</tt> contains the factor for percentages.
+     */
+    private static final double PERCENT = 100.;
+
+    /**
+     * The constant <tt>SELF</tt> contains the comparator for sorting by
+     * self time.
+     */
+    private static final Comparator SELF = new Comparator() {
+
+        /**
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        public int compare(final Object o1, final Object o2) {
+
+            Entry e1 = (Entry) o1;
+            Entry e2 = (Entry) o2;
+            if (e1.self != e2.self) {
+                return e1.self > e2.self ? -1 : 1;
+            }
+            return TOTAL.compare(o1, o2);
+        }
+    };
+
+    /**
+     * The constant <tt>TOTAL</tt> contains the comparator for sorting by
+     * total time.
+     */
+    private static final Comparator TOTAL = new Comparator() {
+
+        /**
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        public int compare(final Object o1, final Object o2) {
+
+            Entry e1 = (Entry) o1;
+            Entry e2 = (Entry) o2;
+            if (e1.total != e2.total) {
+                return e1.total > e2.total ? -1 : 1;
+            }
+            if (e1.calls != e2.calls) {
+                return e1.calls > e2.calls ? -1 : 1;
+            }
+            return String.valueOf(e1.name).compareTo(String.valueOf(e2.name));
+        }
+    };
+
+    /**
+     * Append a value right aligned to a string buffer.
+     *
+     * @param sb the target buffer
+     * @param value the value
+     * @param width the width of the column
+     */
+    private static void pad(final StringBuffer sb, final String value,
+            final int width) {
+
+        for (int i = value.length(); i < width; i++) {
+            sb.append(' ');
+        }
+        sb.append(value);
+    }
+
+    /**
+     * The field <tt>depth</tt> contains the number of entries on the stack.
+     */
+    private volatile int depth = 0;
+
+    /**
+     * The field <tt>elapsed</tt> contains the number of milliseconds between
+     * start and stop.
+     */
+    private long elapsed = 0;
+
+    /**
+     * The field <tt>entries</tt> contains the mapping from the name of the
+     * code to the entries.
+     */
+    private Map entries = new HashMap();
+
+    /**
+     * The field <tt>idle</tt> contains the number of samples with an empty
+     * stack.
+     */
+    private long idle = 0;
+
+    /**
+     * The field <tt>interval</tt> contains the sampling interval in
+     * milliseconds.
+     */
+    private int interval;
+
+    /**
+     * The field <tt>last</tt> contains the index of the stack entry the last
+     * token has been read from or -1 if it has not been read from the
+     * expansion of a macro.
+     */
+    private int last = -1;
+
+    /**
+     * The field <tt>macro</tt> contains for each entry on the stack the
+     * indicator that it is a macro.
+     */
+    private boolean[] macro = new boolean[INITIAL_DEPTH];
+
+    /**
+     * The field <tt>open</tt> contains for each entry on the stack the
+     * indicator that the code has not returned yet.
+     */
+    private boolean[] open = new boolean[INITIAL_DEPTH];
+
+    /**
+     * The field <tt>remaining</tt> contains for each entry on the stack the
+     * number of tokens pushed and not read yet.
+     */
+    private long[] remaining = new long[INITIAL_DEPTH];
+
+    /**
+     * The field <tt>running</tt> contains the indicator that the sampler
+     * should continue.
+     */
+    private volatile boolean running = false;
+
+    /**
+     * The field <tt>sampler</tt> contains the sampler thread or
+     * <code>null</code> if the profiler is not running.
+     */
+    private Thread sampler = null;
+
+    /**
+     * The field <tt>samples</tt> contains the number of samples taken.
+     */
+    private long samples = 0;
+
+    /**
+     * The field <tt>stack</tt> contains the entries of the active code.
+     */
+    private volatile Entry[] stack = new Entry[INITIAL_DEPTH];
+
+    /**
+     * The field <tt>started</tt> contains the time of the start.
+     */
+    private long started = 0;
+
+    /**
+     * Creates a new object with the default interval.
+     */
+    public Profiler() {
+
+        this(DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param interval the sampling interval in milliseconds
+     */
+    public Profiler(final int interval) {
+
+        super();
+        this.interval = (interval > 0 ? interval : DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Note that a piece of code is about to be invoked. Each invocation of
+     * this method has to be followed by an invocation of
+     * {@link #leave() leave()}.
+     *
+     * @param code the code
+     */
+    public void enter(final Code code) {
+
+        String name = code.getName();
+        Entry e = (Entry) entries.get(name);
+        if (e == null) {
+            e = new Entry(code);
+            entries.put(name, e);
+        }
+        e.calls++;
+
+        unwind();
+        Entry[] s = stack;
+        int d = depth;
+        if (d == s.length) {
+            Entry[] st = new Entry[2 * d];
+            System.arraycopy(s, 0, st, 0, d);
+            boolean[] m = new boolean[2 * d];
+            System.arraycopy(macro, 0, m, 0, d);
+            macro = m;
+            boolean[] o = new boolean[2 * d];
+            System.arraycopy(open, 0, o, 0, d);
+            open = o;
+            long[] r = new long[2 * d];
+            System.arraycopy(remaining, 0, r, 0, d);
+            remaining = r;
+            stack = st;
+            s = st;
+        }
+        s[d] = e;
+        macro[d] = (code instanceof MacroCode);
+        open[d] = true;
+        remaining[d] = 0;
+        depth = d + 1;
+    }
+
+    /**
+     * Getter for the number of invocations of a piece of code.
+     *
+     * @param name the name of the code
+     *
+     * @return the number of invocations
+     */
+    public long getCalls(final String name) {
+
+        Entry e = (Entry) entries.get(name);
+        return (e == null ? 0 : e.calls);
+    }
+
+    /**
+     * Getter for the observer to be notified when a token is read.
+     *
+     * @return the pop observer
+     */
+    public PopObserver getPopObserver() {
+
+        return new PopObserver() {
+
+            /**
+             * @see de.dante.extex.interpreter.observer.pop.PopObserver#update(
+             *      de.dante.extex.scanner.type.token.Token)
+             */
+            public void update(final Token token) {
+
+                tokenRead();
+            }
+        };
+    }
+
+    /**
+     * Getter for the observer to be notified when a token is pushed back.
+     *
+     * @return the push observer
+     */
+    public PushObserver getPushObserver() {
+
+        return new PushObserver() {
+
+            /**
+             * @see de.dante.extex.interpreter.observer.push.PushObserver#update(
+             *      de.dante.extex.scanner.type.token.Token)
+             */
+            public void update(final Token token) {
+
+                tokenPushed();
+            }
+        };
+    }
+
+    /**
+     * Getter for the number of samples with the given code on top of the
+     * stack.
+     *
+     * @param name the name of the code
+     *
+     * @return the number of samples
+     */
+    public long getSelf(final String name) {
+
+        Entry e = (Entry) entries.get(name);
+        return (e == null ? 0 : e.self);
+    }
+
+    /**
+     * Getter for the number of samples with the given code on the stack.
+     *
+     * @param name the name of the code
+     *
+     * @return the number of samples
+     */
+    public long getTotal(final String name) {
+
+        Entry e = (Entry) entries.get(name);
+        return (e == null ? 0 : e.total);
+    }
+
+    /**
+     * Note that the code most recently entered has been completed. A macro
+     * stays on the stack until its expansion has been read.
+     */
+    public void leave() {
+
+        int d = depth;
+        int i = d - 1;
+        while (i >= 0 && !open[i]) {
+            i--;
+        }
+        if (i < 0) {
+            return;
+        }
+        open[i] = false;
+        if (!macro[i] || remaining[i] == 0) {
+            Entry[] s = stack;
+            for (int j = i + 1; j < d; j++) {
+                s[j - 1] = s[j];
+                macro[j - 1] = macro[j];
+                open[j - 1] = open[j];
+                remaining[j - 1] = remaining[j];
+            }
+            depth = d - 1;
+            if (last > i) {
+                last--;
+            } else if (last == i) {
+                last = -1;
+            }
+        }
+        unwind();
+    }
+
+    /**
+     * Produce the report. It consists of the code sorted by self time and
+     * the code sorted by total time. Only code which has been found in a
+     * sample or has been invoked is listed.
+     *
+     * @param limit the maximal number of lines in each table
+     *
+     * @return the report
+     */
+    public String report(final int limit) {
+
+        double ms = (samples == 0 ? 0. : (double) elapsed / samples);
+        long calls = 0;
+        List list = new ArrayList(entries.values());
+        for (int i = 0; i < list.size(); i++) {
+            calls += ((Entry) list.get(i)).calls;
+        }
+
+        StringBuffer sb = new StringBuffer();
+        sb.append("Profile: ");
+        sb.append(elapsed);
+        sb.append(" ms, ");
+        sb.append(samples);
+        sb.append(" samples, ");
+        sb.append(calls);
+        sb.append(" invocations, ");
+        sb.append(Math.round(idle * ms));
+        sb.append(" ms outside of any code\n");
+
+        Collections.sort(list, SELF);
+        sb.append("\nby self time:\n");
+        report(sb, list, limit, ms);
+        Collections.sort(list, TOTAL);
+        sb.append("\nby total time:\n");
+        report(sb, list, limit, ms);
+        return sb.toString();
+    }
+
+    /**
+     * Produce one table of the report.
+     *
+     * @param sb the target buffer
+     * @param list the sorted list of entries
+     * @param limit the maximal number of lines
+     * @param ms the number of milliseconds per sample
+     */
+    private void report(final StringBuffer sb, final List list,
+            final int limit, final double ms) {
+
+        sb.append("  self ms  self%  total ms total%      calls  code\n");
+        int n = Math.min(list.size(), limit);
+        for (int i = 0; i < n; i++) {
+            Entry e = (Entry) list.get(i);
+            pad(sb, Long.toString(Math.round(e.self * ms)), 9);
+            pad(sb, Long.toString(Math.round(PERCENT * e.self
+                    / Math.max(samples, 1))), 7);
+            pad(sb, Long.toString(Math.round(e.total * ms)), 10);
+            pad(sb, Long.toString(Math.round(PERCENT * e.total
+                    / Math.max(samples, 1))), 7);
+            pad(sb, Long.toString(e.calls), 11);
+            sb.append("  ");
+            sb.append(e.name);
+            sb.append(" (");
+            sb.append(e.type);
+            sb.append(")\n");
+        }
+    }
+
+    /**
+     * Take a sample. This method is invoked by the sampler thread.
+     */
+    void sample() {
+
+        int d = depth;
+        Entry[] s = stack;
+        samples++;
+        if (d > s.length) {
+            d = s.length;
+        }
+        if (d == 0) {
+            idle++;
+            return;
+        }
+        for (int i = 0; i < d; i++) {
+            Entry e = s[i];
+            if (e != null && e.mark != samples) {
+                e.mark = samples;
+                e.total++;
+            }
+        }
+        Entry e = s[d - 1];
+        if (e != null) {
+            e.self++;
+        }
+    }
+
+    /**
+     * Note that a token has been pushed back. A token pushed by an active
+     * macro belongs to its expansion. Any other token is charged to the
+     * macro the last token has been read from.
+     */
+    void tokenPushed() {
+
+        int i = depth - 1;
+        if (i >= 0 && open[i] && macro[i]) {
+            remaining[i]++;
+        } else if (last >= 0 && last < depth) {
+            remaining[last]++;
+        }
+    }
+
+    /**
+     * Note that a token has been read. It is taken from the expansion of the
+     * innermost macro with tokens left.
+     */
+    void tokenRead() {
+
+        int i = depth - 1;
+        if (i >= 0 && open[i] && macro[i]) {
+            // the macro reads its arguments
+            if (remaining[i] > 0) {
+                remaining[i]--;
+                last = i;
+                return;
+            }
+            i--;
+        }
+        while (i >= 0 && (open[i] || remaining[i] == 0)) {
+            i--;
+        }
+        last = i;
+        if (i >= 0) {
+            remaining[i]--;
+            unwind();
+        }
+    }
+
+    /**
+     * Remove the macros from the top of the stack which have returned and
+     * whose expansion has been read completely.
+     */
+    private void unwind() {
+
+        int d = depth;
+        while (d > 0 && !open[d - 1] && remaining[d - 1] == 0) {
+            d--;
+        }
+        if (last >= d) {
+            last = -1;
+        }
+        depth = d;
+    }
+
+    /**
+     * Start the sampler thread. If the profiler is already running then
+     * nothing happens.
+     */
+    public synchronized void start() {
+
+        if (sampler != null) {
+            return;
+        }
+        running = true;
+        sampler = new Thread("profiler") {
+
+            /**
+             * @see java.lang.Runnable#run()
+             */
+            public void run() {
+
+                while (running) {
+                    try {
+                        sleep(interval);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    sample();
+                }
+            }
+        };
+        sampler.setDaemon(true);
+        started = System.currentTimeMillis();
+        sampler.start();
+    }
+
+    /**
+     * Stop the sampler thread and wait for its termination.
+     */
+    public synchronized void stop() {
+
+        if (sampler == null) {
+            return;
+        }
+        running = false;
+        sampler.interrupt();
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            // the sample counts might be incomplete; ignored
+        }
+        sampler = null;
+        elapsed += System.currentTimeMillis() - started;
+    }
+
+}
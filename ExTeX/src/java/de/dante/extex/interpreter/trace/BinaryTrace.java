@@ -0,0 +1,613 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.trace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import de.dante.extex.interpreter.TokenSource;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.interpreter.exception.InterpreterException;
+import de.dante.extex.interpreter.observer.command.CommandObserver;
+import de.dante.extex.interpreter.observer.expandMacro.ExpandMacroObserver;
+import de.dante.extex.interpreter.observer.pop.PopObserver;
+import de.dante.extex.interpreter.observer.push.PushObserver;
+import de.dante.extex.interpreter.primitives.macro.util.MacroCode;
+import de.dante.extex.interpreter.type.Code;
+import de.dante.extex.interpreter.type.tokens.Tokens;
+import de.dante.extex.scanner.type.token.Token;
+import de.dante.util.Locator;
+
+/**
+ * This class writes the events of the interpreter as binary records to a
+ * stream. It is attached to the interpreter as observer.
+ *
+ * <p>
+ *  The interpreter thread does not format any text. It maps each token, each
+ *  macro and each file name to a number and puts a record of fixed size into
+ *  a {@link TraceRing TraceRing}. The first occurrence of a token, a macro or
+ *  a file name leads to an additional record defining the number. A daemon
+ *  thread drains the ring buffer and writes the records to the stream. The
+ *  {@link TraceDecoder TraceDecoder} turns the stream into the text which
+ *  would have been written to the log file.
+ * </p>
+ *
+ * <h3>The Format</h3>
+ * <p>
+ *  The stream starts with the integer {@link #MAGIC MAGIC} followed by the
+ *  integer {@link #VERSION VERSION}. Then the records follow. Each record
+ *  starts with a byte containing the type. A record of type
+ *  {@link #DEFINE DEFINE} is followed by the number and two strings in the
+ *  format of {@link java.io.DataOutput#writeUTF(String) writeUTF()}. For a
+ *  token the strings are the printable representation and the text of the
+ *  token. For a macro they are the name and the meaning. For a file both are
+ *  the name of the file. All other records are followed by four integers:
+ *  the number of the token, the number of the macro, the number of the file,
+ *  and the line number. Unused fields are 0.
+ * </p>
+ * <p>
+ *  The locator is recorded for commands and the expansion of macros only.
+ *  The tokens read and pushed are too frequent to pay for it.
+ * </p>
+ * <p>
+ *  The observers for commands, for reading tokens and for pushing tokens are
+ *  provided by {@link #getCommandObserver() getCommandObserver()},
+ *  {@link #getPopObserver() getPopObserver()} and
+ *  {@link #getPushObserver() getPushObserver()}. The instance itself observes
+ *  the expansion of macros. The trace has to be closed at the end to write
+ *  the pending records.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class BinaryTrace implements ExpandMacroObserver, Runnable {
+
+    /**
+     * The constant <tt>BUFFER_SIZE</tt> contains the size of the output
+     * buffer of the writer thread.
+     */
+    private static final int BUFFER_SIZE = 0x10000;
+
+    /**
+     * The constant <tt>COMMAND</tt> contains the type of the record for a
+     * command about to be executed.
+     */
+    public static final int COMMAND = 3;
+
+    /**
+     * The constant <tt>DEFAULT_CAPACITY</tt> contains the default number of
+     * records in the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    /**
+     * The constant <tt>DEFINE</tt> contains the type of the record defining
+     * a number.
+     */
+    public static final int DEFINE = 0;
+
+    /**
+     * The constant <tt>IDLE</tt> contains the number of milliseconds the
+     * writer thread sleeps when the ring buffer is empty.
+     */
+    private static final long IDLE = 2;
+
+    /**
+     * The constant <tt>MACRO</tt> contains the type of the record for the
+     * expansion of a macro.
+     */
+    public static final int MACRO = 4;
+
+    /**
+     * The constant <tt>MAGIC</tt> contains the magic number at the start of
+     * the stream. It spells &ldquo;XTRC&rdquo;.
+     */
+    public static final int MAGIC = 0x58545243;
+
+    /**
+     * The constant <tt>MAX_TEXT</tt> contains the maximal length of a string
+     * in a definition. Longer strings are truncated.
+     */
+    private static final int MAX_TEXT = 16000;
+
+    /**
+     * The constant <tt>POP</tt> contains the type of the record for a token
+     * read.
+     */
+    public static final int POP = 1;
+
+    /**
+     * The constant <tt>PUSH</tt> contains the type of the record for a token
+     * pushed back.
+     */
+    public static final int PUSH = 2;
+
+    /**
+     * The constant <tt>VERSION</tt> contains the version of the format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The field <tt>buffer</tt> contains the output buffer of the writer
+     * thread. The records are encoded into it directly. This avoids a call
+     * to the output stream for each byte.
+     */
+    private byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * The field <tt>closed</tt> contains the indicator that no more records
+     * will be put into the ring buffer.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * The field <tt>codes</tt> contains the mapping from macros to numbers.
+     * The macros are weakly referenced. Thus macros defined in a loop do not
+     * accumulate.
+     */
+    private Map codes = new WeakHashMap();
+
+    /**
+     * The field <tt>context</tt> contains the interpreter context.
+     */
+    private Context context;
+
+    /**
+     * The field <tt>error</tt> contains the exception encountered by the
+     * writer thread or <code>null</code>.
+     */
+    private IOException error = null;
+
+    /**
+     * The field <tt>fileId</tt> contains the number of the file name in
+     * <tt>fileName</tt>.
+     */
+    private int fileId = 0;
+
+    /**
+     * The field <tt>fileName</tt> contains the file name seen last.
+     */
+    private String fileName = null;
+
+    /**
+     * The field <tt>files</tt> contains the mapping from file names to
+     * numbers.
+     */
+    private Map files = new HashMap();
+
+    /**
+     * The field <tt>length</tt> contains the number of bytes used in the
+     * output buffer.
+     */
+    private int length = 0;
+
+    /**
+     * The field <tt>next</tt> contains the next number to be assigned.
+     */
+    private int next = 1;
+
+    /**
+     * The field <tt>out</tt> contains the output stream of the writer thread.
+     */
+    private OutputStream out;
+
+    /**
+     * The field <tt>ring</tt> contains the ring buffer.
+     */
+    private TraceRing ring;
+
+    /**
+     * The field <tt>source</tt> contains the token source to query for the
+     * locator.
+     */
+    private TokenSource source;
+
+    /**
+     * The field <tt>tokens</tt> contains the mapping from tokens to numbers.
+     */
+    private Map tokens = new HashMap();
+
+    /**
+     * The field <tt>utf</tt> contains the buffer for encoding the strings of
+     * a definition.
+     */
+    private ByteArrayOutputStream utf = new ByteArrayOutputStream();
+
+    /**
+     * The field <tt>utfOut</tt> contains the stream for encoding the strings
+     * of a definition.
+     */
+    private DataOutputStream utfOut = new DataOutputStream(utf);
+
+    /**
+     * The field <tt>writer</tt> contains the writer thread.
+     */
+    private Thread writer;
+
+    /**
+     * Creates a new object and starts the writer thread.
+     *
+     * @param context the interpreter context
+     * @param source the token source to query for the locator
+     * @param stream the target stream
+     * @param capacity the number of records in the ring buffer
+     */
+    public BinaryTrace(final Context context, final TokenSource source,
+            final OutputStream stream, final int capacity) {
+
+        super();
+        this.context = context;
+        this.source = source;
+        this.out = stream;
+        this.ring = new TraceRing(capacity);
+        writer = new Thread(this, "BinaryTrace");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Write the pending records and close the stream. Afterwards no more
+     * events are recorded.
+     *
+     * @throws IOException in case of an I/O error
+     */
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Get the number for a macro. A definition is recorded for a new macro.
+     *
+     * @param code the macro
+     *
+     * @return the number
+     */
+    private int code(final MacroCode code) {
+
+        Integer id = (Integer) codes.get(code);
+        if (id != null) {
+            return id.intValue();
+        }
+        String name = context.esc(code.getName());
+        String meaning = name;
+        try {
+            Tokens toks = code.show(context);
+            meaning = toks.toText();
+            meaning = name + " " + meaning.substring(meaning.indexOf('\n') + 1);
+        } catch (InterpreterException e) {
+            // the name has to suffice
+        }
+        int n = define(name, meaning);
+        codes.put(code, new Integer(n));
+        return n;
+    }
+
+    /**
+     * Record the definition of a new number.
+     *
+     * @param text the first string
+     * @param display the second string
+     *
+     * @return the new number
+     */
+    private int define(final String text, final String display) {
+
+        int n = next++;
+        ring.put(DEFINE, n, 0, 0, 0, new String[]{truncate(text),
+                truncate(display)});
+        return n;
+    }
+
+    /**
+     * Get the number for a file name. A definition is recorded for a new
+     * file name.
+     *
+     * @param name the name of the file
+     *
+     * @return the number
+     */
+    private int file(final String name) {
+
+        if (name == fileName) {
+            return fileId;
+        }
+        Integer id = (Integer) files.get(name);
+        if (id == null) {
+            id = new Integer(define(name, name));
+            files.put(name, id);
+        }
+        fileName = name;
+        fileId = id.intValue();
+        return fileId;
+    }
+
+    /**
+     * Write the output buffer to the output stream.
+     *
+     * @throws IOException in case of an I/O error
+     */
+    private void flush() throws IOException {
+
+        out.write(buffer, 0, length);
+        out.flush();
+        length = 0;
+    }
+
+    /**
+     * Getter for the observer of commands.
+     *
+     * @return the observer
+     */
+    public CommandObserver getCommandObserver() {
+
+        return new CommandObserver() {
+
+            /**
+             * @see de.dante.extex.interpreter.observer.command.CommandObserver#update(
+             *      de.dante.extex.scanner.type.token.Token)
+             */
+            public void update(final Token token) {
+
+                if (!closed) {
+                    record(COMMAND, token(token), 0);
+                }
+            }
+        };
+    }
+
+    /**
+     * Getter for the observer of tokens read.
+     *
+     * @return the observer
+     */
+    public PopObserver getPopObserver() {
+
+        return new PopObserver() {
+
+            /**
+             * @see de.dante.extex.interpreter.observer.pop.PopObserver#update(
+             *      de.dante.extex.scanner.type.token.Token)
+             */
+            public void update(final Token token) {
+
+                if (!closed && token != null) {
+                    ring.put(POP, token(token), 0, 0, 0, null);
+                }
+            }
+        };
+    }
+
+    /**
+     * Getter for the observer of tokens pushed.
+     *
+     * @return the observer
+     */
+    public PushObserver getPushObserver() {
+
+        return new PushObserver() {
+
+            /**
+             * @see de.dante.extex.interpreter.observer.push.PushObserver#update(
+             *      de.dante.extex.scanner.type.token.Token)
+             */
+            public void update(final Token token) {
+
+                if (!closed && token != null) {
+                    ring.put(PUSH, token(token), 0, 0, 0, null);
+                }
+            }
+        };
+    }
+
+    /**
+     * Getter for the number of times the interpreter had to wait for the
+     * writer thread.
+     *
+     * @return the number of waits
+     */
+    public long getWaits() {
+
+        return ring.getWaits();
+    }
+
+    /**
+     * Put a record with the current locator into the ring buffer.
+     *
+     * @param type the type of the record
+     * @param token the number of the token
+     * @param code the number of the code
+     */
+    private void record(final int type, final int token, final int code) {
+
+        Locator locator = source.getLocator();
+        if (locator == null) {
+            ring.put(type, token, code, 0, 0, null);
+        } else {
+            String name = locator.getResourceName();
+            ring.put(type, token, code, (name == null ? 0 : file(name)),
+                    locator.getLineNumber(), null);
+        }
+    }
+
+    /**
+     * This is the body of the writer thread. It drains the ring buffer until
+     * the trace is closed. After an I/O error the records are discarded.
+     *
+     * @see java.lang.Runnable#run()
+     */
+    public void run() {
+
+        int[] record = new int[TraceRing.RECORD_SIZE];
+        boolean dirty = false;
+        writeInt(MAGIC);
+        writeInt(VERSION);
+        for (;;) {
+            if (ring.take(record)) {
+                if (error == null) {
+                    try {
+                        write(record, (String[]) ring.getText());
+                        dirty = true;
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                }
+            } else if (closed) {
+                if (ring.isEmpty()) {
+                    break;
+                }
+            } else {
+                if (dirty && error == null) {
+                    try {
+                        flush();
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                    dirty = false;
+                }
+                try {
+                    Thread.sleep(IDLE);
+                } catch (InterruptedException e) {
+                    // check again
+                }
+            }
+        }
+        if (error == null) {
+            try {
+                flush();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Get the number for a token. A definition is recorded for a new token.
+     *
+     * @param token the token
+     *
+     * @return the number
+     */
+    private int token(final Token token) {
+
+        Integer id = (Integer) tokens.get(token);
+        if (id != null) {
+            return id.intValue();
+        }
+        int n = define(token.toString(), token.toText());
+        tokens.put(token, new Integer(n));
+        return n;
+    }
+
+    /**
+     * Truncate a string to the length acceptable for a definition.
+     *
+     * @param s the string
+     *
+     * @return the string or its prefix
+     */
+    private String truncate(final String s) {
+
+        return (s.length() > MAX_TEXT ? s.substring(0, MAX_TEXT) : s);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.observer.expandMacro.ExpandMacroObserver#update(
+     *      de.dante.extex.scanner.type.token.Token,
+     *      de.dante.extex.interpreter.type.Code)
+     */
+    public void update(final Token token, final Code code) {
+
+        if (!closed && code instanceof MacroCode) {
+            record(MACRO, token(token), code((MacroCode) code));
+        }
+    }
+
+    /**
+     * Encode a record into the output buffer.
+     *
+     * @param record the integers of the record
+     * @param text the strings of a definition or <code>null</code>
+     *
+     * @throws IOException in case of an I/O error
+     */
+    private void write(final int[] record, final String[] text)
+            throws IOException {
+
+        if (length > BUFFER_SIZE - 1 - 4 * 4) {
+            flush();
+        }
+        int type = record[0];
+        buffer[length++] = (byte) type;
+        writeInt(record[1]);
+        if (type != DEFINE) {
+            writeInt(record[2]);
+            writeInt(record[3]);
+            writeInt(record[4]);
+            return;
+        }
+        utf.reset();
+        utfOut.writeUTF(text[0]);
+        utfOut.writeUTF(text[1]);
+        if (length + utf.size() > BUFFER_SIZE) {
+            flush();
+        }
+        if (utf.size() > BUFFER_SIZE) {
+            utf.writeTo(out);
+        } else {
+            byte[] bytes = utf.toByteArray();
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+    }
+
+    /**
+     * Encode an integer into the output buffer. The caller has to make sure
+     * that there is enough room.
+     *
+     * @param value the integer
+     */
+    private void writeInt(final int value) {
+
+        buffer[length++] = (byte) (value >>> 24);
+        buffer[length++] = (byte) (value >>> 16);
+        buffer[length++] = (byte) (value >>> 8);
+        buffer[length++] = (byte) value;
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class turns a trace written by {@link BinaryTrace BinaryTrace} into
+ * text. The text is the same as the one written to the log file by the
+ * observers for the tokenizer and for <tt>\tracingcommands</tt>.
+ *
+ * <p>
+ *  The decoder can be used from the command line:
+ * </p>
+ * <pre>
+ *  java de.dante.extex.interpreter.trace.TraceDecoder [-l] file
+ * </pre>
+ * <p>
+ *  The decoded text is written to standard output. With the option
+ *  <tt>-l</tt> each command and each macro expansion is preceded by its
+ *  location in the form <tt>file:line:</tt>.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TraceDecoder {
+
+    /**
+     * The field <tt>display</tt> contains the second string of each
+     * definition indexed by its number.
+     */
+    private List display = new ArrayList();
+
+    /**
+     * The field <tt>locations</tt> contains the indicator whether or not the
+     * locations should be shown.
+     */
+    private boolean locations;
+
+    /**
+     * The field <tt>text</tt> contains the first string of each definition
+     * indexed by its number.
+     */
+    private List text = new ArrayList();
+
+    /**
+     * Creates a new object.
+     *
+     * @param locations the indicator whether or not the locations should be
+     *  shown
+     */
+    public TraceDecoder(final boolean locations) {
+
+        super();
+        this.locations = locations;
+        text.add("");
+        display.add("");
+    }
+
+    /**
+     * Command line interface for the decoder.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(final String[] args) {
+
+        boolean loc = false;
+        String file = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("-l".equals(args[i])) {
+                loc = true;
+            } else {
+                file = args[i];
+            }
+        }
+        if (file == null) {
+            System.err.println("usage: TraceDecoder [-l] file");
+            System.exit(1);
+        }
+        try {
+            InputStream in = new FileInputStream(file);
+            Writer w = new BufferedWriter(new OutputStreamWriter(System.out));
+            try {
+                new TraceDecoder(loc).decode(in, w);
+            } finally {
+                in.close();
+                w.flush();
+            }
+        } catch (IOException e) {
+            System.err.println(e.toString());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Decode a binary trace.
+     *
+     * @param stream the stream to read from
+     * @param writer the writer to receive the text
+     *
+     * @throws IOException in case of an I/O error or an invalid format
+     */
+    public void decode(final InputStream stream, final Writer writer)
+            throws IOException {
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                stream));
+        if (in.readInt() != BinaryTrace.MAGIC) {
+            throw new IOException("not a trace");
+        }
+        int version = in.readInt();
+        if (version != BinaryTrace.VERSION) {
+            throw new IOException("unsupported version " + version);
+        }
+
+        for (;;) {
+            int type = in.read();
+            if (type < 0) {
+                break;
+            }
+            int id;
+            try {
+                id = in.readInt();
+                if (type == BinaryTrace.DEFINE) {
+                    define(id, in.readUTF(), in.readUTF());
+                    continue;
+                }
+                int code = in.readInt();
+                int file = in.readInt();
+                int line = in.readInt();
+
+                switch (type) {
+                    case BinaryTrace.POP:
+                        writer.write(get(text, id));
+                        writer.write("\n");
+                        break;
+                    case BinaryTrace.PUSH:
+                        writer.write(": push ");
+                        writer.write(get(text, id));
+                        writer.write("\n");
+                        break;
+                    case BinaryTrace.COMMAND:
+                        location(writer, file, line);
+                        writer.write("{");
+                        writer.write(get(display, id));
+                        writer.write("}\n");
+                        break;
+                    case BinaryTrace.MACRO:
+                        location(writer, file, line);
+                        writer.write(get(display, code));
+                        writer.write("\n");
+                        break;
+                    default:
+                        throw new IOException("unknown record type " + type);
+                }
+            } catch (EOFException e) {
+                // a truncated record at the end is ignored
+                break;
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Store a definition.
+     *
+     * @param id the number
+     * @param s1 the first string
+     * @param s2 the second string
+     *
+     * @throws IOException in case of an invalid number
+     */
+    private void define(final int id, final String s1, final String s2)
+            throws IOException {
+
+        if (id != text.size()) {
+            throw new IOException("unexpected definition " + id);
+        }
+        text.add(s1);
+        display.add(s2);
+    }
+
+    /**
+     * Get a string by its number.
+     *
+     * @param list the list of strings
+     * @param id the number
+     *
+     * @return the string
+     *
+     * @throws IOException in case of an undefined number
+     */
+    private String get(final List list, final int id) throws IOException {
+
+        if (id < 0 || id >= list.size()) {
+            throw new IOException("undefined " + id);
+        }
+        return (String) list.get(id);
+    }
+
+    /**
+     * Write the location if requested.
+     *
+     * @param writer the target writer
+     * @param file the number of the file
+     * @param line the line number
+     *
+     * @throws IOException in case of an I/O error
+     */
+    private void location(final Writer writer, final int file, final int line)
+            throws IOException {
+
+        if (locations) {
+            writer.write(get(text, file));
+            writer.write(":");
+            writer.write(Integer.toString(line));
+            writer.write(": ");
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.trace;
+
+/**
+ * This class provides a bounded ring buffer of fixed-size integer records.
+ * It connects exactly one producer thread with exactly one consumer thread
+ * without locking.
+ *
+ * <p>
+ *  Each record consists of {@link #RECORD_SIZE RECORD_SIZE} integers and an
+ *  optional object. The producer writes the slot and publishes it by
+ *  advancing the volatile <tt>tail</tt>. The consumer reads the slot and
+ *  releases it by advancing the volatile <tt>head</tt>. Each of the two
+ *  counters has a single writer. Thus no compare-and-set is needed.
+ * </p>
+ * <p>
+ *  When the buffer is full the producer yields until the consumer has
+ *  released a slot. Records are never dropped. The number of times the
+ *  producer had to wait is counted.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TraceRing {
+
+    /**
+     * The constant <tt>RECORD_SIZE</tt> contains the number of integers in a
+     * record.
+     */
+    public static final int RECORD_SIZE = 5;
+
+    /**
+     * The field <tt>data</tt> contains the integers of the records.
+     */
+    private int[] data;
+
+    /**
+     * The field <tt>head</tt> contains the number of records taken. It is
+     * written by the consumer only.
+     */
+    private volatile long head = 0;
+
+    /**
+     * The field <tt>mask</tt> contains the mask to map a counter to a slot.
+     */
+    private int mask;
+
+    /**
+     * The field <tt>tail</tt> contains the number of records put. It is
+     * written by the producer only.
+     */
+    private volatile long tail = 0;
+
+    /**
+     * The field <tt>taken</tt> contains the object of the record taken last.
+     * It is used by the consumer only.
+     */
+    private Object taken = null;
+
+    /**
+     * The field <tt>text</tt> contains the objects of the records.
+     */
+    private Object[] text;
+
+    /**
+     * The field <tt>waits</tt> contains the number of times the producer
+     * found the buffer full. It is written by the producer only.
+     */
+    private long waits = 0;
+
+    /**
+     * Creates a new object.
+     *
+     * @param capacity the minimal number of records; it is rounded up to the
+     *  next power of 2
+     */
+    public TraceRing(final int capacity) {
+
+        super();
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        data = new int[size * RECORD_SIZE];
+        text = new Object[size];
+    }
+
+    /**
+     * Getter for the capacity.
+     *
+     * @return the number of records which fit into the buffer
+     */
+    public int getCapacity() {
+
+        return mask + 1;
+    }
+
+    /**
+     * Getter for the object of the record taken last.
+     *
+     * @return the object or <code>null</code>
+     */
+    public Object getText() {
+
+        return taken;
+    }
+
+    /**
+     * Getter for the number of times the producer had to wait.
+     *
+     * @return the number of waits
+     */
+    public long getWaits() {
+
+        return waits;
+    }
+
+    /**
+     * Check whether there are records to be taken.
+     *
+     * @return <code>true</code> iff no record is pending
+     */
+    public boolean isEmpty() {
+
+        return head == tail;
+    }
+
+    /**
+     * Append a record. This method may be invoked by the producer only.
+     *
+     * @param type the first integer, the type of the record
+     * @param a the second integer
+     * @param b the third integer
+     * @param c the fourth integer
+     * @param d the fifth integer
+     * @param object the object or <code>null</code>
+     */
+    public void put(final int type, final int a, final int b, final int c,
+            final int d, final Object object) {
+
+        long t = tail;
+        if (t - head > mask) {
+            waits++;
+            do {
+                Thread.yield();
+            } while (t - head > mask);
+        }
+        int slot = (int) t & mask;
+        int i = slot * RECORD_SIZE;
+        data[i] = type;
+        data[i + 1] = a;
+        data[i + 2] = b;
+        data[i + 3] = c;
+        data[i + 4] = d;
+        text[slot] = object;
+        tail = t + 1;
+    }
+
+    /**
+     * Remove the oldest record. This method may be invoked by the consumer
+     * only. The object of the record is available via
+     * {@link #getText() getText()} afterwards.
+     *
+     * @param record the array to receive the integers of the record; it must
+     *  have at least {@link #RECORD_SIZE RECORD_SIZE} elements
+     *
+     * @return <code>true</code> iff a record has been taken
+     */
+    public boolean take(final int[] record) {
+
+        long h = head;
+        if (h == tail) {
+            return false;
+        }
+        int slot = (int) h & mask;
+        System.arraycopy(data, slot * RECORD_SIZE, record, 0, RECORD_SIZE);
+        taken = text[slot];
+        text[slot] = null;
+        head = h + 1;
+        return true;
+    }
+
+}
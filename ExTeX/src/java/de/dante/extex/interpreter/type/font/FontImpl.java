@@ -45,7 +45,7 @@ import de.dante.util.framework.Registrar;
  *
  * @author <a href="mailto:m.g.n@gmx.de">Michael Niedermair</a>
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
- * @version $Revision: 1.13 $
+ * @version $Revision: 1.14 $
  */
 public class FontImpl extends NullFont {
 
@@ -56,17 +56,44 @@ public class FontImpl extends NullFont {
     protected static final long serialVersionUID = 2006L;
 
     /**
-     * The field <tt>cacheChar</tt> contains the Unicode character for the
-     * most recently accessed glyph.
+     * This class holds the most recently accessed glyph together with its
+     * Unicode character. Both are set together in one object. Thus a thread
+     * reading the cache sees either the old or the new pair but never a
+     * mixture of both.
      */
-    private transient UnicodeChar cacheChar = null;
+    private static final class CacheEntry {
+
+        /**
+         * The field <tt>uc</tt> contains the Unicode character.
+         */
+        private final UnicodeChar uc;
+
+        /**
+         * The field <tt>glyph</tt> contains the glyph or <code>null</code>.
+         */
+        private final Glyph glyph;
+
+        /**
+         * Creates a new object.
+         *
+         * @param uc the Unicode character
+         * @param glyph the glyph
+         */
+        CacheEntry(final UnicodeChar uc, final Glyph glyph) {
+
+            super();
+            this.uc = uc;
+            this.glyph = glyph;
+        }
+    }
 
     /**
-     * The field <tt>cacheGlyph</tt> contains the cached glyph or
+     * The field <tt>cache</tt> contains the most recently accessed glyph or
      * <code>null</code>. This means the last glyph accessed is stored here to
-     * speed up access.
+     * speed up access. The font may be used from several threads; thus the
+     * entry is replaced as a whole and never modified.
      */
-    private transient Glyph cacheGlyph = null;
+    private transient volatile CacheEntry cache = null;
 
     /**
      * The fount.
@@ -213,13 +240,14 @@ public class FontImpl extends NullFont {
      */
     public Glyph getGlyph(final UnicodeChar c) {
 
-        if (cacheChar != null && cacheChar.equals(c)) {
-            return cacheGlyph;
+        CacheEntry entry = cache;
+        if (entry != null && entry.uc.equals(c)) {
+            return entry.glyph;
         }
-        cacheChar = c;
-        cacheGlyph = (fount != null ? fount.getGlyph(c) : null);
+        Glyph glyph = (fount != null ? fount.getGlyph(c) : null);
+        cache = new CacheEntry(c, glyph);
 
-        return cacheGlyph;
+        return glyph;
     }
 
     /**
@@ -82,6 +82,16 @@ public class WideGlue {
         length.add(dimen.getValue());
     }
 
+    /**
+     * Add some length to the natural length.
+     *
+     * @param value the length to add in scaled points
+     */
+    public void add(final long value) {
+
+        length.add(value);
+    }
+
     /**
      * Add some more glue to this one.
      *
@@ -112,6 +122,23 @@ public class WideGlue {
         }
     }
 
+    /**
+     * Add some more glue given by its components to this one.
+     * The shrink is added to the normal order.
+     *
+     * @param len the natural length
+     * @param stretchValue the value of the stretch
+     * @param stretchOrder the order of the stretch
+     * @param shrinkValue the value of the shrink
+     */
+    public void add(final long len, final long stretchValue,
+            final int stretchOrder, final long shrinkValue) {
+
+        length.add(len);
+        stretch[stretchOrder] += stretchValue;
+        shrink[0] += shrinkValue;
+    }
+
     /**
      * Add some length to the stretch.
      *
@@ -166,6 +193,22 @@ public class WideGlue {
         return GlueComponent.ZERO;
     }
 
+    /**
+     * Getter for the value of the highest non-zero shrink component.
+     *
+     * @return the value of the shrink or 0
+     */
+    public long getShrinkValue() {
+
+        for (int i = SIZE - 1; i >= 0; i--) {
+            if (shrink[i] != 0) {
+                return shrink[i];
+            }
+        }
+
+        return 0;
+    }
+
     /**
      * Getter for the stretch.
      *
@@ -182,6 +225,32 @@ public class WideGlue {
         return GlueComponent.ZERO;
     }
 
+    /**
+     * Getter for the order of the highest non-zero stretch component.
+     *
+     * @return the order of the stretch
+     */
+    public int getStretchOrder() {
+
+        for (int i = SIZE - 1; i > 0; i--) {
+            if (stretch[i] != 0) {
+                return i;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Getter for the value of the highest non-zero stretch component.
+     *
+     * @return the value of the stretch or 0
+     */
+    public long getStretchValue() {
+
+        return stretch[getStretchOrder()];
+    }
+
     /**
      * Setter for the glue value in all three components
      *
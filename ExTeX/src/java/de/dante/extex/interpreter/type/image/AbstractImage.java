@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.type.image;
+
+import java.io.DataInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import de.dante.extex.interpreter.type.dimen.Dimen;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.resource.ResourceFinder;
+
+/**
+ * This abstract base class provides the common parts of the image
+ * implementations. The derived classes read the header of their format in
+ * {@link #probe(DataInputStream) probe()}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public abstract class AbstractImage implements Image {
+
+    /**
+     * The constant <tt>DEFAULT_RESOLUTION</tt> contains the resolution in
+     * dots per inch used when none is given at all.
+     */
+    public static final int DEFAULT_RESOLUTION = 72;
+
+    /**
+     * The constant <tt>SP_PER_INCH_100</tt> contains the number of scaled
+     * points per inch multiplied by 100.
+     */
+    private static final long SP_PER_INCH_100 = 7227L * Dimen.ONE;
+
+    /**
+     * Skip a number of bytes by reading them. The bytes are read rather than
+     * skipped to let them pass through a digest.
+     *
+     * @param in the input stream
+     * @param n the number of bytes to skip
+     *
+     * @throws IOException in case of an I/O error or a premature end of file
+     */
+    protected static void skip(final InputStream in, final long n)
+            throws IOException {
+
+        byte[] buffer = new byte[(int) Math.min(n, 4096)];
+        long rest = n;
+        while (rest > 0) {
+            int len = in.read(buffer, 0, (int) Math.min(rest, buffer.length));
+            if (len < 0) {
+                throw new IOException("premature end of file");
+            }
+            rest -= len;
+        }
+    }
+
+    /**
+     * Compute a length from a number of pixels and a resolution.
+     *
+     * @param pixels the number of pixels
+     * @param dpi the resolution in dots per inch
+     *
+     * @return the length
+     */
+    protected static Dimen toDimen(final int pixels, final int dpi) {
+
+        return new Dimen(pixels * SP_PER_INCH_100 / (100L * dpi));
+    }
+
+    /**
+     * The field <tt>digest</tt> contains the digest of the content.
+     */
+    private String digest = null;
+
+    /**
+     * The field <tt>finder</tt> contains the resource finder to read the
+     * data again.
+     */
+    private ResourceFinder finder;
+
+    /**
+     * The field <tt>resource</tt> contains the name of the resource.
+     */
+    private String resource;
+
+    /**
+     * Creates a new object.
+     *
+     * @param resource the name of the resource
+     * @param finder the resource finder to read the data again
+     */
+    protected AbstractImage(final String resource, final ResourceFinder finder) {
+
+        super();
+        this.resource = resource;
+        this.finder = finder;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getDigest()
+     */
+    public String getDigest() {
+
+        return digest;
+    }
+
+    /**
+     * Getter for the signature of the format. The signature is the sequence
+     * of bytes each resource of this format starts with.
+     *
+     * @return the signature
+     */
+    protected abstract byte[] getSignature();
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getPalette()
+     */
+    public byte[] getPalette() {
+
+        return null;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getResource()
+     */
+    public String getResource() {
+
+        return resource;
+    }
+
+    /**
+     * Open the resource again.
+     *
+     * @return the input stream
+     *
+     * @throws IOException in case of an I/O error
+     */
+    protected InputStream open() throws IOException {
+
+        InputStream in;
+        try {
+            in = finder.findResource(resource, ImageFactory.TYPE);
+        } catch (ConfigurationException e) {
+            throw new IOException(e.getMessage());
+        }
+        if (in == null) {
+            throw new FileNotFoundException(resource);
+        }
+        return in;
+    }
+
+    /**
+     * Read the header of the image. The signature has already been consumed.
+     * The reading can stop as soon as the header information is complete.
+     *
+     * @param in the input stream
+     *
+     * @throws IOException in case of an I/O error or an invalid format
+     */
+    protected abstract void probe(DataInputStream in) throws IOException;
+
+    /**
+     * Setter for the digest.
+     *
+     * @param digest the digest
+     */
+    void setDigest(final String digest) {
+
+        this.digest = digest;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+
+        return getFormat() + ":" + resource;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#writeData(
+     *      java.io.OutputStream)
+     */
+    public void writeData(final OutputStream out) throws IOException {
+
+        InputStream in = open();
+        try {
+            byte[] buffer = new byte[8192];
+            for (int len = in.read(buffer); len >= 0; len = in.read(buffer)) {
+                out.write(buffer, 0, len);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+}
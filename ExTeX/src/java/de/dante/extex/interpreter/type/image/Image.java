@@ -18,13 +18,128 @@
  */
 package de.dante.extex.interpreter.type.image;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+import de.dante.extex.interpreter.type.dimen.Dimen;
 
 /**
  * This interface describes the capabilities of an image.
  *
+ * <p>
+ *  An image knows its format, its size, and its encoded data. The pixels are
+ *  never decoded. The size is determined from the header of the file. The
+ *  encoded data can be copied to an output stream on demand. The data is not
+ *  kept in memory but read again from the resource.
+ * </p>
+ *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.4 $
  */
 public interface Image {
 
+    /**
+     * Getter for the number of bits per color component.
+     *
+     * @return the number of bits per component or 0 for a vector image
+     */
+    int getBitsPerComponent();
+
+    /**
+     * Getter for the number of color components. An indexed image has one
+     * component.
+     *
+     * @return the number of color components or 0 for a vector image
+     */
+    int getColorComponents();
+
+    /**
+     * Getter for the length of the encoded data. This is the number of bytes
+     * written by {@link #writeData(OutputStream) writeData()}.
+     *
+     * @return the length of the encoded data
+     */
+    long getDataLength();
+
+    /**
+     * Getter for the digest of the content. Images with the same digest have
+     * the same content.
+     *
+     * @return the digest as string of hex digits
+     */
+    String getDigest();
+
+    /**
+     * Getter for the format.
+     *
+     * @return the name of the format, e.g. <tt>png</tt>
+     */
+    String getFormat();
+
+    /**
+     * Getter for the natural height.
+     *
+     * @param resolution the resolution in dots per inch used when the image
+     *  does not specify its own resolution
+     *
+     * @return the natural height
+     */
+    Dimen getHeight(int resolution);
+
+    /**
+     * Getter for the palette of an indexed image. Each entry consists of three
+     * bytes for red, green, and blue.
+     *
+     * @return the palette or <code>null</code> if the image is not indexed
+     */
+    byte[] getPalette();
+
+    /**
+     * Getter for the height in pixels.
+     *
+     * @return the height in pixels or 0 for a vector image
+     */
+    int getPixelHeight();
+
+    /**
+     * Getter for the width in pixels.
+     *
+     * @return the width in pixels or 0 for a vector image
+     */
+    int getPixelWidth();
+
+    /**
+     * Getter for the name of the resource.
+     *
+     * @return the name of the resource
+     */
+    String getResource();
+
+    /**
+     * Getter for the natural width.
+     *
+     * @param resolution the resolution in dots per inch used when the image
+     *  does not specify its own resolution
+     *
+     * @return the natural width
+     */
+    Dimen getWidth(int resolution);
+
+    /**
+     * Check whether the encoded data can be embedded without decoding it.
+     *
+     * @return <code>true</code> iff the encoded data can be passed through
+     */
+    boolean isPassThrough();
+
+    /**
+     * Copy the encoded data to an output stream. The data is read from the
+     * resource again and streamed through.
+     *
+     * @param out the target stream
+     *
+     * @throws IOException in case of an I/O error
+     */
+    void writeData(OutputStream out) throws IOException;
+
 }
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.type.image;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.resource.ResourceFinder;
+
+/**
+ * This factory provides images from resources.
+ *
+ * <p>
+ *  The format is determined from the signature at the beginning of the
+ *  resource. Only the header is interpreted to get the size of the image.
+ *  The remaining bytes are read once to compute a digest of the content. The
+ *  pixels are never decoded and never kept in memory.
+ * </p>
+ * <p>
+ *  Images are cached by name and by digest. Thus an image used several times
+ *  &ndash; even under different names &ndash; is represented by the same
+ *  object.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ImageFactory {
+
+    /**
+     * This input stream counts the bytes read.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        /**
+         * The field <tt>count</tt> contains the number of bytes read.
+         */
+        private long count = 0;
+
+        /**
+         * Creates a new object.
+         *
+         * @param in the input stream to read from
+         */
+        public CountingInputStream(final InputStream in) {
+
+            super(in);
+        }
+
+        /**
+         * Getter for the number of bytes read.
+         *
+         * @return the number of bytes read
+         */
+        public long getCount() {
+
+            return count;
+        }
+
+        /**
+         * @see java.io.InputStream#read()
+         */
+        public int read() throws IOException {
+
+            int c = super.read();
+            if (c >= 0) {
+                count++;
+            }
+            return c;
+        }
+
+        /**
+         * @see java.io.InputStream#read(byte[], int, int)
+         */
+        public int read(final byte[] b, final int off, final int len)
+                throws IOException {
+
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        /**
+         * @see java.io.InputStream#skip(long)
+         */
+        public long skip(final long n) throws IOException {
+
+            AbstractImage.skip(this, n);
+            return n;
+        }
+    }
+
+    /**
+     * The constant <tt>DIGEST</tt> contains the name of the digest algorithm.
+     */
+    private static final String DIGEST = "MD5";
+
+    /**
+     * The constant <tt>HEX</tt> contains the hexadecimal digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The constant <tt>SIGNATURE_LENGTH</tt> contains the number of bytes
+     * needed to determine the format.
+     */
+    private static final int SIGNATURE_LENGTH = 8;
+
+    /**
+     * The constant <tt>TYPE</tt> contains the resource type for images.
+     */
+    public static final String TYPE = "image";
+
+    /**
+     * Check whether a buffer starts with a signature.
+     *
+     * @param buffer the buffer
+     * @param len the number of valid bytes in the buffer
+     * @param signature the signature
+     *
+     * @return <code>true</code> iff the buffer starts with the signature
+     */
+    private static boolean matches(final byte[] buffer, final int len,
+            final byte[] signature) {
+
+        if (len < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (buffer[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convert a digest into a string of hexadecimal digits.
+     *
+     * @param digest the digest
+     *
+     * @return the hex string
+     */
+    private static String toHex(final byte[] digest) {
+
+        StringBuffer sb = new StringBuffer(2 * digest.length);
+        for (int i = 0; i < digest.length; i++) {
+            sb.append(HEX[(digest[i] >> 4) & 0xf]);
+            sb.append(HEX[digest[i] & 0xf]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The field <tt>digestCache</tt> contains the images by their digest.
+     */
+    private Map digestCache = new HashMap();
+
+    /**
+     * The field <tt>finder</tt> contains the resource finder.
+     */
+    private ResourceFinder finder;
+
+    /**
+     * The field <tt>nameCache</tt> contains the images by their name.
+     */
+    private Map nameCache = new HashMap();
+
+    /**
+     * Creates a new object.
+     *
+     * @param finder the resource finder
+     */
+    public ImageFactory(final ResourceFinder finder) {
+
+        super();
+        this.finder = finder;
+    }
+
+    /**
+     * Create an image instance for the format at hand.
+     *
+     * @param name the name of the resource
+     * @param buffer the first bytes of the resource
+     * @param len the number of valid bytes in the buffer
+     *
+     * @return the new image or <code>null</code> if the format is not known
+     */
+    private AbstractImage create(final String name, final byte[] buffer,
+            final int len) {
+
+        if (matches(buffer, len, PngImage.SIGNATURE)) {
+            return new PngImage(name, finder);
+        } else if (matches(buffer, len, JpegImage.SIGNATURE)) {
+            return new JpegImage(name, finder);
+        } else if (matches(buffer, len, PdfImage.SIGNATURE)) {
+            return new PdfImage(name, finder);
+        }
+        return null;
+    }
+
+    /**
+     * Get an image. The resource is read at most once.
+     *
+     * @param name the name of the image resource
+     *
+     * @return the image
+     *
+     * @throws FileNotFoundException in case that the resource could not be
+     *  found
+     * @throws IOException in case of an I/O error or an unknown format
+     */
+    public Image getImage(final String name) throws IOException {
+
+        Image image = (Image) nameCache.get(name);
+        if (image != null) {
+            return image;
+        }
+
+        InputStream stream;
+        try {
+            stream = finder.findResource(name, TYPE);
+        } catch (ConfigurationException e) {
+            throw new IOException(e.getMessage());
+        }
+        if (stream == null) {
+            throw new FileNotFoundException(name);
+        }
+
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance(DIGEST);
+        } catch (NoSuchAlgorithmException e) {
+            stream.close();
+            throw new IOException(e.getMessage());
+        }
+        CountingInputStream counter = new CountingInputStream(
+                new DigestInputStream(stream, md));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                counter));
+        AbstractImage img;
+        try {
+            byte[] buffer = new byte[SIGNATURE_LENGTH];
+            in.mark(SIGNATURE_LENGTH);
+            int len = 0;
+            while (len < SIGNATURE_LENGTH) {
+                int n = in.read(buffer, len, SIGNATURE_LENGTH - len);
+                if (n < 0) {
+                    break;
+                }
+                len += n;
+            }
+            in.reset();
+            img = create(name, buffer, len);
+            if (img == null) {
+                throw new IOException(name + ": unknown image format");
+            }
+            AbstractImage.skip(in, img.getSignature().length);
+            img.probe(in);
+
+            byte[] rest = new byte[8192];
+            while (in.read(rest) >= 0) {
+                // drain the stream to complete the digest
+            }
+        } finally {
+            in.close();
+        }
+        img.setDigest(toHex(md.digest()));
+        if (img instanceof JpegImage) {
+            ((JpegImage) img).setDataLength(counter.getCount());
+        }
+
+        image = (Image) digestCache.get(img.getDigest());
+        if (image == null) {
+            image = img;
+            digestCache.put(img.getDigest(), img);
+        }
+        nameCache.put(name, image);
+        return image;
+    }
+
+}
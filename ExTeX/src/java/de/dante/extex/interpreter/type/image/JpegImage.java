@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.type.image;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import de.dante.extex.interpreter.type.dimen.Dimen;
+import de.dante.util.resource.ResourceFinder;
+
+/**
+ * This class represents a JPEG image.
+ *
+ * <p>
+ *  The markers are read up to the first start of frame marker. It provides
+ *  the size and the number of components. The JFIF marker provides the
+ *  resolution. The Adobe marker indicates that CMYK data is stored inverted.
+ * </p>
+ * <p>
+ *  The file is exactly what PDF expects for a <tt>/DCTDecode</tt> filter.
+ *  Thus it can always be passed through.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class JpegImage extends AbstractImage {
+
+    /**
+     * The constant <tt>SIGNATURE</tt> contains the signature of a JPEG file,
+     * i.e. the start of image marker.
+     */
+    public static final byte[] SIGNATURE = {(byte) 0xff, (byte) 0xd8};
+
+    /**
+     * The field <tt>adobe</tt> contains the indicator that an Adobe marker
+     * has been found.
+     */
+    private boolean adobe = false;
+
+    /**
+     * The field <tt>bits</tt> contains the number of bits per component.
+     */
+    private int bits;
+
+    /**
+     * The field <tt>components</tt> contains the number of components.
+     */
+    private int components;
+
+    /**
+     * The field <tt>dataLength</tt> contains the length of the file.
+     */
+    private long dataLength = 0;
+
+    /**
+     * The field <tt>height</tt> contains the height in pixels.
+     */
+    private int height;
+
+    /**
+     * The field <tt>resolutionX</tt> contains the horizontal resolution in
+     * dots per inch or 0.
+     */
+    private int resolutionX = 0;
+
+    /**
+     * The field <tt>resolutionY</tt> contains the vertical resolution in
+     * dots per inch or 0.
+     */
+    private int resolutionY = 0;
+
+    /**
+     * The field <tt>width</tt> contains the width in pixels.
+     */
+    private int width;
+
+    /**
+     * Creates a new object.
+     *
+     * @param resource the name of the resource
+     * @param finder the resource finder to read the data again
+     */
+    public JpegImage(final String resource, final ResourceFinder finder) {
+
+        super(resource, finder);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getBitsPerComponent()
+     */
+    public int getBitsPerComponent() {
+
+        return bits;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getColorComponents()
+     */
+    public int getColorComponents() {
+
+        return components;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getDataLength()
+     */
+    public long getDataLength() {
+
+        return dataLength;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getFormat()
+     */
+    public String getFormat() {
+
+        return "jpeg";
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getHeight(int)
+     */
+    public Dimen getHeight(final int resolution) {
+
+        return toDimen(height, (resolutionY > 0 ? resolutionY : resolution));
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getPixelHeight()
+     */
+    public int getPixelHeight() {
+
+        return height;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getPixelWidth()
+     */
+    public int getPixelWidth() {
+
+        return width;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.AbstractImage#getSignature()
+     */
+    protected byte[] getSignature() {
+
+        return SIGNATURE;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getWidth(int)
+     */
+    public Dimen getWidth(final int resolution) {
+
+        return toDimen(width, (resolutionX > 0 ? resolutionX : resolution));
+    }
+
+    /**
+     * Check whether the CMYK data is stored inverted as Adobe applications
+     * do.
+     *
+     * @return <code>true</code> iff the image contains an Adobe marker
+     */
+    public boolean isInverted() {
+
+        return adobe && components == 4;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#isPassThrough()
+     */
+    public boolean isPassThrough() {
+
+        return true;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.AbstractImage#probe(
+     *      java.io.DataInputStream)
+     */
+    protected void probe(final DataInputStream in) throws IOException {
+
+        for (;;) {
+            int marker = in.readUnsignedByte();
+            if (marker != 0xff) {
+                throw new IOException("marker expected");
+            }
+            do {
+                marker = in.readUnsignedByte();
+            } while (marker == 0xff);
+
+            int length = in.readUnsignedShort() - 2;
+            switch (marker) {
+                case 0xc0:
+                case 0xc1:
+                case 0xc2:
+                case 0xc3:
+                case 0xc5:
+                case 0xc6:
+                case 0xc7:
+                case 0xc9:
+                case 0xca:
+                case 0xcb:
+                case 0xcd:
+                case 0xce:
+                case 0xcf:
+                    bits = in.readUnsignedByte();
+                    height = in.readUnsignedShort();
+                    width = in.readUnsignedShort();
+                    components = in.readUnsignedByte();
+                    return;
+                case 0xe0:
+                case 0xee:
+                    if (length < 5) {
+                        skip(in, length);
+                        break;
+                    }
+                    int id = in.readInt();
+                    int id2 = in.readUnsignedByte();
+                    length -= 5;
+                    if (marker == 0xee) {
+                        // "Adobe"
+                        adobe = (id == 0x41646f62 && id2 == 'e');
+                    } else if (id == 0x4a464946 && id2 == 0 && length >= 7) {
+                        // "JFIF\0"
+                        in.readUnsignedShort(); // version
+                        int units = in.readUnsignedByte();
+                        int x = in.readUnsignedShort();
+                        int y = in.readUnsignedShort();
+                        length -= 7;
+                        if (units == 1) {
+                            resolutionX = x;
+                            resolutionY = y;
+                        } else if (units == 2) {
+                            resolutionX = (x * 254 + 50) / 100;
+                            resolutionY = (y * 254 + 50) / 100;
+                        }
+                    }
+                    skip(in, length);
+                    break;
+                default:
+                    skip(in, length);
+            }
+        }
+    }
+
+    /**
+     * Setter for the length of the data.
+     *
+     * @param length the length
+     */
+    void setDataLength(final long length) {
+
+        this.dataLength = length;
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.type.image;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.StringTokenizer;
+
+import de.dante.extex.interpreter.type.dimen.Dimen;
+import de.dante.util.resource.ResourceFinder;
+
+/**
+ * This class represents a PDF document used as image.
+ *
+ * <p>
+ *  The size is taken from the first <tt>/MediaBox</tt> in the file. The file
+ *  is scanned sequentially for it. Nothing is kept in memory. The media box
+ *  has to be given as array of numbers. An indirect reference is not
+ *  followed.
+ * </p>
+ * <p>
+ *  A PDF document can not be passed through. Embedding it requires the
+ *  objects of the page to be copied into the target document.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class PdfImage extends AbstractImage {
+
+    /**
+     * The constant <tt>MEDIA_BOX</tt> contains the key to search for.
+     */
+    private static final byte[] MEDIA_BOX = "/MediaBox".getBytes();
+
+    /**
+     * The constant <tt>MAX_BOX</tt> contains the maximal number of
+     * characters of the media box array.
+     */
+    private static final int MAX_BOX = 256;
+
+    /**
+     * The constant <tt>SIGNATURE</tt> contains the signature of a PDF file.
+     */
+    public static final byte[] SIGNATURE = {'%', 'P', 'D', 'F'};
+
+    /**
+     * Convert a length in big points into a dimen.
+     *
+     * @param bp the length in big points
+     *
+     * @return the dimen
+     */
+    private static Dimen bp(final double bp) {
+
+        return new Dimen(Math.round(bp * 7227 / 7200 * Dimen.ONE));
+    }
+
+    /**
+     * The field <tt>height</tt> contains the height in big points.
+     */
+    private double height;
+
+    /**
+     * The field <tt>width</tt> contains the width in big points.
+     */
+    private double width;
+
+    /**
+     * Creates a new object.
+     *
+     * @param resource the name of the resource
+     * @param finder the resource finder to read the data again
+     */
+    public PdfImage(final String resource, final ResourceFinder finder) {
+
+        super(resource, finder);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getBitsPerComponent()
+     */
+    public int getBitsPerComponent() {
+
+        return 0;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getColorComponents()
+     */
+    public int getColorComponents() {
+
+        return 0;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getDataLength()
+     */
+    public long getDataLength() {
+
+        return 0;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getFormat()
+     */
+    public String getFormat() {
+
+        return "pdf";
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getHeight(int)
+     */
+    public Dimen getHeight(final int resolution) {
+
+        return bp(height);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getPixelHeight()
+     */
+    public int getPixelHeight() {
+
+        return 0;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getPixelWidth()
+     */
+    public int getPixelWidth() {
+
+        return 0;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.AbstractImage#getSignature()
+     */
+    protected byte[] getSignature() {
+
+        return SIGNATURE;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getWidth(int)
+     */
+    public Dimen getWidth(final int resolution) {
+
+        return bp(width);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#isPassThrough()
+     */
+    public boolean isPassThrough() {
+
+        return false;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.AbstractImage#probe(
+     *      java.io.DataInputStream)
+     */
+    protected void probe(final DataInputStream in) throws IOException {
+
+        int match = 0;
+        while (match < MEDIA_BOX.length) {
+            int c = in.read();
+            if (c < 0) {
+                throw new IOException("/MediaBox not found");
+            } else if (c == MEDIA_BOX[match]) {
+                match++;
+            } else {
+                match = (c == MEDIA_BOX[0] ? 1 : 0);
+            }
+        }
+
+        StringBuffer sb = new StringBuffer();
+        for (int c = in.read(); c != ']'; c = in.read()) {
+            if (c < 0 || sb.length() > MAX_BOX) {
+                throw new IOException("invalid /MediaBox");
+            }
+            sb.append((char) c);
+        }
+        StringTokenizer st = new StringTokenizer(sb.toString(), " \t\r\n[");
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < box.length; i++) {
+                box[i] = Double.parseDouble(st.nextToken());
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("invalid /MediaBox " + sb.toString());
+        }
+        width = Math.abs(box[2] - box[0]);
+        height = Math.abs(box[3] - box[1]);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#writeData(
+     *      java.io.OutputStream)
+     */
+    public void writeData(final OutputStream out) throws IOException {
+
+        throw new IOException(getResource() + ": PDF can not be passed through");
+    }
+
+}
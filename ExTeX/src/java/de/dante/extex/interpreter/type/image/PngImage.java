@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.type.image;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import de.dante.extex.interpreter.type.dimen.Dimen;
+import de.dante.util.resource.ResourceFinder;
+
+/**
+ * This class represents a PNG image.
+ *
+ * <p>
+ *  The header chunk <tt>IHDR</tt> provides the size and the color model. The
+ *  chunk <tt>pHYs</tt> provides the resolution and <tt>PLTE</tt> the palette.
+ *  The lengths of the <tt>IDAT</tt> chunks are summed up. Their contents are
+ *  skipped.
+ * </p>
+ * <p>
+ *  The concatenated contents of the <tt>IDAT</tt> chunks form a zlib stream
+ *  with PNG predictors. This is exactly what PDF expects for a
+ *  <tt>/FlateDecode</tt> filter with <tt>/Predictor 15</tt>. Thus the data
+ *  can be passed through unless the image is interlaced or contains an alpha
+ *  channel.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class PngImage extends AbstractImage {
+
+    /**
+     * The constant <tt>IDAT</tt> contains the type of the data chunk.
+     */
+    private static final int IDAT = 0x49444154;
+
+    /**
+     * The constant <tt>IEND</tt> contains the type of the end chunk.
+     */
+    private static final int IEND = 0x49454E44;
+
+    /**
+     * The constant <tt>IHDR</tt> contains the type of the header chunk.
+     */
+    private static final int IHDR = 0x49484452;
+
+    /**
+     * The constant <tt>PHYS</tt> contains the type of the physical dimensions
+     * chunk.
+     */
+    private static final int PHYS = 0x70485973;
+
+    /**
+     * The constant <tt>PLTE</tt> contains the type of the palette chunk.
+     */
+    private static final int PLTE = 0x504C5445;
+
+    /**
+     * The constant <tt>SIGNATURE</tt> contains the signature of a PNG file.
+     */
+    public static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r',
+            '\n', 0x1a, '\n'};
+
+    /**
+     * The field <tt>bitDepth</tt> contains the number of bits per sample.
+     */
+    private int bitDepth;
+
+    /**
+     * The field <tt>colorType</tt> contains the color type.
+     */
+    private int colorType;
+
+    /**
+     * The field <tt>dataLength</tt> contains the sum of the lengths of the
+     * <tt>IDAT</tt> chunks.
+     */
+    private long dataLength = 0;
+
+    /**
+     * The field <tt>height</tt> contains the height in pixels.
+     */
+    private int height;
+
+    /**
+     * The field <tt>interlace</tt> contains the interlace method.
+     */
+    private int interlace;
+
+    /**
+     * The field <tt>palette</tt> contains the palette or <code>null</code>.
+     */
+    private byte[] palette = null;
+
+    /**
+     * The field <tt>resolutionX</tt> contains the horizontal resolution in
+     * dots per inch or 0.
+     */
+    private int resolutionX = 0;
+
+    /**
+     * The field <tt>resolutionY</tt> contains the vertical resolution in
+     * dots per inch or 0.
+     */
+    private int resolutionY = 0;
+
+    /**
+     * The field <tt>width</tt> contains the width in pixels.
+     */
+    private int width;
+
+    /**
+     * Creates a new object.
+     *
+     * @param resource the name of the resource
+     * @param finder the resource finder to read the data again
+     */
+    public PngImage(final String resource, final ResourceFinder finder) {
+
+        super(resource, finder);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getBitsPerComponent()
+     */
+    public int getBitsPerComponent() {
+
+        return bitDepth;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getColorComponents()
+     */
+    public int getColorComponents() {
+
+        switch (colorType) {
+            case 2:
+                return 3;
+            case 4:
+                return 2;
+            case 6:
+                return 4;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getDataLength()
+     */
+    public long getDataLength() {
+
+        return dataLength;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getFormat()
+     */
+    public String getFormat() {
+
+        return "png";
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getHeight(int)
+     */
+    public Dimen getHeight(final int resolution) {
+
+        return toDimen(height, (resolutionY > 0 ? resolutionY : resolution));
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.AbstractImage#getPalette()
+     */
+    public byte[] getPalette() {
+
+        return (colorType == 3 ? palette : null);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getPixelHeight()
+     */
+    public int getPixelHeight() {
+
+        return height;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getPixelWidth()
+     */
+    public int getPixelWidth() {
+
+        return width;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.AbstractImage#getSignature()
+     */
+    protected byte[] getSignature() {
+
+        return SIGNATURE;
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#getWidth(int)
+     */
+    public Dimen getWidth(final int resolution) {
+
+        return toDimen(width, (resolutionX > 0 ? resolutionX : resolution));
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.Image#isPassThrough()
+     */
+    public boolean isPassThrough() {
+
+        return interlace == 0
+                && (colorType == 0 || colorType == 2 || colorType == 3);
+    }
+
+    /**
+     * @see de.dante.extex.interpreter.type.image.AbstractImage#probe(
+     *      java.io.DataInputStream)
+     */
+    protected void probe(final DataInputStream in) throws IOException {
+
+        if (in.readInt() != 13 || in.readInt() != IHDR) {
+            throw new IOException("IHDR expected");
+        }
+        width = in.readInt();
+        height = in.readInt();
+        bitDepth = in.readUnsignedByte();
+        colorType = in.readUnsignedByte();
+        in.readUnsignedByte(); // compression method
+        in.readUnsignedByte(); // filter method
+        interlace = in.readUnsignedByte();
+        in.readInt(); // CRC
+
+        for (;;) {
+            long length = in.readInt() & 0xffffffffL;
+            int type = in.readInt();
+            switch (type) {
+                case IDAT:
+                    dataLength += length;
+                    skip(in, length);
+                    break;
+                case PLTE:
+                    palette = new byte[(int) length];
+                    in.readFully(palette);
+                    break;
+                case PHYS:
+                    long ppuX = in.readInt() & 0xffffffffL;
+                    long ppuY = in.readInt() & 0xffffffffL;
+                    if (in.readUnsignedByte() == 1) {
+                        // pixels per meter
+                        resolutionX = (int) ((ppuX * 254 + 5000) / 10000);
+                        resolutionY = (int) ((ppuY * 254 + 5000) / 10000);
+                    }
+                    skip(in, length - 9);
+                    break;
+                case IEND:
+                    return;
+                default:
+                    skip(in, length);
+            }
+            in.readInt(); // CRC
+        }
+    }
+
+    /**
+     * Write the concatenated contents of the <tt>IDAT</tt> chunks. The other
+     * chunks are skipped.
+     *
+     * @see de.dante.extex.interpreter.type.image.Image#writeData(
+     *      java.io.OutputStream)
+     */
+    public void writeData(final OutputStream out) throws IOException {
+
+        InputStream stream = open();
+        try {
+            DataInputStream in = new DataInputStream(stream);
+            skip(in, SIGNATURE.length);
+            byte[] buffer = new byte[8192];
+            for (;;) {
+                long length = in.readInt() & 0xffffffffL;
+                int type = in.readInt();
+                if (type == IEND) {
+                    break;
+                } else if (type != IDAT) {
+                    skip(in, length + 4);
+                    continue;
+                }
+                while (length > 0) {
+                    int len = in.read(buffer, 0, (int) Math.min(length,
+                            buffer.length));
+                    if (len < 0) {
+                        throw new IOException("premature end of file");
+                    }
+                    out.write(buffer, 0, len);
+                    length -= len;
+                }
+                in.readInt(); // CRC
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+}
@@ -28,6 +28,7 @@ import de.dante.extex.interpreter.context.Context;
 import de.dante.extex.interpreter.exception.InterpreterException;
 import de.dante.extex.scanner.type.Catcode;
 import de.dante.extex.scanner.type.CatcodeException;
+import de.dante.extex.scanner.type.token.CodeToken;
 import de.dante.extex.scanner.type.token.ControlSequenceToken;
 import de.dante.extex.scanner.type.token.MacroParamToken;
 import de.dante.extex.scanner.type.token.Token;
@@ -263,6 +264,27 @@ public class Tokens implements Serializable, FixedTokens {
         return (Token) tokens.remove(tokens.size() - 1);
     }
 
+    /**
+     * Remove the last code token and all tokens following it from the list
+     * and return the code token. If the list does not contain a code token
+     * then it is cleared and <code>null</code> is returned.
+     *
+     * @return the last code token or <code>null</code>
+     */
+    public CodeToken removeLastCodeToken() {
+
+        int size = tokens.size();
+        for (int i = size - 1; i >= 0; i--) {
+            Object t = tokens.get(i);
+            if (t instanceof CodeToken) {
+                tokens.subList(i, size).clear();
+                return (CodeToken) t;
+            }
+        }
+        tokens.clear();
+        return null;
+    }
+
     /**
      * @see de.dante.extex.interpreter.type.tokens.FixedTokens#show(
      *      de.dante.extex.interpreter.context.Context,
@@ -19,8 +19,11 @@
 
 package de.dante.extex.interpreter.unit;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Iterator;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
 
 import de.dante.extex.backend.outputStream.OutputStreamFactory;
 import de.dante.extex.interpreter.Flags;
@@ -43,8 +46,11 @@ import de.dante.extex.typesetter.Typesetter;
 import de.dante.util.UnicodeChar;
 import de.dante.util.exception.GeneralException;
 import de.dante.util.framework.AbstractFactory;
+import de.dante.util.framework.configuration.Configurable;
 import de.dante.util.framework.configuration.Configuration;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.configuration.exception.ConfigurationIOException;
+import de.dante.util.framework.i18n.Localizable;
 import de.dante.util.framework.i18n.LocalizerFactory;
 
 /**
@@ -64,11 +70,45 @@ import de.dante.util.framework.i18n.LocalizerFactory;
  *  &lt;/unit&gt;
  * </pre>
  *
+ * <p>
+ *  The primitives of a unit can be compiled ahead of time with
+ *  {@link UnitCompiler UnitCompiler}. The result is a class implementing
+ *  {@link UnitBootstrap UnitBootstrap} in the package
+ *  <tt>de.dante.extex.interpreter.unit.bootstrap</tt>. Its name is derived
+ *  from the name of the unit; see
+ *  {@link #bootstrapClassName(String) bootstrapClassName()}. If such a class
+ *  is present and the unit resource it has been compiled from is unchanged
+ *  then it is used to create the primitives with direct constructor calls.
+ *  The resource is compared by the checksum of its bytes; the configuration
+ *  is not inspected for this purpose. Otherwise the <tt>define</tt>
+ *  elements of the configuration are processed and the classes are
+ *  instantiated via reflection.
+ * </p>
+ *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.1 $
  */
 public final class LoadUnit extends AbstractFactory {
 
+    /**
+     * The constant <tt>BOOTSTRAP_PACKAGE</tt> contains the package of the
+     * compiled unit bootstraps.
+     */
+    public static final String BOOTSTRAP_PACKAGE =
+            "de.dante.extex.interpreter.unit.bootstrap";
+
+    /**
+     * The constant <tt>BUFFER_SIZE</tt> contains the size of the buffer for
+     * reading a unit resource.
+     */
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * The constant <tt>ESC</tt> contains the escape character for the
+     * control sequences of the primitives.
+     */
+    private static final UnicodeChar ESC = UnicodeChar.get('\\');
+
     /**
      * The field <tt>DEFINE_TAG</tt> contains the tag name used to find
      * definitions for primitives.
@@ -134,10 +174,18 @@ public final class LoadUnit extends AbstractFactory {
             ((Loader) unitInfo).load(context, source, typesetter);
         }
 
-        Iterator iterator = configuration.iterator("primitives");
-        while (iterator.hasNext()) {
-            primitiveFactory.define((Configuration) iterator.next(),
-                    tokenFactory, context, typesetter, logger, outputFactory);
+        UnitBootstrap bootstrap = findBootstrap(name);
+        Iterator iterator;
+        if (bootstrap != null) {
+            primitiveFactory.define(bootstrap, configuration, tokenFactory,
+                    context, typesetter, logger, outputFactory);
+        } else {
+            iterator = configuration.iterator("primitives");
+            while (iterator.hasNext()) {
+                primitiveFactory.define((Configuration) iterator.next(),
+                        tokenFactory, context, typesetter, logger,
+                        outputFactory);
+            }
         }
 
         iterator = configuration.iterator("import");
@@ -168,6 +216,126 @@ public final class LoadUnit extends AbstractFactory {
         }
     }
 
+    /**
+     * Get the name of the compiled bootstrap class for a unit. The name
+     * consists of the letters and digits of the unit name with the first
+     * letter in upper case followed by <tt>Bootstrap</tt>. For instance the
+     * unit <tt>pdftex</tt> is compiled into the class
+     * <tt>PdftexBootstrap</tt>.
+     *
+     * @param unitName the name of the unit
+     *
+     * @return the fully qualified class name
+     */
+    public static String bootstrapClassName(final String unitName) {
+
+        StringBuffer sb = new StringBuffer(BOOTSTRAP_PACKAGE);
+        sb.append('.');
+        boolean first = true;
+        for (int i = 0; i < unitName.length(); i++) {
+            char c = unitName.charAt(i);
+            if (Character.isLetterOrDigit(c) && c < 128) {
+                if (first) {
+                    if (Character.isDigit(c)) {
+                        sb.append('U');
+                    } else {
+                        c = Character.toUpperCase(c);
+                    }
+                    first = false;
+                }
+                sb.append(c);
+            }
+        }
+        sb.append("Bootstrap");
+        return sb.toString();
+    }
+
+    /**
+     * Compute the checksum of a resource. The resource is located with the
+     * class loader and its bytes are read as they are. Thus the checksum
+     * changes with any modification of the resource.
+     *
+     * @param resource the name of the resource, e.g.
+     *  <tt>config/unit/tex.xml</tt>
+     *
+     * @return the CRC-32 of the bytes of the resource or -1 if the resource
+     *  can not be found
+     *
+     * @throws ConfigurationException in case of an I/O error
+     */
+    public static long checksum(final String resource)
+            throws ConfigurationException {
+
+        InputStream stream = LoadUnit.class.getClassLoader()
+                .getResourceAsStream(resource);
+        if (stream == null) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            try {
+                for (int n = stream.read(buffer); n >= 0; n = stream
+                        .read(buffer)) {
+                    crc.update(buffer, 0, n);
+                }
+            } finally {
+                stream.close();
+            }
+        } catch (IOException e) {
+            throw new ConfigurationIOException(resource, e);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Find the compiled bootstrap for a unit. A bootstrap compiled from a
+     * resource which has been changed afterwards is not used.
+     *
+     * @param unitName the name of the unit
+     *
+     * @return the bootstrap or <code>null</code> if none is available
+     *
+     * @throws ConfigurationException in case of an error
+     */
+    private static UnitBootstrap findBootstrap(final String unitName)
+            throws ConfigurationException {
+
+        try {
+            Object bootstrap = Class.forName(bootstrapClassName(unitName))
+                    .newInstance();
+            if (bootstrap instanceof UnitBootstrap
+                    && isCurrent((UnitBootstrap) bootstrap)) {
+                return (UnitBootstrap) bootstrap;
+            }
+        } catch (ClassNotFoundException e) {
+            // no compiled bootstrap available
+        } catch (InstantiationException e) {
+            // fall back to the configuration
+        } catch (IllegalAccessException e) {
+            // fall back to the configuration
+        }
+        return null;
+    }
+
+    /**
+     * Check whether the resource a bootstrap has been compiled from is
+     * unchanged.
+     *
+     * @param bootstrap the bootstrap
+     *
+     * @return <code>true</code> iff the checksum recorded in the bootstrap
+     *  matches the resource
+     *
+     * @throws ConfigurationException in case of an error
+     */
+    static boolean isCurrent(final UnitBootstrap bootstrap)
+            throws ConfigurationException {
+
+        long crc = checksum(bootstrap.getResource());
+        return crc >= 0 && crc == bootstrap.getChecksum();
+    }
+
     /**
      * The field <tt>stringSource</tt> contains the reused object for string
      * parsing.
@@ -213,7 +381,6 @@ public final class LoadUnit extends AbstractFactory {
                 ConfigurationException {
 
         enableLogging(outputLogger);
-        UnicodeChar esc = UnicodeChar.get('\\');
         Iterator iterator = configuration.iterator(DEFINE_TAG);
 
         while (iterator.hasNext()) {
@@ -223,24 +390,133 @@ public final class LoadUnit extends AbstractFactory {
             Code code = (Code) createInstanceForConfiguration(cfg, Code.class,
                     name);
 
-            String namespace = cfg.getAttribute(NAMESPACE_ATTRIBUTE);
-            if (namespace == null) {
-                namespace = Namespace.DEFAULT_NAMESPACE;
-            }
+            register(name, cfg.getAttribute(NAMESPACE_ATTRIBUTE), code, cfg
+                    .getValue(), tokenFactory, context, typesetter,
+                    outputFactory);
+        }
+    }
+
+    /**
+     * Define the primitives of a compiled unit bootstrap. The primitives are
+     * set up in the same way as those created from the configuration. Only
+     * for primitives which take a configuration the <tt>define</tt> element
+     * is searched in the unit configuration.
+     *
+     * @param bootstrap the compiled bootstrap
+     * @param unit the configuration of the unit
+     * @param tokenFactory the token factory to use
+     * @param context the interpreter context to register the primitive in
+     * @param typesetter the typesetter
+     * @param outputLogger the logger to produce output to
+     * @param outputFactory the factory for new output streams
+     *
+     * @throws GeneralException In case of an error
+     * @throws ConfigurationException in case of an error
+     */
+    public void define(final UnitBootstrap bootstrap,
+            final Configuration unit, final TokenFactory tokenFactory,
+            final Context context, final Typesetter typesetter,
+            final Logger outputLogger, final OutputStreamFactory outputFactory)
+            throws GeneralException,
+                ConfigurationException {
+
+        enableLogging(outputLogger);
 
-            context.setCode((CodeToken) tokenFactory.createToken(
-                    Catcode.ESCAPE, esc, name, namespace), code, true);
-            if (code instanceof InitializableCode) {
+        bootstrap.define(new PrimitiveDefiner() {
 
-                stringSource.reset(cfg.getValue());
-                ((InitializableCode) code).init(context, stringSource,
-                        typesetter);
+            /**
+             * @see de.dante.extex.interpreter.unit.PrimitiveDefiner#define(
+             *      java.lang.String,
+             *      java.lang.String,
+             *      de.dante.extex.interpreter.type.Code,
+             *      java.lang.String)
+             */
+            public void define(final String name, final String namespace,
+                    final Code code, final String value)
+                    throws GeneralException,
+                        ConfigurationException {
+
+                enableLogging(code, getLogger());
+                if (code instanceof Configurable) {
+                    configure(code, findDefine(unit, name, namespace));
+                }
+                if (code instanceof Localizable) {
+                    ((Localizable) code).enableLocalization(LocalizerFactory
+                            .getLocalizer(code.getClass().getName()));
+                }
+                register(name, namespace, code, value, tokenFactory, context,
+                        typesetter, outputFactory);
             }
-            if (code instanceof OutputStreamConsumer) {
-                ((OutputStreamConsumer) code)
-                        .setOutputStreamFactory(outputFactory);
+        });
+    }
+
+    /**
+     * Find the <tt>define</tt> element for a primitive in a unit
+     * configuration.
+     *
+     * @param unit the configuration of the unit
+     * @param name the name of the primitive
+     * @param namespace the name space of the primitive or <code>null</code>
+     *
+     * @return the configuration of the definition or <code>null</code> if
+     *  none is found
+     *
+     * @throws ConfigurationException in case of an error
+     */
+    private static Configuration findDefine(final Configuration unit,
+            final String name, final String namespace)
+            throws ConfigurationException {
+
+        Iterator primitives = unit.iterator("primitives");
+        while (primitives.hasNext()) {
+            Iterator iterator = ((Configuration) primitives.next())
+                    .iterator(DEFINE_TAG);
+            while (iterator.hasNext()) {
+                Configuration cfg = (Configuration) iterator.next();
+                String ns = cfg.getAttribute(NAMESPACE_ATTRIBUTE);
+                if (name.equals(cfg.getAttribute(NAME_ATTRIBUTE))
+                        && (ns == null ? namespace == null : ns
+                                .equals(namespace))) {
+                    return cfg;
+                }
             }
         }
+        return null;
+    }
+
+    /**
+     * Register a primitive in the context and initialize it.
+     *
+     * @param name the name of the primitive
+     * @param namespace the name space or <code>null</code> for the default
+     *  name space
+     * @param code the code of the primitive
+     * @param value the value of the definition
+     * @param tokenFactory the token factory to use
+     * @param context the interpreter context to register the primitive in
+     * @param typesetter the typesetter
+     * @param outputFactory the factory for new output streams
+     *
+     * @throws GeneralException in case of an error
+     */
+    private void register(final String name, final String namespace,
+            final Code code, final String value,
+            final TokenFactory tokenFactory, final Context context,
+            final Typesetter typesetter, final OutputStreamFactory outputFactory)
+            throws GeneralException {
+
+        context.setCode((CodeToken) tokenFactory.createToken(Catcode.ESCAPE,
+                ESC, name, namespace != null
+                        ? namespace
+                        : Namespace.DEFAULT_NAMESPACE), code, true);
+        if (code instanceof InitializableCode) {
+
+            stringSource.reset(value);
+            ((InitializableCode) code).init(context, stringSource, typesetter);
+        }
+        if (code instanceof OutputStreamConsumer) {
+            ((OutputStreamConsumer) code).setOutputStreamFactory(outputFactory);
+        }
     }
 
 }
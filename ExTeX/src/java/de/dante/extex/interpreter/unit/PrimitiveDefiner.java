@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.unit;
+
+import de.dante.extex.interpreter.type.Code;
+import de.dante.util.exception.GeneralException;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+
+/**
+ * This interface describes the receiver of the primitives created by a
+ * {@link UnitBootstrap UnitBootstrap}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface PrimitiveDefiner {
+
+    /**
+     * Define a primitive.
+     *
+     * @param name the name of the primitive
+     * @param namespace the name space or <code>null</code> for the default
+     *  name space
+     * @param code the code for the primitive
+     * @param value the value of the definition in the configuration; it is
+     *  used to initialize the code
+     *
+     * @throws GeneralException in case of an error
+     * @throws ConfigurationException in case of a configuration error
+     */
+    void define(String name, String namespace, Code code, String value)
+            throws GeneralException,
+                ConfigurationException;
+
+}
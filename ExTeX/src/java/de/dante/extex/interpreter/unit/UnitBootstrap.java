@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.unit;
+
+import de.dante.util.exception.GeneralException;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+
+/**
+ * This interface describes a precompiled list of primitives for a unit.
+ * Implementations are generated by {@link UnitCompiler UnitCompiler} from the
+ * <tt>primitives</tt> sections of a unit configuration. They create the
+ * primitives with direct constructor calls and pass them to a
+ * {@link PrimitiveDefiner PrimitiveDefiner}. The name and the checksum of
+ * the unit resource compiled are recorded to detect a resource changed
+ * afterwards.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface UnitBootstrap {
+
+    /**
+     * Create all primitives of the unit and pass them to the definer in the
+     * order of the configuration.
+     *
+     * @param definer the definer
+     *
+     * @throws GeneralException in case of an error
+     * @throws ConfigurationException in case of a configuration error
+     */
+    void define(PrimitiveDefiner definer)
+            throws GeneralException,
+                ConfigurationException;
+
+    /**
+     * Getter for the checksum of the unit resource the bootstrap has been
+     * compiled from.
+     *
+     * @return the checksum as computed by
+     *  {@link LoadUnit#checksum(String) LoadUnit.checksum()}
+     */
+    long getChecksum();
+
+    /**
+     * Getter for the name of the unit resource the bootstrap has been
+     * compiled from.
+     *
+     * @return the name of the resource, e.g. <tt>config/unit/tex.xml</tt>
+     */
+    String getResource();
+
+}
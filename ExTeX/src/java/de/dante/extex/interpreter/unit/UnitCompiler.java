@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.unit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Iterator;
+
+import de.dante.extex.interpreter.type.Code;
+import de.dante.util.exception.GeneralException;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.ConfigurationFactory;
+import de.dante.util.framework.configuration.exception.ConfigurationClassNotFoundException;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.configuration.exception.ConfigurationInvalidClassException;
+import de.dante.util.framework.configuration.exception.ConfigurationInvalidConstructorException;
+import de.dante.util.framework.configuration.exception.ConfigurationMissingAttributeException;
+import de.dante.util.framework.configuration.exception.ConfigurationNotFoundException;
+
+/**
+ * This class compiles the primitives of a unit configuration into the Java
+ * source of a {@link UnitBootstrap UnitBootstrap}. It is run at build time.
+ * The generated class creates the primitives with direct constructor calls.
+ * Thus {@link LoadUnit LoadUnit} neither has to instantiate the classes via
+ * reflection nor to find their constructors. The generated class records the
+ * name and the checksum of the unit resource. If the resource is changed
+ * afterwards then the bootstrap is ignored and the configuration is used.
+ * <p>
+ *  The compiler verifies that each class exists, implements
+ *  {@link Code Code}, and has a public constructor taking the name of the
+ *  primitive as its only argument. Attributes other than <tt>name</tt>,
+ *  <tt>namespace</tt>, and <tt>class</tt> as well as nested elements are not
+ *  compiled. They are still read from the configuration for primitives
+ *  implementing
+ *  {@link de.dante.util.framework.configuration.Configurable Configurable}.
+ * </p>
+ *
+ * <h3>Invocation</h3>
+ *
+ * <pre>
+ *  java de.dante.extex.interpreter.unit.UnitCompiler -d <i>dir</i> <i>unit</i> ...
+ * </pre>
+ * <p>
+ *  The units are given as configuration resources, e.g.
+ *  <tt>config/unit/tex.xml</tt>. The generated sources are written to the
+ *  package directory below <i>dir</i>.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class UnitCompiler {
+
+    /**
+     * The constant <tt>HEX</tt> contains the hexadecimal digits.
+     */
+    private static final String HEX = "0123456789abcdef";
+
+    /**
+     * Command line interface.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(final String[] args) {
+
+        File dir = new File(".");
+        UnitCompiler compiler = new UnitCompiler();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("-d".equals(args[i]) && i + 1 < args.length) {
+                    dir = new File(args[++i]);
+                } else {
+                    File file = compiler.compile(args[i], dir);
+                    System.err.println(args[i] + " -> " + file.getPath());
+                }
+            }
+        } catch (ConfigurationException e) {
+            System.err.println(e.getLocalizedMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println(e.toString());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Append a string as Java string literal.
+     *
+     * @param out the target
+     * @param s the string or <code>null</code>
+     */
+    private static void literal(final PrintWriter out, final String s) {
+
+        if (s == null) {
+            out.print("null");
+            return;
+        }
+        out.print('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    out.print("\\\"");
+                    break;
+                case '\\':
+                    out.print("\\\\");
+                    break;
+                case '\n':
+                    out.print("\\n");
+                    break;
+                case '\r':
+                    out.print("\\r");
+                    break;
+                case '\t':
+                    out.print("\\t");
+                    break;
+                default:
+                    if (c < ' ' || c > '~') {
+                        out.print("\\u");
+                        out.print(HEX.charAt((c >> 12) & 0xf));
+                        out.print(HEX.charAt((c >> 8) & 0xf));
+                        out.print(HEX.charAt((c >> 4) & 0xf));
+                        out.print(HEX.charAt(c & 0xf));
+                    } else {
+                        out.print(c);
+                    }
+            }
+        }
+        out.print('"');
+    }
+
+    /**
+     * Creates a new object.
+     */
+    public UnitCompiler() {
+
+        super();
+    }
+
+    /**
+     * Check that a class can be used for a primitive and that it can be
+     * instantiated by the generated code.
+     *
+     * @param className the name of the class
+     * @param cfg the configuration of the definition
+     *
+     * @throws ConfigurationException in case that the class is not suitable
+     */
+    private void check(final String className, final Configuration cfg)
+            throws ConfigurationException {
+
+        Class theClass;
+        try {
+            theClass = Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new ConfigurationClassNotFoundException(className, cfg);
+        }
+        if (!Code.class.isAssignableFrom(theClass)
+                || !Modifier.isPublic(theClass.getModifiers())
+                || Modifier.isAbstract(theClass.getModifiers())) {
+            throw new ConfigurationInvalidClassException(className, Code.class
+                    .getName(), cfg);
+        }
+        Constructor constructor;
+        try {
+            constructor = theClass
+                    .getConstructor(new Class[]{String.class});
+        } catch (NoSuchMethodException e) {
+            throw new ConfigurationInvalidConstructorException(className, cfg);
+        }
+        Class[] exceptions = constructor.getExceptionTypes();
+        for (int i = 0; i < exceptions.length; i++) {
+            if (!RuntimeException.class.isAssignableFrom(exceptions[i])
+                    && !Error.class.isAssignableFrom(exceptions[i])
+                    && !GeneralException.class.isAssignableFrom(exceptions[i])
+                    && !ConfigurationException.class
+                            .isAssignableFrom(exceptions[i])) {
+                throw new ConfigurationInvalidConstructorException(className,
+                        cfg);
+            }
+        }
+    }
+
+    /**
+     * Compile a unit configuration and write the source file to the package
+     * directory below a base directory.
+     *
+     * @param resource the name of the unit configuration
+     * @param dir the base directory
+     *
+     * @return the file written
+     *
+     * @throws ConfigurationException in case of a configuration error
+     * @throws IOException in case of an I/O error
+     */
+    public File compile(final String resource, final File dir)
+            throws ConfigurationException,
+                IOException {
+
+        Configuration unit = new ConfigurationFactory().newInstance(resource);
+        String name = unit.getAttribute("name");
+        if (name == null) {
+            throw new ConfigurationMissingAttributeException("name", unit);
+        }
+        String className = LoadUnit.bootstrapClassName(name);
+        File file = new File(dir, className.replace('.', File.separatorChar)
+                + ".java");
+        file.getParentFile().mkdirs();
+
+        Writer w = new OutputStreamWriter(new FileOutputStream(file),
+                "ISO-8859-1");
+        try {
+            compile(unit, resource, w);
+        } finally {
+            w.close();
+        }
+        return file;
+    }
+
+    /**
+     * Compile a unit configuration into the source of a bootstrap class.
+     *
+     * @param unit the configuration of the unit
+     * @param resource the name of the resource the unit configuration has
+     *  been read from
+     * @param writer the target for the source code
+     *
+     * @throws ConfigurationException in case of a configuration error
+     */
+    public void compile(final Configuration unit, final String resource,
+            final Writer writer) throws ConfigurationException {
+
+        String name = unit.getAttribute("name");
+        if (name == null) {
+            throw new ConfigurationMissingAttributeException("name", unit);
+        }
+        String className = LoadUnit.bootstrapClassName(name);
+        long checksum = LoadUnit.checksum(resource);
+        if (checksum < 0) {
+            throw new ConfigurationNotFoundException(resource, null);
+        }
+        PrintWriter out = new PrintWriter(writer);
+
+        out.println("/*");
+        out.println(" * This file has been generated by "
+                + UnitCompiler.class.getName());
+        out.println(" * from " + resource + ". Do not edit.");
+        out.println(" */");
+        out.println();
+        out.println("package " + LoadUnit.BOOTSTRAP_PACKAGE + ";");
+        out.println();
+        out.println("import de.dante.extex.interpreter.unit.PrimitiveDefiner;");
+        out.println("import de.dante.extex.interpreter.unit.UnitBootstrap;");
+        out.println("import de.dante.util.exception.GeneralException;");
+        out.println("import de.dante.util.framework.configuration.exception."
+                + "ConfigurationException;");
+        out.println();
+        out.println("/**");
+        out.println(" * This class contains the compiled primitives of the unit"
+                + " <tt>" + name + "</tt>.");
+        out.println(" */");
+        out.println("public final class "
+                + className.substring(className.lastIndexOf('.') + 1)
+                + " implements UnitBootstrap {");
+        out.println();
+        out.println("    /**");
+        out.println("     * @see de.dante.extex.interpreter.unit.UnitBootstrap"
+                + "#define(");
+        out.println("     *      de.dante.extex.interpreter.unit."
+                + "PrimitiveDefiner)");
+        out.println("     */");
+        out.println("    public void define(final PrimitiveDefiner definer)");
+        out.println("            throws GeneralException,");
+        out.println("                ConfigurationException {");
+        out.println();
+
+        Iterator primitives = unit.iterator("primitives");
+        while (primitives.hasNext()) {
+            Iterator iterator = ((Configuration) primitives.next())
+                    .iterator("define");
+            while (iterator.hasNext()) {
+                Configuration cfg = (Configuration) iterator.next();
+                String primitive = cfg.getAttribute("name");
+                String type = cfg.getAttribute("class");
+                if (primitive == null) {
+                    throw new ConfigurationMissingAttributeException("name",
+                            cfg);
+                } else if (type == null) {
+                    throw new ConfigurationMissingAttributeException("class",
+                            cfg);
+                }
+                check(type, cfg);
+                out.print("        definer.define(");
+                literal(out, primitive);
+                out.print(", ");
+                literal(out, cfg.getAttribute("namespace"));
+                out.println(",");
+                out.print("            new " + type + "(");
+                literal(out, primitive);
+                out.print("), ");
+                literal(out, cfg.getValue());
+                out.println(");");
+            }
+        }
+
+        out.println("    }");
+        out.println();
+        out.println("    /**");
+        out.println("     * @see de.dante.extex.interpreter.unit.UnitBootstrap"
+                + "#getChecksum()");
+        out.println("     */");
+        out.println("    public long getChecksum() {");
+        out.println();
+        out.println("        return 0x" + Long.toHexString(checksum) + "L;");
+        out.println("    }");
+        out.println();
+        out.println("    /**");
+        out.println("     * @see de.dante.extex.interpreter.unit.UnitBootstrap"
+                + "#getResource()");
+        out.println("     */");
+        out.println("    public String getResource() {");
+        out.println();
+        out.print("        return ");
+        literal(out, resource);
+        out.println(";");
+        out.println("    }");
+        out.println();
+        out.println("}");
+        out.flush();
+    }
+
+}
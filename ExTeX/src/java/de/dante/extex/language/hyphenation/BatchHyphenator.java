@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.language.hyphenation;
+
+import de.dante.extex.language.hyphenation.exception.HyphenationException;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.util.UnicodeChar;
+
+/**
+ * This interface describes the ability of a hyphenator to determine the
+ * hyphenation points of many words in one go without modifying any node
+ * list. The paragraph builder collects all words of a paragraph, passes
+ * them in at once and inserts discretionaries only for those hyphenation
+ * points which are actually used as line breaks.
+ *
+ * <p>
+ *  The words are stored one after the other in an array of characters. Each
+ *  word is preceded and followed by a <code>null</code> entry. Two adjacent
+ *  words may share the separating <code>null</code> entry. Thus the array
+ *  <tt>[null, 'a', 'b', null, 'c', 'd', 'e', null]</tt> contains the words
+ *  <tt>ab</tt> and <tt>cde</tt>.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface BatchHyphenator {
+
+    /**
+     * Determine the hyphenation points for a sequence of words.
+     * The characters of the words are replaced by their normalized form as
+     * a side effect. The entry <tt>points[i]</tt> is set to
+     * <code>true</code> iff a hyphen can be inserted before the character
+     * <tt>chars[i]</tt>. The other entries of <tt>points</tt> are left
+     * untouched.
+     *
+     * @param chars the characters of the words
+     * @param length the number of entries of <tt>chars</tt> in use
+     * @param options the options for normalizing the words
+     * @param points the target array for the hyphenation points; it has at
+     *  least <tt>length</tt> entries
+     *
+     * @return the number of hyphenation points found
+     *
+     * @throws HyphenationException in case of an error
+     */
+    int findHyphenationPoints(UnicodeChar[] chars, int length,
+            TypesetterOptions options, boolean[] points)
+            throws HyphenationException;
+
+    /**
+     * Check whether the hyphenation points can be determined with
+     * {@link #findHyphenationPoints(UnicodeChar[], int, TypesetterOptions,
+     * boolean[]) findHyphenationPoints()}. A proxy for a hyphenator might
+     * not know this in advance. If the result is <code>false</code> then
+     * the words have to be hyphenated one by one.
+     *
+     * @return <code>true</code> iff the batch hyphenation is supported
+     *
+     * @throws HyphenationException in case of an error
+     */
+    boolean isBatchSupported() throws HyphenationException;
+
+}
@@ -27,6 +27,7 @@ import java.util.Map;
 import de.dante.extex.interpreter.type.font.Font;
 import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.language.ModifiableLanguage;
+import de.dante.extex.language.hyphenation.BatchHyphenator;
 import de.dante.extex.language.hyphenation.exception.HyphenationException;
 import de.dante.extex.language.ligature.LigatureBuilder;
 import de.dante.extex.language.word.WordTokenizer;
@@ -46,7 +47,11 @@ import de.dante.util.framework.Registrar;
  * @author <a href="mailto:m.g.n@gmx.de">Michael Niedermair</a>
  * @version $Revision: 1.19 $
  */
-public class BaseHyphenationTable implements ModifiableLanguage, Serializable {
+public class BaseHyphenationTable
+        implements
+            ModifiableLanguage,
+            BatchHyphenator,
+            Serializable {
 
     /**
      * The constant <tt>serialVersionUID</tt> contains the id for serialization.
@@ -160,6 +165,98 @@ public class BaseHyphenationTable implements ModifiableLanguage, Serializable {
 
     }
 
+    /**
+     * @see de.dante.extex.language.hyphenation.BatchHyphenator#isBatchSupported()
+     */
+    public boolean isBatchSupported() {
+
+        return true;
+    }
+
+    /**
+     * @see de.dante.extex.language.hyphenation.BatchHyphenator#findHyphenationPoints(
+     *      de.dante.util.UnicodeChar[],
+     *      int,
+     *      de.dante.extex.typesetter.TypesetterOptions,
+     *      boolean[])
+     */
+    public int findHyphenationPoints(final UnicodeChar[] chars,
+            final int length, final TypesetterOptions options,
+            final boolean[] points) throws HyphenationException {
+
+        if (!hyphenactive || wordTokenizer == null) {
+            return 0;
+        }
+
+        int count = 0;
+        UnicodeCharList word = new UnicodeCharList();
+        int i = 0;
+
+        while (i < length) {
+            if (chars[i] == null) {
+                i++;
+                continue;
+            }
+            int start = i;
+            word.clear();
+            for (; i < length && chars[i] != null; i++) {
+                word.add(chars[i]);
+            }
+            int len = i - start;
+            int from = (int) Math.max(1, lefthyphenmin);
+            int to = len - (int) Math.max(1, righthyphenmin);
+            if (from > to) {
+                continue;
+            }
+
+            UnicodeCharList key = wordTokenizer.normalize(word, options);
+            for (int j = 0; j < len; j++) {
+                chars[start + j] = key.get(j);
+            }
+
+            boolean[] spec = (boolean[]) exceptionMap.get(key);
+            if (spec == null) {
+                count += findPatternPoints(chars, start, len, from, to, points);
+                continue;
+            }
+            for (int j = from; j <= to; j++) {
+                if (spec[j]) {
+                    points[start + j] = true;
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Determine the hyphenation points for a single word which is not
+     * contained in the exceptions. This method is invoked from
+     * {@link #findHyphenationPoints(UnicodeChar[], int, TypesetterOptions,
+     * boolean[]) findHyphenationPoints()}. The word is already normalized.
+     * This implementation does not know any patterns and finds nothing.
+     *
+     * @param chars the characters
+     * @param start the index of the first character of the word
+     * @param len the length of the word
+     * @param from the index of the first character in the word before which
+     *  a hyphen may be inserted
+     * @param to the index of the last character in the word before which a
+     *  hyphen may be inserted
+     * @param points the target array for the hyphenation points
+     *
+     * @return the number of hyphenation points found
+     *
+     * @throws HyphenationException in case of an error
+     */
+    protected int findPatternPoints(final UnicodeChar[] chars,
+            final int start, final int len, final int from, final int to,
+            final boolean[] points) throws HyphenationException {
+
+        return 0;
+    }
+
     /**
      * @see de.dante.extex.language.word.WordTokenizer#findWord(
      *      de.dante.extex.typesetter.type.NodeList,
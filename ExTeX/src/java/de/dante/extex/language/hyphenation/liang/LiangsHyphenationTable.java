@@ -121,6 +121,12 @@ public class LiangsHyphenationTable extends BaseHyphenationTable {
      */
     private static final UnicodeChar BORDER = null;
 
+    /**
+     * The field <tt>PERIOD</tt> contains the Unicode character used in the
+     * patterns as marker for the beginning and the end of the word.
+     */
+    private static final UnicodeChar PERIOD = UnicodeChar.get('.');
+
     /**
      * The constant <tt>serialVersionUID</tt> contains the id for serialization.
      */
@@ -223,6 +229,51 @@ public class LiangsHyphenationTable extends BaseHyphenationTable {
         patterns.dump(logger, "");
     }
 
+    /**
+     * Determine the hyphenation points of a word by superimposing all
+     * patterns matching at any position of the word. The word is surrounded
+     * by the beginning and end markers such that the patterns starting or
+     * ending with a period are taken into account.
+     *
+     * @see de.dante.extex.language.hyphenation.base.BaseHyphenationTable#findPatternPoints(
+     *      de.dante.util.UnicodeChar[],
+     *      int,
+     *      int,
+     *      int,
+     *      int,
+     *      boolean[])
+     */
+    protected int findPatternPoints(final UnicodeChar[] chars,
+            final int start, final int len, final int from, final int to,
+            final boolean[] points) throws HyphenationException {
+
+        // code[i] is the value before the i-th character of .word.
+        char[] code = new char[len + 3];
+
+        for (int i = 0; i <= len; i++) {
+            HyphenTree tree = patterns;
+            for (int j = i; j <= len + 1; j++) {
+                tree = tree.getNext(j == 0 || j > len
+                        ? PERIOD
+                        : chars[start + j - 1]);
+                if (tree == null) {
+                    break;
+                }
+                HyphenTree.superimpose(code, i, tree
+                        .getHyphenationCode());
+            }
+        }
+
+        int count = 0;
+        for (int i = from; i <= to; i++) {
+            if ((code[i + 1] & 1) != 0) {
+                points[start + i] = true;
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Getter for patterns.
      * This method is meant for testing purposes only.
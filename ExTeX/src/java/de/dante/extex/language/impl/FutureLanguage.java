@@ -25,6 +25,7 @@ import java.io.Serializable;
 import de.dante.extex.interpreter.type.font.Font;
 import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.language.Language;
+import de.dante.extex.language.hyphenation.BatchHyphenator;
 import de.dante.extex.language.hyphenation.exception.HyphenationException;
 import de.dante.extex.typesetter.TypesetterOptions;
 import de.dante.extex.typesetter.type.NodeList;
@@ -42,7 +43,11 @@ import de.dante.util.framework.Registrar;
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.14 $
  */
-public class FutureLanguage implements ManagedLanguage, Serializable {
+public class FutureLanguage
+        implements
+            ManagedLanguage,
+            BatchHyphenator,
+            Serializable {
 
     /**
      * The constant <tt>serialVersionUID</tt> contains the id for serialization.
@@ -107,6 +112,27 @@ public class FutureLanguage implements ManagedLanguage, Serializable {
         language.addPattern(pattern);
     }
 
+    /**
+     * @see de.dante.extex.language.hyphenation.BatchHyphenator#findHyphenationPoints(
+     *      de.dante.util.UnicodeChar[],
+     *      int,
+     *      de.dante.extex.typesetter.TypesetterOptions,
+     *      boolean[])
+     */
+    public int findHyphenationPoints(final UnicodeChar[] chars,
+            final int length, final TypesetterOptions options,
+            final boolean[] points) throws HyphenationException {
+
+        if (language == null) {
+            language = creator.loadLanguageInstance(name);
+        }
+        if (!isBatchSupported()) {
+            return 0;
+        }
+        return ((BatchHyphenator) language).findHyphenationPoints(chars,
+                length, options, points);
+    }
+
     /**
      * @see de.dante.extex.language.word.WordTokenizer#findWord(
      *      de.dante.extex.typesetter.type.NodeList,
@@ -218,6 +244,21 @@ public class FutureLanguage implements ManagedLanguage, Serializable {
         language.insertShy(nodes, insertionPoint, spec, hyphenNode);
     }
 
+    /**
+     * The batch hyphenation is supported iff the language for which we are
+     * acting as proxy supports it.
+     *
+     * @see de.dante.extex.language.hyphenation.BatchHyphenator#isBatchSupported()
+     */
+    public boolean isBatchSupported() throws HyphenationException {
+
+        if (language == null) {
+            language = creator.loadLanguageInstance(name);
+        }
+        return language instanceof BatchHyphenator
+                && ((BatchHyphenator) language).isBatchSupported();
+    }
+
     /**
      * @see de.dante.extex.language.hyphenation.Hyphenator#isHyphenActive()
      */
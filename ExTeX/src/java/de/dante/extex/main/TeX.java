@@ -22,6 +22,7 @@ package de.dante.extex.main;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -53,12 +54,25 @@ import de.dante.extex.interpreter.Interpreter;
 import de.dante.extex.interpreter.exception.InterpreterException;
 import de.dante.extex.interpreter.interaction.Interaction;
 import de.dante.extex.interpreter.interaction.InteractionUnknownException;
+import de.dante.extex.interpreter.observer.command.CommandObservable;
+import de.dante.extex.interpreter.observer.command.CommandObserver;
+import de.dante.extex.interpreter.observer.expand.ExpandObservable;
+import de.dante.extex.interpreter.observer.expandMacro.ExpandMacroObservable;
+import de.dante.extex.interpreter.observer.expandMacro.ExpandMacroObserver;
 import de.dante.extex.interpreter.observer.pop.PopObservable;
 import de.dante.extex.interpreter.observer.pop.PopObserver;
 import de.dante.extex.interpreter.observer.push.PushObservable;
 import de.dante.extex.interpreter.observer.push.PushObserver;
+import de.dante.extex.interpreter.observer.start.StartObservable;
+import de.dante.extex.interpreter.observer.start.StartObserver;
+import de.dante.extex.interpreter.observer.stop.StopObservable;
+import de.dante.extex.interpreter.observer.stop.StopObserver;
 import de.dante.extex.interpreter.observer.streamClose.StreamCloseObservable;
 import de.dante.extex.interpreter.observer.streamClose.StreamCloseObserver;
+import de.dante.extex.interpreter.profiler.CallGraph;
+import de.dante.extex.interpreter.profiler.Profilable;
+import de.dante.extex.interpreter.profiler.Profiler;
+import de.dante.extex.interpreter.trace.BinaryTrace;
 import de.dante.extex.main.exception.MainCodingException;
 import de.dante.extex.main.exception.MainConfigurationException;
 import de.dante.extex.main.exception.MainException;
@@ -67,8 +81,10 @@ import de.dante.extex.main.exception.MainMissingArgumentException;
 import de.dante.extex.main.exception.MainUnknownOptionException;
 import de.dante.extex.main.inputHandler.TeXInputReader;
 import de.dante.extex.main.logging.LogFormatter;
+import de.dante.extex.main.observer.CallGraphObserver;
 import de.dante.extex.main.observer.FileCloseObserver;
 import de.dante.extex.main.observer.FileOpenObserver;
+import de.dante.extex.main.observer.ProfileObserver;
 import de.dante.extex.main.observer.TokenObserver;
 import de.dante.extex.main.observer.TokenPushObserver;
 import de.dante.extex.main.queryFile.QueryFileHandler;
@@ -221,6 +237,15 @@ import de.dante.util.resource.ResourceFinder;
  *      <td>Spec</td>Description<td></td><td>See</td>
  *     </th>
  *     <tr>
+ *      <td><tt>B</tt></td>
+ *      <td>
+ *       This specifier contains the indicator whether or not to write the
+ *       tracing of the tokenizer and of the macros to the binary file
+ *       <tt><i>jobname</i>.xtr</tt> instead of the log file.
+ *      </td>
+ *      <td><tt><a href="#extex.trace.binary">extex.trace.binary</a></tt></td>
+ *     </tr>
+ *     <tr>
  *      <td><tt>F</tt></td>
  *      <td>
  *       This specifier contains the indicator whether or not to trace the
@@ -237,6 +262,16 @@ import de.dante.util.resource.ResourceFinder;
  *      <td><tt><a href="#extex.trace.font.files">extex.trace.font.files</a></tt></td>
  *     </tr>
  *     <tr>
+ *      <td><tt>G</tt></td>
+ *      <td>
+ *       This specifier contains the indicator whether or not to record the
+ *       call graph of the macros. The graph is written as folded stacks to
+ *       the file <tt><i>jobname</i>.folded</tt> and a summary is written to
+ *       the log file at the end of the job.
+ *      </td>
+ *      <td><tt><a href="#extex.trace.callgraph">extex.trace.callgraph</a></tt></td>
+ *     </tr>
+ *     <tr>
  *      <td><tt>M</tt></td>
  *      <td>
  *       This specifier contains the indicator whether or not to trace the
@@ -245,6 +280,15 @@ import de.dante.util.resource.ResourceFinder;
  *      <td><tt><a href="#extex.trace.macros">extex.trace.macros</a></tt></td>
  *     </tr>
  *     <tr>
+ *      <td><tt>P</tt></td>
+ *      <td>
+ *       This specifier contains the indicator whether or not to profile the
+ *       execution of primitives and macros. The report is written to the log
+ *       file at the end of the job.
+ *      </td>
+ *      <td><tt><a href="#extex.trace.profile">extex.trace.profile</a></tt></td>
+ *     </tr>
+ *     <tr>
  *      <td><tt>T</tt></td>
  *      <td>
  *       This specifier contains the indicator whether or not to trace the
@@ -633,6 +677,20 @@ import de.dante.util.resource.ResourceFinder;
  *    search for input files.
  *   </dd>
  *
+ *   <dt><a name="extex.trace.binary"/><tt>extex.trace.binary</tt></dt>
+ *   <dd>
+ *    This boolean parameter contains the indicator whether or not to write
+ *    the tracing of the tokenizer and of the macros to a binary trace file.
+ *    The file can be turned into text with
+ *    <tt>de.dante.extex.interpreter.trace.TraceDecoder</tt>.
+ *   </dd>
+ *
+ *   <dt><a name="extex.trace.callgraph"/><tt>extex.trace.callgraph</tt></dt>
+ *   <dd>
+ *    This boolean parameter contains the indicator whether or not to record
+ *    the call graph of the macros.
+ *   </dd>
+ *
  *   <dt><a name="extex.trace.font.files"/><tt>extex.trace.font.filess</tt></dt>
  *   <dd>
  *    This boolean parameter contains the indicator whether or not to trace the
@@ -645,6 +703,12 @@ import de.dante.util.resource.ResourceFinder;
  *    execution of macros.
  *   </dd>
  *
+ *   <dt><a name="extex.trace.profile"/><tt>extex.trace.profile</tt></dt>
+ *   <dd>
+ *    This boolean parameter contains the indicator whether or not to profile
+ *    the execution of primitives and macros.
+ *   </dd>
+ *
  *   <dt><a name="extex.trace.tokenizer"/><tt>extex.trace.tokenizer</tt></dt>
  *   <dd>
  *    This boolean parameter contains the indicator whether or not to trace the
@@ -755,9 +819,12 @@ public class TeX extends ExTeX {
 
     static {
         TRACE_MAP.put("+", PROP_TRACING_ONLINE);
+        TRACE_MAP.put("B", PROP_TRACE_BINARY);
         TRACE_MAP.put("F", PROP_TRACE_INPUT_FILES);
         TRACE_MAP.put("f", PROP_TRACE_FONT_FILES);
+        TRACE_MAP.put("G", PROP_TRACE_CALLGRAPH);
         TRACE_MAP.put("M", PROP_TRACE_MACROS);
+        TRACE_MAP.put("P", PROP_TRACE_PROFILE);
         TRACE_MAP.put("T", PROP_TRACE_TOKENIZER);
     }
 
@@ -833,6 +900,12 @@ public class TeX extends ExTeX {
      */
     private Interpreter interpreter;
 
+    /**
+     * The field <tt>trace</tt> contains the binary trace or
+     * <code>null</code> if none is written.
+     */
+    private BinaryTrace trace = null;
+
     /**
      * Creates a new object and initializes the properties from given
      * properties and possibly from a user's properties in the file
@@ -991,7 +1064,10 @@ public class TeX extends ExTeX {
             ((StreamCloseObservable) interpreter).registerObserver(observer);
             observers.add(observer);
         }
-        if (getBooleanProperty(PROP_TRACE_TOKENIZER)) {
+        if (getBooleanProperty(PROP_TRACE_BINARY)) {
+            makeBinaryTrace(jobname);
+        }
+        if (trace == null && getBooleanProperty(PROP_TRACE_TOKENIZER)) {
 
             if (interpreter instanceof PopObservable) {
                 PopObserver observer = new TokenObserver(logger);
@@ -1004,13 +1080,119 @@ public class TeX extends ExTeX {
                 observers.add(observer);
             }
         }
-        if (getBooleanProperty(PROP_TRACE_MACROS)) {
+        if (trace == null && getBooleanProperty(PROP_TRACE_MACROS)) {
             interpreter.getContext().setCount("tracingcommands", 1, true);
         }
+        if (getBooleanProperty(PROP_TRACE_PROFILE)
+                && interpreter instanceof Profilable
+                && interpreter instanceof StartObservable
+                && interpreter instanceof StopObservable) {
+
+            final Profiler profiler = new Profiler();
+            ((Profilable) interpreter).setProfiler(profiler);
+            StartObserver start = new StartObserver() {
+
+                /**
+                 * @see de.dante.extex.interpreter.observer.start.StartObserver#update(
+                 *      de.dante.extex.interpreter.Interpreter)
+                 */
+                public void update(final Interpreter source) {
+
+                    profiler.start();
+                }
+            };
+            ((StartObservable) interpreter).registerObserver(start);
+            observers.add(start);
+            if (interpreter instanceof PopObservable
+                    && interpreter instanceof PushObservable) {
+                PopObserver pop = profiler.getPopObserver();
+                ((PopObservable) interpreter).registerObserver(pop);
+                PushObserver push = profiler.getPushObserver();
+                ((PushObservable) interpreter).registerObserver(push);
+                observers.add(pop);
+                observers.add(push);
+            }
+            StopObserver stop = new ProfileObserver(logger, profiler);
+            ((StopObservable) interpreter).registerObserver(stop);
+            observers.add(stop);
+            interpreter.getContext().setCount("tracingprofile", 1, true);
+        }
+        if (getBooleanProperty(PROP_TRACE_CALLGRAPH)
+                && interpreter instanceof CommandObservable
+                && interpreter instanceof ExpandObservable
+                && interpreter instanceof ExpandMacroObservable
+                && interpreter instanceof PopObservable
+                && interpreter instanceof PushObservable
+                && interpreter instanceof StopObservable) {
+
+            CallGraph graph = new CallGraph(interpreter);
+            CommandObserver command = graph.getCommandObserver();
+            ((CommandObservable) interpreter).registerObserver(command);
+            ((ExpandObservable) interpreter).registerObserver(graph);
+            ((ExpandMacroObservable) interpreter).registerObserver(graph);
+            PopObserver pop = graph.getPopObserver();
+            ((PopObservable) interpreter).registerObserver(pop);
+            PushObserver push = graph.getPushObserver();
+            ((PushObservable) interpreter).registerObserver(push);
+            StopObserver stop = new CallGraphObserver(logger, graph,
+                    makeOutputFile(jobname, ".folded"));
+            ((StopObservable) interpreter).registerObserver(stop);
+            observers.add(graph);
+            observers.add(command);
+            observers.add(pop);
+            observers.add(push);
+            observers.add(stop);
+        }
 
         return interpreter;
     }
 
+    /**
+     * Create the binary trace and attach it to the interpreter. The trace is
+     * created only if the tokenizer or the macros are traced and the trace
+     * file can be written. Otherwise the tracing goes to the log file.
+     *
+     * @param jobname the name of the job
+     *
+     * @throws IOException in case of an I/O error
+     */
+    private void makeBinaryTrace(final String jobname) throws IOException {
+
+        boolean tokenizer = getBooleanProperty(PROP_TRACE_TOKENIZER);
+        boolean macros = getBooleanProperty(PROP_TRACE_MACROS);
+        if (!tokenizer && !macros) {
+            return;
+        }
+        File file = makeOutputFile(jobname, ".xtr");
+        if (file == null) {
+            return;
+        }
+
+        trace = new BinaryTrace(interpreter.getContext(), interpreter,
+                new FileOutputStream(file), BinaryTrace.DEFAULT_CAPACITY);
+
+        if (tokenizer && interpreter instanceof PopObservable
+                && interpreter instanceof PushObservable) {
+
+            PopObserver pop = trace.getPopObserver();
+            ((PopObservable) interpreter).registerObserver(pop);
+            PushObserver push = trace.getPushObserver();
+            ((PushObservable) interpreter).registerObserver(push);
+            observers.add(pop);
+            observers.add(push);
+        }
+        if (macros && interpreter instanceof CommandObservable
+                && interpreter instanceof ExpandMacroObservable) {
+
+            CommandObserver command = trace.getCommandObserver();
+            ((CommandObservable) interpreter).registerObserver(command);
+            ExpandMacroObserver macro = trace;
+            ((ExpandMacroObservable) interpreter).registerObserver(macro);
+            observers.add(command);
+            observers.add(macro);
+        }
+    }
+
     /**
      * The field <tt>primaryFile</tt> contains the ...
      */
@@ -1297,6 +1479,15 @@ public class TeX extends ExTeX {
             throw new MainIOException(e);
         } catch (GeneralException e) {
             throw new MainException(e);
+        } finally {
+            if (trace != null) {
+                try {
+                    trace.close();
+                } catch (IOException e) {
+                    getLogger().warning(e.getLocalizedMessage());
+                }
+                trace = null;
+            }
         }
     }
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.main.observer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.logging.Logger;
+
+import de.dante.extex.interpreter.Interpreter;
+import de.dante.extex.interpreter.observer.stop.StopObserver;
+import de.dante.extex.interpreter.profiler.CallGraph;
+
+/**
+ * This observer waits for the end of the job. Then it writes the call graph
+ * of the macros as folded stacks to a file and a summary to the log file.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class CallGraphObserver implements StopObserver {
+
+    /**
+     * The constant <tt>LIMIT</tt> contains the number of macros in the
+     * summary.
+     */
+    private static final int LIMIT = 30;
+
+    /**
+     * The field <tt>file</tt> contains the file for the folded stacks or
+     * <code>null</code> if none should be written.
+     */
+    private File file;
+
+    /**
+     * The field <tt>graph</tt> contains the call graph.
+     */
+    private CallGraph graph;
+
+    /**
+     * The field <tt>logger</tt> contains the logger for output
+     */
+    private Logger logger;
+
+    /**
+     * Creates a new object.
+     *
+     * @param theLogger the logger for potential output
+     * @param theGraph the call graph
+     * @param theFile the file for the folded stacks or <code>null</code>
+     */
+    public CallGraphObserver(final Logger theLogger, final CallGraph theGraph,
+            final File theFile) {
+
+        super();
+        this.logger = theLogger;
+        this.graph = theGraph;
+        this.file = theFile;
+    }
+
+    /**
+     * This method is meant to be invoked just before the engine is stopping.
+     *
+     * @param interpreter the interpreter to be stopped
+     */
+    public void update(final Interpreter interpreter) {
+
+        logger.fine("\n" + graph.report(LIMIT));
+        if (file == null) {
+            return;
+        }
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+                    "UTF-8");
+            try {
+                graph.writeFolded(writer);
+            } finally {
+                writer.close();
+            }
+            logger.fine("Call graph written on " + file.toString() + "\n");
+        } catch (IOException e) {
+            logger.warning(e.toString() + "\n");
+        }
+    }
+
+}
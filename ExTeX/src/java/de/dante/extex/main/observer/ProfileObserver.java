@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.main.observer;
+
+import java.util.logging.Logger;
+
+import de.dante.extex.interpreter.Interpreter;
+import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.interpreter.observer.stop.StopObserver;
+import de.dante.extex.interpreter.profiler.Profiler;
+
+/**
+ * This observer waits for the end of the job. Then it stops the profiler and
+ * writes its report to the log file.
+ *
+ * <doc name="tracingprofile" type="register">
+ * <h3>The Count Parameter <tt>\tracingprofile</tt></h3>
+ * <p>
+ *  The count register <tt>\tracingprofile</tt> determines whether the report
+ *  of the profiler is written to the log file at the end of the job. If the
+ *  value is greater than 0 then the report is written. The profiler itself
+ *  has to be requested on the command line with <tt>-debug P</tt>. In this
+ *  case the register is initialized to 1.
+ * </p>
+ * <p>
+ *  The report lists the primitives and macros sorted by the time spent in
+ *  them alone and by the time spent in them including the code invoked by
+ *  them. The times are determined by sampling and are approximations.
+ * </p>
+ * <p>
+ *  This count parameter has been introduced by <logo>ExTeX</logo>.
+ * </p>
+ *
+ * <h4>Syntax</h4>
+ *  The formal description of this primitive is the following:
+ *  <pre class="syntax">
+ *    &lang;tracingprofile&rang;
+ *      &rarr; <tt>\tracingprofile</tt> {@linkplain
+ *        de.dante.extex.interpreter.TokenSource#getOptionalEquals(Context)
+ *        &lang;equals&rang;} {@linkplain
+ *        de.dante.extex.interpreter.TokenSource#scanInteger(Context,Typesetter)
+ *        &lang;number&rang;}  </pre>
+ *
+ * <h4>Examples</h4>
+ *  <pre class="TeXSample">
+ *    \tracingprofile=0  </pre>
+ *
+ * </doc>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ProfileObserver implements StopObserver {
+
+    /**
+     * The constant <tt>LIMIT</tt> contains the number of lines in each table
+     * of the report.
+     */
+    private static final int LIMIT = 30;
+
+    /**
+     * The field <tt>logger</tt> contains the logger for output
+     */
+    private Logger logger;
+
+    /**
+     * The field <tt>profiler</tt> contains the profiler.
+     */
+    private Profiler profiler;
+
+    /**
+     * Creates a new object.
+     *
+     * @param theLogger the logger for potential output
+     * @param theProfiler the profiler
+     */
+    public ProfileObserver(final Logger theLogger, final Profiler theProfiler) {
+
+        super();
+        this.logger = theLogger;
+        this.profiler = theProfiler;
+    }
+
+    /**
+     * This method is meant to be invoked just before the engine is stopping.
+     *
+     * @param interpreter the interpreter to be stopped
+     */
+    public void update(final Interpreter interpreter) {
+
+        profiler.stop();
+        Context context = interpreter.getContext();
+        if (context.getCount("tracingprofile").getValue() > 0) {
+            logger.fine("\n" + profiler.report(LIMIT));
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.scanner.stream;
+
+import de.dante.extex.scanner.exception.ScannerException;
+
+/**
+ * This interface describes a filter which is applied to each line read by a
+ * token stream before it is tokenized. This is the place where input
+ * translations like the OCP lists of Omega are hooked in.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface LineFilter {
+
+    /**
+     * Translate a line of input.
+     *
+     * @param line the line as read from the input
+     *
+     * @return the translated line
+     *
+     * @throws ScannerException in case of an error
+     */
+    String filter(String line) throws ScannerException;
+
+}
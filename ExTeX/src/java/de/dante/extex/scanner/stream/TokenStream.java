@@ -21,6 +21,7 @@ package de.dante.extex.scanner.stream;
 
 import de.dante.extex.interpreter.Tokenizer;
 import de.dante.extex.scanner.exception.ScannerException;
+import de.dante.extex.scanner.type.token.CodeToken;
 import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.scanner.type.token.TokenFactory;
 import de.dante.util.Locator;
@@ -119,4 +120,26 @@ public interface TokenStream {
      */
     void put(Token token);
 
+    /**
+     * Get the next code token from the token stream and discard all tokens
+     * preceding it. Code tokens are control sequences and active characters.
+     * <p>
+     *  This method is meant for skipping large amounts of input, e.g. in a
+     *  conditional which evaluates to false. Implementations are encouraged
+     *  to avoid the creation of tokens which are discarded anyhow. Apart
+     *  from this the state of the stream should be the same as if the
+     *  tokens had been read with {@link #get(TokenFactory, Tokenizer) get()}.
+     * </p>
+     *
+     * @param factory the token factory
+     * @param tokenizer the tokenizer
+     *
+     * @return the next code token or <code>null</code> if no more code tokens
+     *  are available
+     *
+     * @throws ScannerException in case of an error
+     */
+    CodeToken skipToCodeToken(TokenFactory factory, Tokenizer tokenizer)
+            throws ScannerException;
+
 }
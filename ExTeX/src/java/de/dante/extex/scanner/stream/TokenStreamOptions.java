@@ -31,6 +31,18 @@ import de.dante.extex.interpreter.type.tokens.FixedTokens;
  */
 public interface TokenStreamOptions {
 
+    /**
+     * The constant <tt>EXTENSION</tt> contains the name of the context
+     * extension holding the settings of token streams.
+     */
+    String EXTENSION = "de.dante.extex.scanner.stream";
+
+    /**
+     * The constant <tt>LINE_FILTER</tt> contains the key of the line filter
+     * in the context extension.
+     */
+    String LINE_FILTER = "lineFilter";
+
     /**
      * Getter for a count register.
      *
@@ -40,6 +52,13 @@ public interface TokenStreamOptions {
      */
     FixedCount getCountOption(String name);
 
+    /**
+     * Getter for the filter to be applied to each line of input.
+     *
+     * @return the line filter or <code>null</code> if none is active
+     */
+    LineFilter getLineFilter();
+
     /**
      * Getter for a toks register.
      *
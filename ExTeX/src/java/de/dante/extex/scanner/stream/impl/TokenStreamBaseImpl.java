@@ -23,6 +23,7 @@ import de.dante.extex.interpreter.Tokenizer;
 import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.scanner.exception.ScannerException;
 import de.dante.extex.scanner.stream.TokenStream;
+import de.dante.extex.scanner.type.token.CodeToken;
 import de.dante.extex.scanner.type.token.SpaceToken;
 import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.scanner.type.token.TokenFactory;
@@ -147,6 +148,30 @@ public class TokenStreamBaseImpl implements TokenStream {
         return null;
     }
 
+    /**
+     * Get the next code token when the stack is empty. All other tokens are
+     * discarded.
+     * This method is meant to be overloaded by derived classes which are able
+     * to skip input without creating tokens.
+     *
+     * @param factory the factory for new tokens
+     * @param tokenizer the classifies for characters
+     *
+     * @return the next code token or <code>null</code>
+     * @throws ScannerException in case of an error
+     */
+    protected CodeToken getNextCodeToken(final TokenFactory factory,
+            final Tokenizer tokenizer) throws ScannerException {
+
+        for (Token t = getNext(factory, tokenizer); t != null; t = getNext(
+                factory, tokenizer)) {
+            if (t instanceof CodeToken) {
+                return (CodeToken) t;
+            }
+        }
+        return null;
+    }
+
     /**
      * Test for end of file.
      *
@@ -186,6 +211,18 @@ public class TokenStreamBaseImpl implements TokenStream {
         }
     }
 
+    /**
+     * @see de.dante.extex.scanner.stream.TokenStream#skipToCodeToken(
+     *      de.dante.extex.scanner.type.token.TokenFactory,
+     *      de.dante.extex.interpreter.Tokenizer)
+     */
+    public CodeToken skipToCodeToken(final TokenFactory factory,
+            final Tokenizer tokenizer) throws ScannerException {
+
+        CodeToken t = stack.removeLastCodeToken();
+        return (t != null ? t : getNextCodeToken(factory, tokenizer));
+    }
+
     /**
      * Setter for skipSpaces.
      */
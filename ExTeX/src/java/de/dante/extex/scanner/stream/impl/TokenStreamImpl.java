@@ -31,11 +31,14 @@ import de.dante.extex.interpreter.Namespace;
 import de.dante.extex.interpreter.Tokenizer;
 import de.dante.extex.interpreter.exception.helping.InvalidCharacterException;
 import de.dante.extex.scanner.exception.ScannerException;
+import de.dante.extex.scanner.stream.LineFilter;
 import de.dante.extex.scanner.stream.TokenStream;
 import de.dante.extex.scanner.stream.TokenStreamOptions;
 import de.dante.extex.scanner.type.Catcode;
 import de.dante.extex.scanner.type.CatcodeException;
 import de.dante.extex.scanner.type.CatcodeVisitor;
+import de.dante.extex.scanner.type.token.CodeToken;
+import de.dante.extex.scanner.type.token.ControlSequenceName;
 import de.dante.extex.scanner.type.token.Token;
 import de.dante.extex.scanner.type.token.TokenFactory;
 import de.dante.util.Locator;
@@ -125,6 +128,12 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
      */
     protected static final State SKIP_BLANKS = new State("skip blanks");
 
+    /**
+     * The field <tt>csName</tt> contains the buffer for the name of a control
+     * word while it is scanned.
+     */
+    private ControlSequenceName csName = new ControlSequenceName();
+
     /**
      * The field <tt>in</tt> contains the buffered reader for lines.
      */
@@ -135,6 +144,11 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
      */
     private String line = "";
 
+    /**
+     * The field <tt>options</tt> contains the options or <code>null</code>.
+     */
+    private TokenStreamOptions options;
+
     /**
      * The index in the buffer for the next character to consider. This
      * is an invariant: after a character is read this pointer has to be
@@ -244,21 +258,20 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
                         "", namespace);
 
             } else if (tokenizer.getCatcode(uc) == Catcode.LETTER) {
-                StringBuffer sb = new StringBuffer();
-                sb.append((char) (uc.getCodePoint()));
+                csName.clear();
+                csName.append(uc);
                 state = SKIP_BLANKS;
 
                 while (!atEndOfLine() && (uc = getChar(tokenizer)) != null) {
                     if (tokenizer.getCatcode(uc) != Catcode.LETTER) {
                         ungetChar(uc);
-                        return factory.createToken(Catcode.ESCAPE,
-                                (UnicodeChar) uchar, sb.toString(), namespace);
+                        break;
                     }
-                    sb.append((char) (uc.getCodePoint()));
+                    csName.append(uc);
                 }
 
-                return factory.createToken(Catcode.ESCAPE, (UnicodeChar) uchar,
-                        sb.toString(), namespace);
+                return factory.createControlSequence((UnicodeChar) uchar,
+                        csName, namespace);
 
             } else {
                 state = MID_LINE;
@@ -467,7 +480,7 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
      *
      * @param config the configuration object for this instance; This
      *   configuration is ignored in this implementation.
-     * @param options ignored here
+     * @param options the options providing the line filter
      * @param theSource the description of the information source; e.g. the
      *   file name
      * @param encoding the encoding to use
@@ -503,6 +516,7 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
         }
 
         this.source = theSource;
+        this.options = options;
         this.in = new LineNumberReader(new InputStreamReader(inputStream,
                 encoding));
 
@@ -513,7 +527,7 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
      *
      * @param config the configuration object for this instance; This
      *   configuration is ignored in this implementation.
-     * @param options ignored here
+     * @param options the options providing the line filter
      * @param reader the reader
      * @param isFile indicator for file streams
      * @param theSource the description of the input source
@@ -527,6 +541,7 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
         super(isFile.booleanValue());
         this.in = new LineNumberReader(reader);
         this.source = theSource;
+        this.options = options;
     }
 
     /**
@@ -534,7 +549,7 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
      *
      * @param config the configuration object for this instance; This
      *   configuration is ignored in this implementation.
-     * @param options ignored here
+     * @param options the options providing the line filter
      * @param theLine the string to use as source for characters
      * @param theSource the description of the input source
      *
@@ -547,6 +562,7 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
         super(false);
         this.in = new LineNumberReader(new StringReader(theLine));
         this.source = theSource;
+        this.options = options;
     }
 
     /**
@@ -679,6 +695,51 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
         return t;
     }
 
+    /**
+     * Get the next code token when the stack is empty. Only escape characters,
+     * active characters, comments, invalid characters, and the end of an
+     * empty line are passed to the tokenizing visitor. All other characters
+     * merely advance the state of the scanner; no tokens are created for
+     * them.
+     *
+     * @see de.dante.extex.scanner.stream.impl.TokenStreamBaseImpl#getNextCodeToken(
+     *      de.dante.extex.scanner.type.token.TokenFactory,
+     *      de.dante.extex.interpreter.Tokenizer)
+     */
+    protected CodeToken getNextCodeToken(final TokenFactory factory,
+            final Tokenizer tokenizer) throws ScannerException {
+
+        for (;;) {
+            UnicodeChar uc = getChar(tokenizer);
+            if (uc == null) {
+                return null;
+            }
+
+            Catcode cc = tokenizer.getCatcode(uc);
+            if (cc == Catcode.ESCAPE || cc == Catcode.ACTIVE
+                    || cc == Catcode.COMMENT || cc == Catcode.INVALID
+                    || (cc == Catcode.CR && state == NEW_LINE)) {
+                Object t;
+                try {
+                    t = cc.visit(visitor, factory, tokenizer, uc);
+                } catch (Exception e) {
+                    throw new ScannerException(e);
+                }
+                if (t instanceof CodeToken) {
+                    return (CodeToken) t;
+                }
+            } else if (cc == Catcode.CR) {
+                endLine();
+            } else if (cc == Catcode.SPACE) {
+                if (state == MID_LINE) {
+                    state = SKIP_BLANKS;
+                }
+            } else if (cc != Catcode.IGNORE) {
+                state = MID_LINE;
+            }
+        }
+    }
+
     /**
      * Get the next character from the input line.
      *
@@ -767,6 +828,12 @@ public class TokenStreamImpl extends TokenStreamBaseImpl implements TokenStream
         } catch (IOException e) {
             throw new ScannerException(e);
         }
+        if (options != null) {
+            LineFilter filter = options.getLineFilter();
+            if (filter != null) {
+                line = filter.filter(line);
+            }
+        }
         pointer = 0;
         return true;
     }
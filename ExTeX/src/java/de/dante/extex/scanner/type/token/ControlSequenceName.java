@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.scanner.type.token;
+
+import de.dante.util.UnicodeChar;
+
+/**
+ * This class is a reusable buffer for the name of a control sequence while
+ * it is being scanned. The characters are stored as UTF-16 code units and the
+ * hash code is maintained incrementally as characters are appended. The hash
+ * code is the same as the one of the corresponding {@link String}.
+ * <p>
+ *  The buffer is handed to
+ *  {@link TokenFactory#createControlSequence(UnicodeChar, ControlSequenceName, String)
+ *  createControlSequence()} to get the interned control sequence token. No
+ *  string is constructed if the token is already known.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ControlSequenceName {
+
+    /**
+     * The constant <tt>INITIAL_SIZE</tt> contains the initial capacity.
+     */
+    private static final int INITIAL_SIZE = 32;
+
+    /**
+     * The constant <tt>HASH_FACTOR</tt> contains the factor for the
+     * incremental hash. It is the one used by {@link String#hashCode()}.
+     */
+    private static final int HASH_FACTOR = 31;
+
+    /**
+     * The constant <tt>SUPPLEMENTARY_MIN</tt> contains the first code point
+     * which needs a surrogate pair.
+     */
+    private static final int SUPPLEMENTARY_MIN = 0x10000;
+
+    /**
+     * The field <tt>chars</tt> contains the characters.
+     */
+    private char[] chars;
+
+    /**
+     * The field <tt>hash</tt> contains the hash code of the characters
+     * appended so far.
+     */
+    private int hash = 0;
+
+    /**
+     * The field <tt>length</tt> contains the number of characters used.
+     */
+    private int length = 0;
+
+    /**
+     * Creates a new object.
+     */
+    public ControlSequenceName() {
+
+        super();
+        chars = new char[INITIAL_SIZE];
+    }
+
+    /**
+     * Append a single UTF-16 code unit.
+     *
+     * @param c the character to append
+     */
+    private void add(final char c) {
+
+        if (length == chars.length) {
+            char[] b = new char[2 * chars.length];
+            System.arraycopy(chars, 0, b, 0, length);
+            chars = b;
+        }
+        chars[length++] = c;
+        hash = HASH_FACTOR * hash + c;
+    }
+
+    /**
+     * Append a code point. Code points outside the basic multilingual plane
+     * are stored as surrogate pair.
+     *
+     * @param codePoint the code point to append
+     */
+    public void append(final int codePoint) {
+
+        if (codePoint < SUPPLEMENTARY_MIN) {
+            add((char) codePoint);
+        } else {
+            int c = codePoint - SUPPLEMENTARY_MIN;
+            add((char) (0xd800 + (c >> 10)));
+            add((char) (0xdc00 + (c & 0x3ff)));
+        }
+    }
+
+    /**
+     * Append a Unicode character.
+     *
+     * @param uc the character to append
+     */
+    public void append(final UnicodeChar uc) {
+
+        append(uc.getCodePoint());
+    }
+
+    /**
+     * Remove all characters.
+     */
+    public void clear() {
+
+        length = 0;
+        hash = 0;
+    }
+
+    /**
+     * Getter for the hash code of the characters. It is the same as the hash
+     * code of the string returned by {@link #toString()}.
+     *
+     * @return the hash code
+     */
+    public int getHash() {
+
+        return hash;
+    }
+
+    /**
+     * Getter for the number of UTF-16 code units in the buffer.
+     *
+     * @return the length
+     */
+    public int length() {
+
+        return length;
+    }
+
+    /**
+     * Compare the contents with a string.
+     *
+     * @param s the string to compare to
+     *
+     * @return <code>true</code> iff the string consists of the same
+     *  characters
+     */
+    public boolean matches(final String s) {
+
+        if (s.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the contents as string.
+     *
+     * @return the string
+     *
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+
+        return new String(chars, 0, length);
+    }
+
+}
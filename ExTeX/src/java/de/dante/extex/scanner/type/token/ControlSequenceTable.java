@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.scanner.type.token;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * This class provides the table of interned control sequence tokens. It
+ * corresponds to the <tt>hash</tt> array of <logo>TeX</logo>. The table uses
+ * open addressing with linear probing over the name and the name space of the
+ * tokens. The tokens are held by weak references; thus tokens no longer in use
+ * can be reclaimed.
+ * <p>
+ *  The lookup can be performed with a
+ *  {@link ControlSequenceName ControlSequenceName} whose hash code has been
+ *  computed while the name was scanned. In this case no string is constructed
+ *  when the token is found.
+ * </p>
+ * <p>
+ *  Slots whose token has been reclaimed are kept as tombstones to preserve
+ *  the probe sequences. They are reused for new entries and dropped when the
+ *  table is rehashed.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ControlSequenceTable {
+
+    /**
+     * The constant <tt>HASH_FACTOR</tt> contains the factor for the name space
+     * in the hash code. It is the one used in
+     * {@link ControlSequenceToken#hashCode()}.
+     */
+    private static final int HASH_FACTOR = 17;
+
+    /**
+     * The constant <tt>INITIAL_SIZE</tt> contains the initial number of slots.
+     * It has to be a power of 2.
+     */
+    private static final int INITIAL_SIZE = 1024;
+
+    /**
+     * The field <tt>hashes</tt> contains the hash codes of the tokens in the
+     * slots.
+     */
+    private int[] hashes;
+
+    /**
+     * The field <tt>refs</tt> contains the weak references to the tokens.
+     * A <code>null</code> entry marks a free slot.
+     */
+    private WeakReference[] refs;
+
+    /**
+     * The field <tt>used</tt> contains the number of slots in use, including
+     * the tombstones.
+     */
+    private int used = 0;
+
+    /**
+     * Creates a new object.
+     */
+    public ControlSequenceTable() {
+
+        super();
+        hashes = new int[INITIAL_SIZE];
+        refs = new WeakReference[INITIAL_SIZE];
+    }
+
+    /**
+     * Compute the hash code for a name and a name space. The result is the
+     * same as the hash code of the corresponding control sequence token.
+     *
+     * @param nameHash the hash code of the name
+     * @param namespace the name space
+     *
+     * @return the hash code
+     */
+    private static int hash(final int nameHash, final String namespace) {
+
+        return nameHash
+                + (namespace == null ? 0 : HASH_FACTOR * namespace.hashCode());
+    }
+
+    /**
+     * Compute the first slot to probe for a hash code. The bits are spread
+     * since the hash codes of similar names differ in the low bits only.
+     *
+     * @param h the hash code
+     * @param mask the mask for the table size
+     *
+     * @return the index of the first slot
+     */
+    private static int index(final int h, final int mask) {
+
+        return (h ^ (h >>> 16) ^ (h >>> 7)) & mask;
+    }
+
+    /**
+     * Search for a token. Exactly one of the arguments <tt>s</tt> and
+     * <tt>name</tt> has to be given.
+     *
+     * @param h the hash code
+     * @param namespace the name space
+     * @param s the name as string or <code>null</code>
+     * @param name the name as buffer or <code>null</code>
+     *
+     * @return the token or <code>null</code> if none is found
+     */
+    private ControlSequenceToken find(final int h, final String namespace,
+            final String s, final ControlSequenceName name) {
+
+        int mask = refs.length - 1;
+        for (int i = index(h, mask); refs[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] != h) {
+                continue;
+            }
+            ControlSequenceToken t = (ControlSequenceToken) refs[i].get();
+            if (t == null) {
+                continue;
+            }
+            String ns = t.getNamespace();
+            if (ns != namespace
+                    && (ns == null || !ns.equals(namespace))) {
+                continue;
+            }
+            if (s != null ? s.equals(t.getName()) : name.matches(t.getName())) {
+                return t;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the token for a name in a name space.
+     *
+     * @param name the name of the control sequence
+     * @param namespace the name space
+     *
+     * @return the token or <code>null</code> if none is known
+     */
+    public ControlSequenceToken get(final ControlSequenceName name,
+            final String namespace) {
+
+        return find(hash(name.getHash(), namespace), namespace, null, name);
+    }
+
+    /**
+     * Get the token for a name in a name space.
+     *
+     * @param name the name of the control sequence
+     * @param namespace the name space
+     *
+     * @return the token or <code>null</code> if none is known
+     */
+    public ControlSequenceToken get(final String name, final String namespace) {
+
+        return find(hash(name.hashCode(), namespace), namespace, name, null);
+    }
+
+    /**
+     * Add a token to the table. It is assumed that no token with the same
+     * name and name space is contained in the table.
+     *
+     * @param token the token to add
+     */
+    public void put(final ControlSequenceToken token) {
+
+        if (4 * (used + 1) > 3 * refs.length) {
+            rehash();
+        }
+        int h = hash(token.getName().hashCode(), token.getNamespace());
+        int mask = refs.length - 1;
+        int i = index(h, mask);
+        while (refs[i] != null && refs[i].get() != null) {
+            i = (i + 1) & mask;
+        }
+        if (refs[i] == null) {
+            used++;
+        }
+        hashes[i] = h;
+        refs[i] = new WeakReference(token);
+    }
+
+    /**
+     * Rebuild the table from the tokens still alive. The tombstones are
+     * dropped. The table is doubled if it would be more than half full
+     * otherwise.
+     */
+    private void rehash() {
+
+        int[] oldHashes = hashes;
+        WeakReference[] oldRefs = refs;
+        int live = 0;
+        for (int i = 0; i < oldRefs.length; i++) {
+            if (oldRefs[i] != null && oldRefs[i].get() != null) {
+                live++;
+            }
+        }
+        int size = oldRefs.length;
+        while (2 * (live + 1) > size) {
+            size *= 2;
+        }
+        hashes = new int[size];
+        refs = new WeakReference[size];
+        used = 0;
+        int mask = size - 1;
+        for (int i = 0; i < oldRefs.length; i++) {
+            if (oldRefs[i] != null && oldRefs[i].get() != null) {
+                int h = oldHashes[i];
+                int j = index(h, mask);
+                while (refs[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                hashes[j] = h;
+                refs[j] = oldRefs[i];
+                used++;
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of slots in use. This includes the slots of
+     * tokens which have been reclaimed but not yet removed.
+     *
+     * @return the number of slots in use
+     */
+    public int size() {
+
+        return used;
+    }
+
+}
@@ -34,6 +34,20 @@ import de.dante.util.UnicodeChar;
  */
 public interface TokenFactory {
 
+    /**
+     * Get an instance of a control sequence token for a name collected in a
+     * buffer. If the token is already known then no string is constructed for
+     * the name.
+     *
+     * @param esc the Unicode character value of the escape character
+     * @param name the name of the control sequence
+     * @param namespace the name space for the token
+     *
+     * @return the appropriate token
+     */
+    Token createControlSequence(UnicodeChar esc, ControlSequenceName name,
+            String namespace);
+
     /**
      * Get an instance of a token with a given Catcode and value.
      *
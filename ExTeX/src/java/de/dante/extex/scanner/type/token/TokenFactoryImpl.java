@@ -79,10 +79,10 @@ public class TokenFactoryImpl implements TokenFactory, CatcodeVisitor {
     private Map activeCache = new HashMap();
 
     /**
-     * The field <tt>csCache</tt> contains the cache for control sequence
-     * tokens.
+     * The field <tt>csTable</tt> contains the table of interned control
+     * sequence tokens.
      */
-    private Map csCache = new HashMap();
+    private ControlSequenceTable csTable = new ControlSequenceTable();
 
     /**
      * The field <tt>leftBraceCache</tt> contains the cache for left brace
@@ -141,6 +141,29 @@ public class TokenFactoryImpl implements TokenFactory, CatcodeVisitor {
         super();
     }
 
+    /**
+     * The lookup in the control sequence table uses the hash code of the
+     * name. A string for the name is constructed only if the token is not
+     * known yet.
+     *
+     * @see de.dante.extex.scanner.type.token.TokenFactory#createControlSequence(
+     *      de.dante.util.UnicodeChar,
+     *      de.dante.extex.scanner.type.token.ControlSequenceName,
+     *      java.lang.String)
+     */
+    public Token createControlSequence(final UnicodeChar esc,
+            final ControlSequenceName name, final String namespace) {
+
+        ControlSequenceToken token = csTable.get(name, namespace);
+
+        if (token == null) {
+            token = new ControlSequenceToken(esc, name.toString(), namespace);
+            csTable.put(token);
+        }
+
+        return token;
+    }
+
     /**
      * @see de.dante.extex.scanner.type.token.TokenFactory#createToken(
      *      de.dante.extex.scanner.type.Catcode,
@@ -277,6 +300,9 @@ public class TokenFactoryImpl implements TokenFactory, CatcodeVisitor {
     }
 
     /**
+     * Control sequence tokens are interned in the control sequence table.
+     * Thus a lookup in the table precedes the creation of a new token.
+     *
      * @see de.dante.extex.scanner.type.CatcodeVisitor#visitEscape(
      *      java.lang.Object,
      *      java.lang.Object, java.lang.Object)
@@ -294,22 +320,12 @@ public class TokenFactoryImpl implements TokenFactory, CatcodeVisitor {
         }
 
         String namespace = (String) oNamespace;
-        Map map = (Map) (csCache.get(namespace));
+        ControlSequenceToken token = csTable.get(value, namespace);
 
-        if (map == null) {
-            map = new HashMap();
-            csCache.put(namespace, map);
-        }
-
-        Object token = map.get(value);
-
-        if (token != null) {
-            token = ((WeakReference) token).get();
-        }
         if (token == null) {
             token = new ControlSequenceToken((UnicodeChar) oChar, value,
                     namespace);
-            map.put(value, new WeakReference(token));
+            csTable.put(token);
         }
 
         return token;
@@ -52,6 +52,17 @@ public interface Typesetter extends ListMaker {
      */
     void clearShipoutMark();
 
+    /**
+     * Wait for all paragraphs which are broken into lines in the background
+     * and add the lines to their lists. Afterwards all registers affected by
+     * the paragraph builder, e.g. <tt>\prevgraf</tt>, carry their final
+     * values. Display formulas typeset in the background are completed as
+     * well.
+     *
+     * @throws TypesetterException in case of an error
+     */
+    void completeParagraphs() throws TypesetterException;
+
     /**
      * Switch to horizontal mode if necessary.
      * If the current mode is a horizontal mode then nothing is done.
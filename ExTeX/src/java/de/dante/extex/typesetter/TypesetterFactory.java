@@ -123,6 +123,10 @@ public class TypesetterFactory extends AbstractFactory {
      * Make a new page builder according to the specification in the
      * configuration. The sub-configuration <code>PageBuilder</code> is used
      * to determine the requested properties.
+     * <p>
+     *  This method can be overwritten in derived classes to wrap or replace
+     *  the page builder.
+     * </p>
      *
      * @param config the configuration to use
      * @param context the interpreter context
@@ -133,7 +137,7 @@ public class TypesetterFactory extends AbstractFactory {
      * @throws ConfigurationException in case of an configuration error
      * @throws TypesetterException in case of an error
      */
-    private PageBuilder makePageBuilder(final Configuration config,
+    protected PageBuilder makePageBuilder(final Configuration config,
             final Context context, final Typesetter typesetter)
             throws ConfigurationException,
                 TypesetterException {
@@ -154,6 +158,10 @@ public class TypesetterFactory extends AbstractFactory {
      * Make a new paragraph builder according to the specification in the
      * configuration. The sub-configuration <code>ParagraphBuilder</code> is used
      * to determine the requested properties.
+     * <p>
+     *  This method can be overwritten in derived classes to wrap or replace
+     *  the paragraph builder.
+     * </p>
      *
      * @param config the configuration to use
      * @param options the typesetter options
@@ -163,7 +171,7 @@ public class TypesetterFactory extends AbstractFactory {
      *
      * @throws ConfigurationException in case of an configuration error
      */
-    private ParagraphBuilder makeParagraphBuilder(final Configuration config,
+    protected ParagraphBuilder makeParagraphBuilder(final Configuration config,
             final TypesetterOptions options, final NodeFactory nodeFactory)
             throws ConfigurationException {
 
@@ -129,6 +129,13 @@ public class NullTypesetterImpl implements Typesetter {
 
     }
 
+    /**
+     * @see de.dante.extex.typesetter.Typesetter#completeParagraphs()
+     */
+    public void completeParagraphs() throws TypesetterException {
+
+    }
+
     /**
      * @see de.dante.extex.typesetter.Typesetter#complete(TypesetterOptions)
      */
@@ -44,11 +44,16 @@ import de.dante.extex.typesetter.exception.TypesetterUnsupportedException;
 import de.dante.extex.typesetter.listMaker.HorizontalListMaker;
 import de.dante.extex.typesetter.listMaker.ListManager;
 import de.dante.extex.typesetter.listMaker.VerticalListMaker;
+import de.dante.extex.typesetter.listMaker.math.DisplayMathTask;
 import de.dante.extex.typesetter.output.OutputRoutine;
 import de.dante.extex.typesetter.pageBuilder.PageBuilder;
+import de.dante.extex.typesetter.paragraphBuilder.ConcurrentParagraphBuilder;
 import de.dante.extex.typesetter.paragraphBuilder.ParagraphBuilder;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphTask;
 import de.dante.extex.typesetter.type.Node;
 import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.noad.Noad;
+import de.dante.extex.typesetter.type.noad.util.DetachedMathOptions;
 import de.dante.extex.typesetter.type.node.HorizontalListNode;
 import de.dante.extex.typesetter.type.node.InsertionNode;
 import de.dante.extex.typesetter.type.node.PenaltyNode;
@@ -57,15 +62,59 @@ import de.dante.extex.typesetter.type.node.factory.CachingNodeFactory;
 import de.dante.extex.typesetter.type.node.factory.NodeFactory;
 import de.dante.util.Locator;
 import de.dante.util.UnicodeChar;
+import de.dante.util.framework.configuration.Configurable;
+import de.dante.util.framework.configuration.Configuration;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.configuration.exception.ConfigurationSyntaxException;
 import de.dante.util.framework.i18n.Localizable;
 import de.dante.util.framework.i18n.Localizer;
 import de.dante.util.framework.logger.LogEnabled;
+import de.dante.util.worker.Future;
+import de.dante.util.worker.WorkerException;
+import de.dante.util.worker.WorkerPool;
 
 /**
  * This is a reference implementation of the
  * {@link de.dante.extex.typesetter.Typesetter Typesetter} interface.
  *
+ * <h3>Configuration</h3>
+ * <p>
+ *  The attribute <tt>paragraphThreads</tt> contains the number of worker
+ *  threads used to break paragraphs into lines. If it is missing or 0 then
+ *  the paragraphs are broken immediately when they are complete.
+ * </p>
+ * <p>
+ *  Otherwise a paragraph contributing to an internal vertical list is handed
+ *  to a worker thread if the paragraph builder is a
+ *  {@link ConcurrentParagraphBuilder ConcurrentParagraphBuilder}. The
+ *  interpreter continues with the next paragraph in the meantime. The lines
+ *  are added to the vertical list as soon as this list is inspected,
+ *  modified, or completed, the next paragraph is complete, or
+ *  <tt>\prevgraf</tt> is used.
+ * </p>
+ * <p>
+ *  Paragraphs contributing to the main vertical list are always broken
+ *  immediately. The page builder is invoked at the end of each of them and
+ *  needs the lines to decide whether a page is complete. If it is then the
+ *  output routine is run at once and sees the registers and marks as they
+ *  are at the end of the paragraph. This decision can not be made without
+ *  the lines and it can not be postponed without changing the result.
+ *  Thus only paragraphs in boxes, insertions and the output routine are
+ *  broken in the background.
+ * </p>
+ * <p>
+ *  The attribute <tt>mathThreads</tt> contains the number of worker threads
+ *  used to translate display formulas into nodes. If it is missing or 0 then
+ *  display formulas are typeset immediately when they are complete.
+ *  Otherwise the options needed are recorded when the display is complete
+ *  and the formula is typeset in a worker thread while the interpreter
+ *  continues with the paragraph. The nodes are joined before the paragraph
+ *  is inspected or completed. With <tt>\tracinglostchars</tt> the formula
+ *  is typeset immediately. Since only the fonts of the families 0 to 15 are
+ *  recorded a formula using a further family is typeset immediately as
+ *  well.
+ * </p>
+ *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @author <a href="mailto:m.g.n@gmx.de">Michael Niedermair</a>
  * @version $Revision: 1.97 $
@@ -74,15 +123,94 @@ public class TypesetterImpl
         implements
             Typesetter,
             ListManager,
+            Configurable,
             Localizable,
             LogEnabled {
 
+    /**
+     * This inner class holds the information about a display formula which
+     * is typeset in a worker thread.
+     */
+    private static final class PendingDisplay {
+
+        /**
+         * The field <tt>future</tt> contains the future for the result of the
+         * task.
+         */
+        private Future future;
+
+        /**
+         * The field <tt>target</tt> contains the list maker the formula has
+         * been added to.
+         */
+        private ListMaker target;
+
+        /**
+         * Creates a new object.
+         *
+         * @param theFuture the future for the result of the task
+         * @param theTarget the list maker the formula has been added to
+         */
+        public PendingDisplay(final Future theFuture, final ListMaker theTarget) {
+
+            super();
+            this.future = theFuture;
+            this.target = theTarget;
+        }
+    }
+
+    /**
+     * This inner class holds the information about a paragraph which is
+     * broken into lines in a worker thread.
+     */
+    private static final class PendingParagraph {
+
+        /**
+         * The field <tt>future</tt> contains the future for the result of the
+         * task.
+         */
+        private Future future;
+
+        /**
+         * The field <tt>target</tt> contains the list maker to receive the
+         * lines.
+         */
+        private ListMaker target;
+
+        /**
+         * The field <tt>task</tt> contains the task breaking the paragraph.
+         */
+        private ParagraphTask task;
+
+        /**
+         * Creates a new object.
+         *
+         * @param theTask the task breaking the paragraph
+         * @param theFuture the future for the result of the task
+         * @param theTarget the list maker to receive the lines
+         */
+        public PendingParagraph(final ParagraphTask theTask,
+                final Future theFuture, final ListMaker theTarget) {
+
+            super();
+            this.task = theTask;
+            this.future = theFuture;
+            this.target = theTarget;
+        }
+    }
+
     /**
      * The field <tt>backend</tt> contains the back-end driver for
      * producing the output.
      */
     private BackendDriver backend = null;
 
+    /**
+     * The field <tt>deferrable</tt> indicates that the paragraph currently
+     * completed may be broken into lines in a worker thread.
+     */
+    private boolean deferrable = false;
+
     /**
      * The field <tt>listMaker</tt> contains the current list maker for
      * efficiency. Thus we can avoid to peek at the stack whenever the list
@@ -95,6 +223,12 @@ public class TypesetterImpl
      */
     private Localizer localizer;
 
+    /**
+     * The field <tt>mathPool</tt> contains the worker pool for typesetting
+     * display formulas or <code>null</code> if they are typeset immediately.
+     */
+    private WorkerPool mathPool = null;
+
     /**
      * The field <tt>logger</tt> contains the logger to use.
      */
@@ -127,6 +261,39 @@ public class TypesetterImpl
      */
     private ParagraphBuilder paragraphBuilder = null;
 
+    /**
+     * The field <tt>pending</tt> contains the paragraph currently broken in a
+     * worker thread or <code>null</code> if none.
+     */
+    private PendingParagraph pending = null;
+
+    /**
+     * The field <tt>pendingDisplays</tt> contains the display formulas
+     * currently typeset in worker threads in the order of their creation.
+     */
+    private ArrayList pendingDisplays = new ArrayList();
+
+    /**
+     * The field <tt>pendingError</tt> contains the exception encountered when
+     * the pending paragraph has been completed at a place where it could not
+     * be reported. It is reported at the next opportunity.
+     */
+    private TypesetterException pendingError = null;
+
+    /**
+     * The field <tt>pool</tt> contains the worker pool for breaking
+     * paragraphs or <code>null</code> if paragraphs are broken immediately.
+     */
+    private WorkerPool pool = null;
+
+    /**
+     * The field <tt>prepared</tt> contains the task for the paragraph which
+     * has just been prepared by
+     * {@link #buildParagraph(HorizontalListNode) buildParagraph()} or
+     * <code>null</code>.
+     */
+    private ParagraphTask prepared = null;
+
     /**
      * The field <tt>saveStack</tt> contains the stack of list makers.
      */
@@ -156,6 +323,7 @@ public class TypesetterImpl
      */
     public void add(final FixedGlue glue) throws TypesetterException {
 
+        synchronize();
         listMaker.add(glue);
     }
 
@@ -171,6 +339,7 @@ public class TypesetterImpl
             return;
         }
 
+        synchronize();
         listMaker.add(node);
 
         if (saveStack == null
@@ -194,6 +363,7 @@ public class TypesetterImpl
             throws TypesetterException,
                 ConfigurationException {
 
+        synchronize();
         listMaker.addAndAdjust(list, options);
     }
 
@@ -226,6 +396,14 @@ public class TypesetterImpl
     public NodeList buildParagraph(final HorizontalListNode nodes)
             throws TypesetterException {
 
+        if (deferrable
+                && paragraphBuilder instanceof ConcurrentParagraphBuilder) {
+            prepared = ((ConcurrentParagraphBuilder) paragraphBuilder)
+                    .prepare(nodes);
+            if (prepared != null) {
+                return new VerticalListNode();
+            }
+        }
         return this.paragraphBuilder.build(nodes);
     }
 
@@ -244,11 +422,215 @@ public class TypesetterImpl
             throws TypesetterException,
                 ConfigurationException {
 
+        synchronize();
+        completeDisplays(listMaker);
         NodeList nodes = listMaker.complete(context);
         pop();
         return nodes;
     }
 
+    /**
+     * @see de.dante.extex.typesetter.Typesetter#completeParagraphs()
+     */
+    public void completeParagraphs() throws TypesetterException {
+
+        if (pendingError != null) {
+            TypesetterException e = pendingError;
+            pendingError = null;
+            throw e;
+        }
+        completeDisplays();
+        if (pending == null) {
+            return;
+        }
+        PendingParagraph par = pending;
+        pending = null;
+        NodeList list;
+        try {
+            list = par.task.complete(par.future.get());
+        } catch (WorkerException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TypesetterException) {
+                throw (TypesetterException) cause;
+            }
+            throw new TypesetterException(cause);
+        }
+        try {
+            par.target.addAndAdjust(list, options);
+        } catch (ConfigurationException e) {
+            throw new TypesetterException(e);
+        }
+    }
+
+    /**
+     * Wait for all display formulas which are typeset in worker threads.
+     * Afterwards their node lists are complete.
+     *
+     * @throws TypesetterException in case of an error
+     */
+    private void completeDisplays() throws TypesetterException {
+
+        while (!pendingDisplays.isEmpty()) {
+            PendingDisplay display = (PendingDisplay) pendingDisplays.remove(0);
+            try {
+                display.future.get();
+            } catch (WorkerException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof TypesetterException) {
+                    throw (TypesetterException) cause;
+                }
+                throw new TypesetterException(cause);
+            }
+        }
+    }
+
+    /**
+     * Wait for the display formulas which are typeset in worker threads if
+     * one of them contributes to a given list maker.
+     *
+     * @param target the list maker
+     *
+     * @throws TypesetterException in case of an error
+     */
+    private void completeDisplays(final ListMaker target)
+            throws TypesetterException {
+
+        if (hasPendingDisplay(target)) {
+            completeDisplays();
+        }
+    }
+
+    /**
+     * Check whether a display formula is typeset in a worker thread which
+     * contributes to a given list maker.
+     *
+     * @param target the list maker
+     *
+     * @return <code>true</code> iff such a display formula exists
+     */
+    private boolean hasPendingDisplay(final ListMaker target) {
+
+        for (int i = 0; i < pendingDisplays.size(); i++) {
+            if (((PendingDisplay) pendingDisplays.get(i)).target == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Complete the pending paragraph if it contributes to the current list.
+     *
+     * @throws TypesetterException in case of an error
+     */
+    private void synchronize() throws TypesetterException {
+
+        if (pendingError != null
+                || (pending != null && pending.target == listMaker)) {
+            completeParagraphs();
+        }
+    }
+
+    /**
+     * Complete the pending paragraph or display formulas if they contribute
+     * to the current list. This method is used in places where no exception
+     * can be reported. An exception is kept and reported by the next
+     * invocation of {@link #completeParagraphs() completeParagraphs()}.
+     */
+    private void synchronizeLater() {
+
+        if ((pending == null || pending.target != listMaker)
+                && !hasPendingDisplay(listMaker)) {
+            return;
+        }
+        completeParagraphsLater();
+    }
+
+    /**
+     * Complete the pending paragraph and display formulas regardless of the
+     * list they contribute to. This method is used in places where no
+     * exception can be reported. An exception is kept and reported by the
+     * next invocation of {@link #completeParagraphs() completeParagraphs()}.
+     */
+    private void completeParagraphsLater() {
+
+        try {
+            completeParagraphs();
+        } catch (TypesetterException e) {
+            pendingError = e;
+        }
+    }
+
+    /**
+     * Configure the typesetter.
+     * The attribute <tt>paragraphThreads</tt> is used to determine the
+     * number of worker threads for breaking paragraphs. The attribute
+     * <tt>mathThreads</tt> is used to determine the number of worker threads
+     * for typesetting display formulas.
+     *
+     * @param config the configuration to use
+     *
+     * @throws ConfigurationException in case of an configuration error
+     *
+     * @see de.dante.util.framework.configuration.Configurable#configure(
+     *      de.dante.util.framework.configuration.Configuration)
+     */
+    public void configure(final Configuration config)
+            throws ConfigurationException {
+
+        int n = getThreads(config, "paragraphThreads");
+        if (n >= 0) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+            if (n > 0) {
+                pool = new WorkerPool(n, "paragraph");
+            }
+        }
+        n = getThreads(config, "mathThreads");
+        if (n >= 0) {
+            if (mathPool != null) {
+                mathPool.shutdown();
+                mathPool = null;
+            }
+            if (n > 0) {
+                mathPool = new WorkerPool(n, "math");
+            }
+        }
+    }
+
+    /**
+     * Get the number of threads from an attribute of the configuration.
+     *
+     * @param config the configuration
+     * @param attribute the name of the attribute
+     *
+     * @return the number of threads or -1 if the attribute is not set
+     *
+     * @throws ConfigurationException in case of an configuration error
+     */
+    private int getThreads(final Configuration config, final String attribute)
+            throws ConfigurationException {
+
+        String threads = config.getAttribute(attribute);
+        if (threads == null || threads.trim().equals("")) {
+            return -1;
+        }
+        int n;
+        try {
+            n = Integer.parseInt(threads.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationSyntaxException(e.getLocalizedMessage(),
+                    config.toString() + "#" + attribute);
+        }
+        if (n < 0) {
+            throw new ConfigurationSyntaxException(threads, config.toString()
+                    + "#" + attribute);
+        }
+        return n;
+    }
+
     /**
      * @see de.dante.extex.typesetter.ListMaker#cr(
      *      de.dante.extex.interpreter.context.Context,
@@ -296,8 +678,24 @@ public class TypesetterImpl
             throws TypesetterException,
                 ConfigurationException {
 
-        NodeList list = listMaker.complete(options);
+        completeParagraphs();
+
+        NodeList list;
+        // the page builder needs the lines of the main vertical list at once;
+        // see the class documentation
+        deferrable = (pool != null && saveStack.size() > 1);
+        try {
+            list = listMaker.complete(options);
+        } finally {
+            deferrable = false;
+        }
         pop();
+        if (prepared != null) {
+            pending = new PendingParagraph(prepared, pool.submit(prepared),
+                    listMaker);
+            prepared = null;
+            return;
+        }
         if (list instanceof VerticalListNode) {
             listMaker.addAndAdjust(list, options);
         } else if (list instanceof HorizontalListNode) {
@@ -329,11 +727,19 @@ public class TypesetterImpl
     public void finish() throws TypesetterException, ConfigurationException {
 
         par();
+        completeParagraphs();
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (mathPool != null) {
+            mathPool.shutdown();
+        }
         pageBuilder.flush(listMaker.complete(options), this);
         if (saveStack != null && saveStack.size() != 0) {
             throw new InternalError("typesetter.saveStack.notEmpty");
         }
         pageBuilder.close();
+        nodeFactory.close();
     }
 
     /**
@@ -353,6 +759,7 @@ public class TypesetterImpl
      */
     public Node getLastNode() {
 
+        synchronizeLater();
         return listMaker.getLastNode();
     }
 
@@ -361,6 +768,8 @@ public class TypesetterImpl
      */
     public ListMaker getListMaker() {
 
+        // the list maker may be kept and used after outer lists are exposed
+        completeParagraphsLater();
         return listMaker;
     }
 
@@ -414,6 +823,7 @@ public class TypesetterImpl
      */
     public FixedDimen getPrevDepth() throws TypesetterUnsupportedException {
 
+        synchronizeLater();
         return this.listMaker.getPrevDepth();
     }
 
@@ -474,6 +884,7 @@ public class TypesetterImpl
      */
     public void par() throws TypesetterException, ConfigurationException {
 
+        completeDisplays(listMaker);
         listMaker.par();
 
         if (saveStack.size() == 0) {
@@ -510,6 +921,7 @@ public class TypesetterImpl
      */
     public void removeLastNode() {
 
+        synchronizeLater();
         if (listMaker != null) {
             listMaker.removeLastNode();
         }
@@ -602,6 +1014,7 @@ public class TypesetterImpl
     public void setPrevDepth(final FixedDimen pd)
             throws TypesetterUnsupportedException {
 
+        synchronizeLater();
         listMaker.setPrevDepth(pd);
     }
 
@@ -640,6 +1053,7 @@ public class TypesetterImpl
     public void showlist(final StringBuffer sb, final long depth,
             final long breadth) {
 
+        synchronizeLater();
         listMaker.showlist(sb, depth, breadth);
     }
 
@@ -650,6 +1064,8 @@ public class TypesetterImpl
     public void showlists(final StringBuffer sb, final long depth,
             final long breadth) {
 
+        // all levels are shown; thus all pending material is needed
+        completeParagraphsLater();
         sb.append(localizer.format("Showlist.Format", listMaker.getMode()
                 .toString(), Integer.toString(listMaker.getLocator()
                 .getLineNumber())));
@@ -702,6 +1118,30 @@ public class TypesetterImpl
         listMaker.tab(context, source, t);
     }
 
+    /**
+     * @see de.dante.extex.typesetter.listMaker.ListManager#typesetDisplay(
+     *      de.dante.extex.typesetter.type.noad.Noad,
+     *      java.util.logging.Logger)
+     */
+    public HorizontalListNode typesetDisplay(final Noad noads,
+            final Logger log)
+            throws TypesetterException,
+                ConfigurationException {
+
+        if (mathPool == null || saveStack.isEmpty()
+                || options.getCountOption("tracinglostchars").gt(Count.ZERO)
+                || !DetachedMathOptions.isSufficient(noads)) {
+            DisplayMathTask task = new DisplayMathTask(noads, options, log);
+            task.typeset();
+            return task.getList();
+        }
+        DisplayMathTask task = new DisplayMathTask(noads,
+                new DetachedMathOptions(options), log);
+        pendingDisplays.add(new PendingDisplay(mathPool.submit(task),
+                (ListMaker) saveStack.get(saveStack.size() - 1)));
+        return task.getList();
+    }
+
     /**
      * @see java.lang.Object#toString()
      */
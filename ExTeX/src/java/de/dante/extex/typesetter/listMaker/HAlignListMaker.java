@@ -19,7 +19,6 @@
 
 package de.dante.extex.typesetter.listMaker;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import de.dante.extex.interpreter.TokenSource;
@@ -45,6 +44,13 @@ import de.dante.util.framework.configuration.exception.ConfigurationException;
 
 /**
  * This class provides a list maker for horizontal alignments.
+ * <p>
+ * The rows are collected in their final form while the alignment is read:
+ * each row is a horizontal list of the cells and the maximal width of each
+ * column is updated as soon as a cell is complete. When the alignment is
+ * complete the cells are packed to the width of their column in a single
+ * pass over the rows.
+ * </p>
  *
  * @see "TTP [770]"
  *
@@ -56,63 +62,10 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
             AlignmentList {
 
     /**
-     * This inner class is a container for the cell information in an alignment.
-     *
-     * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
-     * @version $Revision: 1.22 $
+     * The constant <tt>INITIAL_CELLS</tt> contains the initial size of the
+     * array of cell columns. The size is doubled when it is full.
      */
-    protected class Cell {
-
-        /**
-         * The field <tt>list</tt> contains the nodes of this cell.
-         */
-        private NodeList list = null;
-
-        /**
-         * The field <tt>span</tt> contains the indicator that this cell should
-         * be joined with the next cell when generating boxes.
-         */
-        private boolean span = false;
-
-        /**
-         * Creates a new object.
-         *
-         * @param nodes the nodes of this cell
-         */
-        public Cell(final NodeList nodes) {
-
-            super();
-            list = nodes;
-        }
-
-        /**
-         * Getter for list.
-         *
-         * @return the list.
-         */
-        public NodeList getList() {
-
-            return this.list;
-        }
-
-        /**
-         * Getter for span.
-         *
-         * @return the span.
-         */
-        public boolean isSpan() {
-
-            return this.span;
-        }
-
-        /**
-         * Setter for span.
-         */
-        public void setSpan() {
-
-            this.span = true;
-        }
-    }
+    private static final int INITIAL_CELLS = 256;
 
     /**
      * The constant <tt>FIXED</tt> contains the default format consisting of
@@ -132,9 +85,23 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
     private PreambleItem format;
 
     /**
-     * The field <tt>line</tt> contains the cells of the current line.
+     * The field <tt>cells</tt> contains the number of cells recorded in
+     * {@link #columns columns}.
      */
-    private Cell[] line;
+    private int cells = 0;
+
+    /**
+     * The field <tt>columns</tt> contains the column of each cell in the
+     * order the cells have been added to the rows. It is needed to find the
+     * width of a cell when columns have been skipped with <tt>\span</tt>.
+     */
+    private int[] columns = new int[INITIAL_CELLS];
+
+    /**
+     * The field <tt>line</tt> contains the cells of the current line as
+     * horizontal list.
+     */
+    private NodeList line;
 
     /**
      * The field <tt>preamble</tt> contains the preamble for this halign.
@@ -142,9 +109,11 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
     private List preamble;
 
     /**
-     * The field <tt>rows</tt> contains the rows of this alignment.
+     * The field <tt>rows</tt> contains the completed rows of this alignment.
+     * The cells in the rows have their natural width until the alignment is
+     * complete.
      */
-    private List rows = new ArrayList();
+    private NodeList rows = new VerticalListNode();
 
     /**
      * The field <tt>spread</tt> contains the indicator that the width should
@@ -185,13 +154,12 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
         preamble = thePreamble;
         width = theWidth;
         spread = theSpread;
-        clearLine(context, source);
+        maxWidth = new Dimen[preamble.size()];
 
-        maxWidth = new Dimen[line.length];
-
-        for (int i = 0; i < line.length; i++) {
+        for (int i = 0; i < maxWidth.length; i++) {
             maxWidth[i] = new Dimen(0);
         }
+        clearLine(context, source);
     }
 
     /**
@@ -206,38 +174,31 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
             throws TypesetterException {
 
         col = 0;
-        line = new Cell[preamble.size()];
+        line = new HorizontalListNode();
         startCell(context, source);
     }
 
     /**
+     * The maximal width of each column is maintained while the cells are
+     * added. Thus the rows are already in place when the alignment is
+     * complete and only the cells have to be packed to the width of their
+     * columns.
+     *
      * @see de.dante.extex.typesetter.ListMaker#complete(TypesetterOptions)
      */
     public NodeList complete(final TypesetterOptions context)
             throws TypesetterException,
                 ConfigurationException {
 
-        NodeList result = new VerticalListNode();
-        NodeList nl;
+        int c = 0;
 
         for (int j = 0; j < rows.size(); j++) {
-            NodeList row = new HorizontalListNode();
-            line = (Cell[]) rows.get(j);
-
-            for (int i = 0; i < line.length; i++) {
-                Cell cell = line[i];
-                if (cell != null) {
-                    nl = cell.getList();
-                    if (nl instanceof HorizontalListNode) {
-                        ((HorizontalListNode) nl).hpack(new Dimen(maxWidth[i])); //TODO gene: check
-                    } else {
-                        //TODO gene: unimplemented
-                        throw new RuntimeException("unimplemented");
-                    }
-                    row.add(nl);
-                }
+            HorizontalListNode row = (HorizontalListNode) rows.get(j);
+
+            for (int i = 0; i < row.size(); i++) {
+                ((HorizontalListNode) row.get(i)).hpack(maxWidth[columns[c++]]);
             }
-            result.add(row);
+            row.hpack();
         }
 
         Dimen w = sum(maxWidth);
@@ -250,9 +211,9 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
             }
         }
 
-        result.setWidth(w);
+        rows.setWidth(w);
 
-        return result;
+        return rows;
     }
 
     /**
@@ -317,7 +278,7 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
     public void span(final Context context, final TokenSource source)
             throws TypesetterException {
 
-        if (col >= line.length) {
+        if (col >= maxWidth.length) {
             new HelpingException(getLocalizer(), "TTP.ExtraAlignTab", "???");
         }
         col++;
@@ -382,7 +343,7 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
             throws TypesetterException,
                 ConfigurationException {
 
-        if (col >= line.length) {
+        if (col >= maxWidth.length) {
             new HelpingException(getLocalizer(), "TTP.ExtraAlignTab", token
                     .toString());
         }
@@ -393,8 +354,19 @@ public class HAlignListMaker extends RestrictedHorizontalListMaker
             throw new TypesetterException(e);
         }
 
-        line[col] = new Cell(super.complete((TypesetterOptions) context));
-        maxWidth[col].max(line[col].getList().getWidth());
+        NodeList nodes = super.complete((TypesetterOptions) context);
+        // the cells are packed to the width of their column in complete()
+        HorizontalListNode cell = (nodes instanceof HorizontalListNode
+                ? (HorizontalListNode) nodes
+                : new HorizontalListNode(nodes));
+        maxWidth[col].max(cell.getWidth());
+        line.add(cell);
+        if (cells >= columns.length) {
+            int[] a = new int[2 * columns.length];
+            System.arraycopy(columns, 0, a, 0, cells);
+            columns = a;
+        }
+        columns[cells++] = col;
         setNodes(new HorizontalListNode());
         col++;
         startCell(context, source);
@@ -19,6 +19,8 @@
 
 package de.dante.extex.typesetter.listMaker;
 
+import java.util.logging.Logger;
+
 import de.dante.extex.interpreter.type.count.FixedCount;
 import de.dante.extex.typesetter.ListMaker;
 import de.dante.extex.typesetter.TypesetterOptions;
@@ -26,6 +28,7 @@ import de.dante.extex.typesetter.exception.InvalidSpacefactorException;
 import de.dante.extex.typesetter.exception.TypesetterException;
 import de.dante.extex.typesetter.exception.TypesetterUnsupportedException;
 import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.noad.Noad;
 import de.dante.extex.typesetter.type.node.HorizontalListNode;
 import de.dante.extex.typesetter.type.node.factory.NodeFactory;
 import de.dante.util.Locator;
@@ -116,4 +119,22 @@ public interface ListManager {
             throws TypesetterUnsupportedException,
                 InvalidSpacefactorException;
 
+    /**
+     * Translate the math list of a display formula into nodes. The manager
+     * may perform the translation in a worker thread. In this case the list
+     * returned is filled in the background. It is complete before the list
+     * it has been added to is inspected or completed.
+     *
+     * @param noads the math list
+     * @param logger the logger for tracing and warnings
+     *
+     * @return the horizontal list containing the nodes of the formula
+     *
+     * @throws TypesetterException in case of an error
+     * @throws ConfigurationException in case of an configuration problem
+     */
+    HorizontalListNode typesetDisplay(Noad noads, Logger logger)
+            throws TypesetterException,
+                ConfigurationException;
+
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.listMaker.math;
+
+import java.util.logging.Logger;
+
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.exception.TypesetterException;
+import de.dante.extex.typesetter.type.noad.Noad;
+import de.dante.extex.typesetter.type.noad.StyleNoad;
+import de.dante.extex.typesetter.type.noad.util.MathContext;
+import de.dante.extex.typesetter.type.node.HorizontalListNode;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.worker.Task;
+
+/**
+ * This class translates the math list of a display formula into nodes. The
+ * nodes are added to a horizontal list which exists from the beginning. Thus
+ * the list can be passed on while it is filled in a worker thread.
+ * <p>
+ *  The translation uses only the options passed in. To run the task in a
+ *  thread different from the interpreter they have to be detached from the
+ *  interpreter, e.g. with a
+ *  {@link de.dante.extex.typesetter.type.noad.util.DetachedMathOptions
+ *  DetachedMathOptions}.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class DisplayMathTask implements Task {
+
+    /**
+     * The field <tt>list</tt> contains the list to receive the nodes.
+     */
+    private HorizontalListNode list = new HorizontalListNode();
+
+    /**
+     * The field <tt>logger</tt> contains the logger.
+     */
+    private Logger logger;
+
+    /**
+     * The field <tt>noads</tt> contains the math list to typeset.
+     */
+    private Noad noads;
+
+    /**
+     * The field <tt>options</tt> contains the options to use.
+     */
+    private TypesetterOptions options;
+
+    /**
+     * Creates a new object.
+     *
+     * @param theNoads the math list to typeset
+     * @param theOptions the options to use
+     * @param theLogger the logger
+     */
+    public DisplayMathTask(final Noad theNoads,
+            final TypesetterOptions theOptions, final Logger theLogger) {
+
+        super();
+        this.noads = theNoads;
+        this.options = theOptions;
+        this.logger = theLogger;
+    }
+
+    /**
+     * Getter for the list receiving the nodes. The list is complete after
+     * {@link #typeset() typeset()} has finished.
+     *
+     * @return the list
+     */
+    public HorizontalListNode getList() {
+
+        return list;
+    }
+
+    /**
+     * @see de.dante.util.worker.Task#run()
+     */
+    public Object run() throws Exception {
+
+        typeset();
+        return list;
+    }
+
+    /**
+     * Translate the math list into nodes.
+     *
+     * @throws TypesetterException in case of an error
+     * @throws ConfigurationException in case of an configuration error
+     */
+    public void typeset() throws TypesetterException, ConfigurationException {
+
+        noads.typeset(null, null, 0, list, new MathContext(
+                StyleNoad.DISPLAYSTYLE, options), logger);
+        noads = null;
+    }
+
+}
@@ -34,8 +34,6 @@ import de.dante.extex.typesetter.exception.TypesetterException;
 import de.dante.extex.typesetter.listMaker.ListManager;
 import de.dante.extex.typesetter.type.NodeList;
 import de.dante.extex.typesetter.type.noad.MathList;
-import de.dante.extex.typesetter.type.noad.StyleNoad;
-import de.dante.extex.typesetter.type.noad.util.MathContext;
 import de.dante.extex.typesetter.type.node.HorizontalListNode;
 import de.dante.util.Locator;
 import de.dante.util.framework.configuration.exception.ConfigurationException;
@@ -139,15 +137,13 @@ public class DisplaymathListMaker extends MathListMaker implements EqConsumer {
                     "TTP.InsufficientExtensionFonts"));
         }
 
-        HorizontalListNode list = new HorizontalListNode();
-
         if (eqno != null && leq) {
             //TODO gene: leqno unimplemented
             throw new RuntimeException("unimplemented");
         }
 
-        getNoads().typeset(null, null, 0, list,
-                new MathContext(StyleNoad.DISPLAYSTYLE, context), getLogger());
+        HorizontalListNode list = getManager().typesetDisplay(getNoads(),
+                getLogger());
 
         if (eqno != null && !leq) {
             //TODO gene: eqno unimplemented
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.paragraphBuilder;
+
+import de.dante.extex.typesetter.exception.TypesetterException;
+import de.dante.extex.typesetter.type.node.HorizontalListNode;
+
+/**
+ * This interface describes a paragraph builder which is able to break a
+ * paragraph in a thread different from the interpreter. For this purpose the
+ * parameters are read from the options in advance and a
+ * {@link ParagraphTask ParagraphTask} is created which carries all
+ * information needed.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface ConcurrentParagraphBuilder extends ParagraphBuilder {
+
+    /**
+     * Prepare the breaking of a horizontal list into lines. All parameters
+     * are taken from the options at this point. The horizontal list passed in
+     * is owned by the task afterwards and must not be modified by the caller.
+     *
+     * @param nodes the horizontal node list containing all nodes for the
+     *   paragraph
+     *
+     * @return the task to break the paragraph or <code>null</code> if the
+     *   paragraph should be broken with {@link #build(HorizontalListNode)
+     *   build()} instead, e.g. because tracing is active
+     *
+     * @throws TypesetterException in case of an error
+     */
+    ParagraphTask prepare(HorizontalListNode nodes) throws TypesetterException;
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.paragraphBuilder;
+
+import de.dante.extex.typesetter.exception.TypesetterException;
+import de.dante.extex.typesetter.type.NodeList;
+import de.dante.util.worker.Task;
+
+/**
+ * This interface describes the breaking of a single paragraph which has been
+ * detached from the typesetter options. The method {@link #run() run()} may
+ * be invoked in a worker thread. It must not access the options or any other
+ * state shared with the interpreter.
+ * <p>
+ *  The result of {@link #run() run()} is either the finished list of lines or
+ *  <code>null</code> if the paragraph could not be broken without access to
+ *  the options, e.g. because hyphenation is required. In any case the
+ *  method {@link #complete(Object) complete()} has to be invoked in the
+ *  interpreter thread to obtain the final result.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface ParagraphTask extends Task {
+
+    /**
+     * Finish the breaking of the paragraph in the interpreter thread. Any
+     * remaining work is performed and the options are updated with the
+     * results of the paragraph, e.g. <tt>\prevgraf</tt>.
+     *
+     * @param result the result of the method {@link #run() run()}
+     *
+     * @return the
+     *   {@link de.dante.extex.typesetter.type.node.VerticalListNode
+     *   VerticalListNode} containing the hboxes of the lines
+     *
+     * @throws TypesetterException in case of an error
+     */
+    NodeList complete(Object result) throws TypesetterException;
+
+}
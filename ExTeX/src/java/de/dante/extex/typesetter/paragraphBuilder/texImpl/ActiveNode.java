@@ -176,6 +176,26 @@ public class ActiveNode {
         return this.hyphenated;
     }
 
+    /**
+     * Setter for all fields. This method is used to reuse an instance.
+     *
+     * @param theFitness the fitness classification
+     * @param theHyphenated the indicator for hyphenation at this break point
+     * @param theDemerits the demerits for this break point
+     * @param theLineNumber the sequence number of the line
+     * @param theBreakNode the index of the break
+     */
+    void set(final Fitness theFitness, final boolean theHyphenated,
+            final long theDemerits, final int theLineNumber,
+            final PassiveNode theBreakNode) {
+
+        this.fitness = theFitness;
+        this.hyphenated = theHyphenated;
+        this.demerits = theDemerits;
+        this.lineNumber = theLineNumber;
+        this.breakNode = theBreakNode;
+    }
+
     /**
      * @see java.lang.Object#toString()
      */
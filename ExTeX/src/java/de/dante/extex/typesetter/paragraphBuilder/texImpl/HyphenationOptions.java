@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.paragraphBuilder.texImpl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.dante.extex.interpreter.context.tc.TypesettingContext;
+import de.dante.extex.interpreter.context.tc.TypesettingContextFactory;
+import de.dante.extex.interpreter.type.count.FixedCount;
+import de.dante.extex.interpreter.type.dimen.FixedDimen;
+import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.interpreter.type.glue.FixedGlue;
+import de.dante.extex.interpreter.type.muskip.Muskip;
+import de.dante.extex.scanner.type.token.TokenFactory;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphShape;
+import de.dante.extex.typesetter.type.Node;
+import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.CharNode;
+import de.dante.extex.typesetter.type.node.LigatureNode;
+import de.dante.util.UnicodeChar;
+import de.dante.util.exception.GeneralException;
+
+/**
+ * This class provides the options for hyphenating a paragraph which is
+ * broken after the interpreter has continued. The <tt>\lccode</tt>s of
+ * all characters of the paragraph are recorded when the instance is created.
+ * Thus the hyphenation is not influenced by assignments made after the end
+ * of the paragraph. All other requests are passed to the options.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class HyphenationOptions implements TypesetterOptions {
+
+    /**
+     * The field <tt>lccodes</tt> contains the recorded <tt>\lccode</tt>s.
+     */
+    private Map lccodes = new HashMap();
+
+    /**
+     * The field <tt>options</tt> contains the options to pass other requests
+     * to.
+     */
+    private TypesetterOptions options;
+
+    /**
+     * Creates a new object and records the <tt>\lccode</tt>s of the
+     * characters in a paragraph.
+     *
+     * @param theOptions the options
+     * @param nodes the nodes of the paragraph
+     */
+    public HyphenationOptions(final TypesetterOptions theOptions,
+            final NodeList nodes) {
+
+        super();
+        this.options = theOptions;
+        int size = nodes.size();
+        for (int i = 0; i < size; i++) {
+            Node n = nodes.get(i);
+            if (n instanceof LigatureNode) {
+                CharNode[] chars = ((LigatureNode) n).getChars();
+                for (int j = 0; j < chars.length; j++) {
+                    record(chars[j].getCharacter());
+                }
+            } else if (n instanceof CharNode) {
+                record(((CharNode) n).getCharacter());
+            }
+        }
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getCountOption(
+     *      java.lang.String)
+     */
+    public FixedCount getCountOption(final String name) {
+
+        return options.getCountOption(name);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getDimenOption(
+     *      java.lang.String)
+     */
+    public FixedDimen getDimenOption(final String name) {
+
+        return options.getDimenOption(name);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getFont(
+     *      java.lang.String)
+     */
+    public Font getFont(final String name) {
+
+        return options.getFont(name);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getGlueOption(
+     *      java.lang.String)
+     */
+    public FixedGlue getGlueOption(final String name) {
+
+        return options.getGlueOption(name);
+    }
+
+    /**
+     * Getter for the <tt>\lccode</tt> of a character. The recorded value is
+     * used if the character has been part of the paragraph.
+     *
+     * @param uc the character
+     *
+     * @return the lower case equivalent
+     *
+     * @see de.dante.extex.typesetter.TypesetterOptions#getLccode(
+     *      de.dante.util.UnicodeChar)
+     */
+    public UnicodeChar getLccode(final UnicodeChar uc) {
+
+        if (lccodes.containsKey(uc)) {
+            return (UnicodeChar) lccodes.get(uc);
+        }
+        return options.getLccode(uc);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getMuskip(
+     *      java.lang.String)
+     */
+    public Muskip getMuskip(final String name) {
+
+        return options.getMuskip(name);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getNamespace()
+     */
+    public String getNamespace() {
+
+        return options.getNamespace();
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getParshape()
+     */
+    public ParagraphShape getParshape() {
+
+        return options.getParshape();
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getTokenFactory()
+     */
+    public TokenFactory getTokenFactory() {
+
+        return options.getTokenFactory();
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getTypesettingContext()
+     */
+    public TypesettingContext getTypesettingContext() {
+
+        return options.getTypesettingContext();
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getTypesettingContextFactory()
+     */
+    public TypesettingContextFactory getTypesettingContextFactory() {
+
+        return options.getTypesettingContextFactory();
+    }
+
+    /**
+     * Record the <tt>\lccode</tt> of a character.
+     *
+     * @param uc the character
+     */
+    private void record(final UnicodeChar uc) {
+
+        if (uc != null && !lccodes.containsKey(uc)) {
+            lccodes.put(uc, options.getLccode(uc));
+        }
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#setCountOption(
+     *      java.lang.String, long)
+     */
+    public void setCountOption(final String name, final long value)
+            throws GeneralException {
+
+        options.setCountOption(name, value);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#setParshape(
+     *      de.dante.extex.typesetter.paragraphBuilder.ParagraphShape)
+     */
+    public void setParshape(final ParagraphShape shape) {
+
+        options.setParshape(shape);
+    }
+
+}
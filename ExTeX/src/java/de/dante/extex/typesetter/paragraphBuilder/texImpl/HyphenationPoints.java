@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.paragraphBuilder.texImpl;
+
+import de.dante.extex.interpreter.type.dimen.FixedDimen;
+import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.interpreter.type.glue.FixedGlue;
+import de.dante.extex.language.hyphenation.BatchHyphenator;
+import de.dante.extex.language.hyphenation.exception.HyphenationException;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.CharNode;
+import de.dante.extex.typesetter.type.node.DiscretionaryNode;
+import de.dante.extex.typesetter.type.node.HorizontalListNode;
+import de.dante.extex.typesetter.type.node.ImplicitKernNode;
+import de.dante.extex.typesetter.type.node.factory.NodeFactory;
+import de.dante.util.UnicodeChar;
+
+/**
+ * This class contains the hyphenation points of a paragraph. The words of
+ * the paragraph are collected first. Then the hyphenator of the language is
+ * asked once for all words of the same language. The hyphenation points
+ * found are recorded in arrays of primitive values. No node is created at
+ * this time. Only when the line breaker has chosen a hyphenation point a
+ * discretionary node is created for it.
+ *
+ * <p>
+ *  The arrays are kept between the uses. They are only enlarged when a longer
+ *  paragraph comes along.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class HyphenationPoints {
+
+    /**
+     * The constant <tt>DEFAULT_SIZE</tt> contains the initial size of the
+     * arrays.
+     */
+    private static final int DEFAULT_SIZE = 256;
+
+    /**
+     * Find the hyphen character to be used after a character node.
+     *
+     * @param prev the character node preceding the hyphen
+     *
+     * @return the hyphen character or <code>null</code> if the font can not
+     *  produce a hyphen after the given character
+     */
+    private static UnicodeChar getHyphen(final CharNode prev) {
+
+        Font font = prev.getTypesettingContext().getFont();
+        UnicodeChar hyphen = font.getHyphenChar();
+        if (hyphen == null || !font.hasGlyph(hyphen)
+                || font.getLigature(prev.getCharacter(), hyphen) != null) {
+            return null;
+        }
+        return hyphen;
+    }
+
+    /**
+     * The field <tt>chars</tt> contains the characters of the words collected
+     * for the current hyphenator. Each word is preceded and followed by a
+     * <code>null</code> entry.
+     */
+    private UnicodeChar[] chars;
+
+    /**
+     * The field <tt>charNode</tt> contains for each entry in <tt>chars</tt>
+     * the index of the node it stems from. Characters which are not the first
+     * one in a ligature are marked by the complement of the index.
+     */
+    private int[] charNode;
+
+    /**
+     * The field <tt>found</tt> contains the hyphenation points reported by the
+     * hyphenator. It is parallel to <tt>chars</tt>.
+     */
+    private boolean[] found;
+
+    /**
+     * The field <tt>hyphenator</tt> contains the hyphenator for the words
+     * collected or <code>null</code> if none has been collected yet.
+     */
+    private BatchHyphenator hyphenator = null;
+
+    /**
+     * The field <tt>length</tt> contains the number of entries in
+     * <tt>chars</tt> in use.
+     */
+    private int length = 0;
+
+    /**
+     * The field <tt>node</tt> contains the index of the node before which the
+     * hyphenation point is located.
+     */
+    private int[] node;
+
+    /**
+     * The field <tt>prev</tt> contains the index of the character node
+     * preceding the hyphenation point.
+     */
+    private int[] prev;
+
+    /**
+     * The field <tt>size</tt> contains the number of hyphenation points.
+     */
+    private int size = 0;
+
+    /**
+     * The field <tt>width</tt> contains the width of the material inserted
+     * if a line is broken at the hyphenation point.
+     */
+    private long[] width;
+
+    /**
+     * Creates a new object.
+     */
+    public HyphenationPoints() {
+
+        super();
+        chars = new UnicodeChar[DEFAULT_SIZE];
+        charNode = new int[DEFAULT_SIZE];
+        found = new boolean[DEFAULT_SIZE];
+        node = new int[DEFAULT_SIZE];
+        prev = new int[DEFAULT_SIZE];
+        width = new long[DEFAULT_SIZE];
+    }
+
+    /**
+     * Add a character of the current word.
+     *
+     * @param uc the character
+     * @param index the index of the node or its complement if no hyphen can
+     *  be placed before this character
+     */
+    public void addChar(final UnicodeChar uc, final int index) {
+
+        if (length + 1 >= chars.length) {
+            int n = 2 * chars.length;
+            UnicodeChar[] c = new UnicodeChar[n];
+            System.arraycopy(chars, 0, c, 0, length);
+            chars = c;
+            int[] cn = new int[n];
+            System.arraycopy(charNode, 0, cn, 0, length);
+            charNode = cn;
+            found = new boolean[n];
+        }
+        chars[length] = uc;
+        charNode[length++] = index;
+    }
+
+    /**
+     * Record a hyphenation point.
+     *
+     * @param index the index of the node before which the hyphen is located
+     * @param prevIndex the index of the character node preceding the hyphen
+     * @param w the width of the pre-break material
+     */
+    private void addPoint(final int index, final int prevIndex, final long w) {
+
+        if (size >= node.length) {
+            int n = 2 * node.length;
+            int[] a = new int[n];
+            System.arraycopy(node, 0, a, 0, size);
+            node = a;
+            a = new int[n];
+            System.arraycopy(prev, 0, a, 0, size);
+            prev = a;
+            long[] b = new long[n];
+            System.arraycopy(width, 0, b, 0, size);
+            width = b;
+        }
+        node[size] = index;
+        prev[size] = prevIndex;
+        width[size++] = w;
+    }
+
+    /**
+     * Discard all words and hyphenation points.
+     */
+    public void clear() {
+
+        size = 0;
+        length = 0;
+        hyphenator = null;
+    }
+
+    /**
+     * Create the discretionary node for a hyphenation point. It contains the
+     * hyphen character &ndash; possibly preceded by a kern &ndash; as
+     * pre-break material.
+     *
+     * @param prevNode the character node preceding the hyphenation point
+     * @param factory the node factory
+     *
+     * @return the new discretionary node
+     */
+    public DiscretionaryNode createDiscretionary(final CharNode prevNode,
+            final NodeFactory factory) {
+
+        UnicodeChar hyphen = getHyphen(prevNode);
+        NodeList pre = new HorizontalListNode();
+        FixedDimen kern = prevNode.getTypesettingContext().getFont()
+                .getKerning(prevNode.getCharacter(), hyphen);
+        if (kern != null && kern.getValue() != 0) {
+            pre.add(new ImplicitKernNode(kern, true));
+        }
+        pre.add(factory.getNode(prevNode.getTypesettingContext(), hyphen));
+        return new DiscretionaryNode(pre, null, null);
+    }
+
+    /**
+     * Terminate the current word.
+     */
+    public void endWord() {
+
+        chars[length++] = null;
+    }
+
+    /**
+     * Pass all words collected to the hyphenator and record the hyphenation
+     * points found.
+     *
+     * @param nodes the nodes of the paragraph
+     * @param options the options
+     *
+     * @throws HyphenationException in case of an error
+     */
+    public void flush(final NodeList nodes, final TypesetterOptions options)
+            throws HyphenationException {
+
+        if (hyphenator == null) {
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            found[i] = false;
+        }
+        int n = hyphenator.findHyphenationPoints(chars, length, options, found);
+        for (int i = 1; n > 0 && i < length; i++) {
+            if (!found[i] || charNode[i] < 0 || chars[i - 1] == null) {
+                continue;
+            }
+            int p = charNode[i - 1];
+            if (p < 0) {
+                p = ~p;
+            }
+            CharNode pn = (CharNode) nodes.get(p);
+            UnicodeChar hyphen = getHyphen(pn);
+            if (hyphen == null) {
+                continue;
+            }
+            Font font = pn.getTypesettingContext().getFont();
+            FixedGlue w = font.getWidth(hyphen);
+            long wd = (w == null ? 0 : w.getLength().getValue());
+            FixedDimen kern = font.getKerning(pn.getCharacter(), hyphen);
+            if (kern != null) {
+                wd += kern.getValue();
+            }
+            addPoint(charNode[i], p, wd);
+        }
+        hyphenator = null;
+        length = 0;
+    }
+
+    /**
+     * Getter for the index of the node before which a hyphenation point is
+     * located.
+     *
+     * @param i the number of the hyphenation point
+     *
+     * @return the index of the node
+     */
+    public int getNode(final int i) {
+
+        return node[i];
+    }
+
+    /**
+     * Getter for the index of the character node preceding a hyphenation
+     * point.
+     *
+     * @param i the number of the hyphenation point
+     *
+     * @return the index of the node
+     */
+    public int getPrevious(final int i) {
+
+        return prev[i];
+    }
+
+    /**
+     * Getter for the width of the pre-break material of a hyphenation point.
+     *
+     * @param i the number of the hyphenation point
+     *
+     * @return the width
+     */
+    public long getWidth(final int i) {
+
+        return width[i];
+    }
+
+    /**
+     * Getter for the number of hyphenation points.
+     *
+     * @return the number of hyphenation points
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Start a new word. If the word belongs to another hyphenator than the
+     * words collected so far then those are passed to their hyphenator first.
+     *
+     * @param theHyphenator the hyphenator for the word
+     * @param nodes the nodes of the paragraph
+     * @param options the options
+     *
+     * @throws HyphenationException in case of an error
+     */
+    public void startWord(final BatchHyphenator theHyphenator,
+            final NodeList nodes, final TypesetterOptions options)
+            throws HyphenationException {
+
+        if (hyphenator != theHyphenator) {
+            flush(nodes, options);
+            hyphenator = theHyphenator;
+        }
+        if (length == 0) {
+            addChar(null, 0);
+        }
+    }
+
+}
@@ -0,0 +1,735 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.paragraphBuilder.texImpl;
+
+import de.dante.extex.interpreter.type.glue.FixedGlue;
+import de.dante.extex.interpreter.type.glue.FixedGlueComponent;
+import de.dante.extex.interpreter.type.glue.WideGlue;
+import de.dante.extex.typesetter.type.Node;
+import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.NodeVisitor;
+import de.dante.extex.typesetter.type.node.AdjustNode;
+import de.dante.extex.typesetter.type.node.AfterMathNode;
+import de.dante.extex.typesetter.type.node.AlignedLeadersNode;
+import de.dante.extex.typesetter.type.node.BeforeMathNode;
+import de.dante.extex.typesetter.type.node.CenteredLeadersNode;
+import de.dante.extex.typesetter.type.node.CharNode;
+import de.dante.extex.typesetter.type.node.DiscretionaryNode;
+import de.dante.extex.typesetter.type.node.ExpandedLeadersNode;
+import de.dante.extex.typesetter.type.node.ExplicitKernNode;
+import de.dante.extex.typesetter.type.node.GlueNode;
+import de.dante.extex.typesetter.type.node.HorizontalListNode;
+import de.dante.extex.typesetter.type.node.InsertionNode;
+import de.dante.extex.typesetter.type.node.KernNode;
+import de.dante.extex.typesetter.type.node.LigatureNode;
+import de.dante.extex.typesetter.type.node.MarkNode;
+import de.dante.extex.typesetter.type.node.PenaltyNode;
+import de.dante.extex.typesetter.type.node.RuleNode;
+import de.dante.extex.typesetter.type.node.SpaceNode;
+import de.dante.extex.typesetter.type.node.VerticalListNode;
+import de.dante.extex.typesetter.type.node.VirtualCharNode;
+import de.dante.extex.typesetter.type.node.WhatsItNode;
+import de.dante.util.exception.GeneralException;
+
+/**
+ * This class contains a flat representation of a paragraph for the line
+ * breaker. The information needed to find the break points is extracted
+ * from the nodes once per pass and stored in parallel arrays of primitive
+ * values. Thus the inner loop of the line breaker does not need to dispatch
+ * on the node types or to create intermediary objects.
+ *
+ * <p>
+ *  The arrays are kept between the uses. They are only enlarged when a longer
+ *  paragraph comes along.
+ * </p>
+ * <p>
+ *  Hyphenation points which have been found but not yet inserted into the
+ *  node list are represented by additional discretionary entries. Thus the
+ *  index into the arrays may differ from the index into the node list
+ *  flattened. The mapping is provided by {@link #getNodeIndex(int)
+ *  getNodeIndex()}.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ParagraphArrays {
+
+    /**
+     * The constant <tt>BOX</tt> contains the type for nodes which just
+     * contribute their width, i.e. boxes and rules.
+     */
+    public static final int BOX = 1;
+
+    /**
+     * The constant <tt>CHAR</tt> contains the type for character nodes,
+     * including ligatures and virtual characters.
+     */
+    public static final int CHAR = 0;
+
+    /**
+     * The constant <tt>DEFAULT_SIZE</tt> contains the initial size of the
+     * arrays.
+     */
+    private static final int DEFAULT_SIZE = 256;
+
+    /**
+     * The constant <tt>DISCRETIONARY</tt> contains the type for discretionary
+     * nodes.
+     */
+    public static final int DISCRETIONARY = 8;
+
+    /**
+     * The constant <tt>EXPLICIT_KERN</tt> contains the type for explicit kern
+     * nodes.
+     */
+    public static final int EXPLICIT_KERN = 4;
+
+    /**
+     * The constant <tt>GLUE</tt> contains the type for glue nodes.
+     */
+    public static final int GLUE = 2;
+
+    /**
+     * The constant <tt>IGNORE</tt> contains the type for nodes which do not
+     * contribute to the line breaking, i.e. marks, insertions, adjusts, and
+     * whatsits.
+     */
+    public static final int IGNORE = 9;
+
+    /**
+     * The constant <tt>KERN</tt> contains the type for implicit kern nodes.
+     */
+    public static final int KERN = 3;
+
+    /**
+     * The constant <tt>LEADERS</tt> contains the type for leaders. They are
+     * not expected in a paragraph.
+     */
+    public static final int LEADERS = 10;
+
+    /**
+     * The constant <tt>MATH_BEGIN</tt> contains the type for the node
+     * before some math.
+     */
+    public static final int MATH_BEGIN = 5;
+
+    /**
+     * The constant <tt>MATH_END</tt> contains the type for the node after
+     * some math.
+     */
+    public static final int MATH_END = 6;
+
+    /**
+     * The constant <tt>PENALTY</tt> contains the type for penalty nodes.
+     */
+    public static final int PENALTY = 7;
+
+    /**
+     * The field <tt>finiteShrink</tt> contains the indicator that an infinite
+     * shrink has been replaced while loading.
+     */
+    private boolean finiteShrink;
+
+    /**
+     * The field <tt>hyphenationPoint</tt> contains the number of the
+     * hyphenation point for an entry or -1 if the entry stems from a node.
+     */
+    private int[] hyphenationPoint;
+
+    /**
+     * The field <tt>nodeIndex</tt> contains the index of the node an entry
+     * stems from. For a hyphenation point it is the index of the node before
+     * which the hyphenation point is located.
+     */
+    private int[] nodeIndex;
+
+    /**
+     * The field <tt>noBreak</tt> contains the width of the no-break material
+     * of discretionaries.
+     */
+    private long[] noBreak;
+
+    /**
+     * The field <tt>penalty</tt> contains the value of penalties.
+     */
+    private long[] penalty;
+
+    /**
+     * The field <tt>postBreak</tt> contains the width of the post-break
+     * material of discretionaries.
+     */
+    private long[] postBreak;
+
+    /**
+     * The field <tt>preBreak</tt> contains the indicator that a
+     * discretionary has pre-break material.
+     */
+    private boolean[] preBreak;
+
+    /**
+     * The field <tt>shrink</tt> contains the shrink of glue.
+     */
+    private long[] shrink;
+
+    /**
+     * The field <tt>size</tt> contains the number of entries in use.
+     */
+    private int size = 0;
+
+    /**
+     * The field <tt>stretch</tt> contains the stretch of glue.
+     */
+    private long[] stretch;
+
+    /**
+     * The field <tt>stretchOrder</tt> contains the order of the stretch of
+     * glue.
+     */
+    private byte[] stretchOrder;
+
+    /**
+     * The field <tt>type</tt> contains the types of the nodes.
+     */
+    private byte[] type;
+
+    /**
+     * The field <tt>width</tt> contains the natural width of the nodes.
+     */
+    private long[] width;
+
+    /**
+     * The field <tt>visitor</tt> contains the visitor to fill in one entry
+     * from a node.
+     */
+    private NodeVisitor visitor = new NodeVisitor() {
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitAdjust(
+         *      de.dante.extex.typesetter.type.node.AdjustNode,
+         *      java.lang.Object)
+         */
+        public Object visitAdjust(final AdjustNode node, final Object value) {
+
+            put(IGNORE, 0);
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitAfterMath(
+         *      de.dante.extex.typesetter.type.node.AfterMathNode,
+         *      java.lang.Object)
+         */
+        public Object visitAfterMath(final AfterMathNode node,
+                final Object value) {
+
+            put(MATH_END, node.getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitAlignedLeaders(
+         *      de.dante.extex.typesetter.type.node.AlignedLeadersNode,
+         *      java.lang.Object)
+         */
+        public Object visitAlignedLeaders(final AlignedLeadersNode node,
+                final Object value) {
+
+            put(LEADERS, 0);
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitBeforeMath(
+         *      de.dante.extex.typesetter.type.node.BeforeMathNode,
+         *      java.lang.Object)
+         */
+        public Object visitBeforeMath(final BeforeMathNode node,
+                final Object value) {
+
+            put(MATH_BEGIN, node.getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitCenteredLeaders(
+         *      de.dante.extex.typesetter.type.node.CenteredLeadersNode,
+         *      java.lang.Object)
+         */
+        public Object visitCenteredLeaders(final CenteredLeadersNode node,
+                final Object value) {
+
+            put(LEADERS, 0);
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitChar(
+         *      de.dante.extex.typesetter.type.node.CharNode,
+         *      java.lang.Object)
+         */
+        public Object visitChar(final CharNode node, final Object value) {
+
+            put(CHAR, node.getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitDiscretionary(
+         *      de.dante.extex.typesetter.type.node.DiscretionaryNode,
+         *      java.lang.Object)
+         */
+        public Object visitDiscretionary(final DiscretionaryNode node,
+                final Object value) {
+
+            put(DISCRETIONARY, node.getWidth().getValue());
+            NodeList nl = node.getPreBreak();
+            preBreak[size] = (nl != null && nl.size() != 0);
+            nl = node.getPostBreak();
+            postBreak[size] = (nl == null ? 0 : nl.getWidth().getValue());
+            nl = node.getNoBreak();
+            noBreak[size] = (nl == null ? 0 : nl.getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitExpandedLeaders(
+         *      de.dante.extex.typesetter.type.node.ExpandedLeadersNode,
+         *      java.lang.Object)
+         */
+        public Object visitExpandedLeaders(final ExpandedLeadersNode node,
+                final Object value) {
+
+            put(LEADERS, 0);
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitGlue(
+         *      de.dante.extex.typesetter.type.node.GlueNode,
+         *      java.lang.Object)
+         */
+        public Object visitGlue(final GlueNode node, final Object value) {
+
+            FixedGlue glue = node.getSize();
+            put(GLUE, glue.getLength().getValue());
+            FixedGlueComponent s = glue.getStretch();
+            stretch[size] = s.getValue();
+            stretchOrder[size] = (byte) s.getOrder();
+            s = glue.getShrink();
+            if (s.getOrder() != FixedGlue.NORMAL_ORDER && s.getValue() != 0) {
+                // finite_shrink
+                finiteShrink = true;
+                shrink[size] = 0;
+            } else {
+                shrink[size] = s.getValue();
+            }
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitHorizontalList(
+         *      de.dante.extex.typesetter.type.node.HorizontalListNode,
+         *      java.lang.Object)
+         */
+        public Object visitHorizontalList(final HorizontalListNode node,
+                final Object value) {
+
+            put(BOX, node.getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitInsertion(
+         *      de.dante.extex.typesetter.type.node.InsertionNode,
+         *      java.lang.Object)
+         */
+        public Object visitInsertion(final InsertionNode node,
+                final Object value) {
+
+            put(IGNORE, 0);
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitKern(
+         *      de.dante.extex.typesetter.type.node.KernNode,
+         *      java.lang.Object)
+         */
+        public Object visitKern(final KernNode node, final Object value) {
+
+            put(node instanceof ExplicitKernNode ? EXPLICIT_KERN : KERN, node
+                    .getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitLigature(
+         *      de.dante.extex.typesetter.type.node.LigatureNode,
+         *      java.lang.Object)
+         */
+        public Object visitLigature(final LigatureNode node, final Object value) {
+
+            put(CHAR, node.getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitMark(
+         *      de.dante.extex.typesetter.type.node.MarkNode,
+         *      java.lang.Object)
+         */
+        public Object visitMark(final MarkNode node, final Object value) {
+
+            put(IGNORE, 0);
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitPenalty(
+         *      de.dante.extex.typesetter.type.node.PenaltyNode,
+         *      java.lang.Object)
+         */
+        public Object visitPenalty(final PenaltyNode node, final Object value) {
+
+            put(PENALTY, 0);
+            penalty[size] = node.getPenalty();
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitRule(
+         *      de.dante.extex.typesetter.type.node.RuleNode,
+         *      java.lang.Object)
+         */
+        public Object visitRule(final RuleNode node, final Object value) {
+
+            put(BOX, node.getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitSpace(
+         *      de.dante.extex.typesetter.type.node.SpaceNode,
+         *      java.lang.Object)
+         */
+        public Object visitSpace(final SpaceNode node, final Object value) {
+
+            return visitGlue(node, value);
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitVerticalList(
+         *      de.dante.extex.typesetter.type.node.VerticalListNode,
+         *      java.lang.Object)
+         */
+        public Object visitVerticalList(final VerticalListNode node,
+                final Object value) {
+
+            put(BOX, node.getWidth().getValue());
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitVirtualChar(
+         *      de.dante.extex.typesetter.type.node.VirtualCharNode,
+         *      java.lang.Object)
+         */
+        public Object visitVirtualChar(final VirtualCharNode node,
+                final Object value) {
+
+            return visitChar(node, value);
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.type.NodeVisitor#visitWhatsIt(
+         *      de.dante.extex.typesetter.type.node.WhatsItNode,
+         *      java.lang.Object)
+         */
+        public Object visitWhatsIt(final WhatsItNode node, final Object value) {
+
+            put(IGNORE, 0);
+            return null;
+        }
+
+    };
+
+    /**
+     * Creates a new object.
+     */
+    public ParagraphArrays() {
+
+        super();
+        allocate(DEFAULT_SIZE);
+    }
+
+    /**
+     * Add the glue of an entry to an accumulator.
+     *
+     * @param i the index
+     * @param wg the accumulator
+     */
+    public void addGlueTo(final int i, final WideGlue wg) {
+
+        wg.add(width[i], stretch[i], stretchOrder[i], shrink[i]);
+    }
+
+    /**
+     * Allocate the arrays.
+     *
+     * @param n the number of entries
+     */
+    private void allocate(final int n) {
+
+        type = new byte[n];
+        width = new long[n];
+        stretch = new long[n];
+        stretchOrder = new byte[n];
+        shrink = new long[n];
+        penalty = new long[n];
+        preBreak = new boolean[n];
+        postBreak = new long[n];
+        noBreak = new long[n];
+        nodeIndex = new int[n];
+        hyphenationPoint = new int[n];
+    }
+
+    /**
+     * Getter for the number of the hyphenation point represented by an entry.
+     *
+     * @param i the index
+     *
+     * @return the number of the hyphenation point or -1 if the entry stems
+     *  from a node
+     */
+    public int getHyphenationPoint(final int i) {
+
+        return hyphenationPoint[i];
+    }
+
+    /**
+     * Getter for the index of the node an entry stems from.
+     *
+     * @param i the index
+     *
+     * @return the index of the node
+     */
+    public int getNodeIndex(final int i) {
+
+        return nodeIndex[i];
+    }
+
+    /**
+     * Getter for the width of the no-break material of a discretionary.
+     *
+     * @param i the index
+     *
+     * @return the width of the no-break material
+     */
+    public long getNoBreak(final int i) {
+
+        return noBreak[i];
+    }
+
+    /**
+     * Getter for the value of a penalty.
+     *
+     * @param i the index
+     *
+     * @return the penalty
+     */
+    public long getPenalty(final int i) {
+
+        return penalty[i];
+    }
+
+    /**
+     * Getter for the width of the post-break material of a discretionary.
+     *
+     * @param i the index
+     *
+     * @return the width of the post-break material
+     */
+    public long getPostBreak(final int i) {
+
+        return postBreak[i];
+    }
+
+    /**
+     * Getter for the type of an entry.
+     *
+     * @param i the index
+     *
+     * @return the type
+     */
+    public int getType(final int i) {
+
+        return type[i];
+    }
+
+    /**
+     * Getter for the natural width of an entry.
+     *
+     * @param i the index
+     *
+     * @return the width
+     */
+    public long getWidth(final int i) {
+
+        return width[i];
+    }
+
+    /**
+     * Check whether a discretionary has pre-break material.
+     *
+     * @param i the index
+     *
+     * @return <code>true</code> iff the pre-break material is not empty
+     */
+    public boolean hasPreBreak(final int i) {
+
+        return preBreak[i];
+    }
+
+    /**
+     * Check whether an entry is discardable, i.e. it vanishes at a line
+     * break.
+     *
+     * @param i the index
+     *
+     * @return <code>true</code> iff the entry is discardable
+     */
+    public boolean isDiscardable(final int i) {
+
+        switch (type[i]) {
+            case GLUE:
+            case PENALTY:
+            case EXPLICIT_KERN:
+            case MATH_BEGIN:
+            case MATH_END:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Fill the arrays from a list of nodes. Any contents from a previous
+     * invocation is discarded.
+     * <p>
+     *  Glue with infinite shrinkability is recorded with the shrink component
+     *  set to zero.
+     * </p>
+     *
+     * @param nodes the nodes of the paragraph
+     *
+     * @return <code>true</code> iff some infinite shrinkability has been
+     *  replaced
+     *
+     * @throws GeneralException in case of an error
+     */
+    public boolean load(final NodeList nodes) throws GeneralException {
+
+        return load(nodes, null);
+    }
+
+    /**
+     * Fill the arrays from a list of nodes and a set of hyphenation points.
+     * Any contents from a previous invocation is discarded. Each hyphenation
+     * point is represented as a discretionary entry with the hyphen as
+     * pre-break material.
+     * <p>
+     *  Glue with infinite shrinkability is recorded with the shrink component
+     *  set to zero.
+     * </p>
+     *
+     * @param nodes the nodes of the paragraph
+     * @param points the hyphenation points or <code>null</code> for none
+     *
+     * @return <code>true</code> iff some infinite shrinkability has been
+     *  replaced
+     *
+     * @throws GeneralException in case of an error
+     */
+    public boolean load(final NodeList nodes, final HyphenationPoints points)
+            throws GeneralException {
+
+        int n = nodes.size();
+        int m = (points == null ? 0 : points.size());
+        if (n + m > type.length) {
+            allocate(Math.max(n + m, 2 * type.length));
+        }
+        finiteShrink = false;
+        size = 0;
+        int p = 0;
+        int next = (m > 0 ? points.getNode(0) : -1);
+
+        for (int i = 0; i < n; i++) {
+            if (i == next) {
+                put(DISCRETIONARY, points.getWidth(p));
+                preBreak[size] = true;
+                postBreak[size] = 0;
+                noBreak[size] = 0;
+                nodeIndex[size] = i;
+                hyphenationPoint[size++] = p++;
+                next = (p < m ? points.getNode(p) : -1);
+            }
+            Node node = nodes.get(i);
+            node.visit(visitor, null);
+            nodeIndex[size] = i;
+            hyphenationPoint[size++] = -1;
+        }
+        return finiteShrink;
+    }
+
+    /**
+     * Initialize an entry.
+     *
+     * @param t the type
+     * @param w the width
+     */
+    private void put(final int t, final long w) {
+
+        type[size] = (byte) t;
+        width[size] = w;
+    }
+
+    /**
+     * Getter for the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Subtract the glue of an entry from an accumulator.
+     *
+     * @param i the index
+     * @param wg the accumulator
+     */
+    public void subtractGlueFrom(final int i, final WideGlue wg) {
+
+        wg.add(-width[i], -stretch[i], stretchOrder[i], -shrink[i]);
+    }
+
+}
@@ -103,6 +103,32 @@ public class PassiveNode {
         return this.serial;
     }
 
+    /**
+     * Setter for all fields. This method is used to reuse an instance.
+     *
+     * @param theCurBreak the index of this break point
+     * @param theSerial the serial number for printing
+     * @param thePrevBreak the previous passive node
+     */
+    void set(final int theCurBreak, final int theSerial,
+            final PassiveNode thePrevBreak) {
+
+        this.curBreak = theCurBreak;
+        this.serial = theSerial;
+        this.prevBreak = thePrevBreak;
+        this.nextBreak = null;
+    }
+
+    /**
+     * Setter for curBreak.
+     *
+     * @param theCurBreak the index of this break point
+     */
+    void setCurBreak(final int theCurBreak) {
+
+        this.curBreak = theCurBreak;
+    }
+
     /**
      * Setter for the next break node.
      *
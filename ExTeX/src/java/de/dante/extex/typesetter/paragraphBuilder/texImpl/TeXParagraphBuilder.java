@@ -28,45 +28,42 @@ import de.dante.extex.interpreter.exception.helping.HelpingException;
 import de.dante.extex.interpreter.type.count.Count;
 import de.dante.extex.interpreter.type.dimen.Dimen;
 import de.dante.extex.interpreter.type.dimen.FixedDimen;
+import de.dante.extex.interpreter.type.font.Font;
 import de.dante.extex.interpreter.type.glue.FixedGlue;
 import de.dante.extex.interpreter.type.glue.FixedGlueComponent;
 import de.dante.extex.interpreter.type.glue.Glue;
 import de.dante.extex.interpreter.type.glue.GlueComponent;
 import de.dante.extex.interpreter.type.glue.WideGlue;
 import de.dante.extex.language.Language;
+import de.dante.extex.language.hyphenation.BatchHyphenator;
 import de.dante.extex.language.hyphenation.exception.HyphenationException;
 import de.dante.extex.typesetter.Badness;
 import de.dante.extex.typesetter.Discardable;
 import de.dante.extex.typesetter.TypesetterOptions;
 import de.dante.extex.typesetter.exception.TypesetterException;
+import de.dante.extex.typesetter.paragraphBuilder.ConcurrentParagraphBuilder;
 import de.dante.extex.typesetter.paragraphBuilder.FixedParagraphShape;
 import de.dante.extex.typesetter.paragraphBuilder.HangingParagraphShape;
-import de.dante.extex.typesetter.paragraphBuilder.ParagraphBuilder;
 import de.dante.extex.typesetter.paragraphBuilder.ParagraphShape;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphTask;
 import de.dante.extex.typesetter.type.Node;
 import de.dante.extex.typesetter.type.NodeList;
-import de.dante.extex.typesetter.type.NodeVisitor;
 import de.dante.extex.typesetter.type.node.AbstractExpandableNode;
 import de.dante.extex.typesetter.type.node.AdjustNode;
 import de.dante.extex.typesetter.type.node.AfterMathNode;
-import de.dante.extex.typesetter.type.node.AlignedLeadersNode;
 import de.dante.extex.typesetter.type.node.BeforeMathNode;
-import de.dante.extex.typesetter.type.node.CenteredLeadersNode;
 import de.dante.extex.typesetter.type.node.CharNode;
 import de.dante.extex.typesetter.type.node.DiscretionaryNode;
-import de.dante.extex.typesetter.type.node.ExpandedLeadersNode;
 import de.dante.extex.typesetter.type.node.ExplicitKernNode;
 import de.dante.extex.typesetter.type.node.GlueNode;
 import de.dante.extex.typesetter.type.node.HorizontalListNode;
+import de.dante.extex.typesetter.type.node.ImplicitKernNode;
 import de.dante.extex.typesetter.type.node.InsertionNode;
 import de.dante.extex.typesetter.type.node.KernNode;
 import de.dante.extex.typesetter.type.node.LigatureNode;
 import de.dante.extex.typesetter.type.node.MarkNode;
 import de.dante.extex.typesetter.type.node.PenaltyNode;
-import de.dante.extex.typesetter.type.node.RuleNode;
-import de.dante.extex.typesetter.type.node.SpaceNode;
 import de.dante.extex.typesetter.type.node.VerticalListNode;
-import de.dante.extex.typesetter.type.node.VirtualCharNode;
 import de.dante.extex.typesetter.type.node.WhatsItNode;
 import de.dante.extex.typesetter.type.node.factory.NodeFactory;
 import de.dante.util.Locator;
@@ -118,15 +115,106 @@ import de.dante.util.framework.logger.LogEnabled;
  *  </p>
  * </i>
  *
+ * <p>
+ *  The paragraph builder can also be used to break paragraphs in a worker
+ *  thread. In this case {@link #prepare(HorizontalListNode) prepare()}
+ *  creates a detached copy carrying all parameters. The detached copy runs
+ *  the first pass without access to the options. If hyphenation is needed
+ *  the remaining passes are performed when the result is collected in the
+ *  interpreter thread. The <tt>\lccode</tt>s used for hyphenation are
+ *  recorded when the paragraph is prepared. The hyphenation tables and the
+ *  hyphen characters of the fonts have to be left alone until the paragraph
+ *  is complete; the primitives modifying them complete pending paragraphs
+ *  first.
+ * </p>
+ *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.13 $
  */
 public class TeXParagraphBuilder
         implements
-            ParagraphBuilder,
+            ConcurrentParagraphBuilder,
             Localizable,
             LogEnabled {
 
+    /**
+     * This inner class is the task to break a paragraph with a detached copy
+     * of the paragraph builder.
+     */
+    private static final class Job implements ParagraphTask {
+
+        /**
+         * The field <tt>builder</tt> contains the detached paragraph builder.
+         */
+        private TeXParagraphBuilder builder;
+
+        /**
+         * The field <tt>nodes</tt> contains the paragraph to break.
+         */
+        private HorizontalListNode nodes;
+
+        /**
+         * The field <tt>options</tt> contains the options to be used in the
+         * interpreter thread. They carry the <tt>\lccode</tt>s valid at the
+         * end of the paragraph.
+         */
+        private TypesetterOptions options;
+
+        /**
+         * Creates a new object.
+         *
+         * @param theBuilder the detached paragraph builder
+         * @param theNodes the paragraph to break
+         * @param theOptions the options
+         */
+        public Job(final TeXParagraphBuilder theBuilder,
+                final HorizontalListNode theNodes,
+                final TypesetterOptions theOptions) {
+
+            super();
+            this.builder = theBuilder;
+            this.nodes = theNodes;
+            this.options = theOptions;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.paragraphBuilder.ParagraphTask#complete(
+         *      java.lang.Object)
+         */
+        public NodeList complete(final Object result)
+                throws TypesetterException {
+
+            NodeList list = (NodeList) result;
+            try {
+                if (list == null) {
+                    builder.options = options;
+                    builder.mayHyphenate = true;
+                    builder.runPasses(nodes);
+                    list = builder.finishParagraph(nodes);
+                }
+                options.setCountOption("prevgraf", builder.prevGraf);
+            } catch (TypesetterException e) {
+                throw e;
+            } catch (GeneralException e) {
+                throw new TypesetterException(e);
+            }
+            return list;
+        }
+
+        /**
+         * @see de.dante.util.worker.Task#run()
+         */
+        public Object run() throws Exception {
+
+            builder.getReadyToStartLineBreaking(nodes);
+            builder.startPasses();
+            if (!builder.runPasses(nodes)) {
+                return null;
+            }
+            return builder.finishParagraph(nodes);
+        }
+    }
+
     /**
      * The field <tt>logger</tt> contains the logger.
      */
@@ -148,6 +236,13 @@ public class TeXParagraphBuilder
      */
     private TypesetterOptions options;
 
+    /**
+     * The field <tt>mayHyphenate</tt> indicates that the second pass with
+     * hyphenation can be performed. It is <code>false</code> for a detached
+     * copy running in a worker thread since hyphenation needs the options.
+     */
+    private boolean mayHyphenate = true;
+
     /**
      * <doc name="adjdemerits" type="register">
      * <h3>The Count Parameter <tt>\adjdemerits</tt></h3>
@@ -369,6 +464,42 @@ public class TeXParagraphBuilder
      */
     private List passive = new ArrayList();
 
+    /**
+     * The field <tt>activePool</tt> contains the active nodes which are no
+     * longer in use and can be recycled.
+     */
+    private List activePool = new ArrayList();
+
+    /**
+     * The field <tt>deltaPool</tt> contains the delta nodes which are no
+     * longer in use and can be recycled.
+     */
+    private List deltaPool = new ArrayList();
+
+    /**
+     * The field <tt>passivePool</tt> contains the passive nodes which are no
+     * longer in use and can be recycled.
+     */
+    private List passivePool = new ArrayList();
+
+    /**
+     * The field <tt>paragraph</tt> contains the flat representation of the
+     * paragraph currently broken into lines.
+     */
+    private ParagraphArrays paragraph = new ParagraphArrays();
+
+    /**
+     * The field <tt>hyphenation</tt> contains the hyphenation points found
+     * for the paragraph currently broken into lines.
+     */
+    private HyphenationPoints hyphenation = new HyphenationPoints();
+
+    /**
+     * The field <tt>hyphenated</tt> indicates that the paragraph currently
+     * broken into lines has already been hyphenated.
+     */
+    private boolean hyphenated = false;
+
     /**
      * The field <tt>parshape</tt> contains the paragraph shape
      * specification. This field is initialized at the beginning of
@@ -413,34 +544,9 @@ public class TeXParagraphBuilder
         if (nodes.size() == 0) {
             return new VerticalListNode();
         }
-        adjDemerits = options.getCountOption("adjdemerits").getValue();
-        clubPenalty = options.getCountOption("clubpenalty").getValue();
-        brokenPenalty = options.getCountOption("brokenpenalty").getValue();
-        doubleHyphenDemerits = options.getCountOption("doublehyphendemerits")
-                .getValue();
-        emergencyStretch = options.getDimenOption("emergencystretch");
-        exHyphenPenalty = options.getCountOption("exhyphenpenalty").getValue();
-        finalHyphenDemerits = options.getCountOption("finalhyphendemerits")
-                .getValue();
-        finalWidowPenalty = options.getCountOption("finalwidowpenalty")
-                .getValue();
-        hyphenPenalty = options.getCountOption("hyphenpenalty").getValue();
-        interLinePenalty = options.getCountOption("interlinepenalty")
-                .getValue();
-        leftSkip = options.getGlueOption("leftskip");
-        linePenalty = options.getCountOption("linepenalty").getValue();
-        looseness = options.getCountOption("looseness").getValue();
-        parfillSkip = options.getGlueOption("parfillskip");
-        preTolerance = options.getCountOption("pretolerance").getValue();
-        prevGraf = (int) options.getCountOption("prevgraf").getValue();
-        rightSkip = options.getGlueOption("rightskip");
-        tolerance = options.getCountOption("tolerance").getValue();
-        tracingParagraphs = options.getCountOption("tracingparagraphs").gt(
-                Count.ZERO);
-        prepareParshape();
+        readParameters();
 
         NodeList result;
-        Locator modeLine = null;
 
         try {
             /* 815.
@@ -453,20 +559,11 @@ public class TeXParagraphBuilder
              */
             //label done,done1,done2,done3,done4,done5,continue;
             //var Local variables for line breaking 862
-            // pack_begin_line <-- mode_line; //this is for over/underfull box messages
-            packBeginLine = modeLine;
             // Get ready to start line breaking 816;
             getReadyToStartLineBreaking(nodes);
             //Find optimal breakpoints 863;
             findOptimalBreakpoints(nodes);
-            // Break the paragraph at the chosen breakpoints, justify the
-            // resulting lines to the correct widths, and append them to
-            // the current vertical list 876;
-            result = postLineBreak(nodes);
-            // Clean up the memory by removing the break nodes 865;
-            cleanUpTheMemory();
-
-            packBeginLine = null;
+            result = finishParagraph(nodes);
 
             // - - -
 
@@ -478,11 +575,92 @@ public class TeXParagraphBuilder
             throw new TypesetterException(e);
         }
 
-        options.setParshape(null);
+        return result;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.paragraphBuilder.ConcurrentParagraphBuilder#prepare(
+     *      de.dante.extex.typesetter.type.node.HorizontalListNode)
+     */
+    public ParagraphTask prepare(final HorizontalListNode nodes)
+            throws TypesetterException {
+
+        if (nodes.size() == 0
+                || options.getCountOption("tracingparagraphs").gt(Count.ZERO)) {
+            return null;
+        }
+        TeXParagraphBuilder builder = new TeXParagraphBuilder();
+        builder.logger = logger;
+        builder.localizer = localizer;
+        builder.nodeFactory = nodeFactory;
+        builder.options = options;
+        builder.readParameters();
+        builder.options = null;
+        builder.mayHyphenate = false;
+
+        return new Job(builder, nodes, new HyphenationOptions(options, nodes));
+    }
+
+    /**
+     * Break the lines at the chosen breakpoints and clean up afterwards.
+     *
+     * @param nodes the node list for the paragraph to break
+     *
+     * @return the vertical list of lines
+     *
+     * @throws GeneralException in case of an error
+     */
+    private NodeList finishParagraph(final HorizontalListNode nodes)
+            throws GeneralException {
+
+        // Break the paragraph at the chosen breakpoints, justify the
+        // resulting lines to the correct widths, and append them to
+        // the current vertical list 876;
+        NodeList result = postLineBreak(nodes);
+        // Clean up the memory by removing the break nodes 865;
+        cleanUpTheMemory();
 
+        packBeginLine = null;
         return result;
     }
 
+    /**
+     * Read the parameters for the paragraph from the options. The paragraph
+     * shape in the options is reset afterwards since it is consumed by the
+     * paragraph.
+     */
+    private void readParameters() {
+
+        adjDemerits = options.getCountOption("adjdemerits").getValue();
+        clubPenalty = options.getCountOption("clubpenalty").getValue();
+        brokenPenalty = options.getCountOption("brokenpenalty").getValue();
+        doubleHyphenDemerits = options.getCountOption("doublehyphendemerits")
+                .getValue();
+        emergencyStretch = options.getDimenOption("emergencystretch");
+        exHyphenPenalty = options.getCountOption("exhyphenpenalty").getValue();
+        finalHyphenDemerits = options.getCountOption("finalhyphendemerits")
+                .getValue();
+        finalWidowPenalty = options.getCountOption("finalwidowpenalty")
+                .getValue();
+        hyphenPenalty = options.getCountOption("hyphenpenalty").getValue();
+        interLinePenalty = options.getCountOption("interlinepenalty")
+                .getValue();
+        leftSkip = options.getGlueOption("leftskip");
+        linePenalty = options.getCountOption("linepenalty").getValue();
+        looseness = options.getCountOption("looseness").getValue();
+        parfillSkip = options.getGlueOption("parfillskip");
+        preTolerance = options.getCountOption("pretolerance").getValue();
+        prevGraf = (int) options.getCountOption("prevgraf").getValue();
+        rightSkip = options.getGlueOption("rightskip");
+        tolerance = options.getCountOption("tolerance").getValue();
+        tracingParagraphs = options.getCountOption("tracingparagraphs").gt(
+                Count.ZERO);
+        prepareParshape();
+        options.setParshape(null);
+        // pack_begin_line <-- mode_line; //this is for over/underfull box messages
+        packBeginLine = null;
+    }
+
     /**
      * @see de.dante.extex.typesetter.paragraphBuilder.ParagraphBuilder#setNodefactory(
      *      de.dante.extex.typesetter.type.node.factory.NodeFactory)
@@ -555,12 +733,14 @@ public class TeXParagraphBuilder
 
             if (hangafter != 0) {
                 hangingParshape.setHangafter(hangafter);
-                hangingParshape.setHangindent(options
-                        .getDimenOption("hangindent"));
-                hangingParshape.setHsize(options.getDimenOption("hsize"));
+                hangingParshape.setHangindent(new Dimen(options
+                        .getDimenOption("hangindent")));
+                hangingParshape.setHsize(new Dimen(options
+                        .getDimenOption("hsize")));
                 parshape = hangingParshape;
             } else {
-                fixedParshape.setHsize(options.getDimenOption("hsize"));
+                fixedParshape.setHsize(new Dimen(options
+                        .getDimenOption("hsize")));
                 parshape = fixedParshape;
             }
         }
@@ -960,23 +1140,7 @@ public class TeXParagraphBuilder
              * {recovers from infinite shrinkage}
              */
             // var q: pointer; {new glue specification}
-            // begin if no_shrink_error_yet then
-            if (noShrinkErrorYet) {
-
-                // begin no_shrink_error_yet <-- false;
-                noShrinkErrorYet = false;
-                // print_err("Infinite glue shrinkage found in a paragraph");
-                // help5("The paragraph just ended includes some glue that has")
-
-                // ("infinite shrinkability, e.g., `\hskip 0pt minus 1fil'.")
-                // ("Such glue doesn't belong there---it allows a paragraph")
-                // ("of any length to fit on one line. But it's safe to proceed,")
-                // ("since the offensive shrinkability has been made finite.");
-                // error;
-
-                logger.warning(localizer.format("TTP.InfShringInPar"));
-                // end ;
-            }
+            reportInfiniteShrink();
 
             // q <-- new_spec(p);
             // shrink_order(q) <-- normal;
@@ -992,6 +1156,31 @@ public class TeXParagraphBuilder
         return glue;
     }
 
+    /**
+     * Issue the warning about infinite shrinkability in a paragraph unless
+     * this has already been done for the current paragraph.
+     */
+    private void reportInfiniteShrink() {
+
+        // begin if no_shrink_error_yet then
+        if (noShrinkErrorYet) {
+
+            // begin no_shrink_error_yet <-- false;
+            noShrinkErrorYet = false;
+            // print_err("Infinite glue shrinkage found in a paragraph");
+            // help5("The paragraph just ended includes some glue that has")
+
+            // ("infinite shrinkability, e.g., `\hskip 0pt minus 1fil'.")
+            // ("Such glue doesn't belong there---it allows a paragraph")
+            // ("of any length to fit on one line. But it's safe to proceed,")
+            // ("since the offensive shrinkability has been made finite.");
+            // error;
+
+            logger.warning(localizer.format("TTP.InfShringInPar"));
+            // end ;
+        }
+    }
+
     /* 828.
      *
      * A pointer variable cur_p runs through the given horizontal list
@@ -1400,20 +1589,20 @@ public class TeXParagraphBuilder
         // end ;
         if (minimalDemerits[0] <= minimumDemerits) {
             insertActiveNode(nodes, Fitness.VERY_LOOSE);
-            minimalDemerits[0] = AWFUL_BAD;
         }
+        minimalDemerits[0] = AWFUL_BAD;
         if (minimalDemerits[1] <= minimumDemerits) {
             insertActiveNode(nodes, Fitness.LOOSE);
-            minimalDemerits[1] = AWFUL_BAD;
         }
+        minimalDemerits[1] = AWFUL_BAD;
         if (minimalDemerits[2] <= minimumDemerits) {
             insertActiveNode(nodes, Fitness.DECENT);
-            minimalDemerits[2] = AWFUL_BAD;
         }
+        minimalDemerits[2] = AWFUL_BAD;
         if (minimalDemerits[3] <= minimumDemerits) {
             insertActiveNode(nodes, Fitness.TIGHT);
-            minimalDemerits[3] = AWFUL_BAD;
         }
+        minimalDemerits[3] = AWFUL_BAD;
 
         // minimum_demerits <-- awful_bad;
         minimumDemerits = AWFUL_BAD;
@@ -1464,56 +1653,52 @@ public class TeXParagraphBuilder
         breakWidth.set(background);
         // s <-- cur_p;
         int s = curBreak;
+        int size = paragraph.size();
         // if break_type > unhyphenated then
         if (breakType) {
             // if cur_p != null then
-            if (curBreak < nodes.size()) {
+            if (curBreak < size) {
                 // Compute the discretionary break_width values 840;
-                computeDiscretionaryBreakWidth(nodes, nodes.get(curBreak));
+                computeDiscretionaryBreakWidth();
             }
         }
         // while s != null do
-        for (; s < nodes.size(); s++) {
-            Node n = nodes.get(s);
+        for (; s < size; s++) {
             // begin if is_char_node(s) then
-            if (n instanceof CharNode) {
-                // goto done;
-                return;
-                // case type(s) of
-            } else if (n instanceof AbstractExpandableNode) {
-                // glue_node: Subtract glue from break_width 838;
-
-                /* 838.
-                 *
-                 * This code is used in section 837.
-                 *
-                 * Subtract glue from break_width 838 ::=
-                 */
-                // begin v <-- glue_ptr(s);
-                // break_width[1] <-- break_width[1]-width(v);
-                // break_width[2+stretch_order(v)] <-- 
-                //   break_width[2+stretch_order(v)]-stretch(v);
-                // break_width[6] <-- break_width[6]-shrink(v);
-                breakWidth.subtract(((GlueNode) n).getSize());
-                // end
-
-            } else if (n instanceof PenaltyNode) {
-                // penalty_node: do_nothing;
-            } else if (n instanceof BeforeMathNode
-                    || n instanceof AfterMathNode) {
-                // math_node: break_width[1] <-- break_width[1]-width(s);
-                breakWidth.subtract(n.getWidth());
-            } else if (n instanceof KernNode) {
-                // kern_node: if subtype(s) != explicit then
-                if (!(n instanceof ExplicitKernNode)) {
-                    // goto done
+            // goto done;
+            // case type(s) of
+            switch (paragraph.getType(s)) {
+                case ParagraphArrays.GLUE:
+                    // glue_node: Subtract glue from break_width 838;
+
+                    /* 838.
+                     *
+                     * This code is used in section 837.
+                     *
+                     * Subtract glue from break_width 838 ::=
+                     */
+                    // begin v <-- glue_ptr(s);
+                    // break_width[1] <-- break_width[1]-width(v);
+                    // break_width[2+stretch_order(v)] <--
+                    //   break_width[2+stretch_order(v)]-stretch(v);
+                    // break_width[6] <-- break_width[6]-shrink(v);
+                    paragraph.subtractGlueFrom(s, breakWidth);
+                    // end
+                    break;
+                case ParagraphArrays.PENALTY:
+                    // penalty_node: do_nothing;
+                    break;
+                case ParagraphArrays.MATH_BEGIN:
+                case ParagraphArrays.MATH_END:
+                case ParagraphArrays.EXPLICIT_KERN:
+                    // math_node: break_width[1] <-- break_width[1]-width(s);
+                    // kern_node: if subtype(s) != explicit then goto done
+                    // else break_width[1] <-- break_width[1]-width(s);
+                    breakWidth.add(-paragraph.getWidth(s));
+                    break;
+                default:
+                    // othercases goto done
                     return;
-                }
-                // else break_width[1] <-- break_width[1]-width(s);
-                breakWidth.subtract(n.getWidth());
-            } else {
-                // othercases goto done
-                return;
             }
             // endcases ;
             // s <-- link(s);
@@ -1548,30 +1733,24 @@ public class TeXParagraphBuilder
      * disc_width: scaled; {the length of discretionary material
      * preceding a break}
      */
-    private Dimen discretionaryWidth = new Dimen();
+    private long discretionaryWidth = 0;
 
     /** 840.
      *
      * This code is used in section 837.
      *
      * Compute the discretionary break_width values 840 ::=
-     *
-     * @param nodes the node list for the paragraph to break
-     * @param node the current node
      */
-    final void computeDiscretionaryBreakWidth(final NodeList nodes,
-            final Node node) {
+    private void computeDiscretionaryBreakWidth() {
 
-        DiscretionaryNode x = (DiscretionaryNode) node;
         // begin t <-- replace_count(cur_p);
         // v <-- cur_p;
         // s <-- post_break(cur_p);
-        NodeList postBreak = x.getPostBreak();
         // while t > 0 do
         // begin decr(t);
         // v <-- link(v);
         // Subtract the width of node v from break_width 841;
-        breakWidth.subtract(x.getWidth());
+        breakWidth.add(-paragraph.getNoBreak(curBreak));
         // end ;
         // while s != null do
         // begin Add the width of node s to break_width 842;
@@ -1580,11 +1759,9 @@ public class TeXParagraphBuilder
         // break_width[1] <-- break_width[1]+disc_width;
         breakWidth.add(discretionaryWidth);
         // if post_break(cur_p)=null then
-        if (postBreak != null) {
-            breakWidth.add(postBreak.getWidth());
-            // s <-- link(v); {nodes may be discardable after the break}
-            // end
-        }
+        // s <-- link(v); {nodes may be discardable after the break}
+        // end
+        breakWidth.add(paragraph.getPostBreak(curBreak));
     }
 
     /** 841.
@@ -1669,7 +1846,7 @@ public class TeXParagraphBuilder
             // end
             // else begin q <-- get_node(delta_node_size);
         } else {
-            DeltaNode delta = new DeltaNode(breakWidth);
+            DeltaNode delta = newDeltaNode(breakWidth);
             delta.subtract(curActiveWidth);
             // link(q) <-- r;
             // type(q) <-- delta_node;
@@ -1703,7 +1880,7 @@ public class TeXParagraphBuilder
 
         // if r != last_active then
         if (r < active.size()) {
-            DeltaNode delta = new DeltaNode(curActiveWidth);
+            DeltaNode delta = newDeltaNode(curActiveWidth);
             delta.subtract(breakWidth);
             // begin q <-- get_node(delta_node_size);
             // link(q) <-- r;
@@ -1742,8 +1919,8 @@ public class TeXParagraphBuilder
         // stat incr(pass_number);
         // serial(q) <-- pass_number; tats
         // prev_break(q) <-- best_place[fit_class];
-        PassiveNode pn = new PassiveNode(curBreak, passive.size() + 1,
-                bestPlace[fitClass.getOrder()]);
+        PassiveNode pn = newPassiveNode(curBreak, passive.size() + 1,
+                bestPlace[fitness.getOrder()]);
         passive.add(pn);
 
         // q <-- get_node(active_node_size);
@@ -1752,8 +1929,8 @@ public class TeXParagraphBuilder
         // fitness(q) <-- fit_class;
         // type(q) <-- break_type;
         // total_demerits(q) <-- minimal_demerits[fit_class];
-        ActiveNode an = new ActiveNode(fitClass, breakType,
-                minimalDemerits[fitClass.getOrder()], bestPlaceLine[fitClass
+        ActiveNode an = newActiveNode(fitness, breakType,
+                minimalDemerits[fitness.getOrder()], bestPlaceLine[fitness
                         .getOrder()] + 1, pn);
         // link(q) <-- r;
         // link(prev_r) <-- q;
@@ -1793,7 +1970,7 @@ public class TeXParagraphBuilder
         // print_char(".");
         sb.append(".");
         // print_int(fit_class);
-        sb.append(fitClass.getOrder());
+        sb.append(aNode.getFitness().getOrder());
         // if break_type=hyphenated then
         if (breakType) {
             // print_char("-");
@@ -2018,9 +2195,9 @@ public class TeXParagraphBuilder
 
         // if (cur_active_width[3] != 0) || (cur_active_width[4] != 0) || (
         // cur_active_width[5] != 0) then
-        FixedGlueComponent stretch = curActiveWidth.getStretch();
+        long stretch = curActiveWidth.getStretchValue();
         int badness;
-        if (stretch.getOrder() > 0) {
+        if (curActiveWidth.getStretchOrder() > 0) {
             // begin b <-- 0;
             badness = 0;
             // fit_class <-- decent_fit; {infinite stretch}
@@ -2029,7 +2206,7 @@ public class TeXParagraphBuilder
         } else if (shortfall.gt(D_7230584)) {
             // else begin if shortfall > 7230584 then
             // if cur_active_width[2] < 1663497 then
-            if (stretch.getValue() < 1663497) {
+            if (stretch < 1663497) {
                 // begin b <-- inf_bad;
                 badness = Badness.INF_BAD;
                 // fit_class <-- very_loose_fit;
@@ -2040,7 +2217,7 @@ public class TeXParagraphBuilder
             }
         }
         // b <-- badness(shortfall,cur_active_width[2]);
-        badness = Badness.badness(shortfall.getValue(), stretch.getValue());
+        badness = Badness.badness(shortfall.getValue(), stretch);
         // if b > 12 then
         // if b > 99 then
         // fit_class <-- very_loose_fit
@@ -2072,16 +2249,15 @@ public class TeXParagraphBuilder
     private int badnessForShrinking() {
 
         // begin if -shortfall > cur_active_width[6] then
-        Dimen minusShortfall = new Dimen(shortfall);
-        minusShortfall.negate();
+        long minusShortfall = -shortfall.getValue();
+        long shrink = curActiveWidth.getShrinkValue();
         int badness;
-        if (minusShortfall.gt(curActiveWidth.getShrink())) {
+        if (minusShortfall > shrink) {
             // b <-- inf_bad+1
             badness = Badness.INF_BAD + 1;
             // else b <-- badness(-shortfall,cur_active_width[6]);
         } else {
-            badness = Badness.badness(minusShortfall.getValue(), curActiveWidth
-                    .getShrink().getValue());
+            badness = Badness.badness(minusShortfall, shrink);
         }
         // if b > 12 then
         // fit_class <-- tight_fit else fit_class <-- decent_fit;
@@ -2211,11 +2387,13 @@ public class TeXParagraphBuilder
         // print_nl("@");
         sb.append("@");
         // if cur_p=null then
-        if (curBreak >= nodes.size()) {
+        if (curBreak >= paragraph.size()) {
             // print_esc("par")
             sb.append("\\par");
+        } else if (paragraph.getHyphenationPoint(curBreak) >= 0) {
+            sb.append("\\discretionary");
         } else {
-            Node n = nodes.get(curBreak);
+            Node n = nodes.get(paragraph.getNodeIndex(curBreak));
             if (n instanceof AbstractExpandableNode) {
                 // else if type(cur_p) != glue_node then
                 // begin if type(cur_p)=penalty_node then
@@ -2281,8 +2459,10 @@ public class TeXParagraphBuilder
         // link(cur_p) <-- save_link;
         // end ;
         for (int i = printedNode + 1; i < curBreak; i++) {
-            nodes.get(i).toText(sb, "");
-            sb.append("\n");
+            if (paragraph.getHyphenationPoint(i) < 0) {
+                nodes.get(paragraph.getNodeIndex(i)).toText(sb, "");
+                sb.append("\n");
+            }
         }
 
         // printed_node <-- cur_p;
@@ -2389,7 +2569,7 @@ public class TeXParagraphBuilder
         // link(prev_r) <-- link(r);
         // free_node(r,active_node_size);
         //S ystem.err.println("deactivate " + r + "/" + active.size());
-        active.remove(r);
+        release(active.remove(r));
         // if prev_r=active then
         if (prevR < 0) {
             // Update the active widths, since the first active node has been deleted 861
@@ -2403,7 +2583,7 @@ public class TeXParagraphBuilder
                 // begin do_all_six(downdate_width);
                 curActiveWidth.subtract(deltaPrev);
                 // link(prev_prev_r) <-- last_active;
-                active.remove(prevR);
+                release(active.remove(prevR));
                 // free_node(prev_r,delta_node_size);
                 // prev_r <-- prev_prev_r;
                 prevR = prevPrevR;
@@ -2417,7 +2597,7 @@ public class TeXParagraphBuilder
                 // do_all_six(combine_two_deltas);
                 deltaPrev.add(delta);
                 // link(prev_r) <-- link(r);
-                active.remove(r);
+                release(active.remove(r));
                 // free_node(r,delta_node_size);
                 // end ;
             }
@@ -2451,7 +2631,7 @@ public class TeXParagraphBuilder
             curActiveWidth.set(activeWidth);
             // link(active) <-- link(r);
             // free_node(r,delta_node_size);
-            active.remove(r);
+            release(active.remove(r));
             // end ;
         }
         // end
@@ -2517,6 +2697,18 @@ public class TeXParagraphBuilder
     private void findOptimalBreakpoints(final NodeList nodes)
             throws GeneralException {
 
+        startPasses();
+        runPasses(nodes);
+    }
+
+    /**
+     * Initialize the passes of the search for the optimal breakpoints.
+     */
+    private void startPasses() {
+
+        hyphenation.clear();
+        hyphenated = false;
+
         // threshold <-- pretolerance;
         threshold = preTolerance;
 
@@ -2550,6 +2742,21 @@ public class TeXParagraphBuilder
             }
             // end ;
         }
+    }
+
+    /**
+     * Perform the passes of the search for the optimal breakpoints. If
+     * hyphenation is not permitted then the search is suspended before the
+     * second pass. It can be resumed by invoking this method again.
+     *
+     * @param nodes the node list for the paragraph to break
+     *
+     * @return <code>true</code> iff the breakpoints have been found and
+     *   <code>false</code> if the search has been suspended
+     *
+     * @throws GeneralException in case of an error
+     */
+    private boolean runPasses(final NodeList nodes) throws GeneralException {
 
         // loop begin
         for (;;) {
@@ -2561,8 +2768,15 @@ public class TeXParagraphBuilder
 
             // if second_pass then
             if (secondPass) {
+                if (!mayHyphenate) {
+                    return false;
+                }
                 // Initialize for hyphenating a paragraph 891;
                 initializeForHyphenatingAParagraph();
+                hyphenateParagraph(nodes);
+            }
+            if (paragraph.load(nodes, hyphenation)) {
+                reportInfiniteShrink();
             }
 
             // Create an active breakpoint representing the beginning of the paragraph
@@ -2576,7 +2790,7 @@ public class TeXParagraphBuilder
             // prev_p <-- cur_p; {glue at beginning is not a legal breakpoint}
             prevP = curBreak;
 
-            int nodesSize = nodes.size();
+            int nodesSize = paragraph.size();
             // while (cur_p != null) && (link(active) != last_active) do
             while (curBreak < nodesSize && active.size() > 0) {
                 // Call try_break if cur_p is a legal breakpoint; on the second
@@ -2600,7 +2814,7 @@ public class TeXParagraphBuilder
                         // end ;
                     }
                     // tats
-                    return;
+                    return true;
                 }
             }
             // Clean up the memory by removing the break nodes 865;
@@ -2662,15 +2876,12 @@ public class TeXParagraphBuilder
         // line_number(q) <-- prev_graf+1;
         // total_demerits(q) <-- 0;
         // link(active) <-- q;
-        active.clear();
-        active
-                .add(new ActiveNode(Fitness.DECENT, false, 0, prevGraf + 1,
-                        null));
+        releaseAll();
+        active.add(newActiveNode(Fitness.DECENT, false, 0, prevGraf + 1, null));
         // do_all_six(store_background);
         activeWidth.set(background);
 
         // passive <-- null;
-        passive.clear();
         // printed_node <-- temp_head;
         printedNode = 0;
         // pass_number <-- 0;
@@ -2683,9 +2894,99 @@ public class TeXParagraphBuilder
      */
     private void cleanUpTheMemory() {
 
+        releaseAll();
+        curBreak = 0;
+    }
+
+    /**
+     * Get an active node. A node from the pool is reused if possible.
+     *
+     * @param fitness the fitness classification
+     * @param hyphenated the indicator for hyphenation at this break point
+     * @param demerits the demerits for this break point
+     * @param lineNumber the sequence number of the line
+     * @param breakNode the index of the break
+     *
+     * @return the active node
+     */
+    private ActiveNode newActiveNode(final Fitness fitness,
+            final boolean hyphenated, final long demerits,
+            final int lineNumber, final PassiveNode breakNode) {
+
+        int size = activePool.size();
+        if (size == 0) {
+            return new ActiveNode(fitness, hyphenated, demerits, lineNumber,
+                    breakNode);
+        }
+        ActiveNode node = (ActiveNode) activePool.remove(size - 1);
+        node.set(fitness, hyphenated, demerits, lineNumber, breakNode);
+        return node;
+    }
+
+    /**
+     * Get a delta node. A node from the pool is reused if possible.
+     *
+     * @param glue the initial value
+     *
+     * @return the delta node
+     */
+    private DeltaNode newDeltaNode(final WideGlue glue) {
+
+        int size = deltaPool.size();
+        if (size == 0) {
+            return new DeltaNode(glue);
+        }
+        DeltaNode node = (DeltaNode) deltaPool.remove(size - 1);
+        node.set(glue);
+        return node;
+    }
+
+    /**
+     * Get a passive node. A node from the pool is reused if possible.
+     *
+     * @param breakIndex the index of the break point
+     * @param serial the serial number for printing
+     * @param prevBreak the previous passive node
+     *
+     * @return the passive node
+     */
+    private PassiveNode newPassiveNode(final int breakIndex, final int serial,
+            final PassiveNode prevBreak) {
+
+        int size = passivePool.size();
+        if (size == 0) {
+            return new PassiveNode(breakIndex, serial, prevBreak);
+        }
+        PassiveNode node = (PassiveNode) passivePool.remove(size - 1);
+        node.set(breakIndex, serial, prevBreak);
+        return node;
+    }
+
+    /**
+     * Return an active or delta node to its pool.
+     *
+     * @param node the node
+     */
+    private void release(final Object node) {
+
+        if (node instanceof DeltaNode) {
+            deltaPool.add(node);
+        } else {
+            activePool.add(node);
+        }
+    }
+
+    /**
+     * Return all active, delta, and passive nodes to their pools.
+     */
+    private void releaseAll() {
+
+        for (int i = active.size() - 1; i >= 0; i--) {
+            release(active.get(i));
+        }
         active.clear();
+        passivePool.addAll(passive);
         passive.clear();
-        curBreak = 0;
     }
 
     /**
@@ -2696,16 +2997,14 @@ public class TeXParagraphBuilder
     private void kernBreak(final NodeList nodes) {
 
         // begin if  is_char_node(link(cur_p)) && auto_breaking then
-        Node n = nodes.get(curBreak + 1);
-        if (!(n instanceof CharNode) && autoBreaking) {
-            // if type(link(cur_p))=glue_node then
-            if (n instanceof AbstractExpandableNode) {
-                // try_break(0,unhyphenated);
-                tryBreak(nodes, 0, false);
-            }
+        // if type(link(cur_p))=glue_node then
+        if (autoBreaking && curBreak + 1 < paragraph.size()
+                && paragraph.getType(curBreak + 1) == ParagraphArrays.GLUE) {
+            // try_break(0,unhyphenated);
+            tryBreak(nodes, 0, false);
         }
         // act_width <-- act_width+width(cur_p);
-        activeWidth.add(nodes.get(curBreak).getWidth());
+        activeWidth.add(paragraph.getWidth(curBreak));
         // end
     }
 
@@ -2723,6 +3022,9 @@ public class TeXParagraphBuilder
      *
      * This code is used in section 863.
      *
+     * The switch is performed on the flat representation of the paragraph
+     * in {@link #paragraph paragraph}. The node list is only consulted for
+     * tracing.
      *
      * @param nodes the node list for the paragraph to break
      *
@@ -2733,421 +3035,157 @@ public class TeXParagraphBuilder
         // begin if is_char_node(cur_p) then
         // Advance (c)cur_p to the node following the present string of
         // characters 867;
-
-        // case type(cur_p) of hlist_node,vlist_node,rule_node:
-        // act_width <-- act_width+width(cur_p);
-        // whatsit_node: Advance (p)past a whatsit node in the (l)
-        // line_break loop 1362;
-        // glue_node: begin If node cur_p is a legal
-        // breakpoint, call try_break; then update the active widths by including the
-        // glue in glue_ptr(cur_p) 868;
-        // if second_pass && auto_breaking then
-        // Try to hyphenate the following word 894;
-        // end ;
-        // kern_node: if subtype(cur_p)=explicit then
-        // kern_break
-        // else act_width <-- act_width+width(cur_p);
-        // ligature_node: begin f <-- font(lig_char(cur_p));
-        // act_width <-- act_width+char_width(f)(char_info(f)(
-        // character(lig_char(cur_p))));
-        // end ;
-        // disc_node: Try to break after a discretionary fragment, then
-        // goto done5 869;
-        // math_node: begin auto_breaking <-- (subtype(cur_p)=after);
-        // kern_break;
-        // end ;
-        // penalty_node: try_break(penalty(cur_p), unhyphenated);
-        // mark_node,ins_node,adjust_node: do_nothing;
-        // do nothing
-        // othercases confusion("paragraph")
-        // endcases ;
-
-        if (nodes.get(curBreak).visit(visitor, nodes) == null) {
-            // prev_p <-- cur_p;
-            prevP = curBreak;
-            // cur_p <-- link(cur_p);
-            curBreak++;
+        if (paragraph.getType(curBreak) == ParagraphArrays.CHAR) {
+            advanceToNonChar();
+            if (curBreak >= paragraph.size()) {
+                return;
+            }
         }
 
-        // done5: end
-    }
+        switch (paragraph.getType(curBreak)) {
+            case ParagraphArrays.BOX:
+                // hlist_node,vlist_node,rule_node:
+                // act_width <-- act_width+width(cur_p);
+                activeWidth.add(paragraph.getWidth(curBreak));
+                break;
 
-    /**
-     * The field <tt>visitor</tt> contains the node visitor for the inner switch
-     * on the node types.
-     */
-    private NodeVisitor visitor = new NodeVisitor() {
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitAdjust(
-         *      de.dante.extex.typesetter.type.node.AdjustNode,
-         *      java.lang.Object)
-         */
-        public Object visitAdjust(final AdjustNode node, final Object value) {
-
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitAfterMath(
-         *      de.dante.extex.typesetter.type.node.AfterMathNode,
-         *      java.lang.Object)
-         */
-        public Object visitAfterMath(final AfterMathNode node,
-                final Object value) throws GeneralException {
-
-            autoBreaking = true;
-            kernBreak((NodeList) value);
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitAlignedLeaders(
-         *      de.dante.extex.typesetter.type.node.AlignedLeadersNode,
-         *      java.lang.Object)
-         */
-        public Object visitAlignedLeaders(final AlignedLeadersNode node,
-                final Object value) throws GeneralException {
-
-            // confusion("paragraph")
-            throw new HelpingException(localizer, "Panic.Paragraph");
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitBeforeMath(
-         *      de.dante.extex.typesetter.type.node.BeforeMathNode,
-         *      java.lang.Object)
-         */
-        public Object visitBeforeMath(final BeforeMathNode node,
-                final Object value) throws GeneralException {
-
-            autoBreaking = false;
-            kernBreak((HorizontalListNode) value);
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitCenteredLeaders(
-         *      de.dante.extex.typesetter.type.node.CenteredLeadersNode,
-         *      java.lang.Object)
-         */
-        public Object visitCenteredLeaders(final CenteredLeadersNode node,
-                final Object value) throws GeneralException {
-
-            // confusion("paragraph")
-            throw new HelpingException(localizer, "Panic.Paragraph");
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitChar(
-         *      de.dante.extex.typesetter.type.node.CharNode,
-         *      java.lang.Object)
-         */
-        public Object visitChar(final CharNode node, final Object value)
-                throws GeneralException {
-
-            // begin if is_char_node(cur_p) then
-            // Advance (c)cur_p to the node following the present string of
-            // characters 867;
-            Node n = advanceToNonChar((HorizontalListNode) value);
-            return n.visit(this, value);
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitDiscretionary(
-         *      de.dante.extex.typesetter.type.node.DiscretionaryNode,
-         *      java.lang.Object)
-         */
-        public Object visitDiscretionary(final DiscretionaryNode node,
-                final Object value) throws GeneralException {
-
-            // disc_node: Try to break after a discretionary fragment, then
-            // goto done5 869;
-            NodeList nodes = (NodeList) value;
-            /** 869.
-
-             The following code knows that discretionary texts contain
-             only character nodes, kern nodes, box nodes, rule nodes,
-             and ligature nodes.
-
-             This code is used in section 866.
-             */
-
-            // Try to break after a discretionary fragment, then goto
-            // done5 869 ::=
-            // begin s <-- pre_break(cur_p);
-            NodeList nl = node.getPreBreak();
-            // disc_width <-- 0;
-            discretionaryWidth.set(0);
-            // if s=null then
-            if (nl == null || nl.size() == 0) {
-                // try_break(ex_hyphen_penalty,hyphenated)
-                tryBreak(nodes, exHyphenPenalty, true);
-                // else begin
-            } else {
-                // repeat
-                // Add the width of node s to disc_width 870;
-                // s <-- link(s);
-                // until s=null;
-                discretionaryWidth.add(node.getWidth());
-                // act_width <-- act_width+disc_width;
-                activeWidth.add(discretionaryWidth);
-                // try_break(hyphen_penalty,hyphenated);
-                tryBreak(nodes, hyphenPenalty, true);
-                // act_width <-- act_width-disc_width;
-                activeWidth.subtract(discretionaryWidth);
-                // end ;
-            }
-            // r <-- replace_count(cur_p);
-            // s <-- link(cur_p);
-            NodeList s = node.getNoBreak();
-            // while r > 0 do
-            // begin Add the width of node s to act_width 871;
-            // decr(r);
-            // s <-- link(s);
-            // end ;
-            if (s != null) {
-                activeWidth.add(s.getWidth());
-            }
-            // prev_p <-- cur_p;
-            prevP = curBreak;
-            // cur_p <-- s;
-            curBreak++;
-            // goto done5;
-            return Boolean.TRUE;
-            // end
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitExpandedLeaders(
-         *      de.dante.extex.typesetter.type.node.ExpandedLeadersNode,
-         *      java.lang.Object)
-         */
-        public Object visitExpandedLeaders(final ExpandedLeadersNode node,
-                final Object value) throws GeneralException {
-
-            // confusion("paragraph")
-            throw new HelpingException(localizer, "Panic.Paragraph");
-        }
+            case ParagraphArrays.GLUE:
+                // glue_node: begin If node cur_p is a legal breakpoint,
+                // call try_break; then update the active widths by
+                // including the glue in glue_ptr(cur_p) 868;
 
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitGlue(
-         *      de.dante.extex.typesetter.type.node.GlueNode,
-         *      java.lang.Object)
-         */
-        public Object visitGlue(final GlueNode glue, final Object value)
-                throws GeneralException {
-
-            // glue_node: begin If node cur_p is a legal breakpoint,
-            // call try_break; then update the active widths by
-            // including the glue in glue_ptr(cur_p) 868;
-            NodeList nodes = (NodeList) value;
-            /** 868.
-             *
-             * When node cur_p is a glue node, we look at prev_p to
-             * see whether or not a breakpoint is legal at cur_p, as
-             * explained above.
-             *
-             * This code is used in section 866.
-             */
+                /* 868.
+                 *
+                 * When node cur_p is a glue node, we look at prev_p to
+                 * see whether or not a breakpoint is legal at cur_p, as
+                 * explained above.
+                 *
+                 * This code is used in section 866.
+                 */
 
-            // If node cur_p is a legal breakpoint, call try_break;
-            // then update the active widths by including the glue in
-            // glue_ptr(cur_p) 868 ::= if auto_breaking then
-            if (autoBreaking) {
-                Node previousNode = nodes.get(prevP);
+                // if auto_breaking then
                 // begin if is_char_node(prev_p) then
-                if (previousNode instanceof CharNode) {
-                    // try_break(0,unhyphenated)
-                    tryBreak(nodes, 0, false);
-                    // else if precedes_break(prev_p) then
-                } else if (!(previousNode instanceof Discardable)) {
-                    // try_break(0,unhyphenated)
-                    tryBreak(nodes, 0, false);
-                    // else if (type(prev_p)=kern_node) && (subtype(prev_p) != explicit) then
-                } else if (previousNode instanceof KernNode
-                        && !(previousNode instanceof ExplicitKernNode)) {
-                    // try_break(0,unhyphenated);
+                // try_break(0,unhyphenated)
+                // else if precedes_break(prev_p) then
+                // try_break(0,unhyphenated)
+                if (autoBreaking && !paragraph.isDiscardable(prevP)) {
                     tryBreak(nodes, 0, false);
-                    // end ;
                 }
-            }
-            // check_shrinkage(glue_ptr(cur_p));
-            checkShrinkage(glue.getSize());
-            // q <-- glue_ptr(cur_p);
-            FixedGlue g = glue.getSize();
-            // act_width <-- act_width+width(q);
-            // active_width[2+stretch_order(q)] <-- active_width[2+
-            // stretch_order(q)]+stretch(q);
-            // active_width[6] <-- active_width[6]+shrink(q)
-            activeWidth.add(g);
-
-            // - - - -
-            // if second_pass && auto_breaking then
-            if (secondPass && autoBreaking) {
+                // act_width <-- act_width+width(q);
+                // active_width[2+stretch_order(q)] <-- active_width[2+
+                // stretch_order(q)]+stretch(q);
+                // active_width[6] <-- active_width[6]+shrink(q)
+                paragraph.addGlueTo(curBreak, activeWidth);
+                // if second_pass && auto_breaking then
                 // Try to hyphenate the following word 894;
-                hyphenateFollowingWord(nodes, curBreak);
-            }
-
-            // end ;
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitHorizontalList(
-         *      de.dante.extex.typesetter.type.node.HorizontalListNode,
-         *      java.lang.Object)
-         */
-        public Object visitHorizontalList(final HorizontalListNode node,
-                final Object value) throws GeneralException {
-
-            activeWidth.add(node.getWidth());
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitInsertion(
-         *      de.dante.extex.typesetter.type.node.InsertionNode,
-         *      java.lang.Object)
-         */
-        public Object visitInsertion(final InsertionNode node,
-                final Object value) throws GeneralException {
-
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitKern(
-         *      de.dante.extex.typesetter.type.node.KernNode,
-         *      java.lang.Object)
-         */
-        public Object visitKern(final KernNode node, final Object value)
-                throws GeneralException {
+                // (done before the pass in hyphenateParagraph())
+                break;
 
-            // kern_node: if subtype(cur_p)=explicit then
-            if (node instanceof ExplicitKernNode) {
+            case ParagraphArrays.KERN:
+                // kern_node: if subtype(cur_p)=explicit then
                 // kern_break
-                kernBreak((HorizontalListNode) value);
                 // else act_width <-- act_width+width(cur_p);
-            } else {
-                activeWidth.add(node.getWidth());
-            }
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitLigature(
-         *      de.dante.extex.typesetter.type.node.LigatureNode,
-         *      java.lang.Object)
-         */
-        public Object visitLigature(final LigatureNode node, final Object value)
-                throws GeneralException {
-
-            // ligature_node: begin f <-- font(lig_char(cur_p));
-            // act_width <-- act_width+char_width(f)(char_info(f)(
-            // character(lig_char(cur_p))));
-
-            activeWidth.add(node.getWidth());
-
-            // end ;
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitMark(
-         *      de.dante.extex.typesetter.type.node.MarkNode,
-         *      java.lang.Object)
-         */
-        public Object visitMark(final MarkNode node, final Object value)
-                throws GeneralException {
-
-            return null;
-        }
-
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitPenalty(
-         *      de.dante.extex.typesetter.type.node.PenaltyNode,
-         *      java.lang.Object)
-         */
-        public Object visitPenalty(final PenaltyNode node, final Object value)
-                throws GeneralException {
+                activeWidth.add(paragraph.getWidth(curBreak));
+                break;
 
-            tryBreak((HorizontalListNode) value, (int) node.getPenalty(), false);
-            return null;
-        }
+            case ParagraphArrays.EXPLICIT_KERN:
+                kernBreak(nodes);
+                break;
 
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitRule(
-         *      de.dante.extex.typesetter.type.node.RuleNode,
-         *      java.lang.Object)
-         */
-        public Object visitRule(final RuleNode node, final Object value)
-                throws GeneralException {
+            case ParagraphArrays.MATH_BEGIN:
+                // math_node: begin auto_breaking <-- (subtype(cur_p)=after);
+                // kern_break;
+                autoBreaking = false;
+                kernBreak(nodes);
+                break;
 
-            activeWidth.add(node.getWidth());
-            return null;
-        }
+            case ParagraphArrays.MATH_END:
+                autoBreaking = true;
+                kernBreak(nodes);
+                break;
 
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitSpace(
-         *      de.dante.extex.typesetter.type.node.SpaceNode,
-         *      java.lang.Object)
-         */
-        public Object visitSpace(final SpaceNode node, final Object value)
-                throws GeneralException {
+            case ParagraphArrays.PENALTY:
+                // penalty_node: try_break(penalty(cur_p), unhyphenated);
+                tryBreak(nodes, paragraph.getPenalty(curBreak), false);
+                break;
 
-            return visitGlue(node, value);
-        }
+            case ParagraphArrays.DISCRETIONARY:
+                // disc_node: Try to break after a discretionary fragment,
+                // then goto done5 869;
+                tryDiscretionaryBreak(nodes);
+                // goto done5;
+                return;
 
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitVerticalList(
-         *      de.dante.extex.typesetter.type.node.VerticalListNode,
-         *      java.lang.Object)
-         */
-        public Object visitVerticalList(final VerticalListNode node,
-                final Object value) throws GeneralException {
+            case ParagraphArrays.IGNORE:
+                // mark_node,ins_node,adjust_node: do_nothing;
+                // whatsit_node: Advance (p)past a whatsit node in the (l)
+                // line_break loop 1362;
+                break;
 
-            activeWidth.add(node.getWidth());
-            return null;
+            default:
+                // othercases confusion("paragraph")
+                throw new HelpingException(localizer, "Panic.Paragraph");
         }
 
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitVirtualChar(
-         *      de.dante.extex.typesetter.type.node.VirtualCharNode,
-         *      java.lang.Object)
-         */
-        public Object visitVirtualChar(final VirtualCharNode node,
-                final Object value) throws GeneralException {
+        // prev_p <-- cur_p;
+        prevP = curBreak;
+        // cur_p <-- link(cur_p);
+        curBreak++;
 
-            return visitChar(node, value);
-        }
+        // done5: end
+    }
 
-        /**
-         * @see de.dante.extex.typesetter.type.NodeVisitor#visitWhatsIt(
-         *      de.dante.extex.typesetter.type.node.WhatsItNode,
-         *      java.lang.Object)
-         */
-        public Object visitWhatsIt(final WhatsItNode node, final Object value)
-                throws GeneralException {
+    /** 869.
+     *
+     * The following code knows that discretionary texts contain
+     * only character nodes, kern nodes, box nodes, rule nodes,
+     * and ligature nodes.
+     *
+     * This code is used in section 866.
+     *
+     * Try to break after a discretionary fragment, then goto
+     * done5 869 ::=
+     *
+     * @param nodes the node list for the paragraph to break
+     */
+    private void tryDiscretionaryBreak(final NodeList nodes) {
 
-            // whatsit_node: Advance (p)past a whatsit node in the (l)
-            // line_break loop 1362;
-            /* 1362.
-             *
-             * This code is used in section 866.
-             *
-             * define adv_past(#) ::= if subtype(#)=language_node then
-             * begin cur_lang <-- what_lang(#); l_hyf <-- what_lhm(#);
-             *  r_hyf <-- what_rhm(#); end
-             *
-             * Advance (p)past a whatsit node in the (l)line_break loop 1362 ::=
-             *   adv_past(cur_p)
-             */
-            // - - -
-            return null;
+        // begin s <-- pre_break(cur_p);
+        // disc_width <-- 0;
+        discretionaryWidth = 0;
+        // if s=null then
+        if (!paragraph.hasPreBreak(curBreak)) {
+            // try_break(ex_hyphen_penalty,hyphenated)
+            tryBreak(nodes, exHyphenPenalty, true);
+            // else begin
+        } else {
+            // repeat
+            // Add the width of node s to disc_width 870;
+            // s <-- link(s);
+            // until s=null;
+            discretionaryWidth = paragraph.getWidth(curBreak);
+            // act_width <-- act_width+disc_width;
+            activeWidth.add(discretionaryWidth);
+            // try_break(hyphen_penalty,hyphenated);
+            tryBreak(nodes, hyphenPenalty, true);
+            // act_width <-- act_width-disc_width;
+            activeWidth.add(-discretionaryWidth);
+            // end ;
         }
-
-    };
+        // r <-- replace_count(cur_p);
+        // s <-- link(cur_p);
+        // while r > 0 do
+        // begin Add the width of node s to act_width 871;
+        // decr(r);
+        // s <-- link(s);
+        // end ;
+        activeWidth.add(paragraph.getNoBreak(curBreak));
+        // prev_p <-- cur_p;
+        prevP = curBreak;
+        // cur_p <-- s;
+        curBreak++;
+        // end
+    }
 
     /** 867.
      *
@@ -3162,14 +3200,11 @@ public class TeXParagraphBuilder
      * characters 867 ::=
      *
      * This code is used in section 866.
-     *
-     * @param nodes the node list for the paragraph to break
-     *
-     * @return the next non-char node
      */
-    private Node advanceToNonChar(final NodeList nodes) {
+    private void advanceToNonChar() {
 
-        Node node = nodes.get(curBreak);
+        int size = paragraph.size();
+        long w = 0;
 
         // begin prev_p <-- cur_p;
         prevP = curBreak;
@@ -3177,16 +3212,15 @@ public class TeXParagraphBuilder
         do {
             // repeat f <-- font(cur_p);
             // act_width <-- act_width+char_width(f)(char_info(f)(character(cur_p)));
-            activeWidth.add(node.getWidth());
+            w += paragraph.getWidth(curBreak);
             // cur_p <-- link(cur_p);
             curBreak++;
-
-            node = nodes.get(curBreak);
             // until  is_char_node(cur_p);
-        } while (node instanceof CharNode);
+        } while (curBreak < size
+                && paragraph.getType(curBreak) == ParagraphArrays.CHAR);
 
+        activeWidth.add(w);
         // end
-        return node;
     }
 
     /* 870.
@@ -3471,6 +3505,7 @@ public class TeXParagraphBuilder
         // begin Reverse the links of the relevant passive nodes, setting
         // cur_p to the first breakpoint 878;
         curP = extractBestBreaks();
+        insertHyphenationPoints(nodes, curP);
 
         // cur_line <-- prev_graf+1;
         long curLine = prevGraf + 1;
@@ -3549,8 +3584,12 @@ public class TeXParagraphBuilder
             if (curP != null) {
                 // if  post_disc_break then
                 if (postDiscBreak == null) {
+                    if (discBreak) {
+                        // the discretionary has been used up by the break
+                        idx++;
+                    }
                     // Prune unwanted nodes at the beginning of the next line 879;
-                    idx = pruneUnwantedNodes(nodes, idx, theBreak);
+                    idx = pruneUnwantedNodes(nodes, idx, curP.getCurBreak());
                 }
             }
 
@@ -3601,18 +3640,6 @@ public class TeXParagraphBuilder
             }
             postDiscBreak = null;
             i++;
-        } else {
-            while (i < to) {
-                n = nodes.get(i);
-                if (n instanceof GlueNode) {
-                    i++;
-                } else if (n instanceof MarkNode || n instanceof InsertionNode
-                        || n instanceof AdjustNode) {
-                    vlist.add(n);
-                } else {
-                    break;
-                }
-            }
         }
 
         lineGlue.set(Dimen.ZERO_PT);
@@ -4056,6 +4083,122 @@ public class TeXParagraphBuilder
 
     }
 
+    /**
+     * Insert discretionary nodes for those hyphenation points which have been
+     * chosen as breakpoints. Afterwards the breakpoints are translated from
+     * indices into the flat representation of the paragraph into indices
+     * into the node list.
+     *
+     * @param nodes the node list for the paragraph to break
+     * @param first the first breakpoint
+     */
+    private void insertHyphenationPoints(final NodeList nodes,
+            final PassiveNode first) {
+
+        int size = paragraph.size();
+        int inserted = 0;
+
+        for (PassiveNode p = first; p != null; p = p.getNextBreak()) {
+            int e = p.getCurBreak();
+            if (e >= size) {
+                p.setCurBreak(nodes.size());
+                continue;
+            }
+            int idx = paragraph.getNodeIndex(e) + inserted;
+            int h = paragraph.getHyphenationPoint(e);
+            if (h >= 0) {
+                CharNode prev = (CharNode) nodes.get(hyphenation
+                        .getPrevious(h)
+                        + inserted);
+                nodes.add(idx, hyphenation.createDiscretionary(prev,
+                        nodeFactory));
+                inserted++;
+            }
+            p.setCurBreak(idx);
+        }
+    }
+
+    /**
+     * Check whether a language is able to hyphenate all words of the
+     * paragraph in one go.
+     *
+     * @param language the language
+     *
+     * @return <code>true</code> iff the language supports batch hyphenation
+     *
+     * @throws HyphenationException in case of an error
+     */
+    private boolean isBatchHyphenator(final Language language)
+            throws HyphenationException {
+
+        return language instanceof BatchHyphenator
+                && ((BatchHyphenator) language).isBatchSupported();
+    }
+
+    /**
+     * Check whether a character node contains a letter, i.e. a character
+     * with a non-zero <tt>\lccode</tt>. A ligature is a letter if all its
+     * characters are letters.
+     *
+     * @param node the node to check
+     *
+     * @return <code>true</code> iff the node is a letter
+     */
+    private boolean isLetter(final CharNode node) {
+
+        if (node instanceof LigatureNode) {
+            CharNode[] chars = ((LigatureNode) node).getChars();
+            for (int i = 0; i < chars.length; i++) {
+                if (!isLetter(chars[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        UnicodeChar lc = options.getLccode(node.getCharacter());
+        return lc != null && lc.getCodePoint() != 0;
+    }
+
+    /**
+     * Try to hyphenate the words following glue which is a legal breakpoint.
+     * <logo>TeX</logo> does this while it passes over the paragraph in the
+     * second pass. Here it is done in advance such that the paragraph can be
+     * flattened afterwards.
+     * <p>
+     *  The words of a language which is able to hyphenate many words at once
+     *  are collected and passed to the hyphenator in one go. The hyphenation
+     *  points found are recorded in {@link #hyphenation hyphenation} without
+     *  touching the node list. Discretionary nodes are created later on for
+     *  the hyphenation points chosen as breakpoints only. For other languages
+     *  the discretionary nodes are inserted into the node list immediately.
+     * </p>
+     *
+     * @param list the node list to insert the hyphenation points into
+     *
+     * @throws HyphenationException in case of an error
+     */
+    private void hyphenateParagraph(final NodeList list)
+            throws HyphenationException {
+
+        if (hyphenated) {
+            return;
+        }
+        hyphenated = true;
+        boolean auto = true;
+
+        for (int i = 0; i < list.size(); i++) {
+            Node n = list.get(i);
+            if (n instanceof BeforeMathNode) {
+                auto = false;
+            } else if (n instanceof AfterMathNode) {
+                auto = true;
+            } else if (auto && n instanceof GlueNode) {
+                hyphenateFollowingWord(list, i);
+            }
+        }
+        hyphenation.flush(list, options);
+    }
+
     /**
      * Hyphenate the following word.
      *
@@ -4075,7 +4218,9 @@ public class TeXParagraphBuilder
                 TypesettingContext tc = ((CharNode) n).getTypesettingContext();
                 Language language = tc.getLanguage();
                 UnicodeChar hyphen = tc.getFont().getHyphenChar();
-                if (hyphen != null) {
+                if (isBatchHyphenator(language)) {
+                    collectFollowingWord(list, start);
+                } else if (hyphen != null) {
                     language.hyphenate(list, options, hyphen, start, false,
                             nodeFactory);
                 }
@@ -4084,4 +4229,98 @@ public class TeXParagraphBuilder
         }
     }
 
+    /**
+     * Collect the word following a glue node for hyphenation. Like in
+     * <logo>TeX</logo> the word starts at the first letter. Non-letters,
+     * implicit kerns, and whatsits before it are skipped. The word consists
+     * of letters of the same font and language, possibly with implicit kerns
+     * between them. It is not hyphenated if it is not followed by something
+     * which terminates a word, e.g. glue, a penalty, or an explicit kern.
+     *
+     * @param list the node list of the paragraph
+     * @param start the index of the glue node
+     *
+     * @throws HyphenationException in case of an error
+     */
+    private void collectFollowingWord(final NodeList list, final int start)
+            throws HyphenationException {
+
+        int size = list.size();
+        int i = start + 1;
+        Node n;
+
+        for (; i < size; i++) {
+            n = list.get(i);
+            if (n instanceof CharNode) {
+                if (isLetter((CharNode) n)) {
+                    break;
+                }
+            } else if (!(n instanceof WhatsItNode)
+                    && !(n instanceof ImplicitKernNode)) {
+                return;
+            }
+        }
+        if (i >= size) {
+            return;
+        }
+        TypesettingContext tc = ((CharNode) list.get(i))
+                .getTypesettingContext();
+        Language language = tc.getLanguage();
+        Font font = tc.getFont();
+        if (font.getHyphenChar() == null) {
+            return;
+        } else if (!isBatchHyphenator(language)) {
+            language.hyphenate(list, options, font.getHyphenChar(), start,
+                    false, nodeFactory);
+            return;
+        }
+
+        int end = i;
+        for (; end < size; end++) {
+            n = list.get(end);
+            if (n instanceof CharNode) {
+                TypesettingContext t = ((CharNode) n).getTypesettingContext();
+                if (t.getLanguage() != language || !font.equals(t.getFont())
+                        || !isLetter((CharNode) n)) {
+                    break;
+                }
+            } else if (!(n instanceof ImplicitKernNode)) {
+                break;
+            }
+        }
+
+        for (int j = end; j < size; j++) {
+            n = list.get(j);
+            if (n instanceof CharNode) {
+                if (isLetter((CharNode) n)) {
+                    return;
+                }
+            } else if (n instanceof GlueNode || n instanceof PenaltyNode
+                    || n instanceof ExplicitKernNode
+                    || n instanceof BeforeMathNode
+                    || n instanceof AfterMathNode
+                    || n instanceof InsertionNode || n instanceof AdjustNode
+                    || n instanceof MarkNode || n instanceof WhatsItNode) {
+                break;
+            } else if (!(n instanceof ImplicitKernNode)) {
+                return;
+            }
+        }
+
+        hyphenation.startWord((BatchHyphenator) language, list, options);
+        for (int j = i; j < end; j++) {
+            n = list.get(j);
+            if (n instanceof LigatureNode) {
+                CharNode[] chars = ((LigatureNode) n).getChars();
+                hyphenation.addChar(chars[0].getCharacter(), j);
+                for (int k = 1; k < chars.length; k++) {
+                    hyphenation.addChar(chars[k].getCharacter(), ~j);
+                }
+            } else if (n instanceof CharNode) {
+                hyphenation.addChar(((CharNode) n).getCharacter(), j);
+            }
+        }
+        hyphenation.endWord();
+    }
+
 }
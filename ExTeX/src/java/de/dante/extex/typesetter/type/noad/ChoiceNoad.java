@@ -82,6 +82,36 @@ public class ChoiceNoad implements Noad {
         scriptScript = scriptscriptMath;
     }
 
+    /**
+     * Getter for the noad for the display style.
+     *
+     * @return the the noad for the display style
+     */
+    public Noad getDisplay() {
+
+        return display;
+    }
+
+    /**
+     * Getter for the noad for the script style.
+     *
+     * @return the the noad for the script style
+     */
+    public Noad getScript() {
+
+        return script;
+    }
+
+    /**
+     * Getter for the noad for the scriptscript style.
+     *
+     * @return the the noad for the scriptscript style
+     */
+    public Noad getScriptScript() {
+
+        return scriptScript;
+    }
+
     /**
      * @see de.dante.extex.typesetter.type.noad.Noad#getSpacingClass()
      */
@@ -106,6 +136,16 @@ public class ChoiceNoad implements Noad {
         return null;
     }
 
+    /**
+     * Getter for the noad for the text style.
+     *
+     * @return the the noad for the text style
+     */
+    public Noad getText() {
+
+        return text;
+    }
+
     /**
      * @see de.dante.extex.typesetter.type.noad.Noad#setSubscript(
      *      de.dante.extex.typesetter.type.noad.Noad)
@@ -108,6 +108,26 @@ public class FractionNoad extends AbstractNoad {
         this.tc = tc;
     }
 
+    /**
+     * Getter for the denominator.
+     *
+     * @return the the denominator
+     */
+    public MathList getDenominator() {
+
+        return denominator;
+    }
+
+    /**
+     * Getter for the numerator.
+     *
+     * @return the the numerator
+     */
+    public MathList getNumerator() {
+
+        return numerator;
+    }
+
     /**
      * @see "TTP [697]"
      * @see de.dante.extex.typesetter.type.noad.AbstractNoad#toStringAdd(
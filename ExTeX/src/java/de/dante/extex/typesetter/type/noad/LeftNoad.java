@@ -64,6 +64,16 @@ public class LeftNoad extends AbstractNoad {
         this.noad = noad;
     }
 
+    /**
+     * Getter for the noad following the left delimiter.
+     *
+     * @return the the noad following the left delimiter
+     */
+    public Noad getNoad() {
+
+        return noad;
+    }
+
     /**
      * @see "TTP [696]"
      * @see de.dante.extex.typesetter.type.noad.AbstractNoad#toStringAdd(
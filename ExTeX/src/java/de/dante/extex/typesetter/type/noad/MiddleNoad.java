@@ -70,6 +70,16 @@ public class MiddleNoad extends LeftNoad {
         this.noadPost = noadPost;
     }
 
+    /**
+     * Getter for the material after this noad.
+     *
+     * @return the the material after this noad
+     */
+    public Noad getNoadPost() {
+
+        return noadPost;
+    }
+
     /**
      * @see de.dante.extex.typesetter.type.noad.AbstractNoad#toStringAdd(
      *      java.lang.StringBuffer,
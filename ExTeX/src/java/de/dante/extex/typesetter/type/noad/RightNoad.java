@@ -63,6 +63,16 @@ public class RightNoad extends AbstractNoad {
         this.delimiter = delimiter;
     }
 
+    /**
+     * Getter for the noad on the left side.
+     *
+     * @return the the noad on the left side
+     */
+    public LeftNoad getNoad() {
+
+        return noad;
+    }
+
     /**
      * @see "TTP [696]"
      * @see de.dante.extex.typesetter.type.noad.AbstractNoad#toStringAdd(
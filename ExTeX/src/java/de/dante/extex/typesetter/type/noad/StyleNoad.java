@@ -176,10 +176,16 @@ import de.dante.util.framework.configuration.exception.ConfigurationException;
  *
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
- * @version $Revision: 1.26 $
+ * @version $Revision: 1.27 $
  */
 public final class StyleNoad implements Noad {
 
+    /**
+     * The constant <tt>SIZES</tt> contains the number of distinct sizes as
+     * returned by {@link #getSize() getSize()}.
+     */
+    public static final int SIZES = 3;
+
     /**
      * The field <tt>styles</tt> contains the list of styles prepared for use.
      * Some of them are available via constants; others can be acquired via
@@ -324,6 +330,18 @@ public final class StyleNoad implements Noad {
         return this.fontName;
     }
 
+    /**
+     * Getter for the size. The size distinguishes the three font sizes used
+     * in math mode. It is 0 for display and text style, 1 for script style,
+     * and 2 for scriptscript style.
+     *
+     * @return the size
+     */
+    public int getSize() {
+
+        return no < 4 ? 0 : no / 2 - 1;
+    }
+
     /**
      * @see de.dante.extex.typesetter.type.noad.Noad#getSpacingClass()
      */
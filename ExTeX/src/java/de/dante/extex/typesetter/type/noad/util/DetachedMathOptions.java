@@ -0,0 +1,436 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.type.noad.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.dante.extex.interpreter.context.tc.TypesettingContext;
+import de.dante.extex.interpreter.context.tc.TypesettingContextFactory;
+import de.dante.extex.interpreter.primitives.register.font.NumberedFont;
+import de.dante.extex.interpreter.type.count.Count;
+import de.dante.extex.interpreter.type.count.FixedCount;
+import de.dante.extex.interpreter.type.dimen.Dimen;
+import de.dante.extex.interpreter.type.dimen.FixedDimen;
+import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.interpreter.type.glue.FixedGlue;
+import de.dante.extex.interpreter.type.glue.Glue;
+import de.dante.extex.interpreter.type.muskip.Muskip;
+import de.dante.extex.scanner.type.token.TokenFactory;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphShape;
+import de.dante.extex.typesetter.type.noad.AbstractNucleusNoad;
+import de.dante.extex.typesetter.type.noad.CharNoad;
+import de.dante.extex.typesetter.type.noad.ChoiceNoad;
+import de.dante.extex.typesetter.type.noad.FractionNoad;
+import de.dante.extex.typesetter.type.noad.GlueNoad;
+import de.dante.extex.typesetter.type.noad.KernNoad;
+import de.dante.extex.typesetter.type.noad.LeftNoad;
+import de.dante.extex.typesetter.type.noad.MathList;
+import de.dante.extex.typesetter.type.noad.MiddleNoad;
+import de.dante.extex.typesetter.type.noad.Noad;
+import de.dante.extex.typesetter.type.noad.NodeNoad;
+import de.dante.extex.typesetter.type.noad.RightNoad;
+import de.dante.extex.typesetter.type.noad.StyleNoad;
+import de.dante.util.UnicodeChar;
+
+/**
+ * This class provides a snapshot of the typesetter options needed to
+ * translate a math list into nodes. All values are read when the instance is
+ * created. Afterwards the instance does not refer to the options any more.
+ * Thus it can be used to typeset a formula in a thread different from the
+ * interpreter while the interpreter continues to modify the options.
+ * <p>
+ *  The snapshot contains the fonts of the families 0 to 15 in all three
+ *  sizes, the math skips, the glue parameters, <tt>\scriptspace</tt>,
+ *  <tt>\mathsurround</tt>, <tt>\tracinglostchars</tt>, the
+ *  <tt>\lccode</tt>s of the first 256 characters, the namespace and the
+ *  current typesetting context. The <tt>\lccode</tt> of any other character
+ *  is the predefined one. Any other option is not available and leads to an
+ *  {@link UnsupportedOperationException UnsupportedOperationException}.
+ * </p>
+ * <p>
+ *  A formula using a further family, e.g. via <tt>\omathchardef</tt>, can
+ *  not be typeset with a snapshot. This is checked with
+ *  {@link #isSufficient(Noad) isSufficient()} before the snapshot is taken.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class DetachedMathOptions implements TypesetterOptions {
+
+    /**
+     * The constant <tt>COUNTS</tt> contains the names of the count options
+     * recorded.
+     */
+    private static final String[] COUNTS = {"tracinglostchars"};
+
+    /**
+     * The constant <tt>DIMENS</tt> contains the names of the dimen options
+     * recorded.
+     */
+    private static final String[] DIMENS = {"mathsurround", "scriptspace"};
+
+    /**
+     * The constant <tt>FAMILIES</tt> contains the number of font families
+     * recorded.
+     */
+    public static final int FAMILIES = 16;
+
+    /**
+     * The constant <tt>FONTS</tt> contains the names of the font families
+     * for the three sizes.
+     */
+    private static final String[] FONTS = {"textfont", "scriptfont",
+            "scriptscriptfont"};
+
+    /**
+     * The constant <tt>GLUES</tt> contains the names of the glue options
+     * recorded.
+     */
+    private static final String[] GLUES = {"abovedisplayshortskip",
+            "abovedisplayskip", "baselineskip", "belowdisplayshortskip",
+            "belowdisplayskip", "leftskip", "lineskip", "parfillskip",
+            "parskip", "rightskip", "spaceskip", "splittopskip", "tabskip",
+            "topskip", "xspaceskip"};
+
+    /**
+     * The constant <tt>LCCODES</tt> contains the number of characters for
+     * which the <tt>\lccode</tt> is recorded.
+     */
+    private static final int LCCODES = 256;
+
+    /**
+     * The constant <tt>MUSKIPS</tt> contains the names of the muskip options
+     * recorded.
+     */
+    private static final String[] MUSKIPS = {"thinmuskip", "medmuskip",
+            "thickmuskip"};
+
+    /**
+     * Check whether a math list can be typeset with a snapshot. This is the
+     * case if all characters are taken from the families recorded. The
+     * fonts are only looked up for characters; other noads do not refer to
+     * families. A noad of an unknown kind is not accepted.
+     *
+     * @param noad the noad to check or <code>null</code>
+     *
+     * @return <code>true</code> iff the snapshot contains everything
+     *  needed to typeset the noad
+     */
+    public static boolean isSufficient(final Noad noad) {
+
+        if (noad == null) {
+            return true;
+        } else if (noad instanceof CharNoad) {
+            int family = ((CharNoad) noad).getChar().getFamily();
+            return family >= 0 && family < FAMILIES
+                    && isSufficientScripts(noad);
+        } else if (noad instanceof AbstractNucleusNoad) {
+            return isSufficient(((AbstractNucleusNoad) noad).getNucleus())
+                    && isSufficientScripts(noad);
+        } else if (noad instanceof MathList) {
+            MathList list = (MathList) noad;
+            int size = list.size();
+            for (int i = 0; i < size; i++) {
+                if (!isSufficient(list.get(i))) {
+                    return false;
+                }
+            }
+            return isSufficientScripts(noad);
+        } else if (noad instanceof FractionNoad) {
+            FractionNoad fraction = (FractionNoad) noad;
+            return isSufficient(fraction.getNumerator())
+                    && isSufficient(fraction.getDenominator())
+                    && isSufficientScripts(noad);
+        } else if (noad instanceof ChoiceNoad) {
+            ChoiceNoad choice = (ChoiceNoad) noad;
+            return isSufficient(choice.getDisplay())
+                    && isSufficient(choice.getText())
+                    && isSufficient(choice.getScript())
+                    && isSufficient(choice.getScriptScript());
+        } else if (noad instanceof MiddleNoad) {
+            return isSufficient(((MiddleNoad) noad).getNoad())
+                    && isSufficient(((MiddleNoad) noad).getNoadPost())
+                    && isSufficientScripts(noad);
+        } else if (noad instanceof LeftNoad) {
+            return isSufficient(((LeftNoad) noad).getNoad())
+                    && isSufficientScripts(noad);
+        } else if (noad instanceof RightNoad) {
+            return isSufficient(((RightNoad) noad).getNoad())
+                    && isSufficientScripts(noad);
+        }
+        return (noad instanceof GlueNoad || noad instanceof KernNoad
+                || noad instanceof NodeNoad || noad instanceof StyleNoad)
+                && isSufficientScripts(noad);
+    }
+
+    /**
+     * Check whether the subscript and the superscript of a noad can be
+     * typeset with a snapshot.
+     *
+     * @param noad the noad
+     *
+     * @return <code>true</code> iff the snapshot contains everything
+     *  needed to typeset the scripts
+     */
+    private static boolean isSufficientScripts(final Noad noad) {
+
+        return isSufficient(noad.getSubscript())
+                && isSufficient(noad.getSuperscript());
+    }
+
+    /**
+     * The field <tt>counts</tt> contains the recorded count options.
+     */
+    private Map counts = new HashMap();
+
+    /**
+     * The field <tt>dimens</tt> contains the recorded dimen options.
+     */
+    private Map dimens = new HashMap();
+
+    /**
+     * The field <tt>fonts</tt> contains the recorded fonts. The key is the
+     * key of the font in the options.
+     */
+    private Map fonts = new HashMap();
+
+    /**
+     * The field <tt>glues</tt> contains the recorded glue options.
+     */
+    private Map glues = new HashMap();
+
+    /**
+     * The field <tt>lccodes</tt> contains the recorded <tt>\lccode</tt>s
+     * indexed by the code point.
+     */
+    private UnicodeChar[] lccodes = new UnicodeChar[LCCODES];
+
+    /**
+     * The field <tt>muskips</tt> contains the recorded muskip options.
+     */
+    private Map muskips = new HashMap();
+
+    /**
+     * The field <tt>namespace</tt> contains the namespace.
+     */
+    private String namespace;
+
+    /**
+     * The field <tt>typesettingContext</tt> contains the typesetting context.
+     */
+    private TypesettingContext typesettingContext;
+
+    /**
+     * The field <tt>typesettingContextFactory</tt> contains the factory for
+     * typesetting contexts. The factory is safe to be used from several
+     * threads.
+     */
+    private TypesettingContextFactory typesettingContextFactory;
+
+    /**
+     * Creates a new object and records the values from the options.
+     *
+     * @param options the options to take the values from
+     */
+    public DetachedMathOptions(final TypesetterOptions options) {
+
+        super();
+        namespace = options.getNamespace();
+        typesettingContext = options.getTypesettingContext();
+        typesettingContextFactory = options.getTypesettingContextFactory();
+
+        for (int i = 0; i < COUNTS.length; i++) {
+            FixedCount c = options.getCountOption(COUNTS[i]);
+            counts.put(COUNTS[i], c == null ? null : new Count(c));
+        }
+        for (int i = 0; i < DIMENS.length; i++) {
+            FixedDimen d = options.getDimenOption(DIMENS[i]);
+            dimens.put(DIMENS[i], d == null ? null : new Dimen(d));
+        }
+        for (int i = 0; i < GLUES.length; i++) {
+            FixedGlue g = options.getGlueOption(GLUES[i]);
+            glues.put(GLUES[i], g == null ? null : new Glue(g));
+        }
+        for (int i = 0; i < LCCODES; i++) {
+            lccodes[i] = options.getLccode(UnicodeChar.get(i));
+        }
+        for (int i = 0; i < MUSKIPS.length; i++) {
+            Muskip m = options.getMuskip(MUSKIPS[i]);
+            muskips.put(MUSKIPS[i], m == null ? null : new Muskip(m));
+        }
+        for (int i = 0; i < FONTS.length; i++) {
+            for (int fam = 0; fam < FAMILIES; fam++) {
+                String key = NumberedFont.key(options, FONTS[i], Integer
+                        .toString(fam));
+                fonts.put(key, options.getFont(key));
+            }
+        }
+    }
+
+    /**
+     * Look up a value recorded.
+     *
+     * @param map the map to use
+     * @param name the name of the option
+     * @param method the name of the method for the error message
+     *
+     * @return the value recorded
+     */
+    private Object get(final Map map, final String name, final String method) {
+
+        if (!map.containsKey(name)) {
+            throw new UnsupportedOperationException(getClass().getName()
+                    + "#" + method + "(" + name + ")");
+        }
+        return map.get(name);
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getCountOption(
+     *      java.lang.String)
+     */
+    public FixedCount getCountOption(final String name) {
+
+        return (FixedCount) get(counts, name, "getCountOption");
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getDimenOption(
+     *      java.lang.String)
+     */
+    public FixedDimen getDimenOption(final String name) {
+
+        return (FixedDimen) get(dimens, name, "getDimenOption");
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getFont(
+     *      java.lang.String)
+     */
+    public Font getFont(final String name) {
+
+        return (Font) get(fonts, name, "getFont");
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getGlueOption(
+     *      java.lang.String)
+     */
+    public FixedGlue getGlueOption(final String name) {
+
+        return (FixedGlue) get(glues, name, "getGlueOption");
+    }
+
+    /**
+     * Getter for the <tt>\lccode</tt> of a character. For a character beyond
+     * the recorded ones the predefined value is returned, i.e. the lower case
+     * character for letters and <code>null</code> otherwise.
+     *
+     * @param uc the character
+     *
+     * @return the lower case equivalent
+     *
+     * @see de.dante.extex.typesetter.TypesetterOptions#getLccode(
+     *      de.dante.util.UnicodeChar)
+     */
+    public UnicodeChar getLccode(final UnicodeChar uc) {
+
+        int cp = uc.getCodePoint();
+        if (cp >= 0 && cp < LCCODES) {
+            return lccodes[cp];
+        }
+        return uc.isLetter() ? uc.lower() : null;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getMuskip(
+     *      java.lang.String)
+     */
+    public Muskip getMuskip(final String name) {
+
+        return (Muskip) get(muskips, name, "getMuskip");
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getNamespace()
+     */
+    public String getNamespace() {
+
+        return namespace;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getParshape()
+     */
+    public ParagraphShape getParshape() {
+
+        throw new UnsupportedOperationException(getClass().getName()
+                + "#getParshape()");
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getTokenFactory()
+     */
+    public TokenFactory getTokenFactory() {
+
+        throw new UnsupportedOperationException(getClass().getName()
+                + "#getTokenFactory()");
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getTypesettingContext()
+     */
+    public TypesettingContext getTypesettingContext() {
+
+        return typesettingContext;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#getTypesettingContextFactory()
+     */
+    public TypesettingContextFactory getTypesettingContextFactory() {
+
+        return typesettingContextFactory;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#setCountOption(
+     *      java.lang.String, long)
+     */
+    public void setCountOption(final String name, final long value) {
+
+        throw new UnsupportedOperationException(getClass().getName()
+                + "#setCountOption(" + name + ")");
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.TypesetterOptions#setParshape(
+     *      de.dante.extex.typesetter.paragraphBuilder.ParagraphShape)
+     */
+    public void setParshape(final ParagraphShape shape) {
+
+        throw new UnsupportedOperationException(getClass().getName()
+                + "#setParshape()");
+    }
+
+}
@@ -19,6 +19,10 @@
 
 package de.dante.extex.typesetter.type.noad.util;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import de.dante.extex.interpreter.exception.helping.HelpingException;
 import de.dante.extex.interpreter.primitives.register.font.NumberedFont;
 import de.dante.extex.interpreter.type.dimen.Dimen;
@@ -37,8 +41,15 @@ import de.dante.util.framework.i18n.LocalizerFactory;
  * This class provides a container for the information on the current
  * mathematical appearance.
  *
+ * <p>
+ *  The font parameters are kept in blocks per font. The blocks are shared
+ *  by all formulas and survive as long as the font is in use. Thus a
+ *  parameter is looked up in a font at most once until the font parameters
+ *  of this font are changed; see {@link #discard(Font) discard()}.
+ * </p>
+ *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
- * @version $Revision: 1.14 $
+ * @version $Revision: 1.15 $
  */
 public class MathContext {
 
@@ -47,6 +58,32 @@ public class MathContext {
      */
     private static final long MU_UNIT = 18 * Dimen.ONE;
 
+    /**
+     * The field <tt>BLOCKS</tt> contains the mapping from fonts to the
+     * blocks of font parameters already retrieved from them. The index into
+     * a block is the index of the parameter. The fonts are weak keys; formulas
+     * in the background access the map concurrently.
+     */
+    private static final Map BLOCKS = Collections
+            .synchronizedMap(new WeakHashMap());
+
+    /**
+     * The field <tt>fonts</tt> contains the fonts the parameters are
+     * retrieved from. The first index is the size of the style and the second
+     * one is 0 for the symbol font and 1 for the extension font. The fonts
+     * are looked up once per formula since they can not change while it is
+     * typeset.
+     */
+    private Font[][] fonts = new Font[StyleNoad.SIZES][2];
+
+    /**
+     * The field <tt>parameters</tt> contains the parameter blocks of the
+     * {@link #fonts fonts}. The indices are the same as for
+     * {@link #fonts fonts}.
+     */
+    private FixedDimen[][][] parameters =
+            new FixedDimen[StyleNoad.SIZES][2][];
+
     /**
      * The field <tt>context</tt> contains the data object for options.
      */
@@ -57,6 +94,38 @@ public class MathContext {
      */
     private StyleNoad style;
 
+    /**
+     * Discard the font parameters retrieved from a font. This method has to
+     * be called when a font parameter of the font is changed. No formula
+     * using the font may be typeset at this time.
+     *
+     * @param font the font
+     */
+    public static void discard(final Font font) {
+
+        BLOCKS.remove(font);
+    }
+
+    /**
+     * Get the block of font parameters for a font. The block is created if
+     * it does not exist yet.
+     *
+     * @param font the font
+     *
+     * @return the block of parameters
+     */
+    private static FixedDimen[] getBlock(final Font font) {
+
+        synchronized (BLOCKS) {
+            FixedDimen[] block = (FixedDimen[]) BLOCKS.get(font);
+            if (block == null) {
+                block = new FixedDimen[MathFontParameter.SIZE];
+                BLOCKS.put(font, block);
+            }
+            return block;
+        }
+    }
+
     /**
      * Creates a new object.
      *
@@ -104,19 +173,48 @@ public class MathContext {
     public FixedDimen mathParameter(final MathFontParameter p,
             final StyleNoad actualStyle) throws TypesetterException {
 
-        Font font = options.getFont(NumberedFont.key(options, //
-                actualStyle.getFontName(), p.inSymbol() ? "2" : "3"));
-        FixedDimen value;
-        if (font == null || (value = font.getFontDimen(p.getNo())) == null) {
-            throw new TypesetterException(
-            //
-                    new HelpingException(LocalizerFactory
-                            .getLocalizer(getClass()), //
-                            p.inSymbol()
-                                    ? "TTP.InsufficientSymbolFonts"
-                                    : "TTP.InsufficientExtensionFonts"));
+        int size = actualStyle.getSize();
+        int family = p.inSymbol() ? 0 : 1;
+        FixedDimen[] block = parameters[size][family];
+        if (block == null) {
+            Font font = options.getFont(NumberedFont.key(options, actualStyle
+                    .getFontName(), p.inSymbol() ? "2" : "3"));
+            if (font == null) {
+                throw insufficient(p);
+            }
+            block = getBlock(font);
+            parameters[size][family] = block;
+            fonts[size][family] = font;
         }
-        return value;
+
+        synchronized (block) {
+            FixedDimen value = block[p.getIndex()];
+            if (value == null) {
+                value = fonts[size][family].getFontDimen(p.getNo());
+                if (value == null) {
+                    throw insufficient(p);
+                }
+                block[p.getIndex()] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Create the exception for a missing symbol font or extension font.
+     *
+     * @param p the parameter which could not be found
+     *
+     * @return the exception
+     */
+    private TypesetterException insufficient(final MathFontParameter p) {
+
+        return new TypesetterException(
+        //
+                new HelpingException(LocalizerFactory.getLocalizer(getClass()), //
+                        p.inSymbol()
+                                ? "TTP.InsufficientSymbolFonts"
+                                : "TTP.InsufficientExtensionFonts"));
     }
 
     /**
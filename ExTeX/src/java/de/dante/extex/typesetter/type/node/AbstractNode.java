@@ -20,11 +20,11 @@
 package de.dante.extex.typesetter.type.node;
 
 import de.dante.extex.interpreter.context.Context;
+import de.dante.extex.interpreter.exception.ImpossibleException;
 import de.dante.extex.interpreter.type.dimen.Dimen;
 import de.dante.extex.interpreter.type.dimen.FixedDimen;
 import de.dante.extex.interpreter.type.glue.FixedGlue;
 import de.dante.extex.interpreter.type.glue.FixedGlueComponent;
-import de.dante.extex.interpreter.type.glue.Glue;
 import de.dante.extex.interpreter.type.glue.WideGlue;
 import de.dante.extex.typesetter.Typesetter;
 import de.dante.extex.typesetter.type.Node;
@@ -36,10 +36,17 @@ import de.dante.util.framework.i18n.LocalizerFactory;
 /**
  * This abstract class provides some methods common to all Nodes.
  *
+ * <p>
+ *  The dimensions of the node are stored as primitive values in scaled
+ *  points. The getters create independent {@link Dimen Dimen} objects on
+ *  demand. Thus a node does not carry any further objects for its size.
+ *  Stretch and shrink are only kept by the expandable nodes.
+ * </p>
+ *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.21 $
  */
-public abstract class AbstractNode implements Node {
+public abstract class AbstractNode implements Node, Cloneable {
 
     /**
      * The constant <tt>NO_CHAR</tt> contains the empty array of CharNode.
@@ -47,16 +54,18 @@ public abstract class AbstractNode implements Node {
     protected static final CharNode[] NO_CHARS = new CharNode[0];
 
     /**
-     * The field <tt>depth</tt> contains the depth of the node.
+     * The field <tt>depth</tt> contains the depth of the node in scaled
+     * points.
      * The depth is the extend of the node below the baseline.
      */
-    private Glue depth;
+    private long depth = 0;
 
     /**
-     * The field <tt>height</tt> contains the height of the node.
+     * The field <tt>height</tt> contains the height of the node in scaled
+     * points.
      * The height is the extend of the node above the baseline.
      */
-    private Glue height;
+    private long height = 0;
 
     /**
      * The field <tt>localizer</tt> contains the localizer.
@@ -64,10 +73,10 @@ public abstract class AbstractNode implements Node {
     private Localizer localizer = null;
 
     /**
-     * This is the width of the node.
+     * This is the width of the node in scaled points.
      * The width is the extend of the node along the baseline.
      */
-    private Glue width;
+    private long width = 0;
 
     /**
      * Creates a new object.
@@ -76,9 +85,6 @@ public abstract class AbstractNode implements Node {
     public AbstractNode() {
 
         super();
-        width = new Glue();
-        height = new Glue();
-        depth = new Glue();
     }
 
     /**
@@ -89,9 +95,7 @@ public abstract class AbstractNode implements Node {
     public AbstractNode(final FixedDimen aWidth) {
 
         super();
-        this.width = new Glue(aWidth);
-        this.height = new Glue();
-        this.depth = new Glue();
+        this.width = aWidth.getValue();
     }
 
     /**
@@ -105,9 +109,9 @@ public abstract class AbstractNode implements Node {
             final FixedDimen aDepth) {
 
         super();
-        this.width = new Glue(aWidth);
-        this.height = new Glue(aHeight);
-        this.depth = new Glue(aDepth);
+        this.width = aWidth.getValue();
+        this.height = aHeight.getValue();
+        this.depth = aDepth.getValue();
     }
 
     /**
@@ -144,7 +148,7 @@ public abstract class AbstractNode implements Node {
      */
     public void advanceDepth(final FixedDimen x) {
 
-        depth.add(x);
+        depth += x.getValue();
     }
 
     /**
@@ -154,7 +158,7 @@ public abstract class AbstractNode implements Node {
      */
     public void advanceHeight(final FixedDimen x) {
 
-        height.add(x);
+        height += x.getValue();
     }
 
     /**
@@ -164,7 +168,7 @@ public abstract class AbstractNode implements Node {
      */
     public void advanceWidth(final FixedDimen x) {
 
-        width.add(x);
+        width += x.getValue();
     }
 
     /**
@@ -242,6 +246,22 @@ public abstract class AbstractNode implements Node {
         return 0;
     }
 
+    /**
+     * Make a copy of this node which can be modified independently. The
+     * copy is shallow. This is sufficient for the modifications applied to
+     * nodes when a list is packed.
+     *
+     * @return the copy
+     */
+    Node duplicate() {
+
+        try {
+            return (Node) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new ImpossibleException(e);
+        }
+    }
+
     /**
      * @see de.dante.extex.typesetter.type.Node#getChars()
      */
@@ -255,7 +275,7 @@ public abstract class AbstractNode implements Node {
      */
     public FixedDimen getDepth() {
 
-        return depth.getLength();
+        return new Dimen(depth);
     }
 
     /**
@@ -263,7 +283,7 @@ public abstract class AbstractNode implements Node {
      */
     public FixedDimen getHeight() {
 
-        return height.getLength();
+        return new Dimen(height);
     }
 
     /**
@@ -312,7 +332,7 @@ public abstract class AbstractNode implements Node {
      */
     public FixedDimen getWidth() {
 
-        return width.getLength();
+        return new Dimen(width);
     }
 
     /**
@@ -323,8 +343,9 @@ public abstract class AbstractNode implements Node {
      */
     public void maxDepth(final FixedDimen x) {
 
-        if (depth.getLength().lt(x)) {
-            depth.setLength(x);
+        long v = x.getValue();
+        if (depth < v) {
+            depth = v;
         }
     }
 
@@ -336,8 +357,9 @@ public abstract class AbstractNode implements Node {
      */
     public void maxHeight(final FixedDimen x) {
 
-        if (height.getLength().lt(x)) {
-            height.setLength(x);
+        long v = x.getValue();
+        if (height < v) {
+            height = v;
         }
     }
 
@@ -349,8 +371,9 @@ public abstract class AbstractNode implements Node {
      */
     public void maxWidth(final FixedDimen x) {
 
-        if (width.getLength().lt(x)) {
-            width.setLength(x);
+        long v = x.getValue();
+        if (width < v) {
+            width = v;
         }
     }
 
@@ -360,7 +383,7 @@ public abstract class AbstractNode implements Node {
      */
     public void setDepth(final FixedDimen glue) {
 
-        depth.set(glue);
+        depth = glue.getValue();
     }
 
     /**
@@ -369,7 +392,7 @@ public abstract class AbstractNode implements Node {
      */
     public void setHeight(final FixedDimen glue) {
 
-        height.set(glue);
+        height = glue.getValue();
     }
 
     /**
@@ -378,7 +401,7 @@ public abstract class AbstractNode implements Node {
      */
     public void setWidth(final FixedDimen glue) {
 
-        width.set(glue);
+        width = glue.getValue();
     }
 
     /**
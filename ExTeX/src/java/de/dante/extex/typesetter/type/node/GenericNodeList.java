@@ -37,6 +37,16 @@ import de.dante.util.exception.GeneralException;
 /**
  * Abstract base class for all <code>NodeList</code>s.
  *
+ * <p>
+ *  A copy of a node list is made in constant time. The copy shares the
+ *  backing list and the nodes with the original. The backing list is copied
+ *  when one of the lists is modified structurally. The nodes contained are
+ *  copied when they are about to be modified, i.e. when the list is packed.
+ *  Nested node lists are copied lazily in the same way when the list is
+ *  shipped. Thus a box which is copied over and over &ndash; e.g. a page
+ *  header &ndash; does not multiply its nodes in memory.
+ * </p>
+ *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @author <a href="mailto:m.g.n@gmx.de">Michael Niedermair</a>
  * @version $Revision: 1.5 $
@@ -67,6 +77,18 @@ public class GenericNodeList extends AbstractNode implements NodeList {
      */
     private Dimen shift = new Dimen(0);
 
+    /**
+     * The field <tt>sharedList</tt> contains the indicator that the backing
+     * list may be shared with another node list.
+     */
+    private boolean sharedList = false;
+
+    /**
+     * The field <tt>sharedNodes</tt> contains the indicator that the nodes
+     * contained may be shared with another node list.
+     */
+    private boolean sharedNodes = false;
+
     /**
      * The field <tt>targetDepth</tt> contains the requested depth of the node
      * list.
@@ -111,6 +133,7 @@ public class GenericNodeList extends AbstractNode implements NodeList {
      */
     public void add(final int index, final Node node) {
 
+        ownList();
         list.add(index, node);
     }
 
@@ -121,6 +144,7 @@ public class GenericNodeList extends AbstractNode implements NodeList {
     public void add(final Node node) {
 
         if (node != null) {
+            ownList();
             list.add(node);
         }
     }
@@ -148,19 +172,23 @@ public class GenericNodeList extends AbstractNode implements NodeList {
 
         Node node, n;
         int size = list.size();
+        ownList();
 
         for (int i = 0; i < size; i++) {
             node = (Node) list.get(i);
+            if (sharedNodes && node instanceof GenericNodeList) {
+                node = ((GenericNodeList) node).copy();
+            }
             n = node.atShipping(context, typesetter, visitor, inHMode);
 
             if (n == null) {
                 list.remove(i--);
                 size--;
             } else if (n != this) {
-                list.remove(i);
-                list.add(i, n);
+                list.set(i, n);
             }
         }
+        sharedNodes = false;
 
         return (Node) this.visit(visitor, inHMode
                 ? Boolean.TRUE
@@ -172,24 +200,57 @@ public class GenericNodeList extends AbstractNode implements NodeList {
      */
     public void clear() {
 
-        list.clear();
+        if (sharedList) {
+            list = new ArrayList();
+            sharedList = false;
+        } else {
+            list.clear();
+        }
+        sharedNodes = false;
         setWidth(Dimen.ZERO_PT);
         setHeight(Dimen.ZERO_PT);
         setDepth(Dimen.ZERO_PT);
     }
 
     /**
+     * Make a copy of the node list. The copy is made in constant time. The
+     * backing list and the nodes are shared until one of the lists is
+     * modified.
+     *
      * @see de.dante.extex.typesetter.type.NodeList#copy()
      */
     public NodeList copy() {
 
+        GenericNodeList clone;
         try {
-            GenericNodeList clone = (GenericNodeList) this.clone();
-            clone.list = (ArrayList) list.clone();
-            return clone;
+            clone = (GenericNodeList) this.clone();
         } catch (CloneNotSupportedException e) {
             throw new ImpossibleException(e);
         }
+        sharedList = true;
+        sharedNodes = true;
+        clone.sharedList = true;
+        clone.sharedNodes = true;
+        clone.move = new Dimen(move);
+        clone.shift = new Dimen(shift);
+        if (targetDepth != null) {
+            clone.targetDepth = new Dimen(targetDepth);
+        }
+        if (targetHeight != null) {
+            clone.targetHeight = new Dimen(targetHeight);
+        }
+        if (targetWidth != null) {
+            clone.targetWidth = new Dimen(targetWidth);
+        }
+        return clone;
+    }
+
+    /**
+     * @see de.dante.extex.typesetter.type.node.AbstractNode#duplicate()
+     */
+    Node duplicate() {
+
+        return copy();
     }
 
     /**
@@ -299,11 +360,24 @@ public class GenericNodeList extends AbstractNode implements NodeList {
         return new NodeIterator(list);
     }
 
+    /**
+     * Make sure that the backing list is not shared with another node list.
+     * This method has to be invoked before the backing list is modified.
+     */
+    private void ownList() {
+
+        if (sharedList) {
+            list = (ArrayList) list.clone();
+            sharedList = false;
+        }
+    }
+
     /**
      * @see de.dante.extex.typesetter.type.NodeList#remove(int)
      */
     public Node remove(final int index) {
 
+        ownList();
         Node node = (Node) list.remove(index);
         return node;
     }
@@ -453,6 +527,25 @@ public class GenericNodeList extends AbstractNode implements NodeList {
         sb.append(")");
     }
 
+    /**
+     * Make sure that neither the backing list nor the nodes contained are
+     * shared with another node list. Shared nodes are replaced by copies.
+     * This method has to be invoked before the nodes contained are modified.
+     */
+    public void unshare() {
+
+        ownList();
+        if (sharedNodes) {
+            for (int i = 0; i < list.size(); i++) {
+                Object node = list.get(i);
+                if (node instanceof AbstractNode) {
+                    list.set(i, ((AbstractNode) node).duplicate());
+                }
+            }
+            sharedNodes = false;
+        }
+    }
+
     /**
      * @see de.dante.extex.typesetter.type.Node#visit(
      *      de.dante.extex.typesetter.type.NodeVisitor,
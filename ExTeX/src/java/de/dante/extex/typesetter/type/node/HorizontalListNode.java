@@ -165,6 +165,7 @@ public class HorizontalListNode extends GenericNodeList {
             FixedGlueComponent s = (wd.le(Dimen.ZERO) //
                     ? wg.getShrink() //
                     : wg.getStretch());
+            unshare();
             for (int i = 0; i < size; i++) {
                 get(i).spreadWidth(wd, s);
             }
@@ -254,6 +254,7 @@ public class VerticalListNode extends GenericNodeList implements NodeList {
         }
 
         FixedDimen length = ht.getLength();
+        unshare();
         for (int i = 0; i < size; i++) {
             get(i).spreadHeight(height, length);
         }
@@ -342,6 +343,7 @@ public class VerticalListNode extends GenericNodeList implements NodeList {
             FixedGlueComponent s = (ht.le(Dimen.ZERO) //
                     ? flexibleHeight.getShrink() //
                     : flexibleHeight.getStretch());
+            unshare();
             for (int i = 0; i < size; i++) {
                 get(i).spreadHeight(ht, s);
             }
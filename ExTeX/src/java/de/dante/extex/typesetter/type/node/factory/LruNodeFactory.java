@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.type.node.factory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import de.dante.extex.interpreter.context.tc.TypesettingContext;
+import de.dante.extex.typesetter.type.Node;
+import de.dante.extex.typesetter.type.node.CharNode;
+import de.dante.util.UnicodeChar;
+import de.dante.util.framework.configuration.Configurable;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.configuration.exception.ConfigurationSyntaxException;
+import de.dante.util.framework.i18n.LocalizerFactory;
+import de.dante.util.framework.logger.LogEnabled;
+
+/**
+ * This is the factory for
+ * {@link de.dante.extex.typesetter.type.node.CharNode CharNode}s
+ * and virtual chars which keeps the most recently used nodes in a cache of
+ * limited size.
+ *
+ * <p>
+ *  In contrast to the
+ *  {@link de.dante.extex.typesetter.type.node.factory.CachingNodeFactory
+ *  CachingNodeFactory} the number of nodes kept is bounded. When the cache is
+ *  full then the node used least recently is dropped. Thus the memory
+ *  consumption does not grow with the number of fonts used in a document.
+ * </p>
+ * <p>
+ *  Only plain {@link de.dante.extex.typesetter.type.node.CharNode CharNode}s
+ *  are kept in the cache and shared. They are not modified after their
+ *  creation. Virtual char nodes are lists which can be changed; thus they
+ *  are created anew for each request.
+ * </p>
+ *
+ * <h3>Configuration</h3>
+ *
+ * <p>
+ *  The attribute <tt>capacity</tt> determines the maximal number of nodes
+ *  kept in the cache. If it is missing then a default of 4096 is used.
+ * </p>
+ *
+ * <pre>
+ *   &lt;NodeFactory class="de.dante.extex.typesetter.type.node.factory.LruNodeFactory"
+ *                capacity="4096"/&gt; </pre>
+ *
+ * <p>
+ *  The numbers of hits, misses, and evictions are written to the logger with
+ *  the level <tt>finer</tt> when the factory is closed.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.2 $
+ */
+public class LruNodeFactory extends SimpleNodeFactory
+        implements
+            Configurable,
+            LogEnabled {
+
+    /**
+     * This class provides the key for the cache.
+     */
+    private static final class Key {
+
+        /**
+         * The field <tt>hash</tt> contains the hash code.
+         */
+        private int hash;
+
+        /**
+         * The field <tt>tc</tt> contains the typesetting context.
+         */
+        private TypesettingContext tc;
+
+        /**
+         * The field <tt>uc</tt> contains the character.
+         */
+        private UnicodeChar uc;
+
+        /**
+         * Creates a new object.
+         *
+         * @param tc the typesetting context
+         * @param uc the character
+         */
+        Key(final TypesettingContext tc, final UnicodeChar uc) {
+
+            super();
+            set(tc, uc);
+        }
+
+        /**
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        public boolean equals(final Object obj) {
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) obj;
+            return hash == k.hash && uc.equals(k.uc) && tc.equals(k.tc);
+        }
+
+        /**
+         * @see java.lang.Object#hashCode()
+         */
+        public int hashCode() {
+
+            return hash;
+        }
+
+        /**
+         * Setter for the components.
+         *
+         * @param theTc the typesetting context
+         * @param theUc the character
+         */
+        void set(final TypesettingContext theTc, final UnicodeChar theUc) {
+
+            this.tc = theTc;
+            this.uc = theUc;
+            this.hash = 31 * theTc.hashCode() + theUc.hashCode();
+        }
+    }
+
+    /**
+     * The constant <tt>DEFAULT_CAPACITY</tt> contains the capacity used when
+     * none is configured.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The field <tt>cache</tt> contains the cache for previously created nodes
+     * in the order of their last use.
+     */
+    private Map cache;
+
+    /**
+     * The field <tt>capacity</tt> contains the maximal number of nodes in the
+     * cache.
+     */
+    private int capacity = DEFAULT_CAPACITY;
+
+    /**
+     * The field <tt>evictions</tt> contains the number of nodes dropped from
+     * the cache.
+     */
+    private long evictions = 0;
+
+    /**
+     * The field <tt>hits</tt> contains the number of requests answered from
+     * the cache.
+     */
+    private long hits = 0;
+
+    /**
+     * The field <tt>logger</tt> contains the logger or <code>null</code>.
+     */
+    private Logger logger = null;
+
+    /**
+     * The field <tt>misses</tt> contains the number of requests for which a
+     * new node had to be created.
+     */
+    private long misses = 0;
+
+    /**
+     * The field <tt>probe</tt> contains the key used for lookups.
+     */
+    private Key probe = null;
+
+    /**
+     * Creates a new object.
+     */
+    public LruNodeFactory() {
+
+        super();
+        cache = makeCache();
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configurable#configure(
+     *      de.dante.util.framework.configuration.Configuration)
+     */
+    public void configure(final Configuration config)
+            throws ConfigurationException {
+
+        String c = config.getAttribute("capacity");
+        if (c == null || c.trim().equals("")) {
+            return;
+        }
+        try {
+            capacity = Integer.parseInt(c.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationSyntaxException(e.getLocalizedMessage(),
+                    config.toString() + "#capacity");
+        }
+        if (capacity < 1) {
+            throw new ConfigurationSyntaxException(c, config.toString()
+                    + "#capacity");
+        }
+        cache = makeCache();
+    }
+
+    /**
+     * @see de.dante.util.framework.logger.LogEnabled#enableLogging(
+     *      java.util.logging.Logger)
+     */
+    public void enableLogging(final Logger theLogger) {
+
+        this.logger = theLogger;
+    }
+
+    /**
+     * Getter for the number of nodes dropped from the cache.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+
+        return evictions;
+    }
+
+    /**
+     * Getter for the number of requests answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+
+        return hits;
+    }
+
+    /**
+     * Getter for the number of requests for which a new node had to be
+     * created.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+
+        return misses;
+    }
+
+    /**
+     * Create a new instance for the node.
+     * If the character is not defined in the font given then <code>null</code>
+     * is returned instead.
+     *
+     * @param typesettingContext the typographic context for the node
+     * @param uc the Unicode character
+     *
+     * @return the new character node
+     *
+     * @see de.dante.extex.typesetter.type.node.factory.NodeFactory#getNode(
+     *      de.dante.extex.interpreter.context.TypesettingContext,
+     *      de.dante.util.UnicodeChar)
+     */
+    public synchronized Node getNode(
+            final TypesettingContext typesettingContext, final UnicodeChar uc) {
+
+        if (probe == null) {
+            probe = new Key(typesettingContext, uc);
+        } else {
+            probe.set(typesettingContext, uc);
+        }
+
+        Node node = (Node) cache.get(probe);
+        if (node != null) {
+            hits++;
+            return node;
+        }
+
+        misses++;
+        node = super.getNode(typesettingContext, uc);
+        if (node != null && node.getClass() == CharNode.class) {
+            cache.put(new Key(typesettingContext, uc), node);
+        }
+        return node;
+    }
+
+    /**
+     * Write the statistics to the logger if one is present.
+     *
+     * @see de.dante.extex.typesetter.type.node.factory.NodeFactory#close()
+     */
+    public synchronized void close() {
+
+        if (logger != null) {
+            logger.finer(LocalizerFactory.getLocalizer(LruNodeFactory.class)
+                    .format("Statistics", new Long(hits), new Long(misses),
+                            new Long(evictions), new Integer(cache.size())));
+        }
+    }
+
+    /**
+     * Create a new map for the cache. The map is ordered by access and drops
+     * the eldest entry when the capacity is exceeded.
+     *
+     * @return the new map
+     */
+    private Map makeCache() {
+
+        return new LinkedHashMap(capacity < 16 ? 16 : 2 * capacity, 0.75f,
+                true) {
+
+            /**
+             * The field <tt>serialVersionUID</tt> contains the version number
+             * for serialization.
+             */
+            private static final long serialVersionUID = 2006L;
+
+            /**
+             * @see java.util.LinkedHashMap#removeEldestEntry(
+             *      java.util.Map.Entry)
+             */
+            protected boolean removeEldestEntry(final Map.Entry eldest) {
+
+                if (size() <= capacity) {
+                    return false;
+                }
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+}
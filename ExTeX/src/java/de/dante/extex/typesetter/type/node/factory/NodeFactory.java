@@ -27,10 +27,16 @@ import de.dante.util.UnicodeChar;
  * This interface describes a node factory.
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
- * @version $Revision: 1.2 $
+ * @version $Revision: 1.3 $
  */
 public interface NodeFactory {
 
+    /**
+     * This method is invoked when the typesetter is closed. It gives the
+     * factory the opportunity to release resources or report statistics.
+     */
+    void close();
+
     /**
      * Create a new instance of a character node.
      * If the character is not defined in the font given then <code>null</code>
@@ -33,7 +33,7 @@ import de.dante.util.UnicodeChar;
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @author <a href="mailto:m.g.n@gmx.de">Michael Niedermair</a>
- * @version $Revision: 1.3 $
+ * @version $Revision: 1.4 $
  */
 public class SimpleNodeFactory implements NodeFactory {
 
@@ -45,6 +45,16 @@ public class SimpleNodeFactory implements NodeFactory {
         super();
     }
 
+    /**
+     * This method is invoked when the typesetter is closed. Nothing has to
+     * be done here.
+     *
+     * @see de.dante.extex.typesetter.type.node.factory.NodeFactory#close()
+     */
+    public void close() {
+
+    }
+
     /**
      * Create a new instance for the node.
      * If the character is not defined in the font given then <code>null</code>
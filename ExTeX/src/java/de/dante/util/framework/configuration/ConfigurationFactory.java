@@ -25,7 +25,7 @@ import de.dante.util.framework.configuration.exception.ConfigurationClassNotFoun
 import de.dante.util.framework.configuration.exception.ConfigurationException;
 import de.dante.util.framework.configuration.exception.ConfigurationInstantiationException;
 import de.dante.util.framework.configuration.exception.ConfigurationInvalidNameException;
-import de.dante.util.framework.configuration.impl.ConfigurationXMLImpl;
+import de.dante.util.framework.configuration.impl.ConfigurationCache;
 
 
 /**
@@ -33,9 +33,11 @@ import de.dante.util.framework.configuration.impl.ConfigurationXMLImpl;
  * <p>
  * The class to be used for the configuration can be set with the
  * <tt>System.property</tt> named <tt>Util.Configuarion.class</tt>.
- * If this property is not set then the fallback class
- * {@link de.dante.util.framework.configuration.impl.ConfigurationXMLImpl ConfigurationXMLImpl}
- * is used instead.
+ * If this property is not set then the configuration is taken from the
+ * {@link de.dante.util.framework.configuration.impl.ConfigurationCache ConfigurationCache}.
+ * It parses each resource once into an immutable
+ * {@link de.dante.util.framework.configuration.impl.ConfigurationTreeImpl ConfigurationTreeImpl}
+ * and delivers the same instance for subsequent requests.
  * </p>
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
@@ -84,7 +86,7 @@ public class ConfigurationFactory {
         String classname = System.getProperty("Util.Configuration.class");
 
         if (classname == null) {
-            return new ConfigurationXMLImpl(source);
+            return ConfigurationCache.getInstance(source);
         }
 
         Configuration config = null;
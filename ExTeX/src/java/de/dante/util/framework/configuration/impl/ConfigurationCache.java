@@ -0,0 +1,561 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.framework.configuration.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.FactoryConfigurationError;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.xml.sax.SAXException;
+
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.configuration.exception.ConfigurationIOException;
+import de.dante.util.framework.configuration.exception.ConfigurationInvalidResourceException;
+import de.dante.util.framework.configuration.exception.ConfigurationNotFoundException;
+import de.dante.util.framework.configuration.exception.ConfigurationSyntaxException;
+
+/**
+ * This class provides a cache for configurations. Each configuration resource
+ * is parsed once into an immutable
+ * {@link ConfigurationTreeImpl ConfigurationTreeImpl} which is shared by all
+ * users.
+ * <p>
+ *  Each entry records the location of the resource and its modification
+ *  time. For resources contained in an archive the modification time of the
+ *  archive is used. Whenever a configuration is requested the entries are
+ *  checked and those whose resource has been modified are dropped. Thus a
+ *  modified resource is parsed again and the <tt>src</tt> references
+ *  resolved before are resolved again.
+ * </p>
+ * <p>
+ *  The cache can be stored as a snapshot with
+ *  {@link #writeSnapshot(OutputStream) writeSnapshot()}. If the system
+ *  property <tt>Util.Configuration.snapshot</tt> names a snapshot file then it
+ *  is read when the cache is used first. An entry of the snapshot is used only
+ *  if the resource is found at the same location with the same modification
+ *  time as when the snapshot has been written. Otherwise the resource is
+ *  parsed again.
+ * </p>
+ * <p>
+ *  A snapshot can be created from the command line:
+ * </p>
+ * <pre>
+ *  java de.dante.util.framework.configuration.impl.ConfigurationCache \
+ *       -o <i>file</i> <i>resource</i> ...
+ * </pre>
+ * <p>
+ *  All resources referenced via <tt>src</tt> attributes from the given ones
+ *  are included as well.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public final class ConfigurationCache {
+
+    /**
+     * This class contains a cached configuration together with the
+     * information needed to check whether it is up to date.
+     */
+    private static final class Entry implements Serializable {
+
+        /**
+         * The constant <tt>serialVersionUID</tt> contains the id for
+         * serialization.
+         */
+        private static final long serialVersionUID = 2006L;
+
+        /**
+         * The field <tt>configuration</tt> contains the configuration.
+         */
+        private ConfigurationTreeImpl configuration;
+
+        /**
+         * The field <tt>lastModified</tt> contains the modification time of
+         * the resource.
+         */
+        private long lastModified;
+
+        /**
+         * The field <tt>url</tt> contains the location of the resource.
+         */
+        private String url;
+
+        /**
+         * Creates a new object.
+         *
+         * @param configuration the configuration
+         * @param url the location of the resource
+         * @param lastModified the modification time of the resource
+         */
+        Entry(final ConfigurationTreeImpl configuration, final String url,
+                final long lastModified) {
+
+            super();
+            this.configuration = configuration;
+            this.url = url;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * The constant <tt>EXTENSIONS</tt> contains extensions to use when
+     * searching for configuration files.
+     */
+    private static final String[] EXTENSIONS = {"", ".xml"};
+
+    /**
+     * The constant <tt>PATHS</tt> contains the path to use when searching for
+     * configuration files.
+     */
+    private static final String[] PATHS = {"", "config/"};
+
+    /**
+     * The constant <tt>SNAPSHOT_PROPERTY</tt> contains the name of the system
+     * property for the snapshot file.
+     */
+    public static final String SNAPSHOT_PROPERTY = "Util.Configuration.snapshot";
+
+    /**
+     * The field <tt>cache</tt> contains the mapping from resource names to
+     * entries.
+     */
+    private static Map cache = new HashMap();
+
+    /**
+     * The field <tt>factory</tt> contains the document builder factory.
+     */
+    private static DocumentBuilderFactory factory = null;
+
+    /**
+     * The field <tt>generation</tt> contains the number of times entries
+     * have been dropped from the cache.
+     */
+    private static volatile int generation = 0;
+
+    /**
+     * The field <tt>snapshot</tt> contains the entries read from a snapshot
+     * which have not been validated yet.
+     */
+    private static Map snapshot = null;
+
+    /**
+     * Drop all cached configurations.
+     */
+    public static synchronized void clear() {
+
+        cache.clear();
+        snapshot = null;
+        generation++;
+    }
+
+    /**
+     * Load the resources referenced from a configuration via <tt>src</tt>
+     * attributes recursively. References which can not be resolved are
+     * skipped.
+     *
+     * @param cfg the configuration
+     */
+    private static void collect(final ConfigurationTreeImpl cfg) {
+
+        Iterator iterator = cfg.iterator();
+        while (iterator.hasNext()) {
+            ConfigurationTreeImpl c = (ConfigurationTreeImpl) iterator.next();
+            try {
+                ConfigurationTreeImpl target = c.resolve(c.getName());
+                if (target != c) {
+                    collect(target);
+                }
+            } catch (ConfigurationException e) {
+                // unresolved references are not part of the snapshot
+            }
+            collect(c);
+        }
+    }
+
+    /**
+     * Getter for the generation of the cache. The generation changes
+     * whenever entries are dropped. Thus references resolved in an older
+     * generation have to be resolved again.
+     *
+     * @return the generation
+     */
+    static int getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Get the configuration for a resource. The entries whose resources have
+     * been modified are dropped first. The resource is parsed if it is not
+     * contained in the cache.
+     *
+     * @param resource the name of the resource
+     *
+     * @return the configuration
+     *
+     * @throws ConfigurationInvalidResourceException in case of an invalid
+     *  resource name
+     * @throws ConfigurationNotFoundException in case of a missing
+     *  configuration
+     * @throws ConfigurationSyntaxException in case of a syntax error
+     * @throws ConfigurationIOException in case of an I/O error
+     */
+    public static synchronized ConfigurationTreeImpl getInstance(
+            final String resource)
+            throws ConfigurationInvalidResourceException,
+                ConfigurationNotFoundException,
+                ConfigurationSyntaxException,
+                ConfigurationIOException {
+
+        refresh();
+        return lookup(resource);
+    }
+
+    /**
+     * Get the configuration for a resource without checking the entries of
+     * the cache. The resource is parsed if it is not contained in the cache.
+     *
+     * @param resource the name of the resource
+     *
+     * @return the configuration
+     *
+     * @throws ConfigurationInvalidResourceException in case of an invalid
+     *  resource name
+     * @throws ConfigurationNotFoundException in case of a missing
+     *  configuration
+     * @throws ConfigurationSyntaxException in case of a syntax error
+     * @throws ConfigurationIOException in case of an I/O error
+     */
+    static synchronized ConfigurationTreeImpl lookup(final String resource)
+            throws ConfigurationInvalidResourceException,
+                ConfigurationNotFoundException,
+                ConfigurationSyntaxException,
+                ConfigurationIOException {
+
+        if (resource == null || resource.equals("")) {
+            throw new ConfigurationInvalidResourceException();
+        }
+        Entry entry = (Entry) cache.get(resource);
+        if (entry != null) {
+            return entry.configuration;
+        }
+        if (snapshot == null) {
+            snapshot = new HashMap();
+            readSnapshot();
+        }
+
+        URL url = locate(resource);
+        if (url == null) {
+            throw new ConfigurationNotFoundException(resource, null);
+        }
+        long lastModified = lastModified(url);
+        InputStream stream;
+        try {
+            URLConnection connection = url.openConnection();
+            entry = (Entry) snapshot.remove(resource);
+            if (entry != null && entry.lastModified == lastModified
+                    && entry.url.equals(url.toString())) {
+                cache.put(resource, entry);
+                return entry.configuration;
+            }
+            stream = connection.getInputStream();
+        } catch (IOException e) {
+            throw new ConfigurationIOException(null, e);
+        }
+
+        int i = resource.lastIndexOf("/");
+        ConfigurationTreeImpl cfg;
+        try {
+            cfg = parse(stream, resource, (i >= 0
+                    ? resource.substring(0, i + 1)
+                    : ""));
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // ignored
+            }
+        }
+        cache.put(resource, new Entry(cfg, url.toString(), lastModified));
+        return cfg;
+    }
+
+    /**
+     * Determine the modification time of a resource. For a resource in an
+     * archive the modification time of the archive is used.
+     *
+     * @param url the location of the resource
+     *
+     * @return the modification time or 0 if it is not known
+     */
+    private static long lastModified(final URL url) {
+
+        URL u = url;
+        if ("jar".equals(u.getProtocol())) {
+            String path = u.getPath();
+            int i = path.indexOf("!/");
+            try {
+                u = new URL(i < 0 ? path : path.substring(0, i));
+            } catch (MalformedURLException e) {
+                return 0;
+            }
+        }
+        if ("file".equals(u.getProtocol())) {
+            try {
+                return new File(new URI(u.toString())).lastModified();
+            } catch (URISyntaxException e) {
+                return 0;
+            } catch (IllegalArgumentException e) {
+                return 0;
+            }
+        }
+        try {
+            return u.openConnection().getLastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Search for a configuration resource taking into account a list of
+     * prefixes (path) and postfixes (ext).
+     *
+     * @param name the base name of the configuration to find
+     *
+     * @return the location of the resource or <code>null</code> if none is
+     *  found
+     */
+    private static URL locate(final String name) {
+
+        ClassLoader classLoader = ConfigurationCache.class.getClassLoader();
+        for (int pi = 0; pi < PATHS.length; pi++) {
+            for (int ei = 0; ei < EXTENSIONS.length; ei++) {
+                URL url = classLoader.getResource(PATHS[pi] + name
+                        + EXTENSIONS[ei]);
+                if (url != null) {
+                    return url;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Command line interface to write a snapshot.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(final String[] args) {
+
+        String output = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("-o".equals(args[i]) && i + 1 < args.length) {
+                    output = args[++i];
+                } else {
+                    collect(getInstance(args[i]));
+                }
+            }
+            if (output == null) {
+                System.err.println("missing -o");
+                System.exit(1);
+            }
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(
+                    output));
+            try {
+                writeSnapshot(out);
+            } finally {
+                out.close();
+            }
+        } catch (ConfigurationException e) {
+            System.err.println(e.getLocalizedMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println(e.toString());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parse a configuration from a stream.
+     *
+     * @param stream the stream to read from
+     * @param resource the name of the resource
+     * @param base the base for resources referenced from the configuration
+     *
+     * @return the configuration
+     *
+     * @throws ConfigurationInvalidResourceException in case of an invalid
+     *  resource name
+     * @throws ConfigurationNotFoundException in case of a missing
+     *  configuration
+     * @throws ConfigurationSyntaxException in case of a syntax error
+     * @throws ConfigurationIOException in case of an I/O error
+     */
+    public static synchronized ConfigurationTreeImpl parse(
+            final InputStream stream, final String resource, final String base)
+            throws ConfigurationInvalidResourceException,
+                ConfigurationNotFoundException,
+                ConfigurationSyntaxException,
+                ConfigurationIOException {
+
+        if (stream == null) {
+            throw new ConfigurationNotFoundException(resource, null);
+        }
+        try {
+            if (factory == null) {
+                factory = DocumentBuilderFactory.newInstance();
+            }
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            return new ConfigurationTreeImpl(builder.parse(stream)
+                    .getDocumentElement(), "document(\"" + resource + "\")",
+                    base);
+        } catch (IOException e) {
+            throw new ConfigurationIOException(null, e);
+        } catch (ParserConfigurationException e) {
+            throw new ConfigurationSyntaxException(e.getLocalizedMessage(),
+                    resource);
+        } catch (SAXException e) {
+            throw new ConfigurationSyntaxException(e.getLocalizedMessage(),
+                    resource);
+        } catch (FactoryConfigurationError e) {
+            throw new ConfigurationSyntaxException(e.getLocalizedMessage(),
+                    resource);
+        }
+    }
+
+    /**
+     * Drop the entries whose resources have been modified since they have
+     * been parsed.
+     */
+    private static void refresh() {
+
+        boolean dropped = false;
+        Iterator iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = (Entry) iterator.next();
+            long lastModified;
+            try {
+                lastModified = lastModified(new URL(entry.url));
+            } catch (MalformedURLException e) {
+                lastModified = 0;
+            }
+            if (lastModified != entry.lastModified) {
+                iterator.remove();
+                dropped = true;
+            }
+        }
+        if (dropped) {
+            generation++;
+        }
+    }
+
+    /**
+     * Read the snapshot named by the system property if present. Errors are
+     * ignored; the resources are parsed in this case.
+     */
+    private static void readSnapshot() {
+
+        String file = System.getProperty(SNAPSHOT_PROPERTY);
+        if (file == null || file.equals("")) {
+            return;
+        }
+        try {
+            InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                readSnapshot(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            snapshot.clear();
+        } catch (ClassNotFoundException e) {
+            snapshot.clear();
+        } catch (ClassCastException e) {
+            snapshot.clear();
+        }
+    }
+
+    /**
+     * Read a snapshot. The entries are used when the resources are requested
+     * and found to be unchanged.
+     *
+     * @param in the stream to read from
+     *
+     * @throws IOException in case of an I/O error
+     * @throws ClassNotFoundException in case of an incompatible snapshot
+     */
+    public static synchronized void readSnapshot(final InputStream in)
+            throws IOException,
+                ClassNotFoundException {
+
+        if (snapshot == null) {
+            snapshot = new HashMap();
+        }
+        snapshot.putAll((Map) new ObjectInputStream(in).readObject());
+    }
+
+    /**
+     * Write the configurations contained in the cache as snapshot.
+     *
+     * @param out the target stream
+     *
+     * @throws IOException in case of an I/O error
+     */
+    public static synchronized void writeSnapshot(final OutputStream out)
+            throws IOException {
+
+        ObjectOutputStream stream = new ObjectOutputStream(out);
+        stream.writeObject(new HashMap(cache));
+        stream.flush();
+    }
+
+    /**
+     * Creates a new object.
+     * This class contains static methods only.
+     */
+    private ConfigurationCache() {
+
+        super();
+    }
+
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.framework.configuration.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import de.dante.util.StringList;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.configuration.exception.ConfigurationIOException;
+import de.dante.util.framework.configuration.exception.ConfigurationInvalidResourceException;
+import de.dante.util.framework.configuration.exception.ConfigurationNotFoundException;
+import de.dante.util.framework.configuration.exception.ConfigurationSyntaxException;
+
+/**
+ * This class provides an immutable configuration. The XML is parsed once and
+ * converted into a tree of instances of this class. The DOM is not kept.
+ * Element names and attribute names are interned, the text value of each
+ * element is computed once, and the children are indexed by their element
+ * name. Thus access to a configuration does not involve walking DOM nodes.
+ * <p>
+ *  The semantics are the same as for
+ *  {@link ConfigurationXMLImpl ConfigurationXMLImpl}. Sub-configurations with
+ *  a <tt>src</tt> attribute are resolved when they are accessed. The
+ *  referenced configuration is taken from the
+ *  {@link ConfigurationCache ConfigurationCache}. Thus each resource is parsed
+ *  once only as long as it is not modified.
+ * </p>
+ * <p>
+ *  Since instances are immutable they can be shared freely. They are
+ *  serializable to be stored in a snapshot of the cache.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ConfigurationTreeImpl implements Configuration, Serializable {
+
+    /**
+     * The constant <tt>NO_CHILDREN</tt> contains the empty list of children.
+     */
+    private static final ConfigurationTreeImpl[] NO_CHILDREN =
+            new ConfigurationTreeImpl[0];
+
+    /**
+     * The constant <tt>NO_STRINGS</tt> contains the empty list of strings.
+     */
+    private static final String[] NO_STRINGS = new String[0];
+
+    /**
+     * The constant <tt>serialVersionUID</tt> contains the id for serialization.
+     */
+    protected static final long serialVersionUID = 2006L;
+
+    /**
+     * Compute the text value of an element. The value is the concatenation of
+     * the text nodes directly contained in the element.
+     *
+     * @param element the element
+     *
+     * @return the value
+     */
+    private static String textValue(final Element element) {
+
+        StringBuffer sb = new StringBuffer();
+
+        for (Node n = element.getFirstChild(); n != null; n = n
+                .getNextSibling()) {
+            if (n.getNodeType() == Node.TEXT_NODE) {
+                sb.append(n.getNodeValue());
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * The field <tt>attributeNames</tt> contains the interned names of the
+     * attributes.
+     */
+    private final String[] attributeNames;
+
+    /**
+     * The field <tt>attributeValues</tt> contains the values of the
+     * attributes. The order is the same as for the names.
+     */
+    private final String[] attributeValues;
+
+    /**
+     * The field <tt>base</tt> contains the base of the resource name; i.e.
+     * the resource up to the last slash or the empty string if no slash is
+     * contained.
+     */
+    private final String base;
+
+    /**
+     * The field <tt>children</tt> contains the sub-configurations in document
+     * order.
+     */
+    private final ConfigurationTreeImpl[] children;
+
+    /**
+     * The field <tt>index</tt> contains the mapping from element names to the
+     * arrays of sub-configurations with this name.
+     */
+    private final Map index;
+
+    /**
+     * The field <tt>name</tt> contains the interned element name.
+     */
+    private final String name;
+
+    /**
+     * The field <tt>path</tt> contains the printable representation.
+     */
+    private final String path;
+
+    /**
+     * The field <tt>src</tt> contains the value of the <tt>src</tt> attribute
+     * or <code>null</code> if none is present or it is empty.
+     */
+    private final String src;
+
+    /**
+     * The field <tt>target</tt> contains the configuration the <tt>src</tt>
+     * attribute refers to. It is filled when it is needed first and whenever
+     * the cache has dropped a modified resource since.
+     */
+    private transient ConfigurationTreeImpl target = null;
+
+    /**
+     * The field <tt>targetGeneration</tt> contains the generation of the
+     * cache in which the target has been resolved.
+     */
+    private transient int targetGeneration = 0;
+
+    /**
+     * The field <tt>value</tt> contains the text value of the element.
+     */
+    private final String value;
+
+    /**
+     * Creates a new object from a DOM element and all its descendants.
+     *
+     * @param element the element
+     * @param prefix the printable representation of the parent
+     * @param base the base for the resource
+     */
+    public ConfigurationTreeImpl(final Element element, final String prefix,
+            final String base) {
+
+        super();
+        this.name = element.getNodeName().intern();
+        this.base = base;
+        this.path = prefix + "/" + name;
+        this.value = textValue(element);
+
+        NamedNodeMap attributes = element.getAttributes();
+        int n = attributes.getLength();
+        if (n == 0) {
+            attributeNames = NO_STRINGS;
+            attributeValues = NO_STRINGS;
+        } else {
+            attributeNames = new String[n];
+            attributeValues = new String[n];
+            for (int i = 0; i < n; i++) {
+                Attr a = (Attr) attributes.item(i);
+                attributeNames[i] = a.getName().intern();
+                attributeValues[i] = a.getValue();
+            }
+        }
+        String s = getAttribute("src");
+        this.src = (s == null || s.equals("") ? null : s);
+
+        List list = new ArrayList();
+        for (Node node = element.getFirstChild(); node != null; node = node
+                .getNextSibling()) {
+            if (node instanceof Element) {
+                list.add(new ConfigurationTreeImpl((Element) node, path, base));
+            }
+        }
+        if (list.isEmpty()) {
+            children = NO_CHILDREN;
+            index = Collections.EMPTY_MAP;
+        } else {
+            children = (ConfigurationTreeImpl[]) list
+                    .toArray(new ConfigurationTreeImpl[list.size()]);
+            index = new HashMap();
+            for (int i = 0; i < children.length; i++) {
+                String key = children[i].name;
+                if (!index.containsKey(key)) {
+                    int count = 0;
+                    for (int j = i; j < children.length; j++) {
+                        if (children[j].name == key) {
+                            count++;
+                        }
+                    }
+                    ConfigurationTreeImpl[] a = new ConfigurationTreeImpl[count];
+                    count = 0;
+                    for (int j = i; j < children.length; j++) {
+                        if (children[j].name == key) {
+                            a[count++] = children[j];
+                        }
+                    }
+                    index.put(key, a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the sub-configurations with a given element name.
+     *
+     * @param key the element name
+     *
+     * @return the sub-configurations; this array must not be modified
+     */
+    private ConfigurationTreeImpl[] children(final String key) {
+
+        ConfigurationTreeImpl[] a = (ConfigurationTreeImpl[]) index.get(key);
+        return (a == null ? NO_CHILDREN : a);
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#findConfiguration(
+     *      java.lang.String)
+     */
+    public Configuration findConfiguration(final String key)
+            throws ConfigurationInvalidResourceException,
+                ConfigurationNotFoundException,
+                ConfigurationSyntaxException,
+                ConfigurationIOException {
+
+        ConfigurationTreeImpl[] a = children(key);
+        return (a.length == 0 ? null : a[0].resolve(key));
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#findConfiguration(
+     *      java.lang.String, java.lang.String)
+     */
+    public Configuration findConfiguration(final String key,
+            final String attribute) throws ConfigurationException {
+
+        ConfigurationTreeImpl[] a = children(key);
+        for (int i = 0; i < a.length; i++) {
+            if (attribute.equals(a[i].getAttribute(attribute))) {
+                return a[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Follow the <tt>src</tt> attribute of a loaded configuration
+     * recursively.
+     *
+     * @param key the expected element name
+     *
+     * @return the configuration
+     *
+     * @throws ConfigurationInvalidResourceException in case of an invalid
+     *  resource name
+     * @throws ConfigurationNotFoundException in case of a missing
+     *  configuration
+     * @throws ConfigurationSyntaxException in case of a syntax error
+     * @throws ConfigurationIOException in case of an I/O error
+     */
+    private ConfigurationTreeImpl follow(final String key)
+            throws ConfigurationInvalidResourceException,
+                ConfigurationNotFoundException,
+                ConfigurationSyntaxException,
+                ConfigurationIOException {
+
+        if (src == null) {
+            return this;
+        }
+        ConfigurationTreeImpl cfg = ConfigurationCache.lookup(base + src)
+                .follow(key);
+        if (!cfg.name.equals(key)) {
+            throw new ConfigurationNotFoundException(key, src);
+        }
+        return cfg;
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#getAttribute(
+     *      java.lang.String)
+     */
+    public String getAttribute(final String key) {
+
+        for (int i = 0; i < attributeNames.length; i++) {
+            if (attributeNames[i] == key || attributeNames[i].equals(key)) {
+                return attributeValues[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#getConfiguration(
+     *      java.lang.String)
+     */
+    public Configuration getConfiguration(final String key)
+            throws ConfigurationException {
+
+        Configuration cfg = findConfiguration(key);
+
+        if (cfg == null) {
+            throw new ConfigurationNotFoundException(key, toString());
+        }
+        return cfg;
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#getConfiguration(
+     *      java.lang.String, java.lang.String)
+     */
+    public Configuration getConfiguration(final String key,
+            final String attribute) throws ConfigurationException {
+
+        Configuration cfg = findConfiguration(key, attribute);
+
+        if (cfg == null) {
+            throw new ConfigurationNotFoundException(null, //
+                    key + "[" + attribute + "]");
+        }
+        return cfg;
+    }
+
+    /**
+     * Getter for the element name.
+     *
+     * @return the element name
+     */
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#getValue()
+     */
+    public String getValue() {
+
+        return value;
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#getValue(
+     *      java.lang.String)
+     */
+    public String getValue(final String key) {
+
+        ConfigurationTreeImpl[] a = children(key);
+        return (a.length == 0 ? "" : a[0].value);
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#getValueAsInteger(
+     *      java.lang.String, int)
+     */
+    public int getValueAsInteger(final String key, final int defaultValue) {
+
+        String s = getValue(key);
+
+        if (s != null && s.matches("[0-9]+")) {
+            return Integer.parseInt(s);
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#getValues(
+     *      java.lang.String)
+     */
+    public StringList getValues(final String key) {
+
+        StringList result = new StringList();
+        getValues(result, key);
+        return result;
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#getValues(
+     *      de.dante.util.StringList, java.lang.String)
+     */
+    public void getValues(final StringList list, final String key) {
+
+        ConfigurationTreeImpl[] a = children(key);
+        for (int i = 0; i < a.length; i++) {
+            list.add(a[i].value);
+        }
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#iterator()
+     */
+    public Iterator iterator() {
+
+        return Collections.unmodifiableList(Arrays.asList(children))
+                .iterator();
+    }
+
+    /**
+     * @see de.dante.util.framework.configuration.Configuration#iterator(
+     *      java.lang.String)
+     */
+    public Iterator iterator(final String key) throws ConfigurationException {
+
+        ConfigurationTreeImpl[] a = children(key);
+        List list = new ArrayList(a.length);
+        for (int i = 0; i < a.length; i++) {
+            list.add(a[i].resolve(key));
+        }
+        return list.iterator();
+    }
+
+    /**
+     * Get the configuration for this element. If the element has a
+     * <tt>src</tt> attribute then the configuration referenced is returned.
+     *
+     * @param key the element name
+     *
+     * @return the configuration
+     *
+     * @throws ConfigurationInvalidResourceException in case of an invalid
+     *  resource name
+     * @throws ConfigurationNotFoundException in case of a missing
+     *  configuration
+     * @throws ConfigurationSyntaxException in case of a syntax error
+     * @throws ConfigurationIOException in case of an I/O error
+     */
+    ConfigurationTreeImpl resolve(final String key)
+            throws ConfigurationInvalidResourceException,
+                ConfigurationNotFoundException,
+                ConfigurationSyntaxException,
+                ConfigurationIOException {
+
+        if (src == null) {
+            return this;
+        }
+        ConfigurationTreeImpl cfg = target;
+        int generation = ConfigurationCache.getGeneration();
+        if (cfg == null || targetGeneration != generation) {
+            cfg = ConfigurationCache.lookup(base + src).follow(key);
+            target = cfg;
+            targetGeneration = generation;
+        }
+        return cfg;
+    }
+
+    /**
+     * Get the printable representation of this configuration.
+     * Something like an XPath expression describing the configuration is
+     * produced for this instance.
+     *
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+
+        return path;
+    }
+
+}
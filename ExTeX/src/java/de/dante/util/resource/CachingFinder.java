@@ -0,0 +1,644 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.resource;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.logging.Logger;
+
+import de.dante.util.StringList;
+import de.dante.util.StringListIterator;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.logger.LogEnabled;
+
+/**
+ * This resource finder remembers the outcome of the searches performed by the
+ * resource finders it contains. Successful and failed searches are recorded
+ * for each pair of name and type. A repeated search is answered from this
+ * record without asking the contained finders again.
+ *
+ * <h2>Configuration</h2>
+ * The caching finder contains the finders to be queried as nested
+ * <tt>Finder</tt> tags. They are configured in the same way as in the
+ * enclosing <tt>Resource</tt> configuration. The following example shows a
+ * configuration for a caching finder:
+ *
+ * <pre>
+ * &lt;Finder class="de.dante.util.resource.CachingFinder"
+ *         validate="true"
+ *         trace="false"&gt;
+ *   &lt;watch property="extex.outputdir"/&gt;
+ *   &lt;watch&gt;.&lt;/watch&gt;
+ *   &lt;Finder class="de.dante.util.resource.FileFinder"
+ *           default="default"&gt;
+ *     ...
+ *   &lt;/Finder&gt;
+ *   &lt;Finder class="de.dante.util.resource.LsrFinder"
+ *           default="default"&gt;
+ *     ...
+ *   &lt;/Finder&gt;
+ * &lt;/Finder&gt;
+ * </pre>
+ *
+ * <p>
+ *  The contained finders are queried in the order given. A successful search
+ *  can only be recorded if the finder reporting it implements
+ *  {@link ResourceLocator ResourceLocator}. Otherwise the search is repeated
+ *  the next time. A failed search is recorded only if all contained finders
+ *  have failed.
+ * </p>
+ * <p>
+ *  A recorded location is checked when it is opened. If it can not be opened
+ *  any more then the record is dropped and the search is repeated.
+ * </p>
+ * <p>
+ *  The attribute <tt>validate</tt> can be used to check the directories
+ *  named in the <tt>watch</tt> tags for modifications. If the time of last
+ *  modification of one of these directories has changed since the last
+ *  check then all records are dropped. This is needed when files are written
+ *  and read in the same run. If no <tt>watch</tt> tag is present then the
+ *  current directory is watched. The attribute <tt>validate</tt> is optional.
+ *  The default is <tt>true</tt>.
+ * </p>
+ * <p>
+ *  <tt>watch</tt> can carry the attribute <tt>property</tt>. In this case
+ *  the value is ignored and the value is taken from the property named in the
+ *  attribute. The value taken from the property can contain several paths
+ *  separated by the path separator of the platform.
+ * </p>
+ * <p>
+ *  The attribute <tt>trace</tt> can be used to force a tracing of the actions
+ *  in the log file. The tracing is performed only if a logger is present when
+ *  needed. The tracing flag can be overwritten at run-time. The flag is
+ *  passed on to the contained finders.
+ *  The attribute <tt>trace</tt> is optional.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class CachingFinder
+        implements
+            ResourceFinder,
+            RecursiveFinder,
+            LogEnabled,
+            PropertyConfigurable,
+            InteractionAware {
+
+    /**
+     * The constant <tt>FINDER_TAG</tt> contains the name of the tag for the
+     * contained finders.
+     */
+    private static final String FINDER_TAG = "Finder";
+
+    /**
+     * The constant <tt>MISS</tt> contains the marker for a failed search.
+     */
+    private static final Object MISS = new Object();
+
+    /**
+     * The constant <tt>WATCH_TAG</tt> contains the name of the tag for the
+     * directories to be watched.
+     */
+    private static final String WATCH_TAG = "watch";
+
+    /**
+     * The field <tt>bundle</tt> contains the resource bundle for messages.
+     */
+    private transient ResourceBundle bundle = null;
+
+    /**
+     * The field <tt>cache</tt> contains the records. It maps the type to a
+     * map from the name to the location or the marker {@link #MISS MISS}.
+     */
+    private Map cache = new HashMap();
+
+    /**
+     * The field <tt>config</tt> contains the configuration or
+     * <code>null</code> if the finders are added programmatically.
+     */
+    private Configuration config;
+
+    /**
+     * The field <tt>finders</tt> contains the contained finders. It is
+     * <code>null</code> until the configuration has been evaluated.
+     */
+    private List finders = null;
+
+    /**
+     * The field <tt>hits</tt> contains the number of searches answered with a
+     * recorded location.
+     */
+    private long hits = 0;
+
+    /**
+     * The field <tt>invalidations</tt> contains the number of times the
+     * records have been dropped because a watched directory has changed.
+     */
+    private long invalidations = 0;
+
+    /**
+     * The field <tt>logger</tt> contains the logger to be used for tracing.
+     */
+    private Logger logger = null;
+
+    /**
+     * The field <tt>lookups</tt> contains the number of searches.
+     */
+    private long lookups = 0;
+
+    /**
+     * The field <tt>misses</tt> contains the number of searches which have
+     * been passed to the contained finders.
+     */
+    private long misses = 0;
+
+    /**
+     * The field <tt>negativeHits</tt> contains the number of searches answered
+     * with a recorded failure.
+     */
+    private long negativeHits = 0;
+
+    /**
+     * The field <tt>parent</tt> contains the parent resource finder.
+     */
+    private ResourceFinder parent;
+
+    /**
+     * The field <tt>properties</tt> contains the properties instance to use.
+     */
+    private Properties properties = System.getProperties();
+
+    /**
+     * The field <tt>provider</tt> contains the interaction provider.
+     */
+    private InteractionProvider provider = null;
+
+    /**
+     * The field <tt>stamps</tt> contains the times of last modification of
+     * the watched directories at the last check.
+     */
+    private long[] stamps = null;
+
+    /**
+     * The field <tt>trace</tt> contains the indicator that tracing is required.
+     */
+    private boolean trace = false;
+
+    /**
+     * The field <tt>validate</tt> contains the indicator that the watched
+     * directories should be checked.
+     */
+    private boolean validate = true;
+
+    /**
+     * The field <tt>watched</tt> contains the watched directories. It is
+     * <code>null</code> until the configuration has been evaluated.
+     */
+    private File[] watched = null;
+
+    /**
+     * Creates a new object.
+     *
+     * @param configuration the encapsulated configuration object
+     */
+    public CachingFinder(final Configuration configuration) {
+
+        super();
+        this.config = configuration;
+        this.parent = this;
+        String t = configuration.getAttribute("trace");
+        if (t != null && Boolean.valueOf(t).booleanValue()) {
+            trace = true;
+        }
+        t = configuration.getAttribute("validate");
+        if (t != null && !"".equals(t)) {
+            validate = Boolean.valueOf(t).booleanValue();
+        }
+    }
+
+    /**
+     * Creates a new object without configuration. The finders to be queried
+     * have to be added with {@link #add(ResourceFinder) add()}. The current
+     * directory is watched.
+     *
+     * @param validate the indicator that the watched directories should be
+     *  checked
+     */
+    public CachingFinder(final boolean validate) {
+
+        super();
+        this.config = null;
+        this.parent = this;
+        this.validate = validate;
+        this.finders = new ArrayList();
+        this.watched = new File[]{new File(".")};
+        this.stamps = new long[]{watched[0].lastModified()};
+    }
+
+    /**
+     * Append an additional finder to the list of finders contained.
+     *
+     * @param finder the finder to add
+     *
+     * @throws ConfigurationException in case of an error in the configuration
+     */
+    public void add(final ResourceFinder finder) throws ConfigurationException {
+
+        if (finders == null) {
+            initialize();
+        }
+        finders.add(finder);
+        if (finder instanceof RecursiveFinder) {
+            ((RecursiveFinder) finder).setParent(parent);
+        }
+    }
+
+    /**
+     * Drop all records.
+     */
+    public synchronized void clear() {
+
+        cache.clear();
+    }
+
+    /**
+     * Setter for the logger.
+     *
+     * @param theLogger the logger to set.
+     *
+     * @see de.dante.util.framework.logger.LogEnabled#enableLogging(
+     *      java.util.logging.Logger)
+     */
+    public void enableLogging(final Logger theLogger) {
+
+        this.logger = theLogger;
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceFinder#enableTracing(boolean)
+     */
+    public void enableTracing(final boolean flag) {
+
+        trace = flag;
+        if (finders != null) {
+            for (int i = 0; i < finders.size(); i++) {
+                ((ResourceFinder) finders.get(i)).enableTracing(flag);
+            }
+        }
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceFinder#findResource(java.lang.String,
+     *      java.lang.String)
+     */
+    public synchronized InputStream findResource(final String name,
+            final String type) throws ConfigurationException {
+
+        if (finders == null) {
+            initialize();
+        }
+        boolean verbose = (trace && logger != null);
+        lookups++;
+        if (validate) {
+            check();
+        }
+
+        Map names = (Map) cache.get(type);
+        if (names == null) {
+            names = new HashMap();
+            cache.put(type, names);
+        }
+        Object entry = names.get(name);
+
+        if (entry == MISS) {
+            negativeHits++;
+            if (verbose) {
+                trace("CachedMiss", name, type);
+            }
+            return null;
+        } else if (entry != null) {
+            InputStream stream = open((URL) entry);
+            if (stream != null) {
+                hits++;
+                if (verbose) {
+                    trace("CachedHit", name, entry.toString());
+                }
+                return stream;
+            }
+            names.remove(name);
+        }
+
+        misses++;
+        for (int i = 0; i < finders.size(); i++) {
+            ResourceFinder finder = (ResourceFinder) finders.get(i);
+            if (finder instanceof ResourceLocator) {
+                URL url = ((ResourceLocator) finder).locateResource(name,
+                        type);
+                if (url != null) {
+                    InputStream stream = open(url);
+                    if (stream != null) {
+                        names.put(name, url);
+                        return stream;
+                    }
+                }
+            } else {
+                InputStream stream = finder.findResource(name, type);
+                if (stream != null) {
+                    return stream;
+                }
+            }
+        }
+        names.put(name, MISS);
+        return null;
+    }
+
+    /**
+     * Getter for the number of searches answered from a record of a
+     * successful search.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+
+        return hits;
+    }
+
+    /**
+     * Getter for the number of times the records have been dropped because a
+     * watched directory has changed.
+     *
+     * @return the number of invalidations
+     */
+    public synchronized long getInvalidations() {
+
+        return invalidations;
+    }
+
+    /**
+     * Getter for the number of searches.
+     *
+     * @return the number of searches
+     */
+    public synchronized long getLookups() {
+
+        return lookups;
+    }
+
+    /**
+     * Getter for the number of searches passed to the contained finders.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+
+        return misses;
+    }
+
+    /**
+     * Getter for the number of searches answered from a record of a failed
+     * search.
+     *
+     * @return the number of negative hits
+     */
+    public synchronized long getNegativeHits() {
+
+        return negativeHits;
+    }
+
+    /**
+     * Getter for the number of searches which did not need to ask the
+     * contained finders.
+     *
+     * @return the number of searches saved
+     */
+    public synchronized long getSaved() {
+
+        return hits + negativeHits;
+    }
+
+    /**
+     * Write the statistics to the logger if one is present.
+     */
+    public void logStatistics() {
+
+        if (logger != null) {
+            trace("Statistics", new Object[]{new Long(getLookups()),
+                    new Long(getHits()), new Long(getNegativeHits()),
+                    new Long(getMisses()), new Long(getInvalidations())});
+        }
+    }
+
+    /**
+     * @see de.dante.util.resource.InteractionAware#setInteractionProvider(
+     *      de.dante.util.resource.InteractionProvider)
+     */
+    public void setInteractionProvider(final InteractionProvider theProvider) {
+
+        this.provider = theProvider;
+    }
+
+    /**
+     * Setter for the parent resource finder.
+     *
+     * @param theParent the parent finder for recursive invocation
+     *
+     * @see de.dante.util.resource.RecursiveFinder#setParent(
+     *      de.dante.util.resource.ResourceFinder)
+     */
+    public void setParent(final ResourceFinder theParent) {
+
+        this.parent = theParent;
+        if (finders != null) {
+            for (int i = 0; i < finders.size(); i++) {
+                ResourceFinder finder = (ResourceFinder) finders.get(i);
+                if (finder instanceof RecursiveFinder) {
+                    ((RecursiveFinder) finder).setParent(theParent);
+                }
+            }
+        }
+    }
+
+    /**
+     * @see de.dante.util.resource.PropertyConfigurable#setProperties(
+     *      java.util.Properties)
+     */
+    public void setProperties(final Properties theProperties) {
+
+        this.properties = theProperties;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+
+        StringBuffer sb = new StringBuffer("(cache");
+        if (finders != null) {
+            Iterator iterator = finders.iterator();
+            while (iterator.hasNext()) {
+                sb.append(' ');
+                sb.append(iterator.next().toString());
+            }
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    /**
+     * Check the watched directories and drop all records if one of them has
+     * been modified since the last check.
+     */
+    private void check() {
+
+        boolean changed = false;
+        for (int i = 0; i < watched.length; i++) {
+            long t = watched[i].lastModified();
+            if (t != stamps[i]) {
+                stamps[i] = t;
+                changed = true;
+            }
+        }
+        if (changed && !cache.isEmpty()) {
+            invalidations++;
+            cache.clear();
+            if (trace && logger != null) {
+                trace("Invalidated", null, null);
+            }
+        }
+    }
+
+    /**
+     * Create the contained finders and determine the watched directories
+     * from the configuration.
+     *
+     * @throws ConfigurationException in case of an error in the configuration
+     */
+    private void initialize() throws ConfigurationException {
+
+        finders = new ArrayList();
+        List dirs = new ArrayList();
+
+        Iterator iterator = config.iterator(WATCH_TAG);
+        while (iterator.hasNext()) {
+            Configuration cfg = (Configuration) iterator.next();
+            String prop = cfg.getAttribute("property");
+            if (prop == null) {
+                dirs.add(new File(cfg.getValue()));
+            } else {
+                String path = properties.getProperty(prop, null);
+                if (path != null) {
+                    StringListIterator it = new StringList(path, System
+                            .getProperty("path.separator", ":")).getIterator();
+                    while (it.hasNext()) {
+                        dirs.add(new File(it.next()));
+                    }
+                }
+            }
+        }
+        if (dirs.isEmpty()) {
+            dirs.add(new File("."));
+        }
+        watched = (File[]) dirs.toArray(new File[dirs.size()]);
+        stamps = new long[watched.length];
+        for (int i = 0; i < watched.length; i++) {
+            stamps[i] = watched[i].lastModified();
+        }
+
+        ResourceFinderFactory factory = new ResourceFinderFactory();
+        iterator = config.iterator(FINDER_TAG);
+        while (iterator.hasNext()) {
+            ResourceFinder finder = factory.createFinder(
+                    (Configuration) iterator.next(), logger, properties,
+                    provider);
+            if (trace) {
+                finder.enableTracing(true);
+            }
+            add(finder);
+        }
+    }
+
+    /**
+     * Open a stream to a location.
+     *
+     * @param url the location
+     *
+     * @return the stream or <code>null</code> if the location can not be
+     *  opened
+     */
+    private InputStream open(final URL url) {
+
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return new FileInputStream(new File(new URI(url
+                        .toExternalForm())));
+            }
+            return url.openStream();
+        } catch (IOException e) {
+            return null;
+        } catch (URISyntaxException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Produce an internationalized trace message.
+     *
+     * @param key the resource key for the message format
+     * @param arg the first argument to insert
+     * @param arg2 the second argument to insert
+     */
+    private void trace(final String key, final String arg, final String arg2) {
+
+        trace(key, new Object[]{arg, arg2});
+    }
+
+    /**
+     * Produce an internationalized trace message.
+     *
+     * @param key the resource key for the message format
+     * @param args the arguments to insert
+     */
+    private void trace(final String key, final Object[] args) {
+
+        if (bundle == null) {
+            bundle = ResourceBundle.getBundle(CachingFinder.class.getName());
+        }
+
+        logger.fine(MessageFormat.format(bundle.getString(key), args));
+    }
+
+}
@@ -19,7 +19,9 @@
 
 package de.dante.util.resource;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ResourceBundle;
 import java.util.logging.Logger;
@@ -90,7 +92,11 @@ import de.dante.util.framework.logger.LogEnabled;
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.5 $
  */
-public class ClasspathFinder implements LogEnabled, ResourceFinder {
+public class ClasspathFinder
+        implements
+            LogEnabled,
+            ResourceFinder,
+            ResourceLocator {
 
     /**
      * The field <tt>bundle</tt> contains the resource bundle for messages.
@@ -158,6 +164,25 @@ public class ClasspathFinder implements LogEnabled, ResourceFinder {
     public InputStream findResource(final String name, final String type)
             throws ConfigurationException {
 
+        URL url = locateResource(name, type);
+        if (url == null) {
+            return null;
+        }
+        try {
+            return url.openStream();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceLocator#locateResource(
+     *      java.lang.String,
+     *      java.lang.String)
+     */
+    public URL locateResource(final String name, final String type)
+            throws ConfigurationException {
+
         if (trace && bundle == null) {
             bundle = ResourceBundle.getBundle(ClasspathFinder.class.getName());
         }
@@ -197,13 +222,13 @@ public class ClasspathFinder implements LogEnabled, ResourceFinder {
             if (trace) {
                 trace("Try", fullName, null);
             }
-            InputStream stream = classLoader.getResourceAsStream(fullName);
+            URL url = classLoader.getResource(fullName);
 
-            if (stream != null) {
+            if (url != null) {
                 if (trace) {
                     trace("Found", fullName, null);
                 }
-                return stream;
+                return url;
             }
             if (trace) {
                 trace("NotFound", fullName, null);
@@ -23,6 +23,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.text.MessageFormat;
 import java.util.Iterator;
 import java.util.Properties;
@@ -119,6 +121,7 @@ import de.dante.util.framework.logger.LogEnabled;
 public class FileFinder
         implements
             ResourceFinder,
+            ResourceLocator,
             LogEnabled,
             PropertyConfigurable {
 
@@ -204,13 +207,11 @@ public class FileFinder
      * @param path the path of the file to find
      * @param cfg the configuration
      *
-     * @return the input stream for the file or <code>null</code> if none was
-     *  found.
+     * @return the readable file or <code>null</code> if none was found.
      */
-    private InputStream find(final String name, final String path,
+    private File find(final String name, final String path,
             final Configuration cfg) {
 
-        InputStream stream;
         StringListIterator extIt = cfg.getValues(EXTENSION_TAG).getIterator();
         boolean verbose = (trace && logger != null);
 
@@ -222,18 +223,10 @@ public class FileFinder
                 trace("Try", file.toString(), null);
             }
             if (file.canRead()) {
-                try {
-                    stream = new FileInputStream(file);
-                    if (verbose) {
-                        trace("Found", file.toString(), null);
-                    }
-                    return stream;
-                } catch (FileNotFoundException e) {
-                    // Ignore unreadable files.
-                    // This should not happen since it has already been
-                    // tested before.
-                    trace("NotFound", file.toString(), null);
+                if (verbose) {
+                    trace("Found", file.toString(), null);
                 }
+                return file;
             }
         }
         return null;
@@ -246,28 +239,33 @@ public class FileFinder
      * @param paths a list of paths to explore
      * @param cfg the configuration
      *
-     * @return the input stream for the file or <code>null</code> if none was
-     *  found.
+     * @return the readable file or <code>null</code> if none was found.
      */
-    private InputStream find(final String name, final StringList paths,
+    private File find(final String name, final StringList paths,
             final Configuration cfg) {
 
-        InputStream stream = null;
+        File file = null;
         StringListIterator iterator = paths.getIterator();
 
-        while (stream == null && iterator.hasNext()) {
+        while (file == null && iterator.hasNext()) {
             String p = iterator.next();
-            stream = find(name, p, cfg);
+            file = find(name, p, cfg);
         }
 
-        return stream;
+        return file;
     }
 
     /**
-     * @see de.dante.util.resource.ResourceFinder#findResource(java.lang.String,
-     *      java.lang.String)
+     * Try to find a readable file for a resource.
+     *
+     * @param name the base name of the resource
+     * @param type the type, i.e. the extension
+     *
+     * @return the readable file or <code>null</code> if none was found.
+     *
+     * @throws ConfigurationException in case of an exception
      */
-    public InputStream findResource(final String name, final String type)
+    private File findFile(final String name, final String type)
             throws ConfigurationException {
 
         boolean verbose = (trace && logger != null);
@@ -275,7 +273,7 @@ public class FileFinder
             trace("Searching", name, type);
         }
 
-        InputStream stream = null;
+        File file = null;
         Configuration cfg = config.findConfiguration(type);
         if (cfg == null) {
             String t = config.getAttribute("default");
@@ -291,27 +289,70 @@ public class FileFinder
         }
 
         Iterator iterator = cfg.iterator(PATH_TAG);
-        while (stream == null && iterator.hasNext()) {
+        while (file == null && iterator.hasNext()) {
             Configuration c = (Configuration) iterator.next();
             String prop = c.getAttribute("property");
             if (prop != null) {
                 String path = properties.getProperty(prop, null);
                 if (path != null) {
-                    stream = find(name, new StringList(path, System
+                    file = find(name, new StringList(path, System
                             .getProperty("path.separator", ":")), cfg);
                 } else if (verbose) {
                     trace("UndefinedProperty", prop, null);
                 }
             } else {
-                stream = find(name, c.getValue(), cfg);
+                file = find(name, c.getValue(), cfg);
             }
         }
 
-        if (stream == null && verbose) {
+        if (file == null && verbose) {
             trace("Failed", name, null);
         }
 
-        return stream;
+        return file;
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceFinder#findResource(java.lang.String,
+     *      java.lang.String)
+     */
+    public InputStream findResource(final String name, final String type)
+            throws ConfigurationException {
+
+        File file = findFile(name, type);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            // Ignore unreadable files.
+            // This should not happen since it has already been
+            // tested before.
+            if (trace && logger != null) {
+                trace("NotFound", file.toString(), null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceLocator#locateResource(
+     *      java.lang.String,
+     *      java.lang.String)
+     */
+    public URL locateResource(final String name, final String type)
+            throws ConfigurationException {
+
+        File file = findFile(name, type);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return file.toURI().toURL();
+        } catch (MalformedURLException e) {
+            return null;
+        }
     }
 
     /**
@@ -0,0 +1,592 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.resource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class provides access to a file name index for a directory tree. The
+ * index is a binary file which is mapped into memory. Thus opening an index
+ * does not depend on the number of files contained.
+ *
+ * <h2>File Format</h2>
+ * <p>
+ *  All numbers are stored as 32 bit integers in big endian order. The file
+ *  starts with a header:
+ * </p>
+ * <pre>
+ *   magic             0x45784958
+ *   version           1
+ *   directory count   d
+ *   entry count       n
+ *   offset of the directory table
+ *   offset of the entry table
+ * </pre>
+ * <p>
+ *  The directory table contains <i>d</i> offsets of the directory names in
+ *  the file. The directory names are relative to the directory containing
+ *  the index. The entry table contains <i>n</i> pairs of the offset of the
+ *  file name and the index of the directory. The entries are sorted by the
+ *  bytes of the file name. Entries with the same name are kept in the order
+ *  of their directories.
+ * </p>
+ * <p>
+ *  The names are stored as an unsigned 16 bit length followed by the bytes
+ *  of the name encoded in UTF-8. Each name is stored only once.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class FileIndex {
+
+    /**
+     * The constant <tt>ENCODING</tt> contains the encoding of the names.
+     */
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * The constant <tt>HEADER_SIZE</tt> contains the number of bytes in the
+     * header.
+     */
+    private static final int HEADER_SIZE = 24;
+
+    /**
+     * The constant <tt>KEY_ENCODING</tt> contains the encoding used to turn
+     * the bytes of a name into a key for a hash map. Each byte is mapped to
+     * one character; thus no information is lost.
+     */
+    private static final String KEY_ENCODING = "ISO-8859-1";
+
+    /**
+     * The constant <tt>LSR_ENCODING</tt> contains the default encoding of the
+     * names in the <tt>ls-R</tt> files.
+     */
+    public static final String LSR_ENCODING = "UTF-8";
+
+    /**
+     * The constant <tt>MAGIC</tt> contains the magic number of an index file.
+     */
+    private static final int MAGIC = 0x45784958;
+
+    /**
+     * The constant <tt>VERSION</tt> contains the version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Build an index from an <tt>ls-R</tt> file. The names in the file are
+     * expected in the default encoding {@link #LSR_ENCODING LSR_ENCODING}.
+     *
+     * @param lsr the <tt>ls-R</tt> file
+     * @param index the index file to write
+     *
+     * @throws IOException in case of an I/O error
+     */
+    public static void buildFromLsr(final File lsr, final File index)
+            throws IOException {
+
+        buildFromLsr(lsr, index, LSR_ENCODING);
+    }
+
+    /**
+     * Build an index from an <tt>ls-R</tt> file.
+     *
+     * @param lsr the <tt>ls-R</tt> file
+     * @param index the index file to write
+     * @param encoding the encoding of the names in the <tt>ls-R</tt> file
+     *
+     * @throws IOException in case of an I/O error; this includes an
+     *  unsupported encoding
+     */
+    public static void buildFromLsr(final File lsr, final File index,
+            final String encoding) throws IOException {
+
+        List dirs = new ArrayList();
+        List entries = new ArrayList();
+        dirs.add("");
+        int dir = 0;
+
+        InputStream in = new BufferedInputStream(new FileInputStream(lsr));
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            for (int c = in.read(); c >= 0; c = in.read()) {
+                if (c == '%') {
+                    do {
+                        c = in.read();
+                    } while (c >= 0 && c != '\n' && c != '\r');
+                } else if (c >= ' ') {
+                    bytes.reset();
+                    do {
+                        bytes.write(c);
+                        c = in.read();
+                    } while (c >= 0 && c != '\n' && c != '\r');
+                    // the line is decoded as a whole since a character may
+                    // consist of several bytes
+                    StringBuffer line = new StringBuffer(bytes
+                            .toString(encoding));
+                    int len = line.length();
+                    if (line.charAt(len - 1) == ':') {
+                        line.deleteCharAt(len - 1);
+                        if (line.length() > 1 && line.charAt(0) == '.'
+                                && line.charAt(1) == '/') {
+                            line.delete(0, 2);
+                        }
+                        dir = dirs.size();
+                        dirs.add(line.toString());
+                    } else {
+                        entries.add(new Entry(encode(line.toString()), dir));
+                    }
+                }
+            }
+        } finally {
+            in.close();
+        }
+        write(index, dirs, entries);
+    }
+
+    /**
+     * Build an index by walking a directory tree.
+     *
+     * @param root the root of the directory tree
+     * @param index the index file to write
+     *
+     * @throws IOException in case of an I/O error
+     */
+    public static void buildFromTree(final File root, final File index)
+            throws IOException {
+
+        List dirs = new ArrayList();
+        List entries = new ArrayList();
+        walk(root, "", dirs, entries);
+        write(index, dirs, entries);
+    }
+
+    /**
+     * Compare a byte array with a name in the buffer. The bytes are compared
+     * as unsigned values.
+     *
+     * @param key the bytes of the key
+     * @param buffer the buffer
+     * @param offset the offset of the name in the buffer
+     *
+     * @return a negative number, zero, or a positive number if the key is
+     *  less than, equal to, or greater than the name
+     */
+    private static int compare(final byte[] key, final ByteBuffer buffer,
+            final int offset) {
+
+        int len = buffer.getShort(offset) & 0xffff;
+        int n = (key.length < len ? key.length : len);
+        for (int i = 0; i < n; i++) {
+            int d = (key[i] & 0xff) - (buffer.get(offset + 2 + i) & 0xff);
+            if (d != 0) {
+                return d;
+            }
+        }
+        return key.length - len;
+    }
+
+    /**
+     * Encode a name into bytes.
+     *
+     * @param name the name
+     *
+     * @return the bytes of the name
+     */
+    private static byte[] encode(final String name) {
+
+        try {
+            return name.getBytes(ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e.toString());
+        }
+    }
+
+    /**
+     * Collect the directories and files of a directory tree.
+     *
+     * @param dir the current directory
+     * @param path the path of the current directory relative to the root
+     * @param dirs the list of directory names
+     * @param entries the list of entries
+     */
+    private static void walk(final File dir, final String path,
+            final List dirs, final List entries) {
+
+        String[] names = dir.list();
+        if (names == null) {
+            return;
+        }
+        int no = dirs.size();
+        dirs.add(path);
+        for (int i = 0; i < names.length; i++) {
+            entries.add(new Entry(encode(names[i]), no));
+        }
+        for (int i = 0; i < names.length; i++) {
+            File f = new File(dir, names[i]);
+            if (f.isDirectory()) {
+                walk(f, ("".equals(path) ? names[i] : path + "/" + names[i]),
+                        dirs, entries);
+            }
+        }
+    }
+
+    /**
+     * Write an index file.
+     *
+     * @param index the index file
+     * @param dirs the list of directory names
+     * @param entries the list of entries
+     *
+     * @throws IOException in case of an I/O error
+     */
+    private static void write(final File index, final List dirs,
+            final List entries) throws IOException {
+
+        // the sort is stable; thus the directory order is kept
+        Collections.sort(entries, Entry.COMPARATOR);
+
+        int dirTable = HEADER_SIZE;
+        int entryTable = dirTable + 4 * dirs.size();
+        int pool = entryTable + 8 * entries.size();
+
+        List strings = new ArrayList();
+        Map offsets = new HashMap();
+        int[] dirOffsets = new int[dirs.size()];
+        int[] nameOffsets = new int[entries.size()];
+        int next = pool;
+
+        for (int i = 0; i < dirOffsets.length; i++) {
+            byte[] b = encode((String) dirs.get(i));
+            dirOffsets[i] = next;
+            strings.add(b);
+            next += 2 + b.length;
+        }
+        for (int i = 0; i < nameOffsets.length; i++) {
+            byte[] b = ((Entry) entries.get(i)).name;
+            String key = new String(b, KEY_ENCODING);
+            Integer off = (Integer) offsets.get(key);
+            if (off == null) {
+                off = new Integer(next);
+                offsets.put(key, off);
+                strings.add(b);
+                next += 2 + b.length;
+            }
+            nameOffsets[i] = off.intValue();
+        }
+
+        // the index is written to a temporary file in the same directory and
+        // renamed afterwards; thus a concurrent reader never maps a partially
+        // written index
+        File dir = index.getAbsoluteFile().getParentFile();
+        File tmp = File.createTempFile("index", ".tmp", dir);
+        boolean done = false;
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dirs.size());
+            out.writeInt(entries.size());
+            out.writeInt(dirTable);
+            out.writeInt(entryTable);
+            for (int i = 0; i < dirOffsets.length; i++) {
+                out.writeInt(dirOffsets[i]);
+            }
+            for (int i = 0; i < nameOffsets.length; i++) {
+                out.writeInt(nameOffsets[i]);
+                out.writeInt(((Entry) entries.get(i)).dir);
+            }
+            for (int i = 0; i < strings.size(); i++) {
+                byte[] b = (byte[]) strings.get(i);
+                out.writeShort(b.length);
+                out.write(b);
+            }
+            out.close();
+            // renameTo() does not replace an existing file on all platforms
+            if (!tmp.renameTo(index)
+                    && !(index.delete() && tmp.renameTo(index))) {
+                throw new IOException(index.toString());
+            }
+            done = true;
+        } finally {
+            out.close();
+            if (!done) {
+                tmp.delete();
+            }
+        }
+    }
+
+    /**
+     * This inner class is an entry during the construction of an index.
+     */
+    private static final class Entry {
+
+        /**
+         * The field <tt>COMPARATOR</tt> contains the comparator for the
+         * bytes of the names.
+         */
+        static final Comparator COMPARATOR = new Comparator() {
+
+            /**
+             * @see java.util.Comparator#compare(java.lang.Object,
+             *      java.lang.Object)
+             */
+            public int compare(final Object o1, final Object o2) {
+
+                byte[] a = ((Entry) o1).name;
+                byte[] b = ((Entry) o2).name;
+                int n = (a.length < b.length ? a.length : b.length);
+                for (int i = 0; i < n; i++) {
+                    int d = (a[i] & 0xff) - (b[i] & 0xff);
+                    if (d != 0) {
+                        return d;
+                    }
+                }
+                return a.length - b.length;
+            }
+        };
+
+        /**
+         * The field <tt>dir</tt> contains the index of the directory.
+         */
+        private int dir;
+
+        /**
+         * The field <tt>name</tt> contains the bytes of the name.
+         */
+        private byte[] name;
+
+        /**
+         * Creates a new object.
+         *
+         * @param name the bytes of the name
+         * @param dir the index of the directory
+         */
+        Entry(final byte[] name, final int dir) {
+
+            super();
+            this.name = name;
+            this.dir = dir;
+        }
+    }
+
+    /**
+     * The field <tt>base</tt> contains the directory the names in the index
+     * are relative to.
+     */
+    private File base;
+
+    /**
+     * The field <tt>buffer</tt> contains the mapped index file.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The field <tt>dirs</tt> contains the directories already decoded.
+     */
+    private File[] dirs;
+
+    /**
+     * The field <tt>dirTable</tt> contains the offset of the directory table.
+     */
+    private int dirTable;
+
+    /**
+     * The field <tt>entries</tt> contains the number of entries.
+     */
+    private int entries;
+
+    /**
+     * The field <tt>entryTable</tt> contains the offset of the entry table.
+     */
+    private int entryTable;
+
+    /**
+     * Creates a new object. The index file is mapped into memory.
+     *
+     * @param file the index file
+     *
+     * @throws IOException in case of an I/O error or an invalid index file
+     */
+    public FileIndex(final File file) throws IOException {
+
+        this(file, file.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Creates a new object. The index file is mapped into memory.
+     *
+     * @param file the index file
+     * @param base the directory the names in the index are relative to
+     *
+     * @throws IOException in case of an I/O error or an invalid index file
+     */
+    public FileIndex(final File file, final File base) throws IOException {
+
+        super();
+        this.base = base;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel
+                    .size());
+        } finally {
+            // the mapping stays valid after the file has been closed
+            raf.close();
+        }
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION) {
+            throw new IOException(file.toString());
+        }
+        dirs = new File[buffer.getInt(8)];
+        entries = buffer.getInt(12);
+        dirTable = buffer.getInt(16);
+        entryTable = buffer.getInt(20);
+    }
+
+    /**
+     * Getter for the directory the names in the index are relative to.
+     *
+     * @return the base directory
+     */
+    public File getBase() {
+
+        return base;
+    }
+
+    /**
+     * Decode a directory.
+     *
+     * @param no the index of the directory
+     *
+     * @return the directory
+     */
+    private synchronized File getDirectory(final int no) {
+
+        File dir = dirs[no];
+        if (dir == null) {
+            int offset = buffer.getInt(dirTable + 4 * no);
+            String name = getString(offset);
+            dir = ("".equals(name) ? base : new File(base, name));
+            dirs[no] = dir;
+        }
+        return dir;
+    }
+
+    /**
+     * Decode a string from the buffer.
+     *
+     * @param offset the offset of the string
+     *
+     * @return the string
+     */
+    private String getString(final int offset) {
+
+        int len = buffer.getShort(offset) & 0xffff;
+        byte[] b = new byte[len];
+        for (int i = 0; i < len; i++) {
+            b[i] = buffer.get(offset + 2 + i);
+        }
+        try {
+            return new String(b, ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e.toString());
+        }
+    }
+
+    /**
+     * Getter for the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int getSize() {
+
+        return entries;
+    }
+
+    /**
+     * Get the offset of the name of an entry.
+     *
+     * @param no the index of the entry
+     *
+     * @return the offset of the name
+     */
+    private int nameOffset(final int no) {
+
+        return buffer.getInt(entryTable + 8 * no);
+    }
+
+    /**
+     * Find all files with a given name.
+     *
+     * @param name the name of the file without any directory
+     *
+     * @return the files found in the order of their directories; the result
+     *  is empty if none is found
+     */
+    public File[] lookup(final String name) {
+
+        byte[] key = encode(name);
+        int lo = 0;
+        int hi = entries;
+        // find the first entry which is not less than the key
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(key, buffer, nameOffset(mid)) > 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int end = lo;
+        while (end < entries && compare(key, buffer, nameOffset(end)) == 0) {
+            end++;
+        }
+        File[] files = new File[end - lo];
+        for (int i = lo; i < end; i++) {
+            files[i - lo] = new File(getDirectory(buffer.getInt(entryTable + 8
+                    * i + 4)), name);
+        }
+        return files;
+    }
+
+}
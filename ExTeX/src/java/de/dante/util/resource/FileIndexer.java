@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.resource;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * This class creates a file name index for a texmf tree. The index can be
+ * used by the {@link IndexFinder IndexFinder}.
+ *
+ * <p>
+ *  If the directory contains a file <tt>ls-R</tt> then the index is built
+ *  from this file. Otherwise the directory tree is traversed. The option
+ *  <tt>-tree</tt> forces the traversal of the directory tree.
+ * </p>
+ * <p>
+ *  The index is written to the file <tt>ls-R.idx</tt> in the directory
+ *  unless another file is given on the command line.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public final class FileIndexer {
+
+    /**
+     * The constant <tt>INDEX_FILE_NAME</tt> contains the default name of the
+     * index file.
+     */
+    public static final String INDEX_FILE_NAME = "ls-R.idx";
+
+    /**
+     * The constant <tt>LSR_FILE_NAME</tt> contains the name of the ls-R file.
+     */
+    public static final String LSR_FILE_NAME = "ls-R";
+
+    /**
+     * Create an index for a directory.
+     *
+     * @param directory the directory
+     * @param index the index file
+     * @param tree indicator that the directory tree should be traversed even
+     *  if a <tt>ls-R</tt> file is present
+     *
+     * @throws IOException in case of an I/O error
+     */
+    public static void index(final File directory, final File index,
+            final boolean tree) throws IOException {
+
+        File lsr = new File(directory, LSR_FILE_NAME);
+        if (!tree && lsr.canRead()) {
+            FileIndex.buildFromLsr(lsr, index);
+        } else {
+            FileIndex.buildFromTree(directory, index);
+        }
+    }
+
+    /**
+     * main.
+     *
+     * @param args      The command line.
+     *                  [-tree] &lt;directory&gt; [&lt;index file&gt;]
+     * @throws IOException if an io-error occurs.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        boolean tree = false;
+        int p = 0;
+        if (p < args.length && args[p].equalsIgnoreCase("-tree")) {
+            tree = true;
+            p++;
+        }
+        if (p >= args.length || args.length - p > 2) {
+            printCommandLine();
+            return;
+        }
+        File directory = new File(args[p]);
+        File index = (p + 1 < args.length //
+                ? new File(args[p + 1])
+                : new File(directory, INDEX_FILE_NAME));
+
+        long start = System.currentTimeMillis();
+        index(directory, index, tree);
+        System.err.println(index.toString() + ": "
+                + new FileIndex(index).getSize() + " entries in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * print the command line
+     */
+    private static void printCommandLine() {
+
+        System.err.println("java de.dante.util.resource.FileIndexer "
+                + "[-tree] <directory> [<index file>]");
+        System.exit(1);
+    }
+
+    /**
+     * Creates a new object.
+     */
+    private FileIndexer() {
+
+        super();
+    }
+
+}
@@ -0,0 +1,534 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.resource;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.logging.Logger;
+
+import de.dante.util.StringList;
+import de.dante.util.StringListIterator;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.configuration.exception.ConfigurationMissingAttributeException;
+import de.dante.util.framework.configuration.exception.ConfigurationMissingException;
+import de.dante.util.framework.logger.LogEnabled;
+
+/**
+ * This resource finder searches a file in a file name index as created by
+ * {@link FileIndexer FileIndexer}. In contrast to the
+ * {@link LsrFinder LsrFinder} the index is not read into memory but mapped.
+ * Thus the time to open a file database does not depend on the size of the
+ * texmf tree and the memory used is shared with the operating system's file
+ * cache.
+ *
+ * <h2>Configuration</h2>
+ * The index finder is configured like the lsr finder.
+ * The following example shows a configuration for an index finder:
+ *
+ * <pre>
+ * &lt;Finder class="de.dante.util.resource.IndexFinder"
+ *          default="default"
+ *          index="ls-R.idx"
+ *          update="false"
+ *          trace="false"&gt;
+ *   &lt;path property="extex.font.path"&gt;&lt;/path&gt;
+ *   &lt;path property="texmf.path"&gt;&lt;/path&gt;
+ *
+ *   &lt;tfm&gt;&lt;extension&gt;.tfm&lt;/extension&gt;&lt;/tfm&gt;
+ *   &lt;efm&gt;&lt;extension&gt;.efm&lt;/extension&gt;&lt;/efm&gt;
+ *   &lt;fmt skip="true"/&gt;
+ *   &lt;default&gt;&lt;extension/&gt;&lt;/default&gt;
+ * &lt;/Finder&gt;
+ * </pre>
+ *
+ * <p>
+ *  The <tt>path</tt> tags name directories which may contain file name
+ *  indexes. The name of the index file is given in the attribute
+ *  <tt>index</tt>. The default is <tt>ls-R.idx</tt>. The <tt>path</tt> tags
+ *  and the sub-configurations for the types are interpreted as described for
+ *  the {@link LsrFinder LsrFinder}. A sub-configuration with the attribute
+ *  <tt>skip</tt> set to <code>true</code> is not considered at all.
+ * </p>
+ * <p>
+ *  An index which is missing or older than the <tt>ls-R</tt> file in the
+ *  same directory is rebuilt from the <tt>ls-R</tt> file. If the attribute
+ *  <tt>update</tt> is <code>true</code> then the index is written next to the
+ *  <tt>ls-R</tt> file. Otherwise or if the directory is not writable the
+ *  index is stored in the temporary directory instead. Thus the
+ *  <tt>ls-R</tt> file is read at most once after it has been changed. The
+ *  default is <code>false</code>; i.e. the finder does not write into the
+ *  texmf trees unless requested.
+ * </p>
+ * <p>
+ *  The attribute <tt>encoding</tt> names the encoding of the file names in
+ *  the <tt>ls-R</tt> files. The default is <tt>UTF-8</tt>.
+ * </p>
+ * <p>
+ *  The attribute <tt>trace</tt> can be used to force a tracing of the actions
+ *  in the log file. The tracing is performed only if a logger is present when
+ *  needed. The tracing flag can be overwritten at run-time.
+ *  The attribute <tt>trace</tt> is optional.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class IndexFinder
+        implements
+            ResourceFinder,
+            ResourceLocator,
+            LogEnabled,
+            PropertyConfigurable {
+
+    /**
+     * The field <tt>ATTR_DEFAULT</tt> contains the attribute name for the
+     * default type.
+     */
+    private static final String ATTR_DEFAULT = "default";
+
+    /**
+     * The field <tt>ATTR_PROPERTY</tt> contains the attribute name for the
+     * property access.
+     */
+    private static final String ATTR_PROPERTY = "property";
+
+    /**
+     * The constant <tt>EXTENSION_TAG</tt> contains the name of the tag to get
+     * the possible extensions.
+     */
+    private static final String EXTENSION_TAG = "extension";
+
+    /**
+     * The field <tt>TAG_PATH</tt> contains the name of the tag to identify
+     * paths.
+     */
+    private static final String TAG_PATH = "path";
+
+    /**
+     * The field <tt>bundle</tt> contains the resource bundle for messages.
+     */
+    private ResourceBundle bundle = null;
+
+    /**
+     * The field <tt>config</tt> contains the configuration object on which this
+     * file finder is based.
+     */
+    private Configuration config;
+
+    /**
+     * The field <tt>encoding</tt> contains the encoding of the names in the
+     * <tt>ls-R</tt> files.
+     */
+    private String encoding = FileIndex.LSR_ENCODING;
+
+    /**
+     * The field <tt>indexName</tt> contains the name of the index files.
+     */
+    private String indexName = FileIndexer.INDEX_FILE_NAME;
+
+    /**
+     * The field <tt>indexes</tt> contains the list of indexes opened or
+     * <code>null</code> if the finder has not been initialized yet.
+     */
+    private List indexes = null;
+
+    /**
+     * The field <tt>logger</tt> contains the logger to be used for tracing.
+     */
+    private Logger logger = null;
+
+    /**
+     * The field <tt>properties</tt> contains the properties provided for this
+     * finder.
+     */
+    private Properties properties = System.getProperties();
+
+    /**
+     * The field <tt>trace</tt> contains the indicator that tracing is required.
+     * This field is set to <code>true</code> according to the configuration.
+     */
+    private boolean trace = false;
+
+    /**
+     * The field <tt>update</tt> contains the indicator that outdated indexes
+     * should be rebuilt.
+     */
+    private boolean update = false;
+
+    /**
+     * Creates a new object.
+     *
+     * @param configuration the encapsulated configuration object
+     */
+    public IndexFinder(final Configuration configuration) {
+
+        super();
+        this.config = configuration;
+        String a = configuration.getAttribute("trace");
+        this.trace = (a != null && Boolean.valueOf(a).booleanValue());
+        a = configuration.getAttribute("update");
+        this.update = (a != null && Boolean.valueOf(a).booleanValue());
+        a = configuration.getAttribute("encoding");
+        if (a != null && !"".equals(a)) {
+            this.encoding = a;
+        }
+        a = configuration.getAttribute("index");
+        if (a != null && !"".equals(a)) {
+            this.indexName = a;
+        }
+    }
+
+    /**
+     * Setter for the logger.
+     *
+     * @param logger the new logger
+     *
+     * @see de.dante.util.framework.logger.LogEnabled#enableLogging(
+     *      java.util.logging.Logger)
+     */
+    public void enableLogging(final Logger logger) {
+
+        this.logger = logger;
+    }
+
+    /**
+     * Compute a file name from a path. Different paths lead to different
+     * names; thus the indexes of different trees in the temporary directory
+     * do not collide.
+     *
+     * @param path the path
+     *
+     * @return the hexadecimal SHA-1 digest of the path
+     */
+    private static String digest(final String path) {
+
+        byte[] bytes;
+        try {
+            bytes = MessageDigest.getInstance("SHA-1").digest(
+                    path.getBytes("UTF-8"));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 is always supported
+            throw new IllegalStateException(e.toString());
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e.toString());
+        }
+        StringBuffer sb = new StringBuffer(2 * bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            sb.append(Character.forDigit((bytes[i] >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(bytes[i] & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceFinder#enableTracing(boolean)
+     */
+    public void enableTracing(final boolean flag) {
+
+        this.trace = flag;
+    }
+
+    /**
+     * Try to find a readable file for a resource in the file indexes.
+     *
+     * @param name the base name of the resource
+     * @param type the type, i.e. the extension
+     *
+     * @return the readable file or <code>null</code> if none was found.
+     *
+     * @throws ConfigurationException in case of an exception
+     */
+    private File findFile(final String name, final String type)
+            throws ConfigurationException {
+
+        boolean verbose = (trace && logger != null);
+
+        if (verbose) {
+            trace("Searching", name, type, null);
+        }
+
+        Configuration cfg = config.findConfiguration(type);
+        if (cfg == null) {
+            String t = config.getAttribute(ATTR_DEFAULT);
+            if (t == null) {
+                throw new ConfigurationMissingAttributeException(ATTR_DEFAULT,
+                        config);
+            }
+            cfg = config.getConfiguration(t);
+            if (cfg == null) {
+                if (verbose) {
+                    trace("DefaultNotFound", type, t, null);
+                }
+                return null;
+            }
+            if (verbose) {
+                trace("ConfigurationNotFound", type, t, null);
+            }
+        }
+        String t = cfg.getAttribute("skip");
+        if (t != null && Boolean.valueOf(t).booleanValue()) {
+
+            if (verbose) {
+                trace("Skipped", type, null, null);
+            }
+            return null;
+        }
+
+        if (indexes == null) {
+            initialize();
+        }
+
+        StringListIterator it = cfg.getValues(EXTENSION_TAG).getIterator();
+
+        while (it.hasNext()) {
+            String key = name + it.next();
+            for (int i = 0; i < indexes.size(); i++) {
+                File[] files = ((FileIndex) indexes.get(i)).lookup(key);
+                for (int j = 0; j < files.length; j++) {
+                    File file = files[j];
+                    if (verbose) {
+                        trace("Try", file.toString(), null, null);
+                    }
+                    if (file.canRead()) {
+                        if (verbose) {
+                            trace("Found", file.toString(), null, null);
+                        }
+                        return file;
+                    }
+                }
+            }
+        }
+        if (verbose) {
+            trace("Failed", name, null, null);
+        }
+        return null;
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceFinder#findResource(java.lang.String,
+     *      java.lang.String)
+     */
+    public InputStream findResource(final String name, final String type)
+            throws ConfigurationException {
+
+        File file = findFile(name, type);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            // ignore unreadable files
+            if (trace && logger != null) {
+                trace("FoundUnreadable", file.toString(), null, null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Open the indexes for all paths.
+     *
+     * @throws ConfigurationException in case of an error
+     */
+    private void initialize() throws ConfigurationException {
+
+        boolean verbose = (trace && logger != null);
+        Iterator it = config.iterator(TAG_PATH);
+        if (!it.hasNext()) {
+            throw new ConfigurationMissingException(TAG_PATH, config.toString());
+        }
+
+        indexes = new ArrayList();
+
+        while (it.hasNext()) {
+            Configuration cfg = (Configuration) it.next();
+            String pathProperty = cfg.getAttribute(ATTR_PROPERTY);
+            String name;
+            if (pathProperty != null) {
+                name = properties.getProperty(pathProperty);
+                if (name == null) {
+                    if (verbose) {
+                        trace("UndefinedProperty", pathProperty, null, null);
+                    }
+                } else {
+                    StringListIterator sit = new StringList(name, System
+                            .getProperty("path.separator", ":")).getIterator();
+                    while (sit.hasNext()) {
+                        load(sit.next());
+                    }
+                }
+            } else {
+                name = cfg.getValue();
+                if (name != null && !name.equals("")) {
+                    load(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Open the index for a path. If required the index is rebuilt first.
+     *
+     * @param path the path for the index file
+     */
+    private void load(final String path) {
+
+        long start = System.currentTimeMillis();
+        File directory = new File(path);
+        File file = new File(directory, indexName);
+        File lsr = new File(directory, FileIndexer.LSR_FILE_NAME);
+
+        if (lsr.canRead() && file.lastModified() < lsr.lastModified()) {
+            file = rebuild(file, lsr);
+        }
+
+        if (!file.canRead()) {
+            if (logger != null) {
+                trace("UnreadableIndex", file.toString(), null, null);
+            }
+            return;
+        }
+        try {
+            FileIndex index = new FileIndex(file, directory);
+            indexes.add(index);
+            if (trace && logger != null) {
+                trace("IndexLoaded", file.toString(), //
+                        Long.toString(System.currentTimeMillis() - start), //
+                        Integer.toString(index.getSize()));
+            }
+        } catch (IOException e) {
+            if (logger != null) {
+                trace("InvalidIndex", file.toString(), null, null);
+            }
+        }
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceLocator#locateResource(
+     *      java.lang.String,
+     *      java.lang.String)
+     */
+    public URL locateResource(final String name, final String type)
+            throws ConfigurationException {
+
+        File file = findFile(name, type);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return file.toURI().toURL();
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Rebuild an index from an ls-R file since it is missing or outdated. The
+     * index is written next to the ls-R file if updates are enabled. If
+     * updates are disabled or the index can not be written then an index in
+     * the temporary directory is used instead.
+     *
+     * @param file the index file
+     * @param lsr the ls-R file
+     *
+     * @return the index file to use
+     */
+    private File rebuild(final File file, final File lsr) {
+
+        if (update) {
+            try {
+                FileIndex.buildFromLsr(lsr, file, encoding);
+                if (trace && logger != null) {
+                    trace("IndexBuilt", file.toString(), lsr.toString(), null);
+                }
+                return file;
+            } catch (IOException e) {
+                // the directory is not writable; use the temporary directory
+                file.delete();
+            }
+        }
+
+        File tmp = new File(new File(System.getProperty("java.io.tmpdir"),
+                "extex-index"), digest(lsr.getAbsolutePath()) + ".idx");
+        if (tmp.lastModified() >= lsr.lastModified()) {
+            return tmp;
+        }
+        try {
+            tmp.getParentFile().mkdirs();
+            FileIndex.buildFromLsr(lsr, tmp, encoding);
+            if (trace && logger != null) {
+                trace("IndexBuilt", tmp.toString(), lsr.toString(), null);
+            }
+        } catch (IOException e) {
+            tmp.delete();
+        }
+        return tmp;
+    }
+
+    /**
+     * Setter for the properties.
+     *
+     * @param prop the new properties
+     *
+     * @see de.dante.util.resource.PropertyConfigurable#setProperties(
+     *      java.util.Properties)
+     */
+    public void setProperties(final Properties prop) {
+
+        properties = prop;
+    }
+
+    /**
+     * Produce an internationalized trace message.
+     *
+     * @param key the resource key for the message format
+     * @param arg the first argument to insert
+     * @param arg2 the second argument to insert
+     * @param arg3 the third argument to insert
+     */
+    private void trace(final String key, final String arg, final String arg2,
+            final String arg3) {
+
+        if (bundle == null) {
+            bundle = ResourceBundle.getBundle(IndexFinder.class.getName());
+        }
+
+        logger.fine(MessageFormat.format(bundle.getString(key), //
+                new Object[]{arg, arg2, arg3}));
+    }
+
+}
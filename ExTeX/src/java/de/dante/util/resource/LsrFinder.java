@@ -27,6 +27,8 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -133,6 +135,7 @@ import de.dante.util.framework.logger.LogEnabled;
 public class LsrFinder
         implements
             ResourceFinder,
+            ResourceLocator,
             LogEnabled,
             PropertyConfigurable {
 
@@ -255,10 +258,16 @@ public class LsrFinder
     }
 
     /**
-     * @see de.dante.util.resource.ResourceFinder#findResource(java.lang.String,
-     *      java.lang.String)
+     * Try to find a readable file for a resource in the file database.
+     *
+     * @param name the base name of the resource
+     * @param type the type, i.e. the extension
+     *
+     * @return the readable file or <code>null</code> if none was found.
+     *
+     * @throws ConfigurationException in case of an exception
      */
-    public InputStream findResource(final String name, final String type)
+    private File findFile(final String name, final String type)
             throws ConfigurationException {
 
         boolean verbose = (trace && logger != null);
@@ -310,20 +319,10 @@ public class LsrFinder
                     trace("Try", file.toString(), null, null);
                 }
                 if (file != null && file.canRead()) {
-                    try {
-                        InputStream stream = new FileInputStream(file);
-                        if (verbose) {
-                            trace("Found", file.toString(), null, null);
-                        }
-                        return stream;
-                    } catch (FileNotFoundException e) {
-                        // ignore unreadable files
-                        if (verbose) {
-                            trace("FoundUnreadable", file.toString(), null,
-                                    null);
-                        }
-                        continue;
+                    if (verbose) {
+                        trace("Found", file.toString(), null, null);
                     }
+                    return file;
                 }
             } else {
 
@@ -334,20 +333,10 @@ public class LsrFinder
                         trace("Try", file.toString(), null, null);
                     }
                     if (file != null && file.canRead()) {
-                        try {
-                            InputStream stream = new FileInputStream(file);
-                            if (verbose) {
-                                trace("Found", file.toString(), null, null);
-                            }
-                            return stream;
-                        } catch (FileNotFoundException e) {
-                            // ignore unreadable files
-                            if (verbose) {
-                                trace("FoundUnreadable", file.toString(), null,
-                                        null);
-                            }
-                            continue;
+                        if (verbose) {
+                            trace("Found", file.toString(), null, null);
                         }
+                        return file;
                     }
                 }
             }
@@ -358,6 +347,47 @@ public class LsrFinder
         return null;
     }
 
+    /**
+     * @see de.dante.util.resource.ResourceFinder#findResource(java.lang.String,
+     *      java.lang.String)
+     */
+    public InputStream findResource(final String name, final String type)
+            throws ConfigurationException {
+
+        File file = findFile(name, type);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            // ignore unreadable files
+            if (trace && logger != null) {
+                trace("FoundUnreadable", file.toString(), null, null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @see de.dante.util.resource.ResourceLocator#locateResource(
+     *      java.lang.String,
+     *      java.lang.String)
+     */
+    public URL locateResource(final String name, final String type)
+            throws ConfigurationException {
+
+        File file = findFile(name, type);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return file.toURI().toURL();
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
     /**
      * Load the external cache file into memory.
      *
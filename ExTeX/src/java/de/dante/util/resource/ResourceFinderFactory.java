@@ -54,6 +54,66 @@ public class ResourceFinderFactory {
         super();
     }
 
+    /**
+     * Create a single resource finder from its configuration. The
+     * configuration carries the name of the class in the attribute
+     * <tt>class</tt>.
+     *
+     * @param cfg the configuration of the finder
+     * @param logger the logger to pass to the Resource finder
+     * @param properties the properties to pass to the resource finder
+     * @param provider the interaction provider
+     *
+     * @return the resource finder
+     *
+     * @throws ConfigurationException in cse of an error in the configuration
+     *  or during instantiation
+     */
+    public ResourceFinder createFinder(final Configuration cfg,
+            final Logger logger, final Properties properties,
+            final InteractionProvider provider) throws ConfigurationException {
+
+        String classname = cfg.getAttribute(CLASS_ATTRIBUTE);
+        if (classname == null) {
+            throw new ConfigurationMissingAttributeException(CLASS_ATTRIBUTE,
+                    cfg);
+        }
+
+        ResourceFinder finder;
+
+        try {
+            finder = (ResourceFinder) (Class.forName(classname)
+                    .getConstructor(new Class[]{Configuration.class})
+                    .newInstance(new Object[]{cfg}));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (SecurityException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (InstantiationException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (IllegalAccessException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (InvocationTargetException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (NoSuchMethodException e) {
+            throw new ConfigurationNoSuchMethodException(classname + "("
+                    + Configuration.class.getName() + ")", cfg);
+        } catch (ClassNotFoundException e) {
+            throw new ConfigurationClassNotFoundException(classname, cfg);
+        }
+
+        if (finder instanceof LogEnabled) {
+            ((LogEnabled) finder).enableLogging(logger);
+        }
+        if (finder instanceof PropertyConfigurable) {
+            ((PropertyConfigurable) finder).setProperties(properties);
+        }
+        if (finder instanceof InteractionAware) {
+            ((InteractionAware) finder).setInteractionProvider(provider);
+        }
+        return finder;
+    }
+
     /**
      * Get an instance of a resource finder.
      *
@@ -75,46 +135,8 @@ public class ResourceFinderFactory {
 
         Iterator iterator = config.iterator("Finder");
         while (iterator.hasNext()) {
-            Configuration cfg = (Configuration) iterator.next();
-            String classname = cfg.getAttribute(CLASS_ATTRIBUTE);
-            if (classname == null) {
-                throw new ConfigurationMissingAttributeException(
-                        CLASS_ATTRIBUTE, cfg);
-            }
-
-            ResourceFinder finder;
-
-            try {
-                finder = (ResourceFinder) (Class.forName(classname)
-                        .getConstructor(new Class[]{Configuration.class})
-                        .newInstance(new Object[]{cfg}));
-            } catch (IllegalArgumentException e) {
-                throw new ConfigurationInstantiationException(e);
-            } catch (SecurityException e) {
-                throw new ConfigurationInstantiationException(e);
-            } catch (InstantiationException e) {
-                throw new ConfigurationInstantiationException(e);
-            } catch (IllegalAccessException e) {
-                throw new ConfigurationInstantiationException(e);
-            } catch (InvocationTargetException e) {
-                throw new ConfigurationInstantiationException(e);
-            } catch (NoSuchMethodException e) {
-                throw new ConfigurationNoSuchMethodException(classname + "("
-                        + Configuration.class.getName() + ")", config);
-            } catch (ClassNotFoundException e) {
-                throw new ConfigurationClassNotFoundException(classname, config);
-            }
-
-            if (finder instanceof LogEnabled) {
-                ((LogEnabled) finder).enableLogging(logger);
-            }
-            if (finder instanceof PropertyConfigurable) {
-                ((PropertyConfigurable) finder).setProperties(properties);
-            }
-            if (finder instanceof InteractionAware) {
-                ((InteractionAware) finder).setInteractionProvider(provider);
-            }
-            list.add(finder);
+            list.add(createFinder((Configuration) iterator.next(), logger,
+                    properties, provider));
         }
         return list;
     }
@@ -19,7 +19,9 @@
 
 package de.dante.util.resource;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -33,7 +35,11 @@ import de.dante.util.framework.configuration.exception.ConfigurationException;
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.9 $
  */
-public class ResourceFinderList implements ResourceFinder, RecursiveFinder {
+public class ResourceFinderList
+        implements
+            ResourceFinder,
+            RecursiveFinder,
+            ResourceLocator {
 
     /**
      * The field <tt>list</tt> the internal list of file finders which are
@@ -99,6 +105,43 @@ public class ResourceFinderList implements ResourceFinder, RecursiveFinder {
         return null;
     }
 
+    /**
+     * Find the location of a resource. The contained finders are queried in
+     * the same order as by
+     * {@link #findResource(String, String) findResource()}. If the first
+     * finder which knows the resource can not report its location then
+     * <code>null</code> is returned.
+     *
+     * @see de.dante.util.resource.ResourceLocator#locateResource(
+     *      java.lang.String, java.lang.String)
+     */
+    public URL locateResource(final String name, final String type)
+            throws ConfigurationException {
+
+        for (int i = 0; i < list.size(); i++) {
+            ResourceFinder finder = (ResourceFinder) list.get(i);
+            if (finder instanceof ResourceLocator) {
+                URL url = ((ResourceLocator) finder).locateResource(name,
+                        type);
+                if (url != null) {
+                    return url;
+                }
+            } else {
+                InputStream stream = finder.findResource(name, type);
+                if (stream != null) {
+                    try {
+                        stream.close();
+                    } catch (IOException e) {
+                        // ignored
+                    }
+                    return null;
+                }
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Setter for the parent resource finder.
      *
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.resource;
+
+import java.net.URL;
+
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+
+/**
+ * This interface describes the capability of a resource finder to report
+ * where a resource is located instead of opening it. This allows the location
+ * to be remembered and the resource to be opened later without repeating the
+ * search.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface ResourceLocator {
+
+    /**
+     * Find the location of a resource which can be used for reading. The
+     * search is performed in the same way as by
+     * {@link ResourceFinder#findResource(String, String) findResource()}.
+     *
+     * @param name the base name of the resource
+     * @param type the type, i.e. the extension
+     *
+     * @return the location or <code>null</code> if none could be found
+     *
+     * @throws ConfigurationException in case of an exception
+     */
+    URL locateResource(String name, String type) throws ConfigurationException;
+
+}
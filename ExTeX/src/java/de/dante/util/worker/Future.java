@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.worker;
+
+/**
+ * This class is a placeholder for the result of a {@link Task Task} which
+ * has been handed to a {@link WorkerPool WorkerPool}. The result can be
+ * requested at any time; the requesting thread is blocked until the task has
+ * been completed.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class Future {
+
+    /**
+     * The field <tt>task</tt> contains the task to be performed. It is reset
+     * to <code>null</code> as soon as the task has been run.
+     */
+    private Task task;
+
+    /**
+     * The field <tt>done</tt> contains the indicator that the task has been
+     * completed.
+     */
+    private boolean done = false;
+
+    /**
+     * The field <tt>result</tt> contains the result of the task.
+     */
+    private Object result = null;
+
+    /**
+     * The field <tt>error</tt> contains the exception thrown by the task or
+     * <code>null</code> if the task has terminated normally.
+     */
+    private Throwable error = null;
+
+    /**
+     * Creates a new object.
+     *
+     * @param theTask the task to be performed
+     */
+    protected Future(final Task theTask) {
+
+        super();
+        this.task = theTask;
+    }
+
+    /**
+     * Wait for the task to complete and deliver its result.
+     *
+     * @return the result of the task
+     *
+     * @throws WorkerException in case that the task has terminated with an
+     *  exception or the waiting thread has been interrupted
+     */
+    public synchronized Object get() throws WorkerException {
+
+        while (!done) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                throw new WorkerException(e);
+            }
+        }
+        if (error != null) {
+            throw new WorkerException(error);
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the task has been completed.
+     *
+     * @return <code>true</code> iff the result is available without waiting
+     */
+    public synchronized boolean isDone() {
+
+        return done;
+    }
+
+    /**
+     * Perform the task and record its outcome. This method is invoked by
+     * the worker thread.
+     */
+    void perform() {
+
+        Object r = null;
+        Throwable t = null;
+        try {
+            r = task.run();
+        } catch (Exception e) {
+            t = e;
+        } catch (Error e) {
+            t = e;
+        }
+        synchronized (this) {
+            result = r;
+            error = t;
+            task = null;
+            done = true;
+            notifyAll();
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.worker;
+
+/**
+ * This interface describes a unit of work which can be handed to a
+ * {@link WorkerPool WorkerPool}.
+ * <p>
+ *  A task should not touch any state which is shared with the thread
+ *  submitting it unless this state is immutable or properly synchronized.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public interface Task {
+
+    /**
+     * Perform the work of this task.
+     * <p>
+     *  Any exception thrown is captured by the worker and passed on to the
+     *  caller of {@link Future#get() Future.get()} as the cause of a
+     *  {@link WorkerException WorkerException}.
+     * </p>
+     *
+     * @return the result of the computation; it may be <code>null</code>
+     *
+     * @throws Exception in case of an error
+     */
+    Object run() throws Exception;
+
+}
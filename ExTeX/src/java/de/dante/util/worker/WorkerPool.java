@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.worker;
+
+import java.util.LinkedList;
+
+/**
+ * This class provides a fixed number of worker threads which process
+ * {@link Task Task}s in the order of their submission.
+ * <p>
+ *  A pool with a size of zero does not start any thread at all. In this case
+ *  the tasks are performed immediately in the submitting thread. This allows
+ *  the callers to use the same code path for the sequential and the parallel
+ *  case.
+ * </p>
+ * <p>
+ *  The worker threads are daemon threads. Thus a pool which has not been
+ *  shut down does not prevent the virtual machine from terminating.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class WorkerPool {
+
+    /**
+     * This inner class is the worker thread. It takes the next pending
+     * future from the queue and performs it until the pool is shut down.
+     */
+    private class Worker extends Thread {
+
+        /**
+         * Creates a new object.
+         *
+         * @param name the name of the thread
+         */
+        public Worker(final String name) {
+
+            super(name);
+            setDaemon(true);
+        }
+
+        /**
+         * @see java.lang.Runnable#run()
+         */
+        public void run() {
+
+            for (Future f = next(); f != null; f = next()) {
+                f.perform();
+            }
+        }
+    }
+
+    /**
+     * Determine the number of processors available.
+     *
+     * @return the number of processors available to the virtual machine
+     */
+    public static int availableProcessors() {
+
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The field <tt>queue</tt> contains the futures not yet taken by a
+     * worker.
+     */
+    private LinkedList queue = new LinkedList();
+
+    /**
+     * The field <tt>shutdown</tt> contains the indicator that no more tasks
+     * are accepted.
+     */
+    private boolean shutdown = false;
+
+    /**
+     * The field <tt>workers</tt> contains the worker threads.
+     */
+    private Thread[] workers;
+
+    /**
+     * Creates a new object.
+     *
+     * @param size the number of worker threads; a value less than one leads
+     *  to a pool which performs all tasks in the submitting thread
+     * @param name the base name of the worker threads
+     */
+    public WorkerPool(final int size, final String name) {
+
+        super();
+        workers = new Thread[size < 0 ? 0 : size];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(name + "-" + i);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Getter for the number of worker threads.
+     *
+     * @return the number of worker threads
+     */
+    public int getSize() {
+
+        return workers.length;
+    }
+
+    /**
+     * Take the next future from the queue. The calling thread is blocked
+     * until a future is available or the pool has been shut down.
+     *
+     * @return the next future or <code>null</code> if the pool has been shut
+     *  down and the queue is drained
+     */
+    private synchronized Future next() {
+
+        while (queue.isEmpty()) {
+            if (shutdown) {
+                return null;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+        return (Future) queue.removeFirst();
+    }
+
+    /**
+     * Stop accepting tasks. The tasks already submitted are still performed.
+     */
+    public synchronized void shutdown() {
+
+        shutdown = true;
+        notifyAll();
+    }
+
+    /**
+     * Hand a task to the pool.
+     *
+     * @param task the task to perform
+     *
+     * @return the future for the result of the task
+     */
+    public Future submit(final Task task) {
+
+        Future future = new Future(task);
+        if (workers.length == 0) {
+            future.perform();
+            return future;
+        }
+        synchronized (this) {
+            if (shutdown) {
+                throw new IllegalStateException("shutdown");
+            }
+            queue.addLast(future);
+            notify();
+        }
+        return future;
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.xslt;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * This class provides a cache for compiled XSLT stylesheets.
+ *
+ * <p>
+ *  A stylesheet is compiled into a {@link Templates Templates} object once.
+ *  The compiled stylesheet is thread-safe and can be used for any number of
+ *  transformations. The cache is keyed by the location of the stylesheet.
+ *  The time of last modification is recorded. If it has changed then the
+ *  stylesheet is compiled again.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public final class TemplatesCache {
+
+    /**
+     * This class contains a compiled stylesheet together with the time of
+     * last modification of its source.
+     */
+    private static final class Entry {
+
+        /**
+         * The field <tt>lastModified</tt> contains the modification time of
+         * the stylesheet.
+         */
+        private long lastModified;
+
+        /**
+         * The field <tt>templates</tt> contains the compiled stylesheet.
+         */
+        private Templates templates;
+
+        /**
+         * Creates a new object.
+         *
+         * @param templates the compiled stylesheet
+         * @param lastModified the modification time of the stylesheet
+         */
+        Entry(final Templates templates, final long lastModified) {
+
+            super();
+            this.templates = templates;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * The field <tt>cache</tt> contains the mapping from locations to
+     * entries.
+     */
+    private static Map cache = new HashMap();
+
+    /**
+     * The field <tt>compilations</tt> contains the number of stylesheets
+     * compiled.
+     */
+    private static long compilations = 0;
+
+    /**
+     * Drop all compiled stylesheets.
+     */
+    public static synchronized void clear() {
+
+        cache.clear();
+    }
+
+    /**
+     * Compile a stylesheet without caching it.
+     *
+     * @param xsl the source of the stylesheet
+     * @param resolver the URI resolver for <tt>xsl:include</tt> and
+     *  <tt>xsl:import</tt>. This parameter can be <code>null</code>.
+     *
+     * @return the compiled stylesheet
+     *
+     * @throws TransformerException in case of an error in the stylesheet
+     */
+    public static synchronized Templates compile(final StreamSource xsl,
+            final URIResolver resolver) throws TransformerException {
+
+        TransformerFactory factory = TransformerFactory.newInstance();
+        if (resolver != null) {
+            factory.setURIResolver(resolver);
+        }
+        compilations++;
+        return factory.newTemplates(xsl);
+    }
+
+    /**
+     * Getter for the number of stylesheets compiled so far.
+     *
+     * @return the number of compilations
+     */
+    public static synchronized long getCompilations() {
+
+        return compilations;
+    }
+
+    /**
+     * Get the compiled stylesheet for a location. The stylesheet is compiled
+     * if it is not contained in the cache or if it has been modified since it
+     * has been compiled.
+     *
+     * @param url the location of the stylesheet
+     * @param resolver the URI resolver for <tt>xsl:include</tt> and
+     *  <tt>xsl:import</tt>. This parameter can be <code>null</code>.
+     *
+     * @return the compiled stylesheet
+     *
+     * @throws TransformerException in case of an error in the stylesheet
+     * @throws IOException in case of an I/O error
+     */
+    public static synchronized Templates getTemplates(final URL url,
+            final URIResolver resolver)
+            throws TransformerException,
+                IOException {
+
+        String key = url.toExternalForm();
+        long lastModified = lastModified(url);
+
+        Entry entry = (Entry) cache.get(key);
+        if (entry != null && entry.lastModified == lastModified) {
+            return entry.templates;
+        }
+
+        InputStream in = url.openStream();
+        Templates templates;
+        try {
+            templates = compile(new StreamSource(in, key), resolver);
+        } finally {
+            in.close();
+        }
+        cache.put(key, new Entry(templates, lastModified));
+        return templates;
+    }
+
+    /**
+     * Determine the time of last modification of a resource. For a file this
+     * is done without opening it.
+     *
+     * @param url the location of the resource
+     *
+     * @return the time of last modification or 0 if it is not known
+     *
+     * @throws IOException in case of an I/O error
+     */
+    private static long lastModified(final URL url) throws IOException {
+
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new File(new URI(url.toExternalForm())).lastModified();
+            } catch (URISyntaxException e) {
+                // fall through to the generic case
+            } catch (IllegalArgumentException e) {
+                // fall through to the generic case
+            }
+        }
+        URLConnection connection = url.openConnection();
+        long lastModified = connection.getLastModified();
+        connection.getInputStream().close();
+        return lastModified;
+    }
+
+    /**
+     * Creates a new object.
+     * This constructor is private to prevent instances of this class.
+     */
+    private TemplatesCache() {
+
+        super();
+    }
+
+}
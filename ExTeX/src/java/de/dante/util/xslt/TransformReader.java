@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.xslt;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * This reader delivers the result of an XSLT transformation while it is
+ * produced.
+ *
+ * <p>
+ *  The transformation is performed in a thread of its own. The characters
+ *  produced are passed through a bounded buffer. The transformation is
+ *  suspended when the buffer is full until the consumer has read some
+ *  characters. Thus the consumer can start reading immediately and the
+ *  result is never held in memory as a whole.
+ * </p>
+ * <p>
+ *  An error of the transformation is reported to the consumer as
+ *  {@link IOException IOException} when all characters produced before have
+ *  been read. Closing the reader makes the transformation terminate.
+ * </p>
+ * <p>
+ *  An instance is created and its transformation started with
+ *  {@link #newInstance(Transformer, Source) newInstance()}. The reader takes
+ *  over the stream of a {@link StreamSource StreamSource} and closes it when
+ *  the transformation terminates.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TransformReader extends Reader implements Runnable {
+
+    /**
+     * This writer passes the characters to the buffer of the enclosing
+     * reader.
+     */
+    private class PipeWriter extends Writer {
+
+        /**
+         * @see java.io.Writer#close()
+         */
+        public void close() {
+
+            // the end is signaled when the transformation terminates
+        }
+
+        /**
+         * @see java.io.Writer#flush()
+         */
+        public void flush() {
+
+            // nothing to do
+        }
+
+        /**
+         * @see java.io.Writer#write(char[], int, int)
+         */
+        public void write(final char[] cbuf, final int off, final int len)
+                throws IOException {
+
+            put(cbuf, off, len);
+        }
+    }
+
+    /**
+     * The constant <tt>DEFAULT_CAPACITY</tt> contains the default size of
+     * the buffer in characters.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * The field <tt>buffer</tt> contains the ring buffer of characters.
+     */
+    private char[] buffer;
+
+    /**
+     * The field <tt>closed</tt> contains the indicator that the reader has
+     * been closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * The field <tt>done</tt> contains the indicator that the transformation
+     * has terminated.
+     */
+    private boolean done = false;
+
+    /**
+     * The field <tt>error</tt> contains the exception which has terminated
+     * the transformation or <code>null</code>.
+     */
+    private Exception error = null;
+
+    /**
+     * The field <tt>head</tt> contains the index of the next character to
+     * read.
+     */
+    private int head = 0;
+
+    /**
+     * The field <tt>size</tt> contains the number of characters in the
+     * buffer.
+     */
+    private int size = 0;
+
+    /**
+     * The field <tt>transformer</tt> contains the transformer.
+     */
+    private Transformer transformer;
+
+    /**
+     * The field <tt>xml</tt> contains the source to transform.
+     */
+    private Source xml;
+
+    /**
+     * Create a new reader and start the transformation.
+     *
+     * @param transformer the transformer
+     * @param xml the source to transform
+     *
+     * @return the new reader
+     */
+    public static TransformReader newInstance(final Transformer transformer,
+            final Source xml) {
+
+        return newInstance(transformer, xml, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new reader and start the transformation.
+     *
+     * @param transformer the transformer
+     * @param xml the source to transform
+     * @param capacity the size of the buffer in characters
+     *
+     * @return the new reader
+     */
+    public static TransformReader newInstance(final Transformer transformer,
+            final Source xml, final int capacity) {
+
+        TransformReader reader = new TransformReader(transformer, xml,
+                capacity);
+        Thread thread = new Thread(reader, "xslt");
+        thread.setDaemon(true);
+        thread.start();
+        return reader;
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param transformer the transformer
+     * @param xml the source to transform
+     * @param capacity the size of the buffer in characters
+     */
+    protected TransformReader(final Transformer transformer,
+            final Source xml, final int capacity) {
+
+        super();
+        this.transformer = transformer;
+        this.xml = xml;
+        this.buffer = new char[capacity];
+    }
+
+    /**
+     * @see java.io.Reader#close()
+     */
+    public synchronized void close() {
+
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Close the stream or reader of the source if it is a stream source.
+     * Errors are ignored since the transformation is complete.
+     */
+    private void closeSource() {
+
+        if (!(xml instanceof StreamSource)) {
+            return;
+        }
+        StreamSource s = (StreamSource) xml;
+        try {
+            if (s.getInputStream() != null) {
+                s.getInputStream().close();
+            }
+            if (s.getReader() != null) {
+                s.getReader().close();
+            }
+        } catch (IOException e) {
+            // ignored
+        }
+    }
+
+    /**
+     * Put some characters into the buffer. This method blocks until all
+     * characters could be stored.
+     *
+     * @param cbuf the characters
+     * @param off the offset of the first character
+     * @param len the number of characters
+     *
+     * @throws IOException in case that the reader has been closed
+     */
+    synchronized void put(final char[] cbuf, final int off, final int len)
+            throws IOException {
+
+        int from = off;
+        int rest = len;
+        while (rest > 0) {
+            while (size == buffer.length && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+            if (closed) {
+                throw new IOException("reader closed");
+            }
+            int tail = (head + size) % buffer.length;
+            int n = Math.min(rest, Math.min(buffer.length - size,
+                    buffer.length - tail));
+            System.arraycopy(cbuf, from, buffer, tail, n);
+            size += n;
+            from += n;
+            rest -= n;
+            notifyAll();
+        }
+    }
+
+    /**
+     * @see java.io.Reader#read(char[], int, int)
+     */
+    public synchronized int read(final char[] cbuf, final int off,
+            final int len) throws IOException {
+
+        while (size == 0 && !done && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+        if (closed) {
+            throw new IOException("reader closed");
+        } else if (size == 0) {
+            if (error != null) {
+                IOException e = new IOException(error.getMessage());
+                e.initCause(error);
+                throw e;
+            }
+            return -1;
+        } else if (len == 0) {
+            return 0;
+        }
+        int n = Math.min(len, Math.min(size, buffer.length - head));
+        System.arraycopy(buffer, head, cbuf, off, n);
+        head = (head + n) % buffer.length;
+        size -= n;
+        notifyAll();
+        return n;
+    }
+
+    /**
+     * @see java.io.Reader#ready()
+     */
+    public synchronized boolean ready() {
+
+        return size > 0;
+    }
+
+    /**
+     * Perform the transformation. This method is invoked in the thread of
+     * the producer.
+     *
+     * @see java.lang.Runnable#run()
+     */
+    public void run() {
+
+        Exception e = null;
+        try {
+            transformer.transform(xml, new StreamResult(new PipeWriter()));
+        } catch (TransformerException ex) {
+            e = ex;
+        } catch (RuntimeException ex) {
+            e = ex;
+        } finally {
+            closeSource();
+        }
+        synchronized (this) {
+            error = e;
+            done = true;
+            notifyAll();
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package org.extex.ocpware.engine;
+
+/**
+ * This class provides a ring buffer for code points. It is used to pass
+ * characters into and out of an OCP program. The buffer grows as needed.
+ * Once it has reached its working size no further memory is allocated.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class OcpBuffer {
+
+    /**
+     * The constant <tt>DEFAULT_SIZE</tt> contains the initial size.
+     */
+    private static final int DEFAULT_SIZE = 256;
+
+    /**
+     * The field <tt>buffer</tt> contains the storage. Its length is always a
+     * power of 2.
+     */
+    private int[] buffer;
+
+    /**
+     * The field <tt>head</tt> contains the index of the first element.
+     */
+    private int head = 0;
+
+    /**
+     * The field <tt>size</tt> contains the number of elements.
+     */
+    private int size = 0;
+
+    /**
+     * Creates a new object.
+     */
+    public OcpBuffer() {
+
+        super();
+        buffer = new int[DEFAULT_SIZE];
+    }
+
+    /**
+     * Append all characters of a char sequence.
+     *
+     * @param cs the characters
+     */
+    public void append(final CharSequence cs) {
+
+        int len = cs.length();
+        for (int i = 0; i < len; i++) {
+            put(cs.charAt(i));
+        }
+    }
+
+    /**
+     * Append the contents of the buffer to a string buffer and clear it.
+     *
+     * @param sb the target string buffer
+     */
+    public void appendTo(final StringBuffer sb) {
+
+        int mask = buffer.length - 1;
+        for (int i = 0; i < size; i++) {
+            int c = buffer[(head + i) & mask];
+            if (c < 0x10000) {
+                sb.append((char) c);
+            } else {
+                c -= 0x10000;
+                sb.append((char) (0xd800 + (c >> 10)));
+                sb.append((char) (0xdc00 + (c & 0x3ff)));
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Remove all elements.
+     */
+    public void clear() {
+
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Get an element without removing it.
+     *
+     * @param index the index relative to the first element
+     *
+     * @return the element
+     */
+    public int peek(final int index) {
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return buffer[(head + index) & (buffer.length - 1)];
+    }
+
+    /**
+     * Add an element at the end.
+     *
+     * @param c the code point to add
+     */
+    public void put(final int c) {
+
+        if (size == buffer.length) {
+            int[] b = new int[2 * buffer.length];
+            int n = buffer.length - head;
+            System.arraycopy(buffer, head, b, 0, n);
+            System.arraycopy(buffer, 0, b, n, head);
+            buffer = b;
+            head = 0;
+        }
+        buffer[(head + size) & (buffer.length - 1)] = c;
+        size++;
+    }
+
+    /**
+     * Remove the first element and return it.
+     *
+     * @return the first element
+     */
+    public int remove() {
+
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("0");
+        }
+        int c = buffer[head];
+        head = (head + 1) & (buffer.length - 1);
+        size--;
+        return c;
+    }
+
+    /**
+     * Getter for the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+
+        return size;
+    }
+
+}
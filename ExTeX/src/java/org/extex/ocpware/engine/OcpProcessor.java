@@ -0,0 +1,500 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package org.extex.ocpware.engine;
+
+import org.extex.ocpware.type.OcpProgram;
+
+/**
+ * This class provides an interpreter for OCP programs. The interpreter
+ * translates a batch of characters, e.g. a line of input, at once.
+ *
+ * <p>
+ *  The interpreter follows the OTP machine of Omega. The characters of the
+ *  current match are taken first from the push-back stack and then from the
+ *  input. All working storage is kept in arrays of <code>int</code> which
+ *  are reused from one run to the next. Thus no objects are created while
+ *  characters are processed.
+ * </p>
+ * <p>
+ *  An instance is not thread-safe. Each thread has to use its own instance.
+ * </p>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class OcpProcessor {
+
+    /**
+     * The constant <tt>INITIAL_SIZE</tt> contains the initial size of the
+     * buffers.
+     */
+    private static final int INITIAL_SIZE = 256;
+
+    /**
+     * The constant <tt>STACK_SIZE</tt> contains the initial size of the
+     * stacks.
+     */
+    private static final int STACK_SIZE = 32;
+
+    /**
+     * Enlarge an array.
+     *
+     * @param a the array
+     * @param min the minimal length required
+     *
+     * @return the new array containing the values of the old one
+     */
+    private static int[] grow(final int[] a, final int min) {
+
+        int len = 2 * a.length;
+        while (len < min) {
+            len *= 2;
+        }
+        int[] b = new int[len];
+        System.arraycopy(a, 0, b, 0, a.length);
+        return b;
+    }
+
+    /**
+     * The field <tt>calc</tt> contains the arithmetic stack.
+     */
+    private int[] calc = new int[STACK_SIZE];
+
+    /**
+     * The field <tt>calcPtr</tt> contains the number of elements on the
+     * arithmetic stack.
+     */
+    private int calcPtr;
+
+    /**
+     * The field <tt>ch</tt> contains the current input character.
+     */
+    private int ch;
+
+    /**
+     * The field <tt>input</tt> contains the input characters. The first
+     * character is stored at index 1.
+     */
+    private int[] input = new int[INITIAL_SIZE];
+
+    /**
+     * The field <tt>inputEnd</tt> contains the index of the last input
+     * character.
+     */
+    private int inputEnd;
+
+    /**
+     * The field <tt>inputLast</tt> contains the index of the last input
+     * character read.
+     */
+    private int inputLast;
+
+    /**
+     * The field <tt>inputStart</tt> contains the index of the input
+     * character before the current match.
+     */
+    private int inputStart;
+
+    /**
+     * The field <tt>stack</tt> contains the push-back stack. The first
+     * character is stored at index 1.
+     */
+    private int[] stack = new int[INITIAL_SIZE];
+
+    /**
+     * The field <tt>stackCur</tt> contains the index of the last character
+     * read from the push-back stack.
+     */
+    private int stackCur;
+
+    /**
+     * The field <tt>stackLast</tt> contains the index of the last character
+     * which may be read from the push-back stack in the current match.
+     */
+    private int stackLast;
+
+    /**
+     * The field <tt>stackNew</tt> contains the index of the last character
+     * pushed back.
+     */
+    private int stackNew;
+
+    /**
+     * The field <tt>stateStack</tt> contains the stack of states.
+     */
+    private int[] stateStack = new int[STACK_SIZE];
+
+    /**
+     * The field <tt>statePtr</tt> contains the number of elements on the
+     * stack of states.
+     */
+    private int statePtr;
+
+    /**
+     * The field <tt>states</tt> contains the code of the states.
+     */
+    private int[][] states;
+
+    /**
+     * The field <tt>tables</tt> contains the tables.
+     */
+    private int[][] tables;
+
+    /**
+     * Creates a new object.
+     *
+     * @param program the program to execute
+     */
+    public OcpProcessor(final OcpProgram program) {
+
+        super();
+        states = program.getStates();
+        tables = program.getTables();
+    }
+
+    /**
+     * Read the next character of the current match.
+     *
+     * @return <code>true</code> iff a character has been read
+     */
+    private boolean advance() {
+
+        if (stackCur < stackLast) {
+            ch = stack[++stackCur];
+            return true;
+        } else if (inputLast < inputEnd) {
+            ch = input[++inputLast];
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get a character of the current match.
+     *
+     * @param k the number of the character; the first character has the
+     *  number 1
+     *
+     * @return the character
+     *
+     * @throws OcpException in case that the number is out of range
+     */
+    private int charAt(final int k) throws OcpException {
+
+        if (k < 1 || k > inputLast - inputStart + stackCur) {
+            throw new OcpException("character index out of range");
+        }
+        return (k <= stackCur ? stack[k] : input[inputStart + k - stackCur]);
+    }
+
+    /**
+     * Get the number of characters in the current match.
+     *
+     * @return the number of characters
+     */
+    private int count() {
+
+        return inputLast - inputStart + stackCur;
+    }
+
+    /**
+     * Pop a value from the arithmetic stack.
+     *
+     * @return the value
+     *
+     * @throws OcpException in case of a stack underflow
+     */
+    private int pop() throws OcpException {
+
+        if (calcPtr <= 0) {
+            throw new OcpException("arithmetic stack underflow");
+        }
+        return calc[--calcPtr];
+    }
+
+    /**
+     * Process a batch of characters. The input buffer is emptied and the
+     * result is appended to the output buffer.
+     *
+     * @param in the input characters
+     * @param out the output characters
+     *
+     * @throws OcpException in case of an error in the program
+     */
+    public void process(final OcpBuffer in, final OcpBuffer out)
+            throws OcpException {
+
+        int n = in.size();
+        if (n >= input.length) {
+            input = grow(input, n + 1);
+        }
+        for (int i = 1; i <= n; i++) {
+            input[i] = in.remove();
+        }
+        inputEnd = n;
+        inputStart = 0;
+        inputLast = 0;
+        stackCur = 0;
+        stackLast = 0;
+        stackNew = 0;
+        calcPtr = 0;
+        statePtr = 0;
+
+        try {
+            run(out);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new OcpException("invalid state or address");
+        }
+    }
+
+    /**
+     * Push a value onto the arithmetic stack.
+     *
+     * @param value the value
+     */
+    private void push(final int value) {
+
+        if (calcPtr >= calc.length) {
+            calc = grow(calc, calcPtr + 1);
+        }
+        calc[calcPtr++] = value;
+    }
+
+    /**
+     * Push a character back to be read again in the next match.
+     *
+     * @param c the character
+     */
+    private void pushback(final int c) {
+
+        if (++stackNew >= stack.length) {
+            stack = grow(stack, stackNew + 1);
+        }
+        stack[stackNew] = c;
+    }
+
+    /**
+     * Execute the program until the input is exhausted.
+     *
+     * @param out the output characters
+     *
+     * @throws OcpException in case of an error in the program
+     */
+    private void run(final OcpBuffer out) throws OcpException {
+
+        int state = 0;
+        int[] code = states[state];
+        int pc = 0;
+        int a;
+        int b;
+
+        for (;;) {
+            int c = code[pc];
+            int arg = c & 0xffffff;
+
+            switch (c >>> 24) {
+                case OcpProgram.RIGHT_OUTPUT:
+                    out.put(pop());
+                    pc++;
+                    break;
+                case OcpProgram.RIGHT_NUM:
+                    out.put(arg);
+                    pc++;
+                    break;
+                case OcpProgram.RIGHT_CHAR:
+                    out.put(charAt(arg));
+                    pc++;
+                    break;
+                case OcpProgram.RIGHT_LCHAR:
+                    out.put(charAt(count() - arg));
+                    pc++;
+                    break;
+                case OcpProgram.RIGHT_SOME:
+                    b = count() - code[++pc];
+                    for (a = arg + 1; a <= b; a++) {
+                        out.put(charAt(a));
+                    }
+                    pc++;
+                    break;
+                case OcpProgram.PBACK_OUTPUT:
+                    pushback(pop());
+                    pc++;
+                    break;
+                case OcpProgram.PBACK_NUM:
+                    pushback(arg);
+                    pc++;
+                    break;
+                case OcpProgram.PBACK_CHAR:
+                    pushback(charAt(arg));
+                    pc++;
+                    break;
+                case OcpProgram.PBACK_LCHAR:
+                    pushback(charAt(count() - arg));
+                    pc++;
+                    break;
+                case OcpProgram.PBACK_SOME:
+                    b = count() - code[++pc];
+                    for (a = arg + 1; a <= b; a++) {
+                        pushback(charAt(a));
+                    }
+                    pc++;
+                    break;
+                case OcpProgram.ADD:
+                    b = pop();
+                    push(pop() + b);
+                    pc++;
+                    break;
+                case OcpProgram.SUB:
+                    b = pop();
+                    push(pop() - b);
+                    pc++;
+                    break;
+                case OcpProgram.MULT:
+                    b = pop();
+                    push(pop() * b);
+                    pc++;
+                    break;
+                case OcpProgram.DIV:
+                    b = pop();
+                    if (b == 0) {
+                        throw new OcpException("division by zero");
+                    }
+                    push(pop() / b);
+                    pc++;
+                    break;
+                case OcpProgram.MOD:
+                    b = pop();
+                    if (b == 0) {
+                        throw new OcpException("division by zero");
+                    }
+                    push(pop() % b);
+                    pc++;
+                    break;
+                case OcpProgram.LOOKUP:
+                    b = pop();
+                    a = pop();
+                    if (a < 0 || a >= tables.length || b < 0
+                            || b >= tables[a].length) {
+                        throw new OcpException("lookup out of bounds");
+                    }
+                    push(tables[a][b]);
+                    pc++;
+                    break;
+                case OcpProgram.PUSH_NUM:
+                    push(arg);
+                    pc++;
+                    break;
+                case OcpProgram.PUSH_CHAR:
+                    push(charAt(arg));
+                    pc++;
+                    break;
+                case OcpProgram.PUSH_LCHAR:
+                    push(charAt(count() - arg));
+                    pc++;
+                    break;
+                case OcpProgram.STATE_CHANGE:
+                    // the new state takes effect with the next match
+                    state = arg;
+                    pc++;
+                    break;
+                case OcpProgram.STATE_PUSH:
+                    if (statePtr >= stateStack.length) {
+                        stateStack = grow(stateStack, statePtr + 1);
+                    }
+                    stateStack[statePtr++] = state;
+                    state = arg;
+                    pc++;
+                    break;
+                case OcpProgram.STATE_POP:
+                    state = (statePtr > 0 ? stateStack[--statePtr] : 0);
+                    pc++;
+                    break;
+                case OcpProgram.LEFT_START:
+                    inputStart = inputLast;
+                    stackLast = stackNew;
+                    if (!advance()) {
+                        return;
+                    }
+                    pc++;
+                    break;
+                case OcpProgram.LEFT_RETURN:
+                    inputLast = inputStart;
+                    stackCur = 0;
+                    if (!advance()) {
+                        return;
+                    }
+                    pc++;
+                    break;
+                case OcpProgram.LEFT_BACKUP:
+                    if (inputStart < inputLast) {
+                        ch = input[--inputLast];
+                    } else if (stackCur > 0) {
+                        ch = stack[--stackCur];
+                    }
+                    pc++;
+                    break;
+                case OcpProgram.GOTO:
+                    pc = arg;
+                    break;
+                case OcpProgram.GOTO_NE:
+                    pc = (ch != arg ? code[pc + 1] : pc + 2);
+                    break;
+                case OcpProgram.GOTO_EQ:
+                    pc = (ch == arg ? code[pc + 1] : pc + 2);
+                    break;
+                case OcpProgram.GOTO_LT:
+                    pc = (ch < arg ? code[pc + 1] : pc + 2);
+                    break;
+                case OcpProgram.GOTO_LE:
+                    pc = (ch <= arg ? code[pc + 1] : pc + 2);
+                    break;
+                case OcpProgram.GOTO_GT:
+                    pc = (ch > arg ? code[pc + 1] : pc + 2);
+                    break;
+                case OcpProgram.GOTO_GE:
+                    pc = (ch >= arg ? code[pc + 1] : pc + 2);
+                    break;
+                case OcpProgram.GOTO_NO_ADVANCE:
+                    pc = (advance() ? pc + 1 : arg);
+                    break;
+                case OcpProgram.GOTO_BEG:
+                    pc = (inputLast == 0 ? arg : pc + 1);
+                    break;
+                case OcpProgram.GOTO_END:
+                    pc = (stackCur >= stackLast && inputLast >= inputEnd
+                            ? arg
+                            : pc + 1);
+                    break;
+                case OcpProgram.STOP:
+                    inputStart = inputLast;
+                    stackNew -= stackCur;
+                    System.arraycopy(stack, stackCur + 1, stack, 1, stackNew);
+                    stackCur = 0;
+                    code = states[state];
+                    pc = 0;
+                    break;
+                default:
+                    throw new OcpException("illegal instruction "
+                            + Integer.toHexString(c));
+            }
+        }
+    }
+
+}
@@ -21,22 +21,238 @@ package org.extex.ocpware.type;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.PrintStream;
-import java.io.PushbackInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
 
 /**
- * TODO gene: missing JavaDoc.
+ * This class represents a compiled OCP program. It consists of a set of
+ * tables and the code for a set of states. An instruction is a word carrying
+ * the operation code in the upper 8 bits and the argument in the lower 24
+ * bits.
  *
  * @author <a href="mailto:gene@gerd-neugebauer.de">Gerd Neugebauer</a>
  * @version $Revision: 1.2 $
  */
 public class OcpProgram implements Serializable {
 
+    /**
+     * The constant <tt>RIGHT_OUTPUT</tt> contains the operation code for
+     * OTP_RIGHT_OUTPUT.
+     */
+    public static final int RIGHT_OUTPUT = 1;
+
+    /**
+     * The constant <tt>RIGHT_NUM</tt> contains the operation code for
+     * OTP_RIGHT_NUM.
+     */
+    public static final int RIGHT_NUM = 2;
+
+    /**
+     * The constant <tt>RIGHT_CHAR</tt> contains the operation code for
+     * OTP_RIGHT_CHAR.
+     */
+    public static final int RIGHT_CHAR = 3;
+
+    /**
+     * The constant <tt>RIGHT_LCHAR</tt> contains the operation code for
+     * OTP_RIGHT_LCHAR.
+     */
+    public static final int RIGHT_LCHAR = 4;
+
+    /**
+     * The constant <tt>RIGHT_SOME</tt> contains the operation code for
+     * OTP_RIGHT_SOME.
+     */
+    public static final int RIGHT_SOME = 5;
+
+    /**
+     * The constant <tt>PBACK_OUTPUT</tt> contains the operation code for
+     * OTP_PBACK_OUTPUT.
+     */
+    public static final int PBACK_OUTPUT = 6;
+
+    /**
+     * The constant <tt>PBACK_NUM</tt> contains the operation code for
+     * OTP_PBACK_NUM.
+     */
+    public static final int PBACK_NUM = 7;
+
+    /**
+     * The constant <tt>PBACK_CHAR</tt> contains the operation code for
+     * OTP_PBACK_CHAR.
+     */
+    public static final int PBACK_CHAR = 8;
+
+    /**
+     * The constant <tt>PBACK_LCHAR</tt> contains the operation code for
+     * OTP_PBACK_LCHAR.
+     */
+    public static final int PBACK_LCHAR = 9;
+
+    /**
+     * The constant <tt>PBACK_SOME</tt> contains the operation code for
+     * OTP_PBACK_SOME.
+     */
+    public static final int PBACK_SOME = 10;
+
+    /**
+     * The constant <tt>ADD</tt> contains the operation code for
+     * OTP_ADD.
+     */
+    public static final int ADD = 11;
+
+    /**
+     * The constant <tt>SUB</tt> contains the operation code for
+     * OTP_SUB.
+     */
+    public static final int SUB = 12;
+
+    /**
+     * The constant <tt>MULT</tt> contains the operation code for
+     * OTP_MULT.
+     */
+    public static final int MULT = 13;
+
+    /**
+     * The constant <tt>DIV</tt> contains the operation code for
+     * OTP_DIV.
+     */
+    public static final int DIV = 14;
+
+    /**
+     * The constant <tt>MOD</tt> contains the operation code for
+     * OTP_MOD.
+     */
+    public static final int MOD = 15;
+
+    /**
+     * The constant <tt>LOOKUP</tt> contains the operation code for
+     * OTP_LOOKUP.
+     */
+    public static final int LOOKUP = 16;
+
+    /**
+     * The constant <tt>PUSH_NUM</tt> contains the operation code for
+     * OTP_PUSH_NUM.
+     */
+    public static final int PUSH_NUM = 17;
+
+    /**
+     * The constant <tt>PUSH_CHAR</tt> contains the operation code for
+     * OTP_PUSH_CHAR.
+     */
+    public static final int PUSH_CHAR = 18;
+
+    /**
+     * The constant <tt>PUSH_LCHAR</tt> contains the operation code for
+     * OTP_PUSH_LCHAR.
+     */
+    public static final int PUSH_LCHAR = 19;
+
+    /**
+     * The constant <tt>STATE_CHANGE</tt> contains the operation code for
+     * OTP_STATE_CHANGE.
+     */
+    public static final int STATE_CHANGE = 20;
+
+    /**
+     * The constant <tt>STATE_PUSH</tt> contains the operation code for
+     * OTP_STATE_PUSH.
+     */
+    public static final int STATE_PUSH = 21;
+
+    /**
+     * The constant <tt>STATE_POP</tt> contains the operation code for
+     * OTP_STATE_POP.
+     */
+    public static final int STATE_POP = 22;
+
+    /**
+     * The constant <tt>LEFT_START</tt> contains the operation code for
+     * OTP_LEFT_START.
+     */
+    public static final int LEFT_START = 23;
+
+    /**
+     * The constant <tt>LEFT_RETURN</tt> contains the operation code for
+     * OTP_LEFT_RETURN.
+     */
+    public static final int LEFT_RETURN = 24;
+
+    /**
+     * The constant <tt>LEFT_BACKUP</tt> contains the operation code for
+     * OTP_LEFT_BACKUP.
+     */
+    public static final int LEFT_BACKUP = 25;
+
+    /**
+     * The constant <tt>GOTO</tt> contains the operation code for
+     * OTP_GOTO.
+     */
+    public static final int GOTO = 26;
+
+    /**
+     * The constant <tt>GOTO_NE</tt> contains the operation code for
+     * OTP_GOTO_NE.
+     */
+    public static final int GOTO_NE = 27;
+
+    /**
+     * The constant <tt>GOTO_EQ</tt> contains the operation code for
+     * OTP_GOTO_EQ.
+     */
+    public static final int GOTO_EQ = 28;
+
+    /**
+     * The constant <tt>GOTO_LT</tt> contains the operation code for
+     * OTP_GOTO_LT.
+     */
+    public static final int GOTO_LT = 29;
+
+    /**
+     * The constant <tt>GOTO_LE</tt> contains the operation code for
+     * OTP_GOTO_LE.
+     */
+    public static final int GOTO_LE = 30;
+
+    /**
+     * The constant <tt>GOTO_GT</tt> contains the operation code for
+     * OTP_GOTO_GT.
+     */
+    public static final int GOTO_GT = 31;
+
+    /**
+     * The constant <tt>GOTO_GE</tt> contains the operation code for
+     * OTP_GOTO_GE.
+     */
+    public static final int GOTO_GE = 32;
+
+    /**
+     * The constant <tt>GOTO_NO_ADVANCE</tt> contains the operation code for
+     * OTP_GOTO_NO_ADVANCE.
+     */
+    public static final int GOTO_NO_ADVANCE = 33;
+
+    /**
+     * The constant <tt>GOTO_BEG</tt> contains the operation code for
+     * OTP_GOTO_BEG.
+     */
+    public static final int GOTO_BEG = 34;
+
+    /**
+     * The constant <tt>GOTO_END</tt> contains the operation code for
+     * OTP_GOTO_END.
+     */
+    public static final int GOTO_END = 35;
+
+    /**
+     * The constant <tt>STOP</tt> contains the operation code for
+     * OTP_STOP.
+     */
+    public static final int STOP = 36;
+
     /**
      * The field <tt>serialVersionUID</tt> contains the ...
      */
@@ -456,230 +672,25 @@ public class OcpProgram implements Serializable {
     }
 
     /**
-     * Reset the internal state of the program to the initial values.
-     */
-    public void reset() {
-
-        pc = 0;
-        state = 0;
-        stateStack.clear();
-        arithStack.clear();
-    }
-
-    /**
-     * TODO gene: missing JavaDoc
+     * Getter for the code of the states. The result is a fresh array holding
+     * the code of state <i>i</i> at index <i>i</i>.
      *
+     * @return the states
      */
-    public void run() {
+    public int[][] getStates() {
 
-        step(null, null, (int[]) states.get(state));
+        return (int[][]) states.toArray(new int[states.size()][]);
     }
 
     /**
-     * TODO gene: missing JavaDoc
+     * Getter for the tables. The result is a fresh array holding table
+     * <i>i</i> at index <i>i</i>.
      *
-     * @param currentState
-     */
-    private void step(final PushbackInputStream in, final OutputStream out,
-            final int[] currentState) {
-
-        int a, b, c;
-
-        for (;;) {
-            c = currentState[pc++];
-
-            switch (c >> 24) {
-                case 1:
-                    // OTP_RIGHT_OUTPUT
-                    break;
-                case 2:
-                    // OTP_RIGHT_NUM
-                    break;
-                case 3:
-                    // OTP_RIGHT_CHAR
-                    break;
-                case 4:
-                    // OTP_RIGHT_LCHAR
-                    break;
-                case 5:
-                    // OTP_RIGHT_SOME
-                    //two = false;
-                    break;
-                case 6:
-                    // OTP_PBACK_OUTPUT
-                    break;
-                case 7:
-                    // OTP_PBACK_NUM
-                    break;
-                case 8:
-                    // OTP_PBACK_CHAR
-                    break;
-                case 9:
-                    // OTP_PBACK_LCHAR
-                    break;
-                case 10:
-                    // OTP_PBACK_SOME
-                    a = currentState[pc++];
-                    break;
-                case 11:
-                    // OTP_ADD
-                    a = ((Integer) arithStack.pop()).intValue();
-                    b = ((Integer) arithStack.pop()).intValue();
-                    arithStack.push(new Integer(b + a));
-                    break;
-                case 12:
-                    // OTP_SUB
-                    a = ((Integer) arithStack.pop()).intValue();
-                    b = ((Integer) arithStack.pop()).intValue();
-                    arithStack.push(new Integer(b - a));
-                    break;
-                case 13:
-                    // OTP_MULT
-                    a = ((Integer) arithStack.pop()).intValue();
-                    b = ((Integer) arithStack.pop()).intValue();
-                    arithStack.push(new Integer(b * a));
-                    break;
-                case 14:
-                    // OTP_DIV
-                    a = ((Integer) arithStack.pop()).intValue();
-                    b = ((Integer) arithStack.pop()).intValue();
-                    arithStack.push(new Integer(b / a));
-                    break;
-                case 15:
-                    // OTP_MOD
-                    a = ((Integer) arithStack.pop()).intValue();
-                    b = ((Integer) arithStack.pop()).intValue();
-                    arithStack.push(new Integer(b % a));
-                    break;
-                case 16:
-                    // OTP_LOOKUP
-                    break;
-                case 17:
-                    // OTP_PUSH_NUM
-                    break;
-                case 18:
-                    // OTP_PUSH_CHAR
-                    break;
-                case 19:
-                    // OTP_PUSH_LCHAR
-                    break;
-                case 20:
-                    // OTP_STATE_CHANGE
-                    state = c & 0xfff;
-                    break;
-                case 21:
-                    // OTP_STATE_PUSH
-                    stateStack.push(new Integer(state));
-                    state = c & 0xfff;
-                    break;
-                case 22:
-                    // OTP_STATE_POP
-                    break;
-                case 23:
-                    // OTP_LEFT_START
-                    first = last + 1;
-                    break;
-                case 24:
-                    // OTP_LEFT_RETURN
-                    last = first + 1;
-                    break;
-                case 25:
-                    // OTP_LEFT_BACKUP
-                    last--; // ???
-                    break;
-                case 26:
-                    // OTP_GOTO
-                    pc = c & 0xfff;
-                    break;
-                case 27:
-                    // OTP_GOTO_NE
-                    a = currentState[pc++];
-                    if ((a & 0xffff) != (a >> 16)) {
-                        pc = c & 0xfff;
-                    }
-                    break;
-                case 28:
-                    // OTP_GOTO_EQ
-                    a = currentState[pc++];
-                    if ((a & 0xffff) == (a >> 16)) {
-                        pc = c & 0xfff;
-                    }
-                    break;
-                case 29:
-                    // OTP_GOTO_LT
-                    a = currentState[pc++];
-                    if ((a & 0xffff) < (a >> 16)) {
-                        pc = c & 0xfff;
-                    }
-                    break;
-                case 30:
-                    // OTP_GOTO_LE
-                    a = currentState[pc++];
-                    if ((a & 0xffff) <= (a >> 16)) {
-                        pc = c & 0xfff;
-                    }
-                    break;
-                case 31:
-                    // OTP_GOTO_GT
-                    a = currentState[pc++];
-                    if ((a & 0xffff) > (a >> 16)) {
-                        pc = c & 0xfff;
-                    }
-                    break;
-                case 32:
-                    // OTP_GOTO_GE
-                    a = currentState[pc++];
-                    if ((a & 0xffff) >= (a >> 16)) {
-                        pc = c & 0xfff;
-                    }
-                    break;
-                case 33:
-                    // OTP_GOTO_NO_ADVANCE
-                    break;
-                case 34:
-                    // OTP_GOTO_BEG
-                    if (false) { //TODO at beginning
-                        pc = c & 0xfff;
-                    }
-                    break;
-                case 35:
-                    // OTP_GOTO_END
-                    if (false) { //TODO at end
-                        pc = c & 0xfff;
-                    }
-                    break;
-                case 36:
-                    // OTP_STOP
-                    return;
-                default:
-                    //TODO gene: unimplemented
-                    throw new RuntimeException("unimplemented");
-            }
-        }
-    }
-
-    /**
-     * The field <tt>pc</tt> contains the ...
+     * @return the tables
      */
-    private int pc = 0;
-
-    private int first = 0;
+    public int[][] getTables() {
 
-    private int last = 0;
-
-    /**
-     * The field <tt>state</tt> contains the ...
-     */
-    private int state = 0;
-
-    /**
-     * The field <tt>stateStack</tt> contains the ...
-     */
-    private Stack stateStack = new Stack();
-
-    /**
-     * The field <tt>arithStack</tt> contains the ...
-     */
-    private Stack arithStack = new Stack();
+        return (int[][]) tables.toArray(new int[tables.size()][]);
+    }
 
 }
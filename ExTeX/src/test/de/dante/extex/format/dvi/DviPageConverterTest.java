@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.format.dvi;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+import org.jdom.Element;
+import org.jdom.output.XMLOutputter;
+
+import de.dante.extex.font.FontFactory;
+import de.dante.util.file.random.RandomAccessInputFile;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.ConfigurationFactory;
+import de.dante.util.framework.configuration.exception.ConfigurationClassNotFoundException;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.framework.configuration.exception.ConfigurationInstantiationException;
+import de.dante.util.framework.configuration.exception.ConfigurationMissingAttributeException;
+import de.dante.util.framework.configuration.exception.ConfigurationNoSuchMethodException;
+import de.dante.util.resource.PropertyConfigurable;
+import de.dante.util.resource.ResourceFinder;
+import de.dante.util.resource.ResourceFinderFactory;
+import de.dante.util.worker.WorkerPool;
+
+/**
+ * Test the DviPageConverter class.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+
+public class DviPageConverterTest extends TestCase {
+
+    /**
+     * path.
+     */
+    private static final String PATH = "develop/test/data/dvi/";
+
+    /**
+     * file with several pages.
+     */
+    private static final String FILE = "lettrine";
+
+    /**
+     * number of worker threads for the parallel conversion.
+     */
+    private static final int THREADS = 3;
+
+    /**
+     * test that the parallel conversion of all pages yields the pages of the
+     * sequential DviXml interpreter in the same order.
+     * @throws Exception if an error occurs
+     */
+    public void testParallel() throws Exception {
+
+        String[] expected = readSequential();
+        assertTrue(expected.length > THREADS);
+
+        WorkerPool pool = new WorkerPool(THREADS, "dvi");
+        try {
+            DviPageConverter converter = new DviPageConverter(new File(PATH
+                    + FILE + ".dvi"), makeFontFactory(), pool);
+            assertPages(expected, 0, converter.convert(0, expected.length));
+            assertPages(expected, 1, converter.convert(1,
+                    expected.length - 1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * test that a pool without threads yields the same pages as the
+     * sequential DviXml interpreter.
+     * @throws Exception if an error occurs
+     */
+    public void testSequential() throws Exception {
+
+        String[] expected = readSequential();
+
+        DviPageConverter converter = new DviPageConverter(new File(PATH + FILE
+                + ".dvi"), makeFontFactory(), new WorkerPool(0, "dvi"));
+        assertPages(expected, 0, converter.convert(0, expected.length));
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], toString(converter.convert(i)));
+        }
+    }
+
+    /**
+     * Assert that the converted pages are equal to the expected ones.
+     * @param expected  the pages of the sequential interpreter
+     * @param from      the index of the first converted page
+     * @param pages     the converted pages
+     */
+    private static void assertPages(final String[] expected, final int from,
+            final Element[] pages) {
+
+        for (int i = 0; i < pages.length; i++) {
+            assertEquals("page " + (from + i), expected[from + i],
+                    toString(pages[i]));
+        }
+    }
+
+    /**
+     * read all pages with the sequential DviXml interpreter.
+     * @return Returns the pages as strings in the order of the file
+     * @throws Exception if an error occurs
+     */
+    private String[] readSequential() throws Exception {
+
+        RandomAccessInputFile rar = new RandomAccessInputFile(PATH + FILE
+                + ".dvi");
+        Element root = new Element("dvi");
+        DviXml dvixml = new DviXml(root, makeFontFactory());
+        dvixml.interpret(rar);
+        rar.close();
+
+        List bops = root.getChildren("bop");
+        String[] pages = new String[bops.size()];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = toString((Element) bops.get(i));
+        }
+        return pages;
+    }
+
+    /**
+     * Convert an element to a string.
+     * @param element   the element
+     * @return Returns the string
+     */
+    private static String toString(final Element element) {
+
+        return new XMLOutputter("   ", true).outputString(element);
+    }
+
+    // --------------------------------------
+    // --------------------------------------
+    // --------------------------------------
+
+    /**
+     * The field <tt>props</tt> contains the merged properties from the
+     * system properties and the properties loaded from <tt>.extex-test</tt>.
+     */
+    private Properties props = null;
+
+    /**
+     * make a font factory.
+     * @return  Return the font factory
+     * @throws Exception if an error occurs.
+     */
+    private FontFactory makeFontFactory() throws Exception {
+
+        Configuration config = new ConfigurationFactory()
+                .newInstance("config/extex.xml");
+
+        FontFactory fontFactory = makeFontFactory(config
+                .getConfiguration("Fonts"), config.getConfiguration("Resource"));
+        ((PropertyConfigurable) fontFactory).setProperties(getProps());
+
+        return fontFactory;
+    }
+
+    /**
+     * Create a new font factory.
+     *
+     * @param config the configuration object for the font factory
+     * @param finderCfg the configuration object for the resource finder
+     *
+     * @return the new font factory
+     *
+     * @throws ConfigurationException in case that some kind of problems have
+     * been detected in the configuration
+     */
+    private FontFactory makeFontFactory(final Configuration config,
+            final Configuration finderCfg) throws ConfigurationException {
+
+        FontFactory fontFactory;
+        String fontClass = config.getAttribute("class");
+
+        if (fontClass == null || fontClass.equals("")) {
+            throw new ConfigurationMissingAttributeException("class", config);
+        }
+
+        ResourceFinder fontFinder = (new ResourceFinderFactory())
+                .createResourceFinder(finderCfg, null, getProps(), null);
+
+        try {
+            fontFactory = (FontFactory) (Class.forName(fontClass)
+                    .getConstructor(
+                            new Class[]{Configuration.class,
+                                    ResourceFinder.class})
+                    .newInstance(new Object[]{config, fontFinder}));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (SecurityException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (InstantiationException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (IllegalAccessException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (InvocationTargetException e) {
+            throw new ConfigurationInstantiationException(e);
+        } catch (NoSuchMethodException e) {
+            throw new ConfigurationNoSuchMethodException(e);
+        } catch (ClassNotFoundException e) {
+            throw new ConfigurationClassNotFoundException(fontClass);
+        }
+
+        return fontFactory;
+    }
+
+    /**
+     * Getter for props.
+     *
+     * @return the props
+     */
+    private Properties getProps() {
+
+        if (props == null) {
+            props = System.getProperties();
+
+            File file = new File(".extex-test");
+            if (file.canRead()) {
+                try {
+                    FileInputStream inputStream = new FileInputStream(file);
+                    props.load(inputStream);
+                    inputStream.close();
+                } catch (IOException e) {
+                    // ignored on purpose
+                }
+            }
+        }
+        return (Properties) this.props.clone();
+    }
+
+    /**
+     * test DviPageConverter.
+     * @param args  the commandline
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(DviPageConverterTest.class);
+    }
+}
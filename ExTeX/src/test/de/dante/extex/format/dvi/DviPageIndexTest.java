@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.format.dvi;
+
+import java.io.File;
+import java.io.FileInputStream;
+
+import junit.framework.TestCase;
+import de.dante.extex.format.dvi.command.DviBOP;
+import de.dante.extex.format.dvi.command.DviCommand;
+import de.dante.extex.format.dvi.exception.DviBopEopException;
+import de.dante.util.file.random.RandomAccessInputArray;
+import de.dante.util.file.random.RandomAccessInputFile;
+
+/**
+ * Test the DviPageIndex class.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+
+public class DviPageIndexTest extends TestCase {
+
+    /**
+     * path.
+     */
+    private static final String PATH = "develop/test/data/dvi/";
+
+    /**
+     * files.
+     */
+    private static final String[] FILES = {"lettrine", "listings", "andre"};
+
+    /**
+     * test that the index contains all pages in order and that each entry
+     * points to a bop with the recorded counts.
+     * @throws Exception if an error occurs
+     */
+    public void testIndex() throws Exception {
+
+        for (int f = 0; f < FILES.length; f++) {
+            RandomAccessInputFile rar = new RandomAccessInputFile(PATH
+                    + FILES[f] + ".dvi");
+            DviPageIndex index = new DviPageIndex(rar);
+
+            assertEquals(index.getPost().getTotalpage(), index.getPageCount());
+            assertTrue(index.getFntDefs().size() > 0);
+
+            int last = -1;
+            for (int i = 0; i < index.getPageCount(); i++) {
+                int p = index.getBopPointer(i);
+                assertTrue(p > last);
+                last = p;
+                rar.seek(p);
+                DviCommand command = DviCommand.getNextCommand(rar);
+                assertTrue(command instanceof DviBOP);
+                assertEquals(((DviBOP) command).getC()[0],
+                        index.getCounts(i)[0]);
+            }
+            rar.close();
+        }
+    }
+
+    /**
+     * test that a page outside the document is rejected.
+     * @throws Exception if an error occurs
+     */
+    public void testOutOfRange() throws Exception {
+
+        RandomAccessInputFile rar = new RandomAccessInputFile(PATH + FILES[0]
+                + ".dvi");
+        DviPageIndex index = new DviPageIndex(rar);
+        rar.close();
+        try {
+            index.getBopPointer(index.getPageCount());
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * test that a chain of bop pointers which does not decrease is rejected
+     * instead of looping forever.
+     * @throws Exception if an error occurs
+     */
+    public void testCycle() throws Exception {
+
+        byte[] data = read(PATH + FILES[0] + ".dvi");
+        RandomAccessInputArray rar = new RandomAccessInputArray(data);
+        int p = new DviPageIndex(rar).getBopPointer(0);
+        // let the first page point to itself
+        setInt(data, p + 41, p);
+        try {
+            new DviPageIndex(new RandomAccessInputArray(data));
+            fail();
+        } catch (DviBopEopException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * test that a bop pointer outside the file is rejected.
+     * @throws Exception if an error occurs
+     */
+    public void testPointerOutside() throws Exception {
+
+        byte[] data = read(PATH + FILES[0] + ".dvi");
+        RandomAccessInputArray rar = new RandomAccessInputArray(data);
+        int p = new DviPageIndex(rar).getBopPointer(0);
+        setInt(data, p + 41, data.length - 10);
+        try {
+            new DviPageIndex(new RandomAccessInputArray(data));
+            fail();
+        } catch (DviBopEopException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Read a file completely.
+     * @param name  the name of the file
+     * @return Returns the content of the file
+     * @throws Exception if an error occurs
+     */
+    private static byte[] read(final String name) throws Exception {
+
+        File file = new File(name);
+        byte[] data = new byte[(int) file.length()];
+        FileInputStream in = new FileInputStream(file);
+        try {
+            int off = 0;
+            while (off < data.length) {
+                off += in.read(data, off, data.length - off);
+            }
+        } finally {
+            in.close();
+        }
+        return data;
+    }
+
+    /**
+     * Store a four byte value in big endian order.
+     * @param data  the target array
+     * @param off   the offset
+     * @param value the value
+     */
+    private static void setInt(final byte[] data, final int off,
+            final int value) {
+
+        data[off] = (byte) (value >> 24);
+        data[off + 1] = (byte) (value >> 16);
+        data[off + 2] = (byte) (value >> 8);
+        data[off + 3] = (byte) value;
+    }
+
+}
@@ -137,6 +137,13 @@ public class Max1 extends TestCase {
 
         }
 
+        /**
+         * @see de.dante.extex.typesetter.Typesetter#completeParagraphs()
+         */
+        public void completeParagraphs() throws TypesetterException {
+
+        }
+
         /**
          * @see de.dante.extex.typesetter.Typesetter#complete(TypesetterOptions)
          */
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.context.tc;
+
+import junit.framework.TestCase;
+import de.dante.extex.color.model.ColorFactory;
+import de.dante.extex.font.type.other.NullFont;
+import de.dante.util.framework.configuration.exception.ConfigurationInstantiationException;
+
+/**
+ * This is a test suite for the typesetting context factory.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TypesettingContextFactoryTest extends TestCase {
+
+    /**
+     * Command line interface.
+     *
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(TypesettingContextFactoryTest.class);
+    }
+
+    /**
+     * The field <tt>factory</tt> contains the factory to test. It creates
+     * instances of {@link TypesettingContextImpl TypesettingContextImpl}
+     * without a configuration.
+     */
+    private TypesettingContextFactory factory = new TypesettingContextFactory() {
+
+        /**
+         * @see de.dante.extex.interpreter.context.tc.TypesettingContextFactory#newInstance()
+         */
+        protected ModifiableTypesettingContext newInstance()
+                throws ConfigurationInstantiationException {
+
+            return new TypesettingContextImpl(new NullFont());
+        }
+    };
+
+    /**
+     * Test that the instances handed out can not be modified.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testImmutable() throws Exception {
+
+        TypesettingContext tc = factory.initial();
+        assertFalse(tc instanceof ModifiableTypesettingContext);
+        tc = factory.newInstance(tc, ColorFactory.WHITE);
+        assertFalse(tc instanceof ModifiableTypesettingContext);
+    }
+
+    /**
+     * Test that equal typesetting contexts are represented by the same
+     * instance.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testInterned() throws Exception {
+
+        TypesettingContext tc = factory.initial();
+        TypesettingContext white = factory.newInstance(tc, ColorFactory.WHITE);
+        assertNotSame(tc, white);
+        assertSame(tc, factory.newInstance(white, ColorFactory.BLACK));
+        assertSame(white, factory.newInstance(tc, ColorFactory.WHITE));
+    }
+
+    /**
+     * Test that a modification yields a new instance and leaves the shared
+     * one unchanged.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testCopyOnModify() throws Exception {
+
+        TypesettingContext tc = factory.initial();
+        int hash = tc.hashCode();
+        TypesettingContext rl = factory.newInstance(tc, Direction.RL);
+
+        assertSame(Direction.RL, rl.getDirection());
+        assertSame(Direction.LR, tc.getDirection());
+        assertEquals(hash, tc.hashCode());
+        assertSame(tc.getFont(), rl.getFont());
+    }
+
+}
@@ -80,4 +80,53 @@ public class IffalseTest extends ExTeXLauncher {
                 "xx" + TERM);
     }
 
+    /**
+     * <testcase primitive="\iffalse">
+     *  Test case checking that <tt>\iffalse</tt> skips comments, groups, and
+     *  nested conditionals.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void test3() throws Exception {
+
+        assertSuccess(//--- input code ---
+                DEFINE_BRACES + "\\iffalse a % \\fi\n\n"
+                        + " \\iftrue b\\else c\\fi {d}\\else e\\fi\\end",
+                //--- output channel ---
+                "e" + TERM);
+    }
+
+    /**
+     * <testcase primitive="\iffalse">
+     *  Test case checking that <tt>\iffalse</tt> recognizes <tt>\fi</tt>
+     *  under another name.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void test4() throws Exception {
+
+        assertSuccess(//--- input code ---
+                "\\let\\x\\fi \\iffalse a\n\n b\\x c\\end",
+                //--- output channel ---
+                "c" + TERM);
+    }
+
+    /**
+     * <testcase primitive="\iffalse">
+     *  Test case checking that <tt>\iffalse</tt> skips in the expansion of
+     *  a macro.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void test5() throws Exception {
+
+        assertSuccess(//--- input code ---
+                DEFINE_BRACES + "\\def\\a{x\\iffalse y{z}\\fi z}\\a\\end",
+                //--- output channel ---
+                "xz" + TERM);
+    }
+
 }
@@ -19,6 +19,7 @@
 
 package de.dante.extex.interpreter.primitives.font;
 
+import de.dante.extex.interpreter.primitives.math.AbstractMathTester;
 import de.dante.test.NoFlagsPrimitiveTester;
 
 /**
@@ -124,4 +125,33 @@ public class FontdimenTest extends NoFlagsPrimitiveTester {
                 "bca42.0pt" + TERM);
     }
 
+    /**
+     * <testcase primitive="\fontdimen">
+     *  Test case checking that a formula uses the new value of a font
+     *  parameter of a math font even if a formula has used the old one.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testMath1() throws Exception {
+
+        assertFailure(//--- input code ---
+                DEFINE_CATCODES + AbstractMathTester.DEFINE_MATH_FONTS
+                + "\\showboxdepth=10 \\showboxbreadth=100 "
+                + "\\setbox0\\hbox{$x^y$}"
+                + "\\fontdimen14\\textfont2=10pt "
+                + "\\setbox0\\hbox{$x^y$}\\showbox0 "
+                + "\\end",
+                //--- log message ---
+                "\\box0=\n\n"
+                + "\\hbox(4.30554pt+1.3611pt)x9.77086pt"
+                + ".\\mathon"
+                + ".\\hbox(4.30554pt+1.3611pt)x9.77086pt"
+                + "..x"
+                + "..\\hbox(3.01389pt+1.3611pt)x4.05559pt, shifted -10.0pt"
+                + "...y"
+                + ".\\mathoff\n"
+                + "OK\n");
+    }
+
 }
@@ -53,6 +53,7 @@ public class AllTests {
                 "Test for de.dante.extex.interpreter.primitives.math");
         //$JUnit-BEGIN$
         suite.addTestSuite(MathchoiceTest.class);
+        suite.addTestSuite(ConcurrentMathchoiceTest.class);
         suite.addTestSuite(MathchardefTest.class);
         suite.addTestSuite(MathcodeTest.class);
         suite.addTestSuite(OverlineTest.class);
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.primitives.math;
+
+import java.util.Properties;
+
+/**
+ * This is a test suite for the primitive <tt>\mathchoice</tt> with the
+ * typesetter configured to typeset display formulas in worker threads.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ConcurrentMathchoiceTest extends MathchoiceTest {
+
+    /**
+     * Command line interface.
+     *
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(ConcurrentMathchoiceTest.class);
+    }
+
+    /**
+     * Constructor for ConcurrentMathchoiceTest.
+     *
+     * @param arg the name
+     */
+    public ConcurrentMathchoiceTest(final String arg) {
+
+        super(arg);
+    }
+
+    /**
+     * Getter for the properties. The concurrent typesetter is selected.
+     *
+     * @return the properties
+     *
+     * @see de.dante.test.ExTeXLauncher#getProps()
+     */
+    public Properties getProps() {
+
+        Properties properties = super.getProps();
+        properties.setProperty("extex.typesetter", "concurrent");
+        return properties;
+    }
+
+}
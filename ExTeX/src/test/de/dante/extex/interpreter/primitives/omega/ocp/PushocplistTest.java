@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.primitives.omega.ocp;
+
+import de.dante.test.ExTeXLauncher;
+
+/**
+ * This is a test suite for the primitives <tt>\pushocplist</tt> and
+ * <tt>\popocplist</tt>. A compiled OCP is loaded which translates each
+ * <tt>x</tt> into a <tt>y</tt>.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class PushocplistTest extends ExTeXLauncher {
+
+    /**
+     * The constant <tt>DEFINE_OCPLIST</tt> contains the code to load the
+     * OCP and to define an OCP list <tt>\l</tt> containing it.
+     */
+    private static final String DEFINE_OCPLIST =
+            "\\ocp\\xy=develop/test/data/x2y.ocp "
+                    + "\\ocplist\\l=\\addbeforeocplist 1 \\xy \\nullocplist ";
+
+    /**
+     * The command line interface.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(PushocplistTest.class);
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param arg the name
+     */
+    public PushocplistTest(final String arg) {
+
+        super(arg);
+        setConfig("omega");
+    }
+
+    /**
+     * <testcase primitive="\pushocplist">
+     *  Test case checking that <tt>\pushocplist</tt> applies the OCP to the
+     *  lines read afterwards.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void test1() throws Exception {
+
+        assertSuccess(//--- input code ---
+                DEFINE_OCPLIST + "\\pushocplist\\l x%\n" //
+                        + "axbx%\n" //
+                        + "\\end",
+                //--- output channel ---
+                "xayby" + TERM);
+    }
+
+    /**
+     * <testcase primitive="\popocplist">
+     *  Test case checking that <tt>\popocplist</tt> removes the OCP list
+     *  for the lines read afterwards.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testPop1() throws Exception {
+
+        assertSuccess(//--- input code ---
+                DEFINE_OCPLIST + "\\pushocplist\\l%\n" //
+                        + "x\\popocplist x%\n" //
+                        + "x\\end",
+                //--- output channel ---
+                "yyx" + TERM);
+    }
+
+    /**
+     * <testcase primitive="\pushocplist">
+     *  Test case checking that the OCP list pushed in a group is removed at
+     *  the end of the group.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testGroup1() throws Exception {
+
+        assertSuccess(//--- input code ---
+                DEFINE_BRACES + DEFINE_OCPLIST + "{\\pushocplist\\l%\n" //
+                        + "x}%\n" //
+                        + "x\\end",
+                //--- output channel ---
+                "yx" + TERM);
+    }
+
+}
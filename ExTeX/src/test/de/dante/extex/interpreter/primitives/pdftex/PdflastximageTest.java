@@ -40,6 +40,23 @@ public class PdflastximageTest extends AbstractReadonlyCountRegisterTester {
         setConfig("pdftex-112");
     }
 
+    /**
+     * <testcase primitive="\pdflastximage">
+     *  Test case checking that an image used twice is stored once.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testShare1() throws Exception {
+
+        assertSuccess(//--- input code ---
+                DEFINE_BRACES + "\\pdfximage {develop/test/data/image.pdf}"
+                        + "\\pdfximage {develop/test/data/image.pdf}"
+                        + "\\the\\pdflastximage \\end",
+                //--- log message ---
+                "1" + TERM);
+    }
+
     //TODO implement more primitive specific test cases
 
 }
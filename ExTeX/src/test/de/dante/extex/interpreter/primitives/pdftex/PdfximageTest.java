@@ -36,7 +36,7 @@ public class PdfximageTest extends NoFlagsButImmediateAndProtectedPrimitiveTeste
      */
     public PdfximageTest(final String arg) {
 
-        super(arg, "pdfximage", "{}");
+        super(arg, "pdfximage", "{develop/test/data/image.pdf}");
         setConfig("pdftex-112");
     }
 
@@ -55,6 +55,21 @@ public class PdfximageTest extends NoFlagsButImmediateAndProtectedPrimitiveTeste
                 "Missing `{' inserted");
     }
 
+    /**
+     * <testcase primitive="\pdfximage">
+     *  Test case checking that a missing image leads to an error.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testError2() throws Exception {
+
+        assertFailure(//--- input code ---
+                DEFINE_BRACES + "\\pdfximage {undefined.png}",
+                //--- output message ---
+                "pdfTeX error (ext1): cannot read image undefined.png");
+    }
+
     //TODO implement more primitive specific test cases
 
 }
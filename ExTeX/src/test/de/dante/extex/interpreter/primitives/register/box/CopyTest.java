@@ -94,4 +94,41 @@ public class CopyTest extends NoFlagsPrimitiveTester {
                 "A\nA" + TERM);
     }
 
-}
\ No newline at end of file
+    /**
+     * <testcase primitive="\copy">
+     *  Test case checking that <tt>\copy</tt> on the right hand side of a box
+     *  assignment does not clear the box register.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void test3() throws Exception {
+
+        assertSuccess(//--- input code ---
+                DEFINE_BRACES + "\\setbox1\\hbox{A}\\setbox2\\copy1 "
+                        + "\\copy1\\copy2\\end",
+                //--- output channel ---
+                "A\nA" + TERM);
+    }
+
+    /**
+     * <testcase primitive="\copy">
+     *  Test case checking that a modification of the copy does not change
+     *  the box register.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void test4() throws Exception {
+
+        assertOutput(//--- input code ---
+                DEFINE_BRACES + "\\setbox1\\hbox{}\\setbox2\\copy1 "
+                        + "\\wd2=12pt \\showthe\\wd1 \\showthe\\wd2 "
+                        + "\\end",
+                //--- log message ---
+                "> 0.0pt.\n> 12.0pt.\n",
+                //--- output channel ---
+                "");
+    }
+
+}
@@ -185,4 +185,52 @@ public class HalignTest extends NoFlagsPrimitiveTester {
                 "???"); //TODO gene: check
     }
 
-}
\ No newline at end of file
+    /**
+     * <testcase primitive="\halign">
+     *  Test case checking that the width of an alignment is the sum of the
+     *  maximal widths of the columns.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testWidth1() throws Exception {
+
+        assertOutput(//--- input code ---
+                DEFINE_CATCODES
+                + "\\setbox0\\halign{#&#&#\\cr"
+                + "\\kern1pt&\\kern4pt&\\cr"
+                + "\\kern3pt&\\kern2pt&\\cr}"
+                + "\\showthe\\wd0 "
+                + "\\end ",
+                //--- log message ---
+                "> 7.0pt.\n",
+                //--- output channel ---
+                "");
+    }
+
+    /**
+     * <testcase primitive="\halign">
+     *  Test case checking that an alignment with many cells gets the
+     *  maximal widths of its columns.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testWidth2() throws Exception {
+
+        assertOutput(//--- input code ---
+                DEFINE_CATCODES
+                + "\\def\\r{\\kern1pt&\\kern2pt\\cr}"
+                + "\\def\\x{\\r\\r\\r\\r\\r\\r\\r\\r\\r\\r}"
+                + "\\def\\y{\\x\\x\\x\\x\\x\\x\\x\\x\\x\\x}"
+                + "\\setbox0\\halign{#&#\\cr"
+                + "\\y\\y\\y\\y\\y\\kern5pt&\\cr}"
+                + "\\showthe\\wd0 "
+                + "\\end ",
+                //--- log message ---
+                "> 7.0pt.\n",
+                //--- output channel ---
+                "");
+    }
+
+}
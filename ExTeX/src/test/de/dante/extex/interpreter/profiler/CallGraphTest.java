@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.profiler;
+
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+
+import de.dante.extex.interpreter.Flags;
+import de.dante.extex.interpreter.observer.command.CommandObserver;
+import de.dante.extex.interpreter.observer.pop.PopObserver;
+import de.dante.extex.interpreter.observer.push.PushObserver;
+import de.dante.extex.interpreter.primitives.macro.util.MacroCode;
+import de.dante.extex.interpreter.primitives.macro.util.MacroPattern;
+import de.dante.extex.interpreter.type.tokens.Tokens;
+
+/**
+ * This is a test suite for the call graph of macros.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class CallGraphTest extends TestCase {
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(CallGraphTest.class);
+    }
+
+    /**
+     * The field <tt>command</tt> contains the command observer.
+     */
+    private CommandObserver command;
+
+    /**
+     * The field <tt>graph</tt> contains the call graph.
+     */
+    private CallGraph graph;
+
+    /**
+     * The field <tt>pop</tt> contains the pop observer.
+     */
+    private PopObserver pop;
+
+    /**
+     * The field <tt>push</tt> contains the push observer.
+     */
+    private PushObserver push;
+
+    /**
+     * Simulate the invocation of a macro. The macro token is read and executed
+     * and the body is pushed.
+     *
+     * @param name the name of the macro
+     * @param body the number of tokens in the body
+     */
+    private void call(final String name, final int body) {
+
+        pop.update(null);
+        command.update(null);
+        graph.update(null, new MacroCode(name, Flags.NONE, MacroPattern.EMPTY,
+                Tokens.EMPTY));
+        for (int i = 0; i < body; i++) {
+            push.update(null);
+        }
+    }
+
+    /**
+     * Simulate the reading of tokens which are not macros.
+     *
+     * @param n the number of tokens
+     */
+    private void read(final int n) {
+
+        for (int i = 0; i < n; i++) {
+            pop.update(null);
+            command.update(null);
+        }
+    }
+
+    /**
+     * Create a new call graph with the given limits.
+     *
+     * @param nodes the maximal number of nodes
+     * @param depth the maximal depth
+     */
+    private void setUp(final int nodes, final int depth) {
+
+        graph = new CallGraph(null, nodes, depth);
+        command = graph.getCommandObserver();
+        pop = graph.getPopObserver();
+        push = graph.getPushObserver();
+    }
+
+    /**
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+
+        setUp(CallGraph.DEFAULT_MAX_NODES, CallGraph.DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Write the folded stacks to a string.
+     *
+     * @return the folded stacks
+     *
+     * @throws Exception in case of an error
+     */
+    private String folded() throws Exception {
+
+        StringWriter w = new StringWriter();
+        graph.writeFolded(w);
+        return w.toString();
+    }
+
+    /**
+     * Test that a macro invoked from the body of another macro is its callee.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testNested() throws Exception {
+
+        call("a", 3);
+        call("b", 2);
+        read(2);
+        read(2);
+        read(1);
+
+        assertEquals("(top) 2\na 3\na;b 2\n", folded());
+        assertEquals(2, graph.getCalls());
+        assertEquals(2, graph.getDeepest());
+        assertEquals(3, graph.getNodes());
+    }
+
+    /**
+     * Test that a macro at the end of the body of another macro replaces it.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testTail() throws Exception {
+
+        call("a", 2);
+        read(1);
+        call("a", 2);
+        read(1);
+        call("a", 0);
+        read(1);
+
+        assertEquals("(top) 2\na 4\n", folded());
+        assertEquals(3, graph.getCalls());
+        assertEquals(1, graph.getDeepest());
+    }
+
+    /**
+     * Test that the tokens read as arguments are charged to the caller.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testArguments() throws Exception {
+
+        call("a", 4);
+        pop.update(null);
+        command.update(null);
+        graph.update(null, new MacroCode("b", Flags.NONE, MacroPattern.EMPTY,
+                Tokens.EMPTY));
+        pop.update(null);
+        pop.update(null);
+        push.update(null);
+        read(3);
+
+        assertEquals("(top) 2\na 4\na;b 1\n", folded());
+    }
+
+    /**
+     * Test that the limit for the number of nodes is honored.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testLimit() throws Exception {
+
+        setUp(2, CallGraph.DEFAULT_MAX_DEPTH);
+        call("a", 3);
+        call("b", 2);
+        read(4);
+
+        assertEquals("(top) 1\na 5\n", folded());
+        assertEquals(2, graph.getNodes());
+        assertTrue(graph.report(10).indexOf("1 calls beyond the limits") > 0);
+    }
+
+    /**
+     * Test that the inclusive tokens of recursive macros are counted once.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testRecursion() throws Exception {
+
+        call("a", 2);
+        call("a", 2);
+        read(2);
+        read(1);
+
+        String report = graph.report(10);
+        assertTrue(report, report.indexOf("\n          4          4          2"
+                + "            2     2  a\n") > 0);
+    }
+
+    /**
+     * Test that the names are made suitable for folded stacks.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testNames() throws Exception {
+
+        call("x y;z", 1);
+        read(1);
+
+        assertEquals("(top) 1\nx_y_z 1\n", folded());
+    }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.profiler;
+
+import junit.framework.TestCase;
+
+import de.dante.extex.interpreter.Flags;
+import de.dante.extex.interpreter.observer.pop.PopObserver;
+import de.dante.extex.interpreter.observer.push.PushObserver;
+import de.dante.extex.interpreter.primitives.macro.util.MacroCode;
+import de.dante.extex.interpreter.primitives.macro.util.MacroPattern;
+import de.dante.extex.interpreter.type.AbstractCode;
+import de.dante.extex.interpreter.type.Code;
+import de.dante.extex.interpreter.type.tokens.Tokens;
+
+/**
+ * This is a test suite for the profiler.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ProfilerTest extends TestCase {
+
+    /**
+     * This is a piece of code with a name.
+     */
+    private static class MockCode extends AbstractCode {
+
+        /**
+         * Creates a new object.
+         *
+         * @param name the name
+         */
+        public MockCode(final String name) {
+
+            super(name);
+        }
+    }
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(ProfilerTest.class);
+    }
+
+    /**
+     * Test that the invocations are counted by name.
+     */
+    public void testCalls() {
+
+        Profiler profiler = new Profiler();
+        Code a = new MockCode("a");
+        Code b = new MockCode("b");
+        profiler.enter(a);
+        profiler.enter(b);
+        profiler.leave();
+        profiler.enter(new MockCode("b"));
+        profiler.leave();
+        profiler.leave();
+
+        assertEquals(1, profiler.getCalls("a"));
+        assertEquals(2, profiler.getCalls("b"));
+        assertEquals(0, profiler.getCalls("c"));
+    }
+
+    /**
+     * Test that a sample charges the top of the stack with self time and all
+     * code on the stack with total time.
+     */
+    public void testSample() {
+
+        Profiler profiler = new Profiler();
+        Code a = new MockCode("a");
+        Code b = new MockCode("b");
+        profiler.sample();
+        profiler.enter(a);
+        profiler.sample();
+        profiler.enter(b);
+        profiler.enter(a);
+        profiler.sample();
+        profiler.leave();
+        profiler.sample();
+        profiler.leave();
+        profiler.leave();
+        profiler.sample();
+
+        assertEquals(2, profiler.getSelf("a"));
+        assertEquals(3, profiler.getTotal("a"));
+        assertEquals(1, profiler.getSelf("b"));
+        assertEquals(2, profiler.getTotal("b"));
+    }
+
+    /**
+     * Test that a deep stack is handled.
+     */
+    public void testDeep() {
+
+        Profiler profiler = new Profiler();
+        Code a = new MockCode("a");
+        for (int i = 0; i < 1000; i++) {
+            profiler.enter(a);
+        }
+        profiler.sample();
+        for (int i = 0; i < 1000; i++) {
+            profiler.leave();
+        }
+        profiler.leave();
+        profiler.sample();
+
+        assertEquals(1000, profiler.getCalls("a"));
+        assertEquals(1, profiler.getSelf("a"));
+        assertEquals(1, profiler.getTotal("a"));
+    }
+
+    /**
+     * Create a macro.
+     *
+     * @param name the name
+     *
+     * @return the new macro
+     */
+    private static Code macro(final String name) {
+
+        return new MacroCode(name, Flags.NONE, MacroPattern.EMPTY,
+                Tokens.EMPTY);
+    }
+
+    /**
+     * Simulate the expansion of a macro. The body is pushed before the macro
+     * returns.
+     *
+     * @param profiler the profiler
+     * @param push the push observer
+     * @param code the macro
+     * @param body the number of tokens in the body
+     */
+    private static void expand(final Profiler profiler,
+            final PushObserver push, final Code code, final int body) {
+
+        profiler.enter(code);
+        for (int i = 0; i < body; i++) {
+            push.update(null);
+        }
+        profiler.leave();
+    }
+
+    /**
+     * Test that a macro is charged with the time until its expansion has
+     * been read.
+     */
+    public void testMacroExpansion() {
+
+        Profiler profiler = new Profiler();
+        PopObserver pop = profiler.getPopObserver();
+        PushObserver push = profiler.getPushObserver();
+        expand(profiler, push, macro("m"), 3);
+        profiler.sample();
+        pop.update(null);
+        profiler.enter(new MockCode("p"));
+        profiler.sample();
+        profiler.leave();
+        pop.update(null);
+        profiler.sample();
+        pop.update(null);
+        profiler.sample();
+
+        assertEquals(2, profiler.getSelf("m"));
+        assertEquals(3, profiler.getTotal("m"));
+        assertEquals(1, profiler.getSelf("p"));
+        assertEquals(1, profiler.getTotal("p"));
+    }
+
+    /**
+     * Test that a macro at the end of the expansion of another macro replaces
+     * it.
+     */
+    public void testMacroTailCall() {
+
+        Profiler profiler = new Profiler();
+        PopObserver pop = profiler.getPopObserver();
+        PushObserver push = profiler.getPushObserver();
+        expand(profiler, push, macro("a"), 1);
+        pop.update(null);
+        expand(profiler, push, macro("b"), 1);
+        profiler.sample();
+        pop.update(null);
+        profiler.sample();
+
+        assertEquals(0, profiler.getTotal("a"));
+        assertEquals(1, profiler.getSelf("b"));
+        assertEquals(1, profiler.getTotal("b"));
+    }
+
+    /**
+     * Test that a token pushed back by a primitive is charged to the macro
+     * it has been read from.
+     */
+    public void testMacroPushBack() {
+
+        Profiler profiler = new Profiler();
+        PopObserver pop = profiler.getPopObserver();
+        PushObserver push = profiler.getPushObserver();
+        expand(profiler, push, macro("m"), 2);
+        pop.update(null);
+        profiler.enter(new MockCode("p"));
+        pop.update(null);
+        push.update(null);
+        profiler.leave();
+        profiler.sample();
+        pop.update(null);
+        profiler.sample();
+
+        assertEquals(1, profiler.getSelf("m"));
+        assertEquals(1, profiler.getTotal("m"));
+    }
+
+    /**
+     * Test that the report lists the code sorted by self time.
+     */
+    public void testReport() {
+
+        Profiler profiler = new Profiler();
+        profiler.enter(new MockCode("outer"));
+        profiler.enter(new MockCode("inner"));
+        profiler.sample();
+        profiler.sample();
+        profiler.leave();
+        profiler.sample();
+        profiler.leave();
+
+        String report = profiler.report(10);
+        int self = report.indexOf("by self time");
+        int total = report.indexOf("by total time");
+        assertTrue(self >= 0);
+        assertTrue(total > self);
+        assertTrue(report.indexOf("inner (", self) < report
+                .indexOf("outer (", self));
+        assertTrue(report.indexOf("outer (", total) < report
+                .indexOf("inner (", total));
+        assertEquals(-1, profiler.report(0).indexOf("inner"));
+    }
+
+    /**
+     * Test that the sampler thread can be started and stopped.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testStartStop() throws Exception {
+
+        Profiler profiler = new Profiler();
+        profiler.start();
+        profiler.start();
+        Thread.sleep(20);
+        profiler.stop();
+        profiler.stop();
+        assertTrue(profiler.report(1).startsWith("Profile: "));
+    }
+
+}
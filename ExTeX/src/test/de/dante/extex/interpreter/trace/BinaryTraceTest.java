@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.trace;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+
+import de.dante.extex.interpreter.Namespace;
+import de.dante.extex.interpreter.observer.pop.PopObserver;
+import de.dante.extex.interpreter.observer.push.PushObserver;
+import de.dante.extex.scanner.type.Catcode;
+import de.dante.extex.scanner.type.token.Token;
+import de.dante.extex.scanner.type.token.TokenFactoryImpl;
+import de.dante.util.UnicodeChar;
+
+/**
+ * This is a test suite for the binary trace and its decoder.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class BinaryTraceTest extends TestCase {
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(BinaryTraceTest.class);
+    }
+
+    /**
+     * Decode a binary trace.
+     *
+     * @param bytes the binary trace
+     *
+     * @return the text
+     *
+     * @throws IOException in case of an error
+     */
+    private static String decode(final byte[] bytes) throws IOException {
+
+        StringWriter w = new StringWriter();
+        new TraceDecoder(false).decode(new ByteArrayInputStream(bytes), w);
+        return w.toString();
+    }
+
+    /**
+     * Test that the tokens read and pushed are decoded to the text of the
+     * tokenizer trace. A small ring buffer forces the writer thread to keep
+     * up with the producer.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testTokens1() throws Exception {
+
+        TokenFactoryImpl factory = new TokenFactoryImpl();
+        Token a = factory.createToken(Catcode.LETTER, 'a',
+                Namespace.DEFAULT_NAMESPACE);
+        Token cs = factory.createToken(Catcode.ESCAPE, UnicodeChar.get('\\'),
+                "relax", Namespace.DEFAULT_NAMESPACE);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryTrace trace = new BinaryTrace(null, null, out, 4);
+        PopObserver pop = trace.getPopObserver();
+        PushObserver push = trace.getPushObserver();
+        StringBuffer expected = new StringBuffer();
+        for (int i = 0; i < 1000; i++) {
+            pop.update(a);
+            push.update(cs);
+            pop.update(cs);
+            expected.append(a.toString());
+            expected.append("\n: push ");
+            expected.append(cs.toString());
+            expected.append("\n");
+            expected.append(cs.toString());
+            expected.append("\n");
+        }
+        trace.close();
+        pop.update(a);
+
+        assertEquals(expected.toString(), decode(out.toByteArray()));
+    }
+
+    /**
+     * Test that an empty trace contains the header only.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testEmpty1() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryTrace(null, null, out, 16).close();
+
+        assertEquals(8, out.size());
+        assertEquals("", decode(out.toByteArray()));
+    }
+
+    /**
+     * Test that a stream without the magic number is rejected.
+     */
+    public void testMagic1() {
+
+        try {
+            decode(new byte[]{0, 0, 0, 0, 0, 0, 0, 1});
+            fail("exception expected");
+        } catch (IOException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Test that the records are taken in the order they have been put, also
+     * when the counters wrap around the buffer.
+     */
+    public void testRing1() {
+
+        TraceRing ring = new TraceRing(3);
+        assertEquals(4, ring.getCapacity());
+        int[] record = new int[TraceRing.RECORD_SIZE];
+        for (int i = 0; i < 10; i++) {
+            ring.put(i, i + 1, i + 2, i + 3, i + 4, (i % 2 == 0 ? "x" : null));
+            ring.put(-i, 0, 0, 0, 0, null);
+            assertTrue(ring.take(record));
+            assertEquals(i, record[0]);
+            assertEquals(i + 4, record[4]);
+            assertEquals((i % 2 == 0 ? "x" : null), ring.getText());
+            assertTrue(ring.take(record));
+            assertEquals(-i, record[0]);
+            assertTrue(ring.isEmpty());
+            assertFalse(ring.take(record));
+        }
+        assertEquals(0, ring.getWaits());
+    }
+
+}
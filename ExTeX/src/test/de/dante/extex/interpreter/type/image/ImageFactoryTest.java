@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.type.image;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Inflater;
+
+import javax.imageio.ImageIO;
+
+import junit.framework.TestCase;
+
+import de.dante.extex.interpreter.type.dimen.Dimen;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+import de.dante.util.resource.ResourceFinder;
+
+/**
+ * This is a test suite for the image factory and the image formats.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ImageFactoryTest extends TestCase {
+
+    /**
+     * This resource finder delivers byte arrays from a map.
+     */
+    private static class MapFinder implements ResourceFinder {
+
+        /**
+         * The field <tt>map</tt> contains the resources.
+         */
+        private Map map = new HashMap();
+
+        /**
+         * The field <tt>opened</tt> contains the number of streams opened.
+         */
+        private int opened = 0;
+
+        /**
+         * @see de.dante.util.resource.ResourceFinder#enableTracing(boolean)
+         */
+        public void enableTracing(final boolean flag) {
+
+        }
+
+        /**
+         * @see de.dante.util.resource.ResourceFinder#findResource(
+         *      java.lang.String, java.lang.String)
+         */
+        public InputStream findResource(final String name, final String type)
+                throws ConfigurationException {
+
+            byte[] bytes = (byte[]) map.get(name);
+            if (bytes == null) {
+                return null;
+            }
+            opened++;
+            return new ByteArrayInputStream(bytes);
+        }
+
+        /**
+         * Add a resource.
+         *
+         * @param name the name
+         * @param bytes the contents
+         */
+        public void put(final String name, final byte[] bytes) {
+
+            map.put(name, bytes);
+        }
+    }
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(ImageFactoryTest.class);
+    }
+
+    /**
+     * Encode an RGB image.
+     *
+     * @param format the format name for ImageIO
+     * @param width the width in pixels
+     * @param height the height in pixels
+     *
+     * @return the encoded image
+     *
+     * @throws IOException in case of an error
+     */
+    private static byte[] encode(final String format, final int width,
+            final int height) throws IOException {
+
+        BufferedImage image = new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x * 8) << 16 | (y * 8) << 8 | 0x80);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(image, format, out));
+        return out.toByteArray();
+    }
+
+    /**
+     * The field <tt>factory</tt> contains the factory under test.
+     */
+    private ImageFactory factory;
+
+    /**
+     * The field <tt>finder</tt> contains the resource finder.
+     */
+    private MapFinder finder;
+
+    /**
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+
+        super.setUp();
+        finder = new MapFinder();
+        factory = new ImageFactory(finder);
+    }
+
+    /**
+     * Test that a PNG image is probed for its size and that the compressed
+     * data is passed through unchanged. The data inflates to one filter byte
+     * plus three bytes per pixel for each row.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testPng1() throws Exception {
+
+        finder.put("a.png", encode("png", 30, 20));
+        Image image = factory.getImage("a.png");
+
+        assertEquals("png", image.getFormat());
+        assertEquals(30, image.getPixelWidth());
+        assertEquals(20, image.getPixelHeight());
+        assertEquals(3, image.getColorComponents());
+        assertEquals(8, image.getBitsPerComponent());
+        assertTrue(image.isPassThrough());
+        assertEquals(30 * 7227L * Dimen.ONE / 7200, image.getWidth(72)
+                .getValue());
+        assertEquals(20 * 7227L * Dimen.ONE / 14400, image.getHeight(144)
+                .getValue());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        image.writeData(out);
+        byte[] data = out.toByteArray();
+        assertEquals(image.getDataLength(), data.length);
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        byte[] raw = new byte[20 * (1 + 30 * 3) + 1];
+        assertEquals(20 * (1 + 30 * 3), inflater.inflate(raw));
+        assertTrue(inflater.finished());
+    }
+
+    /**
+     * Test that a JPEG image is probed for its size and that the whole file
+     * is passed through.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testJpeg1() throws Exception {
+
+        byte[] bytes = encode("jpeg", 17, 9);
+        finder.put("a.jpg", bytes);
+        Image image = factory.getImage("a.jpg");
+
+        assertEquals("jpeg", image.getFormat());
+        assertEquals(17, image.getPixelWidth());
+        assertEquals(9, image.getPixelHeight());
+        assertEquals(3, image.getColorComponents());
+        assertEquals(8, image.getBitsPerComponent());
+        assertTrue(image.isPassThrough());
+        assertEquals(bytes.length, image.getDataLength());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        image.writeData(out);
+        assertEquals(bytes.length, out.size());
+    }
+
+    /**
+     * Test that the size of a PDF document is taken from the media box.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testPdf1() throws Exception {
+
+        finder.put("a.pdf", ("%PDF-1.4\n1 0 obj << /Type /Page /MediaBox"
+                + " [0 0 612 792] >> endobj\n%%EOF\n").getBytes());
+        Image image = factory.getImage("a.pdf");
+
+        assertEquals("pdf", image.getFormat());
+        assertFalse(image.isPassThrough());
+        assertEquals(Math.round(612 * 7227.0 / 7200 * Dimen.ONE), image
+                .getWidth(72).getValue());
+        assertEquals(Math.round(792 * 7227.0 / 7200 * Dimen.ONE), image
+                .getHeight(72).getValue());
+    }
+
+    /**
+     * Test that the same contents under different names lead to the same
+     * image and that a name is read only once.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testShare1() throws Exception {
+
+        byte[] bytes = encode("png", 4, 4);
+        finder.put("a.png", bytes);
+        finder.put("b.png", bytes);
+        finder.put("c.png", encode("png", 4, 5));
+
+        Image a = factory.getImage("a.png");
+        assertSame(a, factory.getImage("b.png"));
+        assertSame(a, factory.getImage("a.png"));
+        assertNotSame(a, factory.getImage("c.png"));
+        assertEquals(3, finder.opened);
+        assertEquals(32, a.getDigest().length());
+    }
+
+    /**
+     * Test that an unknown format leads to an exception.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testError1() throws Exception {
+
+        finder.put("a.gif", "GIF89a".getBytes());
+        try {
+            factory.getImage("a.gif");
+            assertTrue(false);
+        } catch (FileNotFoundException e) {
+            assertTrue(false);
+        } catch (IOException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Test that a missing resource leads to an exception.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testError2() throws Exception {
+
+        try {
+            factory.getImage("undefined.png");
+            assertTrue(false);
+        } catch (FileNotFoundException e) {
+            assertTrue(true);
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.interpreter.unit;
+
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+import de.dante.util.framework.configuration.ConfigurationFactory;
+
+/**
+ * Test cases for the compilation of unit configurations.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class UnitCompilerTest extends TestCase {
+
+    /**
+     * This is a bootstrap with a given resource and checksum.
+     */
+    private static final class Bootstrap implements UnitBootstrap {
+
+        /**
+         * The field <tt>checksum</tt> contains the checksum.
+         */
+        private long checksum;
+
+        /**
+         * The field <tt>resource</tt> contains the name of the resource.
+         */
+        private String resource;
+
+        /**
+         * Creates a new object.
+         *
+         * @param theResource the name of the resource
+         * @param theChecksum the checksum
+         */
+        public Bootstrap(final String theResource, final long theChecksum) {
+
+            super();
+            this.resource = theResource;
+            this.checksum = theChecksum;
+        }
+
+        /**
+         * @see de.dante.extex.interpreter.unit.UnitBootstrap#define(
+         *      de.dante.extex.interpreter.unit.PrimitiveDefiner)
+         */
+        public void define(final PrimitiveDefiner definer) {
+
+        }
+
+        /**
+         * @see de.dante.extex.interpreter.unit.UnitBootstrap#getChecksum()
+         */
+        public long getChecksum() {
+
+            return checksum;
+        }
+
+        /**
+         * @see de.dante.extex.interpreter.unit.UnitBootstrap#getResource()
+         */
+        public String getResource() {
+
+            return resource;
+        }
+    }
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(UnitCompilerTest.class);
+    }
+
+    /**
+     * The class name is derived from the letters and digits of the unit name.
+     */
+    public void testClassName1() {
+
+        assertEquals("de.dante.extex.interpreter.unit.bootstrap.TexBootstrap",
+                LoadUnit.bootstrapClassName("tex"));
+        assertEquals(
+                "de.dante.extex.interpreter.unit.bootstrap.Pdftex112rBootstrap",
+                LoadUnit.bootstrapClassName("pdftex-1.12r"));
+        assertEquals("de.dante.extex.interpreter.unit.bootstrap.U1Bootstrap",
+                LoadUnit.bootstrapClassName("1"));
+    }
+
+    /**
+     * A unit configuration is compiled into direct constructor calls.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testCompile1() throws Exception {
+
+        StringWriter w = new StringWriter();
+        new UnitCompiler().compile(new ConfigurationFactory()
+                .newInstance("config/unit/showprefix.xml"),
+                "config/unit/showprefix.xml", w);
+        String s = w.toString();
+        assertTrue(s.indexOf("public final class ShowprefixBootstrap") >= 0);
+        assertTrue(s.indexOf("definer.define(\"showprefix\", null,") >= 0);
+        assertTrue(s.indexOf("new de.dante.extex.interpreter.primitives."
+                + "prefix.Showprefix(\"showprefix\"), \"\");") >= 0);
+    }
+
+    /**
+     * The name and the checksum of the resource are recorded in the
+     * generated class.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testChecksum1() throws Exception {
+
+        String resource = "config/unit/showprefix.xml";
+        StringWriter w = new StringWriter();
+        new UnitCompiler().compile(new ConfigurationFactory()
+                .newInstance(resource), resource, w);
+        String s = w.toString();
+        assertTrue(s.indexOf("return 0x"
+                + Long.toHexString(LoadUnit.checksum(resource)) + "L;") >= 0);
+        assertTrue(s.indexOf("return \"" + resource + "\";") >= 0);
+    }
+
+    /**
+     * A bootstrap compiled from another state of the resource is not
+     * current.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testChecksum2() throws Exception {
+
+        final String resource = "config/unit/showprefix.xml";
+        final long crc = LoadUnit.checksum(resource);
+        assertEquals(crc, LoadUnit.checksum(resource));
+        assertTrue(crc != LoadUnit.checksum("config/unit/ensureloaded.xml"));
+
+        assertTrue(LoadUnit.isCurrent(new Bootstrap(resource, crc)));
+        assertFalse(LoadUnit.isCurrent(new Bootstrap(resource, crc + 1)));
+    }
+
+    /**
+     * A bootstrap compiled from a resource which does not exist any more is
+     * not current.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testChecksum3() throws Exception {
+
+        assertEquals(-1, LoadUnit.checksum("config/unit/undefined.xml"));
+        assertFalse(LoadUnit.isCurrent(new Bootstrap(
+                "config/unit/undefined.xml", -1)));
+    }
+
+}
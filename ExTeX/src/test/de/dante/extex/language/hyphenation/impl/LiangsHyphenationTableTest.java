@@ -27,9 +27,13 @@ import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.language.Language;
 import de.dante.extex.language.hyphenation.exception.DuplicateHyphenationException;
 import de.dante.extex.language.hyphenation.liang.LiangsHyphenationTable;
+import de.dante.extex.language.word.impl.ExTeXWords;
 import de.dante.extex.scanner.type.Catcode;
 import de.dante.extex.scanner.type.CatcodeException;
 import de.dante.extex.scanner.type.token.TokenFactory;
+import de.dante.extex.unicode.Unicode;
+import de.dante.util.UnicodeChar;
+import de.dante.util.UnicodeCharList;
 
 /**
  * TODO gene: missing JavaDoc.
@@ -54,6 +58,36 @@ public class LiangsHyphenationTableTest extends TestCase {
 
     }
 
+    /**
+     * Create the characters for a sequence of words. The words are separated
+     * by a single space.
+     *
+     * @param s the words
+     *
+     * @return the characters with <code>null</code> as separator
+     */
+    private static UnicodeChar[] makeWords(final String s) {
+
+        UnicodeChar[] chars = new UnicodeChar[s.length() + 2];
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            chars[i + 1] = (c == ' ' ? null : UnicodeChar.get(c));
+        }
+        return chars;
+    }
+
+    /**
+     * Create a new hyphenation table with a word tokenizer.
+     *
+     * @return the new table
+     */
+    private static LiangsHyphenationTable makeTable() {
+
+        LiangsHyphenationTable table = new LiangsHyphenationTable();
+        table.setWordTokenizer(new ExTeXWords());
+        return table;
+    }
+
     /**
      * The command line interface.
      *
@@ -81,7 +115,7 @@ public class LiangsHyphenationTableTest extends TestCase {
         Tokens tokens = new Tokens();
         for (int i = 0; i < s.length(); i++) {
             char c = s.charAt(i);
-            tokens.add(factory.createToken((Character.isLetter(c)
+            tokens.add(factory.createToken((Character.isLetter(c) || c == '.'
                     ? Catcode.LETTER
                     : Catcode.OTHER), c, Namespace.DEFAULT_NAMESPACE));
         }
@@ -158,4 +192,101 @@ public class LiangsHyphenationTableTest extends TestCase {
             assertTrue(true);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * This test case tests that the hyphenation points of several words are
+     * found in one go.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testBatch1() throws Exception {
+
+        MockContext context = new MyMockContext();
+        LiangsHyphenationTable table = makeTable();
+        table.addPattern(makeTokens("0c1d0", context));
+
+        UnicodeChar[] chars = makeWords("abcdef xy abcd");
+        boolean[] points = new boolean[chars.length];
+        assertEquals(2, table.findHyphenationPoints(chars, chars.length,
+                context, points));
+        for (int i = 0; i < points.length; i++) {
+            assertEquals(Integer.toString(i), i == 4 || i == 14, points[i]);
+        }
+    }
+
+    /**
+     * This test case tests that a pattern starting with a period only
+     * matches at the beginning of a word.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testBatch2() throws Exception {
+
+        MockContext context = new MyMockContext();
+        LiangsHyphenationTable table = makeTable();
+        table.addPattern(makeTokens("0.0a1b0", context));
+        table.addPattern(makeTokens("0a1b0.0", context));
+
+        UnicodeChar[] chars = makeWords("ababab");
+        boolean[] points = new boolean[chars.length];
+        assertEquals(2, table.findHyphenationPoints(chars, chars.length,
+                context, points));
+        assertTrue(points[2]);
+        assertTrue(points[6]);
+    }
+
+    /**
+     * This test case tests that \lefthyphenmin and \righthyphenmin are
+     * respected.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testBatch3() throws Exception {
+
+        MockContext context = new MyMockContext();
+        LiangsHyphenationTable table = makeTable();
+        table.addPattern(makeTokens("0c1d0", context));
+
+        UnicodeChar[] chars = makeWords("abcdef");
+        boolean[] points = new boolean[chars.length];
+        table.setLeftHyphenmin(3);
+        table.setRightHyphenmin(3);
+        assertEquals(1, table.findHyphenationPoints(chars, chars.length,
+                context, points));
+        table.setLeftHyphenmin(4);
+        assertEquals(0, table.findHyphenationPoints(chars, chars.length,
+                context, points));
+        table.setLeftHyphenmin(1);
+        table.setRightHyphenmin(4);
+        assertEquals(0, table.findHyphenationPoints(chars, chars.length,
+                context, points));
+    }
+
+    /**
+     * This test case tests that the user-defined hyphenations take
+     * precedence over the patterns and that the words are normalized.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testBatch4() throws Exception {
+
+        MockContext context = new MyMockContext();
+        LiangsHyphenationTable table = makeTable();
+        table.addPattern(makeTokens("0c1d0", context));
+        UnicodeCharList word = new UnicodeCharList();
+        word.add(UnicodeChar.get('a'));
+        word.add(Unicode.SHY);
+        word.add(UnicodeChar.get('b'));
+        word.add(UnicodeChar.get('c'));
+        word.add(UnicodeChar.get('d'));
+        table.addHyphenation(word, context);
+
+        UnicodeChar[] chars = makeWords("ABCD");
+        boolean[] points = new boolean[chars.length];
+        assertEquals(1, table.findHyphenationPoints(chars, chars.length,
+                context, points));
+        assertTrue(points[2]);
+        assertEquals(UnicodeChar.get('a'), chars[1]);
+    }
+
+}
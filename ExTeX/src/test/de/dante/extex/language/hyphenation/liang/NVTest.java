@@ -32,7 +32,7 @@ import de.dante.extex.font.type.BoundingBox;
 import de.dante.extex.font.type.other.NullFont;
 import de.dante.extex.font.type.tfm.TFMFixWord;
 import de.dante.extex.interpreter.Namespace;
-import de.dante.extex.interpreter.context.tc.ModifiableTypesettingContext;
+import de.dante.extex.interpreter.context.tc.ImmutableTypesettingContext;
 import de.dante.extex.interpreter.context.tc.TypesettingContext;
 import de.dante.extex.interpreter.context.tc.TypesettingContextImpl;
 import de.dante.extex.interpreter.type.dimen.Dimen;
@@ -614,10 +614,11 @@ public class NVTest extends TestCase {
         l = tokenFactory.createToken(Catcode.LETTER, 'l',
                 Namespace.DEFAULT_NAMESPACE);
         hyphen = font.getHyphenChar();
-        tc = new TypesettingContextImpl(font);
         ModifiableLanguage lang = new BaseHyphenationTable();
         lang.setLigatureBuilder(new LigatureBuilderImpl());
-        ((ModifiableTypesettingContext) tc).setLanguage(lang);
+        TypesettingContextImpl mtc = new TypesettingContextImpl(font);
+        mtc.setLanguage(lang);
+        tc = new ImmutableTypesettingContext(mtc);
     }
 
     /**
@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+package de.dante.extex.language.impl;
+
+import junit.framework.TestCase;
+import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.interpreter.type.tokens.Tokens;
+import de.dante.extex.language.Language;
+import de.dante.extex.language.hyphenation.base.BaseHyphenationTable;
+import de.dante.extex.language.hyphenation.exception.HyphenationException;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.type.NodeList;
+import de.dante.extex.typesetter.type.node.CharNode;
+import de.dante.extex.typesetter.type.node.factory.NodeFactory;
+import de.dante.util.UnicodeChar;
+import de.dante.util.UnicodeCharList;
+
+/**
+ * This is a test suite for the future language.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class FutureLanguageTest extends TestCase {
+
+    /**
+     * This is a mock implementation of a language which is not able to
+     * hyphenate many words at once.
+     */
+    private static class MockLanguage implements Language {
+
+        /**
+         * The constant <tt>serialVersionUID</tt> contains the id for
+         * serialization.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#addHyphenation(
+         *      de.dante.util.UnicodeCharList,
+         *      de.dante.extex.typesetter.TypesetterOptions)
+         */
+        public void addHyphenation(final UnicodeCharList word,
+                final TypesetterOptions context) throws HyphenationException {
+
+        }
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#addPattern(
+         *      de.dante.extex.interpreter.type.tokens.Tokens)
+         */
+        public void addPattern(final Tokens pattern)
+                throws HyphenationException {
+
+        }
+
+        /**
+         * @see de.dante.extex.language.word.WordTokenizer#findWord(
+         *      de.dante.extex.typesetter.type.NodeList,
+         *      int,
+         *      de.dante.util.UnicodeCharList)
+         */
+        public int findWord(final NodeList nodes, final int start,
+                final UnicodeCharList word) throws HyphenationException {
+
+            return start;
+        }
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#getLeftHyphenmin()
+         */
+        public long getLeftHyphenmin() throws HyphenationException {
+
+            return 0;
+        }
+
+        /**
+         * @see de.dante.extex.language.ligature.LigatureBuilder#getLigature(
+         *      de.dante.util.UnicodeChar,
+         *      de.dante.util.UnicodeChar,
+         *      de.dante.extex.interpreter.type.font.Font)
+         */
+        public UnicodeChar getLigature(final UnicodeChar c1,
+                final UnicodeChar c2, final Font f)
+                throws HyphenationException {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.language.Language#getName()
+         */
+        public String getName() {
+
+            return "mock";
+        }
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#getRightHyphenmin()
+         */
+        public long getRightHyphenmin() throws HyphenationException {
+
+            return 0;
+        }
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#hyphenate(
+         *      de.dante.extex.typesetter.type.NodeList,
+         *      de.dante.extex.typesetter.TypesetterOptions,
+         *      de.dante.util.UnicodeChar,
+         *      int,
+         *      boolean,
+         *      de.dante.extex.typesetter.type.node.factory.NodeFactory)
+         */
+        public boolean hyphenate(final NodeList nodelist,
+                final TypesetterOptions context, final UnicodeChar hyphen,
+                final int start, final boolean forall,
+                final NodeFactory nodeFactory) throws HyphenationException {
+
+            return false;
+        }
+
+        /**
+         * @see de.dante.extex.language.ligature.LigatureBuilder#insertLigatures(
+         *      de.dante.extex.typesetter.type.NodeList,
+         *      int)
+         */
+        public int insertLigatures(final NodeList list, final int start)
+                throws HyphenationException {
+
+            return start;
+        }
+
+        /**
+         * @see de.dante.extex.language.word.WordTokenizer#insertShy(
+         *      de.dante.extex.typesetter.type.NodeList,
+         *      int,
+         *      boolean[],
+         *      de.dante.extex.typesetter.type.node.CharNode)
+         */
+        public void insertShy(final NodeList nodes, final int insertionPoint,
+                final boolean[] spec, final CharNode hyphenNode)
+                throws HyphenationException {
+
+        }
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#isHyphenActive()
+         */
+        public boolean isHyphenActive() throws HyphenationException {
+
+            return true;
+        }
+
+        /**
+         * @see de.dante.extex.language.word.WordTokenizer#normalize(
+         *      de.dante.util.UnicodeCharList,
+         *      de.dante.extex.typesetter.TypesetterOptions)
+         */
+        public UnicodeCharList normalize(final UnicodeCharList word,
+                final TypesetterOptions options) throws HyphenationException {
+
+            return word;
+        }
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#setHyphenActive(
+         *      boolean)
+         */
+        public void setHyphenActive(final boolean active)
+                throws HyphenationException {
+
+        }
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#setLeftHyphenmin(
+         *      long)
+         */
+        public void setLeftHyphenmin(final long left)
+                throws HyphenationException {
+
+        }
+
+        /**
+         * @see de.dante.extex.language.Language#setName(java.lang.String)
+         */
+        public void setName(final String name) {
+
+        }
+
+        /**
+         * @see de.dante.extex.language.hyphenation.Hyphenator#setRightHyphenmin(
+         *      long)
+         */
+        public void setRightHyphenmin(final long right)
+                throws HyphenationException {
+
+        }
+    }
+
+    /**
+     * This is a mock implementation of a language creator which delivers a
+     * fixed language.
+     */
+    private static class MockCreator implements LanguageCreator {
+
+        /**
+         * The field <tt>language</tt> contains the language to deliver.
+         */
+        private Language language;
+
+        /**
+         * Creates a new object.
+         *
+         * @param language the language to deliver
+         */
+        public MockCreator(final Language language) {
+
+            super();
+            this.language = language;
+        }
+
+        /**
+         * @see de.dante.extex.language.impl.LanguageCreator#createLanguageInstance(
+         *      java.lang.String)
+         */
+        public Language createLanguageInstance(final String index)
+                throws HyphenationException {
+
+            return language;
+        }
+
+        /**
+         * @see de.dante.extex.language.impl.LanguageCreator#loadLanguageInstance(
+         *      java.lang.String)
+         */
+        public Language loadLanguageInstance(final String index)
+                throws HyphenationException {
+
+            return language;
+        }
+    }
+
+    /**
+     * Command line interface.
+     *
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(FutureLanguageTest.class);
+    }
+
+    /**
+     * Test that the batch hyphenation is not announced if the language does
+     * not support it. In this case no hyphenation points are reported.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testNoBatch() throws Exception {
+
+        FutureLanguage language = new FutureLanguage("0", new MockCreator(
+                new MockLanguage()));
+        assertFalse(language.isBatchSupported());
+
+        UnicodeChar[] chars = {null, UnicodeChar.get('a'), null};
+        boolean[] points = new boolean[chars.length];
+        assertEquals(0, language.findHyphenationPoints(chars, chars.length,
+                null, points));
+    }
+
+    /**
+     * Test that the batch hyphenation is announced if the language supports
+     * it.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testBatch() throws Exception {
+
+        FutureLanguage language = new FutureLanguage("0", new MockCreator(
+                new BaseHyphenationTable()));
+        assertTrue(language.isBatchSupported());
+    }
+
+}
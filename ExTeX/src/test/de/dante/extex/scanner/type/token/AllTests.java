@@ -48,6 +48,7 @@ public class AllTests {
         suite.addTestSuite(TabMarkTokenTest.class);
         suite.addTestSuite(ActiveCharacterTokenTest.class);
         suite.addTestSuite(ControlSequenceTokenTest.class);
+        suite.addTestSuite(ControlSequenceTableTest.class);
         //$JUnit-END$
         return suite;
     }
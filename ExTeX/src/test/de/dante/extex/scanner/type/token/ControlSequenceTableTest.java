@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.scanner.type.token;
+
+import junit.framework.TestCase;
+import de.dante.extex.interpreter.Namespace;
+import de.dante.extex.scanner.type.Catcode;
+import de.dante.util.UnicodeChar;
+
+/**
+ * Test cases for the control sequence table.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ControlSequenceTableTest extends TestCase {
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(ControlSequenceTableTest.class);
+    }
+
+    /**
+     * The constant <tt>ESC</tt> contains the escape character.
+     */
+    private static final UnicodeChar ESC = UnicodeChar.get('\\');
+
+    /**
+     * Fill a name buffer with the characters of a string.
+     *
+     * @param s the string
+     *
+     * @return the name buffer
+     */
+    private static ControlSequenceName name(final String s) {
+
+        ControlSequenceName name = new ControlSequenceName();
+        for (int i = 0; i < s.length(); i++) {
+            name.append(s.charAt(i));
+        }
+        return name;
+    }
+
+    /**
+     * The incremental hash code is the hash code of the string.
+     */
+    public void testHash1() {
+
+        ControlSequenceName name = name("@namedef");
+        assertEquals("@namedef".hashCode(), name.getHash());
+        assertEquals("@namedef", name.toString());
+        assertTrue(name.matches("@namedef"));
+        assertFalse(name.matches("@namede"));
+        name.clear();
+        assertEquals(0, name.length());
+        assertEquals("".hashCode(), name.getHash());
+    }
+
+    /**
+     * A code point outside the basic multilingual plane is stored as
+     * surrogate pair.
+     */
+    public void testSupplementary1() {
+
+        ControlSequenceName name = new ControlSequenceName();
+        name.append(0x1d400);
+        assertEquals(2, name.length());
+        assertEquals(UnicodeChar.get(0x1d400).toString(), name.toString());
+    }
+
+    /**
+     * An empty table does not contain anything.
+     */
+    public void testGet1() {
+
+        ControlSequenceTable table = new ControlSequenceTable();
+        assertNull(table.get("relax", Namespace.DEFAULT_NAMESPACE));
+        assertNull(table.get(name("relax"), Namespace.DEFAULT_NAMESPACE));
+        assertEquals(0, table.size());
+    }
+
+    /**
+     * A token can be found by string and by name buffer.
+     */
+    public void testGet2() {
+
+        ControlSequenceTable table = new ControlSequenceTable();
+        ControlSequenceToken t = new ControlSequenceToken(ESC, "relax",
+                Namespace.DEFAULT_NAMESPACE);
+        table.put(t);
+        assertSame(t, table.get("relax", Namespace.DEFAULT_NAMESPACE));
+        assertSame(t, table.get(name("relax"), Namespace.DEFAULT_NAMESPACE));
+        assertNull(table.get("relax", "other"));
+        assertNull(table.get(name("rela"), Namespace.DEFAULT_NAMESPACE));
+    }
+
+    /**
+     * The table grows and all tokens remain accessible.
+     */
+    public void testGrow1() {
+
+        ControlSequenceTable table = new ControlSequenceTable();
+        ControlSequenceToken[] t = new ControlSequenceToken[5000];
+        for (int i = 0; i < t.length; i++) {
+            t[i] = new ControlSequenceToken(ESC, "cs" + i,
+                    Namespace.DEFAULT_NAMESPACE);
+            table.put(t[i]);
+        }
+        for (int i = 0; i < t.length; i++) {
+            assertSame(t[i], table.get(name("cs" + i),
+                    Namespace.DEFAULT_NAMESPACE));
+        }
+    }
+
+    /**
+     * The factory delivers the same token for a string and a name buffer.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testFactory1() throws Exception {
+
+        TokenFactory factory = new TokenFactoryImpl();
+        Token t = factory.createControlSequence(ESC, name("foo"),
+                Namespace.DEFAULT_NAMESPACE);
+        assertTrue(t instanceof ControlSequenceToken);
+        assertEquals("foo", ((ControlSequenceToken) t).getName());
+        assertSame(t, factory.createToken(Catcode.ESCAPE, ESC, "foo",
+                Namespace.DEFAULT_NAMESPACE));
+        assertSame(t, factory.createControlSequence(ESC, name("foo"),
+                Namespace.DEFAULT_NAMESPACE));
+        assertNotSame(t, factory.createControlSequence(ESC, name("foo"),
+                "other"));
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+package de.dante.extex.typesetter.impl;
+
+import java.util.Properties;
+
+import de.dante.extex.interpreter.primitives.math.AbstractMathTester;
+import de.dante.test.ExTeXLauncher;
+
+/**
+ * This is a test suite for the typesetter configured to break paragraphs and
+ * to typeset display formulas in worker threads. The results have to be
+ * identical to the ones of the synchronous typesetter.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ConcurrentTypesetterTest extends ExTeXLauncher {
+
+    /**
+     * The constant <tt>PREPARE</tt> contains the code to set up the box
+     * display.
+     */
+    private static final String PREPARE = DEFINE_BRACES
+            + "\\showboxdepth=10 \\showboxbreadth=100 ";
+
+    /**
+     * Command line interface.
+     *
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(ConcurrentTypesetterTest.class);
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param arg the name
+     */
+    public ConcurrentTypesetterTest(final String arg) {
+
+        super(arg);
+    }
+
+    /**
+     * Getter for the properties selecting the concurrent typesetter.
+     *
+     * @return the properties
+     */
+    private Properties getConcurrentProps() {
+
+        Properties properties = getProps();
+        properties.setProperty("extex.typesetter", "concurrent");
+        return properties;
+    }
+
+    /**
+     * Test case checking that the paragraphs in a vertical box are broken as
+     * with the synchronous typesetter.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testVbox1() throws Exception {
+
+        String code = PREPARE + "\\hsize=100pt "
+                + "\\setbox0\\vbox{abc def ghi\\par jkl\\par}"
+                + "\\showbox0 \\end";
+        String log = "\\box0=\n"
+                + "\\vbox(8.0pt+8.0pt)x100.0pt"
+                + ".\\hbox(8.0pt+0.0pt)x100.0pt..a..b..c..space\n"
+                + "10.0pt..d..e..f..space 10.0pt..g..h"
+                + ".\\hbox(8.0pt+0.0pt)x100.0pt..j..k..l..\\penalty 10000"
+                + "..\\glue0.0pt\n\n"
+                + "OK\n";
+
+        assertFailure(code, log);
+        assertFailure(getConcurrentProps(), code, log);
+    }
+
+    /**
+     * Test case checking that a paragraph in a vertical box uses the
+     * parameters in effect at its end and that <tt>\prevgraf</tt> is
+     * available immediately.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testVbox2() throws Exception {
+
+        String code = PREPARE
+                + "\\setbox0\\vbox{\\hsize=100pt abc\\par \\hsize=50pt "
+                + "\\showthe\\prevgraf}\\showbox0 \\end";
+        String log = "> 1.\n"
+                + "\\box0=\n"
+                + "\\vbox(8.0pt+0.0pt)x100.0pt"
+                + ".\\hbox(8.0pt+0.0pt)x100.0pt..a..b..c..\\penalty\n"
+                + "10000..\\glue0.0pt\n"
+                + "OK\n";
+
+        assertFailure(code, log);
+        assertFailure(getConcurrentProps(), code, log);
+    }
+
+    /**
+     * Test case checking that a paragraph on the main vertical list is
+     * broken before the interpreter continues. The output routine is
+     * triggered by the lines of the first paragraph and has to see the
+     * registers as they are at the end of this paragraph.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testMain1() throws Exception {
+
+        String code = PREPARE + "\\hsize=100pt \\vsize=5pt "
+                + "\\output={\\showthe\\count1 \\setbox0\\box255 }"
+                + "abc\\par \\count1=7 def\\par \\end";
+        String log = "> 0.\n" + "> 7.\n";
+
+        assertFailure(code, log);
+        assertFailure(getConcurrentProps(), code, log);
+    }
+
+    /**
+     * Test case checking that a display formula in a paragraph is typeset as
+     * with the synchronous typesetter although the fonts and
+     * <tt>\scriptspace</tt> are changed immediately after the display.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testDisplay1() throws Exception {
+
+        String code = PREPARE + DEFINE_CATCODES
+                + AbstractMathTester.DEFINE_MATH_FONTS + "\\hsize=100pt "
+                + "\\setbox0\\vbox{a $$x^y_z$$ \\scriptspace=10pt "
+                + "\\font\\f cmmi5 \\textfont1=\\f \\scriptfont1=\\f "
+                + "b\\par}\\showbox0 \\end";
+        String log = "\\box0=\n"
+                + "\\vbox(10.77173pt+0.0pt)x100.0pt"
+                + ".\\hbox(10.77173pt+0.0pt)x100.0pt..a..space\n"
+                + "10.0pt..\\hbox(10.77173pt+0.0pt)x9.77086pt"
+                + "...\\hbox(10.77173pt+0.0pt)x9.77086pt....x"
+                + "....\\vbox(10.77173pt+0.0pt)x4.05559pt, shifted 3.62892pt"
+                + ".....\\hbox(3.01389pt+1.3611pt)x4.05559pt......y"
+                + ".....\\kern 0.0pt"
+                + ".....\\hbox(3.01389pt+0.0pt)x3.82065pt......z"
+                + "..space 10.0pt..b..\\penalty 10000..\\glue0.0pt\n\n"
+                + "OK\n";
+
+        assertFailure(code, log);
+        assertFailure(getConcurrentProps(), code, log);
+    }
+
+    /**
+     * Test case checking that several display formulas in a paragraph are
+     * typeset in the order of their appearance.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testDisplay2() throws Exception {
+
+        String code = PREPARE + DEFINE_CATCODES
+                + AbstractMathTester.DEFINE_MATH_FONTS + "\\hsize=100pt "
+                + "\\setbox0\\vbox{a $$x$$ b $$y^z$$ c\\par}"
+                + "\\showbox0 \\end";
+        String log = "\\box0=\n"
+                + "\\vbox(8.0pt+1.94444pt)x100.0pt"
+                + ".\\hbox(8.0pt+1.94444pt)x100.0pt..a..space\n"
+                + "10.0pt..\\hbox(4.30554pt+0.0pt)x5.71527pt...x"
+                + "..space 10.0pt..b..space 10.0pt"
+                + "..\\hbox(4.30554pt+1.94444pt)x8.72346pt"
+                + "...\\hbox(4.30554pt+1.94444pt)x8.72346pt....y"
+                + "....\\hbox(3.01389pt+0.0pt)x3.82065pt, shifted -4.12892pt"
+                + ".....z..space 10.0pt..c..\\penalty 10000\n\n"
+                + "OK\n";
+
+        assertFailure(code, log);
+        assertFailure(getConcurrentProps(), code, log);
+    }
+
+    /**
+     * Test case checking that a display formula using a family above 15 is
+     * typeset as with the synchronous typesetter although the font of this
+     * family is not recorded for the worker threads.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testDisplay3() throws Exception {
+
+        setConfig("omega");
+
+        String code = PREPARE + DEFINE_CATCODES
+                + AbstractMathTester.DEFINE_MATH_FONTS + "\\hsize=100pt "
+                + "\\font\\g cmmi10 \\textfont16=\\g "
+                + "\\omathchardef\\x=\"0100078 "
+                + "\\setbox0\\vbox{a $$\\x$$ "
+                + "\\font\\g cmmi5 \\textfont16=\\g "
+                + "b\\par}\\showbox0 \\end";
+        String log = "\\box0=\n"
+                + "\\vbox(8.0pt+0.0pt)x100.0pt"
+                + ".\\hbox(8.0pt+0.0pt)x100.0pt..a..space\n"
+                + "10.0pt..\\hbox(4.30554pt+0.0pt)x5.71527pt...x"
+                + "..space 10.0pt..b..\\penalty 10000..\\glue0.0pt\n\n"
+                + "OK\n";
+
+        assertFailure(code, log);
+        assertFailure(getConcurrentProps(), code, log);
+    }
+
+}
@@ -22,6 +22,7 @@ package de.dante.extex.typesetter.paragraphBuilder;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -43,6 +44,7 @@ import de.dante.extex.interpreter.type.dimen.FixedDimen;
 import de.dante.extex.interpreter.type.font.Font;
 import de.dante.extex.interpreter.type.glue.FixedGlue;
 import de.dante.extex.interpreter.type.glue.Glue;
+import de.dante.extex.interpreter.type.glue.GlueComponent;
 import de.dante.extex.interpreter.type.muskip.Muskip;
 import de.dante.extex.interpreter.type.tokens.Tokens;
 import de.dante.extex.language.Language;
@@ -54,6 +56,7 @@ import de.dante.extex.typesetter.type.Node;
 import de.dante.extex.typesetter.type.NodeList;
 import de.dante.extex.typesetter.type.node.CharNode;
 import de.dante.extex.typesetter.type.node.DiscretionaryNode;
+import de.dante.extex.typesetter.type.node.ExplicitKernNode;
 import de.dante.extex.typesetter.type.node.GlueNode;
 import de.dante.extex.typesetter.type.node.HorizontalListNode;
 import de.dante.extex.typesetter.type.node.PenaltyNode;
@@ -601,7 +604,7 @@ public abstract class AbstractParagraphBuiderTester extends TestCase {
          */
         public FixedGlue getWidth(final UnicodeChar uc) {
 
-            return null;
+            return new Glue(VPT);
         }
 
         /**
@@ -1059,6 +1062,268 @@ public abstract class AbstractParagraphBuiderTester extends TestCase {
         assertEquals(2, list.size());
     }
 
+    /**
+     * Create a rule node of a given width.
+     *
+     * @param pt the width in points
+     *
+     * @return the new rule node
+     */
+    private RuleNode rule(final int pt) {
+
+        return new RuleNode(new Dimen(Dimen.ONE * pt), Dimen.ONE_PT,
+                Dimen.ZERO_PT, tc, true);
+    }
+
+    /**
+     * Append the end of a paragraph with infinite stretchability. Glue at the
+     * end of the list is removed by the paragraph builder. Thus a kern is
+     * appended after it.
+     *
+     * @param nodes the list to append to
+     */
+    private void appendFil(final NodeList nodes) {
+
+        nodes.add(new PenaltyNode(10000));
+        nodes.add(new GlueNode(new Glue(new GlueComponent(0),
+                GlueComponent.ONE_FIL, new GlueComponent(0)), true));
+        nodes.add(new ExplicitKernNode(Dimen.ZERO_PT, true));
+    }
+
+    /**
+     * <testcase>
+     *  Test case checking that the no-break material of a discretionary
+     *  chosen as break is not counted for the following line. The line
+     *  after the discretionary fits exactly; otherwise a third line would be
+     *  needed.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testDiscBreakWidth() throws Exception {
+
+        HorizontalListNode nodes = new HorizontalListNode();
+        nodes.add(rule(23));
+        nodes.add(new DiscretionaryNode(null, null, new HorizontalListNode(
+                rule(10))));
+        nodes.add(rule(13));
+        nodes.add(new GlueNode(new Glue(new GlueComponent(0),
+                new GlueComponent(Dimen.ONE * 10), new GlueComponent(0)),
+                true));
+        nodes.add(rule(9));
+        appendFil(nodes);
+
+        NodeList list = pb.build(nodes);
+
+        assertTrue(list instanceof VerticalListNode);
+        assertEquals(2, list.size());
+    }
+
+    /**
+     * <testcase>
+     *  Test case checking that a discretionary chosen as break does not
+     *  appear again at the start of the next line.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testDiscBreakLineStart() throws Exception {
+
+        HorizontalListNode nodes = new HorizontalListNode();
+        nodes.add(rule(23));
+        nodes.add(new DiscretionaryNode(null, null, new HorizontalListNode(
+                rule(10))));
+        nodes.add(rule(22));
+        appendFil(nodes);
+
+        NodeList list = pb.build(nodes);
+
+        assertTrue(list instanceof VerticalListNode);
+        assertEquals(2, list.size());
+        HorizontalListNode line = (HorizontalListNode) list.get(0);
+        assertEquals(23 * Dimen.ONE, line.get(0).getWidth().getValue());
+        line = (HorizontalListNode) list.get(1);
+        assertTrue(line.get(0) instanceof RuleNode);
+        assertEquals(22 * Dimen.ONE, line.get(0).getWidth().getValue());
+    }
+
+    /**
+     * Create a glue node of 1pt with a given stretchability.
+     *
+     * @param stretch the stretchability in points
+     *
+     * @return the new glue node
+     */
+    private GlueNode glue(final int stretch) {
+
+        return new GlueNode(new Glue(new GlueComponent(Dimen.ONE),
+                new GlueComponent(Dimen.ONE * stretch), new GlueComponent(0)),
+                true);
+    }
+
+    /**
+     * <testcase>
+     *  Test case checking that the glue at which a line is broken is not
+     *  carried over to the start of the next line.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testGlueBreakLineStart() throws Exception {
+
+        HorizontalListNode nodes = new HorizontalListNode();
+        nodes.add(rule(10));
+        nodes.add(glue(20));
+        nodes.add(rule(10));
+        nodes.add(glue(20));
+        nodes.add(rule(22));
+        appendFil(nodes);
+
+        NodeList list = pb.build(nodes);
+
+        assertTrue(list instanceof VerticalListNode);
+        assertEquals(2, list.size());
+        HorizontalListNode line = (HorizontalListNode) list.get(1);
+        assertTrue(line.get(0) instanceof RuleNode);
+        assertEquals(22 * Dimen.ONE, line.get(0).getWidth().getValue());
+    }
+
+    /**
+     * <testcase>
+     *  Test case checking that a new active node gets the fitness class for
+     *  which its demerits have been computed. The second line has to start
+     *  with the rule of 8pt. An active node carrying the fitness class of
+     *  the last line examined leads to a second line starting with the
+     *  rule of 2pt instead.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testFitness() throws Exception {
+
+        HorizontalListNode nodes = new HorizontalListNode();
+        nodes.add(rule(4));
+        nodes.add(glue(5));
+        nodes.add(rule(13));
+        nodes.add(glue(2));
+        nodes.add(rule(2));
+        nodes.add(glue(7));
+        nodes.add(rule(8));
+        nodes.add(glue(4));
+        nodes.add(rule(3));
+        nodes.add(glue(6));
+        nodes.add(rule(4));
+
+        NodeList list = pb.build(nodes);
+
+        assertTrue(list instanceof VerticalListNode);
+        assertEquals(2, list.size());
+        HorizontalListNode line = (HorizontalListNode) list.get(0);
+        assertEquals(13 * Dimen.ONE, line.get(2).getWidth().getValue());
+        line = (HorizontalListNode) list.get(1);
+        assertEquals(8 * Dimen.ONE, line.get(0).getWidth().getValue());
+    }
+
+    /**
+     * <testcase>
+     *  Test case checking that the minimal demerits of all fitness classes
+     *  are reset after the active nodes for a break have been created. A
+     *  value left over from an earlier break leads to an active node
+     *  pointing to the wrong break and an overfull second line.
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testMinimalDemeritsReset() throws Exception {
+
+        HorizontalListNode nodes = new HorizontalListNode();
+        nodes.add(rule(2));
+        nodes.add(glue(0));
+        nodes.add(rule(9));
+        nodes.add(glue(6));
+        nodes.add(rule(7));
+        nodes.add(glue(2));
+        nodes.add(rule(2));
+        nodes.add(glue(6));
+        nodes.add(rule(9));
+        nodes.add(glue(7));
+        nodes.add(rule(8));
+        nodes.add(glue(7));
+        nodes.add(rule(12));
+        nodes.add(glue(6));
+        nodes.add(rule(5));
+
+        NodeList list = pb.build(nodes);
+
+        assertTrue(list instanceof VerticalListNode);
+        assertEquals(3, list.size());
+        HorizontalListNode line = (HorizontalListNode) list.get(1);
+        assertEquals(2 * Dimen.ONE, line.get(0).getWidth().getValue());
+        line = (HorizontalListNode) list.get(2);
+        assertEquals(12 * Dimen.ONE, line.get(0).getWidth().getValue());
+    }
+
+    /**
+     * <testcase>
+     *  Test case checking that the tracing of a new break node shows the
+     *  fitness class of the new active node. The last break is reached
+     *  via a loose line (class 1) while the last line examined is a
+     *  decent one (class 2).
+     * </testcase>
+     *
+     * @throws Exception in case of an error
+     */
+    public void testTracingFitness() throws Exception {
+
+        HorizontalListNode nodes = new HorizontalListNode();
+        nodes.add(rule(4));
+        nodes.add(glue(5));
+        nodes.add(rule(13));
+        nodes.add(glue(2));
+        nodes.add(rule(2));
+        nodes.add(glue(7));
+        nodes.add(rule(8));
+        nodes.add(glue(4));
+        nodes.add(rule(3));
+        nodes.add(glue(6));
+        nodes.add(rule(4));
+
+        final StringBuffer sb = new StringBuffer();
+        Handler handler = new Handler() {
+
+            public void close() {
+
+            }
+
+            public void flush() {
+
+            }
+
+            public void publish(final LogRecord record) {
+
+                sb.append(record.getMessage());
+            }
+        };
+        tracer.addHandler(handler);
+        try {
+            pb.build(nodes);
+        } finally {
+            tracer.removeHandler(handler);
+        }
+
+        StringBuffer breaks = new StringBuffer();
+        String[] lines = sb.toString().split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].startsWith("@@")) {
+                breaks.append(lines[i]).append("\n");
+            }
+        }
+        assertEquals("@@1: line 1.0 t=10000 - > @@0\n"
+                + "@@2: line 1.2 t=4 - > @@0\n"
+                + "@@3: line 2.1 t=11444 - > @@1\n"
+                + "@@4: line 2.1- t=445 - > @@2\n", breaks.toString());
+    }
+
     /**
      * This method provides an indicator whether or not the tracing should be
      * written to the console.
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+package de.dante.extex.typesetter.paragraphBuilder.texImpl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import de.dante.extex.font.type.other.NullFont;
+import de.dante.extex.interpreter.context.tc.TypesettingContext;
+import de.dante.extex.interpreter.context.tc.TypesettingContextFactory;
+import de.dante.extex.interpreter.context.tc.TypesettingContextImpl;
+import de.dante.extex.interpreter.type.count.FixedCount;
+import de.dante.extex.interpreter.type.dimen.FixedDimen;
+import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.interpreter.type.glue.FixedGlue;
+import de.dante.extex.interpreter.type.muskip.Muskip;
+import de.dante.extex.scanner.type.token.TokenFactory;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphShape;
+import de.dante.extex.typesetter.type.node.CharNode;
+import de.dante.extex.typesetter.type.node.HorizontalListNode;
+import de.dante.util.UnicodeChar;
+import de.dante.util.exception.GeneralException;
+
+/**
+ * This is a test suite for the options used when a paragraph is hyphenated
+ * after the interpreter has continued.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class HyphenationOptionsTest extends TestCase {
+
+    /**
+     * This is a mock implementation of the options with modifiable
+     * <tt>\lccode</tt>s.
+     */
+    private static class MockOptions implements TypesetterOptions {
+
+        /**
+         * The field <tt>lccodes</tt> contains the <tt>\lccode</tt>s set.
+         */
+        private Map lccodes = new HashMap();
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getCountOption(
+         *      java.lang.String)
+         */
+        public FixedCount getCountOption(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getDimenOption(
+         *      java.lang.String)
+         */
+        public FixedDimen getDimenOption(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getFont(
+         *      java.lang.String)
+         */
+        public Font getFont(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getGlueOption(
+         *      java.lang.String)
+         */
+        public FixedGlue getGlueOption(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getLccode(
+         *      de.dante.util.UnicodeChar)
+         */
+        public UnicodeChar getLccode(final UnicodeChar uc) {
+
+            UnicodeChar lc = (UnicodeChar) lccodes.get(uc);
+            return lc != null ? lc : uc;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getMuskip(
+         *      java.lang.String)
+         */
+        public Muskip getMuskip(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getNamespace()
+         */
+        public String getNamespace() {
+
+            return "";
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getParshape()
+         */
+        public ParagraphShape getParshape() {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getTokenFactory()
+         */
+        public TokenFactory getTokenFactory() {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getTypesettingContext()
+         */
+        public TypesettingContext getTypesettingContext() {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getTypesettingContextFactory()
+         */
+        public TypesettingContextFactory getTypesettingContextFactory() {
+
+            return null;
+        }
+
+        /**
+         * Setter for an <tt>\lccode</tt>.
+         *
+         * @param uc the character
+         * @param lc the lower case equivalent
+         */
+        public void setLccode(final UnicodeChar uc, final UnicodeChar lc) {
+
+            lccodes.put(uc, lc);
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#setCountOption(
+         *      java.lang.String, long)
+         */
+        public void setCountOption(final String name, final long value)
+                throws GeneralException {
+
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#setParshape(
+         *      de.dante.extex.typesetter.paragraphBuilder.ParagraphShape)
+         */
+        public void setParshape(final ParagraphShape shape) {
+
+        }
+    }
+
+    /**
+     * Command line interface.
+     *
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(HyphenationOptionsTest.class);
+    }
+
+    /**
+     * The field <tt>A</tt> contains the character A.
+     */
+    private static final UnicodeChar A = UnicodeChar.get('A');
+
+    /**
+     * The field <tt>B</tt> contains the character B.
+     */
+    private static final UnicodeChar B = UnicodeChar.get('B');
+
+    /**
+     * The field <tt>X</tt> contains the character x.
+     */
+    private static final UnicodeChar X = UnicodeChar.get('x');
+
+    /**
+     * Test that the <tt>\lccode</tt> of a character in the paragraph is not
+     * influenced by an assignment after the options have been created.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testRecorded() throws Exception {
+
+        MockOptions options = new MockOptions();
+        options.setLccode(A, UnicodeChar.get('a'));
+        TypesettingContext tc = new TypesettingContextImpl(new NullFont());
+        HorizontalListNode nodes = new HorizontalListNode();
+        nodes.add(new CharNode(tc, A));
+
+        TypesetterOptions hyphenationOptions = new HyphenationOptions(
+                options, nodes);
+        options.setLccode(A, X);
+
+        assertEquals(UnicodeChar.get('a'), hyphenationOptions.getLccode(A));
+        assertEquals(X, options.getLccode(A));
+    }
+
+    /**
+     * Test that the <tt>\lccode</tt> of a character not contained in the
+     * paragraph is taken from the current options.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testNotRecorded() throws Exception {
+
+        MockOptions options = new MockOptions();
+        TypesettingContext tc = new TypesettingContextImpl(new NullFont());
+        HorizontalListNode nodes = new HorizontalListNode();
+        nodes.add(new CharNode(tc, A));
+
+        TypesetterOptions hyphenationOptions = new HyphenationOptions(
+                options, nodes);
+        options.setLccode(B, X);
+
+        assertEquals(X, hyphenationOptions.getLccode(B));
+    }
+
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.extex.typesetter.type.noad.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import de.dante.extex.font.type.other.NullFont;
+import de.dante.extex.interpreter.context.tc.TypesettingContext;
+import de.dante.extex.interpreter.context.tc.TypesettingContextFactory;
+import de.dante.extex.interpreter.primitives.register.font.NumberedFont;
+import de.dante.extex.interpreter.type.count.FixedCount;
+import de.dante.extex.interpreter.type.dimen.Dimen;
+import de.dante.extex.interpreter.type.dimen.FixedDimen;
+import de.dante.extex.interpreter.type.font.Font;
+import de.dante.extex.interpreter.type.glue.FixedGlue;
+import de.dante.extex.interpreter.type.muskip.Muskip;
+import de.dante.extex.scanner.type.token.TokenFactory;
+import de.dante.extex.typesetter.TypesetterOptions;
+import de.dante.extex.typesetter.exception.TypesetterException;
+import de.dante.extex.typesetter.paragraphBuilder.ParagraphShape;
+import de.dante.extex.typesetter.type.noad.StyleNoad;
+import de.dante.util.UnicodeChar;
+import de.dante.util.exception.GeneralException;
+
+/**
+ * This is a test suite for the retrieval of font parameters in the math
+ * context.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class MathContextTest extends TestCase {
+
+    /**
+     * This is a mock implementation of the options with modifiable fonts.
+     */
+    private static class MockOptions implements TypesetterOptions {
+
+        /**
+         * The field <tt>fonts</tt> contains the fonts set.
+         */
+        private Map fonts = new HashMap();
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getCountOption(
+         *      java.lang.String)
+         */
+        public FixedCount getCountOption(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getDimenOption(
+         *      java.lang.String)
+         */
+        public FixedDimen getDimenOption(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getFont(
+         *      java.lang.String)
+         */
+        public Font getFont(final String name) {
+
+            return (Font) fonts.get(name);
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getGlueOption(
+         *      java.lang.String)
+         */
+        public FixedGlue getGlueOption(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getLccode(
+         *      de.dante.util.UnicodeChar)
+         */
+        public UnicodeChar getLccode(final UnicodeChar uc) {
+
+            return uc;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getMuskip(
+         *      java.lang.String)
+         */
+        public Muskip getMuskip(final String name) {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getNamespace()
+         */
+        public String getNamespace() {
+
+            return "";
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getParshape()
+         */
+        public ParagraphShape getParshape() {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getTokenFactory()
+         */
+        public TokenFactory getTokenFactory() {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getTypesettingContext()
+         */
+        public TypesettingContext getTypesettingContext() {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#getTypesettingContextFactory()
+         */
+        public TypesettingContextFactory getTypesettingContextFactory() {
+
+            return null;
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#setCountOption(
+         *      java.lang.String, long)
+         */
+        public void setCountOption(final String name, final long value)
+                throws GeneralException {
+
+        }
+
+        /**
+         * Setter for a font of a family, e.g. <tt>\textfont2</tt>.
+         *
+         * @param name the name of the font register, e.g. <tt>textfont</tt>
+         * @param family the number of the family
+         * @param font the font
+         */
+        public void setFont(final String name, final int family,
+                final Font font) {
+
+            fonts.put(NumberedFont.key(this, name, Integer.toString(family)),
+                    font);
+        }
+
+        /**
+         * @see de.dante.extex.typesetter.TypesetterOptions#setParshape(
+         *      de.dante.extex.typesetter.paragraphBuilder.ParagraphShape)
+         */
+        public void setParshape(final ParagraphShape shape) {
+
+        }
+    }
+
+    /**
+     * The constant <tt>PARAMETERS</tt> contains some parameters from the
+     * symbol font and the extension font.
+     */
+    private static final MathFontParameter[] PARAMETERS = {
+            MathFontParameter.MATH_X_HEIGHT, MathFontParameter.MATH_QUAD,
+            MathFontParameter.SUP1, MathFontParameter.AXIS_HEIGHT,
+            MathFontParameter.DEFAULT_RULE_THICKNESS,
+            MathFontParameter.BIG_OP_SPACING5};
+
+    /**
+     * The constant <tt>STYLES</tt> contains the styles of the three sizes.
+     */
+    private static final StyleNoad[] STYLES = {StyleNoad.TEXTSTYLE,
+            StyleNoad.SCRIPTSTYLE, StyleNoad.SCRIPTSCRIPTSTYLE};
+
+    /**
+     * Command line interface.
+     *
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(MathContextTest.class);
+    }
+
+    /**
+     * Create a font with distinct font parameters from 1 to 22. The
+     * parameter <i>n</i> has the value <i>base</i>+<i>n</i>.
+     *
+     * @param base the base value of the parameters
+     *
+     * @return the new font
+     */
+    private static Font makeFont(final long base) {
+
+        Font font = new NullFont();
+        for (int i = 1; i <= 22; i++) {
+            font.setFontDimen(Integer.toString(i), new Dimen(base + i));
+        }
+        return font;
+    }
+
+    /**
+     * Create options with all families 2 and 3 set to distinct fonts.
+     *
+     * @return the new options
+     */
+    private static MockOptions makeOptions() {
+
+        MockOptions options = new MockOptions();
+        for (int i = 0; i < STYLES.length; i++) {
+            String name = STYLES[i].getFontName();
+            options.setFont(name, 2, makeFont(100 * i + 1000));
+            options.setFont(name, 3, makeFont(100 * i + 2000));
+        }
+        return options;
+    }
+
+    /**
+     * Assert that the math context delivers the parameters of the fonts
+     * currently set for all sizes.
+     *
+     * @param options the options
+     * @param mc the math context
+     *
+     * @throws Exception in case of an error
+     */
+    private static void assertParameters(final TypesetterOptions options,
+            final MathContext mc) throws Exception {
+
+        for (int i = 0; i < STYLES.length; i++) {
+            for (int j = 0; j < PARAMETERS.length; j++) {
+                MathFontParameter p = PARAMETERS[j];
+                Font font = options.getFont(NumberedFont.key(options,
+                        STYLES[i].getFontName(), p.inSymbol() ? "2" : "3"));
+                assertEquals(font.getFontDimen(p.getNo()), mc.mathParameter(
+                        p, STYLES[i]));
+            }
+        }
+    }
+
+    /**
+     * Test that the indices of the parameters are distinct and less than
+     * the size.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testIndex() throws Exception {
+
+        boolean[] seen = new boolean[MathFontParameter.SIZE];
+        java.lang.reflect.Field[] fields = MathFontParameter.class
+                .getFields();
+        int n = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].getType() == MathFontParameter.class) {
+                int index = ((MathFontParameter) fields[i].get(null))
+                        .getIndex();
+                assertFalse(seen[index]);
+                seen[index] = true;
+                n++;
+            }
+        }
+        assertEquals(MathFontParameter.SIZE, n);
+    }
+
+    /**
+     * Test that the cached parameters are the ones of the fonts in all
+     * sizes, also when they are requested repeatedly and with varying
+     * styles.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testDirect() throws Exception {
+
+        MockOptions options = makeOptions();
+        MathContext mc = new MathContext(StyleNoad.TEXTSTYLE, options);
+
+        assertParameters(options, mc);
+        assertParameters(options, mc);
+        assertEquals(options.getFont(NumberedFont.key(options, "scriptfont",
+                "2")).getFontDimen("6"), mc.mathParameter(
+                MathFontParameter.MATH_QUAD, StyleNoad.SCRIPTSTYLE));
+    }
+
+    /**
+     * Test that the next formula uses the parameters of the new font when a
+     * font of a family is replaced.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testReassign() throws Exception {
+
+        MockOptions options = makeOptions();
+        assertParameters(options, new MathContext(StyleNoad.TEXTSTYLE,
+                options));
+
+        options.setFont("textfont", 2, makeFont(5000));
+        options.setFont("scriptfont", 3, makeFont(6000));
+        MathContext mc = new MathContext(StyleNoad.TEXTSTYLE, options);
+        assertParameters(options, mc);
+        assertEquals(5006, mc.mathParameter(MathFontParameter.MATH_QUAD)
+                .getValue());
+
+        options.setFont("scriptfont", 2, options.getFont(NumberedFont.key(
+                options, "textfont", "2")));
+        assertParameters(options, new MathContext(StyleNoad.TEXTSTYLE,
+                options));
+    }
+
+    /**
+     * Test that the fonts are looked up once per formula.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testSameFormula() throws Exception {
+
+        MockOptions options = makeOptions();
+        MathContext mc = new MathContext(StyleNoad.TEXTSTYLE, options);
+        assertEquals(1006, mc.mathParameter(MathFontParameter.MATH_QUAD)
+                .getValue());
+
+        options.setFont("textfont", 2, makeFont(5000));
+        assertEquals(1006, mc.mathParameter(MathFontParameter.MATH_QUAD)
+                .getValue());
+    }
+
+    /**
+     * Test that the parameters retrieved from a font are shared by all
+     * formulas using this font.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testShared() throws Exception {
+
+        MockOptions options = makeOptions();
+        Font font = options.getFont(NumberedFont.key(options, "textfont",
+                "2"));
+        assertParameters(options, new MathContext(StyleNoad.TEXTSTYLE,
+                options));
+
+        font.setFontDimen("6", new Dimen(42));
+        assertEquals(1006, new MathContext(StyleNoad.TEXTSTYLE, options)
+                .mathParameter(MathFontParameter.MATH_QUAD).getValue());
+    }
+
+    /**
+     * Test that the parameters of a font are retrieved again when they have
+     * been discarded.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testDiscard() throws Exception {
+
+        MockOptions options = makeOptions();
+        Font font = options.getFont(NumberedFont.key(options, "textfont",
+                "2"));
+        assertParameters(options, new MathContext(StyleNoad.TEXTSTYLE,
+                options));
+
+        font.setFontDimen("6", new Dimen(42));
+        MathContext.discard(font);
+        MathContext mc = new MathContext(StyleNoad.TEXTSTYLE, options);
+        assertEquals(42, mc.mathParameter(MathFontParameter.MATH_QUAD)
+                .getValue());
+        assertParameters(options, mc);
+    }
+
+    /**
+     * Test that a missing font leads to an error.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testMissing() throws Exception {
+
+        MockOptions options = makeOptions();
+        assertParameters(options, new MathContext(StyleNoad.TEXTSTYLE,
+                options));
+        options.setFont("textfont", 2, null);
+        MathContext mc = new MathContext(StyleNoad.TEXTSTYLE, options);
+
+        try {
+            mc.mathParameter(MathFontParameter.MATH_QUAD);
+            fail("exception expected");
+        } catch (TypesetterException e) {
+            // this is expected
+        }
+    }
+
+}
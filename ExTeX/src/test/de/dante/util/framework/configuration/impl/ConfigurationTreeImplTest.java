@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.framework.configuration.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.Iterator;
+
+import junit.framework.TestCase;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.exception.ConfigurationNotFoundException;
+
+/**
+ * Test cases for the immutable configuration and its cache.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class ConfigurationTreeImplTest extends TestCase {
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(ConfigurationTreeImplTest.class);
+    }
+
+    /**
+     * Parse a configuration from a string.
+     *
+     * @param xml the XML text
+     *
+     * @return the configuration
+     *
+     * @throws Exception in case of an error
+     */
+    private static ConfigurationTreeImpl parse(final String xml)
+            throws Exception {
+
+        return ConfigurationCache.parse(new ByteArrayInputStream(xml
+                .getBytes("ISO-8859-1")), "test", "");
+    }
+
+    /**
+     * Attributes, values, and sub-configurations are accessible.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testAccess1() throws Exception {
+
+        ConfigurationTreeImpl cfg = parse("<cfg a=\"1\">"
+                + "<ext>.tex</ext><x name=\"one\"/><ext>.sty</ext>"
+                + "<n>12</n>text</cfg>");
+
+        assertEquals("1", cfg.getAttribute("a"));
+        assertNull(cfg.getAttribute("b"));
+        assertEquals("text", cfg.getValue());
+        assertEquals(".tex", cfg.getValue("ext"));
+        assertEquals("", cfg.getValue("none"));
+        assertEquals(12, cfg.getValueAsInteger("n", 0));
+        assertEquals(7, cfg.getValueAsInteger("ext", 7));
+        assertEquals(2, cfg.getValues("ext").size());
+        assertEquals(".sty", cfg.getValues("ext").get(1));
+        assertEquals("one", cfg.getConfiguration("x").getAttribute("name"));
+        assertNull(cfg.findConfiguration("y"));
+        assertEquals("document(\"test\")/cfg/x", cfg.getConfiguration("x")
+                .toString());
+    }
+
+    /**
+     * A missing sub-configuration leads to an exception.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testAccess2() throws Exception {
+
+        try {
+            parse("<cfg/>").getConfiguration("x");
+            fail("exception expected");
+        } catch (ConfigurationNotFoundException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * The iterators deliver the sub-configurations in document order.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testIterator1() throws Exception {
+
+        ConfigurationTreeImpl cfg = parse("<cfg><a v=\"1\"/> <b/> "
+                + "<a v=\"2\"/></cfg>");
+        Iterator iterator = cfg.iterator("a");
+        assertEquals("1", ((Configuration) iterator.next()).getAttribute("v"));
+        assertEquals("2", ((Configuration) iterator.next()).getAttribute("v"));
+        assertFalse(iterator.hasNext());
+
+        iterator = cfg.iterator();
+        assertEquals("a", ((ConfigurationTreeImpl) iterator.next()).getName());
+        assertEquals("b", ((ConfigurationTreeImpl) iterator.next()).getName());
+        assertEquals("a", ((ConfigurationTreeImpl) iterator.next()).getName());
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * A resource is parsed once and the <tt>src</tt> attribute is followed.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testCache1() throws Exception {
+
+        ConfigurationTreeImpl cfg = ConfigurationCache
+                .getInstance("config/extex.xml");
+        assertSame(cfg, ConfigurationCache.getInstance("config/extex.xml"));
+
+        Configuration interpreter = cfg.getConfiguration("Interpreter");
+        Configuration unit = (Configuration) interpreter.iterator("unit")
+                .next();
+        assertEquals("tex", unit.getAttribute("name"));
+        assertSame(unit, interpreter.iterator("unit").next());
+    }
+
+    /**
+     * A snapshot can be written and read again.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testSnapshot1() throws Exception {
+
+        ConfigurationCache.clear();
+        ConfigurationTreeImpl cfg = ConfigurationCache
+                .getInstance("config/unit/tex.xml");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConfigurationCache.writeSnapshot(out);
+
+        ConfigurationCache.clear();
+        ConfigurationCache.readSnapshot(new ByteArrayInputStream(out
+                .toByteArray()));
+        ConfigurationTreeImpl c2 = ConfigurationCache
+                .getInstance("config/unit/tex.xml");
+        assertNotSame(cfg, c2);
+        assertEquals(cfg.toString(), c2.toString());
+        assertEquals(cfg.getValues("primitives").size(), c2.getValues(
+                "primitives").size());
+        assertEquals("100", c2.getConfiguration("primitives")
+                .getConfiguration("define").getValue());
+    }
+
+    /**
+     * Write a file.
+     *
+     * @param file the file
+     * @param content the content
+     * @param lastModified the modification time
+     *
+     * @throws Exception in case of an error
+     */
+    private static void write(final File file, final String content,
+            final long lastModified) throws Exception {
+
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+        file.setLastModified(lastModified);
+    }
+
+    /**
+     * A modified resource is parsed again and a <tt>src</tt> reference to it
+     * is resolved again.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testCache2() throws Exception {
+
+        URL url = ConfigurationTreeImplTest.class
+                .getResource("ConfigurationTreeImplTest.class");
+        if (!"file".equals(url.getProtocol())) {
+            return;
+        }
+        File dir = new File(new URI(url.toString())).getParentFile();
+        File outer = new File(dir, "cachetest-outer.xml");
+        File inner = new File(dir, "cachetest-inner.xml");
+        String pkg = "de/dante/util/framework/configuration/impl/";
+        long time = (System.currentTimeMillis() / 1000 - 100) * 1000;
+
+        try {
+            write(outer, "<cfg><inner src=\"cachetest-inner\"/></cfg>", time);
+            write(inner, "<inner a=\"1\"/>", time);
+            ConfigurationTreeImpl cfg = ConfigurationCache.getInstance(pkg
+                    + "cachetest-outer");
+            assertEquals("1", cfg.getConfiguration("inner").getAttribute("a"));
+
+            write(inner, "<inner a=\"2\"/>", time + 10000);
+            ConfigurationTreeImpl c2 = ConfigurationCache.getInstance(pkg
+                    + "cachetest-outer");
+            assertSame(cfg, c2);
+            assertEquals("2", c2.getConfiguration("inner").getAttribute("a"));
+
+            write(outer, "<cfg><inner a=\"3\"/></cfg>", time + 10000);
+            c2 = ConfigurationCache.getInstance(pkg + "cachetest-outer");
+            assertNotSame(cfg, c2);
+            assertEquals("3", c2.getConfiguration("inner").getAttribute("a"));
+        } finally {
+            outer.delete();
+            inner.delete();
+            ConfigurationCache.clear();
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.resource;
+
+import java.io.InputStream;
+import java.net.URL;
+
+import junit.framework.TestCase;
+import de.dante.util.framework.configuration.exception.ConfigurationException;
+
+/**
+ * Test for the caching resource finder.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class CachingFinderTest extends TestCase {
+
+    /**
+     * This finder locates the resource <tt>found</tt> only and counts the
+     * searches.
+     */
+    private static class CountingFinder
+            implements
+                ResourceFinder,
+                ResourceLocator {
+
+        /**
+         * The field <tt>count</tt> contains the number of searches.
+         */
+        private int count = 0;
+
+        /**
+         * @see de.dante.util.resource.ResourceFinder#enableTracing(boolean)
+         */
+        public void enableTracing(final boolean flag) {
+
+        }
+
+        /**
+         * @see de.dante.util.resource.ResourceFinder#findResource(
+         *      java.lang.String, java.lang.String)
+         */
+        public InputStream findResource(final String name, final String type)
+                throws ConfigurationException {
+
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @see de.dante.util.resource.ResourceLocator#locateResource(
+         *      java.lang.String, java.lang.String)
+         */
+        public URL locateResource(final String name, final String type)
+                throws ConfigurationException {
+
+            count++;
+            if ("found".equals(name)) {
+                return CachingFinderTest.class
+                        .getResource("CachingFinderTest.class");
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(CachingFinderTest.class);
+    }
+
+    /**
+     * Test that a successful search is performed only once.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testHit() throws Exception {
+
+        CountingFinder counting = new CountingFinder();
+        CachingFinder finder = new CachingFinder(false);
+        finder.add(counting);
+
+        for (int i = 0; i < 3; i++) {
+            InputStream stream = finder.findResource("found", "tex");
+            assertNotNull(stream);
+            stream.close();
+        }
+        assertEquals(1, counting.count);
+        assertEquals(3, finder.getLookups());
+        assertEquals(2, finder.getHits());
+        assertEquals(2, finder.getSaved());
+    }
+
+    /**
+     * Test that a failed search is performed only once.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testMiss() throws Exception {
+
+        CountingFinder counting = new CountingFinder();
+        CachingFinder finder = new CachingFinder(false);
+        finder.add(counting);
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(finder.findResource("missing", "tex"));
+        }
+        assertEquals(1, counting.count);
+        assertEquals(2, finder.getNegativeHits());
+        assertEquals(1, finder.getMisses());
+    }
+
+    /**
+     * Test that the type is part of the key.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testType() throws Exception {
+
+        CountingFinder counting = new CountingFinder();
+        CachingFinder finder = new CachingFinder(false);
+        finder.add(counting);
+
+        assertNull(finder.findResource("missing", "tex"));
+        assertNull(finder.findResource("missing", "fmt"));
+        assertEquals(2, counting.count);
+    }
+
+    /**
+     * Test that clearing the cache forces a new search.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testClear() throws Exception {
+
+        CountingFinder counting = new CountingFinder();
+        CachingFinder finder = new CachingFinder(true);
+        finder.add(counting);
+
+        assertNull(finder.findResource("missing", "tex"));
+        finder.clear();
+        assertNull(finder.findResource("missing", "tex"));
+        assertEquals(2, counting.count);
+    }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.resource;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.OutputStream;
+import java.io.IOException;
+import java.io.Writer;
+
+import junit.framework.TestCase;
+
+/**
+ * Test for the file name index.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class FileIndexTest extends TestCase {
+
+    /**
+     * The constant <tt>LSR</tt> contains the contents of the ls-R file.
+     */
+    private static final String LSR = "% ls-R -- filename database\n"
+            + "./:\n" + "ls-R\n" + "fonts\n" + "tex\n" + "\n"
+            + "./fonts:\n" + "cmr10.tfm\n" + "cmr12.tfm\n" + "\n"
+            + "./tex:\n" + "plain.tex\n" + "cmr10.tfm\n";
+
+    /**
+     * The field <tt>dir</tt> contains the temporary directory.
+     */
+    private File dir;
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(FileIndexTest.class);
+    }
+
+    /**
+     * Remove a directory tree.
+     *
+     * @param file the root of the tree
+     */
+    private void delete(final File file) {
+
+        File[] files = file.listFiles();
+        for (int i = 0; files != null && i < files.length; i++) {
+            delete(files[i]);
+        }
+        file.delete();
+    }
+
+    /**
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+
+        dir = File.createTempFile("index", "");
+        dir.delete();
+        new File(dir, "fonts").mkdirs();
+        new File(dir, "tex").mkdirs();
+        touch(new File(dir, "fonts/cmr10.tfm"));
+        touch(new File(dir, "fonts/cmr12.tfm"));
+        touch(new File(dir, "tex/plain.tex"));
+        touch(new File(dir, "tex/cmr10.tfm"));
+        Writer w = new FileWriter(new File(dir, "ls-R"));
+        w.write(LSR);
+        w.close();
+    }
+
+    /**
+     * @see junit.framework.TestCase#tearDown()
+     */
+    protected void tearDown() throws Exception {
+
+        delete(dir);
+    }
+
+    /**
+     * Create an empty file.
+     *
+     * @param file the file
+     *
+     * @throws IOException in case of an error
+     */
+    private void touch(final File file) throws IOException {
+
+        new FileWriter(file).close();
+    }
+
+    /**
+     * Test an index built from an ls-R file.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testLsr() throws Exception {
+
+        File file = new File(dir, "ls-R.idx");
+        FileIndex.buildFromLsr(new File(dir, "ls-R"), file);
+        FileIndex index = new FileIndex(file);
+
+        File[] files = index.lookup("cmr10.tfm");
+        assertEquals(2, files.length);
+        assertEquals(new File(dir, "fonts/cmr10.tfm").getAbsoluteFile(),
+                files[0]);
+        assertEquals(new File(dir, "tex/cmr10.tfm").getAbsoluteFile(),
+                files[1]);
+        assertEquals(1, index.lookup("plain.tex").length);
+        assertEquals(0, index.lookup("plain").length);
+        assertEquals(0, index.lookup("zzz").length);
+        assertEquals(0, index.lookup("").length);
+    }
+
+    /**
+     * Test an index built by traversing the directory tree.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testTree() throws Exception {
+
+        File file = new File(dir, "ls-R.idx");
+        FileIndex.buildFromTree(dir, file);
+        FileIndex index = new FileIndex(file);
+
+        assertEquals(2, index.lookup("cmr10.tfm").length);
+        File[] files = index.lookup("cmr12.tfm");
+        assertEquals(1, files.length);
+        assertTrue(files[0].canRead());
+    }
+
+    /**
+     * Test that non-ASCII names in an ls-R file are decoded with the given
+     * encoding.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testLsrEncoding() throws Exception {
+
+        String name = "\u00fcber\u20ac.tex";
+        File lsr = new File(dir, "ls-R");
+        OutputStream out = new FileOutputStream(lsr);
+        out.write(("./tex:\n" + name + "\n").getBytes("UTF-8"));
+        out.close();
+        File file = new File(dir, "ls-R.idx");
+
+        FileIndex.buildFromLsr(lsr, file);
+        FileIndex index = new FileIndex(file);
+        assertEquals(1, index.lookup(name).length);
+
+        out = new FileOutputStream(lsr);
+        out.write(("./tex:\n\u00fcber.tex\n").getBytes("ISO-8859-1"));
+        out.close();
+        FileIndex.buildFromLsr(lsr, file, "ISO-8859-1");
+        index = new FileIndex(file);
+        assertEquals(1, index.lookup("\u00fcber.tex").length);
+    }
+
+    /**
+     * Test that an existing index is replaced and that no temporary file is
+     * left behind.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testRebuild() throws Exception {
+
+        File file = new File(dir, "ls-R.idx");
+        FileIndex.buildFromTree(dir, file);
+        // now the index contains itself
+        FileIndex.buildFromTree(dir, file);
+        int size = new FileIndex(file).getSize();
+        touch(new File(dir, "tex/extra.tex"));
+        FileIndex.buildFromTree(dir, file);
+
+        assertEquals(size + 1, new FileIndex(file).getSize());
+        String[] names = dir.list();
+        for (int i = 0; i < names.length; i++) {
+            assertFalse(names[i], names[i].endsWith(".tmp"));
+        }
+    }
+
+    /**
+     * Test that an invalid index file is rejected.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testInvalid() throws Exception {
+
+        try {
+            new FileIndex(new File(dir, "ls-R"));
+            fail();
+        } catch (IOException e) {
+            assertTrue(true);
+        }
+    }
+
+}
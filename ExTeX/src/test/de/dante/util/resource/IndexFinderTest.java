@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+import de.dante.util.framework.configuration.Configuration;
+import de.dante.util.framework.configuration.impl.ConfigurationXMLImpl;
+
+/**
+ * Test for the resource finder based on file name indexes.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class IndexFinderTest extends TestCase {
+
+    /**
+     * The constant <tt>LSR</tt> contains the contents of the ls-R file.
+     */
+    private static final String LSR = "% ls-R -- filename database\n"
+            + "./:\n" + "ls-R\n" + "tex\n" + "\n"
+            + "./tex:\n" + "plain.tex\n";
+
+    /**
+     * The field <tt>dir</tt> contains the temporary directory.
+     */
+    private File dir;
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(IndexFinderTest.class);
+    }
+
+    /**
+     * Remove a directory tree.
+     *
+     * @param file the root of the tree
+     */
+    private void delete(final File file) {
+
+        File[] files = file.listFiles();
+        for (int i = 0; files != null && i < files.length; i++) {
+            delete(files[i]);
+        }
+        file.delete();
+    }
+
+    /**
+     * Create an index finder for the temporary directory.
+     *
+     * @param update the value of the attribute <tt>update</tt>
+     *
+     * @return the new finder
+     *
+     * @throws Exception in case of an error
+     */
+    private IndexFinder makeFinder(final boolean update) throws Exception {
+
+        String xml = "<Finder default=\"default\" index=\"ls-R.idx\" update=\""
+                + update + "\">" + "<path property=\"test.path\"/>"
+                + "<tex><extension/><extension>.tex</extension></tex>"
+                + "<default><extension/></default>" + "</Finder>";
+        InputStream stream = new ByteArrayInputStream(xml.getBytes());
+        Configuration cfg = new ConfigurationXMLImpl(stream, "test");
+        IndexFinder finder = new IndexFinder(cfg);
+        Properties properties = new Properties();
+        properties.setProperty("test.path", dir.toString());
+        finder.setProperties(properties);
+        return finder;
+    }
+
+    /**
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+
+        dir = File.createTempFile("index", "");
+        dir.delete();
+        new File(dir, "tex").mkdirs();
+        touch(new File(dir, "tex/plain.tex"));
+        Writer w = new FileWriter(new File(dir, "ls-R"));
+        w.write(LSR);
+        w.close();
+    }
+
+    /**
+     * @see junit.framework.TestCase#tearDown()
+     */
+    protected void tearDown() throws Exception {
+
+        delete(dir);
+    }
+
+    /**
+     * Create an empty file.
+     *
+     * @param file the file
+     *
+     * @throws IOException in case of an error
+     */
+    private void touch(final File file) throws IOException {
+
+        new FileWriter(file).close();
+    }
+
+    /**
+     * Test that a tree with an ls-R file but without an index is searched
+     * although updates are disabled and that no index is written into the
+     * tree.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testMissingIndex() throws Exception {
+
+        IndexFinder finder = makeFinder(false);
+
+        InputStream stream = finder.findResource("plain", "tex");
+        assertNotNull(stream);
+        stream.close();
+        assertNull(finder.findResource("zzz", "tex"));
+        assertFalse(new File(dir, "ls-R.idx").exists());
+    }
+
+    /**
+     * Test that a missing index is written next to the ls-R file if updates
+     * are enabled.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testUpdate() throws Exception {
+
+        IndexFinder finder = makeFinder(true);
+
+        InputStream stream = finder.findResource("plain", "tex");
+        assertNotNull(stream);
+        stream.close();
+        assertTrue(new File(dir, "ls-R.idx").exists());
+    }
+
+    /**
+     * Test that an index which is up to date is used as it is.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testExistingIndex() throws Exception {
+
+        File lsr = new File(dir, "ls-R");
+        lsr.delete();
+        FileIndex.buildFromTree(dir, new File(dir, "ls-R.idx"));
+        IndexFinder finder = makeFinder(false);
+
+        InputStream stream = finder.findResource("plain", "tex");
+        assertNotNull(stream);
+        stream.close();
+    }
+
+}
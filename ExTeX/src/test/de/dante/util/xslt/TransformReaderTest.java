@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package de.dante.util.xslt;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.stream.StreamSource;
+
+import junit.framework.TestCase;
+
+/**
+ * This is a test suite for the streaming transformation and the cache of
+ * compiled stylesheets.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class TransformReaderTest extends TestCase {
+
+    /**
+     * The constant <tt>XSL</tt> contains a stylesheet which writes the text
+     * of each <tt>p</tt> element on a line of its own.
+     */
+    private static final String XSL = "<xsl:stylesheet version=\"1.0\""
+            + " xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+            + "<xsl:output method=\"text\"/>"
+            + "<xsl:template match=\"p\"><xsl:value-of select=\".\"/>"
+            + "<xsl:text>&#10;</xsl:text></xsl:template>"
+            + "</xsl:stylesheet>";
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(TransformReaderTest.class);
+    }
+
+    /**
+     * Read all characters from a transform reader.
+     *
+     * @param reader the reader
+     *
+     * @return the characters read
+     *
+     * @throws IOException in case of an error
+     */
+    private static String readAll(final TransformReader reader)
+            throws IOException {
+
+        StringBuffer sb = new StringBuffer();
+        char[] buffer = new char[100];
+        for (int n = reader.read(buffer); n >= 0; n = reader.read(buffer)) {
+            sb.append(buffer, 0, n);
+        }
+        reader.close();
+        return sb.toString();
+    }
+
+    /**
+     * Create a compiled stylesheet.
+     *
+     * @return the compiled stylesheet
+     *
+     * @throws Exception in case of an error
+     */
+    private static Templates templates() throws Exception {
+
+        return TemplatesCache.compile(new StreamSource(new StringReader(XSL)),
+                null);
+    }
+
+    /**
+     * Test that a result much larger than the buffer is delivered
+     * completely and in order.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testStream1() throws Exception {
+
+        StringBuffer xml = new StringBuffer("<doc>");
+        StringBuffer expected = new StringBuffer();
+        for (int i = 0; i < 2000; i++) {
+            xml.append("<p>line ").append(i).append("</p>");
+            expected.append("line ").append(i).append('\n');
+        }
+        xml.append("</doc>");
+
+        TransformReader reader = TransformReader.newInstance(templates()
+                .newTransformer(), new StreamSource(new StringReader(xml
+                .toString())), 64);
+        assertEquals(expected.toString(), readAll(reader));
+    }
+
+    /**
+     * Test that an error in the input is reported to the reader.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testError1() throws Exception {
+
+        TransformReader reader = TransformReader.newInstance(templates()
+                .newTransformer(), new StreamSource(new StringReader(
+                "<doc><p>abc</p>")));
+        try {
+            readAll(reader);
+            assertTrue(false);
+        } catch (IOException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Test that the stream of the source is closed when the transformation
+     * is complete.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testCloseSource1() throws Exception {
+
+        final boolean[] closed = new boolean[1];
+        byte[] xml = "<doc><p>abc</p></doc>".getBytes("ISO-8859-1");
+        ByteArrayInputStream in = new ByteArrayInputStream(xml) {
+
+            public void close() throws IOException {
+
+                closed[0] = true;
+                super.close();
+            }
+        };
+        TransformReader reader = TransformReader.newInstance(templates()
+                .newTransformer(), new StreamSource(in));
+        assertEquals("abc\n", readAll(reader));
+        assertTrue(closed[0]);
+    }
+
+    /**
+     * Test that closing the reader early terminates the transformation.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testClose1() throws Exception {
+
+        StringBuffer xml = new StringBuffer("<doc>");
+        for (int i = 0; i < 1000; i++) {
+            xml.append("<p>line</p>");
+        }
+        xml.append("</doc>");
+
+        TransformReader reader = TransformReader.newInstance(templates()
+                .newTransformer(), new StreamSource(new StringReader(xml
+                .toString())), 16);
+        assertEquals('l', reader.read());
+        reader.close();
+        try {
+            reader.read();
+            assertTrue(false);
+        } catch (IOException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Test that a stylesheet is compiled once and compiled again after it
+     * has been modified.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testCache1() throws Exception {
+
+        File file = File.createTempFile("extex", ".xsl");
+        try {
+            Writer w = new FileWriter(file);
+            w.write(XSL);
+            w.close();
+            file.setLastModified(1000000000000L);
+
+            TemplatesCache.clear();
+            long n = TemplatesCache.getCompilations();
+            Templates t = TemplatesCache.getTemplates(file.toURI().toURL(),
+                    null);
+            assertSame(t, TemplatesCache.getTemplates(file.toURI().toURL(),
+                    null));
+            assertEquals(n + 1, TemplatesCache.getCompilations());
+
+            file.setLastModified(1000000002000L);
+            assertNotSame(t, TemplatesCache.getTemplates(file.toURI().toURL(),
+                    null));
+            assertEquals(n + 2, TemplatesCache.getCompilations());
+        } finally {
+            file.delete();
+        }
+    }
+
+}
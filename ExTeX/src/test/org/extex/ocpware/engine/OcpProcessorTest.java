@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2006 The ExTeX Group and individual authors listed below
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation,
+ * Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ *
+ */
+
+package org.extex.ocpware.engine;
+
+import junit.framework.TestCase;
+
+import org.extex.ocpware.type.OcpProgram;
+
+/**
+ * Test for the OCP processor.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ * @version $Revision: 1.1 $
+ */
+public class OcpProcessorTest extends TestCase {
+
+    /**
+     * Command line interface.
+     * @param args the arguments
+     */
+    public static void main(final String[] args) {
+
+        junit.textui.TestRunner.run(OcpProcessorTest.class);
+    }
+
+    /**
+     * Make an instruction.
+     *
+     * @param code the operation code
+     * @param arg the argument
+     *
+     * @return the instruction
+     */
+    private static int op(final int code, final int arg) {
+
+        return (code << 24) | arg;
+    }
+
+    /**
+     * Run a program on an input string.
+     *
+     * @param program the program
+     * @param input the input
+     *
+     * @return the output
+     *
+     * @throws OcpException in case of an error
+     */
+    private static String run(final OcpProgram program, final String input)
+            throws OcpException {
+
+        OcpBuffer in = new OcpBuffer();
+        OcpBuffer out = new OcpBuffer();
+        in.append(input);
+        new OcpProcessor(program).process(in, out);
+        StringBuffer sb = new StringBuffer();
+        out.appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Test that a character is replaced and all others are copied.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testReplace() throws Exception {
+
+        OcpProgram p = new OcpProgram();
+        p.addState(new int[]{op(OcpProgram.LEFT_START, 0),
+                op(OcpProgram.GOTO_NE, 'a'), 5, //
+                op(OcpProgram.RIGHT_NUM, 'A'), op(OcpProgram.STOP, 0),
+                op(OcpProgram.RIGHT_CHAR, 1), op(OcpProgram.STOP, 0)});
+
+        assertEquals("bAnAnA", run(p, "banana"));
+        assertEquals("", run(p, ""));
+    }
+
+    /**
+     * Test the arithmetic and table lookup.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testLookup() throws Exception {
+
+        OcpProgram p = new OcpProgram();
+        p.addTable(new int[]{'o', 'i', 'w'});
+        p.addState(new int[]{op(OcpProgram.LEFT_START, 0),
+                op(OcpProgram.PUSH_NUM, 0), op(OcpProgram.PUSH_CHAR, 1),
+                op(OcpProgram.PUSH_NUM, '0'), op(OcpProgram.SUB, 0),
+                op(OcpProgram.LOOKUP, 0), op(OcpProgram.RIGHT_OUTPUT, 0),
+                op(OcpProgram.STOP, 0)});
+
+        assertEquals("wio", run(p, "210"));
+    }
+
+    /**
+     * Test that pushed back characters are read again.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testPushback() throws Exception {
+
+        OcpProgram p = new OcpProgram();
+        p.addState(new int[]{op(OcpProgram.LEFT_START, 0),
+                op(OcpProgram.GOTO_NE, 'x'), 5, //
+                op(OcpProgram.PBACK_NUM, 'y'), op(OcpProgram.STOP, 0),
+                op(OcpProgram.RIGHT_CHAR, 1), op(OcpProgram.STOP, 0)});
+
+        assertEquals("ayb", run(p, "axb"));
+    }
+
+    /**
+     * Test that a division by zero is reported.
+     *
+     * @throws Exception in case of an error
+     */
+    public void testDivisionByZero() throws Exception {
+
+        OcpProgram p = new OcpProgram();
+        p.addState(new int[]{op(OcpProgram.LEFT_START, 0),
+                op(OcpProgram.PUSH_NUM, 1), op(OcpProgram.PUSH_NUM, 0),
+                op(OcpProgram.DIV, 0), op(OcpProgram.RIGHT_OUTPUT, 0),
+                op(OcpProgram.STOP, 0)});
+
+        try {
+            run(p, "a");
+            fail();
+        } catch (OcpException e) {
+            assertTrue(true);
+        }
+    }
+
+}